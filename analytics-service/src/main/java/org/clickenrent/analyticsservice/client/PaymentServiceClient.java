@@ -1,13 +1,18 @@
 package org.clickenrent.analyticsservice.client;
 
 import org.clickenrent.analyticsservice.dto.RentalFinTransactionPageDTO;
+import org.clickenrent.contracts.payment.RentalDailyRefundDTO;
 import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 
+import java.time.LocalDate;
+import java.util.List;
+
 /**
  * Feign client for communicating with payment-service.
- * Used to fetch rental financial transaction data for refund analytics.
+ * Used to fetch rental financial transaction data and refund aggregates for revenue analytics.
  */
 @FeignClient(
     name = "payment-service",
@@ -28,4 +33,18 @@ public interface PaymentServiceClient {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "1000") int size
     );
+
+    /**
+     * Get refunded amounts of a period per rental and day, computed in SQL by payment-service.
+     * The payment-service will automatically filter by the user's company via security context.
+     *
+     * @param from Inclusive start date of the refund transactions
+     * @param to Inclusive end date of the refund transactions
+     * @return Refunds per rental and day
+     */
+    @GetMapping("/rental-fin-transactions/refunds/daily")
+    List<RentalDailyRefundDTO> getDailyRefunds(
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    );
 }
@@ -4,6 +4,9 @@ import org.clickenrent.analyticsservice.dto.BikePageDTO;
 import org.clickenrent.analyticsservice.dto.BikeRentalPageDTO;
 import org.clickenrent.analyticsservice.dto.LocationPageDTO;
 import org.clickenrent.analyticsservice.dto.RideSummaryDTO;
+import org.clickenrent.contracts.rental.FleetAggregatesDTO;
+import org.clickenrent.contracts.rental.BikeRentalHistogramBucketDTO;
+import org.clickenrent.contracts.rental.LocationDailyRevenueDTO;
 import org.clickenrent.contracts.rental.RentalDTO;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.data.domain.Page;
@@ -68,6 +71,44 @@ public interface RentalServiceClient {
             @RequestParam(defaultValue = "1000") int size
     );
 
+    /**
+     * Get bike counts by status and the battery level histogram, computed in SQL by rental-service.
+     * The rental-service will automatically filter by the user's company via security context.
+     *
+     * @return Fleet aggregates
+     */
+    @GetMapping("/bikes/fleet-aggregates")
+    FleetAggregatesDTO getFleetAggregates();
+
+    /**
+     * Get revenue and earnings of the bike rentals started in a period, per location and day, computed in SQL by rental-service.
+     * The rental-service will automatically filter by the user's company via security context.
+     *
+     * @param from Inclusive start date of the bike rentals
+     * @param to Inclusive end date of the bike rentals
+     * @return Revenue per location and day
+     */
+    @GetMapping("/bike-rentals/revenue-by-location")
+    List<LocationDailyRevenueDTO> getDailyRevenueByLocation(
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    );
+
+    /**
+     * Get bike rental counts and ride durations of a period per company, day, hour, bike type and status,
+     * computed in SQL by rental-service.
+     * The rental-service will automatically filter by the user's company via security context.
+     *
+     * @param from Inclusive start date of the bike rentals
+     * @param to Inclusive end date of the bike rentals
+     * @return Histogram buckets of the bike rentals
+     */
+    @GetMapping("/bike-rentals/histogram-buckets")
+    List<BikeRentalHistogramBucketDTO> getBikeRentalHistogramBuckets(
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    );
+
     /**
      * Get locations with pagination.
      * The rental-service will automatically filter by the user's company via security context.
@@ -0,0 +1,102 @@
+package org.clickenrent.analyticsservice.config;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.util.backoff.FixedBackOff;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Configuration
+public class KafkaConsumerConfig {
+
+    @Value("${spring.kafka.bootstrap-servers}")
+    private String bootstrapServers;
+
+    @Value("${spring.kafka.consumer.group-id:analytics-service-group}")
+    private String groupId;
+
+    @Value("${kafka.consumer.auto-startup:true}")
+    private boolean autoStartup;
+
+    @Value("${rental-histogram.retry-interval-ms:5000}")
+    private long histogramRetryIntervalMs;
+
+    @Bean
+    public ConsumerFactory<String, Object> consumerFactory() {
+        return new DefaultKafkaConsumerFactory<>(consumerConfig());
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, Object> kafkaListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, Object> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory());
+        factory.setAutoStartup(autoStartup);
+        return factory;
+    }
+
+    /**
+     * Listeners that every replica runs in a group of its own (kafka.consumer.instance-id) for in-memory state.
+     * Offsets are never committed: each start resumes from the latest offset, and the broker removes the
+     * group as soon as its replica leaves instead of keeping its offsets around.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, Object> replicaListenerContainerFactory() {
+        Map<String, Object> config = consumerConfig();
+        config.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+
+        ConcurrentKafkaListenerContainerFactory<String, Object> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(new DefaultKafkaConsumerFactory<>(config));
+        // The listeners take no Acknowledgment, so nothing is ever acknowledged and committed
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        factory.setAutoStartup(autoStartup);
+        return factory;
+    }
+
+    /**
+     * Batch listeners whose offsets are committed only after the listener returned, for the stored histograms.
+     * A failed batch is retried until it is written, since committing past it would lose its events.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, Object> rentalHistogramListenerContainerFactory() {
+        Map<String, Object> config = consumerConfig();
+        config.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+
+        ConcurrentKafkaListenerContainerFactory<String, Object> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(new DefaultKafkaConsumerFactory<>(config));
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.BATCH);
+        factory.setCommonErrorHandler(new DefaultErrorHandler(
+                new FixedBackOff(histogramRetryIntervalMs, FixedBackOff.UNLIMITED_ATTEMPTS)));
+        factory.setAutoStartup(autoStartup);
+        return factory;
+    }
+
+    private Map<String, Object> consumerConfig() {
+        Map<String, Object> config = new HashMap<>();
+        config.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        config.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
+        config.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        config.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ErrorHandlingDeserializer.class);
+        config.put(ErrorHandlingDeserializer.VALUE_DESERIALIZER_CLASS, JsonDeserializer.class);
+        config.put(JsonDeserializer.TRUSTED_PACKAGES, "org.clickenrent.contracts.*");
+        config.put(JsonDeserializer.VALUE_DEFAULT_TYPE, "org.clickenrent.contracts.rental.RentalEvent");
+        // Counters are rebuilt on reconciliation, so only events produced from now on matter
+        config.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+        config.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, true);
+        return config;
+    }
+}
@@ -0,0 +1,13 @@
+package org.clickenrent.analyticsservice.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Configuration for Spring Scheduling.
+ * Enables @Scheduled support for the metrics retention job.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
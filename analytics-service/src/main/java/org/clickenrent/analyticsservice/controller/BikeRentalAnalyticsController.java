@@ -11,10 +11,12 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.clickenrent.analyticsservice.dto.BikeRentalAnalyticsDTO;
 import org.clickenrent.analyticsservice.service.BikeRentalAnalyticsService;
+import org.clickenrent.analyticsservice.service.RentalHistogramBackfillService;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -33,6 +35,7 @@ import java.time.LocalDate;
 public class BikeRentalAnalyticsController {
 
     private final BikeRentalAnalyticsService bikeRentalAnalyticsService;
+    private final RentalHistogramBackfillService rentalHistogramBackfillService;
 
     /**
      * Get bike rental analytics with patterns and trends.
@@ -85,4 +88,31 @@ public class BikeRentalAnalyticsController {
         BikeRentalAnalyticsDTO analytics = bikeRentalAnalyticsService.getBikeRentalAnalytics(from, to, groupBy);
         return ResponseEntity.ok(analytics);
     }
+
+    /**
+     * Rebuild the daily rental histograms of a period from the bike rentals in rental-service.
+     * Run once for the days before histograms were maintained from rental events; safe to run again.
+     * POST /api/v1/analytics/bike-rentals/histograms/backfill
+     */
+    @PostMapping("/histograms/backfill")
+    @PreAuthorize("hasAnyRole('SUPERADMIN', 'ADMIN')")
+    @Operation(
+            summary = "Backfill rental histograms",
+            description = "Replaces the daily rental histograms of all companies in the period by counts aggregated " +
+                    "in rental-service. Returns the number of written company days. The period must end before " +
+                    "the days that may still receive rental events (rental-histogram.backfill.open-days)."
+    )
+    public ResponseEntity<Integer> backfillHistograms(
+            @Parameter(description = "Start date (format: yyyy-MM-dd, required)", required = true)
+            @RequestParam
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+            LocalDate from,
+
+            @Parameter(description = "End date (format: yyyy-MM-dd, required)", required = true)
+            @RequestParam
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+            LocalDate to) {
+
+        return ResponseEntity.ok(rentalHistogramBackfillService.backfill(from, to));
+    }
 }
@@ -10,11 +10,14 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.clickenrent.analyticsservice.dto.RealtimeMetricsDTO;
 import org.clickenrent.analyticsservice.service.RealtimeMetricsService;
+import org.clickenrent.analyticsservice.service.RealtimeMetricsStreamService;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 /**
  * REST controller for real-time analytics endpoints.
@@ -28,6 +31,7 @@ import org.springframework.web.bind.annotation.RestController;
 public class RealtimeMetricsController {
 
     private final RealtimeMetricsService realtimeMetricsService;
+    private final RealtimeMetricsStreamService realtimeMetricsStreamService;
 
     /**
      * Get real-time system metrics.
@@ -64,4 +68,28 @@ public class RealtimeMetricsController {
         RealtimeMetricsDTO metrics = realtimeMetricsService.getRealtimeMetrics();
         return ResponseEntity.ok(metrics);
     }
+
+    /**
+     * Stream real-time system metrics as Server-Sent Events.
+     * GET /api/v1/analytics/realtime/stream
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("isAuthenticated()")
+    @Operation(
+            summary = "Stream real-time metrics",
+            description = "Server-Sent Events stream of the real-time metrics, replacing polling of GET /api/v1/analytics/realtime. " +
+                    "The first 'snapshot' event carries all metrics; 'delta' events then carry only the fields that changed, " +
+                    "plus the timestamp, at most once per push interval. The stream ends when the access token expires " +
+                    "and should be reopened with a fresh one. Customer users are not allowed to access this endpoint."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Stream opened"),
+            @ApiResponse(
+                    responseCode = "401",
+                    description = "Not authenticated or insufficient permissions (customer role)"
+            )
+    })
+    public SseEmitter streamRealtimeMetrics() {
+        return realtimeMetricsStreamService.subscribe();
+    }
 }
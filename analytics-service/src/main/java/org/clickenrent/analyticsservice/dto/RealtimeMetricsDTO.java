@@ -23,4 +23,5 @@ public class RealtimeMetricsDTO {
     private BigDecimal revenueLast15Minutes;
     private Integer availableBikes;
     private Integer inProgressSupportRequests;
+    private String reconciledAt;  // ISO 8601, last refresh of the live counters from the source services
 }
@@ -18,18 +18,23 @@ import java.util.UUID;
  * Entity representing bike-based analytics metrics by date.
  * Stores pre-computed bike metrics for fast query performance.
  * Implements TenantScoped for multi-tenant isolation.
+ * The table is range-partitioned by month on metric_date (V3 migration); unique keys include metric_date
+ * and the BRIN index on it is managed by Flyway rather than declared here.
  */
 @Entity
 @Table(
     name = "analytics_bike_metrics",
     indexes = {
-        @Index(name = "idx_analytics_bike_date", columnList = "metric_date DESC"),
         @Index(name = "idx_analytics_bike_external_id", columnList = "bike_external_id"),
         @Index(name = "idx_analytics_bike_company", columnList = "company_external_id"),
         @Index(name = "idx_analytics_bike_entity_external_id", columnList = "external_id"),
         @Index(name = "idx_analytics_bike_code", columnList = "bike_code")
     },
     uniqueConstraints = {
+        @UniqueConstraint(
+            name = "uk_analytics_bike_metrics_external_id",
+            columnNames = {"external_id", "metric_date"}
+        ),
         @UniqueConstraint(
             name = "uk_analytics_bike_metrics",
             columnNames = {"company_external_id", "metric_date", "bike_external_id"}
@@ -52,7 +57,7 @@ public class AnalyticsBikeMetrics extends BaseAuditEntity implements TenantScope
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(name = "external_id", unique = true, length = 100, nullable = false)
+    @Column(name = "external_id", length = 100, nullable = false)
     private String externalId;
 
     @NotNull(message = "Company external ID is required")
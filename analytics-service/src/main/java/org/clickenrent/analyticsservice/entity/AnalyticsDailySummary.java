@@ -17,16 +17,21 @@ import java.util.UUID;
  * Entity representing daily aggregated analytics summary.
  * Stores pre-computed metrics for fast query performance.
  * Implements TenantScoped for multi-tenant isolation.
+ * The table is range-partitioned by month on summary_date (V3 migration); unique keys include summary_date
+ * and the BRIN index on it is managed by Flyway rather than declared here.
  */
 @Entity
 @Table(
     name = "analytics_daily_summary",
     indexes = {
-        @Index(name = "idx_analytics_daily_summary_date", columnList = "summary_date DESC"),
         @Index(name = "idx_analytics_daily_summary_company", columnList = "company_external_id"),
         @Index(name = "idx_analytics_daily_summary_external_id", columnList = "external_id")
     },
     uniqueConstraints = {
+        @UniqueConstraint(
+            name = "uk_analytics_daily_summary_external_id",
+            columnNames = {"external_id", "summary_date"}
+        ),
         @UniqueConstraint(
             name = "uk_analytics_daily_summary_company_date",
             columnNames = {"company_external_id", "summary_date"}
@@ -49,7 +54,7 @@ public class AnalyticsDailySummary extends BaseAuditEntity implements TenantScop
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(name = "external_id", unique = true, length = 100, nullable = false)
+    @Column(name = "external_id", length = 100, nullable = false)
     private String externalId;
 
     @NotNull(message = "Company external ID is required")
@@ -16,16 +16,21 @@ import java.util.UUID;
  * Entity representing hourly aggregated analytics metrics.
  * Stores pre-computed hourly metrics for fast query performance.
  * Implements TenantScoped for multi-tenant isolation.
+ * The table is range-partitioned by month on metric_hour (V3 migration); unique keys include metric_hour
+ * and the BRIN index on it is managed by Flyway rather than declared here.
  */
 @Entity
 @Table(
     name = "analytics_hourly_metrics",
     indexes = {
-        @Index(name = "idx_analytics_hourly_hour", columnList = "metric_hour DESC"),
         @Index(name = "idx_analytics_hourly_company", columnList = "company_external_id"),
         @Index(name = "idx_analytics_hourly_external_id", columnList = "external_id")
     },
     uniqueConstraints = {
+        @UniqueConstraint(
+            name = "uk_analytics_hourly_metrics_external_id",
+            columnNames = {"external_id", "metric_hour"}
+        ),
         @UniqueConstraint(
             name = "uk_analytics_hourly_metrics_company_hour",
             columnNames = {"company_external_id", "metric_hour"}
@@ -48,7 +53,7 @@ public class AnalyticsHourlyMetrics extends BaseAuditEntity implements TenantSco
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(name = "external_id", unique = true, length = 100, nullable = false)
+    @Column(name = "external_id", length = 100, nullable = false)
     private String externalId;
 
     @NotNull(message = "Company external ID is required")
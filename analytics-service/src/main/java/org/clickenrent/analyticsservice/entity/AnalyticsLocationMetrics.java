@@ -17,17 +17,22 @@ import java.util.UUID;
  * Entity representing location-based analytics metrics by date.
  * Stores pre-computed location metrics for fast query performance.
  * Implements TenantScoped for multi-tenant isolation.
+ * The table is range-partitioned by month on metric_date (V3 migration); unique keys include metric_date
+ * and the BRIN index on it is managed by Flyway rather than declared here.
  */
 @Entity
 @Table(
     name = "analytics_location_metrics",
     indexes = {
-        @Index(name = "idx_analytics_location_date", columnList = "metric_date DESC"),
         @Index(name = "idx_analytics_location_external_id", columnList = "location_external_id"),
         @Index(name = "idx_analytics_location_company", columnList = "company_external_id"),
         @Index(name = "idx_analytics_location_entity_external_id", columnList = "external_id")
     },
     uniqueConstraints = {
+        @UniqueConstraint(
+            name = "uk_analytics_location_metrics_external_id",
+            columnNames = {"external_id", "metric_date"}
+        ),
         @UniqueConstraint(
             name = "uk_analytics_location_metrics",
             columnNames = {"company_external_id", "metric_date", "location_external_id"}
@@ -50,7 +55,7 @@ public class AnalyticsLocationMetrics extends BaseAuditEntity implements TenantS
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(name = "external_id", unique = true, length = 100, nullable = false)
+    @Column(name = "external_id", length = 100, nullable = false)
     private String externalId;
 
     @NotNull(message = "Company external ID is required")
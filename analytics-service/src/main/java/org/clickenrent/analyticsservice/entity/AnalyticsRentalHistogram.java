@@ -0,0 +1,130 @@
+package org.clickenrent.analyticsservice.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+import org.clickenrent.contracts.security.TenantScoped;
+import org.hibernate.annotations.Filter;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Entity holding the bike rental histogram of one company and day.
+ * Bike rentals are counted on the day they started: hour-of-day buckets, counts per bike type and
+ * the sum, min and max of ride durations. Maintained incrementally from rental events, so any date range
+ * is answered by merging one row per company and day.
+ * Implements TenantScoped for multi-tenant isolation.
+ */
+@Entity
+@Table(
+    name = "analytics_rental_histogram",
+    indexes = {
+        @Index(name = "idx_analytics_rental_histogram_date", columnList = "histogram_date")
+    },
+    uniqueConstraints = {
+        @UniqueConstraint(
+            name = "uk_analytics_rental_histogram_company_date",
+            columnNames = {"company_external_id", "histogram_date"}
+        )
+    }
+)
+@Filter(name = "companyFilter", condition = "company_external_id IN (:companyExternalIds)")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@SuperBuilder
+@ToString(callSuper = true)
+@EqualsAndHashCode(of = "id", callSuper = false)
+public class AnalyticsRentalHistogram extends BaseAuditEntity implements TenantScoped {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "external_id", unique = true, length = 100, nullable = false)
+    private String externalId;
+
+    @NotNull(message = "Company external ID is required")
+    @Column(name = "company_external_id", nullable = false, length = 100)
+    private String companyExternalId;
+
+    @NotNull(message = "Histogram date is required")
+    @Column(name = "histogram_date", nullable = false)
+    private LocalDate histogramDate;
+
+    @Column(name = "bike_rentals_started", nullable = false)
+    @Builder.Default
+    private Long bikeRentalsStarted = 0L;
+
+    @Column(name = "bike_rentals_completed", nullable = false)
+    @Builder.Default
+    private Long bikeRentalsCompleted = 0L;
+
+    @Column(name = "bike_rentals_cancelled", nullable = false)
+    @Builder.Default
+    private Long bikeRentalsCancelled = 0L;
+
+    // Bike rentals started per hour of day, 24 comma-separated counts
+    @Convert(converter = HourCountsConverter.class)
+    @Column(name = "hour_counts", nullable = false, length = 500)
+    @Builder.Default
+    private long[] hourCounts = new long[24];
+
+    // Bike rentals started per bike type name, as JSON
+    @Convert(converter = BikeTypeCountsConverter.class)
+    @Column(name = "bike_type_counts", nullable = false, columnDefinition = "TEXT")
+    @Builder.Default
+    private Map<String, Long> bikeTypeCounts = new HashMap<>();
+
+    // Ride durations of ended bike rentals
+    @Column(name = "duration_count", nullable = false)
+    @Builder.Default
+    private Long durationCount = 0L;
+
+    @Column(name = "duration_sum_minutes", nullable = false)
+    @Builder.Default
+    private Long durationSumMinutes = 0L;
+
+    @Column(name = "duration_min_minutes")
+    private Long durationMinMinutes;
+
+    @Column(name = "duration_max_minutes")
+    private Long durationMaxMinutes;
+
+    @Override
+    public Long getId() {
+        return this.id;
+    }
+
+    @Override
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    @Override
+    public String getExternalId() {
+        return this.externalId;
+    }
+
+    @Override
+    public void setExternalId(String externalId) {
+        this.externalId = externalId;
+    }
+
+    @PrePersist
+    public void prePersist() {
+        if (externalId == null || externalId.isEmpty()) {
+            externalId = UUID.randomUUID().toString();
+        }
+    }
+
+    @Override
+    public String getCompanyExternalId() {
+        return this.companyExternalId;
+    }
+}
@@ -0,0 +1,47 @@
+package org.clickenrent.analyticsservice.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entity recording a rental event already counted in the daily rental histograms.
+ * Written in the transaction that adds the event's delta, so a batch replayed after a crash
+ * (or an event the outbox relayed twice) is recognised and not counted again.
+ */
+@Entity
+@Table(
+    name = "analytics_rental_histogram_event",
+    indexes = {
+        @Index(name = "idx_analytics_rental_histogram_event_processed_at", columnList = "processed_at")
+    }
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AnalyticsRentalHistogramEvent implements Persistable<String> {
+
+    @Id
+    @Column(name = "event_id", length = 100)
+    private String eventId;
+
+    @Column(name = "processed_at", nullable = false)
+    private LocalDateTime processedAt;
+
+    @Override
+    public String getId() {
+        return eventId;
+    }
+
+    /**
+     * Always inserted, never updated; saves the lookup merge would do for an assigned id.
+     */
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+}
@@ -0,0 +1,42 @@
+package org.clickenrent.analyticsservice.entity;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Stores the per bike type counts of a rental histogram as a JSON object.
+ */
+@Converter
+public class BikeTypeCountsConverter implements AttributeConverter<Map<String, Long>, String> {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final TypeReference<Map<String, Long>> TYPE = new TypeReference<>() {
+    };
+
+    @Override
+    public String convertToDatabaseColumn(Map<String, Long> counts) {
+        try {
+            return OBJECT_MAPPER.writeValueAsString(counts != null ? counts : Map.of());
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Failed to serialize bike type counts", e);
+        }
+    }
+
+    @Override
+    public Map<String, Long> convertToEntityAttribute(String column) {
+        if (column == null || column.isBlank()) {
+            return new HashMap<>();
+        }
+        try {
+            return new HashMap<>(OBJECT_MAPPER.readValue(column, TYPE));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Failed to read bike type counts", e);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package org.clickenrent.analyticsservice.entity;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Stores the 24 hour-of-day counts of a rental histogram as comma-separated numbers.
+ */
+@Converter
+public class HourCountsConverter implements AttributeConverter<long[], String> {
+
+    static final int HOURS = 24;
+
+    @Override
+    public String convertToDatabaseColumn(long[] counts) {
+        long[] hours = counts != null ? counts : new long[HOURS];
+        return Arrays.stream(hours)
+                .mapToObj(Long::toString)
+                .collect(Collectors.joining(","));
+    }
+
+    @Override
+    public long[] convertToEntityAttribute(String column) {
+        long[] counts = new long[HOURS];
+        if (column == null || column.isBlank()) {
+            return counts;
+        }
+        String[] values = column.split(",");
+        for (int hour = 0; hour < Math.min(values.length, HOURS); hour++) {
+            counts[hour] = Long.parseLong(values[hour].trim());
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,77 @@
+package org.clickenrent.analyticsservice.event;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.clickenrent.analyticsservice.service.AnalyticsResultCache;
+import org.clickenrent.analyticsservice.service.RealtimeMetricsStore;
+import org.clickenrent.analyticsservice.service.RentalHistogramRecorder;
+import org.clickenrent.contracts.rental.RentalEvent;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Applies bike rental events to the live counters of the real-time dashboard
+ * and to the daily rental histograms behind the bike rental analytics,
+ * and evicts the cached analytics results they change.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RentalEventConsumer {
+
+    private static final String STATUS_ACTIVE = "Active";
+
+    private final RealtimeMetricsStore realtimeMetricsStore;
+    private final RentalHistogramRecorder rentalHistogramRecorder;
+    private final AnalyticsResultCache analyticsResultCache;
+
+    // Every replica holds its own counters, so each one consumes the topic in its own group
+    @KafkaListener(
+            topics = "${kafka.topics.rental-events}",
+            groupId = "analytics-service-realtime-${kafka.consumer.instance-id}",
+            containerFactory = "replicaListenerContainerFactory"
+    )
+    public void consumeRentalEvent(@Payload RentalEvent event) {
+        if (RentalEvent.BIKE_RENTAL_STARTED.equals(event.getEventType())) {
+            Instant startedAt = event.getTimestamp() != null ? event.getTimestamp().toInstant() : Instant.now();
+            realtimeMetricsStore.bikeRentalStarted(event.getCompanyExternalId(), event.getBikeRentalExternalId(),
+                    STATUS_ACTIVE.equalsIgnoreCase(event.getBikeRentalStatusName()), event.getTotalPrice(), startedAt);
+        } else if (RentalEvent.BIKE_RENTAL_ENDED.equals(event.getEventType())) {
+            realtimeMetricsStore.bikeRentalEnded(event.getCompanyExternalId(), event.getBikeRentalExternalId());
+        } else {
+            return;
+        }
+
+        log.debug("Applied {} event for bike rental {} to real-time metrics",
+                event.getEventType(), event.getBikeRentalExternalId());
+    }
+
+    // Stored histograms are shared, so all replicas consume in the service's group and each event is counted once;
+    // a poll is written in one transaction before its offsets are committed
+    @KafkaListener(
+            topics = "${kafka.topics.rental-events}",
+            containerFactory = "rentalHistogramListenerContainerFactory"
+    )
+    public void recordRentalHistograms(@Payload List<RentalEvent> events) {
+        rentalHistogramRecorder.record(events);
+    }
+
+    // Cached results are per replica too, so each one consumes the topic in its own group
+    @KafkaListener(
+            topics = "${kafka.topics.rental-events}",
+            groupId = "analytics-service-cache-${kafka.consumer.instance-id}",
+            containerFactory = "replicaListenerContainerFactory"
+    )
+    public void evictCachedResults(@Payload RentalEvent event) {
+        // Rental level events carry no start day, so they evict every range of the company
+        LocalDate day = event.getStartDateTime() != null ? event.getStartDateTime().toLocalDate() : null;
+        analyticsResultCache.invalidate(event.getCompanyExternalId(), day);
+        log.debug("Evicted cached analytics results for company {} on {} after {} event",
+                event.getCompanyExternalId(), day, event.getEventType());
+    }
+}
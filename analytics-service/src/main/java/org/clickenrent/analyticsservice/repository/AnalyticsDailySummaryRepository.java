@@ -1,10 +1,13 @@
 package org.clickenrent.analyticsservice.repository;
 
 import org.clickenrent.analyticsservice.entity.AnalyticsDailySummary;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -31,6 +34,11 @@ public interface AnalyticsDailySummaryRepository extends JpaRepository<Analytics
      */
     List<AnalyticsDailySummary> findByCompanyExternalId(String companyExternalId);
 
+    /**
+     * Find a page of summaries for any of the given companies
+     */
+    Page<AnalyticsDailySummary> findByCompanyExternalIdIn(Collection<String> companyExternalIds, Pageable pageable);
+
     /**
      * Find summaries within a date range (all companies)
      * Note: Hibernate filters will apply tenant isolation automatically
@@ -1,10 +1,13 @@
 package org.clickenrent.analyticsservice.repository;
 
 import org.clickenrent.analyticsservice.entity.AnalyticsHourlyMetrics;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 import java.time.ZonedDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -31,6 +34,11 @@ public interface AnalyticsHourlyMetricsRepository extends JpaRepository<Analytic
      */
     List<AnalyticsHourlyMetrics> findByCompanyExternalId(String companyExternalId);
 
+    /**
+     * Find a page of metrics for any of the given companies
+     */
+    Page<AnalyticsHourlyMetrics> findByCompanyExternalIdIn(Collection<String> companyExternalIds, Pageable pageable);
+
     /**
      * Find metrics within a time range (all companies)
      * Note: Hibernate filters will apply tenant isolation automatically
@@ -1,10 +1,13 @@
 package org.clickenrent.analyticsservice.repository;
 
 import org.clickenrent.analyticsservice.entity.AnalyticsLocationMetrics;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -31,6 +34,11 @@ public interface AnalyticsLocationMetricsRepository extends JpaRepository<Analyt
      */
     List<AnalyticsLocationMetrics> findByCompanyExternalId(String companyExternalId);
 
+    /**
+     * Find a page of metrics for any of the given companies
+     */
+    Page<AnalyticsLocationMetrics> findByCompanyExternalIdIn(Collection<String> companyExternalIds, Pageable pageable);
+
     /**
      * Find all metrics for a specific location
      */
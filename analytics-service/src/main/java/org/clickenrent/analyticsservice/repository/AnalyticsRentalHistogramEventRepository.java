@@ -0,0 +1,25 @@
+package org.clickenrent.analyticsservice.repository;
+
+import org.clickenrent.analyticsservice.entity.AnalyticsRentalHistogramEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Repository interface for AnalyticsRentalHistogramEvent entity.
+ * Looks up which events of a batch were already counted and purges records past the replay window.
+ */
+@Repository
+public interface AnalyticsRentalHistogramEventRepository extends JpaRepository<AnalyticsRentalHistogramEvent, String> {
+
+    /**
+     * Delete the records of events counted before the given time
+     */
+    @Modifying
+    @Query("DELETE FROM AnalyticsRentalHistogramEvent e WHERE e.processedAt < :before")
+    int deleteByProcessedAtBefore(@Param("before") LocalDateTime before);
+}
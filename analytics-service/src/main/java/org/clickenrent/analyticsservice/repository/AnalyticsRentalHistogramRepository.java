@@ -0,0 +1,49 @@
+package org.clickenrent.analyticsservice.repository;
+
+import jakarta.persistence.LockModeType;
+import org.clickenrent.analyticsservice.entity.AnalyticsRentalHistogram;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository interface for AnalyticsRentalHistogram entity.
+ * Provides the locked lookup used to add event deltas, the date range queries used to merge histograms
+ * and the date range delete used by the backfill.
+ */
+@Repository
+public interface AnalyticsRentalHistogramRepository extends JpaRepository<AnalyticsRentalHistogram, Long> {
+
+    /**
+     * Find and lock the histogram of a company and day, so concurrent writers add their deltas one after another
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<AnalyticsRentalHistogram> findForUpdateByCompanyExternalIdAndHistogramDate(
+            String companyExternalId, LocalDate histogramDate);
+
+    /**
+     * Find daily histograms within a date range (all companies)
+     */
+    List<AnalyticsRentalHistogram> findByHistogramDateBetween(LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Find daily histograms within a date range for any of the given companies
+     */
+    List<AnalyticsRentalHistogram> findByCompanyExternalIdInAndHistogramDateBetween(
+            Collection<String> companyExternalIds, LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Delete the histograms of all companies within a date range, before they are rebuilt by the backfill
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM AnalyticsRentalHistogram h WHERE h.histogramDate BETWEEN :startDate AND :endDate")
+    int deleteByHistogramDateBetween(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+}
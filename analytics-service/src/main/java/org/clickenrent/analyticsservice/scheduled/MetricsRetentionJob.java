@@ -0,0 +1,212 @@
+package org.clickenrent.analyticsservice.scheduled;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * Scheduled job maintaining the monthly partitions of the analytics metric tables (V3 migration).
+ * Runs daily at 03:30 by default (configurable via cron expression) and:
+ * - creates the partitions for the coming months before rows arrive for them,
+ * - drops whole partitions past the retention period instead of deleting rows one by one,
+ * - rolls hourly metrics older than the downsampling age up to one row per company and UTC day,
+ * - deletes the records of rental events counted in the daily histograms once they can no longer be replayed.
+ *
+ * Only enabled together with Flyway, which creates the partitions and the functions called here.
+ * Each step is a single statement per table, so a failure on one table does not block the others.
+ * Every replica schedules the job; a PostgreSQL advisory lock lets only one of them run it at a time.
+ */
+@Component
+@ConditionalOnProperty(name = "analytics.retention.enabled", havingValue = "true")
+@Slf4j
+public class MetricsRetentionJob {
+
+    static final String HOURLY_TABLE = "analytics_hourly_metrics";
+    static final List<String> DAILY_TABLES = List.of(
+            "analytics_daily_summary", "analytics_bike_metrics", "analytics_location_metrics");
+
+    /** Advisory lock key shared by all replicas ("analytic" in ASCII). */
+    static final long ADVISORY_LOCK_KEY = 0x616e616c79746963L;
+    static final String TRY_LOCK_SQL = "SELECT pg_try_advisory_lock(?)";
+    static final String UNLOCK_SQL = "SELECT pg_advisory_unlock(?)";
+
+    static final String CREATE_PARTITIONS_SQL = "SELECT analytics_create_monthly_partitions(?, ?, ?)";
+    static final String DROP_PARTITIONS_SQL = "SELECT analytics_drop_partitions_before(?, ?)";
+
+    /**
+     * Replace the hourly rows of every company and UTC day before the cutoff by one row at midnight.
+     * Days already rolled up (a single row at midnight) are left alone; soft-deleted rows are purged.
+     * Counters are summed; active customers is the busiest hour, as hourly distinct counts can't be added.
+     */
+    static final String DOWNSAMPLE_HOURLY_SQL =
+            "WITH rolled_up AS ( " +
+            "    DELETE FROM analytics_hourly_metrics h " +
+            "    USING ( " +
+            "        SELECT company_external_id, date_trunc('day', metric_hour AT TIME ZONE 'UTC') AS metric_day " +
+            "        FROM analytics_hourly_metrics " +
+            "        WHERE metric_hour < ? " +
+            "        GROUP BY company_external_id, date_trunc('day', metric_hour AT TIME ZONE 'UTC') " +
+            "        HAVING COUNT(*) > 1 " +
+            "            OR MIN(metric_hour AT TIME ZONE 'UTC') <> date_trunc('day', metric_hour AT TIME ZONE 'UTC') " +
+            "    ) d " +
+            "    WHERE h.company_external_id = d.company_external_id " +
+            "      AND h.metric_hour >= d.metric_day AT TIME ZONE 'UTC' " +
+            "      AND h.metric_hour < (d.metric_day + INTERVAL '1 day') AT TIME ZONE 'UTC' " +
+            "    RETURNING h.* " +
+            ") " +
+            "INSERT INTO analytics_hourly_metrics (external_id, company_external_id, metric_hour, " +
+            "    bike_rentals_started, bike_rentals_completed, bike_rental_revenue_cents, " +
+            "    active_customers, new_registrations, date_created, created_by, is_deleted) " +
+            "SELECT gen_random_uuid()::text, company_external_id, " +
+            "    date_trunc('day', metric_hour AT TIME ZONE 'UTC') AT TIME ZONE 'UTC', " +
+            "    SUM(bike_rentals_started), SUM(bike_rentals_completed), SUM(bike_rental_revenue_cents), " +
+            "    MAX(active_customers), SUM(new_registrations), CURRENT_TIMESTAMP, 'metrics-retention-job', false " +
+            "FROM rolled_up " +
+            "WHERE is_deleted = false " +
+            "GROUP BY company_external_id, date_trunc('day', metric_hour AT TIME ZONE 'UTC')";
+
+    static final String DELETE_HISTOGRAM_EVENTS_SQL =
+            "DELETE FROM analytics_rental_histogram_event WHERE processed_at < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int partitionMonthsAhead;
+    private final int hourlyDownsampleAfterDays;
+    private final int hourlyRetentionDays;
+    private final int dailyRetentionDays;
+    private final int histogramEventRetentionDays;
+
+    public MetricsRetentionJob(
+            JdbcTemplate jdbcTemplate,
+            @Value("${analytics.retention.partition-months-ahead:3}") int partitionMonthsAhead,
+            @Value("${analytics.retention.hourly-downsample-after-days:30}") int hourlyDownsampleAfterDays,
+            @Value("${analytics.retention.hourly-retention-days:730}") int hourlyRetentionDays,
+            @Value("${analytics.retention.daily-retention-days:1825}") int dailyRetentionDays,
+            @Value("${analytics.retention.histogram-event-retention-days:7}") int histogramEventRetentionDays) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.partitionMonthsAhead = partitionMonthsAhead;
+        this.hourlyDownsampleAfterDays = hourlyDownsampleAfterDays;
+        this.hourlyRetentionDays = hourlyRetentionDays;
+        this.dailyRetentionDays = dailyRetentionDays;
+        this.histogramEventRetentionDays = histogramEventRetentionDays;
+    }
+
+    @Scheduled(cron = "${analytics.retention.cron:0 30 3 * * *}")
+    public void maintainMetricTables() {
+        runExclusively(LocalDate.now(ZoneOffset.UTC));
+    }
+
+    /**
+     * Run the job unless another replica holds the advisory lock.
+     * The lock is session-level, so it is held on a connection of its own for the whole run and released
+     * on that same connection; the steps themselves run on other pooled connections.
+     *
+     * @return Whether this replica ran the job
+     */
+    boolean runExclusively(LocalDate today) {
+        Boolean ran = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            if (!advisoryLock(connection, TRY_LOCK_SQL)) {
+                log.info("Analytics metrics retention job for {} is already running on another instance", today);
+                return false;
+            }
+            try {
+                run(today);
+            } finally {
+                advisoryLock(connection, UNLOCK_SQL);
+            }
+            return true;
+        });
+        return Boolean.TRUE.equals(ran);
+    }
+
+    private boolean advisoryLock(Connection connection, String sql) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setLong(1, ADVISORY_LOCK_KEY);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        }
+    }
+
+    /**
+     * Run all steps as of the given UTC day.
+     */
+    void run(LocalDate today) {
+        log.info("Starting analytics metrics retention job for {}", today);
+
+        LocalDate currentMonth = today.withDayOfMonth(1);
+        createPartitions(HOURLY_TABLE, currentMonth);
+        DAILY_TABLES.forEach(table -> createPartitions(table, currentMonth));
+
+        // 0 keeps data forever
+        if (hourlyRetentionDays > 0) {
+            dropPartitions(HOURLY_TABLE, today.minusDays(hourlyRetentionDays));
+        }
+        if (dailyRetentionDays > 0) {
+            DAILY_TABLES.forEach(table -> dropPartitions(table, today.minusDays(dailyRetentionDays)));
+        }
+
+        if (hourlyDownsampleAfterDays > 0) {
+            downsampleHourly(today.minusDays(hourlyDownsampleAfterDays));
+        }
+
+        if (histogramEventRetentionDays > 0) {
+            deleteHistogramEvents(today.minusDays(histogramEventRetentionDays));
+        }
+
+        log.info("Analytics metrics retention job completed");
+    }
+
+    private void createPartitions(String table, LocalDate currentMonth) {
+        try {
+            Integer created = jdbcTemplate.queryForObject(CREATE_PARTITIONS_SQL, Integer.class,
+                    table, currentMonth, currentMonth.plusMonths(partitionMonthsAhead));
+            if (created != null && created > 0) {
+                log.info("Created {} monthly partitions for {}", created, table);
+            }
+        } catch (DataAccessException e) {
+            log.error("Failed to create monthly partitions for {}", table, e);
+        }
+    }
+
+    private void dropPartitions(String table, LocalDate cutoff) {
+        try {
+            Integer dropped = jdbcTemplate.queryForObject(DROP_PARTITIONS_SQL, Integer.class, table, cutoff);
+            if (dropped != null && dropped > 0) {
+                log.info("Dropped {} partitions of {} older than {}", dropped, table, cutoff);
+            }
+        } catch (DataAccessException e) {
+            log.error("Failed to drop partitions of {} older than {}", table, cutoff, e);
+        }
+    }
+
+    private void downsampleHourly(LocalDate cutoff) {
+        try {
+            int days = jdbcTemplate.update(DOWNSAMPLE_HOURLY_SQL, cutoff.atStartOfDay().atOffset(ZoneOffset.UTC));
+            log.info("Rolled up hourly metrics before {} into {} company-day rows", cutoff, days);
+        } catch (DataAccessException e) {
+            log.error("Failed to roll up hourly metrics before {}", cutoff, e);
+        }
+    }
+
+    private void deleteHistogramEvents(LocalDate cutoff) {
+        try {
+            int deleted = jdbcTemplate.update(DELETE_HISTOGRAM_EVENTS_SQL, cutoff.atStartOfDay());
+            log.info("Deleted {} counted rental histogram events before {}", deleted, cutoff);
+        } catch (DataAccessException e) {
+            log.error("Failed to delete counted rental histogram events before {}", cutoff, e);
+        }
+    }
+}
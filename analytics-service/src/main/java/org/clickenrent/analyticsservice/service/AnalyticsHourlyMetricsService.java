@@ -10,7 +10,6 @@ import org.clickenrent.analyticsservice.exception.UnauthorizedException;
 import org.clickenrent.analyticsservice.mapper.AnalyticsHourlyMetricsMapper;
 import org.clickenrent.analyticsservice.repository.AnalyticsHourlyMetricsRepository;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -47,16 +46,9 @@ public class AnalyticsHourlyMetricsService {
         if (securityService.isB2B()) {
             List<String> companyExternalIds = securityService.getCurrentUserCompanyExternalIds();
             if (!companyExternalIds.isEmpty()) {
-                // Hibernate filter automatically applies tenant isolation
-                List<AnalyticsHourlyMetrics> metrics = repository.findAll();
-                
-                int start = (int) pageable.getOffset();
-                int end = Math.min((start + pageable.getPageSize()), metrics.size());
-                List<AnalyticsHourlyMetricsDTO> pageContent = metrics.subList(start, end).stream()
-                        .map(mapper::toDto)
-                        .toList();
-                
-                return new PageImpl<>(pageContent, pageable, metrics.size());
+                // Paged and counted in the database; the Hibernate filter applies the same tenant isolation
+                return repository.findByCompanyExternalIdIn(companyExternalIds, pageable)
+                        .map(mapper::toDto);
             }
         }
 
@@ -0,0 +1,139 @@
+package org.clickenrent.analyticsservice.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Memoized analytics results, keyed by tenant scope, endpoint and normalized date range.
+ *
+ * Concurrent identical requests share a single computation: the first caller computes on its own thread
+ * (so its security context reaches the Feign clients) and the others wait for its result. Failures are
+ * passed to the waiters but not cached.
+ *
+ * Ranges ending before today are closed and kept for analytics-cache.closed-period-ttl-hours; open ranges
+ * and results without a range expire after analytics-cache.open-period-ttl-seconds. Rental events evict
+ * the results of every scope containing the event's company whose range covers the bike rental's start day.
+ */
+@Component
+@Slf4j
+public class AnalyticsResultCache {
+
+    private final AsyncCache<Key, Object> results;
+
+    public AnalyticsResultCache(
+            @Value("${analytics-cache.max-size:10000}") long maxSize,
+            @Value("${analytics-cache.open-period-ttl-seconds:300}") long openPeriodTtlSeconds,
+            @Value("${analytics-cache.closed-period-ttl-hours:24}") long closedPeriodTtlHours) {
+        this.results = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new PeriodExpiry(Duration.ofSeconds(openPeriodTtlSeconds), Duration.ofHours(closedPeriodTtlHours)))
+                .buildAsync();
+    }
+
+    /**
+     * Cached result for the key, computed by the loader on a miss.
+     *
+     * @param endpoint Name of the result, e.g. the endpoint it is computed for
+     * @param companyExternalIds Companies visible to the caller, or null for all companies
+     * @param from Start of the range, or null if the result does not depend on a range
+     * @param to End of the range, or null if the result does not depend on a range
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String endpoint, Collection<String> companyExternalIds, LocalDate from, LocalDate to,
+                     Supplier<T> loader) {
+        Key key = new Key(endpoint, companyExternalIds == null ? null : Set.copyOf(companyExternalIds), from, to);
+
+        CompletableFuture<Object> computation = new CompletableFuture<>();
+        CompletableFuture<Object> existing = results.asMap().putIfAbsent(key, computation);
+        if (existing != null) {
+            log.debug("Serving {} for {} to {} from cache", endpoint, from, to);
+            return (T) await(existing);
+        }
+
+        try {
+            T result = loader.get();
+            computation.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            // Caffeine drops failed futures, so the next request computes again
+            computation.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Evict the results a change to a bike rental of the company can affect.
+     *
+     * @param companyExternalId Company of the bike rental, or null if unknown (evicts every scope)
+     * @param day Start day of the bike rental, or null if unknown (evicts every range)
+     */
+    public void invalidate(String companyExternalId, LocalDate day) {
+        results.asMap().keySet().removeIf(key -> key.includes(companyExternalId) && key.covers(day));
+    }
+
+    long size() {
+        return results.synchronous().estimatedSize();
+    }
+
+    private static Object await(CompletableFuture<Object> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Cache key; company sets are compared regardless of order.
+     */
+    private record Key(String endpoint, Set<String> companyExternalIds, LocalDate from, LocalDate to) {
+
+        boolean includes(String companyExternalId) {
+            return companyExternalIds == null || companyExternalId == null || companyExternalIds.contains(companyExternalId);
+        }
+
+        boolean covers(LocalDate day) {
+            return day == null || from == null || to == null || (!day.isBefore(from) && !day.isAfter(to));
+        }
+
+        boolean closed() {
+            return to != null && to.isBefore(LocalDate.now());
+        }
+    }
+
+    /**
+     * Expires closed ranges after the long TTL and everything else after the short one.
+     */
+    private record PeriodExpiry(Duration openTtl, Duration closedTtl) implements Expiry<Key, Object> {
+
+        @Override
+        public long expireAfterCreate(Key key, Object value, long currentTime) {
+            return (key.closed() ? closedTtl : openTtl).toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(Key key, Object value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Key key, Object value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package org.clickenrent.analyticsservice.service;
 
+import feign.FeignException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.clickenrent.analyticsservice.client.AuthServiceClient;
@@ -27,6 +28,7 @@ import java.util.Set;
 /**
  * Service for generating dashboard overview with aggregated KPIs.
  * Provides period-over-period comparison and handles multi-tenant data access.
+ * Period metrics and customer counts are memoized per tenant scope in {@link AnalyticsResultCache}.
  */
 @Service
 @RequiredArgsConstructor
@@ -37,8 +39,11 @@ public class DashboardService {
     private final SecurityService securityService;
     private final RentalServiceClient rentalServiceClient;
     private final AuthServiceClient authServiceClient;
+    private final AnalyticsResultCache resultCache;
 
     private static final int DEFAULT_PERIOD_DAYS = 30;
+    private static final String PERIOD_METRICS = "dashboard-overview";
+    private static final String CUSTOMER_METRICS = "dashboard-customers";
     private static final String CURRENCY_EUR = "EUR";
     private static final String UNIT_MINUTES = "minutes";
     private static final String UNIT_PERCENT = "percent";
@@ -72,8 +77,11 @@ public class DashboardService {
         log.info("Fetching dashboard overview for period: {} to {}, compareWithPrevious: {}", 
                 currentFrom, currentTo, compareWithPrevious);
 
+        // Rental-service and auth-service filter by the companies in the JWT, so results are shared per scope
+        List<String> scope = securityService.isAdmin() ? null : securityService.getCurrentUserCompanyExternalIds();
+
         // Query real-time bike rental data from rental-service
-        RealTimeMetrics currentMetrics = queryRealTimeMetrics(currentFrom, currentTo);
+        RealTimeMetrics currentMetrics = queryRealTimeMetrics(scope, currentFrom, currentTo);
 
         // Query previous period data if comparison is enabled
         RealTimeMetrics previousMetrics = null;
@@ -81,221 +89,183 @@ public class DashboardService {
             long periodDuration = java.time.temporal.ChronoUnit.DAYS.between(currentFrom, currentTo);
             LocalDate previousFrom = currentFrom.minusDays(periodDuration + 1);
             LocalDate previousTo = currentFrom.minusDays(1);
-            previousMetrics = queryRealTimeMetrics(previousFrom, previousTo);
+            previousMetrics = queryRealTimeMetrics(scope, previousFrom, previousTo);
             log.debug("Previous period: {} to {}", previousFrom, previousTo);
         }
 
+        // Customer counts don't depend on the period, so both periods use the same values
+        CustomerMetrics customerMetrics = queryCustomerMetrics(scope);
+
         // Build and return response
-        return buildDashboardOverviewFromRealTime(currentFrom, currentTo, currentMetrics, previousMetrics);
+        return buildDashboardOverviewFromRealTime(currentFrom, currentTo, currentMetrics, previousMetrics, customerMetrics);
+    }
+
+    /**
+     * Real-time metrics of the period, from the result cache or rental-service.
+     */
+    private RealTimeMetrics queryRealTimeMetrics(List<String> scope, LocalDate from, LocalDate to) {
+        try {
+            return resultCache.get(PERIOD_METRICS, scope, from, to, () -> fetchRealTimeMetrics(from, to));
+        } catch (Exception e) {
+            log.error("Error querying rental-service for period {} to {}: {}", from, to, e.getMessage());
+            // Return empty metrics on error; they are not cached
+            return new RealTimeMetrics();
+        }
     }
 
     /**
      * Query real-time metrics from rental-service for the specified period.
      * The rental-service automatically filters bike rentals by user's company.
      */
-    private RealTimeMetrics queryRealTimeMetrics(LocalDate from, LocalDate to) {
-        try {
-            // Call rental-service to get bike rentals for the period
-            // Rental-service will apply company filtering based on JWT token
-            BikeRentalPageDTO rentalPage = rentalServiceClient.getBikeRentals(0, 1000, from, to);
-            
-            RealTimeMetrics metrics = new RealTimeMetrics();
-            metrics.totalBikeRentals = (int) rentalPage.getTotalElements();
-            
-            long totalDurationMinutesAllRentals = 0;
-            
-            // Calculate metrics from the rental data
-            if (rentalPage.getContent() != null && !rentalPage.getContent().isEmpty()) {
-                for (BikeRentalSummaryDTO rental : rentalPage.getContent()) {
-                    // Sum revenue
-                    if (rental.getTotalPrice() != null) {
-                        metrics.totalRevenueCents += rental.getTotalPrice()
-                                .multiply(BigDecimal.valueOf(100))
-                                .longValue();
-                    }
-                    
-                    // Calculate duration for this bike rental from all its rides
-                    long bikeRentalTotalDuration = calculateBikeRentalDuration(rental.getExternalId());
-                    totalDurationMinutesAllRentals += bikeRentalTotalDuration;
-                    
-                    // Count completed vs cancelled
-                    if (rental.getBikeRentalStatusName() != null) {
-                        if (rental.getBikeRentalStatusName().equalsIgnoreCase("COMPLETED")) {
-                            metrics.completedBikeRentals++;
-                        } else if (rental.getBikeRentalStatusName().equalsIgnoreCase("CANCELLED")) {
-                            metrics.cancelledBikeRentals++;
-                        }
-                    }
+    private RealTimeMetrics fetchRealTimeMetrics(LocalDate from, LocalDate to) {
+        // Call rental-service to get bike rentals for the period
+        // Rental-service will apply company filtering based on JWT token
+        BikeRentalPageDTO rentalPage = rentalServiceClient.getBikeRentals(0, 1000, from, to);
+        
+        RealTimeMetrics metrics = new RealTimeMetrics();
+        metrics.totalBikeRentals = (int) rentalPage.getTotalElements();
+        
+        long totalDurationMinutesAllRentals = 0;
+        
+        // Calculate metrics from the rental data
+        if (rentalPage.getContent() != null && !rentalPage.getContent().isEmpty()) {
+            for (BikeRentalSummaryDTO rental : rentalPage.getContent()) {
+                // Sum revenue
+                if (rental.getTotalPrice() != null) {
+                    metrics.totalRevenueCents += rental.getTotalPrice()
+                            .multiply(BigDecimal.valueOf(100))
+                            .longValue();
                 }
                 
-                // Calculate average duration across all bike rentals
-                // Average = (sum of all bike rental durations) / count of bike rentals
-                if (metrics.totalBikeRentals > 0) {
-                    metrics.averageBikeRentalDurationMinutes = 
-                            (int) (totalDurationMinutesAllRentals / metrics.totalBikeRentals);
-                }
+                // Calculate duration for this bike rental from all its rides
+                long bikeRentalTotalDuration = calculateBikeRentalDuration(rental.getExternalId());
+                totalDurationMinutesAllRentals += bikeRentalTotalDuration;
                 
-                metrics.totalBikeRentalDurationMinutes = totalDurationMinutesAllRentals;
+                // Count completed vs cancelled
+                if (rental.getBikeRentalStatusName() != null) {
+                    if (rental.getBikeRentalStatusName().equalsIgnoreCase("COMPLETED")) {
+                        metrics.completedBikeRentals++;
+                    } else if (rental.getBikeRentalStatusName().equalsIgnoreCase("CANCELLED")) {
+                        metrics.cancelledBikeRentals++;
+                    }
+                }
             }
             
-            // Calculate active customers count (based on all rentals, not filtered by date)
-            metrics.activeCustomers = calculateActiveCustomers();
-            
-            // Calculate new registrations (users registered in the last 7 days)
-            metrics.newRegistrations = calculateNewRegistrations();
-            
-            log.debug("Queried {} bike rentals from rental-service for period {} to {} (total duration: {} min, avg: {} min, active customers: {}, new registrations: {})", 
-                    metrics.totalBikeRentals, from, to, 
-                    metrics.totalBikeRentalDurationMinutes, metrics.averageBikeRentalDurationMinutes, 
-                    metrics.activeCustomers, metrics.newRegistrations);
-            
-            return metrics;
+            // Calculate average duration across all bike rentals
+            // Average = (sum of all bike rental durations) / count of bike rentals
+            if (metrics.totalBikeRentals > 0) {
+                metrics.averageBikeRentalDurationMinutes = 
+                        (int) (totalDurationMinutesAllRentals / metrics.totalBikeRentals);
+            }
             
-        } catch (Exception e) {
-            log.error("Error querying rental-service for period {} to {}: {}", from, to, e.getMessage());
-            // Return empty metrics on error
-            return new RealTimeMetrics();
+            metrics.totalBikeRentalDurationMinutes = totalDurationMinutesAllRentals;
         }
+        
+        log.debug("Queried {} bike rentals from rental-service for period {} to {} (total duration: {} min, avg: {} min)", 
+                metrics.totalBikeRentals, from, to, 
+                metrics.totalBikeRentalDurationMinutes, metrics.averageBikeRentalDurationMinutes);
+        
+        return metrics;
     }
 
     /**
      * Calculate total duration for a bike rental by summing all its ride durations.
+     * Failures propagate, so a partial total is never memoized in the result cache.
      * 
      * @param bikeRentalExternalId External ID of the bike rental
      * @return Total duration in minutes
      */
     private long calculateBikeRentalDuration(String bikeRentalExternalId) {
-        try {
-            // Fetch all rides for this bike rental
-            List<RideSummaryDTO> rides = rentalServiceClient.getRidesByBikeRentalExternalId(bikeRentalExternalId);
-            
-            long totalDurationMinutes = 0;
-            
-            if (rides != null && !rides.isEmpty()) {
-                for (RideSummaryDTO ride : rides) {
-                    // Calculate duration for each ride
-                    if (ride.getStartDateTime() != null && ride.getEndDateTime() != null) {
-                        long rideMinutes = java.time.Duration.between(
-                                ride.getStartDateTime(), 
-                                ride.getEndDateTime()
-                        ).toMinutes();
-                        
-                        totalDurationMinutes += rideMinutes;
-                    }
+        // Fetch all rides for this bike rental
+        List<RideSummaryDTO> rides = rentalServiceClient.getRidesByBikeRentalExternalId(bikeRentalExternalId);
+        
+        long totalDurationMinutes = 0;
+        
+        if (rides != null && !rides.isEmpty()) {
+            for (RideSummaryDTO ride : rides) {
+                // Calculate duration for each ride
+                if (ride.getStartDateTime() != null && ride.getEndDateTime() != null) {
+                    long rideMinutes = java.time.Duration.between(
+                            ride.getStartDateTime(), 
+                            ride.getEndDateTime()
+                    ).toMinutes();
+                    
+                    totalDurationMinutes += rideMinutes;
                 }
             }
-            
-            log.trace("Bike rental {} has total duration of {} minutes from {} rides", 
-                    bikeRentalExternalId, totalDurationMinutes, rides != null ? rides.size() : 0);
-            
-            return totalDurationMinutes;
-            
-        } catch (Exception e) {
-            log.warn("Error calculating duration for bike rental {}: {}", bikeRentalExternalId, e.getMessage());
-            return 0;
         }
+        
+        log.trace("Bike rental {} has total duration of {} minutes from {} rides", 
+                bikeRentalExternalId, totalDurationMinutes, rides != null ? rides.size() : 0);
+        
+        return totalDurationMinutes;
     }
 
     /**
-     * Calculate the number of active customers for the current company.
-     * A customer is considered active if they have at least one rental and their user account is active.
-     * 
-     * @return Count of active customers
+     * Customer metrics of the scope, from the result cache or rental-service and auth-service.
      */
-    private int calculateActiveCustomers() {
+    private CustomerMetrics queryCustomerMetrics(List<String> scope) {
         try {
-            // 1. Fetch all rentals for current company (pagination handled automatically by security context)
-            Set<String> uniqueUserExternalIds = new HashSet<>();
-            int page = 0;
-            Page<RentalDTO> rentalPage;
-            
-            do {
-                rentalPage = rentalServiceClient.getRentals(page, 1000);
-                if (rentalPage.getContent() != null) {
-                    rentalPage.getContent().stream()
-                            .map(RentalDTO::getUserExternalId)
-                            .filter(Objects::nonNull)
-                            .forEach(uniqueUserExternalIds::add);
-                }
-                page++;
-            } while (!rentalPage.isLast());
-            
-            log.debug("Found {} unique users with rentals for current company", uniqueUserExternalIds.size());
-            
-            // 2. Check each unique user's active status
-            int activeCount = 0;
-            for (String userExternalId : uniqueUserExternalIds) {
-                try {
-                    UserDTO user = authServiceClient.getUserByExternalId(userExternalId);
-                    if (Boolean.TRUE.equals(user.getIsActive())) {
-                        activeCount++;
-                    }
-                } catch (Exception e) {
-                    log.warn("Could not fetch user {}: {}", userExternalId, e.getMessage());
-                }
-            }
-            
-            log.debug("Active customers count: {} out of {} total unique customers", activeCount, uniqueUserExternalIds.size());
-            return activeCount;
-            
+            return resultCache.get(CUSTOMER_METRICS, scope, null, null, this::fetchCustomerMetrics);
         } catch (Exception e) {
-            log.error("Error calculating active customers: {}", e.getMessage());
-            return 0;
+            log.error("Error calculating customer metrics: {}", e.getMessage());
+            return new CustomerMetrics(0, 0);
         }
     }
 
     /**
-     * Calculate the number of new registrations for the current company.
-     * A user is considered a new registration if they:
-     * - Have at least one rental with the current company
-     * - Were created within the last 7 days
+     * Calculate the active customers and new registrations for the current company.
+     * A customer is considered active if they have at least one rental and their user account is active.
+     * A customer is considered a new registration if they have at least one rental with the current company
+     * and were created within the last 7 days.
+     * Rentals and users are fetched once for both counts.
      * 
-     * @return Count of new registrations in the last 7 days
+     * @return Counts of active customers and new registrations in the last 7 days
      */
-    private int calculateNewRegistrations() {
-        try {
-            // Define the cutoff date (7 days ago)
-            LocalDateTime sevenDaysAgo = LocalDateTime.now().minusDays(7);
-            
-            // 1. Fetch all rentals for current company (pagination handled automatically by security context)
-            Set<String> uniqueUserExternalIds = new HashSet<>();
-            int page = 0;
-            Page<RentalDTO> rentalPage;
-            
-            do {
-                rentalPage = rentalServiceClient.getRentals(page, 1000);
-                if (rentalPage.getContent() != null) {
-                    rentalPage.getContent().stream()
-                            .map(RentalDTO::getUserExternalId)
-                            .filter(Objects::nonNull)
-                            .forEach(uniqueUserExternalIds::add);
+    private CustomerMetrics fetchCustomerMetrics() {
+        // Define the cutoff date (7 days ago)
+        LocalDateTime sevenDaysAgo = LocalDateTime.now().minusDays(7);
+        
+        // 1. Fetch all rentals for current company (pagination handled automatically by security context)
+        Set<String> uniqueUserExternalIds = new HashSet<>();
+        int page = 0;
+        Page<RentalDTO> rentalPage;
+        
+        do {
+            rentalPage = rentalServiceClient.getRentals(page, 1000);
+            if (rentalPage.getContent() != null) {
+                rentalPage.getContent().stream()
+                        .map(RentalDTO::getUserExternalId)
+                        .filter(Objects::nonNull)
+                        .forEach(uniqueUserExternalIds::add);
+            }
+            page++;
+        } while (!rentalPage.isLast());
+        
+        log.debug("Found {} unique users with rentals for current company", uniqueUserExternalIds.size());
+        
+        // 2. Check each unique user's active status and registration date
+        int activeCount = 0;
+        int newRegCount = 0;
+        for (String userExternalId : uniqueUserExternalIds) {
+            try {
+                UserDTO user = authServiceClient.getUserByExternalId(userExternalId);
+                if (Boolean.TRUE.equals(user.getIsActive())) {
+                    activeCount++;
                 }
-                page++;
-            } while (!rentalPage.isLast());
-            
-            log.debug("Found {} unique users with rentals for current company", uniqueUserExternalIds.size());
-            
-            // 2. Check each unique user's registration date
-            int newRegCount = 0;
-            for (String userExternalId : uniqueUserExternalIds) {
-                try {
-                    UserDTO user = authServiceClient.getUserByExternalId(userExternalId);
-                    // Check if user was created within the last 7 days
-                    if (user.getDateCreated() != null && user.getDateCreated().isAfter(sevenDaysAgo)) {
-                        newRegCount++;
-                    }
-                } catch (Exception e) {
-                    log.warn("Could not fetch user {}: {}", userExternalId, e.getMessage());
+                // Check if user was created within the last 7 days
+                if (user.getDateCreated() != null && user.getDateCreated().isAfter(sevenDaysAgo)) {
+                    newRegCount++;
                 }
+            } catch (FeignException.NotFound e) {
+                // Deleted user; any other failure propagates so the counts are not memoized
+                log.debug("User {} not found, not counted", userExternalId);
             }
-            
-            log.debug("New registrations count: {} users registered in the last 7 days", newRegCount);
-            return newRegCount;
-            
-        } catch (Exception e) {
-            log.error("Error calculating new registrations: {}", e.getMessage());
-            return 0;
         }
+        
+        log.debug("Active customers count: {} out of {} total unique customers, new registrations in the last 7 days: {}",
+                activeCount, uniqueUserExternalIds.size(), newRegCount);
+        return new CustomerMetrics(activeCount, newRegCount);
     }
 
     /**
@@ -304,10 +274,11 @@ public class DashboardService {
     private DashboardOverviewDTO buildDashboardOverviewFromRealTime(
             LocalDate from, LocalDate to,
             RealTimeMetrics currentMetrics,
-            RealTimeMetrics previousMetrics) {
+            RealTimeMetrics previousMetrics,
+            CustomerMetrics customerMetrics) {
 
         // Build KPIs with comparisons
-        DashboardKPIsDTO kpis = buildRealTimeKPIs(currentMetrics, previousMetrics);
+        DashboardKPIsDTO kpis = buildRealTimeKPIs(currentMetrics, previousMetrics, customerMetrics);
 
         // Build period info
         PeriodDTO period = PeriodDTO.builder()
@@ -325,7 +296,8 @@ public class DashboardService {
     /**
      * Build KPIs from real-time metrics.
      */
-    private DashboardKPIsDTO buildRealTimeKPIs(RealTimeMetrics current, RealTimeMetrics previous) {
+    private DashboardKPIsDTO buildRealTimeKPIs(RealTimeMetrics current, RealTimeMetrics previous,
+                                               CustomerMetrics customers) {
         return DashboardKPIsDTO.builder()
                 .totalBikeRentals(buildMetricKpi(
                         current.totalBikeRentals,
@@ -334,11 +306,11 @@ public class DashboardService {
                         current.totalRevenueCents,
                         previous != null ? previous.totalRevenueCents : null))
                 .activeCustomers(buildMetricKpi(
-                        current.activeCustomers,
-                        previous != null ? previous.activeCustomers : null))
+                        customers.activeCustomers(),
+                        previous != null ? customers.activeCustomers() : null))
                 .newRegistrations(buildMetricKpi(
-                        current.newRegistrations,
-                        previous != null ? previous.newRegistrations : null))
+                        customers.newRegistrations(),
+                        previous != null ? customers.newRegistrations() : null))
                 .averageBikeRentalDuration(buildDurationKpi(
                         current.averageBikeRentalDurationMinutes,
                         previous != null ? previous.averageBikeRentalDurationMinutes : null))
@@ -593,17 +565,22 @@ public class DashboardService {
 
     /**
      * Internal class to hold real-time metrics from rental-service.
+     * Instances are shared through the result cache and not changed once built.
      */
     private static class RealTimeMetrics {
         int totalBikeRentals = 0;
         int completedBikeRentals = 0;
         int cancelledBikeRentals = 0;
         long totalRevenueCents = 0L;
-        int activeCustomers = 0;
-        int newRegistrations = 0;
         long totalBikeRentalDurationMinutes = 0L;
         int averageBikeRentalDurationMinutes = 0;
         int totalBikes = 0;
         int inUseBikes = 0;
     }
+
+    /**
+     * Customer counts for the caller's scope; independent of the period.
+     */
+    private record CustomerMetrics(int activeCustomers, int newRegistrations) {
+    }
 }
@@ -5,12 +5,13 @@ import lombok.extern.slf4j.Slf4j;
 import org.clickenrent.analyticsservice.client.RentalServiceClient;
 import org.clickenrent.analyticsservice.dto.*;
 import org.clickenrent.analyticsservice.exception.UnauthorizedException;
+import org.clickenrent.contracts.rental.FleetAggregatesDTO;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.Collections;
-import java.util.List;
+import java.util.Map;
 
 /**
  * Service for generating fleet analytics including bike status and battery levels.
@@ -31,14 +32,6 @@ public class FleetAnalyticsService {
     private static final Long STATUS_BROKEN = 4L;
     private static final Long STATUS_DISABLED = 5L;
 
-    // Battery level ranges
-    private static final int BATTERY_CRITICAL_MAX = 24;
-    private static final int BATTERY_LOW_MIN = 25;
-    private static final int BATTERY_LOW_MAX = 50;
-    private static final int BATTERY_MEDIUM_MIN = 51;
-    private static final int BATTERY_MEDIUM_MAX = 75;
-    private static final int BATTERY_FULL_MIN = 76;
-
     /**
      * Get fleet analytics including current status and battery levels.
      * Date parameters (from/to) are optional and reserved for future trend analysis.
@@ -56,21 +49,17 @@ public class FleetAnalyticsService {
 
         log.info("Fetching fleet analytics for company");
 
-        // Fetch all bikes from rental-service
-        BikePageDTO bikePage = rentalServiceClient.getBikes(0, 1000);
-        List<BikeSummaryDTO> bikes = bikePage.getContent() != null ? 
-                bikePage.getContent() : Collections.emptyList();
-
-        log.debug("Retrieved {} bikes for fleet analysis", bikes.size());
+        // Status counts and battery histogram are computed by rental-service over the whole fleet
+        FleetAggregatesDTO aggregates = rentalServiceClient.getFleetAggregates();
 
         // Calculate current status
-        CurrentStatusDTO currentStatus = calculateCurrentStatus(bikes);
+        CurrentStatusDTO currentStatus = toCurrentStatus(aggregates);
 
         // Calculate battery levels
-        BatteryLevelsDTO batteryLevels = calculateBatteryLevels(bikes);
+        BatteryLevelsDTO batteryLevels = toBatteryLevels(aggregates);
 
         // Build inspection schedule (placeholder implementation)
-        BikeInspectionScheduleDTO inspectionSchedule = buildInspectionSchedule(bikes.size());
+        BikeInspectionScheduleDTO inspectionSchedule = buildInspectionSchedule(currentStatus.getTotalBikes());
 
         return FleetAnalyticsDTO.builder()
                 .currentStatus(currentStatus)
@@ -80,91 +69,51 @@ public class FleetAnalyticsService {
     }
 
     /**
-     * Calculate current fleet status by counting bikes in each status.
+     * Map the fleet's bike counts by status.
      *
-     * @param bikes List of bikes
+     * @param aggregates Fleet aggregates from rental-service
      * @return Current status with counts by bike status
      */
-    private CurrentStatusDTO calculateCurrentStatus(List<BikeSummaryDTO> bikes) {
-        int totalBikes = bikes.size();
-        int available = 0;
-        int inUse = 0;
-        int reserved = 0;
-        int broken = 0;
-        int disabled = 0;
-
-        for (BikeSummaryDTO bike : bikes) {
-            Long statusId = bike.getBikeStatusId();
-            if (statusId == null) {
-                continue;
-            }
-
-            if (STATUS_AVAILABLE.equals(statusId)) {
-                available++;
-            } else if (STATUS_IN_USE.equals(statusId)) {
-                inUse++;
-            } else if (STATUS_RESERVED.equals(statusId)) {
-                reserved++;
-            } else if (STATUS_BROKEN.equals(statusId)) {
-                broken++;
-            } else if (STATUS_DISABLED.equals(statusId)) {
-                disabled++;
-            }
-        }
+    private CurrentStatusDTO toCurrentStatus(FleetAggregatesDTO aggregates) {
+        Map<Long, Long> byStatus = aggregates.getBikesByStatusId() != null
+                ? aggregates.getBikesByStatusId() : Collections.emptyMap();
+
+        CurrentStatusDTO currentStatus = CurrentStatusDTO.builder()
+                .totalBikes(toInt(aggregates.getTotalBikes()))
+                .available(toInt(byStatus.get(STATUS_AVAILABLE)))
+                .inUse(toInt(byStatus.get(STATUS_IN_USE)))
+                .reserved(toInt(byStatus.get(STATUS_RESERVED)))
+                .broken(toInt(byStatus.get(STATUS_BROKEN)))
+                .disabled(toInt(byStatus.get(STATUS_DISABLED)))
+                .build();
 
         log.debug("Fleet status - Total: {}, Available: {}, In Use: {}, Reserved: {}, Broken: {}, Disabled: {}",
-                totalBikes, available, inUse, reserved, broken, disabled);
-
-        return CurrentStatusDTO.builder()
-                .totalBikes(totalBikes)
-                .available(available)
-                .inUse(inUse)
-                .reserved(reserved)
-                .broken(broken)
-                .disabled(disabled)
-                .build();
+                currentStatus.getTotalBikes(), currentStatus.getAvailable(), currentStatus.getInUse(),
+                currentStatus.getReserved(), currentStatus.getBroken(), currentStatus.getDisabled());
+        return currentStatus;
     }
 
     /**
-     * Calculate battery level distribution by counting bikes in each battery range.
+     * Map the fleet's battery level distribution (full 76-100%, medium 51-75%, low 25-50%, critical 0-24%).
      *
-     * @param bikes List of bikes
+     * @param aggregates Fleet aggregates from rental-service
      * @return Battery levels with counts by battery range
      */
-    private BatteryLevelsDTO calculateBatteryLevels(List<BikeSummaryDTO> bikes) {
-        int full = 0;      // 76-100%
-        int medium = 0;    // 51-75%
-        int low = 0;       // 25-50%
-        int critical = 0;  // 0-24%
-
-        for (BikeSummaryDTO bike : bikes) {
-            Integer batteryLevel = bike.getBatteryLevel();
-            if (batteryLevel == null) {
-                // Default to 0 if not set
-                batteryLevel = 0;
-            }
-
-            if (batteryLevel >= BATTERY_FULL_MIN) {
-                full++;
-            } else if (batteryLevel >= BATTERY_MEDIUM_MIN && batteryLevel <= BATTERY_MEDIUM_MAX) {
-                medium++;
-            } else if (batteryLevel >= BATTERY_LOW_MIN && batteryLevel <= BATTERY_LOW_MAX) {
-                low++;
-            } else if (batteryLevel >= 0 && batteryLevel <= BATTERY_CRITICAL_MAX) {
-                // 0-24%
-                critical++;
-            }
-        }
+    private BatteryLevelsDTO toBatteryLevels(FleetAggregatesDTO aggregates) {
+        BatteryLevelsDTO batteryLevels = BatteryLevelsDTO.builder()
+                .full(toInt(aggregates.getBatteryFull()))
+                .medium(toInt(aggregates.getBatteryMedium()))
+                .low(toInt(aggregates.getBatteryLow()))
+                .critical(toInt(aggregates.getBatteryCritical()))
+                .build();
 
         log.debug("Battery levels - Full: {}, Medium: {}, Low: {}, Critical: {}",
-                full, medium, low, critical);
+                batteryLevels.getFull(), batteryLevels.getMedium(), batteryLevels.getLow(), batteryLevels.getCritical());
+        return batteryLevels;
+    }
 
-        return BatteryLevelsDTO.builder()
-                .full(full)
-                .medium(medium)
-                .low(low)
-                .critical(critical)
-                .build();
+    private static int toInt(Long count) {
+        return count != null ? Math.toIntExact(count) : 0;
     }
 
     /**
@@ -1,100 +1,199 @@
 package org.clickenrent.analyticsservice.service;
 
-import lombok.RequiredArgsConstructor;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.clickenrent.analyticsservice.client.RentalServiceClient;
 import org.clickenrent.analyticsservice.client.SupportServiceClient;
 import org.clickenrent.analyticsservice.dto.*;
 import org.clickenrent.analyticsservice.exception.UnauthorizedException;
+import org.clickenrent.analyticsservice.service.RealtimeMetricsStore.Recent;
+import org.clickenrent.analyticsservice.service.RealtimeMetricsStore.ScopeCounters;
+import org.clickenrent.contracts.rental.FleetAggregatesDTO;
+import org.clickenrent.http.FanOutExecutors;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
+import java.time.Duration;
 import java.time.Instant;
-import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Objects;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 /**
  * Service for generating real-time analytics metrics.
  * Provides current system status for live dashboards.
+ *
+ * Metrics are served from the live counters of {@link RealtimeMetricsStore}, which rental events keep current.
+ * When a scope's counters are older than realtime.reconcile-interval-seconds, the read that notices it
+ * reconciles them against rental-service and support-service, fetching all sources concurrently with the
+ * caller's credentials. Other reads of the scope keep being served from the counters meanwhile.
  */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class RealtimeMetricsService {
 
     private final RentalServiceClient rentalServiceClient;
     private final SupportServiceClient supportServiceClient;
     private final SecurityService securityService;
+    private final RealtimeMetricsStore realtimeMetricsStore;
+    private final Duration reconcileInterval;
+    private final long fetchTimeoutMs;
+    private final ThreadPoolTaskExecutor executor;
 
     private static final String STATUS_ACTIVE = "Active";
     private static final Long STATUS_AVAILABLE = 1L;
     private static final String STATUS_IN_PROGRESS = "IN_PROGRESS";
-    private static final int LAST_MINUTES_WINDOW = 15;
+
+    public RealtimeMetricsService(
+            RentalServiceClient rentalServiceClient,
+            SupportServiceClient supportServiceClient,
+            SecurityService securityService,
+            RealtimeMetricsStore realtimeMetricsStore,
+            @Value("${realtime.reconcile-interval-seconds:60}") long reconcileIntervalSeconds,
+            @Value("${realtime.fetch-timeout-ms:8000}") long fetchTimeoutMs) {
+        this.rentalServiceClient = rentalServiceClient;
+        this.supportServiceClient = supportServiceClient;
+        this.securityService = securityService;
+        this.realtimeMetricsStore = realtimeMetricsStore;
+        this.reconcileInterval = Duration.ofSeconds(reconcileIntervalSeconds);
+        this.fetchTimeoutMs = fetchTimeoutMs;
+
+        this.executor = FanOutExecutors.create("realtime-", 3, 12, 100);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
 
     /**
      * Get real-time metrics for live dashboards.
-     * Returns current system status including active rentals, recent activity,
+     * Returns current status including active rentals, recent activity,
      * available bikes, and support requests.
      *
      * @return Real-time metrics DTO with current timestamp
      */
-    @Transactional(readOnly = true)
     public RealtimeMetricsDTO getRealtimeMetrics() {
+        return getRealtimeMetrics(getVisibleCompanyExternalIds());
+    }
+
+    /**
+     * Companies whose metrics the current user may see.
+     *
+     * @return Company external IDs, or null for all companies (admin)
+     */
+    public List<String> getVisibleCompanyExternalIds() {
         // Check user permissions
         if (securityService.isCustomer()) {
             throw new UnauthorizedException("Customers don't have access to real-time analytics");
         }
+        return securityService.isAdmin() ? null : securityService.getCurrentUserCompanyExternalIds();
+    }
 
-        log.info("Fetching real-time metrics");
+    /**
+     * Get real-time metrics of a set of companies, reconciling them first if they are stale.
+     * Reconciliation calls the source services with the token of the current request or security context.
+     *
+     * @param companyExternalIds Companies to include, or null for all companies
+     * @return Real-time metrics DTO with current timestamp
+     */
+    public RealtimeMetricsDTO getRealtimeMetrics(Collection<String> companyExternalIds) {
+        ScopeCounters scope = realtimeMetricsStore.scope(companyExternalIds);
+        reconcileIfStale(scope);
 
-        // Get current timestamp
-        String timestamp = Instant.now().toString();
-        LocalDateTime now = LocalDateTime.now();
-        LocalDateTime cutoffTime = now.minusMinutes(LAST_MINUTES_WINDOW);
+        Instant now = Instant.now();
+        return RealtimeMetricsDTO.builder()
+                .timestamp(now.toString())
+                .activeBikeRentals(scope.getActiveBikeRentals())
+                .bikeRentalsLast15Minutes(scope.getBikeRentalsInWindow(now))
+                .revenueLast15Minutes(scope.getRevenueInWindow(now))
+                .availableBikes(scope.getAvailableBikes())
+                .inProgressSupportRequests(scope.getInProgressSupportRequests())
+                .reconciledAt(scope.getReconciledAt() != null ? scope.getReconciledAt().toString() : null)
+                .build();
+    }
+
+    /**
+     * Reconcile the scope if its counters are stale. Only one read per scope reconciles at a time;
+     * the others return the current counters, unless the scope has never been reconciled.
+     */
+    private void reconcileIfStale(ScopeCounters scope) {
+        Instant reconciledAt = scope.getReconciledAt();
+        if (reconciledAt != null && reconciledAt.plus(reconcileInterval).isAfter(Instant.now())) {
+            return;
+        }
 
-        log.debug("Current time: {}, Cutoff time for recent activity: {}", now, cutoffTime);
+        CompletableFuture<Void> mine = new CompletableFuture<>();
+        CompletableFuture<Void> running = scope.reconciliation().compareAndExchange(null, mine);
+        if (running != null) {
+            if (reconciledAt == null) {
+                running.exceptionally(e -> null).join();
+            }
+            return;
+        }
 
-        // Fetch all bike rentals from rental-service
-        List<BikeRentalSummaryDTO> allRentals = fetchAllBikeRentals();
-        log.debug("Retrieved {} bike rentals from rental-service", allRentals.size());
+        try {
+            reconcile(scope);
+            mine.complete(null);
+        } catch (RuntimeException e) {
+            log.error("Failed to reconcile real-time metrics", e);
+            mine.completeExceptionally(e);
+        } finally {
+            scope.reconciliation().set(null);
+        }
+    }
 
-        // Fetch all bikes from rental-service
-        List<BikeSummaryDTO> allBikes = fetchAllBikes();
-        log.debug("Retrieved {} bikes from rental-service", allBikes.size());
+    /**
+     * Rebuild the scope's counters from the source services; the three fetches run concurrently.
+     */
+    private void reconcile(ScopeCounters scope) {
+        Instant now = Instant.now();
+        CompletableFuture<List<BikeRentalSummaryDTO>> rentals = fetch(this::fetchAllBikeRentals);
+        CompletableFuture<FleetAggregatesDTO> fleet = fetch(this::fetchFleetAggregates);
+        CompletableFuture<List<SupportRequestDTO>> supportRequests = fetch(this::fetchAllSupportRequests);
 
-        // Fetch all support requests from support-service
-        List<SupportRequestDTO> allSupportRequests = fetchAllSupportRequests();
-        log.debug("Retrieved {} support requests from support-service", allSupportRequests.size());
+        List<BikeRentalSummaryDTO> allRentals = rentals.join();
+        FleetAggregatesDTO fleetAggregates = fleet.join();
+        List<SupportRequestDTO> allSupportRequests = supportRequests.join();
 
-        // Calculate metrics
-        Integer activeBikeRentals = calculateActiveBikeRentals(allRentals);
-        Integer bikeRentalsLast15Minutes = calculateRecentRentals(allRentals, cutoffTime);
-        BigDecimal revenueLast15Minutes = calculateRecentRevenue(allRentals, cutoffTime);
-        Integer availableBikes = calculateAvailableBikes(allBikes);
-        Integer inProgressSupportRequests = calculateInProgressSupport(allSupportRequests);
+        scope.reconcile(
+                allRentals != null ? activeBikeRentals(allRentals) : null,
+                fleetAggregates != null ? calculateAvailableBikes(fleetAggregates) : null,
+                allSupportRequests != null ? calculateInProgressSupport(allSupportRequests) : null,
+                allRentals != null ? recentBikeRentals(allRentals, now) : null,
+                now);
 
-        log.debug("Real-time metrics - Active rentals: {}, Recent rentals: {}, Recent revenue: {}, Available bikes: {}, In-progress support: {}",
-                activeBikeRentals, bikeRentalsLast15Minutes, revenueLast15Minutes, availableBikes, inProgressSupportRequests);
+        log.debug("Reconciled real-time metrics - Active rentals: {}, Recent rentals: {}, Available bikes: {}, In-progress support: {}",
+                scope.getActiveBikeRentals(), scope.getBikeRentalsInWindow(now), scope.getAvailableBikes(),
+                scope.getInProgressSupportRequests());
+    }
 
-        return RealtimeMetricsDTO.builder()
-                .timestamp(timestamp)
-                .activeBikeRentals(activeBikeRentals)
-                .bikeRentalsLast15Minutes(bikeRentalsLast15Minutes)
-                .revenueLast15Minutes(revenueLast15Minutes)
-                .availableBikes(availableBikes)
-                .inProgressSupportRequests(inProgressSupportRequests)
-                .build();
+    /**
+     * Run a fetch on the executor; a failure or timeout yields null.
+     */
+    private <T> CompletableFuture<T> fetch(Supplier<T> call) {
+        return CompletableFuture.supplyAsync(call, executor)
+                .orTimeout(fetchTimeoutMs, TimeUnit.MILLISECONDS)
+                .exceptionally(e -> {
+                    log.error("Real-time metrics fetch failed or timed out after {}ms", fetchTimeoutMs, e);
+                    return null;
+                });
     }
 
     /**
      * Fetch all bike rentals from rental-service.
      * Handles pagination if needed.
      *
-     * @return List of all bike rentals
+     * @return List of all bike rentals, or null if rental-service could not be read
      */
     private List<BikeRentalSummaryDTO> fetchAllBikeRentals() {
         try {
@@ -102,30 +201,28 @@ public class RealtimeMetricsService {
             return page != null && page.getContent() != null ? page.getContent() : Collections.emptyList();
         } catch (Exception e) {
             log.error("Error fetching bike rentals from rental-service", e);
-            return Collections.emptyList();
+            return null;
         }
     }
 
     /**
-     * Fetch all bikes from rental-service.
-     * Handles pagination if needed.
+     * Fetch the fleet's bike counts by status from rental-service.
      *
-     * @return List of all bikes
+     * @return Fleet aggregates, or null if rental-service could not be read
      */
-    private List<BikeSummaryDTO> fetchAllBikes() {
+    private FleetAggregatesDTO fetchFleetAggregates() {
         try {
-            BikePageDTO page = rentalServiceClient.getBikes(0, 1000);
-            return page != null && page.getContent() != null ? page.getContent() : Collections.emptyList();
+            return rentalServiceClient.getFleetAggregates();
         } catch (Exception e) {
-            log.error("Error fetching bikes from rental-service", e);
-            return Collections.emptyList();
+            log.error("Error fetching fleet aggregates from rental-service", e);
+            return null;
         }
     }
 
     /**
      * Fetch all support requests from support-service.
      *
-     * @return List of all support requests
+     * @return List of all support requests, or null if support-service could not be read
      */
     private List<SupportRequestDTO> fetchAllSupportRequests() {
         try {
@@ -133,74 +230,67 @@ public class RealtimeMetricsService {
             return requests != null ? requests : Collections.emptyList();
         } catch (Exception e) {
             log.error("Error fetching support requests from support-service", e);
-            return Collections.emptyList();
+            return null;
         }
     }
 
     /**
-     * Calculate count of active bike rentals.
+     * Active bike rentals by external ID, to seed the active set that rental events keep up to date.
      *
      * @param rentals List of all bike rentals
-     * @return Count of rentals with status "Active"
+     * @return Keys of rentals with status "Active"
      */
-    private Integer calculateActiveBikeRentals(List<BikeRentalSummaryDTO> rentals) {
-        int count = (int) rentals.stream()
+    private Set<String> activeBikeRentals(List<BikeRentalSummaryDTO> rentals) {
+        Set<String> active = rentals.stream()
                 .filter(rental -> rental.getBikeRentalStatusName() != null)
                 .filter(rental -> STATUS_ACTIVE.equalsIgnoreCase(rental.getBikeRentalStatusName()))
-                .count();
+                .map(RealtimeMetricsService::bikeRentalKey)
+                .collect(Collectors.toSet());
 
-        log.debug("Active bike rentals: {}", count);
-        return count;
+        log.debug("Active bike rentals: {}", active.size());
+        return active;
     }
 
     /**
-     * Calculate count of bike rentals started in the last 15 minutes.
+     * Bike rentals started in the last 15 minutes, by external ID, to seed the sliding window.
      *
      * @param rentals List of all bike rentals
-     * @param cutoffTime Cutoff time for recent activity (NOW - 15 minutes)
-     * @return Count of rentals started after cutoff time
+     * @param now Reconciliation time
+     * @return Start time and total price of the recent rentals
      */
-    private Integer calculateRecentRentals(List<BikeRentalSummaryDTO> rentals, LocalDateTime cutoffTime) {
-        int count = (int) rentals.stream()
-                .filter(rental -> rental.getStartDateTime() != null)
-                .filter(rental -> !rental.getStartDateTime().isBefore(cutoffTime))
-                .count();
+    private Map<String, Recent> recentBikeRentals(List<BikeRentalSummaryDTO> rentals, Instant now) {
+        Instant cutoff = now.minus(Duration.ofMinutes(RealtimeMetricsStore.WINDOW_MINUTES));
+        Map<String, Recent> recent = new HashMap<>();
+        for (BikeRentalSummaryDTO rental : rentals) {
+            if (rental.getStartDateTime() == null) {
+                continue;
+            }
+            Instant startedAt = rental.getStartDateTime().atZone(ZoneId.systemDefault()).toInstant();
+            if (!startedAt.isBefore(cutoff)) {
+                recent.put(bikeRentalKey(rental), new Recent(startedAt, rental.getTotalPrice()));
+            }
+        }
 
-        log.debug("Bike rentals in last {} minutes: {}", LAST_MINUTES_WINDOW, count);
-        return count;
+        log.debug("Bike rentals in last {} minutes: {}", RealtimeMetricsStore.WINDOW_MINUTES, recent.size());
+        return recent;
     }
 
     /**
-     * Calculate total revenue from bike rentals started in the last 15 minutes.
-     *
-     * @param rentals List of all bike rentals
-     * @param cutoffTime Cutoff time for recent activity (NOW - 15 minutes)
-     * @return Sum of totalPrice for rentals started after cutoff time
+     * Key of a bike rental in the store; rental events carry the external ID.
      */
-    private BigDecimal calculateRecentRevenue(List<BikeRentalSummaryDTO> rentals, LocalDateTime cutoffTime) {
-        BigDecimal revenue = rentals.stream()
-                .filter(rental -> rental.getStartDateTime() != null)
-                .filter(rental -> !rental.getStartDateTime().isBefore(cutoffTime))
-                .map(BikeRentalSummaryDTO::getTotalPrice)
-                .filter(Objects::nonNull)
-                .reduce(BigDecimal.ZERO, BigDecimal::add)
-                .setScale(2, RoundingMode.HALF_UP);
-
-        log.debug("Revenue in last {} minutes: {}", LAST_MINUTES_WINDOW, revenue);
-        return revenue;
+    private static String bikeRentalKey(BikeRentalSummaryDTO rental) {
+        return rental.getExternalId() != null ? rental.getExternalId() : "id:" + rental.getId();
     }
 
     /**
      * Calculate count of available bikes.
      *
-     * @param bikes List of all bikes
+     * @param fleetAggregates Bike counts by status
      * @return Count of bikes with status AVAILABLE (bikeStatusId = 1)
      */
-    private Integer calculateAvailableBikes(List<BikeSummaryDTO> bikes) {
-        int count = (int) bikes.stream()
-                .filter(bike -> bike.getBikeStatusId() != null)
-                .filter(bike -> STATUS_AVAILABLE.equals(bike.getBikeStatusId()))
-                .count();
+    private Integer calculateAvailableBikes(FleetAggregatesDTO fleetAggregates) {
+        Map<Long, Long> byStatus = fleetAggregates.getBikesByStatusId();
+        int count = byStatus != null ? byStatus.getOrDefault(STATUS_AVAILABLE, 0L).intValue() : 0;
 
         log.debug("Available bikes: {}", count);
         return count;
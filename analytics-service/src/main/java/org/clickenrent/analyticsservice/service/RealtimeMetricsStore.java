@@ -0,0 +1,260 @@
+package org.clickenrent.analyticsservice.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * In-memory live counters behind the real-time dashboard.
+ *
+ * Counters are kept per dashboard scope: all companies for admins, or the caller's set of companies.
+ * Rental events update every scope that contains the event's company, so a dashboard read is a lookup
+ * plus a sum over the 15 one-minute buckets of the scope's ring buffer.
+ * Scopes that are not read for realtime.scope-idle-minutes are dropped.
+ */
+@Component
+@Slf4j
+public class RealtimeMetricsStore {
+
+    public static final int WINDOW_MINUTES = 15;
+    private static final String ALL_COMPANIES = "*";
+
+    private final Cache<String, ScopeCounters> scopes;
+
+    public RealtimeMetricsStore(@Value("${realtime.scope-idle-minutes:60}") long scopeIdleMinutes) {
+        this.scopes = Caffeine.newBuilder()
+                .expireAfterAccess(Duration.ofMinutes(scopeIdleMinutes))
+                .build();
+    }
+
+    /**
+     * Counters of a dashboard scope, created empty on first use.
+     *
+     * @param companyExternalIds companies visible in the scope, or null for all companies
+     */
+    public ScopeCounters scope(Collection<String> companyExternalIds) {
+        Set<String> companies = companyExternalIds == null ? null : new TreeSet<>(companyExternalIds);
+        return scopes.get(scopeKey(companies), k -> new ScopeCounters(companies));
+    }
+
+    /**
+     * Key of a dashboard scope; the same set of companies in any order gives the same key.
+     *
+     * @param companyExternalIds companies visible in the scope, or null for all companies
+     */
+    public static String scopeKey(Collection<String> companyExternalIds) {
+        return companyExternalIds == null ? ALL_COMPANIES : String.join(",", new TreeSet<>(companyExternalIds));
+    }
+
+    public void bikeRentalStarted(String companyExternalId, String bikeRentalExternalId, boolean active,
+                                  BigDecimal totalPrice, Instant startedAt) {
+        long minute = epochMinute(startedAt);
+        long nowMinute = epochMinute(Instant.now());
+        long cents = toCents(totalPrice);
+        for (ScopeCounters scope : scopes.asMap().values()) {
+            if (scope.includes(companyExternalId)) {
+                scope.window.add(bikeRentalExternalId, minute, cents, nowMinute);
+                if (active && bikeRentalExternalId != null) {
+                    scope.activeBikeRentals.add(bikeRentalExternalId);
+                }
+            }
+        }
+    }
+
+    /**
+     * A redelivered end event finds the bike rental already gone from the active set and changes nothing.
+     */
+    public void bikeRentalEnded(String companyExternalId, String bikeRentalExternalId) {
+        if (bikeRentalExternalId == null) {
+            return;
+        }
+        for (ScopeCounters scope : scopes.asMap().values()) {
+            if (scope.includes(companyExternalId)) {
+                scope.activeBikeRentals.remove(bikeRentalExternalId);
+            }
+        }
+    }
+
+    static long epochMinute(Instant instant) {
+        return instant.getEpochSecond() / 60;
+    }
+
+    static long toCents(BigDecimal amount) {
+        return amount == null ? 0 : amount.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValue();
+    }
+
+    /**
+     * Live counters of one dashboard scope.
+     * Active rentals and the window follow rental events between reconciliations;
+     * available bikes and in-progress support requests only change on reconciliation.
+     * Active rentals are kept by external ID, so a start or end event seen twice is applied once.
+     */
+    public static final class ScopeCounters {
+
+        private final Set<String> companyExternalIds;
+        private volatile Set<String> activeBikeRentals = ConcurrentHashMap.newKeySet();
+        private final SlidingWindow window = new SlidingWindow();
+        private final AtomicReference<CompletableFuture<Void>> reconciliation = new AtomicReference<>();
+        private volatile int availableBikes;
+        private volatile int inProgressSupportRequests;
+        private volatile Instant reconciledAt;
+
+        ScopeCounters(Set<String> companyExternalIds) {
+            this.companyExternalIds = companyExternalIds;
+        }
+
+        boolean includes(String companyExternalId) {
+            return companyExternalIds == null || companyExternalIds.contains(companyExternalId);
+        }
+
+        public int getActiveBikeRentals() {
+            return activeBikeRentals.size();
+        }
+
+        public int getAvailableBikes() {
+            return availableBikes;
+        }
+
+        public int getInProgressSupportRequests() {
+            return inProgressSupportRequests;
+        }
+
+        public Instant getReconciledAt() {
+            return reconciledAt;
+        }
+
+        public int getBikeRentalsInWindow(Instant now) {
+            return window.count(epochMinute(now));
+        }
+
+        public BigDecimal getRevenueInWindow(Instant now) {
+            return BigDecimal.valueOf(window.revenueCents(epochMinute(now)), 2);
+        }
+
+        /**
+         * Reconciliation in flight for this scope, if any; used to run at most one at a time.
+         */
+        AtomicReference<CompletableFuture<Void>> reconciliation() {
+            return reconciliation;
+        }
+
+        /**
+         * Replace the counters with a snapshot from the source services.
+         * A null part means its source could not be read, and the current value is kept.
+         */
+        void reconcile(Set<String> activeBikeRentals, Integer availableBikes, Integer inProgressSupportRequests,
+                       Map<String, Recent> recentBikeRentals, Instant at) {
+            if (activeBikeRentals != null) {
+                Set<String> active = ConcurrentHashMap.newKeySet();
+                active.addAll(activeBikeRentals);
+                this.activeBikeRentals = active;
+            }
+            if (availableBikes != null) {
+                this.availableBikes = availableBikes;
+            }
+            if (inProgressSupportRequests != null) {
+                this.inProgressSupportRequests = inProgressSupportRequests;
+            }
+            if (recentBikeRentals != null) {
+                long nowMinute = epochMinute(at);
+                window.clear();
+                recentBikeRentals.forEach((externalId, recent) ->
+                        window.add(externalId, epochMinute(recent.startedAt()), toCents(recent.totalPrice()), nowMinute));
+            }
+            this.reconciledAt = at;
+        }
+    }
+
+    /**
+     * A bike rental started within the window, as read during reconciliation.
+     */
+    public record Recent(Instant startedAt, BigDecimal totalPrice) {
+    }
+
+    /**
+     * Ring buffer of one-minute buckets with the bike rentals started and their revenue.
+     * Bike rentals are counted once by external ID, whether seen in an event or a snapshot first.
+     */
+    static final class SlidingWindow {
+
+        private final long[] minutes = new long[WINDOW_MINUTES];
+        private final int[] counts = new int[WINDOW_MINUTES];
+        private final long[] revenueCents = new long[WINDOW_MINUTES];
+        private final Map<String, Long> counted = new HashMap<>();
+
+        SlidingWindow() {
+            Arrays.fill(minutes, Long.MIN_VALUE);
+        }
+
+        /**
+         * @return true if the bike rental was added, false if it was already counted or is outside the window
+         */
+        synchronized boolean add(String externalId, long minute, long cents, long nowMinute) {
+            if (minute <= nowMinute - WINDOW_MINUTES || minute > nowMinute) {
+                return false;
+            }
+            if (externalId != null && counted.putIfAbsent(externalId, minute) != null) {
+                return false;
+            }
+
+            int slot = (int) Math.floorMod(minute, (long) WINDOW_MINUTES);
+            if (minutes[slot] != minute) {
+                // Recycling a bucket: the minutes it held are out of the window, and so are their IDs
+                minutes[slot] = minute;
+                counts[slot] = 0;
+                revenueCents[slot] = 0;
+                counted.values().removeIf(countedMinute -> countedMinute <= nowMinute - WINDOW_MINUTES);
+            }
+            counts[slot]++;
+            revenueCents[slot] += cents;
+            return true;
+        }
+
+        synchronized int count(long nowMinute) {
+            int total = 0;
+            for (int i = 0; i < WINDOW_MINUTES; i++) {
+                if (inWindow(minutes[i], nowMinute)) {
+                    total += counts[i];
+                }
+            }
+            return total;
+        }
+
+        synchronized long revenueCents(long nowMinute) {
+            long total = 0;
+            for (int i = 0; i < WINDOW_MINUTES; i++) {
+                if (inWindow(minutes[i], nowMinute)) {
+                    total += revenueCents[i];
+                }
+            }
+            return total;
+        }
+
+        synchronized void clear() {
+            Arrays.fill(minutes, Long.MIN_VALUE);
+            Arrays.fill(counts, 0);
+            Arrays.fill(revenueCents, 0);
+            counted.clear();
+        }
+
+        private static boolean inWindow(long minute, long nowMinute) {
+            return minute > nowMinute - WINDOW_MINUTES && minute <= nowMinute;
+        }
+    }
+}
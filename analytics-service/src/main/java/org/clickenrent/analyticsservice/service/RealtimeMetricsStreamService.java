@@ -0,0 +1,272 @@
+package org.clickenrent.analyticsservice.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.clickenrent.analyticsservice.dto.RealtimeMetricsDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Server-Sent Events stream of the real-time metrics.
+ *
+ * Subscribers are grouped in channels by dashboard scope. Every realtime.stream.push-interval-ms the metrics of
+ * each channel are computed once, as one of its subscribers, and every subscriber is sent the fields that changed
+ * since what it last received. A subscriber still busy receiving a previous push is skipped, so a slow client
+ * gets the changes coalesced into its next push instead of a backlog. A stream ends when its token expires.
+ */
+@Service
+@Slf4j
+public class RealtimeMetricsStreamService {
+
+    static final String SNAPSHOT_EVENT = "snapshot";
+    static final String DELTA_EVENT = "delta";
+    private static final String TIMESTAMP = "timestamp";
+
+    private final RealtimeMetricsService realtimeMetricsService;
+    private final SecurityService securityService;
+    private final Duration pushInterval;
+    private final Duration heartbeatInterval;
+    private final Duration maxStreamDuration;
+    private final Map<String, Channel> channels = new ConcurrentHashMap<>();
+    private final ThreadPoolTaskScheduler scheduler;
+    private final ThreadPoolTaskExecutor senders;
+
+    public RealtimeMetricsStreamService(
+            RealtimeMetricsService realtimeMetricsService,
+            SecurityService securityService,
+            @Value("${realtime.stream.push-interval-ms:2000}") long pushIntervalMs,
+            @Value("${realtime.stream.heartbeat-seconds:20}") long heartbeatSeconds,
+            @Value("${realtime.stream.max-duration-minutes:60}") long maxStreamMinutes) {
+        this.realtimeMetricsService = realtimeMetricsService;
+        this.securityService = securityService;
+        this.pushInterval = Duration.ofMillis(pushIntervalMs);
+        this.heartbeatInterval = Duration.ofSeconds(heartbeatSeconds);
+        this.maxStreamDuration = Duration.ofMinutes(maxStreamMinutes);
+
+        // Not beans on purpose: an Executor bean would replace Boot's default executor used by @Async
+        this.scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("realtime-stream-");
+        scheduler.initialize();
+        this.senders = new ThreadPoolTaskExecutor();
+        senders.setCorePoolSize(4);
+        senders.setMaxPoolSize(16);
+        senders.setQueueCapacity(1000);
+        senders.setThreadNamePrefix("realtime-push-");
+        senders.initialize();
+    }
+
+    @PostConstruct
+    public void start() {
+        scheduler.scheduleWithFixedDelay(this::pushAll, pushInterval);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdown();
+        channels.values().forEach(channel -> channel.subscribers.forEach(subscriber -> subscriber.emitter.complete()));
+        senders.shutdown();
+    }
+
+    /**
+     * Open a stream for the current user. The first event is a snapshot of all metrics,
+     * the following ones carry the fields that changed, plus the timestamp.
+     */
+    public SseEmitter subscribe() {
+        List<String> companyExternalIds = realtimeMetricsService.getVisibleCompanyExternalIds();
+        RealtimeMetricsDTO snapshot = realtimeMetricsService.getRealtimeMetrics(companyExternalIds);
+
+        SecurityContext securityContext = SecurityContextHolder.createEmptyContext();
+        securityContext.setAuthentication(SecurityContextHolder.getContext().getAuthentication());
+        SseEmitter emitter = new SseEmitter(streamTimeout().toMillis());
+        Subscriber subscriber = new Subscriber(emitter, securityContext, fields(snapshot));
+
+        // Queued on the emitter before the subscriber joins its channel, so no delta can go out ahead of it;
+        // changes made meanwhile are in the first delta, which is computed against this snapshot
+        try {
+            emitter.send(SseEmitter.event().name(SNAPSHOT_EVENT).data(snapshot));
+        } catch (IOException e) {
+            emitter.completeWithError(e);
+            return emitter;
+        }
+
+        String key = RealtimeMetricsStore.scopeKey(companyExternalIds);
+        channels.compute(key, (k, channel) -> {
+            Channel target = channel != null ? channel : new Channel(companyExternalIds);
+            target.subscribers.add(subscriber);
+            return target;
+        });
+        emitter.onCompletion(() -> unsubscribe(key, subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> unsubscribe(key, subscriber));
+        log.debug("Real-time metrics stream opened for scope {}", key);
+        return emitter;
+    }
+
+    /**
+     * Compute the metrics of every channel once and offer them to its subscribers.
+     */
+    void pushAll() {
+        Instant now = Instant.now();
+        for (Map.Entry<String, Channel> entry : channels.entrySet()) {
+            Channel channel = entry.getValue();
+            Subscriber computeAs = channel.subscribers.peek();
+            if (computeAs == null) {
+                channels.computeIfPresent(entry.getKey(), (k, c) -> c.subscribers.isEmpty() ? null : c);
+                continue;
+            }
+
+            Map<String, Object> metrics;
+            try {
+                metrics = fields(runAs(computeAs, channel));
+            } catch (RuntimeException e) {
+                log.error("Failed to compute real-time metrics for scope {}", entry.getKey(), e);
+                continue;
+            }
+            channel.subscribers.forEach(subscriber -> offer(subscriber, metrics, now));
+        }
+    }
+
+    int subscriberCount() {
+        return channels.values().stream().mapToInt(channel -> channel.subscribers.size()).sum();
+    }
+
+    private RealtimeMetricsDTO runAs(Subscriber subscriber, Channel channel) {
+        SecurityContextHolder.setContext(subscriber.securityContext);
+        try {
+            return realtimeMetricsService.getRealtimeMetrics(channel.companyExternalIds);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private void offer(Subscriber subscriber, Map<String, Object> metrics, Instant now) {
+        Map<String, Object> delta = delta(subscriber.lastSent, metrics);
+        boolean heartbeatDue = !subscriber.lastSentAt.plus(heartbeatInterval).isAfter(now);
+        if (delta.isEmpty() && !heartbeatDue) {
+            return;
+        }
+        if (!subscriber.sending.compareAndSet(false, true)) {
+            // Still sending a previous push; the next one will carry these changes too
+            return;
+        }
+
+        try {
+            senders.execute(() -> send(subscriber, metrics, delta, now));
+        } catch (RejectedExecutionException e) {
+            subscriber.sending.set(false);
+        }
+    }
+
+    private void send(Subscriber subscriber, Map<String, Object> metrics, Map<String, Object> delta, Instant now) {
+        try {
+            if (delta.isEmpty()) {
+                subscriber.emitter.send(SseEmitter.event().comment("heartbeat"));
+            } else {
+                delta.put(TIMESTAMP, metrics.get(TIMESTAMP));
+                subscriber.emitter.send(SseEmitter.event().name(DELTA_EVENT).data(delta));
+                subscriber.lastSent = metrics;
+            }
+            subscriber.lastSentAt = now;
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Real-time metrics stream closed: {}", e.getMessage());
+            subscriber.emitter.completeWithError(e);
+        } finally {
+            subscriber.sending.set(false);
+        }
+    }
+
+    private void unsubscribe(String key, Subscriber subscriber) {
+        Channel channel = channels.get(key);
+        if (channel != null) {
+            channel.subscribers.remove(subscriber);
+        }
+    }
+
+    /**
+     * The stream must not outlive the token it was opened with; the client reconnects with a fresh one.
+     */
+    private Duration streamTimeout() {
+        Instant expiresAt = securityService.getCurrentTokenExpiresAt();
+        if (expiresAt == null) {
+            return maxStreamDuration;
+        }
+        Duration untilExpiry = Duration.between(Instant.now(), expiresAt);
+        if (untilExpiry.compareTo(Duration.ofSeconds(1)) < 0) {
+            return Duration.ofSeconds(1);
+        }
+        return untilExpiry.compareTo(maxStreamDuration) < 0 ? untilExpiry : maxStreamDuration;
+    }
+
+    static Map<String, Object> fields(RealtimeMetricsDTO metrics) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put(TIMESTAMP, metrics.getTimestamp());
+        fields.put("activeBikeRentals", metrics.getActiveBikeRentals());
+        fields.put("bikeRentalsLast15Minutes", metrics.getBikeRentalsLast15Minutes());
+        fields.put("revenueLast15Minutes", metrics.getRevenueLast15Minutes());
+        fields.put("availableBikes", metrics.getAvailableBikes());
+        fields.put("inProgressSupportRequests", metrics.getInProgressSupportRequests());
+        fields.put("reconciledAt", metrics.getReconciledAt());
+        return fields;
+    }
+
+    /**
+     * Fields of current that differ from previous, the timestamp aside.
+     */
+    static Map<String, Object> delta(Map<String, Object> previous, Map<String, Object> current) {
+        Map<String, Object> delta = new LinkedHashMap<>();
+        current.forEach((field, value) -> {
+            if (!TIMESTAMP.equals(field) && !Objects.equals(previous.get(field), value)) {
+                delta.put(field, value);
+            }
+        });
+        return delta;
+    }
+
+    /**
+     * Subscribers of one dashboard scope, which share one computation per push.
+     */
+    private static final class Channel {
+
+        private final List<String> companyExternalIds;
+        private final Queue<Subscriber> subscribers = new ConcurrentLinkedQueue<>();
+
+        Channel(List<String> companyExternalIds) {
+            this.companyExternalIds = companyExternalIds;
+        }
+    }
+
+    private static final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final SecurityContext securityContext;
+        private final AtomicBoolean sending = new AtomicBoolean();
+        private volatile Map<String, Object> lastSent;
+        private volatile Instant lastSentAt = Instant.now();
+
+        Subscriber(SseEmitter emitter, SecurityContext securityContext, Map<String, Object> lastSent) {
+            this.emitter = emitter;
+            this.securityContext = securityContext;
+            this.lastSent = lastSent;
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package org.clickenrent.analyticsservice.service;
+
+import org.clickenrent.analyticsservice.entity.AnalyticsRentalHistogram;
+import org.clickenrent.contracts.rental.BikeRentalHistogramBucketDTO;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Mergeable histogram of bike rentals: counts by status, hour of day, day of week and bike type,
+ * plus count, sum, min and max of ride durations.
+ *
+ * Used both as the in-memory delta collected from rental events and as the merge of stored daily
+ * histograms over a date range. Not thread-safe; callers synchronize.
+ */
+public class RentalHistogram {
+
+    private static final String STATUS_COMPLETED = "COMPLETED";
+    private static final String STATUS_CANCELLED = "CANCELLED";
+
+    private long started;
+    private long completed;
+    private long cancelled;
+    private final long[] hours = new long[24];
+    private final long[] weekdays = new long[7];
+    private final Map<String, Long> bikeTypes = new HashMap<>();
+    private long durationCount;
+    private long durationSum;
+    private long durationMin = Long.MAX_VALUE;
+    private long durationMax = Long.MIN_VALUE;
+
+    /**
+     * Count a bike rental that started at the given time.
+     */
+    public void recordStarted(LocalDateTime startDateTime, String bikeTypeName) {
+        started++;
+        hours[startDateTime.getHour()]++;
+        weekdays[startDateTime.getDayOfWeek().ordinal()]++;
+        if (bikeTypeName != null && !bikeTypeName.isEmpty()) {
+            bikeTypes.merge(bikeTypeName, 1L, Long::sum);
+        }
+    }
+
+    /**
+     * Count the outcome of an ended bike rental and its ride duration; durations of zero are ignored.
+     */
+    public void recordEnded(String statusName, Long rideMinutes) {
+        if (STATUS_COMPLETED.equalsIgnoreCase(statusName)) {
+            completed++;
+        } else if (STATUS_CANCELLED.equalsIgnoreCase(statusName)) {
+            cancelled++;
+        }
+        if (rideMinutes != null && rideMinutes > 0) {
+            recordDurations(1, rideMinutes, rideMinutes, rideMinutes);
+        }
+    }
+
+    /**
+     * Count the bike rentals of a bucket aggregated by rental-service, as if each had been started and ended.
+     */
+    public void recordBucket(BikeRentalHistogramBucketDTO bucket) {
+        long count = bucket.getBikeRentals();
+        started += count;
+        hours[bucket.getHour()] += count;
+        weekdays[bucket.getDate().getDayOfWeek().ordinal()] += count;
+        if (bucket.getBikeTypeName() != null && !bucket.getBikeTypeName().isEmpty()) {
+            bikeTypes.merge(bucket.getBikeTypeName(), count, Long::sum);
+        }
+        if (STATUS_COMPLETED.equalsIgnoreCase(bucket.getBikeRentalStatusName())) {
+            completed += count;
+        } else if (STATUS_CANCELLED.equalsIgnoreCase(bucket.getBikeRentalStatusName())) {
+            cancelled += count;
+        }
+        if (bucket.getDurationCount() != null && bucket.getDurationCount() > 0) {
+            recordDurations(bucket.getDurationCount(), bucket.getDurationSumMinutes(),
+                    bucket.getDurationMinMinutes(), bucket.getDurationMaxMinutes());
+        }
+    }
+
+    /**
+     * Add another histogram to this one.
+     */
+    public void merge(RentalHistogram other) {
+        started += other.started;
+        completed += other.completed;
+        cancelled += other.cancelled;
+        for (int hour = 0; hour < hours.length; hour++) {
+            hours[hour] += other.hours[hour];
+        }
+        for (int day = 0; day < weekdays.length; day++) {
+            weekdays[day] += other.weekdays[day];
+        }
+        other.bikeTypes.forEach((type, count) -> bikeTypes.merge(type, count, Long::sum));
+        if (other.durationCount > 0) {
+            recordDurations(other.durationCount, other.durationSum, other.durationMin, other.durationMax);
+        }
+    }
+
+    /**
+     * Add a stored daily histogram; its rentals all fall on the weekday of its date.
+     */
+    public void merge(AnalyticsRentalHistogram day) {
+        started += day.getBikeRentalsStarted();
+        completed += day.getBikeRentalsCompleted();
+        cancelled += day.getBikeRentalsCancelled();
+        long[] dayHours = day.getHourCounts();
+        for (int hour = 0; hour < hours.length; hour++) {
+            hours[hour] += dayHours[hour];
+        }
+        weekdays[day.getHistogramDate().getDayOfWeek().ordinal()] += day.getBikeRentalsStarted();
+        day.getBikeTypeCounts().forEach((type, count) -> bikeTypes.merge(type, count, Long::sum));
+        if (day.getDurationCount() > 0) {
+            recordDurations(day.getDurationCount(), day.getDurationSumMinutes(),
+                    day.getDurationMinMinutes(), day.getDurationMaxMinutes());
+        }
+    }
+
+    /**
+     * Add this histogram to a stored daily histogram, assigning new values so the change is detected.
+     */
+    public void applyTo(AnalyticsRentalHistogram day) {
+        day.setBikeRentalsStarted(day.getBikeRentalsStarted() + started);
+        day.setBikeRentalsCompleted(day.getBikeRentalsCompleted() + completed);
+        day.setBikeRentalsCancelled(day.getBikeRentalsCancelled() + cancelled);
+
+        long[] dayHours = day.getHourCounts().clone();
+        for (int hour = 0; hour < hours.length; hour++) {
+            dayHours[hour] += hours[hour];
+        }
+        day.setHourCounts(dayHours);
+
+        Map<String, Long> dayTypes = new HashMap<>(day.getBikeTypeCounts());
+        bikeTypes.forEach((type, count) -> dayTypes.merge(type, count, Long::sum));
+        day.setBikeTypeCounts(dayTypes);
+
+        if (durationCount > 0) {
+            day.setDurationCount(day.getDurationCount() + durationCount);
+            day.setDurationSumMinutes(day.getDurationSumMinutes() + durationSum);
+            day.setDurationMinMinutes(day.getDurationMinMinutes() != null
+                    ? Math.min(day.getDurationMinMinutes(), durationMin) : durationMin);
+            day.setDurationMaxMinutes(day.getDurationMaxMinutes() != null
+                    ? Math.max(day.getDurationMaxMinutes(), durationMax) : durationMax);
+        }
+    }
+
+    private void recordDurations(long count, long sum, long min, long max) {
+        durationCount += count;
+        durationSum += sum;
+        durationMin = Math.min(durationMin, min);
+        durationMax = Math.max(durationMax, max);
+    }
+
+    public long getStarted() {
+        return started;
+    }
+
+    public long getCompleted() {
+        return completed;
+    }
+
+    public long getCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Bike rentals started in the given hour of day (0-23).
+     */
+    public long getHourCount(int hour) {
+        return hours[hour];
+    }
+
+    public long getWeekdayCount(DayOfWeek dayOfWeek) {
+        return weekdays[dayOfWeek.ordinal()];
+    }
+
+    public Map<String, Long> getBikeTypeCounts() {
+        return Map.copyOf(bikeTypes);
+    }
+
+    public long getDurationCount() {
+        return durationCount;
+    }
+
+    public long getDurationAverage() {
+        return durationCount > 0 ? durationSum / durationCount : 0;
+    }
+
+    public long getDurationMin() {
+        return durationCount > 0 ? durationMin : 0;
+    }
+
+    public long getDurationMax() {
+        return durationCount > 0 ? durationMax : 0;
+    }
+}
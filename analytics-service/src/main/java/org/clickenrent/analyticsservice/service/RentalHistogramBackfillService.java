@@ -0,0 +1,104 @@
+package org.clickenrent.analyticsservice.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.clickenrent.analyticsservice.client.RentalServiceClient;
+import org.clickenrent.analyticsservice.exception.UnauthorizedException;
+import org.clickenrent.contracts.rental.BikeRentalHistogramBucketDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One-time backfill of the daily rental histograms for days before they were maintained from rental events.
+ * Each chunk of days is counted in SQL by rental-service and replaces the stored histograms of those days,
+ * so the backfill can be run again, or resumed after a failure, without counting any bike rental twice.
+ * Runs with the calling admin's token, which lets rental-service aggregate every company.
+ *
+ * Days within open-days of today are refused: events for their bike rentals may still arrive, and a replaced day
+ * would lose the events counted between the aggregate and the replacement, or count them twice.
+ */
+@Service
+@Slf4j
+public class RentalHistogramBackfillService {
+
+    /** Days aggregated per rental-service request and replaced per transaction. */
+    static final int CHUNK_DAYS = 31;
+
+    private final RentalServiceClient rentalServiceClient;
+    private final RentalHistogramService rentalHistogramService;
+    private final SecurityService securityService;
+    private final int openDays;
+    private final Clock clock;
+
+    @Autowired
+    public RentalHistogramBackfillService(RentalServiceClient rentalServiceClient,
+                                          RentalHistogramService rentalHistogramService,
+                                          SecurityService securityService,
+                                          @Value("${rental-histogram.backfill.open-days:7}") int openDays) {
+        this(rentalServiceClient, rentalHistogramService, securityService, openDays, Clock.systemDefaultZone());
+    }
+
+    RentalHistogramBackfillService(RentalServiceClient rentalServiceClient,
+                                   RentalHistogramService rentalHistogramService,
+                                   SecurityService securityService,
+                                   int openDays,
+                                   Clock clock) {
+        this.rentalServiceClient = rentalServiceClient;
+        this.rentalHistogramService = rentalHistogramService;
+        this.securityService = securityService;
+        this.openDays = openDays;
+        this.clock = clock;
+    }
+
+    /**
+     * Rebuild the daily histograms of all companies for a date range.
+     *
+     * @param from Inclusive start date
+     * @param to Inclusive end date, before the open days
+     * @return Number of written daily histograms
+     */
+    public int backfill(LocalDate from, LocalDate to) {
+        if (!securityService.isAdmin()) {
+            throw new UnauthorizedException("Only admins can backfill rental histograms");
+        }
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("Start date (from) and end date (to) are required");
+        }
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("Start date must be before or equal to end date");
+        }
+        LocalDate firstOpenDay = LocalDate.now(clock).minusDays(openDays);
+        if (!to.isBefore(firstOpenDay)) {
+            throw new IllegalArgumentException("End date must be before " + firstOpenDay
+                    + ": later days may still receive rental events");
+        }
+
+        int written = 0;
+        for (LocalDate chunkStart = from; !chunkStart.isAfter(to); chunkStart = chunkStart.plusDays(CHUNK_DAYS)) {
+            LocalDate chunkEnd = chunkStart.plusDays(CHUNK_DAYS - 1);
+            if (chunkEnd.isAfter(to)) {
+                chunkEnd = to;
+            }
+
+            List<BikeRentalHistogramBucketDTO> buckets =
+                    rentalServiceClient.getBikeRentalHistogramBuckets(chunkStart, chunkEnd);
+            Map<RentalHistogramService.Day, RentalHistogram> histograms = new HashMap<>();
+            for (BikeRentalHistogramBucketDTO bucket : buckets) {
+                histograms.computeIfAbsent(
+                                new RentalHistogramService.Day(bucket.getCompanyExternalId(), bucket.getDate()),
+                                key -> new RentalHistogram())
+                        .recordBucket(bucket);
+            }
+            written += rentalHistogramService.replaceDays(chunkStart, chunkEnd, histograms);
+            log.info("Backfilled rental histograms for {} to {}: {} buckets, {} company days",
+                    chunkStart, chunkEnd, buckets.size(), histograms.size());
+        }
+        return written;
+    }
+}
@@ -0,0 +1,52 @@
+package org.clickenrent.analyticsservice.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.clickenrent.contracts.rental.RentalEvent;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Adds a batch of bike rental events to the stored daily histograms in one transaction.
+ *
+ * Called with the records of one poll; the offsets are committed only after it returns, so a failed write
+ * or a crash replays the batch instead of losing it. Replayed events are recognised by their IDs and not
+ * counted again (see {@link RentalHistogramService#addEvents(List)}).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RentalHistogramRecorder {
+
+    private final RentalHistogramService rentalHistogramService;
+
+    public void record(List<RentalEvent> events) {
+        List<RentalEvent> countable = new ArrayList<>(events.size());
+        for (RentalEvent event : events) {
+            // Events published before bike rental start times were included can't be placed on a day
+            if (event == null || event.getCompanyExternalId() == null || event.getStartDateTime() == null) {
+                continue;
+            }
+            if (RentalEvent.BIKE_RENTAL_STARTED.equals(event.getEventType())
+                    || RentalEvent.BIKE_RENTAL_ENDED.equals(event.getEventType())) {
+                countable.add(event);
+            }
+        }
+        if (countable.isEmpty()) {
+            return;
+        }
+
+        int counted;
+        try {
+            counted = rentalHistogramService.addEvents(countable);
+        } catch (DataIntegrityViolationException e) {
+            // Another replica created one of the rows or recorded one of the events first; the whole batch rolled back,
+            // now the rows exist and the events it counted are skipped
+            counted = rentalHistogramService.addEvents(countable);
+        }
+        log.debug("Counted {} of {} rental events in the daily histograms", counted, events.size());
+    }
+}
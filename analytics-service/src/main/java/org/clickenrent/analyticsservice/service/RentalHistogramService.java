@@ -0,0 +1,152 @@
+package org.clickenrent.analyticsservice.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.clickenrent.analyticsservice.entity.AnalyticsRentalHistogram;
+import org.clickenrent.analyticsservice.entity.AnalyticsRentalHistogramEvent;
+import org.clickenrent.analyticsservice.repository.AnalyticsRentalHistogramEventRepository;
+import org.clickenrent.analyticsservice.repository.AnalyticsRentalHistogramRepository;
+import org.clickenrent.contracts.rental.RentalEvent;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Service for the stored daily bike rental histograms.
+ * Deltas collected from rental events are added to one row per company and day; date ranges are answered
+ * by merging those rows, so the cost grows with the number of days rather than rentals.
+ * The IDs of counted events are stored with the deltas, so replayed events are not counted twice.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RentalHistogramService {
+
+    private final AnalyticsRentalHistogramRepository repository;
+    private final AnalyticsRentalHistogramEventRepository eventRepository;
+
+    /**
+     * Add the bike rental started and ended events not counted yet to the histograms of their company and start day,
+     * and record them as counted, in one transaction.
+     *
+     * @param events Events with a company and start date time
+     * @return Number of events counted; replayed events and duplicates within the batch are skipped
+     */
+    @Transactional
+    public int addEvents(List<RentalEvent> events) {
+        Set<String> counted = new HashSet<>();
+        eventRepository.findAllById(events.stream().map(RentalEvent::getEventId).filter(Objects::nonNull).toList())
+                .forEach(event -> counted.add(event.getEventId()));
+
+        LocalDateTime now = LocalDateTime.now();
+        List<RentalEvent> fresh = new ArrayList<>(events.size());
+        List<AnalyticsRentalHistogramEvent> records = new ArrayList<>(events.size());
+        for (RentalEvent event : events) {
+            // Events without an ID can't be recognised on replay, so they are always counted
+            if (event.getEventId() == null) {
+                fresh.add(event);
+            } else if (counted.add(event.getEventId())) {
+                fresh.add(event);
+                records.add(new AnalyticsRentalHistogramEvent(event.getEventId(), now));
+            }
+        }
+        if (fresh.size() < events.size()) {
+            log.info("Skipped {} rental events already counted in the daily histograms", events.size() - fresh.size());
+        }
+
+        eventRepository.saveAll(records);
+        addToDays(deltas(fresh));
+        return fresh.size();
+    }
+
+    /**
+     * Add deltas to the histograms of their company and day, creating rows if needed, all in one transaction.
+     * Rows are locked while updated, so replicas writing the same day don't overwrite each other;
+     * two replicas creating the same row at once fail on the unique constraint and the caller retries.
+     */
+    @Transactional
+    public void addToDays(Map<Day, RentalHistogram> deltas) {
+        deltas.forEach((key, delta) -> {
+            AnalyticsRentalHistogram day = repository
+                    .findForUpdateByCompanyExternalIdAndHistogramDate(key.companyExternalId(), key.date())
+                    .orElseGet(() -> AnalyticsRentalHistogram.builder()
+                            .companyExternalId(key.companyExternalId())
+                            .histogramDate(key.date())
+                            .build());
+            delta.applyTo(day);
+            repository.save(day);
+        });
+    }
+
+    /**
+     * Collect events into one histogram delta per company and start day.
+     */
+    static Map<Day, RentalHistogram> deltas(List<RentalEvent> events) {
+        Map<Day, RentalHistogram> deltas = new HashMap<>();
+        for (RentalEvent event : events) {
+            Day day = new Day(event.getCompanyExternalId(), event.getStartDateTime().toLocalDate());
+            if (RentalEvent.BIKE_RENTAL_STARTED.equals(event.getEventType())) {
+                deltas.computeIfAbsent(day, key -> new RentalHistogram())
+                        .recordStarted(event.getStartDateTime(), event.getBikeTypeName());
+            } else if (RentalEvent.BIKE_RENTAL_ENDED.equals(event.getEventType())) {
+                deltas.computeIfAbsent(day, key -> new RentalHistogram())
+                        .recordEnded(event.getBikeRentalStatusName(), event.getRideMinutes());
+            }
+        }
+        return deltas;
+    }
+
+    /**
+     * Merge the daily histograms of a date range.
+     *
+     * @param companyExternalIds Companies to include, or null for all companies
+     */
+    @Transactional(readOnly = true)
+    public RentalHistogram getHistogram(Collection<String> companyExternalIds, LocalDate from, LocalDate to) {
+        List<AnalyticsRentalHistogram> days = companyExternalIds == null
+                ? repository.findByHistogramDateBetween(from, to)
+                : repository.findByCompanyExternalIdInAndHistogramDateBetween(companyExternalIds, from, to);
+
+        RentalHistogram histogram = new RentalHistogram();
+        days.forEach(histogram::merge);
+        log.debug("Merged {} daily rental histograms for {} to {}", days.size(), from, to);
+        return histogram;
+    }
+
+    /**
+     * Replace the histograms of all companies within a date range by the given ones, in one transaction.
+     * Rebuilding from the full state of the range makes the backfill safe to run again.
+     *
+     * @return Number of written daily histograms
+     */
+    @Transactional
+    public int replaceDays(LocalDate from, LocalDate to, Map<Day, RentalHistogram> histograms) {
+        int deleted = repository.deleteByHistogramDateBetween(from, to);
+        histograms.forEach((key, histogram) -> {
+            AnalyticsRentalHistogram day = AnalyticsRentalHistogram.builder()
+                    .companyExternalId(key.companyExternalId())
+                    .histogramDate(key.date())
+                    .build();
+            histogram.applyTo(day);
+            repository.save(day);
+        });
+        log.debug("Replaced {} daily rental histograms for {} to {} by {}", deleted, from, to, histograms.size());
+        return histograms.size();
+    }
+
+    /**
+     * Company and start date of a daily histogram.
+     */
+    public record Day(String companyExternalId, LocalDate date) {
+    }
+}
@@ -1,37 +1,67 @@
 package org.clickenrent.analyticsservice.service;
 
-import lombok.RequiredArgsConstructor;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.clickenrent.analyticsservice.client.PaymentServiceClient;
 import org.clickenrent.analyticsservice.client.RentalServiceClient;
 import org.clickenrent.analyticsservice.dto.*;
 import org.clickenrent.analyticsservice.exception.UnauthorizedException;
+import org.clickenrent.contracts.payment.RentalDailyRefundDTO;
+import org.clickenrent.contracts.rental.LocationDailyRevenueDTO;
+import org.clickenrent.http.FanOutExecutors;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
  * Service for generating revenue analytics with earnings and refunds.
  * Provides revenue breakdown by location and handles multi-tenant data access.
+ *
+ * Revenue and earnings per location and day are aggregated in SQL by rental-service, refunds per rental and day
+ * by payment-service. Both summaries are fetched in parallel and only their rows are combined here,
+ * so the cost does not grow with the number of rentals or transactions in the period.
  */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class RevenueAnalyticsService {
 
     private final RentalServiceClient rentalServiceClient;
     private final PaymentServiceClient paymentServiceClient;
     private final SecurityService securityService;
+    private final long fetchTimeoutMs;
+    private final ThreadPoolTaskExecutor executor;
 
     private static final String CURRENCY_EUR = "EUR";
     private static final int TOP_LOCATIONS_LIMIT = 5;
-    private static final String REFUNDED_STATUS = "REFUNDED";
-    private static final String PARTIALLY_REFUNDED_STATUS = "PARTIALLY_REFUNDED";
+
+    public RevenueAnalyticsService(
+            RentalServiceClient rentalServiceClient,
+            PaymentServiceClient paymentServiceClient,
+            SecurityService securityService,
+            @Value("${revenue-analytics.fetch-timeout-ms:10000}") long fetchTimeoutMs) {
+        this.rentalServiceClient = rentalServiceClient;
+        this.paymentServiceClient = paymentServiceClient;
+        this.securityService = securityService;
+        this.fetchTimeoutMs = fetchTimeoutMs;
+
+        this.executor = FanOutExecutors.create("revenue-", 2, 16, 100);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
 
     /**
      * Get revenue analytics for the specified period.
@@ -40,7 +70,6 @@ public class RevenueAnalyticsService {
      * @param to End date (required)
      * @return Revenue analytics with summary and top locations
      */
-    @Transactional(readOnly = true)
     public RevenueAnalyticsDTO getRevenueAnalytics(LocalDate from, LocalDate to) {
         // Check user permissions
         if (securityService.isCustomer()) {
@@ -57,20 +86,22 @@ public class RevenueAnalyticsService {
 
         log.info("Fetching revenue analytics for period: {} to {}", from, to);
 
-        // Fetch bike rentals from rental-service
-        BikeRentalPageDTO rentalPage = rentalServiceClient.getBikeRentals(0, 1000, from, to);
-        List<BikeRentalSummaryDTO> rentals = rentalPage.getContent() != null ? 
-                rentalPage.getContent() : Collections.emptyList();
+        // Both aggregates are in flight before either is awaited
+        CompletableFuture<List<LocationDailyRevenueDTO>> revenueFuture =
+                fetch(() -> rentalServiceClient.getDailyRevenueByLocation(from, to));
+        CompletableFuture<List<RentalDailyRefundDTO>> refundsFuture =
+                fetch(() -> paymentServiceClient.getDailyRefunds(from, to));
 
-        log.debug("Retrieved {} bike rentals for revenue calculation", rentals.size());
+        List<LocationDailyRevenueDTO> revenue = joinRevenue(revenueFuture);
+        log.debug("Retrieved {} location-day revenue rows", revenue.size());
 
         // Calculate revenue metrics
-        BigDecimal totalRevenue = calculateTotalRevenue(rentals);
-        BigDecimal totalEarnings = calculateTotalEarnings(rentals);
-        BigDecimal totalRefunds = calculateTotalRefunds(rentals);
+        BigDecimal totalRevenue = sum(revenue, LocationDailyRevenueDTO::getRevenue);
+        BigDecimal totalEarnings = sum(revenue, LocationDailyRevenueDTO::getEarnings);
+        BigDecimal totalRefunds = calculateTotalRefunds(refundsFuture);
 
         // Calculate top locations
-        List<LocationRevenueDTO> topLocations = calculateTopLocations(rentals, totalRevenue);
+        List<LocationRevenueDTO> topLocations = calculateTopLocations(revenue, totalRevenue);
 
         // Build response
         PeriodDTO period = PeriodDTO.builder()
@@ -92,98 +123,63 @@ public class RevenueAnalyticsService {
                 .build();
     }
 
+    private <T> CompletableFuture<T> fetch(Supplier<T> call) {
+        return CompletableFuture.supplyAsync(call, executor)
+                .orTimeout(fetchTimeoutMs, TimeUnit.MILLISECONDS);
+    }
+
     /**
-     * Calculate total revenue from all bike rentals.
-     * Total revenue = sum of totalPrice for all rentals.
-     *
-     * @param rentals List of bike rentals
-     * @return Total revenue
+     * Wait for the revenue rows; without them there is nothing to report, so failures propagate.
      */
-    private BigDecimal calculateTotalRevenue(List<BikeRentalSummaryDTO> rentals) {
-        BigDecimal total = rentals.stream()
-                .map(BikeRentalSummaryDTO::getTotalPrice)
-                .filter(Objects::nonNull)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        log.debug("Calculated total revenue: {} EUR", total);
-        return total.setScale(2, RoundingMode.HALF_UP);
+    private List<LocationDailyRevenueDTO> joinRevenue(CompletableFuture<List<LocationDailyRevenueDTO>> future) {
+        try {
+            List<LocationDailyRevenueDTO> revenue = future.join();
+            return revenue != null ? revenue : Collections.emptyList();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
     }
 
     /**
-     * Calculate total earnings (revenue share) from all bike rentals.
-     * Earnings = sum of (totalPrice * revenueSharePercent / 100) for all rentals.
-     *
-     * @param rentals List of bike rentals
-     * @return Total earnings
+     * Sum a money column of the location-day rows, rounded to cents.
      */
-    private BigDecimal calculateTotalEarnings(List<BikeRentalSummaryDTO> rentals) {
-        BigDecimal total = rentals.stream()
-                .filter(rental -> rental.getTotalPrice() != null && rental.getRevenueSharePercent() != null)
-                .map(rental -> {
-                    BigDecimal totalPrice = rental.getTotalPrice();
-                    BigDecimal sharePercent = rental.getRevenueSharePercent();
-                    return totalPrice.multiply(sharePercent)
-                            .divide(BigDecimal.valueOf(100), 2, RoundingMode.HALF_UP);
-                })
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        log.debug("Calculated total earnings: {} EUR", total);
-        return total.setScale(2, RoundingMode.HALF_UP);
+    private static BigDecimal sum(List<LocationDailyRevenueDTO> revenue,
+                                  Function<LocationDailyRevenueDTO, BigDecimal> column) {
+        return revenue.stream()
+                .map(column)
+                .filter(Objects::nonNull)
+                .reduce(BigDecimal.ZERO, BigDecimal::add)
+                .setScale(2, RoundingMode.HALF_UP);
     }
 
     /**
-     * Calculate total refunds from rental financial transactions.
-     * Queries payment-service for all rental transactions and sums refunded amounts.
+     * Calculate total refunds from the period's refund rows of payment-service.
      *
-     * @param rentals List of bike rentals
+     * @param refundsFuture Refunds per rental and day in the period
      * @return Total refunds
      */
-    private BigDecimal calculateTotalRefunds(List<BikeRentalSummaryDTO> rentals) {
-        if (rentals.isEmpty()) {
-            log.debug("No rentals to check for refunds");
-            return BigDecimal.ZERO;
-        }
-
+    private BigDecimal calculateTotalRefunds(CompletableFuture<List<RentalDailyRefundDTO>> refundsFuture) {
         try {
-            // Extract rental external IDs to match with payment transactions
-            Set<String> rentalExternalIds = rentals.stream()
-                    .map(BikeRentalSummaryDTO::getRentalExternalId)
-                    .filter(Objects::nonNull)
-                    .collect(Collectors.toSet());
-
-            if (rentalExternalIds.isEmpty()) {
-                log.warn("No rental external IDs found in bike rentals");
-                return BigDecimal.ZERO;
+            List<RentalDailyRefundDTO> refunds = refundsFuture.join();
+            if (refunds == null || refunds.isEmpty()) {
+                log.debug("No refunds in the period");
+                return BigDecimal.ZERO.setScale(2, RoundingMode.HALF_UP);
             }
 
-            log.debug("Checking refunds for {} unique rentals", rentalExternalIds.size());
-
-            // Fetch rental financial transactions from payment-service
-            RentalFinTransactionPageDTO transactionPage = paymentServiceClient.getRentalFinTransactions(0, 1000);
-            List<RentalFinTransactionDTO> transactions = transactionPage.getContent() != null ?
-                    transactionPage.getContent() : Collections.emptyList();
-
-            log.debug("Retrieved {} rental financial transactions from payment-service", transactions.size());
-
-            // Filter transactions matching our rentals and with REFUNDED status
-            BigDecimal totalRefunds = transactions.stream()
-                    .filter(transaction -> rentalExternalIds.contains(transaction.getRentalExternalId()))
-                    .filter(transaction -> transaction.getFinancialTransaction() != null)
-                    .filter(transaction -> {
-                        FinancialTransactionSummaryDTO finTx = transaction.getFinancialTransaction();
-                        return finTx.getPaymentStatus() != null &&
-                               (REFUNDED_STATUS.equalsIgnoreCase(finTx.getPaymentStatus().getCode()) ||
-                                PARTIALLY_REFUNDED_STATUS.equalsIgnoreCase(finTx.getPaymentStatus().getCode()));
-                    })
-                    .map(transaction -> transaction.getFinancialTransaction().getAmount())
+            BigDecimal totalRefunds = refunds.stream()
+                    .map(RentalDailyRefundDTO::getAmount)
                     .filter(Objects::nonNull)
                     .reduce(BigDecimal.ZERO, BigDecimal::add);
 
-            log.debug("Calculated total refunds: {} EUR", totalRefunds);
+            log.debug("Calculated total refunds: {} EUR from {} rental-day rows", totalRefunds, refunds.size());
             return totalRefunds.setScale(2, RoundingMode.HALF_UP);
 
-        } catch (Exception e) {
-            log.error("Error calculating refunds from payment-service: {}", e.getMessage(), e);
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            log.error("Error calculating refunds from payment-service: {}", cause.getMessage(), cause);
             // Return zero refunds on error rather than failing the entire request
             return BigDecimal.ZERO;
         }
@@ -191,42 +187,34 @@ public class RevenueAnalyticsService {
 
     /**
      * Calculate top locations by revenue.
-     * Groups rentals by location, calculates revenue and earnings per location,
-     * and returns top N locations by revenue.
+     * Sums the per-day rows of each location and returns top N locations by revenue.
      *
-     * @param rentals List of bike rentals
+     * @param revenue Revenue per location and day
      * @param totalRevenue Total revenue for percentage calculation
      * @return List of top locations (limited to TOP_LOCATIONS_LIMIT)
      */
-    private List<LocationRevenueDTO> calculateTopLocations(List<BikeRentalSummaryDTO> rentals, 
+    private List<LocationRevenueDTO> calculateTopLocations(List<LocationDailyRevenueDTO> revenue,
                                                            BigDecimal totalRevenue) {
-        if (rentals.isEmpty()) {
+        if (revenue.isEmpty()) {
             log.debug("No rentals to calculate location breakdown");
             return Collections.emptyList();
         }
 
-        // Group rentals by location
-        Map<LocationKey, LocationMetrics> locationMetrics = new HashMap<>();
+        // Group days by location
+        Map<Long, LocationMetrics> locationMetrics = new HashMap<>();
 
-        for (BikeRentalSummaryDTO rental : rentals) {
-            if (rental.getLocationId() == null) {
+        for (LocationDailyRevenueDTO day : revenue) {
+            if (day.getLocationId() == null) {
                 continue;
             }
 
-            LocationKey key = new LocationKey(rental.getLocationId(), rental.getLocationName());
-            LocationMetrics metrics = locationMetrics.computeIfAbsent(key, k -> new LocationMetrics());
-
-            // Add revenue
-            if (rental.getTotalPrice() != null) {
-                metrics.revenue = metrics.revenue.add(rental.getTotalPrice());
+            LocationMetrics metrics = locationMetrics.computeIfAbsent(day.getLocationId(),
+                    id -> new LocationMetrics(day.getLocationName()));
+            if (day.getRevenue() != null) {
+                metrics.revenue = metrics.revenue.add(day.getRevenue());
             }
-
-            // Add earnings
-            if (rental.getTotalPrice() != null && rental.getRevenueSharePercent() != null) {
-                BigDecimal earnings = rental.getTotalPrice()
-                        .multiply(rental.getRevenueSharePercent())
-                        .divide(BigDecimal.valueOf(100), 2, RoundingMode.HALF_UP);
-                metrics.earnings = metrics.earnings.add(earnings);
+            if (day.getEarnings() != null) {
+                metrics.earnings = metrics.earnings.add(day.getEarnings());
             }
         }
 
@@ -235,7 +223,6 @@ public class RevenueAnalyticsService {
         // Convert to DTOs and sort by revenue (descending)
         List<LocationRevenueDTO> locationList = locationMetrics.entrySet().stream()
                 .map(entry -> {
-                    LocationKey location = entry.getKey();
                     LocationMetrics metrics = entry.getValue();
 
                     // Calculate percentage of total revenue
@@ -250,8 +237,8 @@ public class RevenueAnalyticsService {
                     }
 
                     return LocationRevenueDTO.builder()
-                            .locationId(location.id)
-                            .name(location.name)
+                            .locationId(entry.getKey())
+                            .name(metrics.name)
                             .revenue(metrics.revenue.setScale(2, RoundingMode.HALF_UP))
                             .earnings(metrics.earnings.setScale(2, RoundingMode.HALF_UP))
                             .percentage(percentage)
@@ -265,37 +252,16 @@ public class RevenueAnalyticsService {
         return locationList;
     }
 
-    /**
-     * Internal class to hold location identifier (id + name).
-     */
-    private static class LocationKey {
-        final Long id;
-        final String name;
-
-        LocationKey(Long id, String name) {
-            this.id = id;
-            this.name = name != null ? name : "Unknown Location";
-        }
-
-        @Override
-        public boolean equals(Object o) {
-            if (this == o) return true;
-            if (o == null || getClass() != o.getClass()) return false;
-            LocationKey that = (LocationKey) o;
-            return Objects.equals(id, that.id);
-        }
-
-        @Override
-        public int hashCode() {
-            return Objects.hash(id);
-        }
-    }
-
     /**
      * Internal class to hold accumulated metrics per location.
      */
     private static class LocationMetrics {
+        final String name;
         BigDecimal revenue = BigDecimal.ZERO;
         BigDecimal earnings = BigDecimal.ZERO;
+
+        LocationMetrics(String name) {
+            this.name = name != null ? name : "Unknown Location";
+        }
     }
 }
@@ -0,0 +1,183 @@
+-- =====================================================================================================================
+-- ANALYTICS SERVICE - MONTHLY PARTITIONING OF METRIC TABLES (Flyway Migration V3)
+-- =====================================================================================================================
+-- Module: analytics-service
+-- Database: PostgreSQL
+-- Description: Range-partition the four metric tables by month on their time column, with BRIN indexes on it.
+--              Partitions are named <table>_pYYYY_MM (UTC months), plus a <table>_default partition for rows
+--              outside the created range. MetricsRetentionJob keeps partitions created ahead, rolls hourly
+--              metrics up to daily rows and drops partitions past retention using the functions below.
+--              Primary and unique keys include the partition column, as PostgreSQL requires.
+--
+-- Author: Vitaliy Shvetsov
+-- =====================================================================================================================
+
+-- =====================================================================================================================
+-- PARTITION MANAGEMENT FUNCTIONS
+-- =====================================================================================================================
+
+-- Partition column of a partitioned table and its type ('date' or 'timestamp with time zone')
+CREATE OR REPLACE FUNCTION analytics_partition_key(parent_table TEXT, OUT key_column TEXT, OUT key_type TEXT)
+LANGUAGE sql STABLE AS $$
+    SELECT a.attname::text, format_type(a.atttypid, a.atttypmod)
+    FROM pg_partitioned_table p
+    JOIN pg_attribute a ON a.attrelid = p.partrelid AND a.attnum = p.partattrs[0]
+    WHERE p.partrelid = parent_table::regclass
+$$;
+
+-- Literal for the start of a day in the partition column's type; timestamps are bounded at UTC midnight
+CREATE OR REPLACE FUNCTION analytics_partition_bound(day DATE, key_type TEXT)
+RETURNS TEXT LANGUAGE sql IMMUTABLE AS $$
+    SELECT quote_literal(to_char(day, 'YYYY-MM-DD') || CASE WHEN key_type = 'date' THEN '' ELSE ' 00:00:00+00' END)
+$$;
+
+-- Create the missing monthly partitions from from_month to to_month (inclusive); returns how many were created
+CREATE OR REPLACE FUNCTION analytics_create_monthly_partitions(parent_table TEXT, from_month DATE, to_month DATE)
+RETURNS INTEGER LANGUAGE plpgsql AS $$
+DECLARE
+    partition_key RECORD;
+    month_start DATE := date_trunc('month', from_month)::date;
+    partition_name TEXT;
+    created INTEGER := 0;
+BEGIN
+    SELECT * INTO partition_key FROM analytics_partition_key(parent_table);
+    WHILE month_start <= to_month LOOP
+        partition_name := parent_table || '_p' || to_char(month_start, 'YYYY_MM');
+        IF to_regclass(partition_name) IS NULL THEN
+            EXECUTE format('CREATE TABLE %I PARTITION OF %I FOR VALUES FROM (%s) TO (%s)',
+                    partition_name, parent_table,
+                    analytics_partition_bound(month_start, partition_key.key_type),
+                    analytics_partition_bound((month_start + INTERVAL '1 month')::date, partition_key.key_type));
+            created := created + 1;
+        END IF;
+        month_start := (month_start + INTERVAL '1 month')::date;
+    END LOOP;
+    RETURN created;
+END;
+$$;
+
+-- Drop monthly partitions that end on or before cutoff and delete older rows from the default partition;
+-- returns how many partitions were dropped
+CREATE OR REPLACE FUNCTION analytics_drop_partitions_before(parent_table TEXT, cutoff DATE)
+RETURNS INTEGER LANGUAGE plpgsql AS $$
+DECLARE
+    partition_key RECORD;
+    partition_name TEXT;
+    dropped INTEGER := 0;
+BEGIN
+    SELECT * INTO partition_key FROM analytics_partition_key(parent_table);
+    FOR partition_name IN
+        SELECT c.relname
+        FROM pg_inherits i
+        JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = parent_table::regclass
+          AND c.relname ~ ('^' || parent_table || '_p[0-9]{4}_[0-9]{2}$')
+    LOOP
+        IF to_date(right(partition_name, 7), 'YYYY_MM') + INTERVAL '1 month' <= cutoff THEN
+            EXECUTE format('DROP TABLE %I', partition_name);
+            dropped := dropped + 1;
+        END IF;
+    END LOOP;
+    EXECUTE format('DELETE FROM %I WHERE %I < %s',
+            parent_table || '_default', partition_key.key_column, analytics_partition_bound(cutoff, partition_key.key_type));
+    RETURN dropped;
+END;
+$$;
+
+-- Replace a plain table by a partitioned copy with the same columns and data. Partitions cover the months from
+-- the oldest row (at most 24 months back) to 3 months ahead; anything older goes to the default partition.
+-- The id sequence is recreated and moved past the copied ids; keys and indexes are added by the caller.
+CREATE OR REPLACE FUNCTION analytics_convert_to_monthly_partitions(parent_table TEXT, key_column TEXT)
+RETURNS VOID LANGUAGE plpgsql AS $$
+DECLARE
+    legacy_table TEXT := parent_table || '_unpartitioned';
+    sequence_name TEXT := parent_table || '_id_seq';
+    current_month DATE := date_trunc('month', CURRENT_DATE)::date;
+    oldest_month DATE;
+BEGIN
+    EXECUTE format('ALTER TABLE %I RENAME TO %I', parent_table, legacy_table);
+    EXECUTE format('CREATE TABLE %I (LIKE %I INCLUDING DEFAULTS) PARTITION BY RANGE (%I)',
+            parent_table, legacy_table, key_column);
+    -- The copied id default still points at the old table's sequence
+    EXECUTE format('ALTER TABLE %I ALTER COLUMN id DROP DEFAULT', parent_table);
+
+    EXECUTE format('SELECT date_trunc(''month'', MIN(%I))::date FROM %I', key_column, legacy_table) INTO oldest_month;
+    PERFORM analytics_create_monthly_partitions(parent_table,
+            GREATEST(COALESCE(oldest_month, current_month), (current_month - INTERVAL '24 months')::date),
+            (current_month + INTERVAL '3 months')::date);
+    EXECUTE format('CREATE TABLE %I PARTITION OF %I DEFAULT', parent_table || '_default', parent_table);
+
+    EXECUTE format('INSERT INTO %I SELECT * FROM %I', parent_table, legacy_table);
+    EXECUTE format('DROP TABLE %I', legacy_table);
+
+    EXECUTE format('CREATE SEQUENCE IF NOT EXISTS %I', sequence_name);
+    EXECUTE format('ALTER SEQUENCE %I OWNED BY %I.id', sequence_name, parent_table);
+    EXECUTE format('ALTER TABLE %I ALTER COLUMN id SET DEFAULT nextval(%L)', parent_table, sequence_name);
+    EXECUTE format('SELECT setval(%L, COALESCE(MAX(id), 0) + 1, false) FROM %I', sequence_name, parent_table);
+    EXECUTE format('ALTER TABLE %I ADD CONSTRAINT %I PRIMARY KEY (id, %I)',
+            parent_table, parent_table || '_pkey', key_column);
+END;
+$$;
+
+-- =====================================================================================================================
+-- TABLE: analytics_daily_summary (partitioned by summary_date)
+-- =====================================================================================================================
+SELECT analytics_convert_to_monthly_partitions('analytics_daily_summary', 'summary_date');
+
+ALTER TABLE analytics_daily_summary
+    ADD CONSTRAINT uk_analytics_daily_summary_external_id UNIQUE (external_id, summary_date);
+ALTER TABLE analytics_daily_summary
+    ADD CONSTRAINT uk_analytics_daily_summary_company_date UNIQUE (company_external_id, summary_date);
+
+CREATE INDEX IF NOT EXISTS idx_analytics_daily_summary_date_brin ON analytics_daily_summary USING brin (summary_date);
+CREATE INDEX IF NOT EXISTS idx_analytics_daily_summary_company ON analytics_daily_summary(company_external_id);
+CREATE INDEX IF NOT EXISTS idx_analytics_daily_summary_external_id ON analytics_daily_summary(external_id);
+
+-- =====================================================================================================================
+-- TABLE: analytics_hourly_metrics (partitioned by metric_hour)
+-- =====================================================================================================================
+SELECT analytics_convert_to_monthly_partitions('analytics_hourly_metrics', 'metric_hour');
+
+ALTER TABLE analytics_hourly_metrics
+    ADD CONSTRAINT uk_analytics_hourly_metrics_external_id UNIQUE (external_id, metric_hour);
+ALTER TABLE analytics_hourly_metrics
+    ADD CONSTRAINT uk_analytics_hourly_metrics_company_hour UNIQUE (company_external_id, metric_hour);
+
+CREATE INDEX IF NOT EXISTS idx_analytics_hourly_hour_brin ON analytics_hourly_metrics USING brin (metric_hour);
+CREATE INDEX IF NOT EXISTS idx_analytics_hourly_company ON analytics_hourly_metrics(company_external_id);
+CREATE INDEX IF NOT EXISTS idx_analytics_hourly_external_id ON analytics_hourly_metrics(external_id);
+
+-- =====================================================================================================================
+-- TABLE: analytics_bike_metrics (partitioned by metric_date)
+-- =====================================================================================================================
+SELECT analytics_convert_to_monthly_partitions('analytics_bike_metrics', 'metric_date');
+
+ALTER TABLE analytics_bike_metrics
+    ADD CONSTRAINT uk_analytics_bike_metrics_external_id UNIQUE (external_id, metric_date);
+ALTER TABLE analytics_bike_metrics
+    ADD CONSTRAINT uk_analytics_bike_metrics UNIQUE (company_external_id, metric_date, bike_external_id);
+
+CREATE INDEX IF NOT EXISTS idx_analytics_bike_date_brin ON analytics_bike_metrics USING brin (metric_date);
+CREATE INDEX IF NOT EXISTS idx_analytics_bike_external_id ON analytics_bike_metrics(bike_external_id);
+CREATE INDEX IF NOT EXISTS idx_analytics_bike_company ON analytics_bike_metrics(company_external_id);
+CREATE INDEX IF NOT EXISTS idx_analytics_bike_entity_external_id ON analytics_bike_metrics(external_id);
+CREATE INDEX IF NOT EXISTS idx_analytics_bike_code ON analytics_bike_metrics(bike_code);
+
+-- =====================================================================================================================
+-- TABLE: analytics_location_metrics (partitioned by metric_date)
+-- =====================================================================================================================
+SELECT analytics_convert_to_monthly_partitions('analytics_location_metrics', 'metric_date');
+
+ALTER TABLE analytics_location_metrics
+    ADD CONSTRAINT uk_analytics_location_metrics_external_id UNIQUE (external_id, metric_date);
+ALTER TABLE analytics_location_metrics
+    ADD CONSTRAINT uk_analytics_location_metrics UNIQUE (company_external_id, metric_date, location_external_id);
+
+CREATE INDEX IF NOT EXISTS idx_analytics_location_date_brin ON analytics_location_metrics USING brin (metric_date);
+CREATE INDEX IF NOT EXISTS idx_analytics_location_external_id ON analytics_location_metrics(location_external_id);
+CREATE INDEX IF NOT EXISTS idx_analytics_location_company ON analytics_location_metrics(company_external_id);
+CREATE INDEX IF NOT EXISTS idx_analytics_location_entity_external_id ON analytics_location_metrics(external_id);
+
+-- =====================================================================================================================
+-- END OF MONTHLY PARTITIONING
+-- =====================================================================================================================
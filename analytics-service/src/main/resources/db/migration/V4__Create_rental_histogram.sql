@@ -0,0 +1,51 @@
+-- =====================================================================================================================
+-- ANALYTICS SERVICE - DAILY RENTAL HISTOGRAMS (Flyway Migration V4)
+-- =====================================================================================================================
+-- Module: analytics-service
+-- Database: PostgreSQL
+-- Description: One row per company and day with the bike rentals started that day: hour-of-day buckets,
+--              counts per bike type and ride duration count/sum/min/max. Maintained from rental events by
+--              RentalHistogramRecorder and merged over date ranges by the bike rental analytics.
+--
+-- Author: Vitaliy Shvetsov
+-- =====================================================================================================================
+
+CREATE TABLE IF NOT EXISTS analytics_rental_histogram (
+    id BIGSERIAL PRIMARY KEY,
+    external_id VARCHAR(100) UNIQUE NOT NULL,
+    company_external_id VARCHAR(100) NOT NULL,
+    histogram_date DATE NOT NULL,
+
+    -- Bike rental counts
+    bike_rentals_started BIGINT NOT NULL DEFAULT 0,
+    bike_rentals_completed BIGINT NOT NULL DEFAULT 0,
+    bike_rentals_cancelled BIGINT NOT NULL DEFAULT 0,
+
+    -- 24 comma-separated counts of bike rentals started per hour of day
+    hour_counts VARCHAR(500) NOT NULL,
+    -- JSON object of bike rentals started per bike type name
+    bike_type_counts TEXT NOT NULL,
+
+    -- Ride durations of ended bike rentals
+    duration_count BIGINT NOT NULL DEFAULT 0,
+    duration_sum_minutes BIGINT NOT NULL DEFAULT 0,
+    duration_min_minutes BIGINT,
+    duration_max_minutes BIGINT,
+
+    -- Audit Fields
+    date_created TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    last_date_modified TIMESTAMP,
+    created_by VARCHAR(255),
+    last_modified_by VARCHAR(255),
+    is_deleted BOOLEAN NOT NULL DEFAULT false,
+
+    -- Constraints
+    CONSTRAINT uk_analytics_rental_histogram_company_date UNIQUE (company_external_id, histogram_date)
+);
+
+-- Admin date range queries; company queries use the unique constraint
+CREATE INDEX IF NOT EXISTS idx_analytics_rental_histogram_date ON analytics_rental_histogram(histogram_date);
+
+-- =====================================================================================================================
+-- END OF DAILY RENTAL HISTOGRAMS
+-- =====================================================================================================================
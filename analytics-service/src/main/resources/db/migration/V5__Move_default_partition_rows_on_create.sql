@@ -0,0 +1,70 @@
+-- =====================================================================================================================
+-- ANALYTICS SERVICE - CREATE MONTHLY PARTITIONS OVER A NON-EMPTY DEFAULT PARTITION (Flyway Migration V5)
+-- =====================================================================================================================
+-- Module: analytics-service
+-- Database: PostgreSQL
+-- Description: PostgreSQL refuses to create a partition while the default partition holds rows for its range
+--              ("updated partition constraint for default partition would be violated"). That happens as soon as
+--              a late or backfilled metric lands in <table>_default before MetricsRetentionJob has created the
+--              month, and from then on partition creation for that table fails on every run.
+--              When the default partition has rows for the new month, it is detached, the partition is created,
+--              the rows are moved into it and the default partition is attached again, all in the caller's
+--              transaction.
+--
+-- Author: Vitaliy Shvetsov
+-- =====================================================================================================================
+
+-- Create the missing monthly partitions from from_month to to_month (inclusive); returns how many were created
+CREATE OR REPLACE FUNCTION analytics_create_monthly_partitions(parent_table TEXT, from_month DATE, to_month DATE)
+RETURNS INTEGER LANGUAGE plpgsql AS $$
+DECLARE
+    partition_key RECORD;
+    default_partition TEXT := parent_table || '_default';
+    month_start DATE := date_trunc('month', from_month)::date;
+    partition_name TEXT;
+    lower_bound TEXT;
+    upper_bound TEXT;
+    default_has_rows BOOLEAN;
+    created INTEGER := 0;
+BEGIN
+    SELECT * INTO partition_key FROM analytics_partition_key(parent_table);
+    WHILE month_start <= to_month LOOP
+        partition_name := parent_table || '_p' || to_char(month_start, 'YYYY_MM');
+        IF to_regclass(partition_name) IS NULL THEN
+            lower_bound := analytics_partition_bound(month_start, partition_key.key_type);
+            upper_bound := analytics_partition_bound((month_start + INTERVAL '1 month')::date, partition_key.key_type);
+
+            default_has_rows := false;
+            IF to_regclass(default_partition) IS NOT NULL THEN
+                EXECUTE format('SELECT EXISTS (SELECT 1 FROM %I WHERE %I >= %s AND %I < %s)',
+                        default_partition, partition_key.key_column, lower_bound, partition_key.key_column, upper_bound)
+                    INTO default_has_rows;
+            END IF;
+
+            IF default_has_rows THEN
+                EXECUTE format('ALTER TABLE %I DETACH PARTITION %I', parent_table, default_partition);
+            END IF;
+
+            EXECUTE format('CREATE TABLE %I PARTITION OF %I FOR VALUES FROM (%s) TO (%s)',
+                    partition_name, parent_table, lower_bound, upper_bound);
+
+            IF default_has_rows THEN
+                EXECUTE format('INSERT INTO %I SELECT * FROM %I WHERE %I >= %s AND %I < %s',
+                        partition_name, default_partition,
+                        partition_key.key_column, lower_bound, partition_key.key_column, upper_bound);
+                EXECUTE format('DELETE FROM %I WHERE %I >= %s AND %I < %s',
+                        default_partition, partition_key.key_column, lower_bound, partition_key.key_column, upper_bound);
+                EXECUTE format('ALTER TABLE %I ATTACH PARTITION %I DEFAULT', parent_table, default_partition);
+            END IF;
+
+            created := created + 1;
+        END IF;
+        month_start := (month_start + INTERVAL '1 month')::date;
+    END LOOP;
+    RETURN created;
+END;
+$$;
+
+-- =====================================================================================================================
+-- END OF DEFAULT PARTITION FIX
+-- =====================================================================================================================
@@ -0,0 +1,23 @@
+-- =====================================================================================================================
+-- ANALYTICS SERVICE - COUNTED RENTAL HISTOGRAM EVENTS (Flyway Migration V6)
+-- =====================================================================================================================
+-- Module: analytics-service
+-- Database: PostgreSQL
+-- Description: IDs of the rental events already added to the daily rental histograms (V4). Inserted in the same
+--              transaction as the histogram deltas, so an event replayed after a crash between the database commit
+--              and the Kafka offset commit, or relayed twice by the rental-service outbox, is not counted again.
+--              Rows older than the replay window are deleted by MetricsRetentionJob.
+-- =====================================================================================================================
+
+CREATE TABLE IF NOT EXISTS analytics_rental_histogram_event (
+    event_id VARCHAR(100) PRIMARY KEY,
+    processed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Retention deletes by age
+CREATE INDEX IF NOT EXISTS idx_analytics_rental_histogram_event_processed_at
+    ON analytics_rental_histogram_event(processed_at);
+
+-- =====================================================================================================================
+-- END OF COUNTED RENTAL HISTOGRAM EVENTS
+-- =====================================================================================================================
@@ -43,7 +43,7 @@ INSERT INTO analytics_daily_summary (
 ('daily-summary-6d-ago', 'company-ext-001', CURRENT_DATE - INTERVAL '6 days',
  1, 15, 139, 14, 13, 1, 840, 60, 14000, 0, 1000,
  25, 18, 5, 2, 3, 3, 1, 2, 2, false, NOW(), NOW())
-ON CONFLICT (external_id) DO NOTHING;
+ON CONFLICT DO NOTHING;
 
 -- Analytics Hourly Metrics (sample hours)
 INSERT INTO analytics_hourly_metrics (
@@ -64,7 +64,7 @@ INSERT INTO analytics_hourly_metrics (
 ('hourly-metrics-now', 'company-ext-001',
  DATE_TRUNC('hour', CURRENT_TIMESTAMP),
  2, 2, 2000, 4, 0, false, NOW(), NOW())
-ON CONFLICT (external_id) DO NOTHING;
+ON CONFLICT DO NOTHING;
 
 -- Analytics Bike Metrics (sample bikes)
 INSERT INTO analytics_bike_metrics (
@@ -85,7 +85,7 @@ INSERT INTO analytics_bike_metrics (
  0, 0, 0, 21.0, 0.0, 3.0, false, NOW(), NOW()),
 ('bike-metrics-bike3-yesterday', 'company-ext-001', CURRENT_DATE - INTERVAL '1 day', 'BIKE-003', 'BIKE-003',
  5, 300, 5000, 19.0, 5.0, 0.0, false, NOW(), NOW())
-ON CONFLICT (external_id) DO NOTHING;
+ON CONFLICT DO NOTHING;
 
 -- Analytics Location Metrics (sample locations)
 INSERT INTO analytics_location_metrics (
@@ -106,7 +106,7 @@ INSERT INTO analytics_location_metrics (
  5, 4, 5, 5000, 15.0, false, NOW(), NOW()),
 ('location-metrics-loc3-yesterday', 'company-ext-002', CURRENT_DATE - INTERVAL '1 day', '550e8400-e29b-41d4-a716-446655440103',
  12, 13, 10, 12000, 9.0, false, NOW(), NOW())
-ON CONFLICT (external_id) DO NOTHING;
+ON CONFLICT DO NOTHING;
 
 -- =====================================================================================================================
 -- END OF SAMPLE DATA
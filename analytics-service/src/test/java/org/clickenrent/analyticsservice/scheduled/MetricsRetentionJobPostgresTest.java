@@ -0,0 +1,100 @@
+package org.clickenrent.analyticsservice.scheduled;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs MetricsRetentionJob against PostgreSQL with the Flyway migrations applied:
+ * partition creation over a non-empty default partition, and the advisory lock between replicas.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class MetricsRetentionJobPostgresTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    // Well past the partitions created by the V3 migration, so rows for it land in the default partition
+    private static final LocalDate TODAY = LocalDate.now(ZoneOffset.UTC).withDayOfMonth(1).plusYears(2);
+
+    private static DriverManagerDataSource dataSource;
+
+    private JdbcTemplate jdbcTemplate;
+    private MetricsRetentionJob job;
+
+    @BeforeAll
+    static void migrate() {
+        dataSource = new DriverManagerDataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration")
+                .load()
+                .migrate();
+    }
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        // Retention and downsampling off: only partition creation is under test
+        job = new MetricsRetentionJob(jdbcTemplate, 0, 0, 0, 0, 0);
+        jdbcTemplate.execute("DROP TABLE IF EXISTS analytics_daily_summary_p" + month(TODAY));
+        jdbcTemplate.update("DELETE FROM analytics_daily_summary");
+    }
+
+    @Test
+    void run_WithRowsInDefaultPartition_MovesThemIntoTheNewPartition() {
+        jdbcTemplate.update("INSERT INTO analytics_daily_summary (external_id, company_external_id, summary_date) " +
+                "VALUES ('late-summary', 'company-a', ?)", TODAY.plusDays(14));
+        assertEquals(1, count("analytics_daily_summary_default"));
+
+        assertTrue(job.runExclusively(TODAY));
+
+        assertEquals(0, count("analytics_daily_summary_default"));
+        assertEquals(1, count("analytics_daily_summary_p" + month(TODAY)));
+        assertEquals(1, count("analytics_daily_summary"));
+    }
+
+    @Test
+    void runExclusively_WhileAnotherInstanceHoldsTheLock_SkipsTheRun() throws SQLException {
+        try (Connection otherInstance = dataSource.getConnection(); Statement statement = otherInstance.createStatement()) {
+            statement.execute("SELECT pg_advisory_lock(" + MetricsRetentionJob.ADVISORY_LOCK_KEY + ")");
+
+            assertFalse(job.runExclusively(TODAY));
+            assertNull(jdbcTemplate.queryForObject("SELECT to_regclass(?)::text", String.class,
+                    "analytics_daily_summary_p" + month(TODAY)));
+
+            statement.execute("SELECT pg_advisory_unlock(" + MetricsRetentionJob.ADVISORY_LOCK_KEY + ")");
+        }
+
+        assertTrue(job.runExclusively(TODAY));
+        assertNotNull(jdbcTemplate.queryForObject("SELECT to_regclass(?)::text", String.class,
+                "analytics_daily_summary_p" + month(TODAY)));
+        // Released after the run, so the next one can take it
+        assertEquals(Boolean.TRUE, jdbcTemplate.queryForObject(
+                "SELECT pg_try_advisory_lock(?) AND pg_advisory_unlock(?)", Boolean.class,
+                MetricsRetentionJob.ADVISORY_LOCK_KEY, MetricsRetentionJob.ADVISORY_LOCK_KEY));
+    }
+
+    private long count(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Long.class);
+    }
+
+    private static String month(LocalDate day) {
+        return day.format(DateTimeFormatter.ofPattern("yyyy_MM"));
+    }
+}
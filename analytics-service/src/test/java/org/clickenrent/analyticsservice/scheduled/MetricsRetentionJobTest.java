@@ -0,0 +1,81 @@
+package org.clickenrent.analyticsservice.scheduled;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for MetricsRetentionJob.
+ */
+@ExtendWith(MockitoExtension.class)
+class MetricsRetentionJobTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 10, 19);
+    private static final LocalDate CURRENT_MONTH = LocalDate.of(2026, 10, 1);
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void run_CreatesPartitionsAhead_DropsExpiredPartitions_RollsUpHourlyMetrics_AndPurgesCountedEvents() {
+        MetricsRetentionJob job = new MetricsRetentionJob(jdbcTemplate, 3, 30, 730, 1825, 7);
+
+        job.run(TODAY);
+
+        for (String table : new String[]{"analytics_hourly_metrics", "analytics_daily_summary",
+                "analytics_bike_metrics", "analytics_location_metrics"}) {
+            verify(jdbcTemplate).queryForObject(MetricsRetentionJob.CREATE_PARTITIONS_SQL, Integer.class,
+                    table, CURRENT_MONTH, LocalDate.of(2027, 1, 1));
+        }
+        verify(jdbcTemplate).queryForObject(MetricsRetentionJob.DROP_PARTITIONS_SQL, Integer.class,
+                "analytics_hourly_metrics", TODAY.minusDays(730));
+        verify(jdbcTemplate).queryForObject(MetricsRetentionJob.DROP_PARTITIONS_SQL, Integer.class,
+                "analytics_bike_metrics", TODAY.minusDays(1825));
+        verify(jdbcTemplate).update(MetricsRetentionJob.DOWNSAMPLE_HOURLY_SQL,
+                OffsetDateTime.of(2026, 9, 19, 0, 0, 0, 0, ZoneOffset.UTC));
+        verify(jdbcTemplate).update(MetricsRetentionJob.DELETE_HISTOGRAM_EVENTS_SQL,
+                LocalDateTime.of(2026, 10, 12, 0, 0));
+    }
+
+    @Test
+    void run_ZeroRetentionAndDownsampling_OnlyCreatesPartitions() {
+        MetricsRetentionJob job = new MetricsRetentionJob(jdbcTemplate, 1, 0, 0, 0, 0);
+
+        job.run(TODAY);
+
+        verify(jdbcTemplate, times(4)).queryForObject(eq(MetricsRetentionJob.CREATE_PARTITIONS_SQL), eq(Integer.class),
+                anyString(), eq(CURRENT_MONTH), eq(LocalDate.of(2026, 11, 1)));
+        verify(jdbcTemplate, never()).queryForObject(eq(MetricsRetentionJob.DROP_PARTITIONS_SQL), eq(Integer.class),
+                any(Object[].class));
+        verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+    }
+
+    @Test
+    void run_FailureOnOneTable_ContinuesWithTheOthers() {
+        when(jdbcTemplate.queryForObject(MetricsRetentionJob.CREATE_PARTITIONS_SQL, Integer.class,
+                "analytics_hourly_metrics", CURRENT_MONTH, LocalDate.of(2027, 1, 1)))
+                .thenThrow(new DataAccessResourceFailureException("partition overlaps default"));
+        MetricsRetentionJob job = new MetricsRetentionJob(jdbcTemplate, 3, 30, 730, 1825, 7);
+
+        job.run(TODAY);
+
+        verify(jdbcTemplate).queryForObject(MetricsRetentionJob.CREATE_PARTITIONS_SQL, Integer.class,
+                "analytics_location_metrics", CURRENT_MONTH, LocalDate.of(2027, 1, 1));
+        verify(jdbcTemplate).queryForObject(MetricsRetentionJob.DROP_PARTITIONS_SQL, Integer.class,
+                "analytics_hourly_metrics", TODAY.minusDays(730));
+        verify(jdbcTemplate).update(eq(MetricsRetentionJob.DOWNSAMPLE_HOURLY_SQL), any(OffsetDateTime.class));
+    }
+}
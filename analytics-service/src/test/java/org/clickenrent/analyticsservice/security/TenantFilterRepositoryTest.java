@@ -0,0 +1,101 @@
+package org.clickenrent.analyticsservice.security;
+
+import org.clickenrent.contracts.security.TenantContext;
+import org.clickenrent.analyticsservice.entity.AnalyticsRentalHistogram;
+import org.clickenrent.analyticsservice.repository.AnalyticsRentalHistogramRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs repository queries through HibernateFilterConfig against H2 and checks which rows the tenant filter lets through.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({HibernateFilterConfig.class, TenantFilterRepositoryTest.AspectConfig.class})
+class TenantFilterRepositoryTest {
+
+    @TestConfiguration
+    @EnableAspectJAutoProxy
+    static class AspectConfig {
+    }
+
+    @Autowired
+    private AnalyticsRentalHistogramRepository analyticsRentalHistogramRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        TenantContext.clear();
+        insertAnalyticsRentalHistogram(1, "company-a");
+        insertAnalyticsRentalHistogram(2, "company-a");
+        insertAnalyticsRentalHistogram(3, "company-b");
+        insertAnalyticsRentalHistogram(4, "company-c");
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    void companyFilter_ReturnsRowsOfAllCallerCompanies() {
+        TenantContext.setCurrentCompanies(List.of("company-a", "company-c"));
+
+        List<AnalyticsRentalHistogram> rows = analyticsRentalHistogramRepository.findAll();
+
+        assertEquals(List.of("histogram-1", "histogram-2", "histogram-4"), rows.stream().map(AnalyticsRentalHistogram::getExternalId).sorted().toList());
+    }
+
+    @Test
+    void companyFilter_ResolvesCompaniesForEachQuery() {
+        TenantContext.setCurrentCompanies(List.of("company-a"));
+        assertEquals(2, analyticsRentalHistogramRepository.findAll().size());
+
+        // Same session, filter already enabled: the companies are read again from the context
+        TenantContext.setCurrentCompanies(List.of("company-b"));
+        List<AnalyticsRentalHistogram> rows = analyticsRentalHistogramRepository.findAll();
+
+        assertEquals(List.of("histogram-3"), rows.stream().map(AnalyticsRentalHistogram::getExternalId).toList());
+    }
+
+    @Test
+    void companyFilter_WhenContextLosesCompaniesAfterEnabling_ReturnsNothing() {
+        TenantContext.setCurrentCompanies(List.of("company-a"));
+        assertEquals(2, analyticsRentalHistogramRepository.findAll().size());
+
+        // TenantCompanyResolver binds NO_COMPANIES instead of an empty IN list
+        TenantContext.setCurrentCompanies(List.of());
+
+        assertTrue(analyticsRentalHistogramRepository.findAll().isEmpty());
+    }
+
+    @Test
+    void superAdmin_SeesAllRows() {
+        TenantContext.setSuperAdmin(true);
+
+        assertEquals(4, analyticsRentalHistogramRepository.findAll().size());
+    }
+
+    private void insertAnalyticsRentalHistogram(long id, String companyExternalId) {
+        jdbcTemplate.update("INSERT INTO analytics_rental_histogram (id, external_id, company_external_id, histogram_date, " +
+                "bike_rentals_started, bike_rentals_completed, bike_rentals_cancelled, hour_counts, bike_type_counts, " +
+                "duration_count, duration_sum_minutes, date_created, is_deleted) VALUES (?, ?, ?, ?, 0, 0, 0, " +
+                "'0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0', '{}', 0, 0, CURRENT_TIMESTAMP, false)",
+                id, "histogram-" + id, companyExternalId, LocalDate.of(2026, 1, (int) id));
+    }
+}
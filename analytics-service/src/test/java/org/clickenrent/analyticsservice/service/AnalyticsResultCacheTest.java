@@ -0,0 +1,110 @@
+package org.clickenrent.analyticsservice.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for AnalyticsResultCache.
+ */
+class AnalyticsResultCacheTest {
+
+    private static final LocalDate FROM = LocalDate.of(2026, 9, 1);
+    private static final LocalDate TO = LocalDate.of(2026, 9, 30);
+
+    private AnalyticsResultCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        cache = new AnalyticsResultCache(100, 300, 24);
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void get_SameScopeInAnyOrder_LoadsOnce() {
+        assertEquals(1, cache.get("overview", List.of("company-a", "company-b"), FROM, TO, this::load));
+        assertEquals(1, cache.get("overview", List.of("company-b", "company-a"), FROM, TO, this::load));
+
+        assertEquals(2, cache.get("overview", List.of("company-a"), FROM, TO, this::load));
+        assertEquals(3, cache.get("overview", null, FROM, TO, this::load));
+        assertEquals(4, cache.get("overview", null, FROM, TO.minusDays(1), this::load));
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void get_ConcurrentIdenticalRequests_ShareOneComputation() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Integer> first = CompletableFuture.supplyAsync(() ->
+                cache.get("overview", null, FROM, TO, () -> {
+                    loading.countDown();
+                    await(release);
+                    return load();
+                }));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+        CompletableFuture<Integer> second = CompletableFuture.supplyAsync(() ->
+                cache.get("overview", null, FROM, TO, this::load));
+        release.countDown();
+
+        assertEquals(1, first.get(5, TimeUnit.SECONDS));
+        assertEquals(1, second.get(5, TimeUnit.SECONDS));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void get_LoaderFails_DoesNotCacheFailure() {
+        assertThrows(IllegalStateException.class, () -> cache.get("overview", null, FROM, TO, () -> {
+            throw new IllegalStateException("rental-service unavailable");
+        }));
+
+        assertEquals(1, cache.get("overview", null, FROM, TO, this::load));
+    }
+
+    @Test
+    void invalidate_EvictsScopesOfTheCompanyWhoseRangeCoversTheDay() {
+        cache.get("overview", List.of("company-a"), FROM, TO, this::load);
+        cache.get("overview", List.of("company-b"), FROM, TO, this::load);
+        cache.get("overview", null, FROM, TO, this::load);
+        cache.get("overview", List.of("company-a"), TO.plusDays(1), TO.plusDays(30), this::load);
+        cache.get("customers", List.of("company-a"), null, null, this::load);
+
+        cache.invalidate("company-a", TO.minusDays(3));
+
+        assertEquals(2, cache.size());
+        assertEquals(2, cache.get("overview", List.of("company-b"), FROM, TO, this::load));
+        assertEquals(4, cache.get("overview", List.of("company-a"), TO.plusDays(1), TO.plusDays(30), this::load));
+    }
+
+    @Test
+    void invalidate_WithoutDay_EvictsEveryRangeOfTheCompany() {
+        cache.get("overview", List.of("company-a"), FROM, TO, this::load);
+        cache.get("overview", List.of("company-a"), TO.plusDays(1), TO.plusDays(30), this::load);
+        cache.get("overview", List.of("company-b"), FROM, TO, this::load);
+
+        cache.invalidate("company-a", null);
+
+        assertEquals(1, cache.size());
+    }
+
+    private int load() {
+        return loads.incrementAndGet();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
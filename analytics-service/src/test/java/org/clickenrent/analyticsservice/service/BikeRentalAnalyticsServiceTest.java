@@ -0,0 +1,119 @@
+package org.clickenrent.analyticsservice.service;
+
+import org.clickenrent.analyticsservice.dto.BikeRentalAnalyticsDTO;
+import org.clickenrent.analyticsservice.entity.AnalyticsRentalHistogram;
+import org.clickenrent.analyticsservice.exception.UnauthorizedException;
+import org.clickenrent.analyticsservice.repository.AnalyticsRentalHistogramEventRepository;
+import org.clickenrent.analyticsservice.repository.AnalyticsRentalHistogramRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for BikeRentalAnalyticsService.
+ */
+@ExtendWith(MockitoExtension.class)
+class BikeRentalAnalyticsServiceTest {
+
+    // Saturday and Sunday
+    private static final LocalDate FROM = LocalDate.of(2026, 10, 17);
+    private static final LocalDate TO = LocalDate.of(2026, 10, 18);
+
+    @Mock
+    private AnalyticsRentalHistogramRepository histogramRepository;
+
+    @Mock
+    private AnalyticsRentalHistogramEventRepository histogramEventRepository;
+
+    @Mock
+    private SecurityService securityService;
+
+    private BikeRentalAnalyticsService bikeRentalAnalyticsService;
+
+    @BeforeEach
+    void setUp() {
+        bikeRentalAnalyticsService = new BikeRentalAnalyticsService(
+                new RentalHistogramService(histogramRepository, histogramEventRepository), securityService);
+    }
+
+    @Test
+    void getBikeRentalAnalytics_MergesDailyHistogramsOfCallersCompanies() {
+        when(securityService.isCustomer()).thenReturn(false);
+        when(securityService.isAdmin()).thenReturn(false);
+        when(securityService.getCurrentUserCompanyExternalIds()).thenReturn(List.of("company-a", "company-b"));
+        when(histogramRepository.findByCompanyExternalIdInAndHistogramDateBetween(
+                List.of("company-a", "company-b"), FROM, TO)).thenReturn(List.of(
+                day("company-a", FROM, 4, 3, 1, Map.of(9, 3L, 17, 1L), Map.of("E-Bike", 2L, "City", 2L), 3, 90, 10, 50),
+                day("company-b", TO, 2, 2, 0, Map.of(17, 2L), Map.of("City", 2L), 2, 30, 5, 25)));
+
+        BikeRentalAnalyticsDTO result = bikeRentalAnalyticsService.getBikeRentalAnalytics(FROM, TO, null);
+
+        assertEquals(6, result.getSummary().getTotalBikeRentals());
+        assertEquals(5, result.getSummary().getCompletedBikeRentals());
+        assertEquals(1, result.getSummary().getCancelledBikeRentals());
+        assertEquals(16.67, result.getSummary().getCancellationRate());
+        assertEquals(24, result.getDuration().getAverage());
+        assertEquals(5, result.getDuration().getMin());
+        assertEquals(50, result.getDuration().getMax());
+        assertEquals(2, result.getPeakHours().size());
+        assertEquals(9, result.getPeakHours().get(0).getHour());
+        assertEquals(3, result.getPeakHours().get(0).getBikeRentals());
+        assertEquals(17, result.getPeakHours().get(1).getHour());
+        assertEquals("SATURDAY", result.getPeakDays().get(0).getDayOfWeek());
+        assertEquals(4, result.getPeakDays().get(0).getBikeRentals());
+        assertEquals("SUNDAY", result.getPeakDays().get(1).getDayOfWeek());
+        assertEquals("City", result.getBikeTypeBreakdown().get(0).getType());
+        assertEquals(4, result.getBikeTypeBreakdown().get(0).getCount());
+    }
+
+    @Test
+    void getBikeRentalAnalytics_NoCompanies_ReturnsEmptyAnalyticsWithoutQuerying() {
+        when(securityService.isCustomer()).thenReturn(false);
+        when(securityService.isAdmin()).thenReturn(false);
+        when(securityService.getCurrentUserCompanyExternalIds()).thenReturn(List.of());
+
+        BikeRentalAnalyticsDTO result = bikeRentalAnalyticsService.getBikeRentalAnalytics(FROM, TO, null);
+
+        assertEquals(0, result.getSummary().getTotalBikeRentals());
+        assertEquals(0, result.getDuration().getMax());
+        assertTrue(result.getPeakHours().isEmpty());
+        verifyNoInteractions(histogramRepository);
+    }
+
+    @Test
+    void getBikeRentalAnalytics_Customer_ThrowsUnauthorized() {
+        when(securityService.isCustomer()).thenReturn(true);
+
+        assertThrows(UnauthorizedException.class,
+                () -> bikeRentalAnalyticsService.getBikeRentalAnalytics(FROM, TO, null));
+    }
+
+    private AnalyticsRentalHistogram day(String company, LocalDate date, long started, long completed, long cancelled,
+                                         Map<Integer, Long> hours, Map<String, Long> types,
+                                         long durationCount, long durationSum, long durationMin, long durationMax) {
+        long[] hourCounts = new long[24];
+        hours.forEach((hour, count) -> hourCounts[hour] = count);
+        return AnalyticsRentalHistogram.builder()
+                .companyExternalId(company)
+                .histogramDate(date)
+                .bikeRentalsStarted(started)
+                .bikeRentalsCompleted(completed)
+                .bikeRentalsCancelled(cancelled)
+                .hourCounts(hourCounts)
+                .bikeTypeCounts(types)
+                .durationCount(durationCount)
+                .durationSumMinutes(durationSum)
+                .durationMinMinutes(durationMin)
+                .durationMaxMinutes(durationMax)
+                .build();
+    }
+}
@@ -0,0 +1,142 @@
+package org.clickenrent.analyticsservice.service;
+
+import org.clickenrent.analyticsservice.client.AuthServiceClient;
+import org.clickenrent.analyticsservice.client.RentalServiceClient;
+import org.clickenrent.analyticsservice.dto.BikeRentalPageDTO;
+import org.clickenrent.analyticsservice.dto.BikeRentalSummaryDTO;
+import org.clickenrent.analyticsservice.dto.DashboardOverviewDTO;
+import org.clickenrent.analyticsservice.dto.RideSummaryDTO;
+import org.clickenrent.analyticsservice.repository.AnalyticsDailySummaryRepository;
+import org.clickenrent.contracts.auth.UserDTO;
+import org.clickenrent.contracts.rental.RentalDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for DashboardService.
+ */
+@ExtendWith(MockitoExtension.class)
+class DashboardServiceTest {
+
+    private static final LocalDate FROM = LocalDate.of(2026, 9, 1);
+    private static final LocalDate TO = LocalDate.of(2026, 9, 30);
+
+    @Mock
+    private AnalyticsDailySummaryRepository repository;
+
+    @Mock
+    private SecurityService securityService;
+
+    @Mock
+    private RentalServiceClient rentalServiceClient;
+
+    @Mock
+    private AuthServiceClient authServiceClient;
+
+    private AnalyticsResultCache resultCache;
+    private DashboardService dashboardService;
+
+    @BeforeEach
+    void setUp() {
+        resultCache = new AnalyticsResultCache(100, 300, 24);
+        dashboardService = new DashboardService(repository, securityService, rentalServiceClient, authServiceClient,
+                resultCache);
+
+        when(securityService.isCustomer()).thenReturn(false);
+        when(securityService.isAdmin()).thenReturn(false);
+        when(securityService.getCurrentUserCompanyExternalIds()).thenReturn(List.of("company-a"));
+        when(rentalServiceClient.getBikeRentals(anyInt(), anyInt(), any(), any())).thenReturn(BikeRentalPageDTO.builder()
+                .content(List.of(BikeRentalSummaryDTO.builder()
+                        .externalId("br-1")
+                        .totalPrice(new BigDecimal("12.50"))
+                        .bikeRentalStatusName("Completed")
+                        .build()))
+                .totalElements(1)
+                .build());
+        lenient().when(rentalServiceClient.getRidesByBikeRentalExternalId(anyString())).thenReturn(List.of());
+        when(rentalServiceClient.getRentals(0, 1000)).thenReturn(new PageImpl<>(List.of(
+                RentalDTO.builder().userExternalId("user-1").build())));
+        when(authServiceClient.getUserByExternalId("user-1")).thenReturn(UserDTO.builder()
+                .isActive(true)
+                .dateCreated(LocalDateTime.now().minusDays(1))
+                .build());
+    }
+
+    @Test
+    void getDashboardOverview_IdenticalRequests_ComputedOnce() {
+        DashboardOverviewDTO first = dashboardService.getDashboardOverview(FROM, TO, true);
+        DashboardOverviewDTO second = dashboardService.getDashboardOverview(FROM, TO, true);
+
+        assertEquals(1, first.getKpis().getTotalBikeRentals().getValue());
+        assertEquals(new BigDecimal("12.50"), second.getKpis().getTotalRevenue().getValue());
+        assertEquals(1, second.getKpis().getActiveCustomers().getValue());
+        assertEquals(1, second.getKpis().getNewRegistrations().getValue());
+        // Current and previous period once each, customers once for both
+        verify(rentalServiceClient).getBikeRentals(0, 1000, FROM, TO);
+        verify(rentalServiceClient).getBikeRentals(0, 1000, LocalDate.of(2026, 8, 2), LocalDate.of(2026, 8, 31));
+        verify(rentalServiceClient, times(1)).getRentals(0, 1000);
+        verify(authServiceClient, times(1)).getUserByExternalId("user-1");
+    }
+
+    @Test
+    void getDashboardOverview_AfterRentalEventForTenant_Recomputes() {
+        dashboardService.getDashboardOverview(FROM, TO, false);
+
+        resultCache.invalidate("company-a", TO.minusDays(1));
+        dashboardService.getDashboardOverview(FROM, TO, false);
+
+        verify(rentalServiceClient, times(2)).getBikeRentals(0, 1000, FROM, TO);
+        verify(rentalServiceClient, times(2)).getRentals(0, 1000);
+    }
+
+    @Test
+    void getDashboardOverview_RentalServiceFails_DoesNotCacheEmptyMetrics() {
+        when(rentalServiceClient.getBikeRentals(eq(0), eq(1000), eq(FROM), eq(TO)))
+                .thenThrow(new IllegalStateException("rental-service unavailable"))
+                .thenReturn(BikeRentalPageDTO.builder().content(List.of()).totalElements(7).build());
+
+        assertEquals(0, dashboardService.getDashboardOverview(FROM, TO, false).getKpis().getTotalBikeRentals().getValue());
+        assertEquals(7, dashboardService.getDashboardOverview(FROM, TO, false).getKpis().getTotalBikeRentals().getValue());
+    }
+
+    @Test
+    void getDashboardOverview_RideLookupFails_DoesNotCacheZeroDuration() {
+        when(rentalServiceClient.getRidesByBikeRentalExternalId("br-1"))
+                .thenThrow(new IllegalStateException("rental-service unavailable"))
+                .thenReturn(List.of(RideSummaryDTO.builder()
+                        .startDateTime(LocalDateTime.of(2026, 9, 10, 10, 0))
+                        .endDateTime(LocalDateTime.of(2026, 9, 10, 10, 45))
+                        .build()));
+
+        assertEquals(0, dashboardService.getDashboardOverview(FROM, TO, false)
+                .getKpis().getAverageBikeRentalDuration().getValue());
+        assertEquals(45, dashboardService.getDashboardOverview(FROM, TO, false)
+                .getKpis().getAverageBikeRentalDuration().getValue());
+    }
+
+    @Test
+    void getDashboardOverview_UserLookupFails_DoesNotCacheCustomerCounts() {
+        when(authServiceClient.getUserByExternalId("user-1"))
+                .thenThrow(new IllegalStateException("auth-service unavailable"))
+                .thenReturn(UserDTO.builder().isActive(true).build());
+
+        assertEquals(0, dashboardService.getDashboardOverview(FROM, TO, false).getKpis().getActiveCustomers().getValue());
+        assertEquals(1, dashboardService.getDashboardOverview(FROM, TO, false).getKpis().getActiveCustomers().getValue());
+    }
+}
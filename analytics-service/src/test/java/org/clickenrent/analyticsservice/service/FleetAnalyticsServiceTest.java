@@ -0,0 +1,66 @@
+package org.clickenrent.analyticsservice.service;
+
+import org.clickenrent.analyticsservice.client.RentalServiceClient;
+import org.clickenrent.analyticsservice.dto.FleetAnalyticsDTO;
+import org.clickenrent.analyticsservice.exception.UnauthorizedException;
+import org.clickenrent.contracts.rental.FleetAggregatesDTO;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for FleetAnalyticsService.
+ */
+@ExtendWith(MockitoExtension.class)
+class FleetAnalyticsServiceTest {
+
+    @Mock
+    private RentalServiceClient rentalServiceClient;
+
+    @Mock
+    private SecurityService securityService;
+
+    @InjectMocks
+    private FleetAnalyticsService fleetAnalyticsService;
+
+    @Test
+    void getFleetAnalytics_MapsRentalServiceAggregates() {
+        when(securityService.isCustomer()).thenReturn(false);
+        when(rentalServiceClient.getFleetAggregates()).thenReturn(FleetAggregatesDTO.builder()
+                .totalBikes(2500L)
+                .bikesByStatusId(Map.of(1L, 1800L, 2L, 500L, 4L, 200L))
+                .batteryFull(1500L)
+                .batteryMedium(600L)
+                .batteryLow(300L)
+                .batteryCritical(100L)
+                .build());
+
+        FleetAnalyticsDTO result = fleetAnalyticsService.getFleetAnalytics(null, null);
+
+        assertEquals(2500, result.getCurrentStatus().getTotalBikes());
+        assertEquals(1800, result.getCurrentStatus().getAvailable());
+        assertEquals(500, result.getCurrentStatus().getInUse());
+        assertEquals(0, result.getCurrentStatus().getReserved());
+        assertEquals(200, result.getCurrentStatus().getBroken());
+        assertEquals(1500, result.getBatteryLevels().getFull());
+        assertEquals(100, result.getBatteryLevels().getCritical());
+        assertEquals(2500, result.getBikeInspectionSchedule().getCountOfBikesForInspection());
+    }
+
+    @Test
+    void getFleetAnalytics_Customer_ThrowsUnauthorized() {
+        when(securityService.isCustomer()).thenReturn(true);
+
+        assertThrows(UnauthorizedException.class, () -> fleetAnalyticsService.getFleetAnalytics(null, null));
+        verify(rentalServiceClient, never()).getFleetAggregates();
+    }
+}
@@ -0,0 +1,143 @@
+package org.clickenrent.analyticsservice.service;
+
+import org.clickenrent.analyticsservice.client.RentalServiceClient;
+import org.clickenrent.analyticsservice.client.SupportServiceClient;
+import org.clickenrent.analyticsservice.dto.BikeRentalPageDTO;
+import org.clickenrent.analyticsservice.dto.BikeRentalSummaryDTO;
+import org.clickenrent.analyticsservice.dto.RealtimeMetricsDTO;
+import org.clickenrent.analyticsservice.dto.SupportRequestDTO;
+import org.clickenrent.analyticsservice.exception.UnauthorizedException;
+import org.clickenrent.contracts.rental.FleetAggregatesDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for RealtimeMetricsService.
+ */
+@ExtendWith(MockitoExtension.class)
+class RealtimeMetricsServiceTest {
+
+    @Mock
+    private RentalServiceClient rentalServiceClient;
+
+    @Mock
+    private SupportServiceClient supportServiceClient;
+
+    @Mock
+    private SecurityService securityService;
+
+    private RealtimeMetricsStore store;
+    private RealtimeMetricsService service;
+
+    @BeforeEach
+    void setUp() {
+        store = new RealtimeMetricsStore(60);
+        service = new RealtimeMetricsService(rentalServiceClient, supportServiceClient, securityService, store, 60, 2000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void getRealtimeMetrics_FirstRead_ReconcilesFromSources() {
+        stubAdminWithSources();
+
+        RealtimeMetricsDTO metrics = service.getRealtimeMetrics();
+
+        assertEquals(1, metrics.getActiveBikeRentals());
+        assertEquals(1, metrics.getBikeRentalsLast15Minutes());
+        assertEquals(new BigDecimal("9.00"), metrics.getRevenueLast15Minutes());
+        assertEquals(1, metrics.getAvailableBikes());
+        assertEquals(1, metrics.getInProgressSupportRequests());
+        assertNotNull(metrics.getReconciledAt());
+    }
+
+    @Test
+    void getRealtimeMetrics_WithinInterval_ServesEventsWithoutRefetching() {
+        stubAdminWithSources();
+        service.getRealtimeMetrics();
+
+        store.bikeRentalStarted("company-a", "br-2", true, new BigDecimal("3.00"), Instant.now());
+        RealtimeMetricsDTO metrics = service.getRealtimeMetrics();
+
+        assertEquals(2, metrics.getActiveBikeRentals());
+        assertEquals(2, metrics.getBikeRentalsLast15Minutes());
+        assertEquals(new BigDecimal("12.00"), metrics.getRevenueLast15Minutes());
+        verify(rentalServiceClient, times(1)).getBikeRentals(anyInt(), anyInt(), any(), any());
+        verify(rentalServiceClient, times(1)).getFleetAggregates();
+        verify(supportServiceClient, times(1)).getSupportRequests();
+    }
+
+    @Test
+    void getRealtimeMetrics_SourceDown_ReturnsOtherParts() {
+        when(securityService.isCustomer()).thenReturn(false);
+        when(securityService.isAdmin()).thenReturn(true);
+        when(rentalServiceClient.getBikeRentals(anyInt(), anyInt(), any(), any())).thenThrow(new RuntimeException("down"));
+        when(rentalServiceClient.getFleetAggregates()).thenReturn(fleet());
+        when(supportServiceClient.getSupportRequests()).thenReturn(List.of());
+
+        RealtimeMetricsDTO metrics = service.getRealtimeMetrics();
+
+        assertEquals(0, metrics.getActiveBikeRentals());
+        assertEquals(1, metrics.getAvailableBikes());
+        assertEquals(0, metrics.getInProgressSupportRequests());
+    }
+
+    @Test
+    void getRealtimeMetrics_Customer_ThrowsUnauthorized() {
+        when(securityService.isCustomer()).thenReturn(true);
+
+        assertThrows(UnauthorizedException.class, () -> service.getRealtimeMetrics());
+    }
+
+    private void stubAdminWithSources() {
+        when(securityService.isCustomer()).thenReturn(false);
+        when(securityService.isAdmin()).thenReturn(true);
+
+        BikeRentalSummaryDTO active = new BikeRentalSummaryDTO();
+        active.setExternalId("br-1");
+        active.setStartDateTime(LocalDateTime.now().minusMinutes(5));
+        active.setTotalPrice(new BigDecimal("9.00"));
+        active.setBikeRentalStatusName("Active");
+        BikeRentalSummaryDTO old = new BikeRentalSummaryDTO();
+        old.setExternalId("br-0");
+        old.setStartDateTime(LocalDateTime.now().minusHours(2));
+        old.setTotalPrice(new BigDecimal("20.00"));
+        old.setBikeRentalStatusName("Completed");
+        BikeRentalPageDTO rentals = new BikeRentalPageDTO();
+        rentals.setContent(List.of(active, old));
+        when(rentalServiceClient.getBikeRentals(anyInt(), anyInt(), any(), any())).thenReturn(rentals);
+
+        when(rentalServiceClient.getFleetAggregates()).thenReturn(fleet());
+
+        SupportRequestDTO inProgress = new SupportRequestDTO();
+        inProgress.setSupportRequestStatusName("IN_PROGRESS");
+        when(supportServiceClient.getSupportRequests()).thenReturn(List.of(inProgress));
+    }
+
+    private FleetAggregatesDTO fleet() {
+        return FleetAggregatesDTO.builder()
+                .totalBikes(2L)
+                .bikesByStatusId(Map.of(1L, 1L, 2L, 1L))
+                .build();
+    }
+}
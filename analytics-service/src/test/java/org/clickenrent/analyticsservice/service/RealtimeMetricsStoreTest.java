@@ -0,0 +1,130 @@
+package org.clickenrent.analyticsservice.service;
+
+import org.clickenrent.analyticsservice.service.RealtimeMetricsStore.Recent;
+import org.clickenrent.analyticsservice.service.RealtimeMetricsStore.ScopeCounters;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for RealtimeMetricsStore.
+ */
+class RealtimeMetricsStoreTest {
+
+    private RealtimeMetricsStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new RealtimeMetricsStore(60);
+    }
+
+    @Test
+    void bikeRentalStarted_UpdatesOnlyScopesContainingTheCompany() {
+        ScopeCounters all = store.scope(null);
+        ScopeCounters companyA = store.scope(List.of("company-a"));
+        ScopeCounters companyB = store.scope(List.of("company-b"));
+        Instant now = Instant.now();
+
+        store.bikeRentalStarted("company-a", "br-1", true, new BigDecimal("12.50"), now);
+
+        assertEquals(1, all.getActiveBikeRentals());
+        assertEquals(1, companyA.getActiveBikeRentals());
+        assertEquals(0, companyB.getActiveBikeRentals());
+        assertEquals(1, companyA.getBikeRentalsInWindow(now));
+        assertEquals(new BigDecimal("12.50"), companyA.getRevenueInWindow(now));
+        assertEquals(0, companyB.getBikeRentalsInWindow(now));
+    }
+
+    @Test
+    void scope_IsSharedRegardlessOfCompanyOrder() {
+        assertSame(store.scope(List.of("company-a", "company-b")), store.scope(List.of("company-b", "company-a")));
+    }
+
+    @Test
+    void bikeRentalStarted_CountsEachBikeRentalOnce() {
+        ScopeCounters scope = store.scope(null);
+        Instant now = Instant.now();
+
+        store.bikeRentalStarted("company-a", "br-1", true, new BigDecimal("10.00"), now);
+        store.bikeRentalStarted("company-a", "br-1", true, new BigDecimal("10.00"), now);
+
+        assertEquals(1, scope.getActiveBikeRentals());
+        assertEquals(1, scope.getBikeRentalsInWindow(now));
+        assertEquals(new BigDecimal("10.00"), scope.getRevenueInWindow(now));
+    }
+
+    @Test
+    void window_DropsBikeRentalsOlderThanFifteenMinutes() {
+        ScopeCounters scope = store.scope(null);
+        Instant now = Instant.now();
+
+        store.bikeRentalStarted("company-a", "br-old", false, new BigDecimal("5.00"), now.minus(Duration.ofMinutes(14)));
+        store.bikeRentalStarted("company-a", "br-new", false, new BigDecimal("7.00"), now);
+
+        assertEquals(2, scope.getBikeRentalsInWindow(now));
+        Instant later = now.plus(Duration.ofMinutes(2));
+        assertEquals(1, scope.getBikeRentalsInWindow(later));
+        assertEquals(new BigDecimal("7.00"), scope.getRevenueInWindow(later));
+    }
+
+    @Test
+    void bikeRentalEnded_RemovesRentalOnce() {
+        ScopeCounters scope = store.scope(null);
+        store.bikeRentalStarted("company-a", "br-1", true, BigDecimal.ZERO, Instant.now());
+
+        store.bikeRentalEnded("company-a", "br-1");
+        store.bikeRentalEnded("company-a", "br-1");
+
+        assertEquals(0, scope.getActiveBikeRentals());
+    }
+
+    @Test
+    void bikeRentalEnded_Redelivered_DoesNotEndAnotherRental() {
+        ScopeCounters scope = store.scope(null);
+        store.bikeRentalStarted("company-a", "br-1", true, BigDecimal.ZERO, Instant.now());
+        store.bikeRentalStarted("company-a", "br-2", true, BigDecimal.ZERO, Instant.now());
+
+        store.bikeRentalEnded("company-a", "br-1");
+        store.bikeRentalEnded("company-a", "br-1");
+
+        assertEquals(1, scope.getActiveBikeRentals());
+    }
+
+    @Test
+    void bikeRentalEnded_ForRentalFromSnapshot_RemovesIt() {
+        ScopeCounters scope = store.scope(null);
+        scope.reconcile(Set.of("br-1", "br-2"), null, null, null, Instant.now());
+
+        store.bikeRentalEnded("company-a", "br-2");
+
+        assertEquals(1, scope.getActiveBikeRentals());
+    }
+
+    @Test
+    void reconcile_ReplacesCountersAndKeepsPartsThatCouldNotBeRead() {
+        ScopeCounters scope = store.scope(null);
+        Instant now = Instant.now();
+        scope.reconcile(Set.of("br-1", "br-2", "br-3"), 10, 2, Map.of("br-1", new Recent(now, new BigDecimal("4.00"))), now);
+
+        scope.reconcile(null, 8, null, null, now);
+
+        assertEquals(3, scope.getActiveBikeRentals());
+        assertEquals(8, scope.getAvailableBikes());
+        assertEquals(2, scope.getInProgressSupportRequests());
+        assertEquals(1, scope.getBikeRentalsInWindow(now));
+        assertEquals(now, scope.getReconciledAt());
+
+        // An event for a rental already in the snapshot is not counted twice
+        store.bikeRentalStarted("company-a", "br-1", true, new BigDecimal("4.00"), now);
+        assertEquals(3, scope.getActiveBikeRentals());
+        assertEquals(1, scope.getBikeRentalsInWindow(now));
+    }
+}
@@ -0,0 +1,107 @@
+package org.clickenrent.analyticsservice.service;
+
+import org.clickenrent.analyticsservice.dto.RealtimeMetricsDTO;
+import org.clickenrent.analyticsservice.exception.UnauthorizedException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for RealtimeMetricsStreamService.
+ */
+@ExtendWith(MockitoExtension.class)
+class RealtimeMetricsStreamServiceTest {
+
+    private static final List<String> COMPANIES = List.of("company-a");
+
+    @Mock
+    private RealtimeMetricsService realtimeMetricsService;
+
+    @Mock
+    private SecurityService securityService;
+
+    private RealtimeMetricsStreamService streamService;
+
+    @BeforeEach
+    void setUp() {
+        streamService = new RealtimeMetricsStreamService(realtimeMetricsService, securityService, 2000, 20, 60);
+    }
+
+    @AfterEach
+    void tearDown() {
+        streamService.shutdown();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void pushAll_ComputesOncePerScope_AsOneOfItsSubscribers() {
+        Authentication caller = new TestingAuthenticationToken("b2b-user", "token");
+        SecurityContextHolder.getContext().setAuthentication(caller);
+        when(realtimeMetricsService.getVisibleCompanyExternalIds()).thenReturn(COMPANIES);
+        List<Authentication> computedAs = new ArrayList<>();
+        when(realtimeMetricsService.getRealtimeMetrics(COMPANIES)).thenAnswer(invocation -> {
+            computedAs.add(SecurityContextHolder.getContext().getAuthentication());
+            return metrics(3);
+        });
+        when(securityService.getCurrentTokenExpiresAt()).thenReturn(Instant.now().plusSeconds(600));
+
+        streamService.subscribe();
+        streamService.subscribe();
+        SecurityContextHolder.clearContext();
+        streamService.pushAll();
+
+        assertEquals(2, streamService.subscriberCount());
+        verify(realtimeMetricsService, times(3)).getRealtimeMetrics(COMPANIES);
+        assertSame(caller, computedAs.get(2));
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    void subscribe_Customer_ThrowsUnauthorized() {
+        when(realtimeMetricsService.getVisibleCompanyExternalIds())
+                .thenThrow(new UnauthorizedException("Customers don't have access to real-time analytics"));
+
+        assertThrows(UnauthorizedException.class, () -> streamService.subscribe());
+        assertEquals(0, streamService.subscriberCount());
+    }
+
+    @Test
+    void delta_ContainsOnlyChangedFields() {
+        Map<String, Object> previous = RealtimeMetricsStreamService.fields(metrics(3));
+        RealtimeMetricsDTO changed = metrics(4);
+        changed.setTimestamp("2026-01-01T00:00:05Z");
+
+        Map<String, Object> delta = RealtimeMetricsStreamService.delta(previous, RealtimeMetricsStreamService.fields(changed));
+
+        assertEquals(Map.of("activeBikeRentals", 4), delta);
+        assertTrue(RealtimeMetricsStreamService.delta(previous, previous).isEmpty());
+    }
+
+    private RealtimeMetricsDTO metrics(int activeBikeRentals) {
+        return RealtimeMetricsDTO.builder()
+                .timestamp("2026-01-01T00:00:00Z")
+                .activeBikeRentals(activeBikeRentals)
+                .bikeRentalsLast15Minutes(1)
+                .revenueLast15Minutes(new BigDecimal("9.00"))
+                .availableBikes(5)
+                .inProgressSupportRequests(0)
+                .build();
+    }
+}
@@ -0,0 +1,148 @@
+package org.clickenrent.analyticsservice.service;
+
+import org.clickenrent.analyticsservice.client.RentalServiceClient;
+import org.clickenrent.analyticsservice.entity.AnalyticsRentalHistogram;
+import org.clickenrent.analyticsservice.exception.UnauthorizedException;
+import org.clickenrent.analyticsservice.repository.AnalyticsRentalHistogramEventRepository;
+import org.clickenrent.analyticsservice.repository.AnalyticsRentalHistogramRepository;
+import org.clickenrent.contracts.rental.BikeRentalHistogramBucketDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for RentalHistogramBackfillService.
+ */
+@ExtendWith(MockitoExtension.class)
+class RentalHistogramBackfillServiceTest {
+
+    // Saturday
+    private static final LocalDate DAY = LocalDate.of(2026, 10, 17);
+    // Days from Oct 25 on are still open
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2026-11-01T12:00:00Z"), ZoneOffset.UTC);
+
+    @Mock
+    private RentalServiceClient rentalServiceClient;
+
+    @Mock
+    private AnalyticsRentalHistogramRepository histogramRepository;
+
+    @Mock
+    private AnalyticsRentalHistogramEventRepository histogramEventRepository;
+
+    @Mock
+    private SecurityService securityService;
+
+    private RentalHistogramBackfillService backfillService;
+
+    @BeforeEach
+    void setUp() {
+        backfillService = new RentalHistogramBackfillService(rentalServiceClient,
+                new RentalHistogramService(histogramRepository, histogramEventRepository), securityService, 7, CLOCK);
+    }
+
+    @Test
+    void backfill_ReplacesDaysWithHistogramsBuiltFromBuckets() {
+        when(securityService.isAdmin()).thenReturn(true);
+        when(rentalServiceClient.getBikeRentalHistogramBuckets(DAY, DAY)).thenReturn(List.of(
+                bucket("company-a", 9, "E-Bike", "Completed", 2, 2L, 45L, 15L, 30L),
+                bucket("company-a", 17, "City", "Cancelled", 1, 0L, 0L, null, null),
+                bucket("company-b", 9, "City", "Active", 1, 1L, 5L, 5L, 5L)));
+
+        int written = backfillService.backfill(DAY, DAY);
+
+        assertEquals(2, written);
+        InOrder order = inOrder(histogramRepository);
+        order.verify(histogramRepository).deleteByHistogramDateBetween(DAY, DAY);
+        ArgumentCaptor<AnalyticsRentalHistogram> saved = ArgumentCaptor.forClass(AnalyticsRentalHistogram.class);
+        order.verify(histogramRepository, times(2)).save(saved.capture());
+
+        AnalyticsRentalHistogram companyA = saved.getAllValues().stream()
+                .filter(day -> "company-a".equals(day.getCompanyExternalId()))
+                .findFirst().orElseThrow();
+        assertEquals(DAY, companyA.getHistogramDate());
+        assertEquals(3L, companyA.getBikeRentalsStarted());
+        assertEquals(2L, companyA.getBikeRentalsCompleted());
+        assertEquals(1L, companyA.getBikeRentalsCancelled());
+        assertEquals(2L, companyA.getHourCounts()[9]);
+        assertEquals(1L, companyA.getHourCounts()[17]);
+        assertEquals(Map.of("E-Bike", 2L, "City", 1L), companyA.getBikeTypeCounts());
+        assertEquals(2L, companyA.getDurationCount());
+        assertEquals(45L, companyA.getDurationSumMinutes());
+        assertEquals(15L, companyA.getDurationMinMinutes());
+        assertEquals(30L, companyA.getDurationMaxMinutes());
+    }
+
+    @Test
+    void backfill_QuietPeriod_StillClearsTheDays() {
+        when(securityService.isAdmin()).thenReturn(true);
+        when(rentalServiceClient.getBikeRentalHistogramBuckets(DAY, DAY)).thenReturn(List.of());
+
+        assertEquals(0, backfillService.backfill(DAY, DAY));
+        verify(histogramRepository).deleteByHistogramDateBetween(DAY, DAY);
+        verify(histogramRepository, never()).save(any());
+    }
+
+    @Test
+    void backfill_LongPeriod_RequestsOneChunkAtATime() {
+        when(securityService.isAdmin()).thenReturn(true);
+        when(rentalServiceClient.getBikeRentalHistogramBuckets(any(), any())).thenReturn(List.of());
+        LocalDate from = LocalDate.of(2026, 1, 1);
+
+        backfillService.backfill(from, LocalDate.of(2026, 3, 10));
+
+        verify(rentalServiceClient).getBikeRentalHistogramBuckets(from, LocalDate.of(2026, 1, 31));
+        verify(rentalServiceClient).getBikeRentalHistogramBuckets(LocalDate.of(2026, 2, 1), LocalDate.of(2026, 3, 3));
+        verify(rentalServiceClient).getBikeRentalHistogramBuckets(LocalDate.of(2026, 3, 4), LocalDate.of(2026, 3, 10));
+        verify(histogramRepository, times(3)).deleteByHistogramDateBetween(any(), any());
+    }
+
+    @Test
+    void backfill_OpenDays_Refused() {
+        when(securityService.isAdmin()).thenReturn(true);
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> backfillService.backfill(DAY, LocalDate.of(2026, 10, 25)));
+        assertEquals("End date must be before 2026-10-25: later days may still receive rental events", e.getMessage());
+        verifyNoInteractions(rentalServiceClient, histogramRepository);
+    }
+
+    @Test
+    void backfill_NotAdmin_ThrowsUnauthorized() {
+        when(securityService.isAdmin()).thenReturn(false);
+
+        assertThrows(UnauthorizedException.class, () -> backfillService.backfill(DAY, DAY));
+        verifyNoInteractions(rentalServiceClient, histogramRepository);
+    }
+
+    private BikeRentalHistogramBucketDTO bucket(String company, int hour, String bikeType, String status, long bikeRentals,
+                                                Long durationCount, Long durationSum, Long durationMin, Long durationMax) {
+        return BikeRentalHistogramBucketDTO.builder()
+                .companyExternalId(company)
+                .date(DAY)
+                .hour(hour)
+                .bikeTypeName(bikeType)
+                .bikeRentalStatusName(status)
+                .bikeRentals(bikeRentals)
+                .durationCount(durationCount)
+                .durationSumMinutes(durationSum)
+                .durationMinMinutes(durationMin)
+                .durationMaxMinutes(durationMax)
+                .build();
+    }
+}
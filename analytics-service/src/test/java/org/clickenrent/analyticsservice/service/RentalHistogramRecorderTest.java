@@ -0,0 +1,101 @@
+package org.clickenrent.analyticsservice.service;
+
+import org.clickenrent.contracts.rental.RentalEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for RentalHistogramRecorder.
+ */
+@ExtendWith(MockitoExtension.class)
+class RentalHistogramRecorderTest {
+
+    private static final LocalDateTime MORNING = LocalDateTime.of(2026, 10, 19, 8, 15);
+
+    @Mock
+    private RentalHistogramService rentalHistogramService;
+
+    private RentalHistogramRecorder recorder;
+
+    @BeforeEach
+    void setUp() {
+        recorder = new RentalHistogramRecorder(rentalHistogramService);
+    }
+
+    @Test
+    void record_PassesStartedAndEndedEventsInOneCall() {
+        RentalEvent started = started("company-a", MORNING);
+        RentalEvent ended = ended("company-a", MORNING);
+        RentalEvent completed = RentalEvent.builder()
+                .eventType(RentalEvent.RENTAL_COMPLETED)
+                .companyExternalId("company-a")
+                .startDateTime(MORNING)
+                .build();
+
+        recorder.record(List.of(started, completed, ended));
+
+        verify(rentalHistogramService).addEvents(List.of(started, ended));
+    }
+
+    @Test
+    void record_EventsWithoutDayOrUndeserializable_Skipped() {
+        recorder.record(Arrays.asList(
+                null,
+                started(null, MORNING),
+                started("company-a", null)));
+
+        verifyNoInteractions(rentalHistogramService);
+    }
+
+    @Test
+    void record_ConcurrentRowCreation_RetriesOnce() {
+        when(rentalHistogramService.addEvents(anyList()))
+                .thenThrow(new DataIntegrityViolationException("duplicate key"))
+                .thenReturn(1);
+
+        recorder.record(List.of(started("company-a", MORNING)));
+
+        verify(rentalHistogramService, times(2)).addEvents(anyList());
+    }
+
+    @Test
+    void record_WriteFails_Propagates() {
+        // The container retries the batch without committing its offsets
+        when(rentalHistogramService.addEvents(anyList())).thenThrow(new QueryTimeoutException("timeout"));
+
+        assertThrows(QueryTimeoutException.class,
+                () -> recorder.record(List.of(started("company-a", MORNING))));
+    }
+
+    private RentalEvent started(String companyExternalId, LocalDateTime startDateTime) {
+        return RentalEvent.builder()
+                .eventType(RentalEvent.BIKE_RENTAL_STARTED)
+                .companyExternalId(companyExternalId)
+                .startDateTime(startDateTime)
+                .bikeTypeName("E-Bike")
+                .build();
+    }
+
+    private RentalEvent ended(String companyExternalId, LocalDateTime startDateTime) {
+        return RentalEvent.builder()
+                .eventType(RentalEvent.BIKE_RENTAL_ENDED)
+                .companyExternalId(companyExternalId)
+                .startDateTime(startDateTime)
+                .bikeRentalStatusName("Completed")
+                .rideMinutes(42L)
+                .build();
+    }
+}
@@ -0,0 +1,125 @@
+package org.clickenrent.analyticsservice.service;
+
+import org.clickenrent.analyticsservice.entity.AnalyticsRentalHistogram;
+import org.clickenrent.analyticsservice.entity.AnalyticsRentalHistogramEvent;
+import org.clickenrent.analyticsservice.repository.AnalyticsRentalHistogramEventRepository;
+import org.clickenrent.analyticsservice.repository.AnalyticsRentalHistogramRepository;
+import org.clickenrent.contracts.rental.RentalEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for RentalHistogramService.
+ */
+@ExtendWith(MockitoExtension.class)
+class RentalHistogramServiceTest {
+
+    private static final LocalDateTime MORNING = LocalDateTime.of(2026, 10, 19, 8, 15);
+    private static final LocalDate DAY = MORNING.toLocalDate();
+
+    @Mock
+    private AnalyticsRentalHistogramRepository histogramRepository;
+
+    @Mock
+    private AnalyticsRentalHistogramEventRepository histogramEventRepository;
+
+    private RentalHistogramService rentalHistogramService;
+
+    @BeforeEach
+    void setUp() {
+        rentalHistogramService = new RentalHistogramService(histogramRepository, histogramEventRepository);
+        lenient().when(histogramRepository.findForUpdateByCompanyExternalIdAndHistogramDate(any(), any()))
+                .thenReturn(Optional.empty());
+    }
+
+    @Test
+    void addEvents_AddsOneDeltaPerCompanyAndStartDay() {
+        when(histogramEventRepository.findAllById(anyList())).thenReturn(List.of());
+
+        int counted = rentalHistogramService.addEvents(List.of(
+                started("event-1", "company-a", MORNING, "E-Bike"),
+                started("event-2", "company-a", MORNING.plusHours(1), "E-Bike"),
+                ended("event-3", "company-a", MORNING, "Completed", 42L),
+                started("event-4", "company-b", MORNING, "City")));
+
+        assertEquals(4, counted);
+        ArgumentCaptor<AnalyticsRentalHistogram> saved = ArgumentCaptor.forClass(AnalyticsRentalHistogram.class);
+        verify(histogramRepository, times(2)).save(saved.capture());
+        AnalyticsRentalHistogram companyA = saved.getAllValues().stream()
+                .filter(day -> "company-a".equals(day.getCompanyExternalId()))
+                .findFirst().orElseThrow();
+        assertEquals(DAY, companyA.getHistogramDate());
+        assertEquals(2L, companyA.getBikeRentalsStarted());
+        assertEquals(1L, companyA.getBikeRentalsCompleted());
+        assertEquals(1L, companyA.getHourCounts()[8]);
+        assertEquals(1L, companyA.getHourCounts()[9]);
+        assertEquals(Map.of("E-Bike", 2L), companyA.getBikeTypeCounts());
+        assertEquals(42L, companyA.getDurationSumMinutes());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void addEvents_ReplayedAndDuplicateEvents_CountedOnce() {
+        when(histogramEventRepository.findAllById(anyList()))
+                .thenReturn(List.of(new AnalyticsRentalHistogramEvent("event-1", MORNING)));
+
+        int counted = rentalHistogramService.addEvents(List.of(
+                started("event-1", "company-a", MORNING, "E-Bike"),
+                started("event-2", "company-a", MORNING, "E-Bike"),
+                started("event-2", "company-a", MORNING, "E-Bike")));
+
+        assertEquals(1, counted);
+        ArgumentCaptor<List<AnalyticsRentalHistogramEvent>> recorded = ArgumentCaptor.forClass(List.class);
+        verify(histogramEventRepository).saveAll(recorded.capture());
+        assertEquals(List.of("event-2"), recorded.getValue().stream().map(AnalyticsRentalHistogramEvent::getEventId).toList());
+        ArgumentCaptor<AnalyticsRentalHistogram> saved = ArgumentCaptor.forClass(AnalyticsRentalHistogram.class);
+        verify(histogramRepository).save(saved.capture());
+        assertEquals(1L, saved.getValue().getBikeRentalsStarted());
+    }
+
+    @Test
+    void addEvents_AllReplayed_WritesNothing() {
+        when(histogramEventRepository.findAllById(anyList()))
+                .thenReturn(List.of(new AnalyticsRentalHistogramEvent("event-1", MORNING)));
+
+        assertEquals(0, rentalHistogramService.addEvents(List.of(started("event-1", "company-a", MORNING, "E-Bike"))));
+        verify(histogramRepository, never()).save(any());
+    }
+
+    private RentalEvent started(String eventId, String companyExternalId, LocalDateTime startDateTime, String bikeTypeName) {
+        return RentalEvent.builder()
+                .eventId(eventId)
+                .eventType(RentalEvent.BIKE_RENTAL_STARTED)
+                .companyExternalId(companyExternalId)
+                .startDateTime(startDateTime)
+                .bikeTypeName(bikeTypeName)
+                .build();
+    }
+
+    private RentalEvent ended(String eventId, String companyExternalId, LocalDateTime startDateTime, String status,
+                              Long rideMinutes) {
+        return RentalEvent.builder()
+                .eventId(eventId)
+                .eventType(RentalEvent.BIKE_RENTAL_ENDED)
+                .companyExternalId(companyExternalId)
+                .startDateTime(startDateTime)
+                .bikeRentalStatusName(status)
+                .rideMinutes(rideMinutes)
+                .build();
+    }
+}
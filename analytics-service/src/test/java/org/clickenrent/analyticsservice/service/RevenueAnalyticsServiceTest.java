@@ -0,0 +1,126 @@
+package org.clickenrent.analyticsservice.service;
+
+import org.clickenrent.analyticsservice.client.PaymentServiceClient;
+import org.clickenrent.analyticsservice.client.RentalServiceClient;
+import org.clickenrent.analyticsservice.dto.LocationRevenueDTO;
+import org.clickenrent.analyticsservice.dto.RevenueAnalyticsDTO;
+import org.clickenrent.analyticsservice.exception.UnauthorizedException;
+import org.clickenrent.contracts.payment.RentalDailyRefundDTO;
+import org.clickenrent.contracts.rental.LocationDailyRevenueDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for RevenueAnalyticsService.
+ */
+@ExtendWith(MockitoExtension.class)
+class RevenueAnalyticsServiceTest {
+
+    private static final LocalDate FROM = LocalDate.of(2026, 3, 1);
+    private static final LocalDate TO = LocalDate.of(2026, 3, 31);
+
+    @Mock
+    private RentalServiceClient rentalServiceClient;
+
+    @Mock
+    private PaymentServiceClient paymentServiceClient;
+
+    @Mock
+    private SecurityService securityService;
+
+    private RevenueAnalyticsService revenueAnalyticsService;
+
+    @BeforeEach
+    void setUp() {
+        revenueAnalyticsService = new RevenueAnalyticsService(rentalServiceClient, paymentServiceClient, securityService, 5000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        revenueAnalyticsService.shutdown();
+    }
+
+    @Test
+    void getRevenueAnalytics_JoinsRevenueAndRefundSummaries() {
+        when(securityService.isCustomer()).thenReturn(false);
+        when(rentalServiceClient.getDailyRevenueByLocation(FROM, TO)).thenReturn(List.of(
+                day(1L, "Central", "60.00", "18.00"),
+                day(2L, "Harbour", "40.00", "0.00"),
+                day(1L, "Central", "20.00", "6.00")));
+        when(paymentServiceClient.getDailyRefunds(FROM, TO)).thenReturn(List.of(
+                refund("rental-1", "5.00"),
+                refund("rental-2", "2.50")));
+
+        RevenueAnalyticsDTO result = revenueAnalyticsService.getRevenueAnalytics(FROM, TO);
+
+        assertEquals(new BigDecimal("120.00"), result.getSummary().getTotalRevenue());
+        assertEquals(new BigDecimal("24.00"), result.getSummary().getTotalEarnings());
+        assertEquals(new BigDecimal("7.50"), result.getSummary().getTotalRefunds());
+        assertEquals(2, result.getTopLocations().size());
+        LocationRevenueDTO top = result.getTopLocations().get(0);
+        assertEquals(1L, top.getLocationId());
+        assertEquals("Central", top.getName());
+        assertEquals(new BigDecimal("80.00"), top.getRevenue());
+        assertEquals(new BigDecimal("24.00"), top.getEarnings());
+        assertEquals(66.7, top.getPercentage());
+    }
+
+    @Test
+    void getRevenueAnalytics_RefundsUnavailable_ReportsZeroRefunds() {
+        when(securityService.isCustomer()).thenReturn(false);
+        when(rentalServiceClient.getDailyRevenueByLocation(FROM, TO)).thenReturn(List.of(day(1L, "Central", "10.00", "1.00")));
+        when(paymentServiceClient.getDailyRefunds(FROM, TO)).thenThrow(new RuntimeException("payment-service down"));
+
+        RevenueAnalyticsDTO result = revenueAnalyticsService.getRevenueAnalytics(FROM, TO);
+
+        assertEquals(new BigDecimal("10.00"), result.getSummary().getTotalRevenue());
+        assertEquals(0, BigDecimal.ZERO.compareTo(result.getSummary().getTotalRefunds()));
+    }
+
+    @Test
+    void getRevenueAnalytics_RevenueUnavailable_Propagates() {
+        when(securityService.isCustomer()).thenReturn(false);
+        when(rentalServiceClient.getDailyRevenueByLocation(FROM, TO)).thenThrow(new IllegalStateException("rental-service down"));
+
+        assertThrows(IllegalStateException.class, () -> revenueAnalyticsService.getRevenueAnalytics(FROM, TO));
+    }
+
+    @Test
+    void getRevenueAnalytics_Customer_ThrowsUnauthorized() {
+        when(securityService.isCustomer()).thenReturn(true);
+
+        assertThrows(UnauthorizedException.class, () -> revenueAnalyticsService.getRevenueAnalytics(FROM, TO));
+        verifyNoInteractions(rentalServiceClient, paymentServiceClient);
+    }
+
+    private static LocationDailyRevenueDTO day(Long locationId, String name, String revenue, String earnings) {
+        return LocationDailyRevenueDTO.builder()
+                .locationId(locationId)
+                .locationName(name)
+                .date(FROM)
+                .bikeRentals(1L)
+                .revenue(new BigDecimal(revenue))
+                .earnings(new BigDecimal(earnings))
+                .build();
+    }
+
+    private static RentalDailyRefundDTO refund(String rentalExternalId, String amount) {
+        return RentalDailyRefundDTO.builder()
+                .rentalExternalId(rentalExternalId)
+                .date(FROM)
+                .refunds(1L)
+                .amount(new BigDecimal(amount))
+                .build();
+    }
+}
@@ -5,6 +5,7 @@ import org.clickenrent.contracts.rental.BikeRentalDTO;
 import org.clickenrent.contracts.rental.LocationDTO;
 import org.clickenrent.contracts.rental.RentalDTO;
 import org.clickenrent.contracts.rental.RideDTO;
+import org.clickenrent.contracts.rental.UserRentalStatsDTO;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -24,6 +25,12 @@ public interface RentalServiceClient {
     @GetMapping("/rentals/user/{userExternalId}")
     List<RentalDTO> getRentalsByUserExternalId(@PathVariable("userExternalId") String userExternalId);
 
+    /**
+     * Get a user's rental aggregates (count, spend, ride time, favourite location) in one call
+     */
+    @GetMapping("/rentals/user/{userExternalId}/stats")
+    UserRentalStatsDTO getUserRentalStats(@PathVariable("userExternalId") String userExternalId);
+
     /**
      * Get bike rentals by rental external ID
      */
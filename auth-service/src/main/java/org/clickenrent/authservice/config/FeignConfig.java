@@ -1,6 +1,5 @@
 package org.clickenrent.authservice.config;
 
-import feign.Logger;
 import feign.RequestInterceptor;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
@@ -16,14 +15,6 @@ import org.springframework.web.context.request.ServletRequestAttributes;
 @Slf4j
 public class FeignConfig {
 
-    /**
-     * Enable full Feign logging for debugging.
-     */
-    @Bean
-    Logger.Level feignLoggerLevel() {
-        return Logger.Level.FULL;
-    }
-
     /**
      * Interceptor to propagate JWT token to other services.
      * Extracts the Authorization header from the incoming request and forwards it.
@@ -13,16 +13,22 @@ import lombok.RequiredArgsConstructor;
 import org.clickenrent.authservice.dto.CreateUserRequest;
 import org.clickenrent.authservice.dto.UserDTO;
 import org.clickenrent.authservice.dto.UserStatsDTO;
+import org.clickenrent.authservice.service.UserExportService;
 import org.clickenrent.authservice.service.UserService;
 import org.clickenrent.authservice.service.UserStatisticsService;
+import org.clickenrent.contracts.security.TenantContext;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
 
 /**
  * REST controller for User management operations.
@@ -41,6 +47,7 @@ public class UserController {
     
     private final UserService userService;
     private final UserStatisticsService userStatisticsService;
+    private final UserExportService userExportService;
     
     /**
      * Get all users with pagination.
@@ -63,6 +70,42 @@ public class UserController {
         return ResponseEntity.ok(users);
     }
     
+    /**
+     * Stream all users as newline-delimited JSON.
+     * GET /api/v1/users/export
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasAnyRole('SUPERADMIN', 'ADMIN', 'B2B')")
+    @Operation(
+            summary = "Export users (NDJSON stream)",
+            description = "Streams every accessible user as one JSON object per line using a database cursor. " +
+                    "Intended for bulk consumers such as search re-indexing."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "User stream started"),
+            @ApiResponse(responseCode = "401", description = "Not authenticated"),
+            @ApiResponse(responseCode = "403", description = "Insufficient permissions")
+    })
+    public ResponseEntity<StreamingResponseBody> exportUsers(
+            @Parameter(description = "Restrict the export to one company")
+            @RequestParam(required = false) String companyExternalId) {
+        List<String> companyScope = userExportService.resolveCompanyScope(companyExternalId);
+        TenantContext.Snapshot tenant = TenantContext.capture();
+
+        StreamingResponseBody body = out -> {
+            tenant.apply();
+            try {
+                userExportService.exportUsers(companyScope, out);
+            } finally {
+                TenantContext.clear();
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+    
     /**
      * Get user by ID.
      * GET /api/users/{id}
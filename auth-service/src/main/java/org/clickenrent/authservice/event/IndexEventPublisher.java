@@ -3,16 +3,21 @@ package org.clickenrent.authservice.event;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.clickenrent.contracts.search.IndexEventRequest;
+import org.clickenrent.outbox.OutboxWriter;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 
+/**
+ * Publishes search index events through the transactional outbox.
+ * The event is committed together with the caller's transaction and relayed to Kafka by OutboxRelay.
+ * Failures are not caught: the outbox row is part of that transaction, so the caller's operation fails with it.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class IndexEventPublisher {
 
-    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final OutboxWriter outboxWriter;
 
     @Value("${kafka.topics.search-index-events}")
     private String searchIndexEventsTopic;
@@ -22,28 +27,13 @@ public class IndexEventPublisher {
             String entityId,
             IndexEventRequest.IndexOperation operation
     ) {
-        try {
-            IndexEventRequest event = IndexEventRequest.builder()
-                    .entityType(entityType)
-                    .entityId(entityId)
-                    .operation(operation)
-                    .build();
+        IndexEventRequest event = IndexEventRequest.builder()
+                .entityType(entityType)
+                .entityId(entityId)
+                .operation(operation)
+                .build();
 
-            kafkaTemplate.send(searchIndexEventsTopic, entityId, event)
-                    .whenComplete((result, ex) -> {
-                        if (ex == null) {
-                            log.debug("Published index event: operation={}, type={}, id={}, partition={}, offset={}",
-                                    operation, entityType, entityId,
-                                    result.getRecordMetadata().partition(),
-                                    result.getRecordMetadata().offset());
-                        } else {
-                            log.error("Failed to publish index event: operation={}, type={}, id={}",
-                                    operation, entityType, entityId, ex);
-                        }
-                    });
-        } catch (Exception e) {
-            log.error("Error publishing index event: operation={}, type={}, id={}",
-                    operation, entityType, entityId, e);
-        }
+        outboxWriter.enqueue(searchIndexEventsTopic, entityId, event);
+        log.debug("Queued index event: operation={}, type={}, id={}", operation, entityType, entityId);
     }
 }
@@ -0,0 +1,36 @@
+package org.clickenrent.authservice.event;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.clickenrent.authservice.service.UserStatisticsService;
+import org.clickenrent.contracts.rental.RentalEvent;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Service;
+
+/**
+ * Keeps the user statistics cache fresh: a completed rental changes the user's totals.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RentalEventConsumer {
+
+    private final UserStatisticsService userStatisticsService;
+
+    // Every replica holds its own cache, so each one consumes the topic in its own group
+    @KafkaListener(
+            topics = "${kafka.topics.rental-events}",
+            groupId = "auth-service-user-stats-${kafka.consumer.instance-id}",
+            containerFactory = "replicaListenerContainerFactory"
+    )
+    public void consumeRentalEvent(@Payload RentalEvent event) {
+        if (!RentalEvent.RENTAL_COMPLETED.equals(event.getEventType()) || event.getUserExternalId() == null) {
+            return;
+        }
+
+        userStatisticsService.evict(event.getUserExternalId());
+        log.debug("Evicted cached statistics for user {} after rental {} completed",
+                event.getUserExternalId(), event.getRentalExternalId());
+    }
+}
@@ -0,0 +1,123 @@
+package org.clickenrent.authservice.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.clickenrent.authservice.exception.UnauthorizedException;
+import org.clickenrent.authservice.security.PostgresRLSConfig;
+import org.clickenrent.contracts.auth.UserDTO;
+import org.clickenrent.http.ndjson.ExportCompanyScope;
+import org.clickenrent.http.ndjson.NdjsonExportWriter;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Streams users as newline-delimited JSON for bulk consumers (search re-index, analytics backfills).
+ * Rows are read through a read-only, forward-only JDBC cursor and written straight to the
+ * response, so memory stays constant regardless of the number of users.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UserExportService {
+
+    private static final String EXPORT_SQL = """
+        SELECT
+            u.id,
+            u.external_id,
+            u.user_name,
+            u.email,
+            u.first_name,
+            u.last_name,
+            u.phone,
+            u.image_url,
+            u.language_id,
+            u.is_active,
+            u.is_deleted,
+            u.is_email_verified,
+            u.is_accepted_terms,
+            u.is_accepted_privacy_policy,
+            u.date_created,
+            u.last_date_modified,
+            u.created_by,
+            u.last_modified_by
+        FROM users u
+        WHERE u.is_deleted = false
+        """;
+
+    private static final String COMPANY_CONDITION = """
+         AND EXISTS (
+            SELECT 1
+            FROM user_company uc
+            INNER JOIN company c ON uc.company_id = c.id
+            WHERE uc.user_id = u.id
+                AND uc.is_deleted = false
+                AND c.external_id = ANY (?)
+        )
+        """;
+
+    private static final String ORDER_BY = " ORDER BY u.id";
+
+    private final NdjsonExportWriter ndjsonExportWriter;
+    private final SecurityService securityService;
+    private final PostgresRLSConfig postgresRLSConfig;
+
+    /**
+     * Resolve which companies the current user may export users of.
+     * Must be called on the request thread, before the response starts streaming.
+     *
+     * @param companyExternalId Optional company to narrow the export to
+     * @return Company external IDs to filter on, or null for an unrestricted (admin) export
+     */
+    public List<String> resolveCompanyScope(String companyExternalId) {
+        return ExportCompanyScope.resolve(companyExternalId, securityService.isAdmin(), securityService::isB2B,
+                securityService::getCurrentUserCompanyExternalIds, "users", UnauthorizedException::new);
+    }
+
+    /**
+     * Write every user visible in the given company scope to the output stream, one JSON object per line.
+     *
+     * @param companyScope Result of {@link #resolveCompanyScope(String)}
+     * @param out Response output stream
+     * @return Number of exported users
+     */
+    @Transactional(readOnly = true)
+    public long exportUsers(List<String> companyScope, OutputStream out) throws IOException {
+        // JdbcTemplate bypasses the repository aspects, so set the RLS session variables explicitly
+        postgresRLSConfig.setPostgresSessionVariables();
+
+        String sql = EXPORT_SQL + (companyScope != null ? COMPANY_CONDITION : "") + ORDER_BY;
+        long count = ndjsonExportWriter.write(sql, companyScope, UserDTO.class, this::mapRow, out);
+
+        log.info("Exported {} users as NDJSON (companies: {})", count, companyScope != null ? companyScope : "all");
+        return count;
+    }
+
+    private UserDTO mapRow(ResultSet rs, int rowNum) throws SQLException {
+        return UserDTO.builder()
+                .id(rs.getLong("id"))
+                .externalId(rs.getString("external_id"))
+                .userName(rs.getString("user_name"))
+                .email(rs.getString("email"))
+                .firstName(rs.getString("first_name"))
+                .lastName(rs.getString("last_name"))
+                .phone(rs.getString("phone"))
+                .imageUrl(rs.getString("image_url"))
+                .languageId(rs.getObject("language_id", Long.class))
+                .isActive(rs.getObject("is_active", Boolean.class))
+                .isDeleted(rs.getObject("is_deleted", Boolean.class))
+                .isEmailVerified(rs.getObject("is_email_verified", Boolean.class))
+                .isAcceptedTerms(rs.getObject("is_accepted_terms", Boolean.class))
+                .isAcceptedPrivacyPolicy(rs.getObject("is_accepted_privacy_policy", Boolean.class))
+                .dateCreated(NdjsonExportWriter.toLocalDateTime(rs.getTimestamp("date_created")))
+                .lastDateModified(NdjsonExportWriter.toLocalDateTime(rs.getTimestamp("last_date_modified")))
+                .createdBy(rs.getString("created_by"))
+                .lastModifiedBy(rs.getString("last_modified_by"))
+                .build();
+    }
+}
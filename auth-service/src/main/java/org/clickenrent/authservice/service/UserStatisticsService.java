@@ -1,7 +1,9 @@
 package org.clickenrent.authservice.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import feign.FeignException;
-import lombok.RequiredArgsConstructor;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.clickenrent.authservice.client.RentalServiceClient;
 import org.clickenrent.authservice.client.SupportServiceClient;
@@ -10,31 +12,66 @@ import org.clickenrent.authservice.dto.UserStatsDTO;
 import org.clickenrent.authservice.entity.User;
 import org.clickenrent.authservice.exception.ResourceNotFoundException;
 import org.clickenrent.authservice.repository.UserRepository;
-import org.clickenrent.contracts.rental.BikeRentalDTO;
-import org.clickenrent.contracts.rental.LocationDTO;
-import org.clickenrent.contracts.rental.RentalDTO;
-import org.clickenrent.contracts.rental.RideDTO;
+import org.clickenrent.contracts.rental.UserRentalStatsDTO;
 import org.clickenrent.contracts.support.BikeRentalFeedbackDTO;
+import org.clickenrent.http.FanOutExecutors;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.Duration;
-import java.util.*;
-import java.util.stream.Collectors;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
 
 /**
  * Service for calculating user bike rental statistics.
  * Aggregates data from rental-service and support-service.
+ *
+ * The rental aggregates (computed in SQL by rental-service) and the feedback are fetched in parallel,
+ * each bounded by user-stats.fetch-timeout-ms. Complete results are cached per user until the TTL expires
+ * or a rental completed event evicts them; partial results are returned but not cached.
  */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class UserStatisticsService {
 
     private final UserRepository userRepository;
     private final RentalServiceClient rentalServiceClient;
     private final SupportServiceClient supportServiceClient;
+    private final long fetchTimeoutMs;
+    private final Cache<String, UserStatsDTO> statsCache;
+    private final ThreadPoolTaskExecutor executor;
+
+    public UserStatisticsService(
+            UserRepository userRepository,
+            RentalServiceClient rentalServiceClient,
+            SupportServiceClient supportServiceClient,
+            @Value("${user-stats.fetch-timeout-ms:3000}") long fetchTimeoutMs,
+            @Value("${user-stats.cache.ttl-minutes:10}") long cacheTtlMinutes,
+            @Value("${user-stats.cache.max-size:50000}") long cacheMaxSize) {
+        this.userRepository = userRepository;
+        this.rentalServiceClient = rentalServiceClient;
+        this.supportServiceClient = supportServiceClient;
+        this.fetchTimeoutMs = fetchTimeoutMs;
+        this.statsCache = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(Duration.ofMinutes(cacheTtlMinutes))
+                .build();
+
+        this.executor = FanOutExecutors.create("user-stats-", 8, 32, 200);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
 
     /**
      * Calculate comprehensive statistics for a user.
@@ -44,11 +81,23 @@ public class UserStatisticsService {
         // Get user and extract external ID
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "id", userId));
-        
+
         String userExternalId = user.getExternalId();
-        
+
+        UserStatsDTO cached = statsCache.getIfPresent(userExternalId);
+        if (cached != null) {
+            log.debug("Returning cached statistics for user: {}", userExternalId);
+            return cached;
+        }
+
         log.info("=== Starting statistics calculation for user: {} (externalId: {}) ===", userId, userExternalId);
 
+        // Both calls are in flight before either is awaited
+        CompletableFuture<UserRentalStatsDTO> rentalStats =
+                fetch(() -> rentalServiceClient.getUserRentalStats(userExternalId));
+        CompletableFuture<List<BikeRentalFeedbackDTO>> feedbacks =
+                fetch(() -> supportServiceClient.getByUserExternalId(userExternalId));
+
         // Initialize stats with default values
         UserStatsDTO stats = UserStatsDTO.builder()
                 .totalBikeRentals(0)
@@ -57,34 +106,29 @@ public class UserStatisticsService {
                 .averageRating(null)
                 .favoriteLocation(null)
                 .build();
+        boolean complete = true;
 
-        // Fetch and calculate rental statistics
         try {
-            log.debug("Attempting to fetch rental statistics from rental-service...");
-            calculateRentalStats(userExternalId, stats);
-            log.info("Successfully calculated rental statistics: totalBikeRentals={}, totalSpent={}, totalRidesDuration={}", 
+            applyRentalStats(rentalStats.join(), stats);
+            log.info("Successfully calculated rental statistics: totalBikeRentals={}, totalSpent={}, totalRidesDuration={}",
                     stats.getTotalBikeRentals(), stats.getTotalSpent(), stats.getTotalRidesDurationTime());
-        } catch (FeignException e) {
-            log.error("Feign error fetching rental data for user {}: Status={}, Message={}", 
-                    userExternalId, e.status(), e.getMessage());
-            log.error("Response body: {}", e.contentUTF8());
+        } catch (CompletionException e) {
             // Continue with default values for rental stats
-        } catch (Exception e) {
-            log.error("Unexpected error fetching rental data for user {}: {}", userExternalId, e.getMessage(), e);
+            complete = false;
+            logFetchFailure("rental", userExternalId, e.getCause());
         }
 
-        // Fetch and calculate feedback statistics
         try {
-            log.debug("Attempting to fetch feedback statistics from support-service...");
-            calculateFeedbackStats(userExternalId, stats);
+            applyFeedbackStats(feedbacks.join(), stats);
             log.info("Successfully calculated feedback statistics: averageRating={}", stats.getAverageRating());
-        } catch (FeignException e) {
-            log.error("Feign error fetching feedback data for user {}: Status={}, Message={}", 
-                    userExternalId, e.status(), e.getMessage());
-            log.error("Response body: {}", e.contentUTF8());
+        } catch (CompletionException e) {
             // Continue with default values for feedback stats
-        } catch (Exception e) {
-            log.error("Unexpected error fetching feedback data for user {}: {}", userExternalId, e.getMessage(), e);
+            complete = false;
+            logFetchFailure("feedback", userExternalId, e.getCause());
+        }
+
+        if (complete) {
+            statsCache.put(userExternalId, stats);
         }
 
         log.info("=== Completed statistics calculation for user: {} ===", userId);
@@ -92,154 +136,62 @@ public class UserStatisticsService {
     }
 
     /**
-     * Calculate statistics from rental-service data.
+     * Drop the cached statistics of a user, e.g. after one of their rentals completed.
      */
-    private void calculateRentalStats(String userExternalId, UserStatsDTO stats) {
-        // Get all rentals for the user
-        log.debug("Calling rental-service: GET /api/rentals/user/{}", userExternalId);
-        List<RentalDTO> rentals = rentalServiceClient.getRentalsByUserExternalId(userExternalId);
-        
-        if (rentals == null || rentals.isEmpty()) {
-            log.info("No rentals found for user: {}", userExternalId);
-            return;
-        }
-        
-        log.debug("Found {} rentals for user: {}", rentals.size(), userExternalId);
-
-        // Collect all bike rentals across all rentals
-        List<BikeRentalDTO> allBikeRentals = new ArrayList<>();
-        for (RentalDTO rental : rentals) {
-            try {
-                log.debug("Fetching bike rentals for rental externalId: {}", rental.getExternalId());
-                List<BikeRentalDTO> bikeRentals = rentalServiceClient.getBikeRentalsByRentalExternalId(rental.getExternalId());
-                if (bikeRentals != null) {
-                    log.debug("Found {} bike rentals for rental: {}", bikeRentals.size(), rental.getExternalId());
-                    allBikeRentals.addAll(bikeRentals);
-                }
-            } catch (Exception e) {
-                log.warn("Failed to fetch bike rentals for rental {}: {}", rental.getExternalId(), e.getMessage());
-            }
-        }
-
-        // Calculate total bike rentals
-        stats.setTotalBikeRentals(allBikeRentals.size());
-
-        // Calculate total spent (sum of all totalPrice values)
-        BigDecimal totalSpent = allBikeRentals.stream()
-                .map(BikeRentalDTO::getTotalPrice)
-                .filter(Objects::nonNull)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        stats.setTotalSpent(totalSpent);
-
-        // Calculate favorite location
-        FavoriteLocationDTO favoriteLocation = calculateFavoriteLocation(allBikeRentals);
-        stats.setFavoriteLocation(favoriteLocation);
-
-        // Calculate total rides duration
-        Long totalDuration = calculateTotalRidesDuration(allBikeRentals);
-        stats.setTotalRidesDurationTime(totalDuration);
+    public void evict(String userExternalId) {
+        statsCache.invalidate(userExternalId);
     }
 
-    /**
-     * Calculate total duration of all rides in minutes.
-     */
-    private Long calculateTotalRidesDuration(List<BikeRentalDTO> bikeRentals) {
-        long totalMinutes = 0;
+    private <T> CompletableFuture<T> fetch(Supplier<T> call) {
+        return CompletableFuture.supplyAsync(call, executor)
+                .orTimeout(fetchTimeoutMs, TimeUnit.MILLISECONDS);
+    }
 
-        for (BikeRentalDTO bikeRental : bikeRentals) {
-            try {
-                log.debug("Fetching rides for bike rental externalId: {}", bikeRental.getExternalId());
-                List<RideDTO> rides = rentalServiceClient.getRidesByBikeRentalExternalId(bikeRental.getExternalId());
-                
-                if (rides != null) {
-                    log.debug("Found {} rides for bike rental: {}", rides.size(), bikeRental.getExternalId());
-                    for (RideDTO ride : rides) {
-                        if (ride.getStartDateTime() != null && ride.getEndDateTime() != null) {
-                            Duration duration = Duration.between(ride.getStartDateTime(), ride.getEndDateTime());
-                            long minutes = duration.toMinutes();
-                            log.debug("Ride duration: {} minutes", minutes);
-                            totalMinutes += minutes;
-                        }
-                    }
-                }
-            } catch (Exception e) {
-                log.warn("Failed to fetch rides for bike rental {}: {}", bikeRental.getExternalId(), e.getMessage());
-            }
+    private void logFetchFailure(String part, String userExternalId, Throwable cause) {
+        if (cause instanceof FeignException e) {
+            log.error("Feign error fetching {} data for user {}: Status={}, Message={}",
+                    part, userExternalId, e.status(), e.getMessage());
+            log.error("Response body: {}", e.contentUTF8());
+        } else if (cause instanceof TimeoutException) {
+            log.error("Timed out after {}ms fetching {} data for user {}", fetchTimeoutMs, part, userExternalId);
+        } else {
+            log.error("Unexpected error fetching {} data for user {}: {}",
+                    part, userExternalId, cause != null ? cause.getMessage() : null, cause);
         }
-
-        log.debug("Total rides duration: {} minutes", totalMinutes);
-        return totalMinutes;
     }
 
     /**
-     * Find the most frequently used location.
+     * Copy the rental-service aggregates into the statistics.
      */
-    private FavoriteLocationDTO calculateFavoriteLocation(List<BikeRentalDTO> bikeRentals) {
-        if (bikeRentals.isEmpty()) {
-            return null;
-        }
-
-        // Count occurrences of each location by ID
-        Map<Long, Long> locationCounts = bikeRentals.stream()
-                .map(BikeRentalDTO::getLocationId)
-                .filter(Objects::nonNull)
-                .collect(Collectors.groupingBy(
-                        locationId -> locationId,
-                        Collectors.counting()
-                ));
-
-        if (locationCounts.isEmpty()) {
-            return null;
-        }
-
-        // Find the location with the maximum count
-        Map.Entry<Long, Long> maxEntry = locationCounts.entrySet().stream()
-                .max(Map.Entry.comparingByValue())
-                .orElse(null);
-
-        if (maxEntry == null) {
-            return null;
+    private void applyRentalStats(UserRentalStatsDTO rentalStats, UserStatsDTO stats) {
+        if (rentalStats == null || rentalStats.getTotalBikeRentals() == null || rentalStats.getTotalBikeRentals() == 0) {
+            log.info("No bike rentals found for user");
+            return;
         }
 
-        Long favoriteLocationId = maxEntry.getKey();
-        Integer timesUsed = maxEntry.getValue().intValue();
+        stats.setTotalBikeRentals(rentalStats.getTotalBikeRentals());
+        stats.setTotalSpent(Objects.requireNonNullElse(rentalStats.getTotalSpent(), BigDecimal.ZERO));
+        stats.setTotalRidesDurationTime(Objects.requireNonNullElse(rentalStats.getTotalRidesDurationMinutes(), 0L));
 
-        // Fetch location details from rental-service
-        try {
-            LocationDTO location = rentalServiceClient.getLocationById(favoriteLocationId);
-            return FavoriteLocationDTO.builder()
-                    .externalId(location.getExternalId())
-                    .name(location.getName())
-                    .timesUsed(timesUsed)
-                    .build();
-        } catch (FeignException e) {
-            log.warn("Failed to fetch location details for locationId={}: {}", favoriteLocationId, e.getMessage());
-            // Return with minimal information if location fetch fails
-            return FavoriteLocationDTO.builder()
-                    .externalId("unknown")
-                    .name("Location #" + favoriteLocationId)
-                    .timesUsed(timesUsed)
-                    .build();
+        if (rentalStats.getFavoriteLocationExternalId() != null) {
+            stats.setFavoriteLocation(FavoriteLocationDTO.builder()
+                    .externalId(rentalStats.getFavoriteLocationExternalId())
+                    .name(rentalStats.getFavoriteLocationName())
+                    .timesUsed(rentalStats.getFavoriteLocationTimesUsed())
+                    .build());
         }
     }
 
-
-
-
-
     /**
      * Calculate statistics from support-service data.
      */
-    private void calculateFeedbackStats(String userExternalId, UserStatsDTO stats) {
-        log.debug("Calling support-service: GET /api/bike-rental-feedbacks/user/{}", userExternalId);
-        List<BikeRentalFeedbackDTO> feedbacks = supportServiceClient.getByUserExternalId(userExternalId);
-        
+    private void applyFeedbackStats(List<BikeRentalFeedbackDTO> feedbacks, UserStatsDTO stats) {
         if (feedbacks == null || feedbacks.isEmpty()) {
-            log.info("No feedback found for user: {}", userExternalId);
+            log.info("No feedback found for user");
             return;
         }
-        
-        log.debug("Found {} feedbacks for user: {}", feedbacks.size(), userExternalId);
+
+        log.debug("Found {} feedbacks", feedbacks.size());
 
         // Calculate average rating
         Double averageRating = feedbacks.stream()
@@ -257,4 +209,3 @@ public class UserStatisticsService {
         stats.setAverageRating(averageRating > 0 ? averageRating : null);
     }
 }
-
@@ -59,6 +59,9 @@ class UserControllerTest {
     @MockBean
     private org.clickenrent.authservice.service.UserStatisticsService userStatisticsService;
 
+    @MockBean
+    private org.clickenrent.authservice.service.UserExportService userExportService;
+
     @MockBean
     private org.clickenrent.authservice.service.SecurityService securityService;
 
@@ -0,0 +1,145 @@
+package org.clickenrent.authservice.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.clickenrent.authservice.exception.UnauthorizedException;
+import org.clickenrent.authservice.security.PostgresRLSConfig;
+import org.clickenrent.http.ndjson.NdjsonExportWriter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for UserExportService.
+ * Streams from an H2 database through the shared NDJSON writer.
+ */
+@ExtendWith(MockitoExtension.class)
+class UserExportServiceTest {
+
+    @Mock
+    private SecurityService securityService;
+
+    @Mock
+    private PostgresRLSConfig postgresRLSConfig;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private EmbeddedDatabase database;
+    private UserExportService userExportService;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true).build();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("CREATE TABLE users (id BIGINT PRIMARY KEY, external_id VARCHAR(100), " +
+                "user_name VARCHAR(100), email VARCHAR(100), first_name VARCHAR(100), last_name VARCHAR(100), " +
+                "phone VARCHAR(50), image_url VARCHAR(255), language_id BIGINT, is_active BOOLEAN, " +
+                "is_deleted BOOLEAN, is_email_verified BOOLEAN, is_accepted_terms BOOLEAN, " +
+                "is_accepted_privacy_policy BOOLEAN, date_created TIMESTAMP, last_date_modified TIMESTAMP, " +
+                "created_by VARCHAR(100), last_modified_by VARCHAR(100))");
+        jdbcTemplate.execute("CREATE TABLE company (id BIGINT PRIMARY KEY, external_id VARCHAR(100))");
+        jdbcTemplate.execute("CREATE TABLE user_company (id BIGINT PRIMARY KEY, user_id BIGINT, company_id BIGINT, " +
+                "is_deleted BOOLEAN)");
+
+        jdbcTemplate.update("INSERT INTO company VALUES (1, 'company-a'), (2, 'company-b')");
+        insertUser(jdbcTemplate, 1, false, 1L);
+        insertUser(jdbcTemplate, 2, false, 2L);
+        insertUser(jdbcTemplate, 3, false, 1L);
+        insertUser(jdbcTemplate, 4, true, 1L);
+
+        NdjsonExportWriter writer = new NdjsonExportWriter(jdbcTemplate, objectMapper, 2, 2);
+        userExportService = new UserExportService(writer, securityService, postgresRLSConfig);
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void exportUsers_Unrestricted_StreamsEveryActiveUserInOrder() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long count = userExportService.exportUsers(null, out);
+
+        List<JsonNode> lines = readLines(out);
+        assertEquals(3, count);
+        assertEquals(List.of("user-1", "user-2", "user-3"), lines.stream().map(n -> n.get("externalId").asText()).toList());
+        assertEquals("user1@example.com", lines.get(0).get("email").asText());
+        assertEquals("2026-01-01T10:00:00", lines.get(0).get("dateCreated").asText());
+        verify(postgresRLSConfig).setPostgresSessionVariables();
+    }
+
+    @Test
+    void exportUsers_WithCompanyScope_StreamsOnlyUsersOfThoseCompanies() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long count = userExportService.exportUsers(List.of("company-b"), out);
+
+        assertEquals(1, count);
+        assertEquals("user-2", readLines(out).get(0).get("externalId").asText());
+    }
+
+    @Test
+    void exportUsers_WhenClientGoesAway_ThrowsIOException() {
+        OutputStream out = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+
+        assertThrows(IOException.class, () -> userExportService.exportUsers(null, out));
+    }
+
+    @Test
+    void resolveCompanyScope_B2BWithForeignCompany_ThrowsUnauthorized() {
+        when(securityService.isAdmin()).thenReturn(false);
+        when(securityService.isB2B()).thenReturn(true);
+        when(securityService.getCurrentUserCompanyExternalIds()).thenReturn(List.of("company-a"));
+
+        UnauthorizedException e = assertThrows(UnauthorizedException.class,
+                () -> userExportService.resolveCompanyScope("company-b"));
+        assertEquals("You don't have permission to export users of this company", e.getMessage());
+    }
+
+    @Test
+    void resolveCompanyScope_Admin_ReturnsNullForUnrestrictedExport() {
+        when(securityService.isAdmin()).thenReturn(true);
+
+        assertNull(userExportService.resolveCompanyScope(null));
+    }
+
+    private List<JsonNode> readLines(ByteArrayOutputStream out) throws IOException {
+        return objectMapper.readerFor(JsonNode.class)
+                .<JsonNode>readValues(out.toString(StandardCharsets.UTF_8))
+                .readAll();
+    }
+
+    private void insertUser(JdbcTemplate jdbcTemplate, long id, boolean deleted, long companyId) {
+        jdbcTemplate.update("INSERT INTO users (id, external_id, user_name, email, is_active, is_deleted, date_created) " +
+                        "VALUES (?, ?, ?, ?, true, ?, TIMESTAMP '2026-01-01 10:00:00')",
+                id, "user-" + id, "user" + id, "user" + id + "@example.com", deleted);
+        jdbcTemplate.update("INSERT INTO user_company VALUES (?, ?, ?, false)", id, id, companyId);
+    }
+}
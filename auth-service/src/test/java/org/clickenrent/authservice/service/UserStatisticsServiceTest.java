@@ -0,0 +1,157 @@
+package org.clickenrent.authservice.service;
+
+import org.clickenrent.authservice.client.RentalServiceClient;
+import org.clickenrent.authservice.client.SupportServiceClient;
+import org.clickenrent.authservice.dto.UserStatsDTO;
+import org.clickenrent.authservice.entity.User;
+import org.clickenrent.authservice.repository.UserRepository;
+import org.clickenrent.contracts.rental.UserRentalStatsDTO;
+import org.clickenrent.contracts.support.BikeRentalFeedbackDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for UserStatisticsService.
+ */
+@ExtendWith(MockitoExtension.class)
+class UserStatisticsServiceTest {
+
+    private static final String USER = "usr-ext-00001";
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private RentalServiceClient rentalServiceClient;
+
+    @Mock
+    private SupportServiceClient supportServiceClient;
+
+    private UserStatisticsService userStatisticsService;
+
+    @BeforeEach
+    void setUp() {
+        userStatisticsService = new UserStatisticsService(userRepository, rentalServiceClient, supportServiceClient,
+                500, 10, 1000);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(User.builder().id(1L).externalId(USER).build()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        userStatisticsService.shutdown();
+    }
+
+    @Test
+    void getUserStats_ComposesRentalAggregatesAndFeedback() {
+        when(rentalServiceClient.getUserRentalStats(USER)).thenReturn(rentalStats());
+        when(supportServiceClient.getByUserExternalId(USER)).thenReturn(List.of(feedback(4), feedback(5), feedback(4)));
+
+        UserStatsDTO stats = userStatisticsService.getUserStats(1L);
+
+        assertEquals(12, stats.getTotalBikeRentals());
+        assertEquals(new BigDecimal("84.50"), stats.getTotalSpent());
+        assertEquals(310L, stats.getTotalRidesDurationTime());
+        assertEquals(4.3, stats.getAverageRating());
+        assertEquals("loc-ext-001", stats.getFavoriteLocation().getExternalId());
+        assertEquals(7, stats.getFavoriteLocation().getTimesUsed());
+    }
+
+    @Test
+    void getUserStats_FetchesRentalAndFeedbackConcurrently() {
+        // Each call only returns once the other one has started
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        when(rentalServiceClient.getUserRentalStats(USER)).thenAnswer(invocation -> {
+            bothStarted.countDown();
+            bothStarted.await(2, TimeUnit.SECONDS);
+            return rentalStats();
+        });
+        when(supportServiceClient.getByUserExternalId(USER)).thenAnswer(invocation -> {
+            bothStarted.countDown();
+            bothStarted.await(2, TimeUnit.SECONDS);
+            return List.of(feedback(5));
+        });
+
+        UserStatsDTO stats = userStatisticsService.getUserStats(1L);
+
+        assertEquals(12, stats.getTotalBikeRentals());
+        assertEquals(5.0, stats.getAverageRating());
+    }
+
+    @Test
+    void getUserStats_IsCachedUntilEvicted() {
+        when(rentalServiceClient.getUserRentalStats(USER)).thenReturn(rentalStats());
+        when(supportServiceClient.getByUserExternalId(USER)).thenReturn(List.of());
+
+        userStatisticsService.getUserStats(1L);
+        userStatisticsService.getUserStats(1L);
+        userStatisticsService.evict(USER);
+        userStatisticsService.getUserStats(1L);
+
+        verify(rentalServiceClient, times(2)).getUserRentalStats(USER);
+        verify(supportServiceClient, times(2)).getByUserExternalId(USER);
+    }
+
+    @Test
+    void getUserStats_SlowFeedback_ReturnsPartialStatsWithoutCaching() {
+        when(rentalServiceClient.getUserRentalStats(USER)).thenReturn(rentalStats());
+        when(supportServiceClient.getByUserExternalId(USER)).thenAnswer(invocation -> {
+            Thread.sleep(2000);
+            return List.of(feedback(5));
+        }).thenReturn(List.of(feedback(5)));
+
+        long start = System.nanoTime();
+        UserStatsDTO partial = userStatisticsService.getUserStats(1L);
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertTrue(elapsedMs < 1500, "should not wait for the slow call, took " + elapsedMs + "ms");
+        assertEquals(12, partial.getTotalBikeRentals());
+        assertNull(partial.getAverageRating());
+
+        UserStatsDTO retried = userStatisticsService.getUserStats(1L);
+        assertEquals(5.0, retried.getAverageRating());
+    }
+
+    @Test
+    void getUserStats_RentalServiceDown_DegradesToDefaults() {
+        when(rentalServiceClient.getUserRentalStats(USER)).thenThrow(new IllegalStateException("connection refused"));
+        when(supportServiceClient.getByUserExternalId(USER)).thenReturn(List.of(feedback(3)));
+
+        UserStatsDTO stats = userStatisticsService.getUserStats(1L);
+
+        assertEquals(0, stats.getTotalBikeRentals());
+        assertEquals(BigDecimal.ZERO, stats.getTotalSpent());
+        assertNull(stats.getFavoriteLocation());
+        assertEquals(3.0, stats.getAverageRating());
+    }
+
+    private static UserRentalStatsDTO rentalStats() {
+        return UserRentalStatsDTO.builder()
+                .userExternalId(USER)
+                .totalBikeRentals(12)
+                .totalSpent(new BigDecimal("84.50"))
+                .totalRidesDurationMinutes(310L)
+                .favoriteLocationExternalId("loc-ext-001")
+                .favoriteLocationName("Central Station")
+                .favoriteLocationTimesUsed(7)
+                .build();
+    }
+
+    private static BikeRentalFeedbackDTO feedback(int rate) {
+        BikeRentalFeedbackDTO feedback = new BikeRentalFeedbackDTO();
+        feedback.setRate(rate);
+        return feedback;
+    }
+}
@@ -0,0 +1,151 @@
+package org.clickenrent.gateway.route;
+
+import org.clickenrent.gateway.config.GatewayConfig;
+import org.clickenrent.gateway.filter.JwtAuthenticationFilter;
+import org.clickenrent.gateway.filter.ResponseCacheFilter;
+import org.clickenrent.gateway.ratelimit.CustomRedisRateLimiter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.cloud.gateway.config.GlobalCorsProperties;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.RequestRateLimiterGatewayFilterFactory;
+import org.springframework.cloud.gateway.filter.factory.RewritePathGatewayFilterFactory;
+import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
+import org.springframework.cloud.gateway.handler.FilteringWebHandler;
+import org.springframework.cloud.gateway.handler.RoutePredicateHandlerMapping;
+import org.springframework.cloud.gateway.handler.predicate.MethodRoutePredicateFactory;
+import org.springframework.cloud.gateway.handler.predicate.PathRoutePredicateFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.route.RouteLocator;
+import org.springframework.cloud.gateway.route.builder.RouteLocatorBuilder;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Route lookup over the routes GatewayConfig declares, for the first declared route and the last one
+ * (route 141, which has two RouteIndex candidates). The route filters (JWT, rate limiters, response cache)
+ * are mocks; only the predicates are evaluated. Setup fails if the two lookups pick different routes.
+ *
+ * - linearScan: the gateway's RoutePredicateHandlerMapping, testing every route in declaration order
+ * - indexed: IndexedRoutePredicateHandlerMapping, testing the RouteIndex candidates of the path
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RouteLookupBenchmark {
+
+    @Param({"/auth-service/v3/api-docs", "/api/v1/analytics/realtime/stream"})
+    private String path;
+
+    private AnnotationConfigApplicationContext context;
+    private LinearRouteLookup linearLookup;
+    private IndexedRoutePredicateHandlerMapping indexedLookup;
+    private ServerWebExchange exchange;
+
+    @Setup
+    public void setUp() {
+        context = gatewayRoutes();
+        RouteLocator routeLocator = context.getBean(RouteLocator.class);
+        FilteringWebHandler webHandler = new FilteringWebHandler(List.of());
+        linearLookup = new LinearRouteLookup(webHandler, routeLocator);
+        indexedLookup = new IndexedRoutePredicateHandlerMapping(webHandler, routeLocator, Flux::empty,
+                new GlobalCorsProperties(), new StandardEnvironment());
+        exchange = MockServerWebExchange.from(MockServerHttpRequest.get(path));
+
+        Route linear = linearScan();
+        Route indexed = indexed();
+        if (!linear.getId().equals(indexed.getId())) {
+            throw new IllegalStateException("Lookups disagree for " + path + ": " + linear.getId() + " / " + indexed.getId());
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Route linearScan() {
+        return linearLookup.lookupRoute(exchange).block();
+    }
+
+    @Benchmark
+    public Route indexed() {
+        return indexedLookup.lookupRoute(exchange).block();
+    }
+
+    /**
+     * GatewayConfig with mocked filters, and the predicate and filter factories its routes use.
+     */
+    private static AnnotationConfigApplicationContext gatewayRoutes() {
+        ResponseCacheFilter responseCacheFilter = mock(ResponseCacheFilter.class);
+        GatewayFilter passThrough = (exchange, chain) -> chain.filter(exchange);
+        when(responseCacheFilter.forRoute(any(), any(Duration.class))).thenReturn(passThrough);
+
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        context.getBeanFactory().setConversionService(ApplicationConversionService.getSharedInstance());
+        // Singletons rather than bean definitions, so the mocks are not autowired themselves
+        ConfigurableListableBeanFactory beanFactory = context.getBeanFactory();
+        beanFactory.registerSingleton("jwtAuthenticationFilter", mock(JwtAuthenticationFilter.class));
+        beanFactory.registerSingleton("responseCacheFilter", responseCacheFilter);
+        for (String name : List.of("ipRateLimiter", "loginRateLimiter", "userRateLimiter")) {
+            beanFactory.registerSingleton(name, mock(CustomRedisRateLimiter.class));
+        }
+        for (String name : List.of("ipKeyResolver", "userKeyResolver")) {
+            beanFactory.registerSingleton(name, (KeyResolver) exchange -> Mono.just(name));
+        }
+        context.registerBean(PathRoutePredicateFactory.class);
+        context.registerBean(MethodRoutePredicateFactory.class);
+        context.registerBean(RewritePathGatewayFilterFactory.class);
+        context.registerBean(RequestRateLimiterGatewayFilterFactory.class,
+                () -> new RequestRateLimiterGatewayFilterFactory(mock(CustomRedisRateLimiter.class),
+                        exchange -> Mono.just("default")));
+        context.registerBean(RouteLocatorBuilder.class, () -> new RouteLocatorBuilder(context));
+        context.register(GatewayConfig.class);
+        context.refresh();
+        return context;
+    }
+
+    /**
+     * Exposes the gateway's own lookup, which only subclasses may call.
+     */
+    private static final class LinearRouteLookup extends RoutePredicateHandlerMapping {
+
+        LinearRouteLookup(FilteringWebHandler webHandler, RouteLocator routeLocator) {
+            super(webHandler, routeLocator, new GlobalCorsProperties(), new StandardEnvironment());
+        }
+
+        @Override
+        protected Mono<Route> lookupRoute(ServerWebExchange exchange) {
+            return super.lookupRoute(exchange);
+        }
+    }
+}
@@ -2,6 +2,7 @@ package org.clickenrent.gateway.config;
 
 import lombok.extern.slf4j.Slf4j;
 import org.clickenrent.gateway.filter.JwtAuthenticationFilter;
+import org.clickenrent.gateway.filter.ResponseCacheFilter;
 import org.clickenrent.gateway.ratelimit.CustomRedisRateLimiter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
@@ -13,6 +14,8 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpStatus;
 
+import java.time.Duration;
+
 @Slf4j
 @Configuration
 public class GatewayConfig {
@@ -24,6 +27,10 @@ public class GatewayConfig {
     @Qualifier("ipRateLimiter")
     private CustomRedisRateLimiter ipRateLimiter;
     
+    @Autowired
+    @Qualifier("loginRateLimiter")
+    private CustomRedisRateLimiter loginRateLimiter;
+    
     @Autowired
     @Qualifier("userRateLimiter")
     private CustomRedisRateLimiter userRateLimiter;
@@ -39,6 +46,15 @@ public class GatewayConfig {
     @Value("${rate-limit.enabled:true}")
     private boolean rateLimitEnabled;
 
+    @Autowired
+    private ResponseCacheFilter responseCacheFilter;
+
+    @Value("${response-cache.ttl.reference-data:10m}")
+    private Duration referenceDataTtl;
+
+    @Value("${response-cache.ttl.images:5m}")
+    private Duration imageTtl;
+
     @Bean
     public RouteLocator customRouteLocator(RouteLocatorBuilder builder) {
         log.info("Configuring Gateway routes with rate limiting enabled: {}", rateLimitEnabled);
@@ -65,7 +81,7 @@ public class GatewayConfig {
                 .route("auth-v1-public-login", r -> r
                         .path("/api/v1/auth/login")
                         .filters(f -> f.requestRateLimiter(c -> c
-                                .setRateLimiter(ipRateLimiter)
+                                .setRateLimiter(loginRateLimiter)
                                 .setKeyResolver(ipKeyResolver)
                                 .setStatusCode(HttpStatus.TOO_MANY_REQUESTS)))
                         .uri("lb://auth-service"))
@@ -99,7 +115,7 @@ public class GatewayConfig {
                 .route("auth-v1-forgot-password", r -> r
                         .path("/api/v1/auth/forgot-password")
                         .filters(f -> f.requestRateLimiter(c -> c
-                                .setRateLimiter(ipRateLimiter)
+                                .setRateLimiter(loginRateLimiter)
                                 .setKeyResolver(ipKeyResolver)
                                 .setStatusCode(HttpStatus.TOO_MANY_REQUESTS)))
                         .uri("lb://auth-service"))
@@ -107,7 +123,7 @@ public class GatewayConfig {
                 .route("auth-v1-reset-password", r -> r
                         .path("/api/v1/auth/reset-password")
                         .filters(f -> f.requestRateLimiter(c -> c
-                                .setRateLimiter(ipRateLimiter)
+                                .setRateLimiter(loginRateLimiter)
                                 .setKeyResolver(ipKeyResolver)
                                 .setStatusCode(HttpStatus.TOO_MANY_REQUESTS)))
                         .uri("lb://auth-service"))
@@ -124,7 +140,7 @@ public class GatewayConfig {
                 .route("auth-v1-google-login", r -> r
                         .path("/api/v1/auth/google/**")
                         .filters(f -> f.requestRateLimiter(c -> c
-                                .setRateLimiter(ipRateLimiter)
+                                .setRateLimiter(loginRateLimiter)
                                 .setKeyResolver(ipKeyResolver)
                                 .setStatusCode(HttpStatus.TOO_MANY_REQUESTS)))
                         .uri("lb://auth-service"))
@@ -133,7 +149,7 @@ public class GatewayConfig {
                 .route("auth-v1-apple-login", r -> r
                         .path("/api/v1/auth/apple/**")
                         .filters(f -> f.requestRateLimiter(c -> c
-                                .setRateLimiter(ipRateLimiter)
+                                .setRateLimiter(loginRateLimiter)
                                 .setKeyResolver(ipKeyResolver)
                                 .setStatusCode(HttpStatus.TOO_MANY_REQUESTS)))
                         .uri("lb://auth-service"))
@@ -200,10 +216,33 @@ public class GatewayConfig {
                                         .setStatusCode(HttpStatus.TOO_MANY_REQUESTS)))
                         .uri("lb://auth-service"))
 
-                // Global Roles, Company Roles, Company Types, Languages
+                // Reference data (cached at the gateway)
+                .route("countries", r -> r
+                        .path("/api/v1/countries/**")
+                        .filters(f -> f
+                                .filter(jwtAuthenticationFilter)
+                                .filter(responseCacheFilter.forRoute("countries", referenceDataTtl))
+                                .requestRateLimiter(c -> c
+                                        .setRateLimiter(userRateLimiter)
+                                        .setKeyResolver(userKeyResolver)
+                                        .setStatusCode(HttpStatus.TOO_MANY_REQUESTS)))
+                        .uri("lb://auth-service"))
+
+                .route("languages", r -> r
+                        .path("/api/v1/languages/**")
+                        .filters(f -> f
+                                .filter(jwtAuthenticationFilter)
+                                .filter(responseCacheFilter.forRoute("languages", referenceDataTtl))
+                                .requestRateLimiter(c -> c
+                                        .setRateLimiter(userRateLimiter)
+                                        .setKeyResolver(userKeyResolver)
+                                        .setStatusCode(HttpStatus.TOO_MANY_REQUESTS)))
+                        .uri("lb://auth-service"))
+
+                // Global Roles, Company Roles, Company Types
                 .route("admin-resources", r -> r
                         .path("/api/v1/global-roles/**", "/api/v1/company-roles/**", 
-                              "/api/v1/company-types/**", "/api/v1/languages/**",
+                              "/api/v1/company-types/**",
                               "/api/v1/user-companies/**", "/api/v1/user-global-roles/**")
                         .filters(f -> f
                                 .filter(jwtAuthenticationFilter)
@@ -213,9 +252,9 @@ public class GatewayConfig {
                                         .setStatusCode(HttpStatus.TOO_MANY_REQUESTS)))
                         .uri("lb://auth-service"))
 
-                // Address Management Routes (Countries, Addresses, User-Addresses)
+                // Address Management Routes (Addresses, User-Addresses)
                 .route("address-resources", r -> r
-                        .path("/api/v1/countries/**", "/api/v1/addresses/**", "/api/v1/user-addresses/**")
+                        .path("/api/v1/addresses/**", "/api/v1/user-addresses/**")
                         .filters(f -> f
                                 .filter(jwtAuthenticationFilter)
                                 .requestRateLimiter(c -> c
@@ -284,6 +323,7 @@ public class GatewayConfig {
                         .path("/api/v1/bike-types/**")
                         .filters(f -> f
                                 .filter(jwtAuthenticationFilter)
+                                .filter(responseCacheFilter.forRoute("bike-types", referenceDataTtl))
                                 .requestRateLimiter(c -> c
                                         .setRateLimiter(userRateLimiter)
                                         .setKeyResolver(userKeyResolver)
@@ -324,6 +364,7 @@ public class GatewayConfig {
                         .path("/api/v1/bike-statuses/**")
                         .filters(f -> f
                                 .filter(jwtAuthenticationFilter)
+                                .filter(responseCacheFilter.forRoute("bike-statuses", referenceDataTtl))
                                 .requestRateLimiter(c -> c
                                         .setRateLimiter(userRateLimiter)
                                         .setKeyResolver(userKeyResolver)
@@ -375,6 +416,7 @@ public class GatewayConfig {
                         .path("/api/v1/rental-plans/**")
                         .filters(f -> f
                                 .filter(jwtAuthenticationFilter)
+                                .filter(responseCacheFilter.forRoute("rental-plans", referenceDataTtl))
                                 .requestRateLimiter(c -> c
                                         .setRateLimiter(userRateLimiter)
                                         .setKeyResolver(userKeyResolver)
@@ -385,6 +427,7 @@ public class GatewayConfig {
                         .path("/api/v1/rental-statuses/**")
                         .filters(f -> f
                                 .filter(jwtAuthenticationFilter)
+                                .filter(responseCacheFilter.forRoute("rental-statuses", referenceDataTtl))
                                 .requestRateLimiter(c -> c
                                         .setRateLimiter(userRateLimiter)
                                         .setKeyResolver(userKeyResolver)
@@ -395,6 +438,7 @@ public class GatewayConfig {
                         .path("/api/v1/ride-statuses/**")
                         .filters(f -> f
                                 .filter(jwtAuthenticationFilter)
+                                .filter(responseCacheFilter.forRoute("ride-statuses", referenceDataTtl))
                                 .requestRateLimiter(c -> c
                                         .setRateLimiter(userRateLimiter)
                                         .setKeyResolver(userKeyResolver)
@@ -497,6 +541,7 @@ public class GatewayConfig {
                         .path("/api/v1/charging-station-statuses/**")
                         .filters(f -> f
                                 .filter(jwtAuthenticationFilter)
+                                .filter(responseCacheFilter.forRoute("charging-station-statuses", referenceDataTtl))
                                 .requestRateLimiter(c -> c
                                         .setRateLimiter(userRateLimiter)
                                         .setKeyResolver(userKeyResolver)
@@ -568,6 +613,7 @@ public class GatewayConfig {
                         .path("/api/v1/location-images/**")
                         .filters(f -> f
                                 .filter(jwtAuthenticationFilter)
+                                .filter(responseCacheFilter.forRoute("location-images", imageTtl))
                                 .requestRateLimiter(c -> c
                                         .setRateLimiter(userRateLimiter)
                                         .setKeyResolver(userKeyResolver)
@@ -578,6 +624,7 @@ public class GatewayConfig {
                         .path("/api/v1/hub-images/**")
                         .filters(f -> f
                                 .filter(jwtAuthenticationFilter)
+                                .filter(responseCacheFilter.forRoute("hub-images", imageTtl))
                                 .requestRateLimiter(c -> c
                                         .setRateLimiter(userRateLimiter)
                                         .setKeyResolver(userKeyResolver)
@@ -630,6 +677,7 @@ public class GatewayConfig {
                         .path("/api/v1/b2b-subscription-statuses/**")
                         .filters(f -> f
                                 .filter(jwtAuthenticationFilter)
+                                .filter(responseCacheFilter.forRoute("b2b-subscription-statuses", referenceDataTtl))
                                 .requestRateLimiter(c -> c
                                         .setRateLimiter(userRateLimiter)
                                         .setKeyResolver(userKeyResolver)
@@ -660,6 +708,7 @@ public class GatewayConfig {
                         .path("/api/v1/b2b-sale-statuses/**")
                         .filters(f -> f
                                 .filter(jwtAuthenticationFilter)
+                                .filter(responseCacheFilter.forRoute("b2b-sale-statuses", referenceDataTtl))
                                 .requestRateLimiter(c -> c
                                         .setRateLimiter(userRateLimiter)
                                         .setKeyResolver(userKeyResolver)
@@ -702,6 +751,7 @@ public class GatewayConfig {
                         .path("/api/v1/lock-statuses/**")
                         .filters(f -> f
                                 .filter(jwtAuthenticationFilter)
+                                .filter(responseCacheFilter.forRoute("lock-statuses", referenceDataTtl))
                                 .requestRateLimiter(c -> c
                                         .setRateLimiter(userRateLimiter)
                                         .setKeyResolver(userKeyResolver)
@@ -743,6 +793,7 @@ public class GatewayConfig {
                         .path("/api/v1/b2b-subscription-order-statuses/**")
                         .filters(f -> f
                                 .filter(jwtAuthenticationFilter)
+                                .filter(responseCacheFilter.forRoute("b2b-subscription-order-statuses", referenceDataTtl))
                                 .requestRateLimiter(c -> c
                                         .setRateLimiter(userRateLimiter)
                                         .setKeyResolver(userKeyResolver)
@@ -763,6 +814,7 @@ public class GatewayConfig {
                         .path("/api/v1/b2b-sale-order-statuses/**")
                         .filters(f -> f
                                 .filter(jwtAuthenticationFilter)
+                                .filter(responseCacheFilter.forRoute("b2b-sale-order-statuses", referenceDataTtl))
                                 .requestRateLimiter(c -> c
                                         .setRateLimiter(userRateLimiter)
                                         .setKeyResolver(userKeyResolver)
@@ -784,6 +836,7 @@ public class GatewayConfig {
                         .path("/api/v1/bike-rental-statuses/**")
                         .filters(f -> f
                                 .filter(jwtAuthenticationFilter)
+                                .filter(responseCacheFilter.forRoute("bike-rental-statuses", referenceDataTtl))
                                 .requestRateLimiter(c -> c
                                         .setRateLimiter(userRateLimiter)
                                         .setKeyResolver(userKeyResolver)
@@ -815,6 +868,7 @@ public class GatewayConfig {
                         .path("/api/v1/support-request-statuses/**")
                         .filters(f -> f
                                 .filter(jwtAuthenticationFilter)
+                                .filter(responseCacheFilter.forRoute("support-request-statuses", referenceDataTtl))
                                 .requestRateLimiter(c -> c
                                         .setRateLimiter(userRateLimiter)
                                         .setKeyResolver(userKeyResolver)
@@ -925,6 +979,7 @@ public class GatewayConfig {
                         .path("/api/v1/bike-inspection-statuses/**")
                         .filters(f -> f
                                 .filter(jwtAuthenticationFilter)
+                                .filter(responseCacheFilter.forRoute("bike-inspection-statuses", referenceDataTtl))
                                 .requestRateLimiter(c -> c
                                         .setRateLimiter(userRateLimiter)
                                         .setKeyResolver(userKeyResolver)
@@ -936,6 +991,7 @@ public class GatewayConfig {
                         .path("/api/v1/bike-inspection-item-statuses/**")
                         .filters(f -> f
                                 .filter(jwtAuthenticationFilter)
+                                .filter(responseCacheFilter.forRoute("bike-inspection-item-statuses", referenceDataTtl))
                                 .requestRateLimiter(c -> c
                                         .setRateLimiter(userRateLimiter)
                                         .setKeyResolver(userKeyResolver)
@@ -1109,6 +1165,7 @@ public class GatewayConfig {
                         .path("/api/v1/currencies/**")
                         .filters(f -> f
                                 .filter(jwtAuthenticationFilter)
+                                .filter(responseCacheFilter.forRoute("currencies", referenceDataTtl))
                                 .requestRateLimiter(c -> c
                                         .setRateLimiter(userRateLimiter)
                                         .setKeyResolver(userKeyResolver)
@@ -1119,6 +1176,7 @@ public class GatewayConfig {
                         .path("/api/v1/payment-statuses/**")
                         .filters(f -> f
                                 .filter(jwtAuthenticationFilter)
+                                .filter(responseCacheFilter.forRoute("payment-statuses", referenceDataTtl))
                                 .requestRateLimiter(c -> c
                                         .setRateLimiter(userRateLimiter)
                                         .setKeyResolver(userKeyResolver)
@@ -1129,6 +1187,7 @@ public class GatewayConfig {
                         .path("/api/v1/payment-methods/**")
                         .filters(f -> f
                                 .filter(jwtAuthenticationFilter)
+                                .filter(responseCacheFilter.forRoute("payment-methods", referenceDataTtl))
                                 .requestRateLimiter(c -> c
                                         .setRateLimiter(userRateLimiter)
                                         .setKeyResolver(userKeyResolver)
@@ -1438,6 +1497,17 @@ public class GatewayConfig {
                                         .setStatusCode(HttpStatus.TOO_MANY_REQUESTS)))
                         .uri("lb://analytics-service"))
 
+                // Real-time metrics stream (Server-Sent Events, listed in gateway.resilience.streaming-routes)
+                .route("analytics-realtime-stream", r -> r
+                        .path("/api/v1/analytics/realtime/stream")
+                        .filters(f -> f
+                                .filter(jwtAuthenticationFilter)
+                                .requestRateLimiter(c -> c
+                                        .setRateLimiter(userRateLimiter)
+                                        .setKeyResolver(userKeyResolver)
+                                        .setStatusCode(HttpStatus.TOO_MANY_REQUESTS)))
+                        .uri("lb://analytics-service"))
+
                 .build();
     }
 }
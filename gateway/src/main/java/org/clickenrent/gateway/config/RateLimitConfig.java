@@ -1,7 +1,11 @@
 package org.clickenrent.gateway.config;
 
 import lombok.extern.slf4j.Slf4j;
+import org.clickenrent.gateway.ratelimit.ClientIp;
 import org.clickenrent.gateway.ratelimit.CustomRedisRateLimiter;
+import org.clickenrent.gateway.ratelimit.CustomRedisRateLimiter.Window;
+import org.clickenrent.gateway.ratelimit.RateLimitKey;
+import org.clickenrent.gateway.ratelimit.RateLimitKey.Scope;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
@@ -11,10 +15,21 @@ import org.springframework.context.annotation.Primary;
 import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Configuration for rate limiting using Redis.
  * Implements dual strategy: IP-based (anonymous) and User-based (authenticated).
  * Enabled by default, can be disabled by setting rate-limit.enabled=false
+ *
+ * Per-route policies:
+ * - ipRateLimiter: public endpoints, one bucket per IP.
+ * - loginRateLimiter: credential endpoints, per-second, per-minute and per-hour windows per IP.
+ * - userRateLimiter: authenticated endpoints, per-second window per user plus per-minute and per-hour
+ *   quotas per tenant (company).
+ * Windows with a limit of 0 are left out.
  */
 @Slf4j
 @Configuration
@@ -36,23 +51,27 @@ public class RateLimitConfig {
     @Value("${rate-limit.ip.ttl-seconds:30}")
     private int ipTtlSeconds;
     
-    @Value("${rate-limit.user.ttl-seconds:60}")
-    private int userTtlSeconds;
+    @Value("${rate-limit.login.per-minute:20}")
+    private long loginPerMinute;
+
+    @Value("${rate-limit.login.per-hour:100}")
+    private long loginPerHour;
+
+    @Value("${rate-limit.tenant.per-minute:6000}")
+    private long tenantPerMinute;
+
+    @Value("${rate-limit.tenant.per-hour:0}")
+    private long tenantPerHour;
     
     /**
      * Key resolver for rate limiting based on client IP address.
      * Used for anonymous/public endpoints.
-     * Supports X-Forwarded-For header for proxy/load balancer scenarios.
+     * Behind proxies the address comes from the trusted X-Forwarded-For entry, see {@link ClientIp}.
      */
     @Bean(name = "ipKeyResolver")
-    public KeyResolver ipKeyResolver() {
+    public KeyResolver ipKeyResolver(ClientIp clientIp) {
         return exchange -> {
-            String ip = exchange.getRequest().getHeaders().getFirst("X-Forwarded-For");
-            if (ip == null || ip.isEmpty()) {
-                ip = exchange.getRequest().getRemoteAddress() != null 
-                    ? exchange.getRequest().getRemoteAddress().getAddress().getHostAddress()
-                    : "unknown";
-            }
+            String ip = clientIp.of(exchange);
             log.debug("Rate limit key (IP): {}", ip);
             return Mono.just("ip:" + ip);
         };
@@ -63,28 +82,26 @@ public class RateLimitConfig {
      * Used for authenticated endpoints.
      * Falls back to IP if user ID is not available.
      * Marked as @Primary to be used as the default key resolver.
+     *
+     * The key also carries the IP and the tenant (first company of the user) for multi-window limiters:
+     * user:42|ip:10.0.0.1|tenant:acme. Single bucket limiters only count on the first part.
      */
     @Bean(name = "userKeyResolver")
     @Primary
-    public KeyResolver userKeyResolver() {
+    public KeyResolver userKeyResolver(ClientIp clientIp) {
         return exchange -> {
             // Try to get user ID from JWT claims (set by JwtAuthenticationFilter)
             String userId = exchange.getRequest().getHeaders().getFirst("X-User-Id");
             
-            if (userId != null && !userId.isEmpty()) {
-                log.debug("Rate limit key (User): {}", userId);
-                return Mono.just("user:" + userId);
-            }
-            
-            // Fallback to IP if user ID not available
-            String ip = exchange.getRequest().getHeaders().getFirst("X-Forwarded-For");
-            if (ip == null || ip.isEmpty()) {
-                ip = exchange.getRequest().getRemoteAddress() != null 
-                    ? exchange.getRequest().getRemoteAddress().getAddress().getHostAddress()
-                    : "unknown";
-            }
-            log.debug("Rate limit key (User fallback to IP): {}", ip);
-            return Mono.just("ip:" + ip);
+            String ip = clientIp.of(exchange);
+
+            String companies = exchange.getRequest().getHeaders().getFirst("X-Company-External-Ids");
+            String tenant = companies != null && !companies.isEmpty() ? companies.split(",")[0].trim() : null;
+
+            // Falls back to IP as the primary identity if user ID not available
+            String key = RateLimitKey.of("user", userId, "ip", ip, "tenant", tenant);
+            log.debug("Rate limit key: {}", key);
+            return Mono.just(key);
         };
     }
     
@@ -112,29 +129,51 @@ public class RateLimitConfig {
         return rateLimiter;
     }
     
+    /**
+     * Redis rate limiter for credential endpoints (login, password reset).
+     * Same per-second limit as the IP limiter, plus per-minute and per-hour limits per IP,
+     * all checked in one Redis round trip.
+     */
+    @Bean(name = "loginRateLimiter")
+    public CustomRedisRateLimiter loginRateLimiter(ReactiveStringRedisTemplate redisTemplate) {
+        List<Window> windows = new ArrayList<>();
+        windows.add(Window.of(Scope.IP, ipReplenishRate, Duration.ofSeconds(1)).withCapacity(ipBurstCapacity));
+        addWindow(windows, Scope.IP, loginPerMinute, Duration.ofMinutes(1));
+        addWindow(windows, Scope.IP, loginPerHour, Duration.ofHours(1));
+        log.info("Configuring login rate limiter: {}", windows);
+
+        CustomRedisRateLimiter rateLimiter = new CustomRedisRateLimiter(windows, redisTemplate);
+        rateLimiter.setInitialized(true);
+        return rateLimiter;
+    }
+    
     /**
      * Redis rate limiter for user-based rate limiting (authenticated endpoints).
      * More lenient limits for authenticated users.
      * Marked as @Primary to be used as the default rate limiter.
      * 
      * Configuration:
-     * - replenishRate: tokens per second (steady state rate)
-     * - burstCapacity: max tokens in bucket (allows short bursts)
-     * - ttlSeconds: how long keys persist in Redis (custom TTL)
+     * - replenishRate: tokens per second per user (steady state rate)
+     * - burstCapacity: max tokens in the user's bucket (allows short bursts)
+     * - tenant per-minute / per-hour: quotas shared by all users of a company
      */
     @Bean(name = "userRateLimiter")
     @Primary
     public CustomRedisRateLimiter userRateLimiter(ReactiveStringRedisTemplate redisTemplate) {
-        log.info("Configuring User-based rate limiter: {} req/sec, burst: {}, TTL: {}s", 
-                userReplenishRate, userBurstCapacity, userTtlSeconds);
-        
-        CustomRedisRateLimiter rateLimiter = new CustomRedisRateLimiter(
-                userReplenishRate, 
-                userBurstCapacity, 
-                userTtlSeconds,
-                redisTemplate
-        );
+        List<Window> windows = new ArrayList<>();
+        windows.add(Window.of(Scope.USER, userReplenishRate, Duration.ofSeconds(1)).withCapacity(userBurstCapacity));
+        addWindow(windows, Scope.TENANT, tenantPerMinute, Duration.ofMinutes(1));
+        addWindow(windows, Scope.TENANT, tenantPerHour, Duration.ofHours(1));
+        log.info("Configuring User-based rate limiter: {}", windows);
+
+        CustomRedisRateLimiter rateLimiter = new CustomRedisRateLimiter(windows, redisTemplate);
         rateLimiter.setInitialized(true);
         return rateLimiter;
     }
+
+    private static void addWindow(List<Window> windows, Scope scope, long limit, Duration period) {
+        if (limit > 0) {
+            windows.add(Window.of(scope, limit, period));
+        }
+    }
 }
@@ -0,0 +1,46 @@
+package org.clickenrent.gateway.config;
+
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.clickenrent.gateway.resilience.BackendResilienceFilter;
+import org.clickenrent.gateway.resilience.ResilienceProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Per-backend circuit breakers, bulkheads, timeouts and hedging for all lb:// routes.
+ * Circuit breaker state and bulkhead usage are exported as resilience4j_* metrics.
+ * Disable with: gateway.resilience.enabled=false
+ */
+@Configuration
+@EnableConfigurationProperties(ResilienceProperties.class)
+@ConditionalOnProperty(name = "gateway.resilience.enabled", havingValue = "true", matchIfMissing = true)
+public class ResilienceConfig {
+
+    @Bean
+    public CircuitBreakerRegistry circuitBreakerRegistry(MeterRegistry meterRegistry) {
+        CircuitBreakerRegistry registry = CircuitBreakerRegistry.ofDefaults();
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(registry).bindTo(meterRegistry);
+        return registry;
+    }
+
+    @Bean
+    public BulkheadRegistry bulkheadRegistry(MeterRegistry meterRegistry) {
+        BulkheadRegistry registry = BulkheadRegistry.ofDefaults();
+        TaggedBulkheadMetrics.ofBulkheadRegistry(registry).bindTo(meterRegistry);
+        return registry;
+    }
+
+    @Bean
+    public BackendResilienceFilter backendResilienceFilter(ResilienceProperties properties,
+                                                           CircuitBreakerRegistry circuitBreakerRegistry,
+                                                           BulkheadRegistry bulkheadRegistry,
+                                                           MeterRegistry meterRegistry) {
+        return new BackendResilienceFilter(properties, circuitBreakerRegistry, bulkheadRegistry, meterRegistry);
+    }
+}
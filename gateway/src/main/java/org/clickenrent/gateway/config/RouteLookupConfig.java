@@ -0,0 +1,31 @@
+package org.clickenrent.gateway.config;
+
+import org.clickenrent.gateway.route.IndexedRoutePredicateHandlerMapping;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.gateway.config.GlobalCorsProperties;
+import org.springframework.cloud.gateway.handler.FilteringWebHandler;
+import org.springframework.cloud.gateway.handler.RoutePredicateHandlerMapping;
+import org.springframework.cloud.gateway.route.RouteDefinitionLocator;
+import org.springframework.cloud.gateway.route.RouteLocator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Replaces the gateway's linear route lookup with the prefix-indexed one.
+ * Disable with: gateway.route-index.enabled=false
+ */
+@Configuration
+@ConditionalOnProperty(name = "gateway.route-index.enabled", havingValue = "true", matchIfMissing = true)
+public class RouteLookupConfig {
+
+    @Bean
+    public RoutePredicateHandlerMapping routePredicateHandlerMapping(FilteringWebHandler webHandler,
+                                                                     RouteLocator routeLocator,
+                                                                     RouteDefinitionLocator routeDefinitionLocator,
+                                                                     GlobalCorsProperties globalCorsProperties,
+                                                                     Environment environment) {
+        return new IndexedRoutePredicateHandlerMapping(webHandler, routeLocator, routeDefinitionLocator,
+                globalCorsProperties, environment);
+    }
+}
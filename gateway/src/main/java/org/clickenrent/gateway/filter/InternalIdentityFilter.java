@@ -0,0 +1,76 @@
+package org.clickenrent.gateway.filter;
+
+import lombok.extern.slf4j.Slf4j;
+import org.clickenrent.contracts.security.InternalIdentity;
+import org.clickenrent.contracts.security.InternalIdentityCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.RouteToRequestUrlFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * Adds the signed {@link InternalIdentityCodec#HEADER} assertion for the user {@link JwtAuthenticationFilter}
+ * authenticated, so backends in internal-trust mode build the principal from it instead of verifying the JWT again.
+ *
+ * Any assertion sent by the client is removed, whether or not the mode is enabled. The Authorization header is
+ * still forwarded, so backends without the mode and calls to other services keep working.
+ *
+ * Enable with: internal-identity.enabled=true and internal-identity.secret shared with the backends
+ */
+@Slf4j
+@Component
+public class InternalIdentityFilter implements GlobalFilter, Ordered {
+
+    /**
+     * Exchange attribute holding the {@link InternalIdentity} read from a verified JWT.
+     */
+    public static final String IDENTITY_ATTRIBUTE = InternalIdentityFilter.class.getName() + ".identity";
+
+    private final InternalIdentityCodec codec;
+
+    public InternalIdentityFilter(@Value("${internal-identity.enabled:false}") boolean enabled,
+                                  @Value("${internal-identity.secret:}") String secret,
+                                  @Value("${internal-identity.max-age:5m}") Duration maxAge) {
+        this.codec = enabled ? new InternalIdentityCodec(secret, maxAge, Clock.systemUTC()) : null;
+        if (enabled) {
+            log.info("Internal identity assertions enabled, max age {}", maxAge);
+        }
+    }
+
+    @Override
+    public int getOrder() {
+        // After the route filters, which are ordered from 1, and before the resilience filter may send the request again
+        return RouteToRequestUrlFilter.ROUTE_TO_URL_FILTER_ORDER;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        InternalIdentity identity = codec != null ? exchange.getAttribute(IDENTITY_ATTRIBUTE) : null;
+        boolean forged = exchange.getRequest().getHeaders().containsKey(InternalIdentityCodec.HEADER);
+        if (identity == null && !forged) {
+            return chain.filter(exchange);
+        }
+
+        if (forged) {
+            log.warn("Removed client-supplied {} header for path: {}", InternalIdentityCodec.HEADER,
+                    exchange.getRequest().getPath());
+        }
+        ServerHttpRequest request = exchange.getRequest().mutate()
+                .headers(headers -> {
+                    headers.remove(InternalIdentityCodec.HEADER);
+                    if (identity != null) {
+                        headers.set(InternalIdentityCodec.HEADER, codec.encode(identity));
+                    }
+                })
+                .build();
+        return chain.filter(exchange.mutate().request(request).build());
+    }
+}
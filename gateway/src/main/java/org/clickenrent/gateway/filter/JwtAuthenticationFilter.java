@@ -1,6 +1,7 @@
 package org.clickenrent.gateway.filter;
 
 import lombok.extern.slf4j.Slf4j;
+import org.clickenrent.contracts.security.InternalIdentity;
 import org.clickenrent.gateway.util.JwtUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cloud.gateway.filter.GatewayFilter;
@@ -12,6 +13,7 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
+import java.util.Date;
 import java.util.List;
 
 @Slf4j
@@ -64,6 +66,13 @@ public class JwtAuthenticationFilter implements GatewayFilter {
                     .header("X-Company-External-Ids", companyExternalIds != null ? String.join(",", companyExternalIds) : "")
                     .build();
 
+            // Signed for the backends by InternalIdentityFilter when internal-trust mode is enabled
+            Date expiration = jwtUtil.extractExpiration(token);
+            exchange.getAttributes().put(InternalIdentityFilter.IDENTITY_ATTRIBUTE, new InternalIdentity(
+                    jwtUtil.extractSubject(token), userId, userExternalId, email, roles,
+                    jwtUtil.extractCompanyIds(token), companyExternalIds,
+                    expiration != null ? expiration.toInstant() : null));
+
             log.debug("JWT authenticated for user: {} ({}), companies: {}", email, userId, companyExternalIds);
 
             return chain.filter(exchange.mutate().request(modifiedRequest).build());
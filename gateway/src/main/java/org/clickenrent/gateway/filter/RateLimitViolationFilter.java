@@ -0,0 +1,58 @@
+package org.clickenrent.gateway.filter;
+
+import lombok.extern.slf4j.Slf4j;
+import org.clickenrent.gateway.handler.RateLimitResponseHandler;
+import org.clickenrent.gateway.ratelimit.ClientIp;
+import org.clickenrent.gateway.security.RateLimitMonitor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Rejects requests from IPs blocked by {@link RateLimitMonitor} before any route filter runs,
+ * and reports every 429 produced by the route rate limiters to the monitor.
+ *
+ * Disable with: rate-limit.attack.enabled=false
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "rate-limit.attack.enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitViolationFilter implements GlobalFilter, Ordered {
+
+    private final RateLimitMonitor rateLimitMonitor;
+    private final RateLimitResponseHandler rateLimitResponseHandler;
+    private final ClientIp clientIp;
+
+    public RateLimitViolationFilter(RateLimitMonitor rateLimitMonitor, RateLimitResponseHandler rateLimitResponseHandler,
+                                    ClientIp clientIp) {
+        this.rateLimitMonitor = rateLimitMonitor;
+        this.rateLimitResponseHandler = rateLimitResponseHandler;
+        this.clientIp = clientIp;
+    }
+
+    @Override
+    public int getOrder() {
+        // Before the route filters, which are ordered from 1
+        return -1;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        String ip = clientIp.of(exchange);
+        if (rateLimitMonitor.isBlocked(ip)) {
+            return rateLimitResponseHandler.handleRateLimitExceeded(exchange, rateLimitMonitor.getRemainingBlockTime(ip));
+        }
+
+        return chain.filter(exchange).doOnSuccess(done -> {
+            if (HttpStatus.TOO_MANY_REQUESTS.equals(exchange.getResponse().getStatusCode())) {
+                rateLimitMonitor.recordViolation(ip, exchange.getRequest().getHeaders().getFirst("X-User-Id"),
+                        exchange.getRequest().getPath().value());
+            }
+        });
+    }
+}
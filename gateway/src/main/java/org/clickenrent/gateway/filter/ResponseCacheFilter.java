@@ -0,0 +1,342 @@
+package org.clickenrent.gateway.filter;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Response cache for read-only reference-data routes.
+ *
+ * Routes opt in with {@link #forRoute(String, Duration)}, placed after the JWT filter and before the rate limiter,
+ * so a hit still requires a valid token but skips rate limiting and the backend. Entries are keyed by route, path,
+ * query, the caller's companies and roles (set by the JWT filter) and whether the client accepts gzip.
+ *
+ * Concurrent misses for the same key are coalesced into one backend call. Backend Cache-Control is honoured
+ * (private/no-store/no-cache are not cached, max-age/s-maxage shorten the route TTL) except for the blanket
+ * default every backend gets from Spring Security, configured in response-cache.ignored-cache-control.
+ * ETags from the backend are kept, or computed from the body, and answered with 304 on If-None-Match.
+ * Any successful write (POST, PUT, PATCH, DELETE) through the same route evicts that route's entries.
+ *
+ * Disable with: response-cache.enabled=false
+ */
+@Slf4j
+@Component
+public class ResponseCacheFilter {
+
+    public static final String CACHE_HEADER = "X-Cache";
+    static final String METRIC_NAME = "gateway.response.cache";
+
+    private static final Set<HttpMethod> WRITE_METHODS = Set.of(
+            HttpMethod.POST, HttpMethod.PUT, HttpMethod.PATCH, HttpMethod.DELETE);
+    private static final Set<String> UNCACHEABLE_DIRECTIVES = Set.of("private", "no-store", "no-cache");
+    private static final Set<String> NOT_STORED_HEADERS = Set.of(
+            "set-cookie", "transfer-encoding", "connection", "keep-alive", "date", "vary", "age",
+            CACHE_HEADER.toLowerCase(Locale.ROOT));
+
+    private final AsyncCache<CacheKey, CachedResponse> cache;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final long maxEntryBytes;
+    private final Set<String> ignoredCacheControl;
+
+    public ResponseCacheFilter(MeterRegistry meterRegistry,
+                               @Value("${response-cache.enabled:true}") boolean enabled,
+                               @Value("${response-cache.max-size-mb:64}") long maxSizeMb,
+                               @Value("${response-cache.max-entry-kb:512}") long maxEntryKb,
+                               @Value("${response-cache.ignored-cache-control:no-cache, no-store, max-age=0, must-revalidate}")
+                               String ignoredCacheControl) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.maxEntryBytes = maxEntryKb * 1024;
+        this.ignoredCacheControl = directives(ignoredCacheControl);
+        this.cache = CaffeineCacheMetrics.monitor(meterRegistry, Caffeine.newBuilder()
+                .maximumWeight(maxSizeMb * 1024 * 1024)
+                .weigher((CacheKey key, CachedResponse value) -> value.body().length + key.weight())
+                .expireAfter(new TtlExpiry())
+                .recordStats()
+                .buildAsync(), "gateway-response-cache");
+    }
+
+    /**
+     * Cache GET responses of the given route for at most the given TTL.
+     */
+    public GatewayFilter forRoute(String routeId, Duration ttl) {
+        if (!enabled) {
+            return (exchange, chain) -> chain.filter(exchange);
+        }
+        return (exchange, chain) -> Mono.defer(() -> filter(routeId, ttl, exchange, chain));
+    }
+
+    private Mono<Void> filter(String routeId, Duration ttl, ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+
+        if (WRITE_METHODS.contains(request.getMethod())) {
+            return chain.filter(exchange).doOnSuccess(done -> {
+                HttpStatusCode status = exchange.getResponse().getStatusCode();
+                if (status != null && status.is2xxSuccessful()) {
+                    invalidate(routeId);
+                }
+            });
+        }
+
+        // HEAD, OPTIONS (CORS preflight) and the like neither use nor change the cache
+        if (!HttpMethod.GET.equals(request.getMethod())) {
+            return chain.filter(exchange);
+        }
+
+        if (directives(request.getHeaders().getCacheControl()).stream().anyMatch(UNCACHEABLE_DIRECTIVES::contains)) {
+            count(routeId, "bypass");
+            return chain.filter(exchange);
+        }
+
+        CacheKey key = CacheKey.of(routeId, request);
+        CompletableFuture<CachedResponse> created = new CompletableFuture<>();
+        CompletableFuture<CachedResponse> future = cache.get(key, (k, executor) -> created);
+
+        if (future == created) {
+            count(routeId, "miss");
+            exchange.getResponse().getHeaders().set(CACHE_HEADER, "MISS");
+            CachingResponse response = new CachingResponse(exchange.getResponse(), ttl);
+            return chain.filter(exchange.mutate().response(response).build())
+                    .doFinally(signal -> created.complete(response.captured()));
+        }
+
+        boolean ready = future.isDone();
+        return Mono.fromFuture(future)
+                .onErrorResume(e -> Mono.empty())
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(cached -> {
+                    if (cached.isPresent()) {
+                        return write(exchange, cached.get(), ready ? "hit" : "coalesced", routeId);
+                    }
+                    // The shared call turned out not to be cacheable; go to the backend ourselves
+                    count(routeId, "uncacheable");
+                    return chain.filter(exchange);
+                });
+    }
+
+    private Mono<Void> write(ServerWebExchange exchange, CachedResponse cached, String result, String routeId) {
+        ServerHttpResponse response = exchange.getResponse();
+        HttpHeaders headers = response.getHeaders();
+        cached.headers().forEach((name, values) -> {
+            if (!name.regionMatches(true, 0, "Access-Control-", 0, 16)) {
+                headers.put(name, values);
+            }
+        });
+        headers.set(CACHE_HEADER, result.toUpperCase(Locale.ROOT));
+        headers.set(HttpHeaders.AGE, String.valueOf((System.currentTimeMillis() - cached.storedAt()) / 1000));
+
+        if (cached.etag() != null && matches(exchange.getRequest().getHeaders().getIfNoneMatch(), cached.etag())) {
+            count(routeId, "not_modified");
+            headers.remove(HttpHeaders.CONTENT_LENGTH);
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            return response.setComplete();
+        }
+
+        count(routeId, result);
+        headers.setContentLength(cached.body().length);
+        response.setStatusCode(cached.status());
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.body())));
+    }
+
+    void invalidate(String routeId) {
+        cache.synchronous().asMap().keySet().removeIf(key -> key.routeId().equals(routeId));
+        log.debug("Evicted cached responses of route {}", routeId);
+    }
+
+    private void count(String routeId, String result) {
+        meterRegistry.counter(METRIC_NAME, "route", routeId, "result", result).increment();
+    }
+
+    private static boolean matches(List<String> ifNoneMatch, String etag) {
+        return ifNoneMatch.stream().anyMatch(tag -> tag.equals("*") || tag.equals(etag));
+    }
+
+    private static Set<String> directives(String cacheControl) {
+        if (cacheControl == null || cacheControl.isBlank()) {
+            return Set.of();
+        }
+        return Arrays.stream(cacheControl.split(","))
+                .map(directive -> directive.trim().toLowerCase(Locale.ROOT))
+                .filter(directive -> !directive.isEmpty())
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * TTL for a response, or null if it must not be cached.
+     */
+    Duration cacheableFor(HttpHeaders headers, Duration routeTtl) {
+        if (headers.containsKey(HttpHeaders.SET_COOKIE)) {
+            return null;
+        }
+        Set<String> directives = directives(headers.getCacheControl());
+        if (directives.isEmpty() || directives.equals(ignoredCacheControl)) {
+            return routeTtl;
+        }
+        if (directives.stream().anyMatch(UNCACHEABLE_DIRECTIVES::contains)) {
+            return null;
+        }
+        Duration ttl = routeTtl;
+        for (String prefix : List.of("s-maxage=", "max-age=")) {
+            for (String directive : directives) {
+                if (directive.startsWith(prefix)) {
+                    try {
+                        Duration maxAge = Duration.ofSeconds(Long.parseLong(directive.substring(prefix.length())));
+                        return maxAge.isZero() ? null : (maxAge.compareTo(ttl) < 0 ? maxAge : ttl);
+                    } catch (NumberFormatException e) {
+                        return null;
+                    }
+                }
+            }
+        }
+        return ttl;
+    }
+
+    /**
+     * Captures the body of a cacheable backend response while it is written to the client.
+     */
+    private class CachingResponse extends ServerHttpResponseDecorator {
+
+        private final Duration routeTtl;
+        private volatile CachedResponse captured;
+
+        CachingResponse(ServerHttpResponse delegate, Duration routeTtl) {
+            super(delegate);
+            this.routeTtl = routeTtl;
+        }
+
+        CachedResponse captured() {
+            return captured;
+        }
+
+        /**
+         * Responses declaring a Content-Length above max-entry-kb are passed through untouched. Others are held
+         * back until they complete or exceed max-entry-kb; past the limit the held part and the rest are streamed
+         * without keeping a copy.
+         */
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            HttpStatusCode status = getStatusCode();
+            Duration ttl = HttpStatus.OK.equals(status) ? cacheableFor(getHeaders(), routeTtl) : null;
+            if (ttl == null || getHeaders().getContentLength() > maxEntryBytes) {
+                return super.writeWith(body);
+            }
+
+            AtomicLong size = new AtomicLong();
+            return Flux.from(body)
+                    .bufferUntil(buffer -> size.addAndGet(buffer.readableByteCount()) > maxEntryBytes)
+                    .switchOnFirst((first, chunks) -> {
+                        if (first.isOnError() || size.get() > maxEntryBytes) {
+                            return super.writeWith(chunks.concatMapIterable(Function.identity()));
+                        }
+
+                        // The whole body fits: it was collected as the only chunk list
+                        byte[] bytes = new byte[(int) size.get()];
+                        int offset = 0;
+                        for (DataBuffer buffer : first.hasValue() ? first.get() : List.<DataBuffer>of()) {
+                            int length = buffer.readableByteCount();
+                            buffer.read(bytes, offset, length);
+                            offset += length;
+                            DataBufferUtils.release(buffer);
+                        }
+
+                        String etag = getHeaders().getETag();
+                        if (etag == null) {
+                            etag = "W/\"" + DigestUtils.md5DigestAsHex(bytes) + "\"";
+                            getHeaders().setETag(etag);
+                        }
+                        captured = new CachedResponse(status, storedHeaders(getHeaders()), bytes, etag,
+                                ttl, System.currentTimeMillis());
+                        return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+                    })
+                    .then();
+        }
+
+        private HttpHeaders storedHeaders(HttpHeaders headers) {
+            HttpHeaders stored = new HttpHeaders();
+            headers.forEach((name, values) -> {
+                String lower = name.toLowerCase(Locale.ROOT);
+                if (!NOT_STORED_HEADERS.contains(lower)
+                        && !lower.startsWith("access-control-")
+                        && !lower.startsWith("x-ratelimit-")) {
+                    stored.put(name, List.copyOf(values));
+                }
+            });
+            return HttpHeaders.readOnlyHttpHeaders(stored);
+        }
+    }
+
+    record CacheKey(String routeId, String path, String query, String companies, String roles, boolean gzip) {
+
+        static CacheKey of(String routeId, ServerHttpRequest request) {
+            HttpHeaders headers = request.getHeaders();
+            String acceptEncoding = headers.getFirst(HttpHeaders.ACCEPT_ENCODING);
+            return new CacheKey(routeId,
+                    request.getURI().getRawPath(),
+                    request.getURI().getRawQuery(),
+                    headers.getFirst("X-Company-External-Ids"),
+                    headers.getFirst("X-User-Roles"),
+                    acceptEncoding != null && acceptEncoding.toLowerCase(Locale.ROOT).contains("gzip"));
+        }
+
+        int weight() {
+            return path.length() + (query != null ? query.length() : 0)
+                    + (companies != null ? companies.length() : 0) + (roles != null ? roles.length() : 0);
+        }
+    }
+
+    record CachedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body, String etag,
+                          Duration ttl, long storedAt) {
+    }
+
+    private static class TtlExpiry implements Expiry<CacheKey, CachedResponse> {
+
+        @Override
+        public long expireAfterCreate(CacheKey key, CachedResponse value, long currentTime) {
+            return value.ttl().toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(CacheKey key, CachedResponse value, long currentTime, long currentDuration) {
+            return value.ttl().toNanos();
+        }
+
+        @Override
+        public long expireAfterRead(CacheKey key, CachedResponse value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
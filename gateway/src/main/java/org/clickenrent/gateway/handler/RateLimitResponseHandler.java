@@ -3,6 +3,7 @@ package org.clickenrent.gateway.handler;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
+import org.clickenrent.gateway.ratelimit.ClientIp;
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -25,6 +26,11 @@ import java.util.Map;
 public class RateLimitResponseHandler {
     
     private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ClientIp clientIp;
+
+    public RateLimitResponseHandler(ClientIp clientIp) {
+        this.clientIp = clientIp;
+    }
     
     /**
      * Handle rate limit exceeded response.
@@ -37,7 +43,7 @@ public class RateLimitResponseHandler {
         ServerHttpResponse response = exchange.getResponse();
         
         // Extract client information for logging
-        String ip = getClientIp(exchange);
+        String ip = clientIp.of(exchange);
         String userId = exchange.getRequest().getHeaders().getFirst("X-User-Id");
         String path = exchange.getRequest().getPath().value();
         
@@ -84,25 +90,4 @@ public class RateLimitResponseHandler {
         response.getHeaders().add("X-RateLimit-Limit", String.valueOf(limit));
         response.getHeaders().add("X-RateLimit-Remaining", String.valueOf(remaining));
     }
-    
-    /**
-     * Extract client IP address from request.
-     * Checks X-Forwarded-For header first (for proxied requests).
-     * 
-     * @param exchange The server web exchange
-     * @return Client IP address
-     */
-    private String getClientIp(ServerWebExchange exchange) {
-        String ip = exchange.getRequest().getHeaders().getFirst("X-Forwarded-For");
-        if (ip != null && !ip.isEmpty()) {
-            // X-Forwarded-For can contain multiple IPs, take the first one
-            return ip.split(",")[0].trim();
-        }
-        
-        if (exchange.getRequest().getRemoteAddress() != null) {
-            return exchange.getRequest().getRemoteAddress().getAddress().getHostAddress();
-        }
-        
-        return "unknown";
-    }
 }
@@ -0,0 +1,44 @@
+package org.clickenrent.gateway.ratelimit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.support.ipresolver.RemoteAddressResolver;
+import org.springframework.cloud.gateway.support.ipresolver.XForwardedRemoteAddressResolver;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.net.InetSocketAddress;
+
+/**
+ * Client IP address used by the IP rate limit keys, the attack monitor and the rate limit logs,
+ * so a caller is counted and blocked under the same address everywhere.
+ *
+ * Only the X-Forwarded-For entries appended by our own proxies are trusted: with rate-limit.trusted-proxies=n
+ * the n-th entry from the right is used (the ingress in front of the gateway appends one). Entries to its left
+ * are whatever the client sent and are ignored, so a forged header can neither dodge the limits nor get
+ * another address blocked. With 0 the header is ignored and the connection's remote address is used.
+ */
+@Component
+public class ClientIp {
+
+    private static final String UNKNOWN = "unknown";
+
+    private final RemoteAddressResolver resolver;
+
+    public ClientIp(@Value("${rate-limit.trusted-proxies:1}") int trustedProxies) {
+        this.resolver = trustedProxies > 0
+                ? XForwardedRemoteAddressResolver.maxTrustedIndex(trustedProxies)
+                : new RemoteAddressResolver() {
+                };
+    }
+
+    /**
+     * The address of the client as seen by the outermost trusted proxy, else "unknown".
+     */
+    public String of(ServerWebExchange exchange) {
+        InetSocketAddress address = resolver.resolve(exchange);
+        if (address == null) {
+            return UNKNOWN;
+        }
+        return address.getAddress() != null ? address.getAddress().getHostAddress() : address.getHostString();
+    }
+}
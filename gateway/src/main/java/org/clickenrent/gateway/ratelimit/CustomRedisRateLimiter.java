@@ -7,10 +7,14 @@ import org.springframework.data.redis.core.script.RedisScript;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-import java.time.Instant;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
@@ -18,6 +22,17 @@ import java.util.concurrent.atomic.AtomicBoolean;
  * 
  * Based on Spring Cloud Gateway's RedisRateLimiter but with enhanced TTL control.
  * Uses the token bucket algorithm with Redis for distributed rate limiting.
+ *
+ * Two modes, chosen by the configuration:
+ * - Single bucket (no windows configured): one token bucket per key, refilled at replenishRate per second.
+ * - Multi-window ({@link Config#setWindows(List)}): several buckets, e.g. per second per user, per minute per
+ *   tenant and per hour per IP, are checked and consumed atomically by one script in a single round trip.
+ *   A request is only allowed if every window allows it, and the X-RateLimit-* headers describe the window
+ *   with the fewest requests left. X-RateLimit-Replenish-Rate stays in tokens per second as in single bucket
+ *   mode; the window's own limit and period are in X-RateLimit-Window-Limit and X-RateLimit-Window-Period.
+ *
+ * Keys are resolved by {@link RateLimitKey}: "ip:1.2.3.4|user:42|tenant:acme". Single bucket mode limits on the
+ * first part only; each window picks the part matching its scope. Timestamps have millisecond resolution.
  */
 @Slf4j
 public class CustomRedisRateLimiter extends AbstractRateLimiter<CustomRedisRateLimiter.Config> {
@@ -28,9 +43,14 @@ public class CustomRedisRateLimiter extends AbstractRateLimiter<CustomRedisRateL
     public static final String REPLENISH_RATE_HEADER = "X-RateLimit-Replenish-Rate";
     public static final String BURST_CAPACITY_HEADER = "X-RateLimit-Burst-Capacity";
     public static final String REQUESTED_TOKENS_HEADER = "X-RateLimit-Requested-Tokens";
+    public static final String WINDOW_HEADER = "X-RateLimit-Window";
+    public static final String WINDOW_LIMIT_HEADER = "X-RateLimit-Window-Limit";
+    public static final String WINDOW_PERIOD_HEADER = "X-RateLimit-Window-Period";
+    public static final String RETRY_AFTER_HEADER = "Retry-After";
 
     private final ReactiveRedisTemplate<String, String> redisTemplate;
     private final RedisScript<List<Long>> script;
+    private final RedisScript<List<Long>> multiWindowScript;
     private final AtomicBoolean initialized = new AtomicBoolean(false);
     private final Config defaultConfig;
 
@@ -43,6 +63,8 @@ public class CustomRedisRateLimiter extends AbstractRateLimiter<CustomRedisRateL
      * 3. Checks if request can be allowed
      * 4. Updates Redis with new values
      * 5. Sets custom TTL on keys (configurable, not based on rate)
+     *
+     * Timestamps are in milliseconds, the replenish rate is per second.
      */
     private static final String REDIS_LUA_SCRIPT = """
             local tokens_key = KEYS[1]
@@ -68,7 +90,7 @@ public class CustomRedisRateLimiter extends AbstractRateLimiter<CustomRedisRateL
             end
             
             local delta = math.max(0, now - last_refreshed)
-            local filled_tokens = math.min(capacity, last_tokens + (delta * rate))
+            local filled_tokens = math.min(capacity, last_tokens + (delta * rate / 1000))
             local allowed = filled_tokens >= requested
             local new_tokens = filled_tokens
             local allowed_num = 0
@@ -84,12 +106,66 @@ public class CustomRedisRateLimiter extends AbstractRateLimiter<CustomRedisRateL
             return {allowed_num, new_tokens, capacity, rate}
             """;
 
+    /**
+     * Lua script for multi-window rate limiting.
+     *
+     * For every window i, KEYS[i] is a hash {tokens, ts} and ARGV[3i], ARGV[3i+1], ARGV[3i+2] are its refill
+     * rate in tokens per millisecond, its capacity and its key TTL in milliseconds. ARGV[1] is the current time
+     * in milliseconds and ARGV[2] the requested tokens.
+     *
+     * This script:
+     * 1. Refills every window for the time elapsed since its last update
+     * 2. Allows the request only if every window has enough tokens
+     * 3. Takes the tokens from every window if allowed, from none otherwise
+     * 4. Returns {allowed, remaining, capacity, window index} of the window with the fewest tokens left,
+     *    and the milliseconds until the request would be allowed
+     */
+    private static final String MULTI_WINDOW_LUA_SCRIPT = """
+            local now = tonumber(ARGV[1])
+            local requested = tonumber(ARGV[2])
+
+            local allowed = 1
+            local retry_after = 0
+            local filled = {}
+            for i = 1, #KEYS do
+                local rate = tonumber(ARGV[3 * i])
+                local capacity = tonumber(ARGV[3 * i + 1])
+                local state = redis.call("hmget", KEYS[i], "tokens", "ts")
+                local tokens = tonumber(state[1]) or capacity
+                local last_refreshed = tonumber(state[2]) or 0
+                local delta = math.max(0, now - last_refreshed)
+                filled[i] = math.min(capacity, tokens + (delta * rate))
+                if filled[i] < requested then
+                    allowed = 0
+                    retry_after = math.max(retry_after, math.ceil((requested - filled[i]) / rate))
+                end
+            end
+
+            local tightest = 1
+            local tightest_remaining = nil
+            for i = 1, #KEYS do
+                local remaining = filled[i]
+                if allowed == 1 then
+                    remaining = remaining - requested
+                end
+                redis.call("hset", KEYS[i], "tokens", remaining, "ts", now)
+                redis.call("pexpire", KEYS[i], tonumber(ARGV[3 * i + 2]))
+                if tightest_remaining == nil or remaining < tightest_remaining then
+                    tightest = i
+                    tightest_remaining = remaining
+                end
+            end
+
+            return {allowed, math.floor(tightest_remaining), tonumber(ARGV[3 * tightest + 1]), tightest - 1, retry_after}
+            """;
+
     public CustomRedisRateLimiter(ReactiveRedisTemplate<String, String> redisTemplate,
                                    RedisScript<List<Long>> script,
                                    Config defaultConfig) {
         super(Config.class, CONFIGURATION_PROPERTY_NAME, null);
         this.redisTemplate = redisTemplate;
         this.script = script;
+        this.multiWindowScript = multiWindowScript();
         this.defaultConfig = defaultConfig;
     }
 
@@ -101,6 +177,7 @@ public class CustomRedisRateLimiter extends AbstractRateLimiter<CustomRedisRateL
         super(Config.class, CONFIGURATION_PROPERTY_NAME, null);
         this.redisTemplate = redisTemplate;
         this.script = (RedisScript<List<Long>>) (Object) RedisScript.of(REDIS_LUA_SCRIPT, List.class);
+        this.multiWindowScript = multiWindowScript();
         this.defaultConfig = new Config()
                 .setReplenishRate(defaultReplenishRate)
                 .setBurstCapacity(defaultBurstCapacity)
@@ -108,6 +185,29 @@ public class CustomRedisRateLimiter extends AbstractRateLimiter<CustomRedisRateL
                 .setTtlSeconds(defaultTtlSeconds);
     }
 
+    /**
+     * Multi-window rate limiter; the windows are checked together in one round trip.
+     */
+    @SuppressWarnings("unchecked")
+    public CustomRedisRateLimiter(List<Window> windows, ReactiveRedisTemplate<String, String> redisTemplate) {
+        super(Config.class, CONFIGURATION_PROPERTY_NAME, null);
+        this.redisTemplate = redisTemplate;
+        this.script = (RedisScript<List<Long>>) (Object) RedisScript.of(REDIS_LUA_SCRIPT, List.class);
+        this.multiWindowScript = multiWindowScript();
+        this.defaultConfig = new Config()
+                .setRequestedTokens(1)
+                .setWindows(windows);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static RedisScript<List<Long>> multiWindowScript() {
+        return (RedisScript<List<Long>>) (Object) RedisScript.of(MULTI_WINDOW_LUA_SCRIPT, List.class);
+    }
+
+    static String getWindowKey(String key, Window window) {
+        return "request_rate_limiter.{" + key + "}." + window.getName();
+    }
+
     static List<String> getKeys(String id) {
         String prefix = "request_rate_limiter.{" + id;
         String tokenKey = prefix + "}.tokens";
@@ -123,17 +223,20 @@ public class CustomRedisRateLimiter extends AbstractRateLimiter<CustomRedisRateL
         }
 
         Config routeConfig = loadConfiguration(routeId);
+        if (!routeConfig.getWindows().isEmpty()) {
+            return isAllowedInWindows(routeConfig, id);
+        }
 
         int replenishRate = routeConfig.getReplenishRate();
         int burstCapacity = routeConfig.getBurstCapacity();
         int requestedTokens = routeConfig.getRequestedTokens();
         int ttlSeconds = routeConfig.getTtlSeconds();
 
-        List<String> keys = getKeys(id);
+        List<String> keys = getKeys(RateLimitKey.primary(id));
         List<String> scriptArgs = Arrays.asList(
                 String.valueOf(replenishRate),
                 String.valueOf(burstCapacity),
-                String.valueOf(Instant.now().getEpochSecond()),
+                String.valueOf(System.currentTimeMillis()),
                 String.valueOf(requestedTokens),
                 String.valueOf(ttlSeconds)
         );
@@ -154,7 +257,7 @@ public class CustomRedisRateLimiter extends AbstractRateLimiter<CustomRedisRateL
             Long capacity = results.get(2);
             Long rate = results.get(3);
 
-            Response response = new Response(allowed, getHeaders(capacity, rate, tokensLeft, requestedTokens));
+            Response response = new Response(allowed, getHeaders(capacity, rate.toString(), tokensLeft, requestedTokens));
 
             if (log.isDebugEnabled()) {
                 log.debug("Response: {}, tokens left: {}, capacity: {}, rate: {}, ttl: {}s",
@@ -165,6 +268,69 @@ public class CustomRedisRateLimiter extends AbstractRateLimiter<CustomRedisRateL
         });
     }
 
+    @SuppressWarnings("unchecked")
+    private Mono<Response> isAllowedInWindows(Config routeConfig, String id) {
+        int requestedTokens = routeConfig.getRequestedTokens();
+        Map<String, String> parts = RateLimitKey.parse(id);
+
+        List<Window> windows = new ArrayList<>();
+        List<String> keys = new ArrayList<>();
+        List<String> scriptArgs = new ArrayList<>();
+        scriptArgs.add(String.valueOf(System.currentTimeMillis()));
+        scriptArgs.add(String.valueOf(requestedTokens));
+        for (Window window : routeConfig.getWindows()) {
+            String key = window.getScope().keyFor(parts);
+            if (key == null) {
+                // No tenant on this request, for example
+                continue;
+            }
+            windows.add(window);
+            keys.add(getWindowKey(key, window));
+            scriptArgs.add(String.valueOf(window.tokensPerMilli()));
+            scriptArgs.add(String.valueOf(window.getCapacity()));
+            scriptArgs.add(String.valueOf(window.ttlMillis()));
+        }
+        if (windows.isEmpty()) {
+            return Mono.just(new Response(true, Map.of()));
+        }
+
+        Window first = windows.get(0);
+        return this.redisTemplate.execute(this.multiWindowScript, keys, scriptArgs)
+                .onErrorResume(throwable -> {
+                    if (log.isDebugEnabled()) {
+                        log.debug("Error calling multi-window rate limiter lua script", throwable);
+                    }
+                    return Flux.just(Arrays.asList(1L, -1L, first.getCapacity(), 0L, 0L));
+                })
+                .reduce(new ArrayList<Long>(), (longs, l) -> {
+                    longs.addAll(l);
+                    return longs;
+                })
+                .map(results -> {
+                    boolean allowed = results.get(0) == 1L;
+                    Long tokensLeft = results.get(1);
+                    Long capacity = results.get(2);
+                    int index = results.size() > 3 ? results.get(3).intValue() : 0;
+                    long retryAfterMillis = results.size() > 4 ? results.get(4) : 0;
+                    Window tightest = index >= 0 && index < windows.size() ? windows.get(index) : first;
+
+                    Map<String, String> headers = getHeaders(capacity, tightest.replenishRatePerSecond(), tokensLeft,
+                            requestedTokens);
+                    headers.put(WINDOW_HEADER, tightest.getName());
+                    headers.put(WINDOW_LIMIT_HEADER, String.valueOf(tightest.getLimit()));
+                    headers.put(WINDOW_PERIOD_HEADER, String.valueOf(tightest.getPeriod().toSeconds()));
+                    if (!allowed) {
+                        headers.put(RETRY_AFTER_HEADER, String.valueOf(Math.max(1, (retryAfterMillis + 999) / 1000)));
+                    }
+
+                    if (log.isDebugEnabled()) {
+                        log.debug("Allowed: {}, tightest window: {}, tokens left: {}, capacity: {}",
+                                allowed, tightest.getName(), tokensLeft, capacity);
+                    }
+                    return new Response(allowed, headers);
+                });
+    }
+
     private Config loadConfiguration(String routeId) {
         Config routeConfig = getConfig().getOrDefault(routeId, defaultConfig);
         if (routeConfig == null) {
@@ -173,10 +339,10 @@ public class CustomRedisRateLimiter extends AbstractRateLimiter<CustomRedisRateL
         return routeConfig;
     }
 
-    private java.util.Map<String, String> getHeaders(Long capacity, Long rate, Long tokensLeft, int requestedTokens) {
-        java.util.Map<String, String> headers = new java.util.HashMap<>();
+    private Map<String, String> getHeaders(Long capacity, String rate, Long tokensLeft, int requestedTokens) {
+        Map<String, String> headers = new HashMap<>();
         headers.put(REMAINING_HEADER, tokensLeft.toString());
-        headers.put(REPLENISH_RATE_HEADER, rate.toString());
+        headers.put(REPLENISH_RATE_HEADER, rate);
         headers.put(BURST_CAPACITY_HEADER, capacity.toString());
         headers.put(REQUESTED_TOKENS_HEADER, String.valueOf(requestedTokens));
         return headers;
@@ -194,6 +360,7 @@ public class CustomRedisRateLimiter extends AbstractRateLimiter<CustomRedisRateL
         private int burstCapacity;
         private int requestedTokens = 1;
         private int ttlSeconds = 60; // Default TTL: 60 seconds
+        private List<Window> windows = List.of();
 
         public int getReplenishRate() {
             return replenishRate;
@@ -231,6 +398,15 @@ public class CustomRedisRateLimiter extends AbstractRateLimiter<CustomRedisRateL
             return this;
         }
 
+        public List<Window> getWindows() {
+            return windows;
+        }
+
+        public Config setWindows(List<Window> windows) {
+            this.windows = List.copyOf(windows);
+            return this;
+        }
+
         @Override
         public String toString() {
             return "Config{" +
@@ -238,7 +414,98 @@ public class CustomRedisRateLimiter extends AbstractRateLimiter<CustomRedisRateL
                     ", burstCapacity=" + burstCapacity +
                     ", requestedTokens=" + requestedTokens +
                     ", ttlSeconds=" + ttlSeconds +
+                    ", windows=" + windows +
                     '}';
         }
     }
+
+    /**
+     * One bucket of a multi-window limiter: at most {@code limit} requests per {@code period} for each key
+     * of the given scope, with bursts of up to {@code capacity} requests.
+     */
+    public static class Window {
+        private final String name;
+        private final RateLimitKey.Scope scope;
+        private final long limit;
+        private final Duration period;
+        private final long capacity;
+
+        private Window(String name, RateLimitKey.Scope scope, long limit, Duration period, long capacity) {
+            this.name = name;
+            this.scope = scope;
+            this.limit = limit;
+            this.period = period;
+            this.capacity = capacity;
+        }
+
+        public static Window of(RateLimitKey.Scope scope, long limit, Duration period) {
+            return new Window(scope.name().toLowerCase() + "-" + periodName(period), scope, limit, period, limit);
+        }
+
+        /**
+         * Allow bursts above the per-period limit, e.g. 50 per second with bursts of 100.
+         */
+        public Window withCapacity(long capacity) {
+            return new Window(name, scope, limit, period, capacity);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public RateLimitKey.Scope getScope() {
+            return scope;
+        }
+
+        public long getLimit() {
+            return limit;
+        }
+
+        public Duration getPeriod() {
+            return period;
+        }
+
+        public long getCapacity() {
+            return capacity;
+        }
+
+        /**
+         * Tokens added per second, e.g. "50" for 50 per second or "0.5" for 30 per minute.
+         */
+        String replenishRatePerSecond() {
+            return BigDecimal.valueOf(limit * 1000)
+                    .divide(BigDecimal.valueOf(period.toMillis()), 6, RoundingMode.HALF_UP)
+                    .stripTrailingZeros()
+                    .toPlainString();
+        }
+
+        double tokensPerMilli() {
+            return (double) limit / period.toMillis();
+        }
+
+        /**
+         * Keys live until an untouched bucket would be full again.
+         */
+        long ttlMillis() {
+            return (long) Math.ceil(capacity / tokensPerMilli()) + 1000;
+        }
+
+        private static String periodName(Duration period) {
+            if (period.toHours() > 0 && period.equals(Duration.ofHours(period.toHours()))) {
+                return period.toHours() + "h";
+            }
+            if (period.toMinutes() > 0 && period.equals(Duration.ofMinutes(period.toMinutes()))) {
+                return period.toMinutes() + "m";
+            }
+            if (period.toSeconds() > 0 && period.equals(Duration.ofSeconds(period.toSeconds()))) {
+                return period.toSeconds() + "s";
+            }
+            return period.toMillis() + "ms";
+        }
+
+        @Override
+        public String toString() {
+            return name + "{limit=" + limit + ", capacity=" + capacity + "}";
+        }
+    }
 }
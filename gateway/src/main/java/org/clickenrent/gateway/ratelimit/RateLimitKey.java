@@ -0,0 +1,86 @@
+package org.clickenrent.gateway.ratelimit;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Rate limit keys carrying several identities of the caller, e.g. "user:42|ip:10.0.0.1|tenant:acme".
+ *
+ * The first part is the caller's primary identity and is what single bucket limiters count on;
+ * multi-window limiters pick the part matching each window's {@link Scope}.
+ */
+public final class RateLimitKey {
+
+    private static final char SEPARATOR = '|';
+
+    private RateLimitKey() {
+    }
+
+    /**
+     * Key with the given parts, in order; null or empty values are left out.
+     */
+    public static String of(String... scopeAndValue) {
+        StringBuilder key = new StringBuilder();
+        for (int i = 0; i + 1 < scopeAndValue.length; i += 2) {
+            String value = scopeAndValue[i + 1];
+            if (value == null || value.isEmpty()) {
+                continue;
+            }
+            if (!key.isEmpty()) {
+                key.append(SEPARATOR);
+            }
+            key.append(scopeAndValue[i]).append(':').append(value);
+        }
+        return key.toString();
+    }
+
+    /**
+     * The primary identity, e.g. "user:42".
+     */
+    public static String primary(String key) {
+        int separator = key.indexOf(SEPARATOR);
+        return separator < 0 ? key : key.substring(0, separator);
+    }
+
+    /**
+     * Parts of the key by scope name; values may contain ':' (IPv6).
+     */
+    public static Map<String, String> parse(String key) {
+        Map<String, String> parts = new HashMap<>(4);
+        int start = 0;
+        while (start < key.length()) {
+            int end = key.indexOf(SEPARATOR, start);
+            if (end < 0) {
+                end = key.length();
+            }
+            int colon = key.indexOf(':', start);
+            if (colon > start && colon < end) {
+                parts.putIfAbsent(key.substring(start, colon), key.substring(colon + 1, end));
+            }
+            start = end + 1;
+        }
+        return parts;
+    }
+
+    public enum Scope {
+        IP,
+        /** Falls back to the IP for anonymous requests, like the user key resolver. */
+        USER,
+        TENANT;
+
+        /**
+         * Bucket key for this scope, or null if the request has no such identity.
+         */
+        String keyFor(Map<String, String> parts) {
+            return switch (this) {
+                case IP -> prefixed("ip", parts.get("ip"));
+                case USER -> parts.containsKey("user") ? prefixed("user", parts.get("user")) : prefixed("ip", parts.get("ip"));
+                case TENANT -> prefixed("tenant", parts.get("tenant"));
+            };
+        }
+
+        private static String prefixed(String scope, String value) {
+            return value == null ? null : scope + ":" + value;
+        }
+    }
+}
@@ -0,0 +1,310 @@
+package org.clickenrent.gateway.resilience;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * Wraps every call to an lb:// backend in that backend's circuit breaker, bulkhead and timeout.
+ *
+ * Runs after the route filters (JWT, response cache, rate limiter), so rejected requests never count
+ * against a backend, and before load balancing, so a retried attempt may pick another instance.
+ *
+ * - Timeout: time the backend has to start responding (route class timeout, else the backend's).
+ *   Once the response is committed the body is streamed without a deadline.
+ * - Circuit breaker: errors, timeouts and 5xx responses count as failures; while open, requests
+ *   are answered with 503 and Retry-After without calling the backend.
+ * - Bulkhead: caps requests in flight per backend, excess requests get 503 immediately.
+ * - Retry on timeout (GET only, when attempt-timeout is set): an attempt that has not started responding
+ *   within the attempt timeout is cancelled and the request is sent again. The attempts run one after the
+ *   other, never side by side, so this is not hedging: it only helps when a stalled instance would not
+ *   have answered anyway. Slow endpoints are listed in no-retry-paths, as cancelling them wastes the work done.
+ * - Streaming routes (e.g. Server-Sent Events): the outcome is recorded and the bulkhead slot released
+ *   as soon as the response is committed, so a long-lived stream is neither a slow call nor a slot held.
+ */
+@Slf4j
+public class BackendResilienceFilter implements GlobalFilter, Ordered {
+
+    /**
+     * After RouteToRequestUrlFilter has resolved the lb:// URL, before the load balancer picks an instance.
+     */
+    public static final int ORDER = ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER - 50;
+
+    static final String FALLBACK_METRIC = "gateway.resilience.fallbacks";
+    static final String RETRY_METRIC = "gateway.resilience.timeout.retries";
+
+    private final ResilienceProperties properties;
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final BulkheadRegistry bulkheadRegistry;
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, Backend> backends = new ConcurrentHashMap<>();
+    private final Map<String, PathPattern> noRetryPatterns = new ConcurrentHashMap<>();
+
+    public BackendResilienceFilter(ResilienceProperties properties,
+                                   CircuitBreakerRegistry circuitBreakerRegistry,
+                                   BulkheadRegistry bulkheadRegistry,
+                                   MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.circuitBreakerRegistry = circuitBreakerRegistry;
+        this.bulkheadRegistry = bulkheadRegistry;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        if (route == null || !"lb".equals(route.getUri().getScheme()) || route.getUri().getHost() == null) {
+            return chain.filter(exchange);
+        }
+
+        Backend backend = backends.computeIfAbsent(route.getUri().getHost(), this::createBackend);
+        CircuitBreaker circuitBreaker = backend.circuitBreaker();
+        Bulkhead bulkhead = backend.bulkhead();
+
+        if (!circuitBreaker.tryAcquirePermission()) {
+            return fallback(exchange, backend, HttpStatus.SERVICE_UNAVAILABLE, "circuit_open",
+                    "Service temporarily unavailable. Please try again later.",
+                    backend.policy().getWaitDurationInOpenState().toSeconds());
+        }
+        if (!bulkhead.tryAcquirePermission()) {
+            circuitBreaker.releasePermission();
+            return fallback(exchange, backend, HttpStatus.SERVICE_UNAVAILABLE, "bulkhead_full",
+                    "Service is busy. Please try again later.", 1);
+        }
+
+        Duration routeTimeout = properties.timeoutForRoute(route.getId());
+        Duration timeout = routeTimeout != null ? routeTimeout : backend.policy().getTimeout();
+        Outcome outcome = new Outcome(circuitBreaker, bulkhead, circuitBreaker.getCurrentTimestamp());
+        if (properties.getStreamingRoutes().contains(route.getId())) {
+            // Only the start of a stream says something about the backend, and an open stream must not hold a bulkhead slot
+            exchange.getResponse().beforeCommit(() -> {
+                outcome.completed(exchange.getResponse().getStatusCode());
+                return Mono.empty();
+            });
+        }
+
+        return call(exchange, chain, backend, timeout)
+                .doOnSuccess(done -> outcome.completed(exchange.getResponse().getStatusCode()))
+                .doOnError(outcome::failed)
+                .doOnCancel(outcome::cancelled)
+                .onErrorResume(TimeoutException.class, e -> exchange.getResponse().isCommitted()
+                        ? Mono.error(e)
+                        : fallback(exchange, backend, HttpStatus.GATEWAY_TIMEOUT, "timeout",
+                                "Service did not respond in time. Please try again later.", 0));
+    }
+
+    /**
+     * The backend call, retried on timeout for GET requests when the policy asks for it.
+     */
+    private Mono<Void> call(ServerWebExchange exchange, GatewayFilterChain chain, Backend backend, Duration timeout) {
+        ResilienceProperties.Policy policy = backend.policy();
+        Duration attemptTimeout = policy.getAttemptTimeout();
+        if (attemptTimeout == null || attemptTimeout.compareTo(timeout) >= 0 || policy.getTimeoutRetries() <= 0
+                || !HttpMethod.GET.equals(exchange.getRequest().getMethod())
+                || isNoRetryPath(exchange.getRequest().getPath().pathWithinApplication())) {
+            return attempt(exchange, chain, timeout);
+        }
+
+        URI requestUrl = exchange.getAttribute(GATEWAY_REQUEST_URL_ATTR);
+        long deadline = System.nanoTime() + timeout.toNanos();
+        Mono<Void> retried = attempt(exchange, chain, attemptTimeout);
+        for (int i = 1; i <= policy.getTimeoutRetries(); i++) {
+            boolean last = i == policy.getTimeoutRetries();
+            retried = retried.onErrorResume(TimeoutException.class, e -> {
+                if (exchange.getResponse().isCommitted()) {
+                    return Mono.error(e);
+                }
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return Mono.error(e);
+                }
+                meterRegistry.counter(RETRY_METRIC, "backend", backend.name()).increment();
+                log.debug("No response from {} after {}, cancelled the attempt and sending {} again",
+                        backend.name(), attemptTimeout, exchange.getRequest().getPath());
+                // Let the load balancer and routing filters run again for the new attempt
+                if (requestUrl != null) {
+                    exchange.getAttributes().put(GATEWAY_REQUEST_URL_ATTR, requestUrl);
+                }
+                ServerWebExchangeUtils.reset(exchange);
+                // The last attempt gets whatever is left of the overall timeout
+                Duration nextTimeout = Duration.ofNanos(last ? remaining : Math.min(remaining, attemptTimeout.toNanos()));
+                return attempt(exchange, chain, nextTimeout);
+            });
+        }
+        return retried;
+    }
+
+    private boolean isNoRetryPath(PathContainer path) {
+        for (String pattern : properties.getNoRetryPaths()) {
+            if (noRetryPatterns.computeIfAbsent(pattern, PathPatternParser.defaultInstance::parse).matches(path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Fails with a TimeoutException if the backend has not started responding within the timeout.
+     */
+    private Mono<Void> attempt(ServerWebExchange exchange, GatewayFilterChain chain, Duration timeout) {
+        return chain.filter(exchange)
+                .timeout(Mono.delay(timeout).filter(tick -> !exchange.getResponse().isCommitted())
+                        .switchIfEmpty(Mono.never()));
+    }
+
+    private Mono<Void> fallback(ServerWebExchange exchange, Backend backend, HttpStatus status, String reason,
+                                String message, long retryAfterSeconds) {
+        meterRegistry.counter(FALLBACK_METRIC, "backend", backend.name(), "reason", reason).increment();
+        log.warn("Fallback for {} {} - backend: {}, reason: {}",
+                exchange.getRequest().getMethod(), exchange.getRequest().getPath(), backend.name(), reason);
+
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(status);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        if (retryAfterSeconds > 0) {
+            response.getHeaders().set("Retry-After", String.valueOf(retryAfterSeconds));
+        }
+
+        Map<String, Object> errorBody = new HashMap<>();
+        errorBody.put("error", status.getReasonPhrase());
+        errorBody.put("message", message);
+        errorBody.put("service", backend.name());
+        errorBody.put("timestamp", Instant.now().toString());
+        errorBody.put("path", exchange.getRequest().getPath().value());
+
+        try {
+            DataBuffer buffer = response.bufferFactory().wrap(objectMapper.writeValueAsBytes(errorBody));
+            return response.writeWith(Mono.just(buffer));
+        } catch (JsonProcessingException e) {
+            log.error("Error creating fallback response JSON", e);
+            return response.setComplete();
+        }
+    }
+
+    private Backend createBackend(String name) {
+        ResilienceProperties.Policy policy = properties.policyFor(name);
+        CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(name, CircuitBreakerConfig.custom()
+                .failureRateThreshold(policy.getFailureRateThreshold())
+                .slowCallRateThreshold(policy.getSlowCallRateThreshold())
+                .slowCallDurationThreshold(policy.getSlowCallDurationThreshold())
+                .slidingWindowSize(policy.getSlidingWindowSize())
+                .minimumNumberOfCalls(policy.getMinimumNumberOfCalls())
+                .waitDurationInOpenState(policy.getWaitDurationInOpenState())
+                .automaticTransitionFromOpenToHalfOpenEnabled(false)
+                .build());
+        Bulkhead bulkhead = bulkheadRegistry.bulkhead(name, BulkheadConfig.custom()
+                .maxConcurrentCalls(policy.getMaxConcurrentCalls())
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+        circuitBreaker.getEventPublisher().onStateTransition(event ->
+                log.warn("Circuit breaker for {} changed state: {}", name, event.getStateTransition()));
+        log.info("Resilience policy for {}: timeout {}, max concurrent calls {}, attempt timeout {}",
+                name, policy.getTimeout(), policy.getMaxConcurrentCalls(), policy.getAttemptTimeout());
+        return new Backend(name, policy, circuitBreaker, bulkhead);
+    }
+
+    /**
+     * Records the outcome of a call on the circuit breaker and releases its bulkhead slot, exactly once.
+     */
+    private static final class Outcome {
+
+        private final CircuitBreaker circuitBreaker;
+        private final Bulkhead bulkhead;
+        private final long start;
+        private final AtomicBoolean settled = new AtomicBoolean();
+
+        Outcome(CircuitBreaker circuitBreaker, Bulkhead bulkhead, long start) {
+            this.circuitBreaker = circuitBreaker;
+            this.bulkhead = bulkhead;
+            this.start = start;
+        }
+
+        void completed(HttpStatusCode status) {
+            if (!settle()) {
+                return;
+            }
+            long duration = circuitBreaker.getCurrentTimestamp() - start;
+            if (status != null && status.is5xxServerError()) {
+                circuitBreaker.onError(duration, circuitBreaker.getTimestampUnit(), new BackendErrorStatusException(status));
+            } else {
+                circuitBreaker.onSuccess(duration, circuitBreaker.getTimestampUnit());
+            }
+        }
+
+        void failed(Throwable e) {
+            if (settle()) {
+                circuitBreaker.onError(circuitBreaker.getCurrentTimestamp() - start, circuitBreaker.getTimestampUnit(), e);
+            }
+        }
+
+        void cancelled() {
+            if (settle()) {
+                circuitBreaker.releasePermission();
+            }
+        }
+
+        private boolean settle() {
+            if (!settled.compareAndSet(false, true)) {
+                return false;
+            }
+            bulkhead.onComplete();
+            return true;
+        }
+    }
+
+    private record Backend(String name, ResilienceProperties.Policy policy,
+                           CircuitBreaker circuitBreaker, Bulkhead bulkhead) {
+    }
+
+    /**
+     * Recorded by the circuit breaker for backend responses with a 5xx status.
+     */
+    static class BackendErrorStatusException extends RuntimeException {
+
+        BackendErrorStatusException(HttpStatusCode status) {
+            super("Backend responded with " + status.value());
+        }
+    }
+}
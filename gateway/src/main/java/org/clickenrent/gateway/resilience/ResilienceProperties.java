@@ -0,0 +1,135 @@
+package org.clickenrent.gateway.resilience;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Per-backend resilience policies, bound from gateway.resilience.*.
+ *
+ * Every value of a backend entry is optional and falls back to gateway.resilience.defaults, so a backend
+ * only lists what differs. Route classes override the timeout for a named group of route ids.
+ */
+@Data
+@ConfigurationProperties("gateway.resilience")
+public class ResilienceProperties {
+
+    private boolean enabled = true;
+
+    private Policy defaults = Policy.defaults();
+
+    /**
+     * Keyed by service id, the host of the route's lb:// URI.
+     */
+    private Map<String, Policy> backends = new HashMap<>();
+
+    private Map<String, RouteClass> routeClasses = new HashMap<>();
+
+    /**
+     * Route ids whose responses are long-lived streams; they are judged on how the stream starts.
+     */
+    private Set<String> streamingRoutes = new HashSet<>();
+
+    /**
+     * Path patterns of GET endpoints that are slow by nature (exports, aggregates); they are never retried on timeout.
+     */
+    private List<String> noRetryPaths = new ArrayList<>();
+
+    /**
+     * Effective policy of a backend.
+     */
+    public Policy policyFor(String backend) {
+        Policy policy = backends.get(backend);
+        return policy == null ? defaults : policy.orElse(defaults);
+    }
+
+    /**
+     * Timeout of the route class the route belongs to, or null.
+     */
+    public Duration timeoutForRoute(String routeId) {
+        for (RouteClass routeClass : routeClasses.values()) {
+            if (routeClass.getRoutes().contains(routeId)) {
+                return routeClass.getTimeout();
+            }
+        }
+        return null;
+    }
+
+    @Data
+    public static class Policy {
+
+        /**
+         * Time the backend has to start responding before the request fails with 504.
+         */
+        private Duration timeout;
+
+        /**
+         * Requests in flight to the backend before further ones are rejected with 503.
+         */
+        private Integer maxConcurrentCalls;
+
+        private Float failureRateThreshold;
+        private Float slowCallRateThreshold;
+        private Duration slowCallDurationThreshold;
+        private Integer slidingWindowSize;
+        private Integer minimumNumberOfCalls;
+        private Duration waitDurationInOpenState;
+
+        /**
+         * For GET requests: if the backend has not started responding within this time, the attempt is
+         * cancelled and the request is sent again, usually to another instance. Null disables retries.
+         */
+        private Duration attemptTimeout;
+
+        /**
+         * Additional GET attempts made after an attempt timed out, within the overall timeout.
+         */
+        private Integer timeoutRetries;
+
+        static Policy defaults() {
+            Policy policy = new Policy();
+            policy.setTimeout(Duration.ofSeconds(10));
+            policy.setMaxConcurrentCalls(200);
+            policy.setFailureRateThreshold(50f);
+            policy.setSlowCallRateThreshold(80f);
+            policy.setSlowCallDurationThreshold(Duration.ofSeconds(5));
+            policy.setSlidingWindowSize(50);
+            policy.setMinimumNumberOfCalls(20);
+            policy.setWaitDurationInOpenState(Duration.ofSeconds(30));
+            policy.setTimeoutRetries(1);
+            return policy;
+        }
+
+        Policy orElse(Policy fallback) {
+            Policy merged = new Policy();
+            merged.setTimeout(timeout != null ? timeout : fallback.getTimeout());
+            merged.setMaxConcurrentCalls(maxConcurrentCalls != null ? maxConcurrentCalls : fallback.getMaxConcurrentCalls());
+            merged.setFailureRateThreshold(failureRateThreshold != null ? failureRateThreshold : fallback.getFailureRateThreshold());
+            merged.setSlowCallRateThreshold(slowCallRateThreshold != null ? slowCallRateThreshold : fallback.getSlowCallRateThreshold());
+            merged.setSlowCallDurationThreshold(slowCallDurationThreshold != null
+                    ? slowCallDurationThreshold : fallback.getSlowCallDurationThreshold());
+            merged.setSlidingWindowSize(slidingWindowSize != null ? slidingWindowSize : fallback.getSlidingWindowSize());
+            merged.setMinimumNumberOfCalls(minimumNumberOfCalls != null ? minimumNumberOfCalls : fallback.getMinimumNumberOfCalls());
+            merged.setWaitDurationInOpenState(waitDurationInOpenState != null
+                    ? waitDurationInOpenState : fallback.getWaitDurationInOpenState());
+            merged.setAttemptTimeout(attemptTimeout != null ? attemptTimeout : fallback.getAttemptTimeout());
+            merged.setTimeoutRetries(timeoutRetries != null ? timeoutRetries : fallback.getTimeoutRetries());
+            return merged;
+        }
+    }
+
+    @Data
+    public static class RouteClass {
+
+        private Duration timeout;
+
+        private List<String> routes = new ArrayList<>();
+    }
+}
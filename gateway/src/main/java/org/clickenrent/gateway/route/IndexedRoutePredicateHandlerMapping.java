@@ -0,0 +1,82 @@
+package org.clickenrent.gateway.route;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.config.GlobalCorsProperties;
+import org.springframework.cloud.gateway.event.RefreshRoutesResultEvent;
+import org.springframework.cloud.gateway.handler.FilteringWebHandler;
+import org.springframework.cloud.gateway.handler.RoutePredicateHandlerMapping;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.route.RouteDefinition;
+import org.springframework.cloud.gateway.route.RouteDefinitionLocator;
+import org.springframework.cloud.gateway.route.RouteLocator;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.env.Environment;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_PREDICATE_ROUTE_ATTR;
+
+/**
+ * Route lookup that only evaluates the predicates of routes whose path prefix fits the request,
+ * using a {@link RouteIndex} instead of testing every route in declaration order.
+ * The index is rebuilt whenever the gateway refreshes its routes. Route definitions (discovery and
+ * property-configured routes) are read alongside the routes so their predicate structure is known.
+ */
+@Slf4j
+public class IndexedRoutePredicateHandlerMapping extends RoutePredicateHandlerMapping
+        implements ApplicationListener<RefreshRoutesResultEvent> {
+
+    private final RouteLocator routeLocator;
+    private final RouteDefinitionLocator routeDefinitionLocator;
+    private volatile Mono<RouteIndex> routeIndex;
+
+    public IndexedRoutePredicateHandlerMapping(FilteringWebHandler webHandler, RouteLocator routeLocator,
+                                               RouteDefinitionLocator routeDefinitionLocator,
+                                               GlobalCorsProperties globalCorsProperties, Environment environment) {
+        super(webHandler, routeLocator, globalCorsProperties, environment);
+        this.routeLocator = routeLocator;
+        this.routeDefinitionLocator = routeDefinitionLocator;
+        this.routeIndex = buildIndex();
+    }
+
+    @Override
+    protected Mono<Route> lookupRoute(ServerWebExchange exchange) {
+        return routeIndex
+                .flatMapMany(index -> Flux.fromIterable(
+                        index.candidates(exchange.getRequest().getPath().pathWithinApplication())))
+                .concatMap(route -> Mono.just(route).filterWhen(r -> {
+                    exchange.getAttributes().put(GATEWAY_PREDICATE_ROUTE_ATTR, r.getId());
+                    return r.getPredicate().apply(exchange);
+                })
+                .doOnError(e -> log.error("Error applying predicate for route: {}", route.getId(), e))
+                .onErrorResume(e -> Mono.empty()))
+                .next()
+                .map(route -> {
+                    log.debug("Route matched: {}", route.getId());
+                    validateRoute(route, exchange);
+                    return route;
+                });
+    }
+
+    @Override
+    public void onApplicationEvent(RefreshRoutesResultEvent event) {
+        if (event.isSuccess()) {
+            routeIndex = buildIndex();
+        }
+    }
+
+    /**
+     * Built lazily on the first request after startup or a refresh; a failed build is retried on the next request.
+     */
+    private Mono<RouteIndex> buildIndex() {
+        return Mono.zip(routeLocator.getRoutes().collectList(),
+                        routeDefinitionLocator.getRouteDefinitions().collectMap(RouteDefinition::getId))
+                .map(routes -> RouteIndex.build(routes.getT1(), routes.getT2()))
+                .doOnNext(index -> log.info("Built route index for {} routes ({} evaluated for every request)",
+                        index.size(), index.unindexedCount()))
+                .cache(index -> Duration.ofMillis(Long.MAX_VALUE), e -> Duration.ZERO, () -> Duration.ZERO);
+    }
+}
@@ -0,0 +1,182 @@
+package org.clickenrent.gateway.route;
+
+import org.springframework.cloud.gateway.handler.AsyncPredicate;
+import org.springframework.cloud.gateway.handler.predicate.PathRoutePredicateFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.route.RouteDefinition;
+import org.springframework.cloud.gateway.support.HasConfig;
+import org.springframework.http.server.PathContainer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Prefix trie over the literal leading segments of the routes' Path predicates.
+ *
+ * A route declared with /api/v1/bikes/** is stored under api → v1 → bikes, so a request for
+ * /api/v1/bikes/42 only has to evaluate the routes found along its own path instead of every route
+ * declared before the match. Candidates keep their declaration order and still have their full
+ * predicates evaluated, so the first matching route is the same one a linear scan would pick.
+ *
+ * Only routes whose predicate is known to be "Path AND optional narrowing predicates" are indexed: routes built
+ * from a RouteDefinition with a single Path predicate (the gateway ANDs a definition's predicates), and Java DSL
+ * routes that are a single Path predicate or a Path ANDed with one other predicate. Everything else (OR, negation,
+ * longer DSL chains whose grouping is not visible) is kept as a candidate for every request.
+ */
+public final class RouteIndex {
+
+    private final List<Route> routes;
+    private final Node root = new Node();
+    private final int[] unindexed;
+    private final int capacity;
+
+    private RouteIndex(List<Route> routes, Map<String, RouteDefinition> definitions) {
+        this.routes = List.copyOf(routes);
+
+        List<Integer> unindexedPositions = new ArrayList<>();
+        int entries = 0;
+        for (int position = 0; position < this.routes.size(); position++) {
+            Route route = this.routes.get(position);
+            List<String> patterns = indexablePatterns(route, definitions.get(route.getId()));
+            if (patterns == null) {
+                unindexedPositions.add(position);
+                continue;
+            }
+            for (String pattern : patterns) {
+                root.insert(literalPrefix(pattern), position);
+                entries++;
+            }
+        }
+        this.unindexed = unindexedPositions.stream().mapToInt(Integer::intValue).toArray();
+        this.capacity = entries + unindexed.length;
+    }
+
+    /**
+     * Build the index for routes in the order the gateway evaluates them, with the definitions
+     * (by route id) of the routes that were built from one.
+     */
+    public static RouteIndex build(List<Route> routes, Map<String, RouteDefinition> definitions) {
+        return new RouteIndex(routes, definitions);
+    }
+
+    /**
+     * Build the index for routes that were all declared with the Java DSL.
+     */
+    public static RouteIndex build(List<Route> routes) {
+        return new RouteIndex(routes, Map.of());
+    }
+
+    /**
+     * Routes that may match the given path, in declaration order.
+     * Costs one map lookup per path segment plus the number of candidates.
+     */
+    public List<Route> candidates(PathContainer path) {
+        int[] positions = new int[capacity];
+        int count = 0;
+
+        Node node = root;
+        count = node.copyPositions(positions, count);
+        for (PathContainer.Element element : path.elements()) {
+            if (!(element instanceof PathContainer.PathSegment segment)) {
+                continue;
+            }
+            node = node.children.get(segment.valueToMatch());
+            if (node == null) {
+                break;
+            }
+            count = node.copyPositions(positions, count);
+        }
+        System.arraycopy(unindexed, 0, positions, count, unindexed.length);
+        count += unindexed.length;
+
+        Arrays.sort(positions, 0, count);
+        List<Route> candidates = new ArrayList<>(count);
+        int previous = -1;
+        for (int i = 0; i < count; i++) {
+            // A route with several patterns on the same branch is stored more than once
+            if (positions[i] != previous) {
+                candidates.add(routes.get(positions[i]));
+                previous = positions[i];
+            }
+        }
+        return candidates;
+    }
+
+    public int size() {
+        return routes.size();
+    }
+
+    public int unindexedCount() {
+        return unindexed.length;
+    }
+
+    /**
+     * Path patterns of the route, or null if the route cannot be indexed by path.
+     *
+     * @param definition the definition the route was built from, or null for a Java DSL route
+     */
+    static List<String> indexablePatterns(Route route, RouteDefinition definition) {
+        List<HasConfig> predicates = new ArrayList<>();
+        route.getPredicate().accept(predicates::add);
+
+        List<PathRoutePredicateFactory.Config> paths = new ArrayList<>();
+        for (HasConfig predicate : predicates) {
+            if (predicate.getConfig() instanceof PathRoutePredicateFactory.Config pathConfig) {
+                paths.add(pathConfig);
+            }
+        }
+        if (paths.size() != 1 || paths.get(0).getPatterns().isEmpty()) {
+            return null;
+        }
+
+        // The visitor flattens AND and OR alike, so the grouping has to come from the definition or the predicate type
+        boolean conjunction;
+        if (definition != null) {
+            conjunction = definition.getPredicates().stream().filter(p -> "Path".equals(p.getName())).count() == 1;
+        } else {
+            conjunction = predicates.size() == 1
+                    || (predicates.size() == 2 && route.getPredicate() instanceof AsyncPredicate.AndAsyncPredicate);
+        }
+        return conjunction ? paths.get(0).getPatterns() : null;
+    }
+
+    /**
+     * Leading segments of the pattern up to the first one containing a wildcard or URI variable.
+     */
+    static List<String> literalPrefix(String pattern) {
+        List<String> prefix = new ArrayList<>();
+        for (String segment : pattern.split("/")) {
+            if (segment.isEmpty()) {
+                continue;
+            }
+            if (segment.indexOf('*') >= 0 || segment.indexOf('?') >= 0 || segment.indexOf('{') >= 0) {
+                break;
+            }
+            prefix.add(segment);
+        }
+        return prefix;
+    }
+
+    private static final class Node {
+
+        private final Map<String, Node> children = new HashMap<>();
+        private int[] positions = new int[0];
+
+        void insert(List<String> segments, int position) {
+            Node node = this;
+            for (String segment : segments) {
+                node = node.children.computeIfAbsent(segment, key -> new Node());
+            }
+            node.positions = Arrays.copyOf(node.positions, node.positions.length + 1);
+            node.positions[node.positions.length - 1] = position;
+        }
+
+        int copyPositions(int[] target, int offset) {
+            System.arraycopy(positions, 0, target, offset, positions.length);
+            return offset + positions.length;
+        }
+    }
+}
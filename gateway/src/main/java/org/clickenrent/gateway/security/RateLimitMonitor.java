@@ -1,177 +1,290 @@
 package org.clickenrent.gateway.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.util.retry.Retry;
 
-import java.time.Instant;
+import java.time.Duration;
+import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 /**
  * Monitors rate limit violations and implements attack detection.
  * Tracks repeated violations and can auto-block suspicious IPs.
+ *
+ * Memory is bounded: violations are counted in a fixed number of time buckets per IP, and both the tracked
+ * and the blocked IPs live in size-capped caches that evict the least useful entries and expire idle ones.
+ * With rate-limit.attack.shared-block-list.enabled=true, blocks are shared with the other replicas through
+ * {@link SharedBlockList}; {@link #isBlocked(String)} only ever consults the local copy.
  */
 @Slf4j
 @Component
 public class RateLimitMonitor {
-    
-    @Value("${rate-limit.attack.threshold:10}")
-    private int attackThreshold;
-    
-    @Value("${rate-limit.attack.block-duration-minutes:15}")
-    private int blockDurationMinutes;
-    
-    @Value("${rate-limit.attack.detection-window-minutes:5}")
-    private int detectionWindowMinutes;
-    
-    // Track violations per IP: IP -> ViolationTracker
-    private final Map<String, ViolationTracker> violations = new ConcurrentHashMap<>();
-    
-    // Track blocked IPs: IP -> Block expiration timestamp
-    private final Map<String, Instant> blockedIps = new ConcurrentHashMap<>();
-    
+
+    private final int attackThreshold;
+    private final int blockDurationMinutes;
+    private final long bucketMillis;
+    private final int windowBuckets;
+
+    // Track violations per IP: IP -> sliding window counter
+    private final Cache<String, SlidingWindowCounter> violations;
+
+    // Track blocked IPs: IP -> Block expiration in epoch millis
+    private final Cache<String, Long> blockedIps;
+
+    private final SharedBlockList sharedBlockList;
+    private Disposable sharedBlockSubscription;
+
+    public RateLimitMonitor(@Value("${rate-limit.attack.threshold:10}") int attackThreshold,
+                            @Value("${rate-limit.attack.block-duration-minutes:15}") int blockDurationMinutes,
+                            @Value("${rate-limit.attack.detection-window-minutes:5}") int detectionWindowMinutes,
+                            @Value("${rate-limit.attack.window-buckets:10}") int windowBuckets,
+                            @Value("${rate-limit.attack.max-tracked-ips:100000}") long maxTrackedIps,
+                            @Value("${rate-limit.attack.max-blocked-ips:50000}") long maxBlockedIps,
+                            MeterRegistry meterRegistry,
+                            ObjectProvider<SharedBlockList> sharedBlockList) {
+        this.attackThreshold = attackThreshold;
+        this.blockDurationMinutes = blockDurationMinutes;
+        this.windowBuckets = windowBuckets;
+        this.bucketMillis = Math.max(1, TimeUnit.MINUTES.toMillis(detectionWindowMinutes) / windowBuckets);
+        this.sharedBlockList = sharedBlockList.getIfAvailable();
+
+        this.violations = Caffeine.newBuilder()
+                .maximumSize(maxTrackedIps)
+                .expireAfterAccess(Duration.ofMinutes(detectionWindowMinutes))
+                .build();
+        this.blockedIps = Caffeine.newBuilder()
+                .maximumSize(maxBlockedIps)
+                .expireAfter(new UntilBlockExpires())
+                .build();
+
+        Gauge.builder("rate.limit.tracked.ips", violations, Cache::estimatedSize).register(meterRegistry);
+        Gauge.builder("rate.limit.blocked.ips", blockedIps, Cache::estimatedSize).register(meterRegistry);
+    }
+
+    /**
+     * Copy blocks made by other replicas into the local block list.
+     */
+    @PostConstruct
+    void subscribeToSharedBlocks() {
+        if (sharedBlockList == null) {
+            return;
+        }
+        sharedBlockSubscription = sharedBlockList.blocks()
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1)).maxBackoff(Duration.ofMinutes(1)))
+                .subscribe(block -> {
+                    if (block.expiresAtMillis() > System.currentTimeMillis()) {
+                        blockedIps.put(block.ip(), block.expiresAtMillis());
+                    } else {
+                        blockedIps.invalidate(block.ip());
+                    }
+                });
+    }
+
+    @PreDestroy
+    void unsubscribeFromSharedBlocks() {
+        if (sharedBlockSubscription != null) {
+            sharedBlockSubscription.dispose();
+        }
+    }
+
     /**
      * Record a rate limit violation for an IP address.
-     * 
+     *
      * @param ip Client IP address
      * @param userId User ID (if authenticated)
      * @param path Request path
      */
     public void recordViolation(String ip, String userId, String path) {
-        ViolationTracker tracker = violations.computeIfAbsent(ip, k -> new ViolationTracker());
-        tracker.recordViolation();
-        
-        int count = tracker.getViolationCount();
-        
-        log.warn("Rate limit violation #{} - IP: {}, User: {}, Path: {}", 
+        long now = System.currentTimeMillis();
+        SlidingWindowCounter counter = violations.get(ip, k -> new SlidingWindowCounter(windowBuckets));
+        int count = counter.increment(now / bucketMillis);
+
+        log.warn("Rate limit violation #{} - IP: {}, User: {}, Path: {}",
                 count, ip, userId != null ? userId : "anonymous", path);
-        
+
         // Check if threshold exceeded
         if (count >= attackThreshold) {
-            blockIp(ip, userId);
+            blockIp(ip, userId, now);
         } else if (count >= attackThreshold / 2) {
             // Warning at 50% of threshold
-            log.warn("Rate limit violation warning - IP {} has {} violations (threshold: {})", 
+            log.warn("Rate limit violation warning - IP {} has {} violations (threshold: {})",
                     ip, count, attackThreshold);
         }
     }
-    
+
     /**
      * Check if an IP is currently blocked.
-     * 
+     *
      * @param ip Client IP address
      * @return true if blocked, false otherwise
      */
     public boolean isBlocked(String ip) {
-        Instant blockExpiry = blockedIps.get(ip);
-        
-        if (blockExpiry == null) {
-            return false;
-        }
-        
-        // Check if block has expired
-        if (Instant.now().isAfter(blockExpiry)) {
-            blockedIps.remove(ip);
-            violations.remove(ip);
-            log.info("Block expired for IP: {}", ip);
-            return false;
-        }
-        
-        return true;
+        Long blockExpiry = blockedIps.getIfPresent(ip);
+        return blockExpiry != null && blockExpiry > System.currentTimeMillis();
     }
-    
+
     /**
      * Get remaining block time in seconds.
-     * 
+     *
      * @param ip Client IP address
      * @return Remaining seconds, or 0 if not blocked
      */
     public long getRemainingBlockTime(String ip) {
-        Instant blockExpiry = blockedIps.get(ip);
-        
+        Long blockExpiry = blockedIps.getIfPresent(ip);
+
         if (blockExpiry == null) {
             return 0;
         }
-        
-        long remaining = blockExpiry.getEpochSecond() - Instant.now().getEpochSecond();
-        return Math.max(0, remaining);
+
+        return Math.max(0, TimeUnit.MILLISECONDS.toSeconds(blockExpiry - System.currentTimeMillis()));
     }
-    
+
     /**
      * Block an IP address for repeated violations.
-     * 
+     * The violation count starts over, so once the block expires the IP has the full threshold again.
+     *
      * @param ip Client IP address
      * @param userId User ID (if authenticated)
      */
-    private void blockIp(String ip, String userId) {
-        Instant blockExpiry = Instant.now().plusSeconds(blockDurationMinutes * 60L);
+    private void blockIp(String ip, String userId, long now) {
+        long blockExpiry = now + TimeUnit.MINUTES.toMillis(blockDurationMinutes);
         blockedIps.put(ip, blockExpiry);
-        
-        log.error("SECURITY ALERT: IP {} blocked for {} minutes due to excessive rate limit violations. User: {}", 
+        violations.invalidate(ip);
+
+        log.error("SECURITY ALERT: IP {} blocked for {} minutes due to excessive rate limit violations. User: {}",
                 ip, blockDurationMinutes, userId != null ? userId : "anonymous");
-        
+
+        if (sharedBlockList != null) {
+            sharedBlockList.publish(ip, blockExpiry).subscribe();
+        }
+
         // TODO: Send alert to monitoring system (e.g., Slack, email, PagerDuty)
         // alertService.sendSecurityAlert("Rate Limit Attack Detected", ip, userId);
     }
-    
+
     /**
      * Manually unblock an IP address (for administrative purposes).
-     * 
+     *
      * @param ip Client IP address
      */
     public void unblockIp(String ip) {
-        blockedIps.remove(ip);
-        violations.remove(ip);
+        blockedIps.invalidate(ip);
+        violations.invalidate(ip);
+        if (sharedBlockList != null) {
+            sharedBlockList.publish(ip, 0).subscribe();
+        }
         log.info("IP {} manually unblocked", ip);
     }
-    
+
     /**
      * Get current violation statistics.
-     * 
-     * @return Map of IP addresses to violation counts
+     *
+     * @return Map of IP addresses to violation counts within the detection window
      */
     public Map<String, Integer> getViolationStats() {
-        Map<String, Integer> stats = new ConcurrentHashMap<>();
-        violations.forEach((ip, tracker) -> stats.put(ip, tracker.getViolationCount()));
+        long bucket = System.currentTimeMillis() / bucketMillis;
+        Map<String, Integer> stats = new HashMap<>();
+        violations.asMap().forEach((ip, counter) -> {
+            int count = counter.total(bucket);
+            if (count > 0) {
+                stats.put(ip, count);
+            }
+        });
         return stats;
     }
-    
+
     /**
-     * Clean up expired violations (called periodically).
+     * Clean up expired violations and blocks.
+     * Expired entries are also evicted as part of normal cache maintenance, so calling this is optional.
      */
     public void cleanupExpiredViolations() {
-        Instant cutoff = Instant.now().minusSeconds(detectionWindowMinutes * 60L);
-        
-        violations.entrySet().removeIf(entry -> {
-            ViolationTracker tracker = entry.getValue();
-            if (tracker.getLastViolation().isBefore(cutoff)) {
-                log.debug("Cleaning up expired violations for IP: {}", entry.getKey());
-                return true;
+        violations.cleanUp();
+        blockedIps.cleanUp();
+    }
+
+    /**
+     * Violation count over the last N time buckets.
+     *
+     * Each slot packs the bucket number (upper 48 bits) and that bucket's count (lower 16 bits) into one long,
+     * so moving a slot to a new bucket and counting in it is a single CAS without locks.
+     */
+    static final class SlidingWindowCounter {
+
+        private static final int COUNT_BITS = 16;
+        private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+        private final AtomicLongArray slots;
+
+        SlidingWindowCounter(int buckets) {
+            this.slots = new AtomicLongArray(buckets);
+        }
+
+        /**
+         * Count one violation in the given bucket and return the total over the window.
+         */
+        int increment(long bucket) {
+            int index = (int) (bucket % slots.length());
+            while (true) {
+                long current = slots.get(index);
+                long next;
+                if (current >>> COUNT_BITS == bucket) {
+                    next = (current & COUNT_MASK) == COUNT_MASK ? current : current + 1;
+                } else {
+                    next = (bucket << COUNT_BITS) | 1;
+                }
+                if (slots.compareAndSet(index, current, next)) {
+                    return total(bucket);
+                }
             }
-            return false;
-        });
+        }
+
+        /**
+         * Sum of the buckets that are still inside the window ending at the given bucket.
+         */
+        int total(long bucket) {
+            int total = 0;
+            for (int i = 0; i < slots.length(); i++) {
+                long slot = slots.get(i);
+                long slotBucket = slot >>> COUNT_BITS;
+                if (slotBucket <= bucket && bucket - slotBucket < slots.length()) {
+                    total += (int) (slot & COUNT_MASK);
+                }
+            }
+            return total;
+        }
     }
-    
+
     /**
-     * Inner class to track violations for an IP address.
+     * Keeps a block exactly until its expiry time.
      */
-    private static class ViolationTracker {
-        private final AtomicInteger count = new AtomicInteger(0);
-        private volatile Instant lastViolation = Instant.now();
-        
-        public void recordViolation() {
-            count.incrementAndGet();
-            lastViolation = Instant.now();
+    private static final class UntilBlockExpires implements Expiry<String, Long> {
+
+        @Override
+        public long expireAfterCreate(String ip, Long expiresAtMillis, long currentTime) {
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, expiresAtMillis - System.currentTimeMillis()));
         }
-        
-        public int getViolationCount() {
-            return count.get();
+
+        @Override
+        public long expireAfterUpdate(String ip, Long expiresAtMillis, long currentTime, long currentDuration) {
+            return expireAfterCreate(ip, expiresAtMillis, currentTime);
         }
-        
-        public Instant getLastViolation() {
-            return lastViolation;
+
+        @Override
+        public long expireAfterRead(String ip, Long expiresAtMillis, long currentTime, long currentDuration) {
+            return currentDuration;
         }
     }
 }
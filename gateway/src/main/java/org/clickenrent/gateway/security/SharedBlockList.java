@@ -0,0 +1,78 @@
+package org.clickenrent.gateway.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Block list shared between gateway replicas through Redis.
+ *
+ * A block is stored as rate_limit:blocked:{ip} (value: expiry in epoch millis, Redis TTL: block duration)
+ * and announced on the rate_limit:blocked channel, so every replica can copy it into its local cache.
+ * Replicas never read Redis on the request path.
+ *
+ * Enable with: rate-limit.attack.shared-block-list.enabled=true
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "rate-limit.attack.shared-block-list.enabled", havingValue = "true")
+public class SharedBlockList {
+
+    static final String KEY_PREFIX = "rate_limit:blocked:";
+    static final String CHANNEL = "rate_limit:blocked";
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+
+    public SharedBlockList(ReactiveStringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    /**
+     * Block the IP on all replicas until the given time; 0 unblocks it.
+     */
+    public Mono<Void> publish(String ip, long expiresAtMillis) {
+        long ttlMillis = expiresAtMillis - System.currentTimeMillis();
+        Mono<Boolean> store = ttlMillis > 0
+                ? redisTemplate.opsForValue().set(KEY_PREFIX + ip, String.valueOf(expiresAtMillis), Duration.ofMillis(ttlMillis))
+                : redisTemplate.delete(KEY_PREFIX + ip).map(deleted -> deleted > 0);
+        return store
+                .then(redisTemplate.convertAndSend(CHANNEL, ip + "|" + Math.max(0, expiresAtMillis)))
+                .doOnError(e -> log.warn("Failed to share block of IP {}: {}", ip, e.getMessage()))
+                .onErrorResume(e -> Mono.empty())
+                .then();
+    }
+
+    /**
+     * Blocks that already exist, followed by every block or unblock published from now on.
+     */
+    public Flux<Block> blocks() {
+        Flux<Block> existing = redisTemplate.scan(ScanOptions.scanOptions().match(KEY_PREFIX + "*").count(500).build())
+                .flatMap(key -> redisTemplate.opsForValue().get(key)
+                        .map(value -> new Block(key.substring(KEY_PREFIX.length()), Long.parseLong(value))));
+        Flux<Block> published = redisTemplate.listenToChannel(CHANNEL)
+                .map(message -> Block.parse(message.getMessage()))
+                .filter(block -> block != null);
+        return Flux.merge(published, existing);
+    }
+
+    public record Block(String ip, long expiresAtMillis) {
+
+        static Block parse(String message) {
+            int separator = message.lastIndexOf('|');
+            if (separator <= 0) {
+                return null;
+            }
+            try {
+                return new Block(message.substring(0, separator), Long.parseLong(message.substring(separator + 1)));
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package org.clickenrent.gateway.util;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import lombok.extern.slf4j.Slf4j;
@@ -8,18 +11,33 @@ import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import javax.crypto.spec.SecretKeySpec;
+import java.time.Duration;
 import java.util.Base64;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 @Slf4j
 @Component
 public class JwtUtil {
 
+    private static final int MAX_CACHED_TOKENS = 10_000;
+    private static final Duration MAX_CACHED_CLAIMS_AGE = Duration.ofMinutes(5);
+
     @Value("${jwt.secret}")
     private String secret;
 
+    /**
+     * Claims of recently verified tokens. The filter reads several claims per request and clients send the
+     * same token many times, so each token is parsed and verified once; entries never outlive the token.
+     * Invalid tokens throw and are not cached.
+     */
+    private final Cache<String, Claims> verifiedClaims = Caffeine.newBuilder()
+            .maximumSize(MAX_CACHED_TOKENS)
+            .expireAfter(new ClaimsExpiry())
+            .build();
+
     /**
      * Get the signing key from the secret
      * Uses Base64 decoding to match auth-service and rental-service configuration
@@ -34,11 +52,11 @@ public class JwtUtil {
      */
     public Claims extractAllClaims(String token) {
         try {
-            return Jwts.parser()
+            return verifiedClaims.get(token, key -> Jwts.parser()
                     .verifyWith(getSigningKey())
                     .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
+                    .parseSignedClaims(key)
+                    .getPayload());
         } catch (Exception e) {
             log.error("Error extracting claims from token: {}", e.getMessage());
             throw e;
@@ -60,6 +78,13 @@ public class JwtUtil {
         return extractClaim(token, claims -> claims.get("userId", Long.class));
     }
 
+    /**
+     * Extract subject from token
+     */
+    public String extractSubject(String token) {
+        return extractClaim(token, Claims::getSubject);
+    }
+
     /**
      * Extract email from token
      */
@@ -90,6 +115,15 @@ public class JwtUtil {
         return extractClaim(token, claims -> (List<String>) claims.get("companyExternalIds"));
     }
 
+    /**
+     * Extract company IDs from token
+     */
+    public List<Long> extractCompanyIds(String token) {
+        return extractClaim(token, claims -> claims.get("companyIds") instanceof List<?> companyIds
+                ? companyIds.stream().filter(Number.class::isInstance).map(id -> ((Number) id).longValue()).toList()
+                : List.of());
+    }
+
     /**
      * Extract expiration date from token
      */
@@ -131,5 +165,29 @@ public class JwtUtil {
         }
         return null;
     }
-}
 
+    /**
+     * Keeps claims for MAX_CACHED_CLAIMS_AGE, or until the token expires if that is sooner.
+     */
+    private static class ClaimsExpiry implements Expiry<String, Claims> {
+
+        @Override
+        public long expireAfterCreate(String token, Claims claims, long currentTime) {
+            if (claims.getExpiration() == null) {
+                return MAX_CACHED_CLAIMS_AGE.toNanos();
+            }
+            long untilExpiry = TimeUnit.MILLISECONDS.toNanos(claims.getExpiration().getTime() - System.currentTimeMillis());
+            return Math.max(0, Math.min(untilExpiry, MAX_CACHED_CLAIMS_AGE.toNanos()));
+        }
+
+        @Override
+        public long expireAfterUpdate(String token, Claims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(token, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String token, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
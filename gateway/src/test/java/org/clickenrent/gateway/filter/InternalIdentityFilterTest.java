@@ -0,0 +1,113 @@
+package org.clickenrent.gateway.filter;
+
+import org.clickenrent.contracts.security.InternalIdentity;
+import org.clickenrent.contracts.security.InternalIdentityCodec;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Unit tests for InternalIdentityFilter.
+ */
+@ExtendWith(MockitoExtension.class)
+class InternalIdentityFilterTest {
+
+    private static final String SECRET = "internal-identity-secret-for-tests-only";
+
+    @Mock
+    private GatewayFilterChain chain;
+
+    private final InternalIdentity identity = new InternalIdentity("user@example.com", 42L, "ext-42",
+            "user@example.com", List.of("B2B"), List.of(7L), List.of("c1", "c2"), Instant.now().plusSeconds(60));
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(chain.filter(any(ServerWebExchange.class))).thenReturn(Mono.empty());
+    }
+
+    @Test
+    void filter_whenEnabled_addsAssertionForAuthenticatedUser() {
+        InternalIdentityFilter filter = new InternalIdentityFilter(true, SECRET, Duration.ofMinutes(5));
+        ServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/bikes").build());
+        exchange.getAttributes().put(InternalIdentityFilter.IDENTITY_ATTRIBUTE, identity);
+
+        filter.filter(exchange, chain).block();
+
+        String assertion = forwardedHeaders().getFirst(InternalIdentityCodec.HEADER);
+        InternalIdentity decoded = new InternalIdentityCodec(SECRET, Duration.ofMinutes(5), Clock.systemUTC())
+                .decode(assertion).orElseThrow();
+        assertThat(decoded.userId()).isEqualTo(42L);
+        assertThat(decoded.userExternalId()).isEqualTo("ext-42");
+        assertThat(decoded.roles()).containsExactly("B2B");
+        assertThat(decoded.companyIds()).containsExactly(7L);
+        assertThat(decoded.companyExternalIds()).containsExactly("c1", "c2");
+        assertThat(decoded.tokenExpiresAt()).isEqualTo(identity.tokenExpiresAt().truncatedTo(ChronoUnit.SECONDS));
+    }
+
+    @Test
+    void filter_removesClientSuppliedAssertion() {
+        InternalIdentityFilter filter = new InternalIdentityFilter(true, SECRET, Duration.ofMinutes(5));
+        String forged = new InternalIdentityCodec(SECRET, Duration.ofMinutes(5), Clock.systemUTC()).encode(identity);
+        ServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/bikes")
+                .header(InternalIdentityCodec.HEADER, forged).build());
+
+        filter.filter(exchange, chain).block();
+
+        assertThat(forwardedHeaders().containsKey(InternalIdentityCodec.HEADER)).isFalse();
+    }
+
+    @Test
+    void filter_whenDisabled_doesNotAddAssertion() {
+        InternalIdentityFilter filter = new InternalIdentityFilter(false, "", Duration.ofMinutes(5));
+        ServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/bikes").build());
+        exchange.getAttributes().put(InternalIdentityFilter.IDENTITY_ATTRIBUTE, identity);
+
+        filter.filter(exchange, chain).block();
+
+        assertThat(forwardedHeaders().containsKey(InternalIdentityCodec.HEADER)).isFalse();
+    }
+
+    @Test
+    void assertion_whenTamperedOrExpired_isRejected() {
+        Instant now = Instant.now();
+        InternalIdentityCodec codec = new InternalIdentityCodec(SECRET, Duration.ofMinutes(5), Clock.fixed(now, ZoneOffset.UTC));
+        String assertion = codec.encode(identity);
+
+        String otherSecret = new InternalIdentityCodec(SECRET + "-other", Duration.ofMinutes(5), Clock.systemUTC()).encode(identity);
+        InternalIdentityCodec later = new InternalIdentityCodec(SECRET, Duration.ofMinutes(5),
+                Clock.fixed(now.plusSeconds(61), ZoneOffset.UTC));
+
+        assertThat(codec.decode(assertion)).isPresent();
+        assertThat(codec.decode(otherSecret)).isEmpty();
+        assertThat(codec.decode(assertion.substring(1))).isEmpty();
+        // Expires with the JWT, which is sooner than the max age
+        assertThat(later.decode(assertion)).isEmpty();
+    }
+
+    private HttpHeaders forwardedHeaders() {
+        ArgumentCaptor<ServerWebExchange> exchangeCaptor = ArgumentCaptor.forClass(ServerWebExchange.class);
+        verify(chain).filter(exchangeCaptor.capture());
+        return exchangeCaptor.getValue().getRequest().getHeaders();
+    }
+}
@@ -0,0 +1,218 @@
+package org.clickenrent.gateway.filter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for ResponseCacheFilter.
+ */
+class ResponseCacheFilterTest {
+
+    private static final String ROUTE = "bike-types";
+    private static final String BODY = "[{\"id\":1,\"name\":\"E-bike\"}]";
+
+    private MeterRegistry meterRegistry;
+    private GatewayFilter filter;
+    private AtomicInteger backendCalls;
+    private String backendCacheControl;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        ResponseCacheFilter responseCache = new ResponseCacheFilter(meterRegistry, true, 1, 64,
+                "no-cache, no-store, max-age=0, must-revalidate");
+        filter = responseCache.forRoute(ROUTE, Duration.ofMinutes(10));
+        backendCalls = new AtomicInteger();
+        backendCacheControl = "no-cache, no-store, max-age=0, must-revalidate";
+    }
+
+    @Test
+    void get_SecondRequest_IsServedFromCache() {
+        MockServerWebExchange first = get("/api/v1/bike-types");
+        filter.filter(first, backend()).block();
+        MockServerWebExchange second = get("/api/v1/bike-types");
+        filter.filter(second, backend()).block();
+
+        assertThat(backendCalls).hasValue(1);
+        assertThat(first.getResponse().getBodyAsString().block()).isEqualTo(BODY);
+        assertThat(second.getResponse().getBodyAsString().block()).isEqualTo(BODY);
+        assertThat(second.getResponse().getHeaders().getFirst(ResponseCacheFilter.CACHE_HEADER)).isEqualTo("HIT");
+        assertThat(second.getResponse().getHeaders().getETag())
+                .isEqualTo(first.getResponse().getHeaders().getETag())
+                .startsWith("W/");
+        assertThat(count("miss")).isEqualTo(1);
+        assertThat(count("hit")).isEqualTo(1);
+    }
+
+    @Test
+    void get_DifferentTenantOrQuery_IsCachedSeparately() {
+        filter.filter(get("/api/v1/bike-types", "company-a"), backend()).block();
+        filter.filter(get("/api/v1/bike-types", "company-b"), backend()).block();
+        filter.filter(get("/api/v1/bike-types?page=1", "company-a"), backend()).block();
+
+        assertThat(backendCalls).hasValue(3);
+    }
+
+    @Test
+    void get_MatchingIfNoneMatch_Returns304() {
+        MockServerWebExchange first = get("/api/v1/bike-types");
+        filter.filter(first, backend()).block();
+        String etag = first.getResponse().getHeaders().getETag();
+
+        MockServerWebExchange revalidation = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/bike-types")
+                .header("X-Company-External-Ids", "company-a")
+                .ifNoneMatch(etag)
+                .build());
+        filter.filter(revalidation, backend()).block();
+
+        assertThat(revalidation.getResponse().getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(backendCalls).hasValue(1);
+        assertThat(count("not_modified")).isEqualTo(1);
+    }
+
+    @Test
+    void get_PrivateBackendResponse_IsNotCached() {
+        backendCacheControl = "private, max-age=60";
+
+        filter.filter(get("/api/v1/bike-types"), backend()).block();
+        filter.filter(get("/api/v1/bike-types"), backend()).block();
+
+        assertThat(backendCalls).hasValue(2);
+    }
+
+    @Test
+    void write_OnSameRoute_EvictsCachedResponses() {
+        filter.filter(get("/api/v1/bike-types"), backend()).block();
+        MockServerWebExchange post = MockServerWebExchange.from(MockServerHttpRequest
+                .method(HttpMethod.POST, "/api/v1/bike-types").build());
+        filter.filter(post, exchange -> {
+            exchange.getResponse().setStatusCode(HttpStatus.CREATED);
+            return exchange.getResponse().setComplete();
+        }).block();
+        filter.filter(get("/api/v1/bike-types"), backend()).block();
+
+        assertThat(backendCalls).hasValue(2);
+    }
+
+    @Test
+    void headAndOptions_OnSameRoute_DoNotEvictCachedResponses() {
+        filter.filter(get("/api/v1/bike-types"), backend()).block();
+        for (HttpMethod method : new HttpMethod[] {HttpMethod.HEAD, HttpMethod.OPTIONS}) {
+            MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest
+                    .method(method, "/api/v1/bike-types").build());
+            filter.filter(exchange, ex -> {
+                ex.getResponse().setStatusCode(HttpStatus.OK);
+                return ex.getResponse().setComplete();
+            }).block();
+        }
+        MockServerWebExchange cached = get("/api/v1/bike-types");
+        filter.filter(cached, backend()).block();
+
+        assertThat(backendCalls).hasValue(1);
+        assertThat(cached.getResponse().getHeaders().getFirst(ResponseCacheFilter.CACHE_HEADER)).isEqualTo("HIT");
+    }
+
+    @Test
+    void concurrentMisses_AreCoalescedIntoOneBackendCall() throws Exception {
+        Sinks.Empty<Void> release = Sinks.empty();
+        GatewayFilterChain slowBackend = exchange -> release.asMono().then(backend().filter(exchange));
+
+        MockServerWebExchange leader = get("/api/v1/bike-types");
+        MockServerWebExchange follower = get("/api/v1/bike-types");
+        CompletableFuture<Void> both = Mono.when(filter.filter(leader, slowBackend), filter.filter(follower, slowBackend))
+                .toFuture();
+        release.tryEmitEmpty();
+        both.get(5, TimeUnit.SECONDS);
+
+        assertThat(backendCalls).hasValue(1);
+        assertThat(follower.getResponse().getBodyAsString().block()).isEqualTo(BODY);
+        assertThat(count("coalesced")).isEqualTo(1);
+    }
+
+    @Test
+    void get_DeclaredContentLengthAboveMaxEntry_IsNotCached() {
+        byte[] large = new byte[65 * 1024];
+        GatewayFilterChain backend = exchange -> {
+            backendCalls.incrementAndGet();
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(HttpStatus.OK);
+            response.getHeaders().setContentLength(large.length);
+            return response.writeWith(Mono.just(response.bufferFactory().wrap(large)));
+        };
+
+        filter.filter(get("/api/v1/bike-types"), backend).block();
+        MockServerWebExchange second = get("/api/v1/bike-types");
+        filter.filter(second, backend).block();
+
+        assertThat(backendCalls).hasValue(2);
+        assertThat(second.getResponse().getHeaders().getETag()).isNull();
+        assertThat(count("miss")).isEqualTo(2);
+    }
+
+    @Test
+    void get_StreamedBodyAboveMaxEntry_IsPassedThroughAndNotCached() {
+        GatewayFilterChain backend = exchange -> {
+            backendCalls.incrementAndGet();
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(HttpStatus.OK);
+            return response.writeWith(Flux.range(0, 10)
+                    .map(i -> response.bufferFactory().wrap(new byte[10 * 1024])));
+        };
+
+        MockServerWebExchange first = get("/api/v1/bike-types");
+        filter.filter(first, backend).block();
+        filter.filter(get("/api/v1/bike-types"), backend).block();
+
+        assertThat(backendCalls).hasValue(2);
+        assertThat(DataBufferUtils.join(first.getResponse().getBody()).block().readableByteCount())
+                .isEqualTo(100 * 1024);
+        assertThat(count("miss")).isEqualTo(2);
+    }
+
+    private GatewayFilterChain backend() {
+        return exchange -> {
+            backendCalls.incrementAndGet();
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(HttpStatus.OK);
+            response.getHeaders().set(HttpHeaders.CACHE_CONTROL, backendCacheControl);
+            response.getHeaders().set(HttpHeaders.CONTENT_TYPE, "application/json");
+            return response.writeWith(Mono.just(response.bufferFactory().wrap(BODY.getBytes(StandardCharsets.UTF_8))));
+        };
+    }
+
+    private MockServerWebExchange get(String uri) {
+        return get(uri, "company-a");
+    }
+
+    private MockServerWebExchange get(String uri, String companies) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get(uri)
+                .header("X-Company-External-Ids", companies)
+                .build());
+    }
+
+    private double count(String result) {
+        return meterRegistry.counter(ResponseCacheFilter.METRIC_NAME, "route", ROUTE, "result", result).count();
+    }
+}
@@ -1,5 +1,6 @@
 package org.clickenrent.gateway.handler;
 
+import org.clickenrent.gateway.ratelimit.ClientIp;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.core.io.buffer.DataBuffer;
@@ -23,7 +24,7 @@ class RateLimitResponseHandlerTest {
 
     @BeforeEach
     void setUp() {
-        handler = new RateLimitResponseHandler();
+        handler = new RateLimitResponseHandler(new ClientIp(1));
     }
 
     @Test
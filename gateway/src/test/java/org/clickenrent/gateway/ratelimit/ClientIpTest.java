@@ -0,0 +1,61 @@
+package org.clickenrent.gateway.ratelimit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import java.net.InetSocketAddress;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for ClientIp.
+ */
+class ClientIpTest {
+
+    private static final InetSocketAddress INGRESS = new InetSocketAddress("10.0.0.3", 443);
+
+    @Test
+    void of_WithSpoofedLeftmostEntry_UsesEntryAppendedByTrustedProxy() {
+        MockServerWebExchange exchange = exchange("1.2.3.4, 203.0.113.7", INGRESS);
+
+        assertThat(new ClientIp(1).of(exchange)).isEqualTo("203.0.113.7");
+    }
+
+    @Test
+    void of_WithTwoTrustedProxies_UsesSecondEntryFromTheRight() {
+        MockServerWebExchange exchange = exchange("1.2.3.4, 203.0.113.7, 10.0.0.2", INGRESS);
+
+        assertThat(new ClientIp(2).of(exchange)).isEqualTo("203.0.113.7");
+    }
+
+    @Test
+    void of_WithoutTrustedProxies_IgnoresHeader() {
+        MockServerWebExchange exchange = exchange("1.2.3.4", new InetSocketAddress("2001:db8::1", 443));
+
+        assertThat(new ClientIp(0).of(exchange)).isEqualTo("2001:db8:0:0:0:0:0:1");
+    }
+
+    @Test
+    void of_WithoutForwardedFor_ReturnsRemoteAddress() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/bikes")
+                .remoteAddress(INGRESS)
+                .build());
+
+        assertThat(new ClientIp(1).of(exchange)).isEqualTo("10.0.0.3");
+    }
+
+    @Test
+    void of_WithoutAnyAddress_ReturnsUnknown() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/bikes").build());
+
+        assertThat(new ClientIp(1).of(exchange)).isEqualTo("unknown");
+    }
+
+    private MockServerWebExchange exchange(String forwardedFor, InetSocketAddress remoteAddress) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/bikes")
+                .header("X-Forwarded-For", forwardedFor)
+                .remoteAddress(remoteAddress)
+                .build());
+    }
+}
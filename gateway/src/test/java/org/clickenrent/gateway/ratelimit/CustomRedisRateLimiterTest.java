@@ -0,0 +1,142 @@
+package org.clickenrent.gateway.ratelimit;
+
+import org.clickenrent.gateway.ratelimit.CustomRedisRateLimiter.Window;
+import org.clickenrent.gateway.ratelimit.RateLimitKey.Scope;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cloud.gateway.filter.ratelimit.RateLimiter;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for CustomRedisRateLimiter and RateLimitKey.
+ */
+@ExtendWith(MockitoExtension.class)
+class CustomRedisRateLimiterTest {
+
+    private static final String KEY = "user:42|ip:2001:db8::1|tenant:acme";
+
+    @Mock
+    private ReactiveStringRedisTemplate redisTemplate;
+
+    @Test
+    void multiWindow_EvaluatesAllWindowsInOneScriptCall() {
+        CustomRedisRateLimiter limiter = multiWindowLimiter();
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), anyList()))
+                .thenReturn(Flux.just(List.of(1L, 5L, 6000L, 1L, 0L)));
+
+        RateLimiter.Response response = limiter.isAllowed("bikes", KEY).block();
+
+        ArgumentCaptor<List<String>> keys = listCaptor();
+        ArgumentCaptor<List<String>> args = listCaptor();
+        verify(redisTemplate).execute(any(RedisScript.class), keys.capture(), args.capture());
+        assertThat(keys.getValue()).containsExactly(
+                "request_rate_limiter.{user:42}.user-1s",
+                "request_rate_limiter.{tenant:acme}.tenant-1m");
+        // now, requested, then rate per ms, capacity and TTL per window
+        assertThat(args.getValue()).hasSize(8);
+        assertThat(Long.parseLong(args.getValue().get(0))).isGreaterThan(1_000_000_000_000L);
+        assertThat(args.getValue().subList(2, 5)).containsExactly("0.05", "100", "3000");
+        assertThat(args.getValue().subList(5, 8)).containsExactly("0.1", "6000", "61000");
+
+        assertThat(response.isAllowed()).isTrue();
+        assertThat(response.getHeaders())
+                .containsEntry(CustomRedisRateLimiter.REMAINING_HEADER, "5")
+                .containsEntry(CustomRedisRateLimiter.BURST_CAPACITY_HEADER, "6000")
+                .containsEntry(CustomRedisRateLimiter.REPLENISH_RATE_HEADER, "100")
+                .containsEntry(CustomRedisRateLimiter.WINDOW_HEADER, "tenant-1m")
+                .containsEntry(CustomRedisRateLimiter.WINDOW_LIMIT_HEADER, "6000")
+                .containsEntry(CustomRedisRateLimiter.WINDOW_PERIOD_HEADER, "60")
+                .doesNotContainKey(CustomRedisRateLimiter.RETRY_AFTER_HEADER);
+    }
+
+    @Test
+    void multiWindow_Denied_ReportsRetryAfterInSeconds() {
+        CustomRedisRateLimiter limiter = multiWindowLimiter();
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), anyList()))
+                .thenReturn(Flux.just(List.of(0L, 0L, 100L, 0L, 1200L)));
+
+        RateLimiter.Response response = limiter.isAllowed("bikes", KEY).block();
+
+        assertThat(response.isAllowed()).isFalse();
+        assertThat(response.getHeaders())
+                .containsEntry(CustomRedisRateLimiter.WINDOW_HEADER, "user-1s")
+                .containsEntry(CustomRedisRateLimiter.RETRY_AFTER_HEADER, "2");
+    }
+
+    @Test
+    void multiWindow_SkipsWindowsWithoutIdentity_AndUserFallsBackToIp() {
+        CustomRedisRateLimiter limiter = multiWindowLimiter();
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), anyList()))
+                .thenReturn(Flux.just(List.of(1L, 99L, 100L, 0L, 0L)));
+
+        limiter.isAllowed("bikes", "ip:10.0.0.1").block();
+
+        ArgumentCaptor<List<String>> keys = listCaptor();
+        verify(redisTemplate).execute(any(RedisScript.class), keys.capture(), anyList());
+        assertThat(keys.getValue()).containsExactly("request_rate_limiter.{ip:10.0.0.1}.user-1s");
+    }
+
+    @Test
+    void singleBucket_CountsOnPrimaryIdentityOnly() {
+        CustomRedisRateLimiter limiter = new CustomRedisRateLimiter(20, 30, 30, redisTemplate);
+        limiter.setInitialized(true);
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), anyList()))
+                .thenReturn(Flux.just(List.of(1L, 29L, 30L, 20L)));
+
+        RateLimiter.Response response = limiter.isAllowed("auth", KEY).block();
+
+        ArgumentCaptor<List<String>> keys = listCaptor();
+        verify(redisTemplate).execute(any(RedisScript.class), keys.capture(), anyList());
+        assertThat(keys.getValue()).containsExactly(
+                "request_rate_limiter.{user:42}.tokens", "request_rate_limiter.{user:42}.timestamp");
+        assertThat(response.getHeaders())
+                .containsEntry(CustomRedisRateLimiter.REMAINING_HEADER, "29")
+                .containsEntry(CustomRedisRateLimiter.REPLENISH_RATE_HEADER, "20")
+                .doesNotContainKey(CustomRedisRateLimiter.WINDOW_LIMIT_HEADER);
+    }
+
+    @Test
+    void window_ReplenishRateIsPerSecond() {
+        assertThat(Window.of(Scope.USER, 50, Duration.ofSeconds(1)).replenishRatePerSecond()).isEqualTo("50");
+        assertThat(Window.of(Scope.TENANT, 30, Duration.ofMinutes(1)).replenishRatePerSecond()).isEqualTo("0.5");
+        assertThat(Window.of(Scope.IP, 3600, Duration.ofHours(1)).replenishRatePerSecond()).isEqualTo("1");
+    }
+
+    @Test
+    void rateLimitKey_ParsesIpv6AndSkipsEmptyParts() {
+        assertThat(RateLimitKey.of("user", null, "ip", "2001:db8::1", "tenant", ""))
+                .isEqualTo("ip:2001:db8::1");
+        assertThat(RateLimitKey.parse(KEY))
+                .containsEntry("user", "42")
+                .containsEntry("ip", "2001:db8::1")
+                .containsEntry("tenant", "acme");
+        assertThat(RateLimitKey.primary(KEY)).isEqualTo("user:42");
+    }
+
+    private CustomRedisRateLimiter multiWindowLimiter() {
+        CustomRedisRateLimiter limiter = new CustomRedisRateLimiter(List.of(
+                Window.of(Scope.USER, 50, Duration.ofSeconds(1)).withCapacity(100),
+                Window.of(Scope.TENANT, 6000, Duration.ofMinutes(1))), redisTemplate);
+        limiter.setInitialized(true);
+        return limiter;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ArgumentCaptor<List<String>> listCaptor() {
+        return ArgumentCaptor.forClass((Class<List<String>>) (Class<?>) List.class);
+    }
+}
@@ -0,0 +1,199 @@
+package org.clickenrent.gateway.resilience;
+
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * Unit tests for BackendResilienceFilter.
+ */
+class BackendResilienceFilterTest {
+
+    private ResilienceProperties properties;
+    private MeterRegistry meterRegistry;
+    private BackendResilienceFilter filter;
+    private AtomicInteger backendCalls;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ResilienceProperties();
+        properties.getDefaults().setTimeout(Duration.ofMillis(200));
+        properties.getDefaults().setSlidingWindowSize(2);
+        properties.getDefaults().setMinimumNumberOfCalls(2);
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new BackendResilienceFilter(properties, CircuitBreakerRegistry.ofDefaults(),
+                BulkheadRegistry.ofDefaults(), meterRegistry);
+        backendCalls = new AtomicInteger();
+    }
+
+    @Test
+    void serverErrors_OpenCircuit_AndFurtherRequestsFailFast() {
+        GatewayFilterChain failing = respondWith(HttpStatus.INTERNAL_SERVER_ERROR);
+        filter.filter(exchange(HttpMethod.GET), failing).block();
+        filter.filter(exchange(HttpMethod.GET), failing).block();
+
+        MockServerWebExchange rejected = exchange(HttpMethod.GET);
+        filter.filter(rejected, failing).block();
+
+        assertThat(backendCalls).hasValue(2);
+        assertThat(rejected.getResponse().getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(rejected.getResponse().getHeaders().getFirst("Retry-After")).isEqualTo("30");
+        assertThat(rejected.getResponse().getBodyAsString().block()).contains("rental-service");
+        assertThat(fallbacks("circuit_open")).isEqualTo(1);
+    }
+
+    @Test
+    void slowBackend_TimesOutWith504() {
+        MockServerWebExchange exchange = exchange(HttpMethod.POST);
+
+        filter.filter(exchange, hanging()).block(Duration.ofSeconds(5));
+
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.GATEWAY_TIMEOUT);
+        assertThat(fallbacks("timeout")).isEqualTo(1);
+    }
+
+    @Test
+    void routeClassTimeout_OverridesBackendTimeout() {
+        ResilienceProperties.RouteClass reference = new ResilienceProperties.RouteClass();
+        reference.setTimeout(Duration.ofSeconds(2));
+        reference.getRoutes().add("bikes");
+        properties.getRouteClasses().put("reference-data", reference);
+
+        MockServerWebExchange exchange = exchange(HttpMethod.GET);
+        GatewayFilterChain slow = e -> Mono.delay(Duration.ofMillis(400))
+                .then(respondWith(HttpStatus.OK).filter(e));
+        filter.filter(exchange, slow).block(Duration.ofSeconds(5));
+
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+
+    @Test
+    void get_WithAttemptTimeout_IsSentAgainWhenFirstAttemptStalls() {
+        properties.getDefaults().setAttemptTimeout(Duration.ofMillis(50));
+        MockServerWebExchange exchange = exchange(HttpMethod.GET);
+        GatewayFilterChain firstStalls = e -> backendCalls.incrementAndGet() == 1
+                ? Mono.never()
+                : respond(e, HttpStatus.OK);
+
+        filter.filter(exchange, firstStalls).block(Duration.ofSeconds(5));
+
+        assertThat(backendCalls).hasValue(2);
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(meterRegistry.counter(BackendResilienceFilter.RETRY_METRIC, "backend", "rental-service").count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void post_IsNeverRetried() {
+        properties.getDefaults().setAttemptTimeout(Duration.ofMillis(50));
+        MockServerWebExchange exchange = exchange(HttpMethod.POST);
+
+        filter.filter(exchange, hanging()).block(Duration.ofSeconds(5));
+
+        assertThat(backendCalls).hasValue(1);
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.GATEWAY_TIMEOUT);
+    }
+
+    @Test
+    void get_OnNoRetryPath_IsNotCancelledAfterAttemptTimeout() {
+        properties.getDefaults().setAttemptTimeout(Duration.ofMillis(50));
+        properties.getNoRetryPaths().add("/api/v1/bikes/**");
+        MockServerWebExchange exchange = exchange(HttpMethod.GET);
+        GatewayFilterChain slow = e -> Mono.delay(Duration.ofMillis(100))
+                .then(respondWith(HttpStatus.OK).filter(e));
+
+        filter.filter(exchange, slow).block(Duration.ofSeconds(5));
+
+        assertThat(backendCalls).hasValue(1);
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+
+    @Test
+    void bulkheadFull_RejectsWith503() {
+        properties.getDefaults().setMaxConcurrentCalls(1);
+        properties.getDefaults().setTimeout(Duration.ofSeconds(10));
+        Disposable inFlight = filter.filter(exchange(HttpMethod.GET), hanging()).subscribe();
+
+        MockServerWebExchange rejected = exchange(HttpMethod.GET);
+        filter.filter(rejected, hanging()).block(Duration.ofSeconds(5));
+        inFlight.dispose();
+
+        assertThat(backendCalls).hasValue(1);
+        assertThat(rejected.getResponse().getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(fallbacks("bulkhead_full")).isEqualTo(1);
+    }
+
+    @Test
+    void streamingRoute_ReleasesBulkheadOnceResponseIsCommitted() {
+        properties.getDefaults().setMaxConcurrentCalls(1);
+        properties.getDefaults().setTimeout(Duration.ofSeconds(10));
+        properties.getStreamingRoutes().add("bikes");
+        GatewayFilterChain openStream = exchange -> {
+            backendCalls.incrementAndGet();
+            exchange.getResponse().setStatusCode(HttpStatus.OK);
+            return exchange.getResponse().writeWith(Mono.just(exchange.getResponse().bufferFactory()
+                    .wrap("data: {}\n\n".getBytes(StandardCharsets.UTF_8)))).then(Mono.never());
+        };
+        Disposable first = filter.filter(exchange(HttpMethod.GET), openStream).subscribe();
+
+        MockServerWebExchange second = exchange(HttpMethod.GET);
+        Disposable secondStream = filter.filter(second, openStream).subscribe();
+        first.dispose();
+        secondStream.dispose();
+
+        assertThat(backendCalls).hasValue(2);
+        assertThat(second.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(fallbacks("bulkhead_full")).isZero();
+    }
+
+    private GatewayFilterChain respondWith(HttpStatus status) {
+        return exchange -> {
+            backendCalls.incrementAndGet();
+            return respond(exchange, status);
+        };
+    }
+
+    private Mono<Void> respond(ServerWebExchange exchange, HttpStatus status) {
+        exchange.getResponse().setStatusCode(status);
+        return exchange.getResponse().setComplete();
+    }
+
+    private GatewayFilterChain hanging() {
+        return exchange -> {
+            backendCalls.incrementAndGet();
+            return Mono.never();
+        };
+    }
+
+    private MockServerWebExchange exchange(HttpMethod method) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(
+                MockServerHttpRequest.method(method, "/api/v1/bikes").build());
+        Route route = Route.async().id("bikes").uri("lb://rental-service").predicate(e -> true).build();
+        exchange.getAttributes().put(GATEWAY_ROUTE_ATTR, route);
+        return exchange;
+    }
+
+    private double fallbacks(String reason) {
+        return meterRegistry.counter(BackendResilienceFilter.FALLBACK_METRIC,
+                "backend", "rental-service", "reason", reason).count();
+    }
+}
@@ -0,0 +1,159 @@
+package org.clickenrent.gateway.route;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.handler.AsyncPredicate;
+import org.springframework.cloud.gateway.handler.predicate.HeaderRoutePredicateFactory;
+import org.springframework.cloud.gateway.handler.predicate.MethodRoutePredicateFactory;
+import org.springframework.cloud.gateway.handler.predicate.PathRoutePredicateFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.route.RouteDefinition;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.PathContainer;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for RouteIndex.
+ * The route table mirrors the shape of GatewayConfig: exact auth routes first, one /** route per resource,
+ * method-specific routes sharing a path, and overlapping webhook prefixes.
+ */
+class RouteIndexTest {
+
+    private final PathRoutePredicateFactory pathFactory = new PathRoutePredicateFactory();
+    private final MethodRoutePredicateFactory methodFactory = new MethodRoutePredicateFactory();
+    private final HeaderRoutePredicateFactory headerFactory = new HeaderRoutePredicateFactory();
+
+    private List<Route> routes;
+    private RouteIndex index;
+
+    @BeforeEach
+    void setUp() {
+        routes = new ArrayList<>();
+        routes.add(route("auth-service-api-docs", path("/auth-service/v3/api-docs")));
+        for (String action : List.of("register", "login", "refresh", "verify-email", "forgot-password", "me", "logout")) {
+            routes.add(route("auth-v1-" + action, path("/api/v1/auth/" + action)));
+        }
+        routes.add(route("auth-v1-google-login", path("/api/v1/auth/google/**")));
+        routes.add(route("invitations-create", path("/api/v1/invitations").and(method(HttpMethod.POST))));
+        routes.add(route("invitations-list", path("/api/v1/invitations").and(method(HttpMethod.GET))));
+        routes.add(route("invitations-cancel", path("/api/v1/invitations/*").and(method(HttpMethod.DELETE))));
+        for (int i = 0; i < 115; i++) {
+            routes.add(route("resource-" + i, path("/api/v1/resource-" + i + "/**")));
+        }
+        routes.add(route("address-resources", path("/api/v1/countries/**", "/api/v1/addresses/**")));
+        routes.add(route("payout-webhooks", path("/api/v1/webhooks/multisafepay/payout/**")));
+        routes.add(route("multisafepay-webhooks", path("/api/v1/webhooks/multisafepay/**")));
+        routes.add(route("notification-preferences", path("/api/v1/notifications/preferences/**")));
+        routes.add(route("notifications", path("/api/v1/notifications/**")));
+        routes.add(route("analytics-realtime", path("/api/v1/analytics/realtime")));
+
+        index = RouteIndex.build(routes);
+    }
+
+    @Test
+    void lookup_MatchesLinearScanForEveryKindOfRoute() {
+        for (String path : List.of("/auth-service/v3/api-docs", "/api/v1/auth/login", "/api/v1/auth/google/callback",
+                "/api/v1/resource-0", "/api/v1/resource-114/42/items", "/api/v1/addresses/7",
+                "/api/v1/webhooks/multisafepay/payout/1", "/api/v1/webhooks/multisafepay/order",
+                "/api/v1/notifications/preferences/user-1", "/api/v1/notifications/5",
+                "/api/v1/analytics/realtime", "/api/v1/analytics/realtime/", "/api/v1/unknown", "/")) {
+            ServerWebExchange exchange = exchange(HttpMethod.GET, path);
+            assertThat(firstMatch(index.candidates(pathOf(exchange)), exchange))
+                    .as(path)
+                    .isEqualTo(firstMatch(routes, exchange));
+        }
+    }
+
+    @Test
+    void lookup_WithMethodPredicates_PicksRouteByMethod() {
+        assertThat(firstMatch(index.candidates(pathOf(exchange(HttpMethod.POST, "/api/v1/invitations"))),
+                exchange(HttpMethod.POST, "/api/v1/invitations"))).isEqualTo("invitations-create");
+        assertThat(firstMatch(index.candidates(pathOf(exchange(HttpMethod.GET, "/api/v1/invitations"))),
+                exchange(HttpMethod.GET, "/api/v1/invitations"))).isEqualTo("invitations-list");
+        assertThat(firstMatch(index.candidates(pathOf(exchange(HttpMethod.DELETE, "/api/v1/invitations/abc"))),
+                exchange(HttpMethod.DELETE, "/api/v1/invitations/abc"))).isEqualTo("invitations-cancel");
+    }
+
+    @Test
+    void candidates_OnlyContainRoutesAlongThePath() {
+        List<Route> candidates = index.candidates(pathOf(exchange(HttpMethod.GET, "/api/v1/analytics/realtime")));
+
+        assertThat(candidates).extracting(Route::getId).containsExactly("analytics-realtime");
+        assertThat(index.unindexedCount()).isZero();
+    }
+
+    @Test
+    void orPredicate_IsEvaluatedForEveryRequest() {
+        Route either = route("either", path("/api/v1/a/**").or(method(HttpMethod.OPTIONS)));
+        Route bikes = route("bikes", path("/api/v1/bikes/**"));
+        RouteIndex orIndex = RouteIndex.build(List.of(either, bikes));
+
+        ServerWebExchange exchange = exchange(HttpMethod.OPTIONS, "/api/v1/bikes");
+        assertThat(orIndex.unindexedCount()).isEqualTo(1);
+        assertThat(firstMatch(orIndex.candidates(pathOf(exchange)), exchange)).isEqualTo("either");
+    }
+
+    @Test
+    void definitionRoute_WithPathAndNarrowingPredicates_IsIndexed() {
+        RouteDefinition definition = new RouteDefinition(
+                "things=lb://test-service,Path=/api/v1/things/**,Method=GET,Header=X-Version");
+        Route things = Route.async(definition)
+                .asyncPredicate(path("/api/v1/things/**").and(method(HttpMethod.GET)).and(header("X-Version")))
+                .build();
+
+        RouteIndex definitionIndex = RouteIndex.build(List.of(things), Map.of("things", definition));
+
+        assertThat(definitionIndex.unindexedCount()).isZero();
+        assertThat(definitionIndex.candidates(pathOf(exchange(HttpMethod.GET, "/api/v1/bikes")))).isEmpty();
+    }
+
+    @Test
+    void dslChainOfThreePredicates_IsEvaluatedForEveryRequest() {
+        // Grouping of a longer DSL chain is not visible: path OR (method AND header) looks the same
+        Route chained = route("chained", path("/api/v1/things/**").or(method(HttpMethod.GET)).and(header("X-Version")));
+
+        assertThat(RouteIndex.build(List.of(chained)).unindexedCount()).isEqualTo(1);
+    }
+
+    private String firstMatch(List<Route> candidates, ServerWebExchange exchange) {
+        for (Route route : candidates) {
+            if (Boolean.TRUE.equals(Mono.from(route.getPredicate().apply(exchange)).block())) {
+                return route.getId();
+            }
+        }
+        return null;
+    }
+
+    private Route route(String id, AsyncPredicate<ServerWebExchange> predicate) {
+        return Route.async().id(id).uri("lb://test-service").asyncPredicate(predicate).build();
+    }
+
+    private AsyncPredicate<ServerWebExchange> path(String... patterns) {
+        return pathFactory.applyAsync(c -> c.setPatterns(List.of(patterns)));
+    }
+
+    private AsyncPredicate<ServerWebExchange> method(HttpMethod method) {
+        return methodFactory.applyAsync(c -> c.setMethods(method));
+    }
+
+    private AsyncPredicate<ServerWebExchange> header(String name) {
+        return headerFactory.applyAsync(c -> c.setHeader(name));
+    }
+
+    private ServerWebExchange exchange(HttpMethod method, String path) {
+        return MockServerWebExchange.from(MockServerHttpRequest.method(method, path).build());
+    }
+
+    private PathContainer pathOf(ServerWebExchange exchange) {
+        return exchange.getRequest().getPath().pathWithinApplication();
+    }
+}
@@ -0,0 +1,117 @@
+package org.clickenrent.gateway.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for RateLimitMonitor.
+ */
+@ExtendWith(MockitoExtension.class)
+class RateLimitMonitorTest {
+
+    @Mock
+    private ObjectProvider<SharedBlockList> sharedBlockListProvider;
+
+    @Mock
+    private SharedBlockList sharedBlockList;
+
+    private RateLimitMonitor monitor;
+
+    @BeforeEach
+    void setUp() {
+        monitor = monitor(1000);
+    }
+
+    @Test
+    void recordViolation_BelowThreshold_DoesNotBlock() {
+        IntStream.range(0, 9).forEach(i -> monitor.recordViolation("10.0.0.1", null, "/api/v1/auth/login"));
+
+        assertThat(monitor.isBlocked("10.0.0.1")).isFalse();
+        assertThat(monitor.getViolationStats()).containsEntry("10.0.0.1", 9);
+    }
+
+    @Test
+    void recordViolation_AtThreshold_BlocksAndResetsCount() {
+        IntStream.range(0, 10).forEach(i -> monitor.recordViolation("10.0.0.1", null, "/api/v1/auth/login"));
+
+        assertThat(monitor.isBlocked("10.0.0.1")).isTrue();
+        assertThat(monitor.isBlocked("10.0.0.2")).isFalse();
+        assertThat(monitor.getRemainingBlockTime("10.0.0.1")).isBetween(14 * 60L, 15 * 60L);
+        assertThat(monitor.getViolationStats()).doesNotContainKey("10.0.0.1");
+    }
+
+    @Test
+    void unblockIp_RemovesBlock() {
+        IntStream.range(0, 10).forEach(i -> monitor.recordViolation("10.0.0.1", null, "/api/v1/auth/login"));
+
+        monitor.unblockIp("10.0.0.1");
+
+        assertThat(monitor.isBlocked("10.0.0.1")).isFalse();
+        assertThat(monitor.getRemainingBlockTime("10.0.0.1")).isZero();
+    }
+
+    @Test
+    void trackedIps_AreBoundedByMaxTrackedIps() {
+        RateLimitMonitor bounded = monitor(100);
+
+        IntStream.range(0, 10_000).forEach(i -> bounded.recordViolation("10.1." + (i / 256) + "." + (i % 256), null, "/"));
+        bounded.cleanupExpiredViolations();
+
+        assertThat(bounded.getViolationStats().size()).isLessThanOrEqualTo(100);
+    }
+
+    @Test
+    void slidingWindow_ForgetsBucketsOutsideTheWindow() {
+        RateLimitMonitor.SlidingWindowCounter counter = new RateLimitMonitor.SlidingWindowCounter(5);
+
+        counter.increment(100);
+        counter.increment(100);
+        counter.increment(102);
+
+        assertThat(counter.total(104)).isEqualTo(3);
+        assertThat(counter.total(105)).isEqualTo(1);
+        assertThat(counter.increment(107)).isEqualTo(1);
+    }
+
+    @Test
+    void sharedBlockList_BlocksFromOtherReplicasApplyLocally() {
+        Sinks.Many<SharedBlockList.Block> published = Sinks.many().multicast().onBackpressureBuffer();
+        when(sharedBlockListProvider.getIfAvailable()).thenReturn(sharedBlockList);
+        when(sharedBlockList.blocks()).thenReturn(published.asFlux());
+        when(sharedBlockList.publish(eq("10.0.0.9"), anyLong())).thenReturn(Mono.empty());
+        RateLimitMonitor shared = new RateLimitMonitor(10, 15, 5, 10, 1000, 1000,
+                new SimpleMeterRegistry(), sharedBlockListProvider);
+        shared.subscribeToSharedBlocks();
+
+        published.tryEmitNext(new SharedBlockList.Block("10.0.0.7", System.currentTimeMillis() + 60_000));
+        assertThat(shared.isBlocked("10.0.0.7")).isTrue();
+
+        published.tryEmitNext(new SharedBlockList.Block("10.0.0.7", 0));
+        assertThat(shared.isBlocked("10.0.0.7")).isFalse();
+
+        IntStream.range(0, 10).forEach(i -> shared.recordViolation("10.0.0.9", null, "/"));
+        verify(sharedBlockList).publish(eq("10.0.0.9"), anyLong());
+        shared.unsubscribeFromSharedBlocks();
+    }
+
+    private RateLimitMonitor monitor(long maxTrackedIps) {
+        when(sharedBlockListProvider.getIfAvailable()).thenReturn(null);
+        return new RateLimitMonitor(10, 15, 5, 10, maxTrackedIps, 1000,
+                new SimpleMeterRegistry(), sharedBlockListProvider);
+    }
+}
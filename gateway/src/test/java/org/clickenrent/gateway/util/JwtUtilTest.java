@@ -173,6 +173,14 @@ class JwtUtilTest {
         assertThat(claims.get("email", String.class)).isEqualTo("user@example.com");
     }
 
+    @Test
+    void extractAllClaims_withSameToken_verifiesOnce() {
+        Claims first = jwtUtil.extractAllClaims(validToken);
+
+        assertThat(jwtUtil.extractAllClaims(validToken)).isSameAs(first);
+        assertThat(jwtUtil.extractUserExternalId(validToken)).isEqualTo("ext-user-123");
+    }
+
     @Test
     void extractAllClaims_withInvalidToken_throws() {
         assertThatThrownBy(() -> jwtUtil.extractAllClaims("invalid"))
@@ -4,6 +4,9 @@ import org.clickenrent.notificationservice.entity.NotificationLog;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
@@ -50,6 +53,17 @@ public interface NotificationLogRepository extends JpaRepository<NotificationLog
      */
     List<NotificationLog> findByUserExternalIdAndIsReadFalse(String userExternalId);
 
+    /**
+     * Mark all unread notifications of a user as read in a single statement
+     *
+     * @return Number of notifications updated
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE NotificationLog n SET n.isRead = true, n.readAt = :readAt " +
+            "WHERE n.userExternalId = :userExternalId AND n.isRead = false")
+    int markAllAsReadByUserExternalId(@Param("userExternalId") String userExternalId,
+                                      @Param("readAt") LocalDateTime readAt);
+
     /**
      * Find notification logs with receipt IDs for status checking
      */
@@ -1,71 +1,65 @@
 package org.clickenrent.notificationservice.service;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.clickenrent.contracts.security.AuditEvent;
+import org.clickenrent.contracts.security.AuditLogMetrics;
+import org.clickenrent.contracts.security.AuditLogWriter;
 import org.clickenrent.contracts.security.AuditService;
-import org.clickenrent.notificationservice.entity.AuditLog;
-import org.clickenrent.notificationservice.repository.AuditLogRepository;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import javax.sql.DataSource;
+import java.time.Duration;
+
 /**
  * Implementation of AuditService for logging security events.
- * Uses async processing to avoid blocking request threads.
+ * Events are queued in memory and written to audit_logs in JDBC batches by the shared AuditLogWriter,
+ * so bursts of security events don't each take a connection and a transaction from request traffic.
  */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class AuditServiceImpl implements AuditService {
-    
-    private final AuditLogRepository repository;
-    private final ObjectMapper objectMapper;
-    
+
+    private final AuditLogWriter writer;
+
+    public AuditServiceImpl(
+            DataSource dataSource,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${audit.buffer-capacity:8192}") int bufferCapacity,
+            @Value("${audit.batch-size:200}") int batchSize,
+            @Value("${audit.flush-interval-ms:500}") long flushIntervalMs,
+            @Value("${audit.max-block-ms:5}") long maxBlockMs) {
+        this.writer = AuditLogWriter.create(dataSource, objectMapper, new AuditLogWriter.Options(
+                bufferCapacity, batchSize, Duration.ofMillis(flushIntervalMs), Duration.ofMillis(maxBlockMs)));
+        new AuditLogMetrics(writer).bindTo(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        writer.close();
+    }
+
     @Override
-    @Async
     public void logEvent(AuditEvent event) {
-        try {
-            AuditLog auditLog = toEntity(event);
-            repository.save(auditLog);
-            
-            log.warn("SECURITY_EVENT: type={}, user={}, resource={}, success={}", 
-                event.getEventType(), 
-                event.getUserExternalId(), 
+        if (writer.submit(event)) {
+            log.warn("SECURITY_EVENT: type={}, user={}, resource={}, success={}",
+                event.getEventType(),
+                event.getUserExternalId(),
                 event.getResourceType(),
                 event.isSuccess());
-        } catch (Exception e) {
-            log.error("Failed to save audit event: {}", event, e);
-        }
-    }
-    
-    /**
-     * Convert AuditEvent DTO to AuditLog entity.
-     */
-    private AuditLog toEntity(AuditEvent event) {
-        String metadataJson = null;
-        if (event.getMetadata() != null && !event.getMetadata().isEmpty()) {
-            try {
-                metadataJson = objectMapper.writeValueAsString(event.getMetadata());
-            } catch (JsonProcessingException e) {
-                log.error("Failed to serialize metadata", e);
-            }
+        } else {
+            // Not stored in audit_logs, so this line is the only record of the event
+            log.warn("SECURITY_EVENT_DROPPED: type={}, user={}, resource={} {}, endpoint={}, success={}",
+                event.getEventType(),
+                event.getUserExternalId(),
+                event.getResourceType(),
+                event.getResourceId(),
+                event.getEndpoint(),
+                event.isSuccess());
         }
-        
-        return AuditLog.builder()
-            .eventType(event.getEventType() != null ? event.getEventType().name() : "UNKNOWN")
-            .userExternalId(event.getUserExternalId())
-            .companyExternalIds(event.getUserCompanyIds())
-            .resourceType(event.getResourceType())
-            .resourceId(event.getResourceId())
-            .endpoint(event.getEndpoint())
-            .httpMethod(event.getHttpMethod())
-            .clientIp(event.getClientIp())
-            .success(event.isSuccess())
-            .errorMessage(event.getErrorMessage())
-            .metadata(metadataJson)
-            .timestamp(event.getTimestamp())
-            .build();
     }
 }
@@ -204,20 +204,9 @@ public class NotificationService {
      */
     @Transactional
     public int markAllAsRead(String userExternalId) {
-        List<NotificationLog> unreadNotifications = notificationLogRepository
-                .findByUserExternalIdAndIsReadFalse(userExternalId);
-        
-        LocalDateTime now = LocalDateTime.now();
-        int count = 0;
-        
-        for (NotificationLog notification : unreadNotifications) {
-            notification.setIsRead(true);
-            notification.setReadAt(now);
-            count++;
-        }
+        int count = notificationLogRepository.markAllAsReadByUserExternalId(userExternalId, LocalDateTime.now());
         
         if (count > 0) {
-            notificationLogRepository.saveAll(unreadNotifications);
             log.info("Marked {} notifications as read for user {}", count, userExternalId);
         }
         
@@ -17,6 +17,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -234,21 +235,19 @@ class NotificationServiceTest {
 
     @Test
     void markAllAsRead_updatesUnreadNotificationsAndReturnsCount() {
-        NotificationLog log1 = NotificationLog.builder().id(1L).userExternalId(USER_ID).isRead(false).build();
-        NotificationLog log2 = NotificationLog.builder().id(2L).userExternalId(USER_ID).isRead(false).build();
-        when(notificationLogRepository.findByUserExternalIdAndIsReadFalse(USER_ID)).thenReturn(List.of(log1, log2));
+        when(notificationLogRepository.markAllAsReadByUserExternalId(eq(USER_ID), any(LocalDateTime.class))).thenReturn(2);
 
         int count = notificationService.markAllAsRead(USER_ID);
 
         assertThat(count).isEqualTo(2);
-        verify(notificationLogRepository).saveAll(List.of(log1, log2));
-        assertThat(log1.getIsRead()).isTrue();
-        assertThat(log2.getIsRead()).isTrue();
+        verify(notificationLogRepository).markAllAsReadByUserExternalId(eq(USER_ID), any(LocalDateTime.class));
+        verify(notificationLogRepository, never()).findByUserExternalIdAndIsReadFalse(any());
+        verify(notificationLogRepository, never()).saveAll(any());
     }
 
     @Test
     void markAllAsRead_whenNoUnread_returnsZero() {
-        when(notificationLogRepository.findByUserExternalIdAndIsReadFalse(USER_ID)).thenReturn(List.of());
+        when(notificationLogRepository.markAllAsReadByUserExternalId(eq(USER_ID), any(LocalDateTime.class))).thenReturn(0);
 
         int count = notificationService.markAllAsRead(USER_ID);
 
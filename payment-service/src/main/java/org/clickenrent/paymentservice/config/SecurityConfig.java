@@ -1,6 +1,14 @@
 package org.clickenrent.paymentservice.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.clickenrent.contracts.security.AuditService;
+import org.clickenrent.contracts.security.InternalIdentityCodec;
+import org.clickenrent.contracts.security.TenantValidation;
+import org.clickenrent.security.CachingJwtDecoder;
+import org.clickenrent.security.InternalIdentityFilter;
+import org.clickenrent.security.TenantValidationAspect;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.convert.converter.Converter;
@@ -16,10 +24,13 @@ import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.oauth2.server.resource.web.authentication.BearerTokenAuthenticationFilter;
 import org.springframework.security.web.SecurityFilterChain;
 
 import javax.crypto.SecretKey;
 import javax.crypto.spec.SecretKeySpec;
+import java.time.Clock;
+import java.time.Duration;
 import java.util.Base64;
 import java.util.Collection;
 import java.util.List;
@@ -37,6 +48,21 @@ public class SecurityConfig {
     @Value("${jwt.secret}")
     private String jwtSecret;
 
+    @Value("${jwt.cache.max-size:10000}")
+    private long jwtCacheMaxSize;
+
+    @Value("${jwt.cache.max-age:5m}")
+    private Duration jwtCacheMaxAge;
+
+    @Value("${internal-identity.enabled:false}")
+    private boolean internalIdentityEnabled;
+
+    @Value("${internal-identity.secret:}")
+    private String internalIdentitySecret;
+
+    @Value("${internal-identity.max-age:5m}")
+    private Duration internalIdentityMaxAge;
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
@@ -59,12 +85,21 @@ public class SecurityConfig {
                 .anyRequest().authenticated()
             )
             .oauth2ResourceServer(oauth2 -> oauth2
+                .bearerTokenResolver(InternalIdentityFilter.bearerTokenResolver())
                 .jwt(jwt -> jwt
                     .decoder(jwtDecoder())
                     .jwtAuthenticationConverter(jwtAuthenticationConverter())
                 )
             );
 
+        if (internalIdentityEnabled) {
+            // Trust the identity asserted by the gateway or another service instead of verifying the JWT again
+            InternalIdentityCodec codec = new InternalIdentityCodec(
+                    internalIdentitySecret, internalIdentityMaxAge, Clock.systemUTC());
+            http.addFilterBefore(new InternalIdentityFilter(codec, jwtAuthenticationConverter()),
+                    BearerTokenAuthenticationFilter.class);
+        }
+
         return http.build();
     }
 
@@ -72,7 +107,16 @@ public class SecurityConfig {
     public JwtDecoder jwtDecoder() {
         byte[] keyBytes = Base64.getDecoder().decode(jwtSecret);
         SecretKey key = new SecretKeySpec(keyBytes, "HmacSHA256");
-        return NimbusJwtDecoder.withSecretKey(key).build();
+        return new CachingJwtDecoder(NimbusJwtDecoder.withSecretKey(key).build(), jwtCacheMaxSize, jwtCacheMaxAge);
+    }
+
+    /**
+     * Runtime tenant validation of the service methods annotated with {@link TenantValidation}.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "tenant.validation.enabled", havingValue = "true", matchIfMissing = true)
+    public TenantValidationAspect tenantValidationAspect(AuditService auditService, MeterRegistry meterRegistry) {
+        return new TenantValidationAspect(auditService, meterRegistry);
     }
 
     /**
@@ -1,16 +1,25 @@
 package org.clickenrent.paymentservice.controller;
 
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.clickenrent.contracts.payment.RentalDailyRefundDTO;
 import org.clickenrent.paymentservice.dto.RentalFinTransactionDTO;
+import org.clickenrent.contracts.security.TenantContext;
+import org.clickenrent.paymentservice.service.RentalFinTransactionExportService;
 import org.clickenrent.paymentservice.service.RentalFinTransactionService;
+import org.clickenrent.paymentservice.service.RentalRefundAggregateService;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -20,6 +29,8 @@ import java.util.List;
 public class RentalFinTransactionController {
 
     private final RentalFinTransactionService rentalFinTransactionService;
+    private final RentalFinTransactionExportService rentalFinTransactionExportService;
+    private final RentalRefundAggregateService rentalRefundAggregateService;
 
     @GetMapping
     @Operation(summary = "Get all rental financial transactions")
@@ -27,6 +38,42 @@ public class RentalFinTransactionController {
         return ResponseEntity.ok(rentalFinTransactionService.findAll());
     }
 
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPERADMIN', 'B2B')")
+    @Operation(summary = "Export rental transactions (NDJSON stream)",
+            description = "Streams every accessible rental transaction as one JSON object per line using a database cursor")
+    public ResponseEntity<StreamingResponseBody> export(
+            @Parameter(description = "Restrict the export to one company")
+            @RequestParam(required = false) String companyExternalId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        List<String> companyScope = rentalFinTransactionExportService.resolveCompanyScope(companyExternalId);
+        TenantContext.Snapshot tenant = TenantContext.capture();
+
+        StreamingResponseBody body = out -> {
+            tenant.apply();
+            try {
+                rentalFinTransactionExportService.exportRentalFinTransactions(companyScope, from, to, out);
+            } finally {
+                TenantContext.clear();
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    @GetMapping("/refunds/daily")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPERADMIN', 'B2B')")
+    @Operation(summary = "Get daily refunds per rental",
+            description = "Refunded and partially refunded amounts in the period, aggregated per rental and day")
+    public ResponseEntity<List<RentalDailyRefundDTO>> getDailyRefunds(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(rentalRefundAggregateService.getDailyRefundsByRental(from, to));
+    }
+
     @GetMapping("/{id}")
     @PreAuthorize("hasAnyRole('ADMIN', 'SUPERADMIN')")
     @Operation(summary = "Get rental transaction by ID")
@@ -3,13 +3,15 @@
  * 
  * This package-info.java defines Hibernate filter definitions that are used across multiple entities.
  * Filter definitions (@FilterDef) must be defined only once, but can be applied to multiple entities using @Filter.
+ * The companies are resolved from the tenant context for each query (see HibernateFilterConfig).
  */
 @FilterDef(
     name = "companyFilter",
-    parameters = @ParamDef(name = "companyExternalIds", type = String.class),
+    parameters = @ParamDef(name = "companyExternalIds", type = String.class, resolver = TenantCompanyResolver.class),
     defaultCondition = "company_external_id IN (:companyExternalIds)"
 )
 package org.clickenrent.paymentservice.entity;
 
+import org.clickenrent.contracts.security.TenantCompanyResolver;
 import org.hibernate.annotations.FilterDef;
 import org.hibernate.annotations.ParamDef;
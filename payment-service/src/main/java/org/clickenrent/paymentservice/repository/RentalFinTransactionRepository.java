@@ -2,8 +2,15 @@ package org.clickenrent.paymentservice.repository;
 
 import org.clickenrent.paymentservice.entity.RentalFinTransaction;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -15,6 +22,33 @@ public interface RentalFinTransactionRepository extends JpaRepository<RentalFinT
     Optional<RentalFinTransaction> findByRentalExternalId(String rentalExternalId);
     
     Optional<RentalFinTransaction> findByExternalId(String externalId);
+
+    // Refund analytics: one row per rental and day of the refund transactions in [from, to)
+    String DAILY_REFUND_SELECT = "SELECT rft.rentalExternalId AS rentalExternalId, " +
+            "CAST(ft.dateTime AS LocalDate) AS refundDate, COUNT(rft) AS refunds, " +
+            "COALESCE(SUM(ft.amount), 0) AS amount " +
+            "FROM RentalFinTransaction rft JOIN rft.financialTransaction ft JOIN ft.paymentStatus ps " +
+            "WHERE ps.code IN :statusCodes AND ft.dateTime >= :from AND ft.dateTime < :to ";
+    String DAILY_REFUND_GROUP_BY = "GROUP BY rft.rentalExternalId, CAST(ft.dateTime AS LocalDate)";
+
+    @Query(DAILY_REFUND_SELECT + DAILY_REFUND_GROUP_BY)
+    List<DailyRefund> aggregateRefundsByRentalAndDay(@Param("statusCodes") Collection<String> statusCodes,
+                                                     @Param("from") LocalDateTime from,
+                                                     @Param("to") LocalDateTime to);
+
+    @Query(DAILY_REFUND_SELECT + "AND ft.companyExternalId IN :companyExternalIds " + DAILY_REFUND_GROUP_BY)
+    List<DailyRefund> aggregateRefundsByRentalAndDayForCompanies(
+            @Param("statusCodes") Collection<String> statusCodes,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to,
+            @Param("companyExternalIds") Collection<String> companyExternalIds);
+
+    interface DailyRefund {
+        String getRentalExternalId();
+        LocalDate getRefundDate();
+        long getRefunds();
+        BigDecimal getAmount();
+    }
 }
 
 
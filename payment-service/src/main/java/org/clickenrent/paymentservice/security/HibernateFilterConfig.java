@@ -9,12 +9,13 @@ import org.clickenrent.contracts.security.TenantContext;
 import org.hibernate.Session;
 import org.springframework.stereotype.Component;
 
-import java.util.List;
-import java.util.stream.Collectors;
-
 /**
  * Automatically enables Hibernate tenant filters before repository queries.
  * Filters add WHERE clauses to limit results to current user's companies.
+ *
+ * Filters are enabled once per Hibernate session (the request's, with open-in-view); later repository calls
+ * only find them enabled. The companies are not set here: the filter definitions resolve them from
+ * TenantContext for each query (TenantCompanyResolver) and bind them as JDBC parameters.
  */
 @Aspect
 @Component
@@ -22,6 +23,8 @@ import java.util.stream.Collectors;
 @Slf4j
 public class HibernateFilterConfig {
     
+    static final String COMPANY_FILTER = "companyFilter";
+    
     private final EntityManager entityManager;
     
     @Before("execution(* org.clickenrent.paymentservice.repository.*.*(..))")
@@ -32,25 +35,18 @@ public class HibernateFilterConfig {
             return;
         }
         
-        // Get user's companies
-        List<String> companyIds = TenantContext.getCurrentCompanies();
-        if (companyIds.isEmpty()) {
+        // Customers and unauthenticated calls have no companies
+        if (TenantContext.getCurrentCompanies().isEmpty()) {
             log.trace("No companies in context - customer or unauthenticated user");
             return;
         }
         
-        // Enable filters
         Session session = entityManager.unwrap(Session.class);
+        if (session.getEnabledFilter(COMPANY_FILTER) != null) {
+            return;
+        }
         
-        // Convert list to SQL IN clause format: 'id1','id2','id3'
-        String companyIdsParam = companyIds.stream()
-                .map(id -> "'" + id.replace("'", "''") + "'") // SQL injection protection
-                .collect(Collectors.joining(","));
-        
-        // Enable standard company filter
-        session.enableFilter("companyFilter")
-               .setParameter("companyExternalIds", companyIdsParam);
-        
-        log.debug("Hibernate tenant filters enabled for companies: {}", companyIds);
+        session.enableFilter(COMPANY_FILTER);
+        log.debug("Hibernate tenant filters enabled for companies: {}", TenantContext.getCurrentCompanies());
     }
 }
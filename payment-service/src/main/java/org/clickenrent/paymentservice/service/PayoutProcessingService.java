@@ -3,6 +3,7 @@ package org.clickenrent.paymentservice.service;
 import com.google.gson.JsonObject;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.clickenrent.contracts.security.TenantValidation;
 import org.clickenrent.paymentservice.client.RentalServiceClient;
 import org.clickenrent.paymentservice.dto.BikeRentalPayoutDTO;
 import org.clickenrent.paymentservice.entity.B2BRevenueSharePayout;
@@ -260,6 +261,7 @@ public class PayoutProcessingService {
      * @throws MultiSafepayIntegrationException if MultiSafepay API call fails
      */
     @Transactional
+    @TenantValidation
     public B2BRevenueSharePayout retryPayout(String payoutExternalId) {
         log.info("Retrying payout: {}", payoutExternalId);
         
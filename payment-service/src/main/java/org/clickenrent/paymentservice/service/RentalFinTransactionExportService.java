@@ -0,0 +1,146 @@
+package org.clickenrent.paymentservice.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.clickenrent.http.ndjson.ExportCompanyScope;
+import org.clickenrent.http.ndjson.NdjsonExportWriter;
+import org.clickenrent.paymentservice.dto.CurrencyDTO;
+import org.clickenrent.paymentservice.dto.FinancialTransactionDTO;
+import org.clickenrent.paymentservice.dto.PaymentStatusDTO;
+import org.clickenrent.paymentservice.dto.RentalFinTransactionDTO;
+import org.clickenrent.paymentservice.exception.UnauthorizedException;
+import org.clickenrent.paymentservice.security.PostgresRLSConfig;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streams rental financial transactions as newline-delimited JSON for bulk consumers (analytics backfills).
+ * Rows are read through a read-only, forward-only JDBC cursor and written straight to the
+ * response, so memory stays constant regardless of the number of transactions.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RentalFinTransactionExportService {
+
+    private static final String EXPORT_SQL = """
+        SELECT
+            rft.id,
+            rft.external_id,
+            rft.rental_external_id,
+            ft.id AS ft_id,
+            ft.external_id AS ft_external_id,
+            ft.payer_external_id,
+            ft.recipient_external_id,
+            ft.amount,
+            ft.date_time,
+            ft.original_transaction_id,
+            c.id AS currency_id,
+            c.code AS currency_code,
+            ps.id AS payment_status_id,
+            ps.code AS payment_status_code,
+            ps.name AS payment_status_name
+        FROM rental_fin_transactions rft
+        INNER JOIN financial_transactions ft ON rft.financial_transaction_id = ft.id
+        LEFT JOIN currencies c ON ft.currency_id = c.id
+        LEFT JOIN payment_statuses ps ON ft.payment_status_id = ps.id
+        WHERE rft.is_deleted = false
+            AND ft.is_deleted = false
+        """;
+
+    private static final String COMPANY_CONDITION = " AND ft.company_external_id = ANY (?)";
+    private static final String FROM_CONDITION = " AND ft.date_time >= ?";
+    private static final String TO_CONDITION = " AND ft.date_time < ?";
+    private static final String ORDER_BY = " ORDER BY rft.id";
+
+    private final NdjsonExportWriter ndjsonExportWriter;
+    private final SecurityService securityService;
+    private final PostgresRLSConfig postgresRLSConfig;
+
+    /**
+     * Resolve which companies the current user may export transactions of.
+     * Must be called on the request thread, before the response starts streaming.
+     *
+     * @param companyExternalId Optional company to narrow the export to
+     * @return Company external IDs to filter on, or null for an unrestricted (admin) export
+     */
+    public List<String> resolveCompanyScope(String companyExternalId) {
+        return ExportCompanyScope.resolve(companyExternalId, securityService.isAdmin(), securityService::isB2B,
+                securityService::getCurrentUserCompanyExternalIds, "rental transactions", UnauthorizedException::new);
+    }
+
+    /**
+     * Write every rental transaction in the given scope and period to the output stream, one JSON object per line.
+     *
+     * @param companyScope Result of {@link #resolveCompanyScope(String)}
+     * @param from Optional inclusive start date of the transaction
+     * @param to Optional inclusive end date of the transaction
+     * @param out Response output stream
+     * @return Number of exported transactions
+     */
+    @Transactional(readOnly = true)
+    public long exportRentalFinTransactions(List<String> companyScope, LocalDate from, LocalDate to,
+                                            OutputStream out) throws IOException {
+        // JdbcTemplate bypasses the repository aspects, so set the RLS session variables explicitly
+        postgresRLSConfig.setPostgresSessionVariables();
+
+        StringBuilder sql = new StringBuilder(EXPORT_SQL);
+        if (companyScope != null) {
+            sql.append(COMPANY_CONDITION);
+        }
+        List<Object> parameters = new ArrayList<>(2);
+        if (from != null) {
+            sql.append(FROM_CONDITION);
+            parameters.add(Timestamp.valueOf(from.atStartOfDay()));
+        }
+        if (to != null) {
+            sql.append(TO_CONDITION);
+            parameters.add(Timestamp.valueOf(to.plusDays(1).atStartOfDay()));
+        }
+        sql.append(ORDER_BY);
+
+        long count = ndjsonExportWriter.write(sql.toString(), companyScope, parameters,
+                RentalFinTransactionDTO.class, this::mapRow, out);
+
+        log.info("Exported {} rental transactions as NDJSON (companies: {}, from: {}, to: {})",
+                count, companyScope != null ? companyScope : "all", from, to);
+        return count;
+    }
+
+    private RentalFinTransactionDTO mapRow(ResultSet rs, int rowNum) throws SQLException {
+        FinancialTransactionDTO financialTransaction = FinancialTransactionDTO.builder()
+                .id(rs.getLong("ft_id"))
+                .externalId(rs.getString("ft_external_id"))
+                .payerExternalId(rs.getString("payer_external_id"))
+                .recipientExternalId(rs.getString("recipient_external_id"))
+                .amount(rs.getBigDecimal("amount"))
+                .dateTime(NdjsonExportWriter.toLocalDateTime(rs.getTimestamp("date_time")))
+                .originalTransactionId(rs.getObject("original_transaction_id", Long.class))
+                .currency(CurrencyDTO.builder()
+                        .id(rs.getObject("currency_id", Long.class))
+                        .code(rs.getString("currency_code"))
+                        .build())
+                .paymentStatus(PaymentStatusDTO.builder()
+                        .id(rs.getObject("payment_status_id", Long.class))
+                        .code(rs.getString("payment_status_code"))
+                        .name(rs.getString("payment_status_name"))
+                        .build())
+                .build();
+
+        return RentalFinTransactionDTO.builder()
+                .id(rs.getLong("id"))
+                .externalId(rs.getString("external_id"))
+                .rentalExternalId(rs.getString("rental_external_id"))
+                .financialTransaction(financialTransaction)
+                .build();
+    }
+}
@@ -0,0 +1,71 @@
+package org.clickenrent.paymentservice.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.clickenrent.contracts.payment.RentalDailyRefundDTO;
+import org.clickenrent.paymentservice.exception.UnauthorizedException;
+import org.clickenrent.paymentservice.repository.RentalFinTransactionRepository;
+import org.clickenrent.paymentservice.repository.RentalFinTransactionRepository.DailyRefund;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Refunded amounts of rental transactions per rental and day, computed in one GROUP BY query
+ * over the caller's transactions: every company for admins, their own companies for B2B users.
+ * Replaces scanning the rental transaction export when only the refund totals are needed.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RentalRefundAggregateService {
+
+    static final List<String> REFUND_STATUS_CODES = List.of("REFUNDED", "PARTIALLY_REFUNDED");
+
+    private final RentalFinTransactionRepository rentalFinTransactionRepository;
+    private final SecurityService securityService;
+
+    /**
+     * @param from Inclusive start date of the refund transactions
+     * @param to Inclusive end date of the refund transactions
+     */
+    @Transactional(readOnly = true)
+    public List<RentalDailyRefundDTO> getDailyRefundsByRental(LocalDate from, LocalDate to) {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("Start date (from) and end date (to) are required");
+        }
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("Start date must be before or equal to end date");
+        }
+
+        LocalDateTime start = from.atStartOfDay();
+        LocalDateTime end = to.plusDays(1).atStartOfDay();
+        List<DailyRefund> rows;
+        if (securityService.isAdmin()) {
+            rows = rentalFinTransactionRepository.aggregateRefundsByRentalAndDay(REFUND_STATUS_CODES, start, end);
+        } else if (securityService.isB2B()) {
+            List<String> companyExternalIds = securityService.getCurrentUserCompanyExternalIds();
+            if (companyExternalIds == null || companyExternalIds.isEmpty()) {
+                return List.of();
+            }
+            rows = rentalFinTransactionRepository.aggregateRefundsByRentalAndDayForCompanies(
+                    REFUND_STATUS_CODES, start, end, companyExternalIds);
+        } else {
+            throw new UnauthorizedException("You don't have permission to view rental refunds");
+        }
+
+        log.debug("Rental refunds {} to {}: {} rental-day rows", from, to, rows.size());
+        return rows.stream()
+                .map(row -> RentalDailyRefundDTO.builder()
+                        .rentalExternalId(row.getRentalExternalId())
+                        .date(row.getRefundDate())
+                        .refunds(row.getRefunds())
+                        .amount(row.getAmount().setScale(2, RoundingMode.HALF_UP))
+                        .build())
+                .toList();
+    }
+}
@@ -0,0 +1,21 @@
+-- =====================================================================================================================
+-- PAYMENT SERVICE - REFUND AGGREGATE INDEXES (Flyway Migration V6)
+-- =====================================================================================================================
+-- Module: payment-service
+-- Database: PostgreSQL
+-- Description: Indexes behind GET /api/v1/rental-fin-transactions/refunds/daily (refunds per rental and day).
+-- 
+-- Author: Vitaliy Shvetsov
+-- =====================================================================================================================
+
+-- Period scan of transactions, narrowed by company for B2B users
+CREATE INDEX IF NOT EXISTS idx_financial_transactions_date_time ON financial_transactions(date_time, company_external_id)
+    WHERE is_deleted = false;
+-- Transaction -> rental link
+CREATE INDEX IF NOT EXISTS idx_rental_fin_transactions_financial_transaction
+    ON rental_fin_transactions(financial_transaction_id)
+    WHERE is_deleted = false;
+
+-- =====================================================================================================================
+-- END OF REFUND AGGREGATE INDEXES
+-- =====================================================================================================================
@@ -1,9 +1,12 @@
 package org.clickenrent.paymentservice.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.clickenrent.contracts.payment.RentalDailyRefundDTO;
 import org.clickenrent.paymentservice.dto.FinancialTransactionDTO;
 import org.clickenrent.paymentservice.dto.RentalFinTransactionDTO;
+import org.clickenrent.paymentservice.service.RentalFinTransactionExportService;
 import org.clickenrent.paymentservice.service.RentalFinTransactionService;
+import org.clickenrent.paymentservice.service.RentalRefundAggregateService;
 import org.clickenrent.paymentservice.service.SecurityService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,10 +17,18 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.util.Arrays;
+import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -38,6 +49,12 @@ class RentalFinTransactionControllerTest {
     @MockBean
     private RentalFinTransactionService rentalFinTransactionService;
 
+    @MockBean
+    private RentalFinTransactionExportService rentalFinTransactionExportService;
+
+    @MockBean
+    private RentalRefundAggregateService rentalRefundAggregateService;
+
     @MockBean
     private SecurityService securityService;
 
@@ -72,8 +89,47 @@ class RentalFinTransactionControllerTest {
                         .content(objectMapper.writeValueAsString(rentalFinTransactionDTO)))
                 .andExpect(status().isCreated());
     }
-}
-
-
 
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void getDailyRefunds_ReturnsAggregates() throws Exception {
+        when(rentalRefundAggregateService.getDailyRefundsByRental(LocalDate.of(2026, 3, 1), LocalDate.of(2026, 3, 31)))
+                .thenReturn(List.of(RentalDailyRefundDTO.builder()
+                        .rentalExternalId("rental-ext-123")
+                        .date(LocalDate.of(2026, 3, 2))
+                        .refunds(1L)
+                        .amount(new BigDecimal("12.50"))
+                        .build()));
+
+        mockMvc.perform(get("/api/v1/rental-fin-transactions/refunds/daily")
+                        .with(csrf())
+                        .param("from", "2026-03-01")
+                        .param("to", "2026-03-31"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].rentalExternalId").value("rental-ext-123"))
+                .andExpect(jsonPath("$[0].amount").value(12.50));
+    }
 
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void export_StreamsNdjson() throws Exception {
+        when(rentalFinTransactionExportService.resolveCompanyScope(null)).thenReturn(null);
+        when(rentalFinTransactionExportService.exportRentalFinTransactions(
+                isNull(), eq(LocalDate.of(2026, 3, 1)), isNull(), any())).thenAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(3);
+            out.write("{\"externalId\":\"rft-1\"}\n".getBytes(StandardCharsets.UTF_8));
+            return 1L;
+        });
+
+        MvcResult result = mockMvc.perform(get("/api/v1/rental-fin-transactions/export")
+                        .with(csrf())
+                        .param("from", "2026-03-01"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string("{\"externalId\":\"rft-1\"}\n"));
+    }
+}
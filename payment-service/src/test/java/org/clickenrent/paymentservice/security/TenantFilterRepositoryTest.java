@@ -0,0 +1,99 @@
+package org.clickenrent.paymentservice.security;
+
+import org.clickenrent.contracts.security.TenantContext;
+import org.clickenrent.paymentservice.entity.LocationBankAccount;
+import org.clickenrent.paymentservice.repository.LocationBankAccountRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs repository queries through HibernateFilterConfig against H2 and checks which rows the tenant filter lets through.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({HibernateFilterConfig.class, TenantFilterRepositoryTest.AspectConfig.class})
+class TenantFilterRepositoryTest {
+
+    @TestConfiguration
+    @EnableAspectJAutoProxy
+    static class AspectConfig {
+    }
+
+    @Autowired
+    private LocationBankAccountRepository locationBankAccountRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        TenantContext.clear();
+        insertLocationBankAccount(1, "company-a");
+        insertLocationBankAccount(2, "company-a");
+        insertLocationBankAccount(3, "company-b");
+        insertLocationBankAccount(4, "company-c");
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    void companyFilter_ReturnsRowsOfAllCallerCompanies() {
+        TenantContext.setCurrentCompanies(List.of("company-a", "company-c"));
+
+        List<LocationBankAccount> rows = locationBankAccountRepository.findAll();
+
+        assertEquals(List.of("account-1", "account-2", "account-4"), rows.stream().map(LocationBankAccount::getExternalId).sorted().toList());
+    }
+
+    @Test
+    void companyFilter_ResolvesCompaniesForEachQuery() {
+        TenantContext.setCurrentCompanies(List.of("company-a"));
+        assertEquals(2, locationBankAccountRepository.findAll().size());
+
+        // Same session, filter already enabled: the companies are read again from the context
+        TenantContext.setCurrentCompanies(List.of("company-b"));
+        List<LocationBankAccount> rows = locationBankAccountRepository.findAll();
+
+        assertEquals(List.of("account-3"), rows.stream().map(LocationBankAccount::getExternalId).toList());
+    }
+
+    @Test
+    void companyFilter_WhenContextLosesCompaniesAfterEnabling_ReturnsNothing() {
+        TenantContext.setCurrentCompanies(List.of("company-a"));
+        assertEquals(2, locationBankAccountRepository.findAll().size());
+
+        // TenantCompanyResolver binds NO_COMPANIES instead of an empty IN list
+        TenantContext.setCurrentCompanies(List.of());
+
+        assertTrue(locationBankAccountRepository.findAll().isEmpty());
+    }
+
+    @Test
+    void superAdmin_SeesAllRows() {
+        TenantContext.setSuperAdmin(true);
+
+        assertEquals(4, locationBankAccountRepository.findAll().size());
+    }
+
+    private void insertLocationBankAccount(long id, String companyExternalId) {
+        jdbcTemplate.update("INSERT INTO location_bank_accounts (id, external_id, company_external_id, location_external_id, " +
+                "account_holder_name, iban, currency, is_verified, is_active, date_created, is_deleted) " +
+                "VALUES (?, ?, ?, 'location-1', 'Holder', 'NL91ABNA0417164300', 'EUR', false, true, CURRENT_TIMESTAMP, false)",
+                id, "account-" + id, companyExternalId);
+    }
+}
@@ -0,0 +1,132 @@
+package org.clickenrent.paymentservice.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.clickenrent.http.ndjson.NdjsonExportWriter;
+import org.clickenrent.paymentservice.exception.UnauthorizedException;
+import org.clickenrent.paymentservice.security.PostgresRLSConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for RentalFinTransactionExportService.
+ * Streams from an H2 database through the shared NDJSON writer.
+ */
+@ExtendWith(MockitoExtension.class)
+class RentalFinTransactionExportServiceTest {
+
+    @Mock
+    private SecurityService securityService;
+
+    @Mock
+    private PostgresRLSConfig postgresRLSConfig;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private EmbeddedDatabase database;
+    private RentalFinTransactionExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true).build();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("CREATE TABLE currencies (id BIGINT PRIMARY KEY, code VARCHAR(10))");
+        jdbcTemplate.execute("CREATE TABLE payment_statuses (id BIGINT PRIMARY KEY, code VARCHAR(50), name VARCHAR(100))");
+        jdbcTemplate.execute("CREATE TABLE financial_transactions (id BIGINT PRIMARY KEY, external_id VARCHAR(100), " +
+                "payer_external_id VARCHAR(100), recipient_external_id VARCHAR(100), amount DECIMAL(19, 2), " +
+                "date_time TIMESTAMP, original_transaction_id BIGINT, currency_id BIGINT, payment_status_id BIGINT, " +
+                "company_external_id VARCHAR(100), is_deleted BOOLEAN)");
+        jdbcTemplate.execute("CREATE TABLE rental_fin_transactions (id BIGINT PRIMARY KEY, external_id VARCHAR(100), " +
+                "rental_external_id VARCHAR(100), financial_transaction_id BIGINT, is_deleted BOOLEAN)");
+
+        jdbcTemplate.update("INSERT INTO currencies VALUES (1, 'EUR')");
+        jdbcTemplate.update("INSERT INTO payment_statuses VALUES (1, 'SUCCEEDED', 'Succeeded')");
+        insertTransaction(jdbcTemplate, 1, "2026-03-01 09:00:00", "company-a", false);
+        insertTransaction(jdbcTemplate, 2, "2026-03-15 18:30:00", "company-b", false);
+        insertTransaction(jdbcTemplate, 3, "2026-03-31 23:59:00", "company-a", false);
+        insertTransaction(jdbcTemplate, 4, "2026-04-01 00:00:00", "company-a", false);
+        insertTransaction(jdbcTemplate, 5, "2026-03-10 12:00:00", "company-a", true);
+
+        NdjsonExportWriter writer = new NdjsonExportWriter(jdbcTemplate, objectMapper, 2, 2);
+        exportService = new RentalFinTransactionExportService(writer, securityService, postgresRLSConfig);
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void exportRentalFinTransactions_Unrestricted_StreamsEveryTransactionInOrder() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long count = exportService.exportRentalFinTransactions(null, null, null, out);
+
+        List<JsonNode> lines = readLines(out);
+        assertEquals(4, count);
+        assertEquals(List.of("rft-1", "rft-2", "rft-3", "rft-4"),
+                lines.stream().map(n -> n.get("externalId").asText()).toList());
+        assertEquals("EUR", lines.get(0).get("financialTransaction").get("currency").get("code").asText());
+        assertEquals("2026-03-01T09:00:00", lines.get(0).get("financialTransaction").get("dateTime").asText());
+        verify(postgresRLSConfig).setPostgresSessionVariables();
+    }
+
+    @Test
+    void exportRentalFinTransactions_WithCompanyAndPeriod_BindsAllFilters() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long count = exportService.exportRentalFinTransactions(List.of("company-a"),
+                LocalDate.of(2026, 3, 1), LocalDate.of(2026, 3, 31), out);
+
+        // The end date is inclusive: 2026-03-31 23:59 is exported, 2026-04-01 00:00 is not
+        assertEquals(2, count);
+        assertEquals(List.of("rft-1", "rft-3"), readLines(out).stream().map(n -> n.get("externalId").asText()).toList());
+    }
+
+    @Test
+    void resolveCompanyScope_B2BWithForeignCompany_ThrowsUnauthorized() {
+        when(securityService.isAdmin()).thenReturn(false);
+        when(securityService.isB2B()).thenReturn(true);
+        when(securityService.getCurrentUserCompanyExternalIds()).thenReturn(List.of("company-a"));
+
+        UnauthorizedException e = assertThrows(UnauthorizedException.class,
+                () -> exportService.resolveCompanyScope("company-b"));
+        assertEquals("You don't have permission to export rental transactions of this company", e.getMessage());
+    }
+
+    private List<JsonNode> readLines(ByteArrayOutputStream out) throws IOException {
+        return objectMapper.readerFor(JsonNode.class)
+                .<JsonNode>readValues(out.toString(StandardCharsets.UTF_8))
+                .readAll();
+    }
+
+    private void insertTransaction(JdbcTemplate jdbcTemplate, long id, String dateTime, String company, boolean deleted) {
+        jdbcTemplate.update("INSERT INTO financial_transactions (id, external_id, amount, date_time, currency_id, " +
+                        "payment_status_id, company_external_id, is_deleted) VALUES (?, ?, 10.00, ?, 1, 1, ?, false)",
+                id, "ft-" + id, Timestamp.valueOf(dateTime), company);
+        jdbcTemplate.update("INSERT INTO rental_fin_transactions VALUES (?, ?, ?, ?, ?)",
+                id, "rft-" + id, "rental-" + id, id, deleted);
+    }
+}
@@ -0,0 +1,99 @@
+package org.clickenrent.paymentservice.service;
+
+import org.clickenrent.contracts.payment.RentalDailyRefundDTO;
+import org.clickenrent.paymentservice.exception.UnauthorizedException;
+import org.clickenrent.paymentservice.repository.RentalFinTransactionRepository;
+import org.clickenrent.paymentservice.repository.RentalFinTransactionRepository.DailyRefund;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RentalRefundAggregateServiceTest {
+
+    private static final LocalDate FROM = LocalDate.of(2026, 3, 1);
+    private static final LocalDate TO = LocalDate.of(2026, 3, 31);
+
+    @Mock
+    private RentalFinTransactionRepository rentalFinTransactionRepository;
+
+    @Mock
+    private SecurityService securityService;
+
+    @InjectMocks
+    private RentalRefundAggregateService rentalRefundAggregateService;
+
+    @Test
+    void getDailyRefundsByRental_Admin_QueriesRefundStatusesInPeriod() {
+        when(securityService.isAdmin()).thenReturn(true);
+        when(rentalFinTransactionRepository.aggregateRefundsByRentalAndDay(
+                RentalRefundAggregateService.REFUND_STATUS_CODES,
+                LocalDateTime.of(2026, 3, 1, 0, 0), LocalDateTime.of(2026, 4, 1, 0, 0)))
+                .thenReturn(List.of(row("rental-1", LocalDate.of(2026, 3, 5), 2, "12.5")));
+
+        List<RentalDailyRefundDTO> result = rentalRefundAggregateService.getDailyRefundsByRental(FROM, TO);
+
+        assertEquals(1, result.size());
+        assertEquals("rental-1", result.get(0).getRentalExternalId());
+        assertEquals(LocalDate.of(2026, 3, 5), result.get(0).getDate());
+        assertEquals(2L, result.get(0).getRefunds());
+        assertEquals(new BigDecimal("12.50"), result.get(0).getAmount());
+    }
+
+    @Test
+    void getDailyRefundsByRental_B2B_AggregatesOwnCompanies() {
+        when(securityService.isAdmin()).thenReturn(false);
+        when(securityService.isB2B()).thenReturn(true);
+        when(securityService.getCurrentUserCompanyExternalIds()).thenReturn(List.of("company-a"));
+        when(rentalFinTransactionRepository.aggregateRefundsByRentalAndDayForCompanies(
+                any(), any(), any(), eq(List.of("company-a"))))
+                .thenReturn(List.of());
+
+        assertTrue(rentalRefundAggregateService.getDailyRefundsByRental(FROM, TO).isEmpty());
+        verify(rentalFinTransactionRepository, never()).aggregateRefundsByRentalAndDay(any(), any(), any());
+    }
+
+    @Test
+    void getDailyRefundsByRental_Customer_ThrowsUnauthorized() {
+        when(securityService.isAdmin()).thenReturn(false);
+        when(securityService.isB2B()).thenReturn(false);
+
+        assertThrows(UnauthorizedException.class, () -> rentalRefundAggregateService.getDailyRefundsByRental(FROM, TO));
+    }
+
+    private DailyRefund row(String rentalExternalId, LocalDate date, long refunds, String amount) {
+        return new DailyRefund() {
+            @Override
+            public String getRentalExternalId() {
+                return rentalExternalId;
+            }
+
+            @Override
+            public LocalDate getRefundDate() {
+                return date;
+            }
+
+            @Override
+            public long getRefunds() {
+                return refunds;
+            }
+
+            @Override
+            public BigDecimal getAmount() {
+                return new BigDecimal(amount);
+            }
+        };
+    }
+}
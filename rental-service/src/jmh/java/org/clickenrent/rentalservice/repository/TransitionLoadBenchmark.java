@@ -0,0 +1,159 @@
+package org.clickenrent.rentalservice.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.clickenrent.rentalservice.entity.Bike;
+import org.clickenrent.rentalservice.entity.BikeRental;
+import org.clickenrent.rentalservice.entity.Lock;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceTransactionManagerAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Loading the bike rental aggregate of an unlock or lock transition from an in-memory H2 database,
+ * touching the associations BikeRentalService.unlockBike reads: rental, status, bike, lock, lock provider
+ * and coordinates. Setup fails if the entity graph load takes more than one statement.
+ *
+ * - entityGraph: BikeRentalRepository.findWithBikeAndLockById, one joined select
+ * - lazy: findById and lazy loading of each association, as before the entity graph (seven statements)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TransitionLoadBenchmark {
+
+    private static final long BIKE_RENTAL_ID = 1L;
+
+    private ConfigurableApplicationContext context;
+    private BikeRentalRepository bikeRentalRepository;
+    private TransactionTemplate transactionTemplate;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(JpaConfig.class)
+                .web(WebApplicationType.NONE)
+                // Arguments, so they win over the PostgreSQL settings of application.properties
+                .run("--spring.datasource.url=jdbc:h2:mem:transition-load;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.jpa.properties.hibernate.generate_statistics=true",
+                        "--spring.sql.init.mode=never",
+                        "--logging.level.root=ERROR");
+        bikeRentalRepository = context.getBean(BikeRentalRepository.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        insertBikeRental(context.getBean(JdbcTemplate.class));
+
+        Statistics statistics = context.getBean(EntityManagerFactory.class)
+                .unwrap(SessionFactory.class).getStatistics();
+        long statements = statementsOf(statistics, this::entityGraph);
+        if (statements != 1) {
+            throw new IllegalStateException("Entity graph load took " + statements + " statements instead of 1");
+        }
+        statistics.setStatisticsEnabled(false);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object entityGraph() {
+        return transactionTemplate.execute(status -> touch(bikeRentalRepository.findWithBikeAndLockById(BIKE_RENTAL_ID)
+                .orElseThrow()));
+    }
+
+    @Benchmark
+    public Object lazy() {
+        return transactionTemplate.execute(status -> touch(bikeRentalRepository.findById(BIKE_RENTAL_ID)
+                .orElseThrow()));
+    }
+
+    private static Object touch(BikeRental bikeRental) {
+        Bike bike = bikeRental.getBike();
+        Lock lock = bike.getLock();
+        return bikeRental.getRental().getUserExternalId()
+                + bikeRental.getBikeRentalStatus().getName()
+                + lock.getMacAddress()
+                + lock.getLockProvider().getName()
+                + bike.getCoordinates().getLatitude();
+    }
+
+    private static long statementsOf(Statistics statistics, Supplier<Object> load) {
+        statistics.clear();
+        load.get();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private static void insertBikeRental(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.update("INSERT INTO rental_status (id, external_id, name, date_created, is_deleted) " +
+                "VALUES (1, 'status-1', 'Active', CURRENT_TIMESTAMP, false)");
+        jdbcTemplate.update("INSERT INTO bike_rental_status (id, external_id, name, date_created, is_deleted) " +
+                "VALUES (1, 'br-status-1', 'ACTIVE', CURRENT_TIMESTAMP, false)");
+        jdbcTemplate.update("INSERT INTO bike_type (id, external_id, name, date_created, is_deleted) " +
+                "VALUES (1, 'type-1', 'E-Bike', CURRENT_TIMESTAMP, false)");
+        jdbcTemplate.update("INSERT INTO location (id, external_id, name, company_external_id, is_public, is_active, " +
+                "date_created, is_deleted) VALUES (1, 'location-1', 'Depot', 'company-a', true, true, CURRENT_TIMESTAMP, false)");
+        jdbcTemplate.update("INSERT INTO lock_provider (id, external_id, name, is_active, date_created, is_deleted) " +
+                "VALUES (1, 'provider-1', 'Omni', true, CURRENT_TIMESTAMP, false)");
+        jdbcTemplate.update("INSERT INTO lock_entity (id, external_id, mac_address, lock_provider_id, date_created, is_deleted) " +
+                "VALUES (1, 'lock-1', 'AA:BB:CC:DD:EE:FF', 1, CURRENT_TIMESTAMP, false)");
+        // The PostGIS geography column keeps Hibernate from creating the table on H2
+        jdbcTemplate.execute("CREATE TABLE coordinates (id BIGINT PRIMARY KEY, external_id VARCHAR(100), " +
+                "latitude DECIMAL(10, 8) NOT NULL, longitude DECIMAL(11, 8) NOT NULL, geom GEOMETRY, " +
+                "date_created TIMESTAMP NOT NULL, last_date_modified TIMESTAMP, created_by VARCHAR(255), " +
+                "last_modified_by VARCHAR(255), is_deleted BOOLEAN NOT NULL)");
+        jdbcTemplate.update("INSERT INTO coordinates (id, external_id, latitude, longitude, date_created, is_deleted) " +
+                "VALUES (1, 'coordinates-1', 52.37, 4.89, CURRENT_TIMESTAMP, false)");
+        jdbcTemplate.update("INSERT INTO product (id, external_id, product_type, is_b2b_rentable, date_created, is_deleted) " +
+                "VALUES (1, 'bike-1', 'BIKE', false, CURRENT_TIMESTAMP, false)");
+        jdbcTemplate.update("INSERT INTO bike (id, code, battery_level, bike_type_id, lock_id, coordinates_id) " +
+                "VALUES (1, 'B1', 100, 1, 1, 1)");
+        jdbcTemplate.update("INSERT INTO rental (id, external_id, user_external_id, company_external_id, rental_status_id, " +
+                "date_created, is_deleted) VALUES (1, 'rental-1', 'user-1', 'company-a', 1, CURRENT_TIMESTAMP, false)");
+        jdbcTemplate.update("INSERT INTO bike_rental (id, external_id, bike_id, location_id, rental_id, start_date_time, " +
+                "bike_rental_status_id, is_revenue_share_paid, total_price, date_created, is_deleted) " +
+                "VALUES (1, 'bike-rental-1', 1, 1, 1, CURRENT_TIMESTAMP, 1, false, 10.00, CURRENT_TIMESTAMP, false)");
+    }
+
+    @SpringBootConfiguration
+    @ImportAutoConfiguration({DataSourceAutoConfiguration.class, DataSourceTransactionManagerAutoConfiguration.class,
+            JdbcTemplateAutoConfiguration.class, HibernateJpaAutoConfiguration.class, TransactionAutoConfiguration.class})
+    @EntityScan(basePackageClasses = BikeRental.class)
+    @EnableJpaRepositories(basePackageClasses = BikeRentalRepository.class)
+    static class JpaConfig {
+    }
+}
@@ -0,0 +1,141 @@
+package org.clickenrent.rentalservice.service;
+
+import org.clickenrent.contracts.security.TenantContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Authorization checks of one service call, as BikeRentalService.unlockBike makes them:
+ * the role checks, then a company and a user check.
+ *
+ * - memoized: SecurityService with the request's principal snapshot already built
+ * - firstCallOfRequest: the same checks, building the snapshot from the JWT first
+ * - perCall: roles and claims read from the authentication on every check, as before the snapshot
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SecurityServiceBenchmark {
+
+    private static final String COMPANY = "company-5";
+    private static final String USER = "user-42";
+
+    @Param({"B2B", "ADMIN"})
+    private String role;
+
+    private final SecurityService securityService = new SecurityService();
+
+    @Setup
+    public void setUp() {
+        Instant now = Instant.now();
+        Jwt jwt = Jwt.withTokenValue("token")
+                .header("alg", "HS256")
+                .claim("userId", 42)
+                .claim("userExternalId", USER)
+                .claim("companyIds", List.of(1, 2, 3, 4, 5))
+                .claim("companyExternalIds", List.of("company-1", "company-2", "company-3", "company-4", COMPANY))
+                .issuedAt(now)
+                .expiresAt(now.plusSeconds(3600))
+                .build();
+        Authentication authentication = new JwtAuthenticationToken(jwt,
+                List.of(new SimpleGrantedAuthority("ROLE_" + role), new SimpleGrantedAuthority("ROLE_USER")));
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+    }
+
+    @TearDown
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+        TenantContext.clear();
+    }
+
+    @Benchmark
+    public boolean memoized() {
+        return securityService.isAdmin()
+                || (securityService.isB2B()
+                && securityService.hasAccessToCompanyByExternalId(COMPANY)
+                && securityService.hasAccessToUserByExternalId(USER));
+    }
+
+    @Benchmark
+    public boolean firstCallOfRequest() {
+        TenantContext.clear();
+        return memoized();
+    }
+
+    @Benchmark
+    public boolean perCall() {
+        return PerCallChecks.isAdmin()
+                || (PerCallChecks.isB2B()
+                && PerCallChecks.hasAccessToCompanyByExternalId(COMPANY)
+                && PerCallChecks.hasAccessToUserByExternalId(USER));
+    }
+
+    /**
+     * The checks as SecurityService made them before the principal snapshot.
+     */
+    private static final class PerCallChecks {
+
+        static List<String> roles() {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            return authentication.getAuthorities().stream()
+                    .map(GrantedAuthority::getAuthority)
+                    .map(role -> role.replace("ROLE_", ""))
+                    .toList();
+        }
+
+        static boolean isAdmin() {
+            List<String> roles = roles();
+            return roles.contains("SUPERADMIN") || roles.contains("ADMIN");
+        }
+
+        static boolean isB2B() {
+            return roles().contains("B2B");
+        }
+
+        static boolean hasAccessToCompanyByExternalId(String companyExternalId) {
+            if (isAdmin()) {
+                return true;
+            }
+            if (SecurityContextHolder.getContext().getAuthentication().getPrincipal() instanceof Jwt jwt) {
+                List<?> companyExternalIds = jwt.getClaim("companyExternalIds");
+                return companyExternalIds != null && companyExternalIds.stream()
+                        .filter(String.class::isInstance)
+                        .map(String.class::cast)
+                        .toList()
+                        .contains(companyExternalId);
+            }
+            return false;
+        }
+
+        static boolean hasAccessToUserByExternalId(String userExternalId) {
+            if (isAdmin()) {
+                return true;
+            }
+            return SecurityContextHolder.getContext().getAuthentication().getPrincipal() instanceof Jwt jwt
+                    && userExternalId.equals(jwt.getClaimAsString("userExternalId"));
+        }
+    }
+}
@@ -5,7 +5,8 @@ import org.springframework.scheduling.annotation.EnableAsync;
 
 /**
  * Configuration for asynchronous processing.
- * Enables @Async annotation support for audit logging.
+ * Enables @Async annotation support (photo thumbnails).
+ * Audit events don't use it: AuditServiceImpl writes them in batches from its own writer thread.
  */
 @Configuration
 @EnableAsync
@@ -1,9 +1,9 @@
 package org.clickenrent.rentalservice.config;
 
-import feign.Logger;
 import feign.RequestInterceptor;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
+import org.clickenrent.contracts.security.InternalIdentityCodec;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.context.request.RequestContextHolder;
@@ -17,14 +17,6 @@ import org.springframework.web.context.request.ServletRequestAttributes;
 @Slf4j
 public class FeignConfig {
 
-    /**
-     * Enable full Feign logging for debugging.
-     */
-    @Bean
-    Logger.Level feignLoggerLevel() {
-        return Logger.Level.FULL;
-    }
-
     /**
      * Interceptor to propagate JWT token to other services.
      * Extracts the Authorization header from the incoming request and forwards it.
@@ -43,6 +35,12 @@ public class FeignConfig {
                 } else {
                     log.warn("No valid Authorization header found in request");
                 }
+
+                // Identity asserted by the gateway, for services in internal-trust mode
+                String internalIdentity = request.getHeader(InternalIdentityCodec.HEADER);
+                if (internalIdentity != null) {
+                    requestTemplate.header(InternalIdentityCodec.HEADER, internalIdentity);
+                }
             } else {
                 log.warn("No request attributes available for Feign interceptor");
             }
@@ -0,0 +1,13 @@
+package org.clickenrent.rentalservice.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Configuration for Spring Scheduling.
+ * Enables @Scheduled support for the transactional outbox relay.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
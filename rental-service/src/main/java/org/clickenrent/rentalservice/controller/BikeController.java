@@ -10,17 +10,25 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.clickenrent.contracts.rental.FleetAggregatesDTO;
+import org.clickenrent.contracts.security.TenantContext;
 import org.clickenrent.rentalservice.dto.BikeDTO;
 import org.clickenrent.rentalservice.dto.NearbyBikesResponseDTO;
+import org.clickenrent.rentalservice.service.BikeExportService;
 import org.clickenrent.rentalservice.service.BikeService;
+import org.clickenrent.rentalservice.service.FleetAggregatesService;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
 
 /**
  * REST controller for Bike management operations.
@@ -33,6 +41,8 @@ import org.springframework.web.bind.annotation.*;
 public class BikeController {
 
     private final BikeService bikeService;
+    private final BikeExportService bikeExportService;
+    private final FleetAggregatesService fleetAggregatesService;
 
     /**
      * Get all bikes with pagination.
@@ -55,6 +65,64 @@ public class BikeController {
         return ResponseEntity.ok(bikes);
     }
 
+    /**
+     * Get bike counts by status and the battery level histogram of the caller's fleet.
+     * GET /api/v1/bikes/fleet-aggregates
+     */
+    @GetMapping("/fleet-aggregates")
+    @PreAuthorize("hasAnyRole('SUPERADMIN', 'ADMIN', 'B2B')")
+    @Operation(
+            summary = "Get fleet aggregates",
+            description = "Returns bike counts by status and a battery level histogram (full 76-100%, medium 51-75%, " +
+                    "low 25-50%, critical 0-24%), computed in the database. Admins get the whole fleet, " +
+                    "B2B users the bikes of their companies. Results may be up to a few seconds old."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Fleet aggregates retrieved successfully",
+                    content = @Content(schema = @Schema(implementation = FleetAggregatesDTO.class))),
+            @ApiResponse(responseCode = "401", description = "Not authenticated"),
+            @ApiResponse(responseCode = "403", description = "Insufficient permissions")
+    })
+    public ResponseEntity<FleetAggregatesDTO> getFleetAggregates() {
+        return ResponseEntity.ok(fleetAggregatesService.getFleetAggregates());
+    }
+
+    /**
+     * Stream all bikes as newline-delimited JSON.
+     * GET /api/v1/bikes/export
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasAnyRole('SUPERADMIN', 'ADMIN', 'B2B')")
+    @Operation(
+            summary = "Export bikes (NDJSON stream)",
+            description = "Streams every accessible bike as one JSON object per line using a database cursor. " +
+                    "Intended for bulk consumers such as search re-indexing."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Bike stream started"),
+            @ApiResponse(responseCode = "401", description = "Not authenticated"),
+            @ApiResponse(responseCode = "403", description = "Insufficient permissions")
+    })
+    public ResponseEntity<StreamingResponseBody> exportBikes(
+            @Parameter(description = "Restrict the export to one company")
+            @RequestParam(required = false) String companyExternalId) {
+        List<String> companyScope = bikeExportService.resolveCompanyScope(companyExternalId);
+        TenantContext.Snapshot tenant = TenantContext.capture();
+
+        StreamingResponseBody body = out -> {
+            tenant.apply();
+            try {
+                bikeExportService.exportBikes(companyScope, out);
+            } finally {
+                TenantContext.clear();
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
     /**
      * Get bike by ID.
      * GET /api/bikes/{id}
@@ -5,8 +5,12 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.clickenrent.contracts.rental.BikeRentalHistogramBucketDTO;
+import org.clickenrent.contracts.rental.LocationDailyRevenueDTO;
 import org.clickenrent.rentalservice.dto.*;
+import org.clickenrent.rentalservice.service.BikeRentalHistogramService;
 import org.clickenrent.rentalservice.service.BikeRentalService;
+import org.clickenrent.rentalservice.service.LocationRevenueService;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -27,6 +31,8 @@ import java.util.List;
 public class BikeRentalController {
 
     private final BikeRentalService bikeRentalService;
+    private final LocationRevenueService locationRevenueService;
+    private final BikeRentalHistogramService bikeRentalHistogramService;
 
     @GetMapping
     @PreAuthorize("isAuthenticated()")
@@ -137,6 +143,31 @@ public class BikeRentalController {
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping("/{id}/photo/upload-url")
+    @PreAuthorize("isAuthenticated()")
+    @Operation(
+            summary = "Get a direct upload URL for the bike rental photo",
+            description = "Returns a short-lived SAS URL. PUT the photo to it with the returned headers, " +
+                         "then confirm the upload with the returned blob name. Same rules as the multipart upload."
+    )
+    public ResponseEntity<PhotoUploadUrlDTO> createPhotoUploadUrl(
+            @PathVariable Long id,
+            @Valid @RequestBody PhotoUploadUrlRequestDTO request) {
+        return ResponseEntity.ok(bikeRentalService.createPhotoUploadUrl(id, request.getContentType()));
+    }
+
+    @PostMapping("/{id}/photo/complete")
+    @PreAuthorize("isAuthenticated()")
+    @Operation(
+            summary = "Confirm a direct photo upload",
+            description = "Validates the uploaded blob (size, content type) and attaches it to the bike rental."
+    )
+    public ResponseEntity<PhotoUploadResponseDTO> completePhotoUpload(
+            @PathVariable Long id,
+            @Valid @RequestBody PhotoUploadCompleteRequestDTO request) {
+        return ResponseEntity.ok(bikeRentalService.completePhotoUpload(id, request.getBlobName()));
+    }
+
     @GetMapping("/rental/{rentalId}")
     @PreAuthorize("isAuthenticated()")
     @Operation(summary = "Get bike rentals by rental ID", description = "Retrieve all bike rentals for a specific rental")
@@ -163,6 +194,30 @@ public class BikeRentalController {
         return ResponseEntity.ok(bikeRentalService.getUnpaidBikeRentalsForPayout(startDate, endDate));
     }
 
+    @GetMapping("/revenue-by-location")
+    @PreAuthorize("hasAnyRole('SUPERADMIN', 'ADMIN', 'B2B')")
+    @Operation(
+        summary = "Get daily bike rental revenue per location",
+        description = "Revenue and earnings of the bike rentals started in the period, aggregated per location and day. Used by analytics-service."
+    )
+    public ResponseEntity<List<LocationDailyRevenueDTO>> getDailyRevenueByLocation(
+            @RequestParam @org.springframework.format.annotation.DateTimeFormat(iso = org.springframework.format.annotation.DateTimeFormat.ISO.DATE) java.time.LocalDate from,
+            @RequestParam @org.springframework.format.annotation.DateTimeFormat(iso = org.springframework.format.annotation.DateTimeFormat.ISO.DATE) java.time.LocalDate to) {
+        return ResponseEntity.ok(locationRevenueService.getDailyRevenueByLocation(from, to));
+    }
+
+    @GetMapping("/histogram-buckets")
+    @PreAuthorize("hasAnyRole('SUPERADMIN', 'ADMIN', 'B2B')")
+    @Operation(
+        summary = "Get bike rental histogram buckets",
+        description = "Counts and ride durations of the bike rentals started in the period, aggregated per company, day, hour, bike type and status. Used by analytics-service to backfill its rental histograms."
+    )
+    public ResponseEntity<List<BikeRentalHistogramBucketDTO>> getHistogramBuckets(
+            @RequestParam @org.springframework.format.annotation.DateTimeFormat(iso = org.springframework.format.annotation.DateTimeFormat.ISO.DATE) java.time.LocalDate from,
+            @RequestParam @org.springframework.format.annotation.DateTimeFormat(iso = org.springframework.format.annotation.DateTimeFormat.ISO.DATE) java.time.LocalDate to) {
+        return ResponseEntity.ok(bikeRentalHistogramService.getDailyHistogramBuckets(from, to));
+    }
+
     @PostMapping("/mark-paid")
     @PreAuthorize("hasAnyRole('ADMIN', 'SUPERADMIN', 'SYSTEM')")
     @Operation(
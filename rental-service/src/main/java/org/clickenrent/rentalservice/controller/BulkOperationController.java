@@ -0,0 +1,44 @@
+package org.clickenrent.rentalservice.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.clickenrent.rentalservice.dto.BulkOperationResultDTO;
+import org.clickenrent.rentalservice.dto.BulkStatusUpdateRequestDTO;
+import org.clickenrent.rentalservice.service.BulkOperationService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/bulk")
+@RequiredArgsConstructor
+@Tag(name = "Bulk Operations", description = "Set-based status transitions for end-of-day jobs and admin bulk actions")
+@SecurityRequirement(name = "bearerAuth")
+public class BulkOperationController {
+
+    private final BulkOperationService bulkOperationService;
+
+    @PostMapping("/rentals/status")
+    @PreAuthorize("hasAnyRole('SUPERADMIN', 'ADMIN', 'SYSTEM')")
+    @Operation(summary = "Move rentals to a status", description = "Updates all given rentals in chunked set-based statements")
+    public ResponseEntity<BulkOperationResultDTO> updateRentalStatuses(@Valid @RequestBody BulkStatusUpdateRequestDTO request) {
+        return ResponseEntity.ok(bulkOperationService.updateRentalStatuses(request.getExternalIds(), request.getStatusName()));
+    }
+
+    @PostMapping("/rides/status")
+    @PreAuthorize("hasAnyRole('SUPERADMIN', 'ADMIN', 'SYSTEM')")
+    @Operation(summary = "Move rides to a status", description = "Updates all given rides in chunked set-based statements")
+    public ResponseEntity<BulkOperationResultDTO> updateRideStatuses(@Valid @RequestBody BulkStatusUpdateRequestDTO request) {
+        return ResponseEntity.ok(bulkOperationService.updateRideStatuses(request.getExternalIds(), request.getStatusName()));
+    }
+
+    @PostMapping("/bike-rentals/status")
+    @PreAuthorize("hasAnyRole('SUPERADMIN', 'ADMIN', 'SYSTEM')")
+    @Operation(summary = "Move bike rentals to a status", description = "Updates all given bike rentals in chunked set-based statements")
+    public ResponseEntity<BulkOperationResultDTO> updateBikeRentalStatuses(@Valid @RequestBody BulkStatusUpdateRequestDTO request) {
+        return ResponseEntity.ok(bulkOperationService.updateBikeRentalStatuses(request.getExternalIds(), request.getStatusName()));
+    }
+}
@@ -10,8 +10,10 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.clickenrent.contracts.rental.UserRentalStatsDTO;
 import org.clickenrent.rentalservice.dto.RentalDTO;
 import org.clickenrent.rentalservice.service.RentalService;
+import org.clickenrent.rentalservice.service.UserRentalStatsService;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -34,6 +36,7 @@ import java.util.List;
 public class RentalController {
 
     private final RentalService rentalService;
+    private final UserRentalStatsService userRentalStatsService;
 
     /**
      * Get all rentals with pagination.
@@ -208,6 +211,23 @@ public class RentalController {
         List<RentalDTO> rentals = rentalService.getRentalsByUserExternalId(userExternalId);
         return ResponseEntity.ok(rentals);
     }
+
+    /**
+     * Get rental statistics of a user, aggregated in SQL.
+     * GET /api/rentals/user/{userExternalId}/stats
+     */
+    @GetMapping("/user/{userExternalId}/stats")
+    @PreAuthorize("isAuthenticated()")
+    @Operation(summary = "Get user rental statistics",
+            description = "Returns the user's bike rental count, total spent, total ride time and favourite location")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Statistics retrieved successfully"),
+            @ApiResponse(responseCode = "401", description = "Not authenticated"),
+            @ApiResponse(responseCode = "403", description = "Insufficient permissions")
+    })
+    public ResponseEntity<UserRentalStatsDTO> getUserRentalStats(@PathVariable String userExternalId) {
+        return ResponseEntity.ok(userRentalStatsService.getUserRentalStats(userExternalId));
+    }
 }
 
 
@@ -33,6 +33,7 @@ public class BikeRentalDTO {
     private Long bikeRentalStatusId;
     private Boolean isRevenueSharePaid;
     private String photoUrl;
+    private String thumbnailUrl;
     private BigDecimal price;
     private BigDecimal totalPrice;
     
@@ -0,0 +1,26 @@
+package org.clickenrent.rentalservice.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Request DTO for moving many rentals, rides or bike rentals to the same status at once.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkStatusUpdateRequestDTO {
+
+    @NotEmpty(message = "External IDs are required")
+    private List<String> externalIds;
+
+    @NotBlank(message = "Status name is required")
+    private String statusName;
+}
@@ -0,0 +1,20 @@
+package org.clickenrent.rentalservice.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Request DTO confirming that a presigned photo upload has finished.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PhotoUploadCompleteRequestDTO {
+
+    @NotBlank(message = "Blob name is required")
+    private String blobName;
+}
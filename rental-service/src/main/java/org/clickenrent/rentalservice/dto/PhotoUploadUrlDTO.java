@@ -0,0 +1,26 @@
+package org.clickenrent.rentalservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+import java.util.Map;
+
+/**
+ * Data Transfer Object for a presigned (SAS) photo upload.
+ * The client PUTs the file to uploadUrl with the given headers and then confirms the upload with blobName.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PhotoUploadUrlDTO {
+
+    private String uploadUrl;
+    private String blobName;
+    private OffsetDateTime expiresAt;
+    private long maxSizeBytes;
+    private Map<String, String> requiredHeaders;
+}
@@ -0,0 +1,20 @@
+package org.clickenrent.rentalservice.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Request DTO for a direct-to-storage photo upload URL.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PhotoUploadUrlRequestDTO {
+
+    @NotBlank(message = "Content type is required")
+    private String contentType;
+}
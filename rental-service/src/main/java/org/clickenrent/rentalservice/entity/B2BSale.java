@@ -14,7 +14,7 @@ import java.util.UUID;
 /**
  * Entity representing B2B sales between companies.
  * Implements TenantScoped for multi-tenant isolation.
- * Note: B2BSale has TWO company filters (seller and buyer).
+ * Note: B2BSale has one filter matching the caller as seller OR buyer (b2bSaleCompanyFilter).
  */
 @Entity
 @Table(
@@ -26,8 +26,7 @@ import java.util.UUID;
         @Index(name = "idx_b2b_sale_buyer_company_external_id", columnList = "buyer_company_external_id")
     }
 )
-@Filter(name = "sellerCompanyFilter", condition = "seller_company_external_id IN (:companyExternalIds)")
-@Filter(name = "buyerCompanyFilter", condition = "buyer_company_external_id IN (:companyExternalIds)")
+@Filter(name = "b2bSaleCompanyFilter")
 @SQLDelete(sql = "UPDATE b2b_sale SET is_deleted = true WHERE id = ?")
 @Where(clause = "is_deleted = false")
 @Getter
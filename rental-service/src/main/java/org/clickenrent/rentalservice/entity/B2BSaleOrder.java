@@ -24,8 +24,7 @@ import org.hibernate.annotations.SQLRestriction;
         @Index(name = "idx_b2b_sale_order_buyer_company_external_id", columnList = "buyer_company_external_id")
     }
 )
-@Filter(name = "sellerCompanyFilter", condition = "seller_company_external_id IN (:companyExternalIds)")
-@Filter(name = "buyerCompanyFilter", condition = "buyer_company_external_id IN (:companyExternalIds)")
+@Filter(name = "b2bSaleCompanyFilter")
 @SQLDelete(sql = "UPDATE b2b_sale_order SET is_deleted = true WHERE id = ?")
 @SQLRestriction("is_deleted = false")
 @Getter
@@ -78,6 +78,10 @@ public class BikeRental extends BaseAuditEntity {
     @Column(name = "photo_url", length = 500)
     private String photoUrl;
 
+    @Size(max = 500, message = "Thumbnail URL must not exceed 500 characters")
+    @Column(name = "thumbnail_url", length = 500)
+    private String thumbnailUrl;
+
     @Column(name = "price", precision = 10, scale = 2)
     private BigDecimal price;
 
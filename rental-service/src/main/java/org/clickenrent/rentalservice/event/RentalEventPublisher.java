@@ -0,0 +1,78 @@
+package org.clickenrent.rentalservice.event;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.clickenrent.contracts.rental.RentalEvent;
+import org.clickenrent.outbox.OutboxWriter;
+import org.clickenrent.rentalservice.entity.BikeRental;
+import org.clickenrent.rentalservice.entity.Rental;
+import org.clickenrent.rentalservice.repository.RideRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+/**
+ * Publishes rental lifecycle events through the transactional outbox.
+ * The event is committed together with the caller's transaction and relayed to Kafka by OutboxRelay.
+ * Failures are not caught: the outbox row is part of that transaction, so the caller's operation fails with it.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RentalEventPublisher {
+
+    private final OutboxWriter outboxWriter;
+    private final RideRepository rideRepository;
+
+    @Value("${kafka.topics.rental-events}")
+    private String rentalEventsTopic;
+
+    public void publishRentalCompleted(Rental rental) {
+        RentalEvent event = RentalEvent.builder()
+                .eventId(UUID.randomUUID().toString())
+                .eventType(RentalEvent.RENTAL_COMPLETED)
+                .timestamp(ZonedDateTime.now())
+                .rentalExternalId(rental.getExternalId())
+                .userExternalId(rental.getUserExternalId())
+                .companyExternalId(rental.getCompanyExternalId())
+                .build();
+
+        // Keyed by user so a user's events stay ordered on one partition
+        outboxWriter.enqueue(rentalEventsTopic, rental.getUserExternalId(), event);
+        log.debug("Queued rental completed event: rental={}, user={}", rental.getExternalId(), rental.getUserExternalId());
+    }
+
+    public void publishBikeRentalStarted(BikeRental bikeRental) {
+        publishBikeRentalEvent(RentalEvent.BIKE_RENTAL_STARTED, bikeRental);
+    }
+
+    public void publishBikeRentalEnded(BikeRental bikeRental) {
+        publishBikeRentalEvent(RentalEvent.BIKE_RENTAL_ENDED, bikeRental);
+    }
+
+    private void publishBikeRentalEvent(String eventType, BikeRental bikeRental) {
+        Rental rental = bikeRental.getRental();
+        RentalEvent event = RentalEvent.builder()
+                .eventId(UUID.randomUUID().toString())
+                .eventType(eventType)
+                .timestamp(ZonedDateTime.now())
+                .rentalExternalId(rental.getExternalId())
+                .userExternalId(rental.getUserExternalId())
+                .companyExternalId(rental.getCompanyExternalId())
+                .bikeRentalExternalId(bikeRental.getExternalId())
+                .bikeRentalStatusName(bikeRental.getBikeRentalStatus() != null
+                        ? bikeRental.getBikeRentalStatus().getName() : null)
+                .totalPrice(bikeRental.getTotalPrice())
+                .startDateTime(bikeRental.getStartDateTime())
+                .bikeTypeName(bikeRental.getBike() != null && bikeRental.getBike().getBikeType() != null
+                        ? bikeRental.getBike().getBikeType().getName() : null)
+                .rideMinutes(RentalEvent.BIKE_RENTAL_ENDED.equals(eventType)
+                        ? rideRepository.sumRideMinutesByBikeRentalId(bikeRental.getId()) : null)
+                .build();
+
+        outboxWriter.enqueue(rentalEventsTopic, rental.getUserExternalId(), event);
+        log.debug("Queued {} event: bikeRental={}", eventType, bikeRental.getExternalId());
+    }
+}
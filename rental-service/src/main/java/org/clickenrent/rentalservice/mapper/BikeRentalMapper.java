@@ -41,6 +41,7 @@ public class BikeRentalMapper {
                 .rentalExternalId(bikeRental.getRental() != null ? bikeRental.getRental().getExternalId() : null)
                 .isRevenueSharePaid(bikeRental.getIsRevenueSharePaid())
                 .photoUrl(bikeRental.getPhotoUrl())
+                .thumbnailUrl(bikeRental.getThumbnailUrl())
                 .price(bikeRental.getPrice())
                 .totalPrice(bikeRental.getTotalPrice())
                 .dateCreated(bikeRental.getDateCreated())
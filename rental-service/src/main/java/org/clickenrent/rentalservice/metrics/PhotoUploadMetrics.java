@@ -0,0 +1,94 @@
+package org.clickenrent.rentalservice.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Metrics for the bike rental photo pipeline.
+ * Upload throughput is photo.upload.bytes over photo.upload.blob.duration. The blob duration is also the
+ * connection hold time saved per upload, since the file is streamed while no database transaction is open;
+ * photo.upload.db.duration is what the upload still holds a connection for. Photos uploaded through a SAS URL
+ * never pass through the service and are only counted in photo.upload.direct.bytes.
+ */
+@Component
+public class PhotoUploadMetrics {
+
+    // Counter names
+    private static final String PHOTO_UPLOAD_CONFLICTS = "photo.upload.conflicts";
+    private static final String PHOTO_THUMBNAILS = "photo.thumbnails";
+
+    // Summary names
+    private static final String PHOTO_UPLOAD_BYTES = "photo.upload.bytes";
+    private static final String PHOTO_DIRECT_UPLOAD_BYTES = "photo.upload.direct.bytes";
+
+    // Timer names
+    private static final String PHOTO_UPLOAD_BLOB_DURATION = "photo.upload.blob.duration";
+    private static final String PHOTO_UPLOAD_DB_DURATION = "photo.upload.db.duration";
+    private static final String PHOTO_THUMBNAIL_DURATION = "photo.thumbnail.duration";
+
+    private final MeterRegistry meterRegistry;
+    private final Counter conflictCounter;
+    private final DistributionSummary uploadBytes;
+    private final DistributionSummary directUploadBytes;
+    private final Timer blobTimer;
+    private final Timer dbTimer;
+    private final Timer thumbnailTimer;
+
+    public PhotoUploadMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.conflictCounter = Counter.builder(PHOTO_UPLOAD_CONFLICTS)
+                .description("Uploads discarded because another photo was stored first")
+                .register(meterRegistry);
+        this.uploadBytes = DistributionSummary.builder(PHOTO_UPLOAD_BYTES)
+                .description("Size of uploaded bike rental photos")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.directUploadBytes = DistributionSummary.builder(PHOTO_DIRECT_UPLOAD_BYTES)
+                .description("Size of photos uploaded directly to blob storage through a SAS URL")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.blobTimer = Timer.builder(PHOTO_UPLOAD_BLOB_DURATION)
+                .description("Time streaming a photo to blob storage without a database connection")
+                .register(meterRegistry);
+        this.dbTimer = Timer.builder(PHOTO_UPLOAD_DB_DURATION)
+                .description("Time a photo upload spends in database transactions")
+                .register(meterRegistry);
+        this.thumbnailTimer = Timer.builder(PHOTO_THUMBNAIL_DURATION)
+                .description("Time to download, resize and store a thumbnail")
+                .register(meterRegistry);
+    }
+
+    public void recordUpload(long bytes, Duration blobDuration) {
+        uploadBytes.record(bytes);
+        blobTimer.record(blobDuration);
+    }
+
+    public void recordDirectUpload(long bytes) {
+        directUploadBytes.record(bytes);
+    }
+
+    public Timer dbTimer() {
+        return dbTimer;
+    }
+
+    public void recordConflict() {
+        conflictCounter.increment();
+    }
+
+    public Timer thumbnailTimer() {
+        return thumbnailTimer;
+    }
+
+    public void recordThumbnail(boolean success) {
+        Counter.builder(PHOTO_THUMBNAILS)
+                .description("Generated thumbnails by outcome")
+                .tag("status", success ? "success" : "failure")
+                .register(meterRegistry)
+                .increment();
+    }
+}
@@ -1,13 +1,21 @@
 package org.clickenrent.rentalservice.repository;
 
 import org.clickenrent.rentalservice.entity.BikeRental;
+import org.clickenrent.rentalservice.entity.BikeRentalStatus;
 import org.clickenrent.rentalservice.entity.Rental;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,15 +27,155 @@ public interface BikeRentalRepository extends JpaRepository<BikeRental, Long> {
     Optional<BikeRental> findByExternalId(String externalId);
     boolean existsByExternalId(String externalId);
     List<BikeRental> findByRental(Rental rental);
+
+    // Rental lifecycle transitions: the aggregate a transition reads, loaded with one query
+    @EntityGraph(attributePaths = {"rental"})
+    Optional<BikeRental> findWithRentalById(Long id);
+
+    @EntityGraph(attributePaths = {"rental", "bikeRentalStatus", "bike", "bike.lock", "bike.lock.lockProvider", "bike.coordinates"})
+    Optional<BikeRental> findWithBikeAndLockById(Long id);
     
     // Date filtering methods
     Page<BikeRental> findByStartDateTimeBetween(LocalDateTime startDateTime, LocalDateTime endDateTime, Pageable pageable);
     Page<BikeRental> findByStartDateTimeAfter(LocalDateTime startDateTime, Pageable pageable);
     Page<BikeRental> findByStartDateTimeBefore(LocalDateTime endDateTime, Pageable pageable);
-}
 
+    // User statistics: aggregated in SQL instead of walking rentals and bike rentals one by one
+    @Query("SELECT COUNT(br) AS bikeRentals, COALESCE(SUM(br.totalPrice), 0) AS totalSpent " +
+            "FROM BikeRental br WHERE br.rental.userExternalId = :userExternalId")
+    UserTotals aggregateByUserExternalId(@Param("userExternalId") String userExternalId);
+
+    @Query("SELECT l.externalId AS externalId, l.name AS name, COUNT(br) AS timesUsed " +
+            "FROM BikeRental br JOIN br.location l WHERE br.rental.userExternalId = :userExternalId " +
+            "GROUP BY l.id, l.externalId, l.name ORDER BY COUNT(br) DESC, l.id")
+    List<LocationUsage> findLocationUsageByUserExternalId(@Param("userExternalId") String userExternalId, Pageable pageable);
+
+    // Revenue analytics: one row per location and day of the bike rentals started in [from, to)
+    String LOCATION_DAILY_REVENUE_SELECT = "SELECT l.id AS locationId, l.externalId AS locationExternalId, l.name AS locationName, " +
+            "CAST(br.startDateTime AS LocalDate) AS rentalDate, COUNT(br) AS bikeRentals, " +
+            "COALESCE(SUM(br.totalPrice), 0) AS revenue, " +
+            "COALESCE(SUM(br.totalPrice * b.revenueSharePercent), 0) AS revenueTimesSharePercent " +
+            "FROM BikeRental br JOIN br.location l LEFT JOIN br.bike b " +
+            "WHERE br.startDateTime >= :from AND br.startDateTime < :to ";
+    String LOCATION_DAILY_REVENUE_GROUP_BY = "GROUP BY l.id, l.externalId, l.name, CAST(br.startDateTime AS LocalDate)";
+
+    @Query(LOCATION_DAILY_REVENUE_SELECT + LOCATION_DAILY_REVENUE_GROUP_BY)
+    List<LocationDailyRevenue> aggregateRevenueByLocationAndDay(@Param("from") LocalDateTime from,
+                                                               @Param("to") LocalDateTime to);
+
+    @Query(LOCATION_DAILY_REVENUE_SELECT + "AND l.companyExternalId IN :companyExternalIds " + LOCATION_DAILY_REVENUE_GROUP_BY)
+    List<LocationDailyRevenue> aggregateRevenueByLocationAndDayForCompanies(
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to,
+            @Param("companyExternalIds") Collection<String> companyExternalIds);
+
+    // Rental histogram backfill: bike rentals started in [from, to) counted per company, day, hour, bike type and
+    // status, with the total ride minutes of each bike rental computed in a subquery first
+    String DAILY_HISTOGRAM_SELECT = "SELECT t.companyExternalId AS companyExternalId, t.rentalDate AS rentalDate, " +
+            "t.rentalHour AS rentalHour, t.bikeTypeName AS bikeTypeName, t.statusName AS statusName, " +
+            "COUNT(*) AS bikeRentals, " +
+            "SUM(CASE WHEN t.rideMinutes > 0 THEN 1 ELSE 0 END) AS durationCount, " +
+            "SUM(CASE WHEN t.rideMinutes > 0 THEN t.rideMinutes ELSE 0 END) AS durationSumMinutes, " +
+            "MIN(CASE WHEN t.rideMinutes > 0 THEN t.rideMinutes END) AS durationMinMinutes, " +
+            "MAX(CASE WHEN t.rideMinutes > 0 THEN t.rideMinutes END) AS durationMaxMinutes " +
+            "FROM (SELECT r.companyExternalId AS companyExternalId, CAST(br.startDateTime AS LocalDate) AS rentalDate, " +
+            "EXTRACT(HOUR FROM br.startDateTime) AS rentalHour, bt.name AS bikeTypeName, s.name AS statusName, " +
+            "(SELECT COALESCE(SUM((ride.endDateTime - ride.startDateTime) BY MINUTE), 0) FROM Ride ride " +
+            "WHERE ride.bikeRental = br AND ride.endDateTime IS NOT NULL) AS rideMinutes " +
+            "FROM BikeRental br JOIN br.rental r LEFT JOIN br.bike b LEFT JOIN b.bikeType bt LEFT JOIN br.bikeRentalStatus s " +
+            "WHERE br.startDateTime >= :from AND br.startDateTime < :to ";
+    String DAILY_HISTOGRAM_GROUP_BY = ") t GROUP BY t.companyExternalId, t.rentalDate, t.rentalHour, t.bikeTypeName, t.statusName";
+
+    @Query(DAILY_HISTOGRAM_SELECT + DAILY_HISTOGRAM_GROUP_BY)
+    List<DailyHistogramBucket> aggregateDailyHistograms(@Param("from") LocalDateTime from,
+                                                        @Param("to") LocalDateTime to);
 
+    @Query(DAILY_HISTOGRAM_SELECT + "AND r.companyExternalId IN :companyExternalIds " + DAILY_HISTOGRAM_GROUP_BY)
+    List<DailyHistogramBucket> aggregateDailyHistogramsForCompanies(
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to,
+            @Param("companyExternalIds") Collection<String> companyExternalIds);
 
+    // Bulk operations: set-based updates without hydrating entities
+    @Query("SELECT br.externalId FROM BikeRental br WHERE br.externalId IN :externalIds")
+    List<String> findExistingExternalIds(@Param("externalIds") Collection<String> externalIds);
 
+    @Query("SELECT DISTINCT br.bike.externalId FROM BikeRental br WHERE br.externalId IN :externalIds AND br.bike IS NOT NULL")
+    List<String> findBikeExternalIdsByExternalIdIn(@Param("externalIds") Collection<String> externalIds);
 
+    @Query("SELECT DISTINCT br.bike.externalId FROM BikeRental br WHERE br.rental.externalId IN :rentalExternalIds AND br.bike IS NOT NULL")
+    List<String> findBikeExternalIdsByRentalExternalIdIn(@Param("rentalExternalIds") Collection<String> rentalExternalIds);
 
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE BikeRental br SET br.isRevenueSharePaid = true, br.lastDateModified = :now, br.lastModifiedBy = :modifiedBy " +
+            "WHERE br.externalId IN :externalIds AND br.isRevenueSharePaid = false")
+    int markRevenueSharePaid(@Param("externalIds") Collection<String> externalIds,
+                             @Param("now") LocalDateTime now,
+                             @Param("modifiedBy") String modifiedBy);
+
+    /**
+     * Store the photo URL unless another upload already did. Used as the commit step of the photo upload,
+     * which streams the file to blob storage before any transaction is opened.
+     *
+     * @return 1 if the URL was stored, 0 if the bike rental already has a photo
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE BikeRental br SET br.photoUrl = :photoUrl, br.lastDateModified = :now, br.lastModifiedBy = :modifiedBy " +
+            "WHERE br.id = :id AND (br.photoUrl IS NULL OR br.photoUrl = '')")
+    int assignPhotoUrlIfAbsent(@Param("id") Long id,
+                               @Param("photoUrl") String photoUrl,
+                               @Param("now") LocalDateTime now,
+                               @Param("modifiedBy") String modifiedBy);
+
+    /**
+     * Store the URL of the thumbnail generated for a photo, on the bike rental that still has that photo.
+     *
+     * @return the number of bike rentals updated
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE BikeRental br SET br.thumbnailUrl = :thumbnailUrl WHERE br.photoUrl = :photoUrl")
+    int assignThumbnailUrl(@Param("photoUrl") String photoUrl, @Param("thumbnailUrl") String thumbnailUrl);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE BikeRental br SET br.bikeRentalStatus = :status, br.lastDateModified = :now, br.lastModifiedBy = :modifiedBy " +
+            "WHERE br.externalId IN :externalIds AND (br.bikeRentalStatus IS NULL OR br.bikeRentalStatus <> :status)")
+    int updateStatusByExternalIds(@Param("externalIds") Collection<String> externalIds,
+                                  @Param("status") BikeRentalStatus status,
+                                  @Param("now") LocalDateTime now,
+                                  @Param("modifiedBy") String modifiedBy);
+
+    interface UserTotals {
+        long getBikeRentals();
+        BigDecimal getTotalSpent();
+    }
+
+    interface LocationUsage {
+        String getExternalId();
+        String getName();
+        long getTimesUsed();
+    }
+
+    interface LocationDailyRevenue {
+        Long getLocationId();
+        String getLocationExternalId();
+        String getLocationName();
+        LocalDate getRentalDate();
+        long getBikeRentals();
+        BigDecimal getRevenue();
+        // Sum of totalPrice * revenueSharePercent, i.e. earnings * 100
+        BigDecimal getRevenueTimesSharePercent();
+    }
+
+    interface DailyHistogramBucket {
+        String getCompanyExternalId();
+        LocalDate getRentalDate();
+        Integer getRentalHour();
+        String getBikeTypeName();
+        String getStatusName();
+        long getBikeRentals();
+        Long getDurationCount();
+        Long getDurationSumMinutes();
+        Long getDurationMinMinutes();
+        Long getDurationMaxMinutes();
+    }
+}
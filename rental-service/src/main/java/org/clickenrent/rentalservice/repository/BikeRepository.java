@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -142,12 +143,41 @@ public interface BikeRepository extends JpaRepository<Bike, Long> {
             @Param("longitude") Double longitude,
             @Param("radiusMeters") Double radiusMeters
     );
-}
-
-
-
-
 
+    String FLEET_AGGREGATE_SELECT = """
+        SELECT b.bikeStatus.id AS bikeStatusId,
+               COUNT(b) AS bikes,
+               SUM(CASE WHEN b.batteryLevel >= 76 THEN 1 ELSE 0 END) AS batteryFull,
+               SUM(CASE WHEN b.batteryLevel BETWEEN 51 AND 75 THEN 1 ELSE 0 END) AS batteryMedium,
+               SUM(CASE WHEN b.batteryLevel BETWEEN 25 AND 50 THEN 1 ELSE 0 END) AS batteryLow,
+               SUM(CASE WHEN b.batteryLevel IS NULL OR b.batteryLevel BETWEEN 0 AND 24 THEN 1 ELSE 0 END) AS batteryCritical
+        FROM Bike b
+        """;
 
+    /**
+     * Bike count and battery histogram per bike status over the whole fleet.
+     */
+    @Query(FLEET_AGGREGATE_SELECT + "GROUP BY b.bikeStatus.id")
+    List<FleetStatusGroup> aggregateFleet();
 
+    /**
+     * Bike count and battery histogram per bike status over the bikes in hubs of the given companies' locations.
+     */
+    @Query(FLEET_AGGREGATE_SELECT + """
+        JOIN b.hub h
+        JOIN h.location l
+        WHERE l.companyExternalId IN :companyExternalIds
+        GROUP BY b.bikeStatus.id
+        """)
+    List<FleetStatusGroup> aggregateFleetByCompanyExternalIds(
+            @Param("companyExternalIds") Collection<String> companyExternalIds);
 
+    interface FleetStatusGroup {
+        Long getBikeStatusId();
+        long getBikes();
+        long getBatteryFull();
+        long getBatteryMedium();
+        long getBatteryLow();
+        long getBatteryCritical();
+    }
+}
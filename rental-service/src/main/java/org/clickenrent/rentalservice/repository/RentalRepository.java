@@ -1,9 +1,15 @@
 package org.clickenrent.rentalservice.repository;
 
 import org.clickenrent.rentalservice.entity.Rental;
+import org.clickenrent.rentalservice.entity.RentalStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,6 +25,18 @@ public interface RentalRepository extends JpaRepository<Rental, Long> {
     List<Rental> findByUserExternalId(String userExternalId);
     List<Rental> findByCompanyExternalId(String companyExternalId);
     boolean existsByExternalId(String externalId);
+
+    // Bulk operations: set-based updates without hydrating entities
+    @Query("SELECT r.externalId FROM Rental r WHERE r.externalId IN :externalIds")
+    List<String> findExistingExternalIds(@Param("externalIds") Collection<String> externalIds);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Rental r SET r.rentalStatus = :status, r.lastDateModified = :now, r.lastModifiedBy = :modifiedBy " +
+            "WHERE r.externalId IN :externalIds AND (r.rentalStatus IS NULL OR r.rentalStatus <> :status)")
+    int updateStatusByExternalIds(@Param("externalIds") Collection<String> externalIds,
+                                  @Param("status") RentalStatus status,
+                                  @Param("now") LocalDateTime now,
+                                  @Param("modifiedBy") String modifiedBy);
 }
 
 
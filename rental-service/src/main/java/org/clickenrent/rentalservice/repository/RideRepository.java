@@ -2,9 +2,16 @@ package org.clickenrent.rentalservice.repository;
 
 import org.clickenrent.rentalservice.entity.BikeRental;
 import org.clickenrent.rentalservice.entity.Ride;
+import org.clickenrent.rentalservice.entity.RideStatus;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,6 +22,39 @@ import java.util.Optional;
 public interface RideRepository extends JpaRepository<Ride, Long> {
     Optional<Ride> findByExternalId(String externalId);
     List<Ride> findByBikeRental(BikeRental bikeRental);
+
+    // Rental lifecycle transitions: the ride with its bike rental and rental, loaded with one query
+    @EntityGraph(attributePaths = {"bikeRental", "bikeRental.rental"})
+    Optional<Ride> findWithBikeRentalById(Long id);
+
+    /**
+     * Total duration of the user's finished rides in minutes, each ride truncated to whole minutes.
+     */
+    @Query("SELECT COALESCE(SUM((r.endDateTime - r.startDateTime) BY MINUTE), 0) FROM Ride r " +
+            "WHERE r.bikeRental.rental.userExternalId = :userExternalId AND r.endDateTime IS NOT NULL")
+    long sumRideMinutesByUserExternalId(@Param("userExternalId") String userExternalId);
+
+    /**
+     * Total duration of the bike rental's finished rides in minutes, each ride truncated to whole minutes.
+     */
+    @Query("SELECT COALESCE(SUM((r.endDateTime - r.startDateTime) BY MINUTE), 0) FROM Ride r " +
+            "WHERE r.bikeRental.id = :bikeRentalId AND r.endDateTime IS NOT NULL")
+    long sumRideMinutesByBikeRentalId(@Param("bikeRentalId") Long bikeRentalId);
+
+    // Bulk operations: set-based updates without hydrating entities
+    @Query("SELECT r.externalId FROM Ride r WHERE r.externalId IN :externalIds")
+    List<String> findExistingExternalIds(@Param("externalIds") Collection<String> externalIds);
+
+    @Query("SELECT DISTINCT r.bikeRental.bike.externalId FROM Ride r WHERE r.externalId IN :externalIds AND r.bikeRental.bike IS NOT NULL")
+    List<String> findBikeExternalIdsByExternalIdIn(@Param("externalIds") Collection<String> externalIds);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Ride r SET r.rideStatus = :status, r.lastDateModified = :now, r.lastModifiedBy = :modifiedBy " +
+            "WHERE r.externalId IN :externalIds AND (r.rideStatus IS NULL OR r.rideStatus <> :status)")
+    int updateStatusByExternalIds(@Param("externalIds") Collection<String> externalIds,
+                                  @Param("status") RideStatus status,
+                                  @Param("now") LocalDateTime now,
+                                  @Param("modifiedBy") String modifiedBy);
 }
 
 
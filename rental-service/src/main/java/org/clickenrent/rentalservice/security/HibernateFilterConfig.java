@@ -9,9 +9,6 @@ import org.clickenrent.contracts.security.TenantContext;
 import org.hibernate.Session;
 import org.springframework.stereotype.Component;
 
-import java.util.List;
-import java.util.stream.Collectors;
-
 /**
  * Automatically enables Hibernate tenant filters before repository queries.
  * Filters add WHERE clauses to limit results to current user's companies.
@@ -21,6 +18,10 @@ import java.util.stream.Collectors;
  * 2. Admins bypass filters (see all data)
  * 3. B2B users only see their companies' data
  * 4. Customers see no company data (handled separately)
+ *
+ * Filters are enabled once per Hibernate session (the request's, with open-in-view); later repository calls
+ * only find them enabled. The companies are not set here: the filter definitions resolve them from
+ * TenantContext for each query (TenantCompanyResolver) and bind them as JDBC parameters.
  */
 @Aspect
 @Component
@@ -28,6 +29,9 @@ import java.util.stream.Collectors;
 @Slf4j
 public class HibernateFilterConfig {
     
+    static final String COMPANY_FILTER = "companyFilter";
+    static final String B2B_SALE_COMPANY_FILTER = "b2bSaleCompanyFilter";
+    
     private final EntityManager entityManager;
     
     @Before("execution(* org.clickenrent.rentalservice.repository.*.*(..))")
@@ -38,31 +42,20 @@ public class HibernateFilterConfig {
             return;
         }
         
-        // Get user's companies
-        List<String> companyIds = TenantContext.getCurrentCompanies();
-        if (companyIds.isEmpty()) {
+        // Customers and unauthenticated calls have no companies
+        if (TenantContext.getCurrentCompanies().isEmpty()) {
             log.trace("No companies in context - customer or unauthenticated user");
             return;
         }
         
-        // Enable filters
         Session session = entityManager.unwrap(Session.class);
+        if (session.getEnabledFilter(COMPANY_FILTER) != null) {
+            return;
+        }
         
-        // Convert list to SQL IN clause format: 'id1','id2','id3'
-        String companyIdsParam = companyIds.stream()
-                .map(id -> "'" + id.replace("'", "''") + "'") // SQL injection protection
-                .collect(Collectors.joining(","));
-        
-        // Enable standard company filter (for Rental, Location, etc.)
-        session.enableFilter("companyFilter")
-               .setParameter("companyExternalIds", companyIdsParam);
-        
-        // Enable B2BSale filters (seller and buyer)
-        session.enableFilter("sellerCompanyFilter")
-               .setParameter("companyExternalIds", companyIdsParam);
-        session.enableFilter("buyerCompanyFilter")
-               .setParameter("companyExternalIds", companyIdsParam);
-        
-        log.debug("Hibernate tenant filters enabled for companies: {}", companyIds);
+        // Standard company filter (for Rental, Location, etc.) and seller-or-buyer filter for B2B sales
+        session.enableFilter(COMPANY_FILTER);
+        session.enableFilter(B2B_SALE_COMPANY_FILTER);
+        log.debug("Hibernate tenant filters enabled for companies: {}", TenantContext.getCurrentCompanies());
     }
 }
@@ -1,9 +1,13 @@
 package org.clickenrent.rentalservice.service;
 
+import com.azure.core.util.BinaryData;
 import com.azure.storage.blob.BlobClient;
 import com.azure.storage.blob.BlobContainerClient;
 import com.azure.storage.blob.BlobServiceClient;
 import com.azure.storage.blob.BlobServiceClientBuilder;
+import com.azure.storage.blob.models.BlobProperties;
+import com.azure.storage.blob.sas.BlobSasPermission;
+import com.azure.storage.blob.sas.BlobServiceSasSignatureValues;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
@@ -12,6 +16,7 @@ import org.springframework.web.multipart.MultipartFile;
 import java.io.IOException;
 import java.io.InputStream;
 import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.UUID;
 
@@ -22,6 +27,8 @@ import java.util.UUID;
 @Slf4j
 public class AzureBlobStorageService {
 
+    private static final String THUMBNAIL_PREFIX = "thumbnails/";
+
     @Value("${azure.storage.connection-string}")
     private String connectionString;
 
@@ -108,6 +115,88 @@ public class AzureBlobStorageService {
         }
     }
 
+    /**
+     * Create a short-lived SAS URL that lets a client upload one blob directly to the container.
+     * The SAS only grants create on that blob name: it cannot read other photos, nor overwrite this one once
+     * uploaded, so the blob validated by the completion call is the one that stays.
+     *
+     * @param blobName the blob the client may upload
+     * @param expiresAt when the SAS stops being accepted
+     * @return the blob URL including the SAS token
+     */
+    public String createUploadUrl(String blobName, OffsetDateTime expiresAt) {
+        initializeClients();
+
+        BlobClient blobClient = containerClient.getBlobClient(blobName);
+        BlobSasPermission permission = new BlobSasPermission()
+                .setCreatePermission(true);
+        String sasToken = blobClient.generateSas(new BlobServiceSasSignatureValues(expiresAt, permission));
+
+        return blobClient.getBlobUrl() + "?" + sasToken;
+    }
+
+    /**
+     * Get the public URL of a blob in the photo container.
+     *
+     * @param blobName the blob name
+     * @return the blob URL (without SAS)
+     */
+    public String getBlobUrl(String blobName) {
+        initializeClients();
+        return containerClient.getBlobClient(blobName).getBlobUrl();
+    }
+
+    /**
+     * Get size and content type of a blob uploaded through a SAS URL.
+     *
+     * @param blobName the blob name
+     * @return the blob properties, or null if the blob was never uploaded
+     */
+    public BlobProperties getBlobProperties(String blobName) {
+        initializeClients();
+
+        BlobClient blobClient = containerClient.getBlobClient(blobName);
+        return blobClient.exists() ? blobClient.getProperties() : null;
+    }
+
+    /**
+     * Download a previously uploaded photo.
+     *
+     * @param photoUrl the URL returned by {@link #uploadPhoto(MultipartFile, String)}
+     * @return the photo content
+     * @throws IllegalArgumentException if the URL does not point into the photo container
+     */
+    public byte[] downloadPhoto(String photoUrl) {
+        initializeClients();
+
+        String blobName = extractBlobNameFromUrl(photoUrl);
+        if (blobName == null) {
+            throw new IllegalArgumentException("Not a photo URL of container " + containerName + ": " + photoUrl);
+        }
+        return containerClient.getBlobClient(blobName).downloadContent().toBytes();
+    }
+
+    /**
+     * Upload the thumbnail of a photo next to it, under the thumbnails/ prefix.
+     *
+     * @param photoUrl the URL of the original photo
+     * @param thumbnail the encoded thumbnail
+     * @return the URL of the uploaded thumbnail
+     */
+    public String uploadThumbnail(String photoUrl, byte[] thumbnail) {
+        initializeClients();
+
+        String blobName = extractBlobNameFromUrl(photoUrl);
+        if (blobName == null) {
+            throw new IllegalArgumentException("Not a photo URL of container " + containerName + ": " + photoUrl);
+        }
+        BlobClient blobClient = containerClient.getBlobClient(THUMBNAIL_PREFIX + blobName);
+        blobClient.upload(BinaryData.fromBytes(thumbnail), true);
+
+        log.debug("Uploaded thumbnail {} ({} bytes)", blobClient.getBlobName(), thumbnail.length);
+        return blobClient.getBlobUrl();
+    }
+
     /**
      * Generate a unique blob name for the photo.
      *
@@ -0,0 +1,129 @@
+package org.clickenrent.rentalservice.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.clickenrent.contracts.rental.BikeDTO;
+import org.clickenrent.http.ndjson.ExportCompanyScope;
+import org.clickenrent.http.ndjson.NdjsonExportWriter;
+import org.clickenrent.rentalservice.exception.UnauthorizedException;
+import org.clickenrent.rentalservice.security.PostgresRLSConfig;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Streams bikes as newline-delimited JSON for bulk consumers (search re-index, backfills).
+ * Rows are read through a read-only, forward-only JDBC cursor and written straight to the
+ * response, so memory stays constant regardless of fleet size.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BikeExportService {
+
+    private static final String EXPORT_SQL = """
+        SELECT
+            p.id,
+            p.external_id,
+            p.is_b2b_rentable,
+            p.date_created,
+            p.last_date_modified,
+            p.created_by,
+            p.last_modified_by,
+            b.code,
+            b.qr_code_url,
+            b.frame_number,
+            b.bike_status_id,
+            b.battery_level,
+            b.lock_id,
+            b.vat,
+            b.is_vat_include,
+            b.hub_id,
+            b.coordinates_id,
+            b.bike_type_id,
+            b.currency_external_id,
+            b.in_service_date,
+            b.bike_model_id,
+            bm.image_url AS bike_model_image_url,
+            b.revenue_share_percent
+        FROM product p
+        INNER JOIN bike b ON p.id = b.id
+        LEFT JOIN bike_model bm ON b.bike_model_id = bm.id
+        LEFT JOIN hub h ON b.hub_id = h.id
+        LEFT JOIN location l ON h.location_id = l.id
+        WHERE p.is_deleted = false
+        """;
+
+    private static final String COMPANY_CONDITION = " AND l.company_external_id = ANY (?)";
+    private static final String ORDER_BY = " ORDER BY p.id";
+
+    private final NdjsonExportWriter ndjsonExportWriter;
+    private final SecurityService securityService;
+    private final PostgresRLSConfig postgresRLSConfig;
+
+    /**
+     * Resolve which companies the current user may export.
+     * Must be called on the request thread, before the response starts streaming.
+     *
+     * @param companyExternalId Optional company to narrow the export to
+     * @return Company external IDs to filter on, or null for an unrestricted (admin) export
+     */
+    public List<String> resolveCompanyScope(String companyExternalId) {
+        return ExportCompanyScope.resolve(companyExternalId, securityService.isAdmin(), securityService::isB2B,
+                securityService::getCurrentUserCompanyExternalIds, "bikes", UnauthorizedException::new);
+    }
+
+    /**
+     * Write every bike visible in the given company scope to the output stream, one JSON object per line.
+     *
+     * @param companyScope Result of {@link #resolveCompanyScope(String)}
+     * @param out Response output stream
+     * @return Number of exported bikes
+     */
+    @Transactional(readOnly = true)
+    public long exportBikes(List<String> companyScope, OutputStream out) throws IOException {
+        // JdbcTemplate bypasses the repository aspects, so set the RLS session variables explicitly
+        postgresRLSConfig.setPostgresSessionVariables();
+
+        String sql = EXPORT_SQL + (companyScope != null ? COMPANY_CONDITION : "") + ORDER_BY;
+        long count = ndjsonExportWriter.write(sql, companyScope, BikeDTO.class, this::mapRow, out);
+
+        log.info("Exported {} bikes as NDJSON (companies: {})", count, companyScope != null ? companyScope : "all");
+        return count;
+    }
+
+    private BikeDTO mapRow(ResultSet rs, int rowNum) throws SQLException {
+        Date inServiceDate = rs.getDate("in_service_date");
+        return BikeDTO.builder()
+                .id(rs.getLong("id"))
+                .externalId(rs.getString("external_id"))
+                .code(rs.getString("code"))
+                .qrCodeUrl(rs.getString("qr_code_url"))
+                .frameNumber(rs.getString("frame_number"))
+                .bikeStatusId(rs.getObject("bike_status_id", Long.class))
+                .batteryLevel(rs.getObject("battery_level", Integer.class))
+                .lockId(rs.getObject("lock_id", Long.class))
+                .vat(rs.getBigDecimal("vat"))
+                .isVatInclude(rs.getObject("is_vat_include", Boolean.class))
+                .hubId(rs.getObject("hub_id", Long.class))
+                .coordinatesId(rs.getObject("coordinates_id", Long.class))
+                .bikeTypeId(rs.getObject("bike_type_id", Long.class))
+                .currencyExternalId(rs.getString("currency_external_id"))
+                .inServiceDate(inServiceDate != null ? inServiceDate.toLocalDate() : null)
+                .bikeModelId(rs.getObject("bike_model_id", Long.class))
+                .bikeModelImageUrl(rs.getString("bike_model_image_url"))
+                .isB2BRentable(rs.getObject("is_b2b_rentable", Boolean.class))
+                .revenueSharePercent(rs.getBigDecimal("revenue_share_percent"))
+                .dateCreated(NdjsonExportWriter.toLocalDateTime(rs.getTimestamp("date_created")))
+                .lastDateModified(NdjsonExportWriter.toLocalDateTime(rs.getTimestamp("last_date_modified")))
+                .createdBy(rs.getString("created_by"))
+                .lastModifiedBy(rs.getString("last_modified_by"))
+                .build();
+    }
+}
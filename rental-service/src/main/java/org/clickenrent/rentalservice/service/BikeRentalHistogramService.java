@@ -0,0 +1,78 @@
+package org.clickenrent.rentalservice.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.clickenrent.contracts.rental.BikeRentalHistogramBucketDTO;
+import org.clickenrent.rentalservice.exception.UnauthorizedException;
+import org.clickenrent.rentalservice.repository.BikeRentalRepository;
+import org.clickenrent.rentalservice.repository.BikeRentalRepository.DailyHistogramBucket;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Bike rental counts and ride durations per company, day, hour, bike type and status, computed in one GROUP BY
+ * query over the caller's companies: every company for admins, their own companies for B2B users.
+ * analytics-service backfills its daily rental histograms from these buckets; the result size depends on
+ * companies, days and hours, not on the number of bike rentals or rides.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BikeRentalHistogramService {
+
+    private final BikeRentalRepository bikeRentalRepository;
+    private final SecurityService securityService;
+
+    /**
+     * @param from Inclusive start date of the bike rentals
+     * @param to Inclusive end date of the bike rentals
+     */
+    @Transactional(readOnly = true)
+    public List<BikeRentalHistogramBucketDTO> getDailyHistogramBuckets(LocalDate from, LocalDate to) {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("Start date (from) and end date (to) are required");
+        }
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("Start date must be before or equal to end date");
+        }
+
+        LocalDateTime start = from.atStartOfDay();
+        LocalDateTime end = to.plusDays(1).atStartOfDay();
+        List<DailyHistogramBucket> rows;
+        if (securityService.isAdmin()) {
+            rows = bikeRentalRepository.aggregateDailyHistograms(start, end);
+        } else if (securityService.isB2B()) {
+            List<String> companyExternalIds = securityService.getCurrentUserCompanyExternalIds();
+            if (companyExternalIds == null || companyExternalIds.isEmpty()) {
+                return List.of();
+            }
+            rows = bikeRentalRepository.aggregateDailyHistogramsForCompanies(start, end, companyExternalIds);
+        } else {
+            throw new UnauthorizedException("You don't have permission to view bike rental histograms");
+        }
+
+        log.debug("Bike rental histograms {} to {}: {} buckets", from, to, rows.size());
+        return rows.stream()
+                .map(BikeRentalHistogramService::toDto)
+                .toList();
+    }
+
+    private static BikeRentalHistogramBucketDTO toDto(DailyHistogramBucket row) {
+        return BikeRentalHistogramBucketDTO.builder()
+                .companyExternalId(row.getCompanyExternalId())
+                .date(row.getRentalDate())
+                .hour(row.getRentalHour())
+                .bikeTypeName(row.getBikeTypeName())
+                .bikeRentalStatusName(row.getStatusName())
+                .bikeRentals(row.getBikeRentals())
+                .durationCount(row.getDurationCount())
+                .durationSumMinutes(row.getDurationSumMinutes())
+                .durationMinMinutes(row.getDurationMinMinutes())
+                .durationMaxMinutes(row.getDurationMaxMinutes())
+                .build();
+    }
+}
@@ -1,28 +1,35 @@
 package org.clickenrent.rentalservice.service;
 
+import com.azure.storage.blob.models.BlobProperties;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.clickenrent.contracts.notification.SendNotificationRequest;
 import org.clickenrent.rentalservice.client.NotificationClient;
 import org.clickenrent.rentalservice.event.NotificationEventPublisher;
+import org.clickenrent.rentalservice.event.RentalEventPublisher;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.clickenrent.rentalservice.dto.*;
 import org.clickenrent.rentalservice.entity.*;
 import org.clickenrent.rentalservice.exception.PhotoAlreadyExistsException;
+import org.clickenrent.rentalservice.exception.PhotoValidationException;
 import org.clickenrent.rentalservice.exception.ResourceNotFoundException;
 import org.clickenrent.rentalservice.exception.UnauthorizedException;
 import org.clickenrent.rentalservice.mapper.BikeRentalMapper;
+import org.clickenrent.rentalservice.metrics.PhotoUploadMetrics;
 import org.clickenrent.rentalservice.repository.BikeRentalRepository;
 import org.clickenrent.rentalservice.repository.BikeRepository;
-import org.clickenrent.rentalservice.repository.LockRepository;
 import org.clickenrent.rentalservice.repository.RentalRepository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Map;
 
@@ -34,7 +41,6 @@ public class BikeRentalService {
     private final BikeRentalRepository bikeRentalRepository;
     private final BikeRepository bikeRepository;
     private final RentalRepository rentalRepository;
-    private final LockRepository lockRepository;
     private final BikeRentalMapper bikeRentalMapper;
     private final SecurityService securityService;
     private final LockEncryptionService lockEncryptionService;
@@ -43,10 +49,18 @@ public class BikeRentalService {
     private final AzureBlobStorageService azureBlobStorageService;
     private final PhotoValidationService photoValidationService;
     private final NotificationClient notificationClient;
+    private final BulkOperationService bulkOperationService;
+    private final PhotoThumbnailService photoThumbnailService;
+    private final PhotoUploadMetrics photoUploadMetrics;
+    private final TransactionTemplate transactionTemplate;
+    private final RentalEventPublisher rentalEventPublisher;
 
     @Autowired(required = false)
     private NotificationEventPublisher notificationEventPublisher;
 
+    @Value("${photo.upload-url.ttl-minutes:10}")
+    private long uploadUrlTtlMinutes = 10;
+
     @Transactional(readOnly = true)
     public Page<BikeRentalDTO> getAllBikeRentals(Pageable pageable, java.time.LocalDate startDate, java.time.LocalDate endDate) {
         if (securityService.isAdmin()) {
@@ -114,6 +128,8 @@ public class BikeRentalService {
             }
         }
         
+        boolean ending = bikeRental.getEndDateTime() == null && dto.getEndDateTime() != null;
+
         // Update fields
         if (dto.getStartDateTime() != null) bikeRental.setStartDateTime(dto.getStartDateTime());
         if (dto.getEndDateTime() != null) bikeRental.setEndDateTime(dto.getEndDateTime());
@@ -121,6 +137,9 @@ public class BikeRentalService {
         if (dto.getTotalPrice() != null) bikeRental.setTotalPrice(dto.getTotalPrice());
         
         bikeRental = bikeRentalRepository.save(bikeRental);
+        if (ending) {
+            rentalEventPublisher.publishBikeRentalEnded(bikeRental);
+        }
         log.info("Updated bike rental by externalId: {}", externalId);
         return bikeRentalMapper.toDto(bikeRental);
     }
@@ -165,6 +184,7 @@ public class BikeRentalService {
 
         bikeRental.sanitizeForCreate();
         bikeRental = bikeRentalRepository.save(bikeRental);
+        rentalEventPublisher.publishBikeRentalStarted(bikeRental);
         return bikeRentalMapper.toDto(bikeRental);
     }
 
@@ -180,10 +200,15 @@ public class BikeRentalService {
         bikeRentalRepository.delete(bikeRental);
     }
 
+    /**
+     * Unlock the rented bike. The bike rental, its rental, bike, lock and lock provider are loaded in one query
+     * and changed in memory; the lock update is flushed on commit, and the notification is stored in the outbox
+     * and relayed after commit.
+     */
     @Transactional
     public UnlockResponseDTO unlockBike(Long bikeRentalId, UnlockRequestDTO request) {
         // Fetch bike rental with bike and lock
-        BikeRental bikeRental = bikeRentalRepository.findById(bikeRentalId)
+        BikeRental bikeRental = bikeRentalRepository.findWithBikeAndLockById(bikeRentalId)
                 .orElseThrow(() -> new ResourceNotFoundException("BikeRental", "id", bikeRentalId));
 
         // Verify user authorization
@@ -214,7 +239,6 @@ public class BikeRentalService {
         LockStatus unlockedStatus = lockStatusService.getLockStatusByName("unlocked");
         lock.setLockStatus(unlockedStatus);
         lock.setLastSeenAt(LocalDateTime.now());
-        lockRepository.save(lock);
 
         // Send notification
         sendNotificationAsync(
@@ -238,10 +262,14 @@ public class BikeRentalService {
                 .build();
     }
 
+    /**
+     * Lock the rented bike. Loads the same aggregate as unlockBike in one query; the lock, bike and coordinates
+     * changes are flushed together on commit.
+     */
     @Transactional
     public LockResponseDTO lockBike(Long bikeRentalId, LockRequestDTO request) {
-        // Fetch bike rental
-        BikeRental bikeRental = bikeRentalRepository.findById(bikeRentalId)
+        // Fetch bike rental with bike and lock
+        BikeRental bikeRental = bikeRentalRepository.findWithBikeAndLockById(bikeRentalId)
                 .orElseThrow(() -> new ResourceNotFoundException("BikeRental", "id", bikeRentalId));
 
         // Verify user authorization
@@ -269,7 +297,6 @@ public class BikeRentalService {
         LockStatus lockedStatus = lockStatusService.getLockStatusByName("locked");
         lock.setLockStatus(lockedStatus);
         lock.setLastSeenAt(LocalDateTime.now());
-        lockRepository.save(lock);
 
         // Update bike coordinates if provided
         if (request.getCoordinates() != null) {
@@ -278,7 +305,6 @@ public class BikeRentalService {
                     request.getCoordinates()
             );
             bikeRental.getBike().setCoordinates(coordinates);
-            bikeRepository.save(bikeRental.getBike());
         }
 
         // Get rental status (could be "paused" if applicable)
@@ -348,6 +374,9 @@ public class BikeRentalService {
 
     /**
      * Upload photo for a bike rental.
+     * The rental is checked in a short transaction, the file is then streamed to Azure Storage with no
+     * transaction (and no pooled connection) held, and the URL is stored in a second short transaction.
+     * The thumbnail is generated asynchronously afterwards.
      *
      * @param bikeRentalId the bike rental ID
      * @param file the photo file to upload
@@ -357,8 +386,120 @@ public class BikeRentalService {
      * @throws PhotoAlreadyExistsException if photo already exists
      * @throws IllegalStateException if bike rental is not ended
      */
-    @Transactional
     public PhotoUploadResponseDTO uploadPhoto(Long bikeRentalId, MultipartFile file) {
+        // 1-4. Check the bike rental can take a photo
+        photoUploadMetrics.dbTimer().record(() ->
+                transactionTemplate.executeWithoutResult(status -> checkPhotoUploadAllowed(bikeRentalId)));
+
+        // 5. Validate photo (size, content-type)
+        photoValidationService.validatePhoto(file);
+
+        // 6. Upload to Azure Storage, outside of any transaction
+        long uploadStart = System.nanoTime();
+        String photoUrl = azureBlobStorageService.uploadPhoto(file, bikeRentalId.toString());
+        photoUploadMetrics.recordUpload(file.getSize(), Duration.ofNanos(System.nanoTime() - uploadStart));
+
+        // 7-8. Save photoUrl to database and generate the thumbnail
+        return attachPhoto(bikeRentalId, photoUrl);
+    }
+
+    /**
+     * Issue a short-lived SAS URL so the client can upload the photo straight to Azure Storage,
+     * bypassing the gateway and this service. The upload is confirmed with {@link #completePhotoUpload}.
+     * Same preconditions as {@link #uploadPhoto}.
+     *
+     * @param bikeRentalId the bike rental ID
+     * @param contentType the content type the client will upload
+     * @return the upload URL and the blob name to confirm
+     */
+    public PhotoUploadUrlDTO createPhotoUploadUrl(Long bikeRentalId, String contentType) {
+        photoUploadMetrics.dbTimer().record(() ->
+                transactionTemplate.executeWithoutResult(status -> checkPhotoUploadAllowed(bikeRentalId)));
+        photoValidationService.validateContentType(contentType);
+
+        String blobName = azureBlobStorageService.generateUniqueBlobName(
+                "photo" + extensionFor(contentType), bikeRentalId.toString());
+        OffsetDateTime expiresAt = OffsetDateTime.now().plusMinutes(uploadUrlTtlMinutes);
+
+        return PhotoUploadUrlDTO.builder()
+                .uploadUrl(azureBlobStorageService.createUploadUrl(blobName, expiresAt))
+                .blobName(blobName)
+                .expiresAt(expiresAt)
+                .maxSizeBytes(photoValidationService.getMaxSizeBytes())
+                .requiredHeaders(Map.of("x-ms-blob-type", "BlockBlob", "Content-Type", contentType))
+                .build();
+    }
+
+    /**
+     * Attach a photo the client uploaded through a SAS URL.
+     * Size and content type are checked on the stored blob; invalid uploads are deleted.
+     *
+     * @param bikeRentalId the bike rental ID
+     * @param blobName the blob name returned by {@link #createPhotoUploadUrl}
+     * @return response with photo URL
+     * @throws PhotoValidationException if the blob is missing, not issued for this rental or invalid
+     */
+    public PhotoUploadResponseDTO completePhotoUpload(Long bikeRentalId, String blobName) {
+        photoUploadMetrics.dbTimer().record(() ->
+                transactionTemplate.executeWithoutResult(status -> checkPhotoUploadAllowed(bikeRentalId)));
+
+        if (!blobName.startsWith("bike-rental-" + bikeRentalId + "_") || blobName.contains("/")) {
+            throw new PhotoValidationException("Blob " + blobName + " was not issued for this bike rental");
+        }
+
+        BlobProperties properties = azureBlobStorageService.getBlobProperties(blobName);
+        if (properties == null) {
+            throw new PhotoValidationException("Photo " + blobName + " has not been uploaded");
+        }
+
+        String photoUrl = azureBlobStorageService.getBlobUrl(blobName);
+        try {
+            photoValidationService.validateUploadedPhoto(properties.getBlobSize(), properties.getContentType());
+        } catch (PhotoValidationException e) {
+            azureBlobStorageService.deletePhoto(photoUrl);
+            throw e;
+        }
+        photoUploadMetrics.recordDirectUpload(properties.getBlobSize());
+
+        return attachPhoto(bikeRentalId, photoUrl);
+    }
+
+    /**
+     * Store the URL of an uploaded photo unless a concurrent upload stored one in the meantime,
+     * then generate the thumbnail (async).
+     */
+    private PhotoUploadResponseDTO attachPhoto(Long bikeRentalId, String photoUrl) {
+        String modifiedBy = securityService.getCurrentUserExternalId();
+        Integer stored = photoUploadMetrics.dbTimer().record(() -> transactionTemplate.execute(status ->
+                bikeRentalRepository.assignPhotoUrlIfAbsent(bikeRentalId, photoUrl, LocalDateTime.now(),
+                        modifiedBy != null ? modifiedBy : "system")));
+        if (stored == null || stored == 0) {
+            azureBlobStorageService.deletePhoto(photoUrl);
+            photoUploadMetrics.recordConflict();
+            throw new PhotoAlreadyExistsException(
+                    "Photo already exists for this bike rental. Only one photo per rental is allowed."
+            );
+        }
+
+        photoThumbnailService.generateThumbnail(photoUrl);
+
+        log.info("Successfully uploaded photo for bike rental ID: {}. Photo URL: {}", bikeRentalId, photoUrl);
+
+        return PhotoUploadResponseDTO.builder()
+                .photoUrl(photoUrl)
+                .message("Photo uploaded successfully")
+                .build();
+    }
+
+    private String extensionFor(String contentType) {
+        return switch (contentType) {
+            case "image/jpeg" -> ".jpg";
+            case "image/png" -> ".png";
+            default -> "";
+        };
+    }
+
+    private void checkPhotoUploadAllowed(Long bikeRentalId) {
         // 1. Check bikeRental exists
         BikeRental bikeRental = bikeRentalRepository.findById(bikeRentalId)
                 .orElseThrow(() -> new ResourceNotFoundException("BikeRental", "id", bikeRentalId));
@@ -384,23 +525,6 @@ public class BikeRentalService {
                     "Photo already exists for this bike rental. Only one photo per rental is allowed."
             );
         }
-
-        // 5. Validate photo (size, content-type)
-        photoValidationService.validatePhoto(file);
-
-        // 6. Upload to Azure Storage
-        String photoUrl = azureBlobStorageService.uploadPhoto(file, bikeRentalId.toString());
-
-        // 7. Save photoUrl to database
-        bikeRental.setPhotoUrl(photoUrl);
-        bikeRentalRepository.save(bikeRental);
-
-        log.info("Successfully uploaded photo for bike rental ID: {}. Photo URL: {}", bikeRentalId, photoUrl);
-
-        return PhotoUploadResponseDTO.builder()
-                .photoUrl(photoUrl)
-                .message("Photo uploaded successfully")
-                .build();
     }
 
     /**
@@ -415,14 +539,16 @@ public class BikeRentalService {
         }
         // Check for common "ended" status names (case-insensitive)
         String lowerStatus = statusName.toLowerCase();
-        return lowerStatus.equals("Completed") ||
-               lowerStatus.equals("Finished") ||
-               lowerStatus.equals("Ended");
+        return lowerStatus.equals("completed") ||
+               lowerStatus.equals("finished") ||
+               lowerStatus.equals("ended");
     }
 
     /**
-     * Send notification asynchronously without blocking the main operation.
+     * Send notification without blocking the main operation.
      * Uses userExternalId directly from Rental entity - no conversion needed!
+     * The Kafka event is stored in the outbox with the current transaction, so a failure there fails the operation;
+     * a failing Feign fallback is only logged.
      *
      * @param bikeRental       The bike rental
      * @param notificationType Notification type
@@ -437,33 +563,34 @@ public class BikeRentalService {
             String body,
             Map<String, Object> data
     ) {
+        String userExternalId = bikeRental.getRental().getUserExternalId();
+
+        if (notificationEventPublisher != null) {
+            // Kafka event-driven approach: relayed after commit
+            notificationEventPublisher.publishNotificationEvent(
+                    userExternalId,
+                    notificationType,
+                    title,
+                    body,
+                    data,
+                    "high"
+            );
+            log.debug("Published notification event for user: {}, type: {}", userExternalId, notificationType);
+            return;
+        }
+
         try {
-            String userExternalId = bikeRental.getRental().getUserExternalId();
-
-            if (notificationEventPublisher != null) {
-                // New: Kafka event-driven approach
-                notificationEventPublisher.publishNotificationEvent(
-                        userExternalId,
-                        notificationType,
-                        title,
-                        body,
-                        data,
-                        "high"
-                );
-                log.debug("Published notification event for user: {}, type: {}", userExternalId, notificationType);
-            } else {
-                // Fallback: Direct Feign call (for backward compatibility during migration)
-                SendNotificationRequest request = SendNotificationRequest.builder()
-                        .userExternalId(userExternalId)
-                        .notificationType(notificationType)
-                        .title(title)
-                        .body(body)
-                        .data(data)
-                        .priority("high")
-                        .build();
-                notificationClient.sendNotification(request);
-                log.debug("Sent notification via Feign for user: {}, type: {}", userExternalId, notificationType);
-            }
+            // Fallback: Direct Feign call (for backward compatibility during migration)
+            SendNotificationRequest request = SendNotificationRequest.builder()
+                    .userExternalId(userExternalId)
+                    .notificationType(notificationType)
+                    .title(title)
+                    .body(body)
+                    .data(data)
+                    .priority("high")
+                    .build();
+            notificationClient.sendNotification(request);
+            log.debug("Sent notification via Feign for user: {}, type: {}", userExternalId, notificationType);
         } catch (Exception e) {
             // Don't fail the main operation if notification fails
             log.error("Failed to send notification for bike rental: {}", bikeRental.getId(), e);
@@ -499,7 +626,8 @@ public class BikeRentalService {
     }
 
     /**
-     * Mark bike rentals as paid after successful payout
+     * Mark bike rentals as paid after successful payout.
+     * Runs as chunked set-based updates instead of loading and saving each rental.
      *
      * @param bikeRentalExternalIds List of bike rental external IDs to mark as paid
      */
@@ -507,17 +635,10 @@ public class BikeRentalService {
     public void markBikeRentalsAsPaid(List<String> bikeRentalExternalIds) {
         log.info("Marking {} bike rentals as paid", bikeRentalExternalIds.size());
 
-        for (String externalId : bikeRentalExternalIds) {
-            BikeRental bikeRental = bikeRentalRepository.findByExternalId(externalId)
-                    .orElseThrow(() -> new IllegalArgumentException("BikeRental not found: " + externalId));
-
-            bikeRental.setIsRevenueSharePaid(true);
-            bikeRentalRepository.save(bikeRental);
-
-            log.debug("Marked bike rental as paid: {}", externalId);
-        }
+        BulkOperationResultDTO result = bulkOperationService.markBikeRentalsAsPaid(bikeRentalExternalIds);
 
-        log.info("Successfully marked {} bike rentals as paid", bikeRentalExternalIds.size());
+        log.info("Successfully marked {} bike rentals as paid ({} were already paid)",
+                result.getUpdated(), result.getRequested() - result.getUpdated());
     }
 
     /**
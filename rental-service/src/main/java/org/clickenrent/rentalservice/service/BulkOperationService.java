@@ -0,0 +1,223 @@
+package org.clickenrent.rentalservice.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.clickenrent.contracts.search.IndexEventRequest;
+import org.clickenrent.contracts.security.AuditEvent;
+import org.clickenrent.contracts.security.AuditService;
+import org.clickenrent.rentalservice.client.SearchServiceClient;
+import org.clickenrent.rentalservice.dto.BulkOperationResultDTO;
+import org.clickenrent.rentalservice.entity.BikeRentalStatus;
+import org.clickenrent.rentalservice.entity.RentalStatus;
+import org.clickenrent.rentalservice.entity.RideStatus;
+import org.clickenrent.rentalservice.event.IndexEventPublisher;
+import org.clickenrent.rentalservice.exception.ResourceNotFoundException;
+import org.clickenrent.rentalservice.exception.UnauthorizedException;
+import org.clickenrent.rentalservice.repository.BikeRentalRepository;
+import org.clickenrent.rentalservice.repository.BikeRentalStatusRepository;
+import org.clickenrent.rentalservice.repository.RentalRepository;
+import org.clickenrent.rentalservice.repository.RentalStatusRepository;
+import org.clickenrent.rentalservice.repository.RideRepository;
+import org.clickenrent.rentalservice.repository.RideStatusRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * Set-based status transitions for rentals, rides and bike rentals.
+ * IDs are processed in chunks; each chunk is one UPDATE ... WHERE external_id IN (...) statement
+ * instead of a load-modify-save per row. One audit event and one search index event are emitted per chunk.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BulkOperationService {
+
+    private final RentalRepository rentalRepository;
+    private final RentalStatusRepository rentalStatusRepository;
+    private final RideRepository rideRepository;
+    private final RideStatusRepository rideStatusRepository;
+    private final BikeRentalRepository bikeRentalRepository;
+    private final BikeRentalStatusRepository bikeRentalStatusRepository;
+    private final SecurityService securityService;
+    private final AuditService auditService;
+    private final SearchServiceClient searchServiceClient;
+
+    @Autowired(required = false)
+    private IndexEventPublisher indexEventPublisher;
+
+    @Value("${bulk.chunk-size:500}")
+    private int chunkSize = 500;
+
+    @Transactional
+    public BulkOperationResultDTO updateRentalStatuses(List<String> externalIds, String statusName) {
+        requireAdmin();
+        RentalStatus status = rentalStatusRepository.findByName(statusName)
+                .orElseThrow(() -> new ResourceNotFoundException("RentalStatus", "name", statusName));
+
+        return execute("RENTAL_STATUS_UPDATE", "Rental", statusName, externalIds, chunk -> {
+            requireAllExist("Rental", chunk, rentalRepository::findExistingExternalIds);
+            int updated = rentalRepository.updateStatusByExternalIds(chunk, status, LocalDateTime.now(), currentUser());
+            notifySearchService(bikeRentalRepository.findBikeExternalIdsByRentalExternalIdIn(chunk));
+            return updated;
+        });
+    }
+
+    @Transactional
+    public BulkOperationResultDTO updateRideStatuses(List<String> externalIds, String statusName) {
+        requireAdmin();
+        RideStatus status = rideStatusRepository.findByName(statusName)
+                .orElseThrow(() -> new ResourceNotFoundException("RideStatus", "name", statusName));
+
+        return execute("RIDE_STATUS_UPDATE", "Ride", statusName, externalIds, chunk -> {
+            requireAllExist("Ride", chunk, rideRepository::findExistingExternalIds);
+            int updated = rideRepository.updateStatusByExternalIds(chunk, status, LocalDateTime.now(), currentUser());
+            notifySearchService(rideRepository.findBikeExternalIdsByExternalIdIn(chunk));
+            return updated;
+        });
+    }
+
+    @Transactional
+    public BulkOperationResultDTO updateBikeRentalStatuses(List<String> externalIds, String statusName) {
+        requireAdmin();
+        BikeRentalStatus status = bikeRentalStatusRepository.findByName(statusName)
+                .orElseThrow(() -> new ResourceNotFoundException("BikeRentalStatus", "name", statusName));
+
+        return execute("BIKE_RENTAL_STATUS_UPDATE", "BikeRental", statusName, externalIds, chunk -> {
+            requireAllExist("BikeRental", chunk, bikeRentalRepository::findExistingExternalIds);
+            int updated = bikeRentalRepository.updateStatusByExternalIds(chunk, status, LocalDateTime.now(), currentUser());
+            notifySearchService(bikeRentalRepository.findBikeExternalIdsByExternalIdIn(chunk));
+            return updated;
+        });
+    }
+
+    /**
+     * Mark bike rentals as revenue-share paid. Already paid rentals are left untouched.
+     * Called by payment-service after a payout, so it is not restricted to admins here;
+     * the controller endpoint is.
+     *
+     * @throws IllegalArgumentException if any of the bike rentals does not exist
+     */
+    @Transactional
+    public BulkOperationResultDTO markBikeRentalsAsPaid(List<String> externalIds) {
+        return execute("BIKE_RENTAL_MARK_PAID", "BikeRental", null, externalIds, chunk -> {
+            List<String> existing = bikeRentalRepository.findExistingExternalIds(chunk);
+            if (existing.size() < chunk.size()) {
+                throw new IllegalArgumentException("BikeRental not found: " + missing(chunk, existing));
+            }
+            return bikeRentalRepository.markRevenueSharePaid(chunk, LocalDateTime.now(), currentUser());
+        });
+    }
+
+    private BulkOperationResultDTO execute(String operation, String resourceType, String statusName,
+                                           List<String> externalIds, ToIntFunction<List<String>> chunkUpdate) {
+        List<String> ids = new ArrayList<>(new LinkedHashSet<>(externalIds));
+        int updated = 0;
+        int batches = 0;
+
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            List<String> chunk = ids.subList(from, Math.min(from + chunkSize, ids.size()));
+            int chunkUpdated = chunkUpdate.applyAsInt(chunk);
+            updated += chunkUpdated;
+            batches++;
+            logAuditEvent(operation, resourceType, statusName, chunk, chunkUpdated);
+        }
+
+        log.info("{}: updated {} of {} {} rows in {} batches", operation, updated, ids.size(), resourceType, batches);
+
+        return BulkOperationResultDTO.builder()
+                .operation(operation)
+                .requested(ids.size())
+                .updated(updated)
+                .batches(batches)
+                .build();
+    }
+
+    private void requireAdmin() {
+        if (!securityService.isAdmin() && !securityService.getCurrentUserRoles().contains("SYSTEM")) {
+            throw new UnauthorizedException("You don't have permission to perform bulk operations");
+        }
+    }
+
+    private void requireAllExist(String resourceType, List<String> chunk,
+                                 Function<List<String>, List<String>> existingLookup) {
+        List<String> existing = existingLookup.apply(chunk);
+        if (existing.size() < chunk.size()) {
+            throw new ResourceNotFoundException(resourceType + " not found: " + missing(chunk, existing));
+        }
+    }
+
+    private List<String> missing(List<String> requested, List<String> existing) {
+        Set<String> found = new HashSet<>(existing);
+        return requested.stream().filter(id -> !found.contains(id)).toList();
+    }
+
+    private String currentUser() {
+        String userExternalId = securityService.getCurrentUserExternalId();
+        return userExternalId != null ? userExternalId : "system";
+    }
+
+    /**
+     * One audit event per chunk instead of one per row.
+     */
+    private void logAuditEvent(String operation, String resourceType, String statusName,
+                               List<String> chunk, int updated) {
+        try {
+            AuditEvent event = AuditEvent.builder()
+                    .eventType(AuditEvent.EventType.ADMIN_ACTION)
+                    .userExternalId(securityService.getCurrentUserExternalId())
+                    .resourceType(resourceType)
+                    .serviceName("rental-service")
+                    .success(true)
+                    .allowed(true)
+                    .message(String.format("%s: %d of %d %s rows updated%s", operation, updated, chunk.size(),
+                            resourceType, statusName != null ? " to status " + statusName : ""))
+                    .metadata(Map.of(
+                            "operation", operation,
+                            "updated", updated,
+                            "externalIds", List.copyOf(chunk)))
+                    .build();
+
+            auditService.logEvent(event);
+        } catch (Exception e) {
+            log.warn("Failed to log audit event for {}: {}", operation, e.getMessage());
+        }
+    }
+
+    /**
+     * Re-index the bikes touched by one chunk with a single index event.
+     * The outbox event is part of the bulk transaction; only the Feign fallback is fail-safe.
+     */
+    private void notifySearchService(List<String> bikeExternalIds) {
+        List<String> bikeIds = List.copyOf(new LinkedHashSet<>(bikeExternalIds));
+        if (bikeIds.isEmpty()) {
+            return;
+        }
+        if (indexEventPublisher != null) {
+            indexEventPublisher.publishIndexEvents("bike", bikeIds, IndexEventRequest.IndexOperation.UPDATE);
+            return;
+        }
+        try {
+            searchServiceClient.notifyIndexEvent(
+                IndexEventRequest.builder()
+                    .entityType("bike")
+                    .entityIds(bikeIds)
+                    .operation(IndexEventRequest.IndexOperation.UPDATE)
+                    .build()
+            );
+        } catch (Exception e) {
+            log.warn("Failed to notify search-service for UPDATE of {} bikes: {}", bikeIds.size(), e.getMessage());
+        }
+    }
+}
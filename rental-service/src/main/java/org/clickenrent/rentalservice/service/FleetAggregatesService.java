@@ -0,0 +1,93 @@
+package org.clickenrent.rentalservice.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.clickenrent.contracts.rental.FleetAggregatesDTO;
+import org.clickenrent.rentalservice.exception.UnauthorizedException;
+import org.clickenrent.rentalservice.repository.BikeRepository;
+import org.clickenrent.rentalservice.repository.BikeRepository.FleetStatusGroup;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Fleet status counts and battery histogram, computed in one GROUP BY query over the caller's fleet:
+ * every bike for admins, the bikes in hubs of their companies' locations for B2B users.
+ * Results are cached per set of companies for fleet-aggregates.cache-ttl-seconds.
+ */
+@Service
+@Slf4j
+public class FleetAggregatesService {
+
+    private static final String ALL_COMPANIES = "*";
+
+    private final BikeRepository bikeRepository;
+    private final SecurityService securityService;
+    private final Cache<String, FleetAggregatesDTO> cache;
+
+    public FleetAggregatesService(
+            BikeRepository bikeRepository,
+            SecurityService securityService,
+            @Value("${fleet-aggregates.cache-ttl-seconds:5}") long cacheTtlSeconds) {
+        this.bikeRepository = bikeRepository;
+        this.securityService = securityService;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(Duration.ofSeconds(cacheTtlSeconds))
+                .build();
+    }
+
+    @Transactional(readOnly = true)
+    public FleetAggregatesDTO getFleetAggregates() {
+        if (securityService.isAdmin()) {
+            return cache.get(ALL_COMPANIES, key -> aggregate(bikeRepository.aggregateFleet()));
+        }
+        if (!securityService.isB2B()) {
+            throw new UnauthorizedException("You don't have permission to view fleet aggregates");
+        }
+
+        List<String> companyExternalIds = securityService.getCurrentUserCompanyExternalIds();
+        if (companyExternalIds == null || companyExternalIds.isEmpty()) {
+            return aggregate(List.of());
+        }
+        return cache.get(String.join(",", new TreeSet<>(companyExternalIds)),
+                key -> aggregate(bikeRepository.aggregateFleetByCompanyExternalIds(companyExternalIds)));
+    }
+
+    private FleetAggregatesDTO aggregate(List<FleetStatusGroup> groups) {
+        long total = 0;
+        long full = 0;
+        long medium = 0;
+        long low = 0;
+        long critical = 0;
+        Map<Long, Long> byStatus = new HashMap<>();
+        for (FleetStatusGroup group : groups) {
+            total += group.getBikes();
+            full += group.getBatteryFull();
+            medium += group.getBatteryMedium();
+            low += group.getBatteryLow();
+            critical += group.getBatteryCritical();
+            if (group.getBikeStatusId() != null) {
+                byStatus.put(group.getBikeStatusId(), group.getBikes());
+            }
+        }
+
+        log.debug("Fleet aggregates - Total: {}, By status: {}, Battery full/medium/low/critical: {}/{}/{}/{}",
+                total, byStatus, full, medium, low, critical);
+        return FleetAggregatesDTO.builder()
+                .totalBikes(total)
+                .bikesByStatusId(byStatus)
+                .batteryFull(full)
+                .batteryMedium(medium)
+                .batteryLow(low)
+                .batteryCritical(critical)
+                .build();
+    }
+}
@@ -0,0 +1,78 @@
+package org.clickenrent.rentalservice.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.clickenrent.contracts.rental.LocationDailyRevenueDTO;
+import org.clickenrent.rentalservice.exception.UnauthorizedException;
+import org.clickenrent.rentalservice.repository.BikeRentalRepository;
+import org.clickenrent.rentalservice.repository.BikeRentalRepository.LocationDailyRevenue;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Bike rental revenue and earnings per location and day, computed in one GROUP BY query
+ * over the caller's locations: every location for admins, their companies' locations for B2B users.
+ * The result size depends on locations and days, not on the number of bike rentals.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LocationRevenueService {
+
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+    private final BikeRentalRepository bikeRentalRepository;
+    private final SecurityService securityService;
+
+    /**
+     * @param from Inclusive start date of the bike rentals
+     * @param to Inclusive end date of the bike rentals
+     */
+    @Transactional(readOnly = true)
+    public List<LocationDailyRevenueDTO> getDailyRevenueByLocation(LocalDate from, LocalDate to) {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("Start date (from) and end date (to) are required");
+        }
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("Start date must be before or equal to end date");
+        }
+
+        LocalDateTime start = from.atStartOfDay();
+        LocalDateTime end = to.plusDays(1).atStartOfDay();
+        List<LocationDailyRevenue> rows;
+        if (securityService.isAdmin()) {
+            rows = bikeRentalRepository.aggregateRevenueByLocationAndDay(start, end);
+        } else if (securityService.isB2B()) {
+            List<String> companyExternalIds = securityService.getCurrentUserCompanyExternalIds();
+            if (companyExternalIds == null || companyExternalIds.isEmpty()) {
+                return List.of();
+            }
+            rows = bikeRentalRepository.aggregateRevenueByLocationAndDayForCompanies(start, end, companyExternalIds);
+        } else {
+            throw new UnauthorizedException("You don't have permission to view location revenue");
+        }
+
+        log.debug("Location revenue {} to {}: {} location-day rows", from, to, rows.size());
+        return rows.stream()
+                .map(LocationRevenueService::toDto)
+                .toList();
+    }
+
+    private static LocationDailyRevenueDTO toDto(LocationDailyRevenue row) {
+        return LocationDailyRevenueDTO.builder()
+                .locationId(row.getLocationId())
+                .locationExternalId(row.getLocationExternalId())
+                .locationName(row.getLocationName())
+                .date(row.getRentalDate())
+                .bikeRentals(row.getBikeRentals())
+                .revenue(row.getRevenue().setScale(2, RoundingMode.HALF_UP))
+                .earnings(row.getRevenueTimesSharePercent().divide(HUNDRED, 2, RoundingMode.HALF_UP))
+                .build();
+    }
+}
@@ -191,30 +191,32 @@ public class LocationService {
     }
     
     /**
-     * Notify search-service of entity changes (async, fail-safe)
-     * This method never throws exceptions to prevent search failures from breaking location operations
+     * Notify search-service of entity changes.
+     * The Kafka event is stored in the outbox with the current transaction, so a failure there fails the operation.
+     * The Feign fallback never throws, to prevent search failures from breaking location operations
      */
     private void notifySearchService(String entityType, String entityId, String operation) {
+        if (indexEventPublisher != null) {
+            // Kafka event-driven approach: relayed after commit
+            indexEventPublisher.publishIndexEvent(
+                    entityType,
+                    entityId,
+                    IndexEventRequest.IndexOperation.valueOf(operation)
+            );
+            log.debug("Published index event: {} {} {}", operation, entityType, entityId);
+            return;
+        }
+
         try {
-            if (indexEventPublisher != null) {
-                // New: Kafka event-driven approach
-                indexEventPublisher.publishIndexEvent(
-                        entityType,
-                        entityId,
-                        IndexEventRequest.IndexOperation.valueOf(operation)
-                );
-                log.debug("Published index event: {} {} {}", operation, entityType, entityId);
-            } else {
-                // Fallback: Direct Feign call
-                searchServiceClient.notifyIndexEvent(
-                    IndexEventRequest.builder()
-                        .entityType(entityType)
-                        .entityId(entityId)
-                        .operation(IndexEventRequest.IndexOperation.valueOf(operation))
-                        .build()
-                );
-                log.debug("Notified search-service via Feign: {} {} {}", operation, entityType, entityId);
-            }
+            // Fallback: Direct Feign call
+            searchServiceClient.notifyIndexEvent(
+                IndexEventRequest.builder()
+                    .entityType(entityType)
+                    .entityId(entityId)
+                    .operation(IndexEventRequest.IndexOperation.valueOf(operation))
+                    .build()
+            );
+            log.debug("Notified search-service via Feign: {} {} {}", operation, entityType, entityId);
         } catch (Exception e) {
             // Don't fail the main operation if search indexing fails
             log.warn("Failed to notify search-service for {} {} {}: {}", 
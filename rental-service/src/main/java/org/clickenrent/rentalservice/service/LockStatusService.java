@@ -12,6 +12,9 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 @Service
 @RequiredArgsConstructor
 public class LockStatusService {
@@ -20,6 +23,9 @@ public class LockStatusService {
     private final LockStatusMapper lockStatusMapper;
     private final SecurityService securityService;
 
+    // Lock statuses are resolved by name on every lock and unlock; cleared whenever a status changes here
+    private final Map<String, LockStatus> lockStatusesByName = new ConcurrentHashMap<>();
+
     @Transactional(readOnly = true)
     public Page<LockStatusDTO> getAllLockStatuses(Pageable pageable) {
         return lockStatusRepository.findAll(pageable)
@@ -35,8 +41,8 @@ public class LockStatusService {
 
     @Transactional(readOnly = true)
     public LockStatus getLockStatusByName(String name) {
-        return lockStatusRepository.findByName(name)
-                .orElseThrow(() -> new ResourceNotFoundException("LockStatus", "name", name));
+        return lockStatusesByName.computeIfAbsent(name, statusName -> lockStatusRepository.findByName(statusName)
+                .orElseThrow(() -> new ResourceNotFoundException("LockStatus", "name", statusName)));
     }
 
     @Transactional
@@ -48,6 +54,7 @@ public class LockStatusService {
         LockStatus lockStatus = lockStatusMapper.toEntity(dto);
         lockStatus.sanitizeForCreate();
         lockStatus = lockStatusRepository.save(lockStatus);
+        lockStatusesByName.clear();
         return lockStatusMapper.toDto(lockStatus);
     }
 
@@ -62,6 +69,7 @@ public class LockStatusService {
 
         lockStatusMapper.updateEntityFromDto(dto, lockStatus);
         lockStatus = lockStatusRepository.save(lockStatus);
+        lockStatusesByName.clear();
         return lockStatusMapper.toDto(lockStatus);
     }
 
@@ -74,6 +82,7 @@ public class LockStatusService {
         LockStatus lockStatus = lockStatusRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("LockStatus", "id", id));
         lockStatusRepository.delete(lockStatus);
+        lockStatusesByName.clear();
     }
 
     @Transactional(readOnly = true)
@@ -0,0 +1,134 @@
+package org.clickenrent.rentalservice.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.clickenrent.rentalservice.metrics.PhotoUploadMetrics;
+import org.clickenrent.rentalservice.repository.BikeRentalRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+
+/**
+ * Generates downscaled thumbnails of uploaded bike rental photos and stores their URL on the bike rental.
+ * Runs after the upload request has returned, so resizing never delays the client or holds a database connection.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PhotoThumbnailService {
+
+    private final AzureBlobStorageService azureBlobStorageService;
+    private final PhotoUploadMetrics photoUploadMetrics;
+    private final BikeRentalRepository bikeRentalRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${photo.thumbnail.max-dimension:320}")
+    private int maxDimension = 320;
+
+    @Value("${photo.thumbnail.max-source-pixels:50000000}")
+    private long maxSourcePixels = 50_000_000L;
+
+    /**
+     * Create and upload the thumbnail of a stored photo and store its URL (async, fail-safe).
+     *
+     * @param photoUrl the URL of the original photo
+     */
+    @Async
+    public void generateThumbnail(String photoUrl) {
+        try {
+            String thumbnailUrl = photoUploadMetrics.thumbnailTimer().recordCallable(() -> {
+                byte[] original = azureBlobStorageService.downloadPhoto(photoUrl);
+                return azureBlobStorageService.uploadThumbnail(photoUrl, resize(original, formatOf(photoUrl)));
+            });
+            Integer stored = transactionTemplate.execute(status ->
+                    bikeRentalRepository.assignThumbnailUrl(photoUrl, thumbnailUrl));
+            photoUploadMetrics.recordThumbnail(true);
+            if (stored == null || stored == 0) {
+                log.warn("Generated thumbnail {}, but no bike rental has photo {} anymore", thumbnailUrl, photoUrl);
+            } else {
+                log.info("Generated thumbnail for photo {}: {}", photoUrl, thumbnailUrl);
+            }
+        } catch (Exception e) {
+            photoUploadMetrics.recordThumbnail(false);
+            log.warn("Failed to generate thumbnail for photo {}: {}", photoUrl, e.getMessage());
+        }
+    }
+
+    /**
+     * Scale the image down so its longer side is at most max-dimension pixels, keeping the aspect ratio.
+     * Images that are already small enough are re-encoded unchanged.
+     * The dimensions are read from the image header first, so an image declaring more than max-source-pixels
+     * pixels is rejected without being decoded, and larger images are decoded subsampled instead of at full size.
+     *
+     * @param image the encoded image
+     * @param format the ImageIO format name to encode the thumbnail with ("jpg" or "png")
+     * @return the encoded thumbnail
+     * @throws IOException if the image is too large or cannot be decoded or encoded
+     */
+    byte[] resize(byte[] image, String format) throws IOException {
+        int sourceWidth;
+        int sourceHeight;
+        BufferedImage source;
+        try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(image))) {
+            Iterator<ImageReader> readers = input == null ? null : ImageIO.getImageReaders(input);
+            if (readers == null || !readers.hasNext()) {
+                throw new IOException("Unsupported image format");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                sourceWidth = reader.getWidth(0);
+                sourceHeight = reader.getHeight(0);
+                if ((long) sourceWidth * sourceHeight > maxSourcePixels) {
+                    throw new IOException("Image of " + sourceWidth + "x" + sourceHeight
+                            + " pixels exceeds the limit of " + maxSourcePixels + " pixels");
+                }
+
+                // Decode every n-th pixel, keeping the decoded longer side at or above max-dimension
+                int step = Math.max(1, Math.max(sourceWidth, sourceHeight) / maxDimension);
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                source = reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+
+        double scale = Math.min(1.0, (double) maxDimension / Math.max(sourceWidth, sourceHeight));
+        int width = Math.max(1, (int) Math.round(sourceWidth * scale));
+        int height = Math.max(1, (int) Math.round(sourceHeight * scale));
+
+        // JPEG has no alpha channel
+        int type = "png".equals(format) ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        BufferedImage thumbnail = new BufferedImage(width, height, type);
+        Graphics2D graphics = thumbnail.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(thumbnail, format, out);
+        return out.toByteArray();
+    }
+
+    private String formatOf(String photoUrl) {
+        return photoUrl.toLowerCase().endsWith(".png") ? "png" : "jpg";
+    }
+}
@@ -35,16 +35,38 @@ public class PhotoValidationService {
         }
 
         // Check file size
-        long maxSizeBytes = maxSizeMb * 1024L * 1024L;
-        if (file.getSize() > maxSizeBytes) {
-            throw new PhotoValidationException(
-                    String.format("Photo file size exceeds maximum allowed size of %d MB. File size: %.2f MB",
-                            maxSizeMb, file.getSize() / (1024.0 * 1024.0))
-            );
-        }
+        validateSize(file.getSize());
 
         // Check content type
         String contentType = file.getContentType();
+        validateContentType(contentType);
+
+        log.debug("Photo validation passed. File: {}, Size: {} bytes, Content-Type: {}",
+                file.getOriginalFilename(), file.getSize(), contentType);
+    }
+
+    /**
+     * Validate a photo that the client uploaded directly to blob storage, using the stored blob properties.
+     *
+     * @param size the blob size in bytes
+     * @param contentType the blob content type
+     * @throws PhotoValidationException if validation fails
+     */
+    public void validateUploadedPhoto(long size, String contentType) {
+        if (size <= 0) {
+            throw new PhotoValidationException("Uploaded photo is empty");
+        }
+        validateSize(size);
+        validateContentType(contentType);
+    }
+
+    /**
+     * Validate the content type a client announces before uploading directly to blob storage.
+     *
+     * @param contentType the announced content type
+     * @throws PhotoValidationException if the content type is not allowed
+     */
+    public void validateContentType(String contentType) {
         if (contentType == null || contentType.isEmpty()) {
             throw new PhotoValidationException("Photo content type is required");
         }
@@ -56,11 +78,18 @@ public class PhotoValidationService {
                             contentType, String.join(", ", allowedContentTypes))
             );
         }
-
-        log.debug("Photo validation passed. File: {}, Size: {} bytes, Content-Type: {}",
-                file.getOriginalFilename(), file.getSize(), contentType);
     }
-}
-
 
+    public long getMaxSizeBytes() {
+        return maxSizeMb * 1024L * 1024L;
+    }
 
+    private void validateSize(long size) {
+        if (size > getMaxSizeBytes()) {
+            throw new PhotoValidationException(
+                    String.format("Photo file size exceeds maximum allowed size of %d MB. File size: %.2f MB",
+                            maxSizeMb, size / (1024.0 * 1024.0))
+            );
+        }
+    }
+}
@@ -4,6 +4,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.clickenrent.rentalservice.dto.RentalDTO;
 import org.clickenrent.rentalservice.entity.Rental;
+import org.clickenrent.rentalservice.event.RentalEventPublisher;
 import org.clickenrent.rentalservice.exception.ResourceNotFoundException;
 import org.clickenrent.rentalservice.exception.UnauthorizedException;
 import org.clickenrent.rentalservice.mapper.RentalMapper;
@@ -24,9 +25,12 @@ import java.util.List;
 @Slf4j
 public class RentalService {
 
+    private static final String COMPLETED_STATUS = "Completed";
+
     private final RentalRepository rentalRepository;
     private final RentalMapper rentalMapper;
     private final SecurityService securityService;
+    private final RentalEventPublisher rentalEventPublisher;
 
     @Transactional(readOnly = true)
     public Page<RentalDTO> getAllRentals(Pageable pageable) {
@@ -108,8 +112,10 @@ public class RentalService {
             throw new UnauthorizedException("You don't have permission to update this rental");
         }
         
+        String previousStatus = statusName(rental);
         rentalMapper.updateEntityFromDto(dto, rental);
         rental = rentalRepository.save(rental);
+        publishIfCompleted(previousStatus, rental);
         log.info("Updated rental by externalId: {}", externalId);
         return rentalMapper.toDto(rental);
     }
@@ -152,8 +158,10 @@ public class RentalService {
             throw new UnauthorizedException("You don't have permission to update this rental");
         }
 
+        String previousStatus = statusName(rental);
         rentalMapper.updateEntityFromDto(rentalDTO, rental);
         rental = rentalRepository.save(rental);
+        publishIfCompleted(previousStatus, rental);
         return rentalMapper.toDto(rental);
     }
 
@@ -184,8 +192,20 @@ public class RentalService {
                 .map(rentalMapper::toDto)
                 .toList();
     }
-}
-
-
 
+    /**
+     * Publish a rental completed event when an update moves the rental into the "Completed" status,
+     * so consumers caching per-user rental data (user statistics) can refresh it.
+     */
+    private void publishIfCompleted(String previousStatus, Rental rental) {
+        String currentStatus = statusName(rental);
+        if (COMPLETED_STATUS.equalsIgnoreCase(currentStatus)
+                && !COMPLETED_STATUS.equalsIgnoreCase(previousStatus)) {
+            rentalEventPublisher.publishRentalCompleted(rental);
+        }
+    }
 
+    private static String statusName(Rental rental) {
+        return rental.getRentalStatus() != null ? rental.getRentalStatus().getName() : null;
+    }
+}
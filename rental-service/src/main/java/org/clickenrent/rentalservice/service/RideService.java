@@ -25,6 +25,7 @@ import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 @RequiredArgsConstructor
@@ -41,6 +42,9 @@ public class RideService {
     @Autowired(required = false)
     private NotificationEventPublisher notificationEventPublisher;
 
+    // Ride statuses are reference data: resolved by name once, then assigned as references
+    private final Map<String, RideStatus> rideStatusesByName = new ConcurrentHashMap<>();
+
     @Transactional(readOnly = true)
     public Page<RideDTO> getAllRides(Pageable pageable) {
         if (securityService.isAdmin()) {
@@ -94,9 +98,13 @@ public class RideService {
         return rideMapper.toDto(ride);
     }
 
+    /**
+     * Start a ride. The bike rental is loaded with its rental in one query; the mapper then finds it in the
+     * persistence context, and the notification is stored in the outbox and relayed after commit.
+     */
     @Transactional
     public RideDTO startRide(RideDTO dto) {
-        BikeRental bikeRental = bikeRentalRepository.findById(dto.getBikeRentalId())
+        BikeRental bikeRental = bikeRentalRepository.findWithRentalById(dto.getBikeRentalId())
                 .orElseThrow(() -> new ResourceNotFoundException("BikeRental", "id", dto.getBikeRentalId()));
 
         // Check access
@@ -110,9 +118,7 @@ public class RideService {
         }
 
         // Set ride status to Active
-        RideStatus activeStatus = rideStatusRepository.findByName("Active")
-                .orElseThrow(() -> new ResourceNotFoundException("RideStatus", "name", "Active"));
-        ride.setRideStatus(activeStatus);
+        ride.setRideStatus(rideStatus("Active"));
 
         ride.sanitizeForCreate();
         ride = rideRepository.save(ride);
@@ -133,9 +139,13 @@ public class RideService {
         return rideMapper.toDto(ride);
     }
 
+    /**
+     * End a ride. The ride is loaded with its bike rental and rental in one query and changed in memory;
+     * the update is flushed on commit together with the outbox insert of the notification.
+     */
     @Transactional
     public RideDTO endRide(Long id, RideDTO dto) {
-        Ride ride = rideRepository.findById(id)
+        Ride ride = rideRepository.findWithBikeRentalById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Ride", "id", id));
 
         // Check access
@@ -146,16 +156,12 @@ public class RideService {
         ride.setEndDateTime(LocalDateTime.now());
 
         // Set ride status to Finished
-        RideStatus finishedStatus = rideStatusRepository.findByName("Finished")
-                .orElseThrow(() -> new ResourceNotFoundException("RideStatus", "name", "Finished"));
-        ride.setRideStatus(finishedStatus);
+        ride.setRideStatus(rideStatus("Finished"));
 
         if (dto.getEndLocationId() != null) {
             rideMapper.updateEntityFromDto(dto, ride);
         }
 
-        ride = rideRepository.save(ride);
-
         // Calculate ride duration
         Duration duration = Duration.between(ride.getStartDateTime(), ride.getEndDateTime());
         long minutes = duration.toMinutes();
@@ -190,9 +196,16 @@ public class RideService {
         rideRepository.delete(ride);
     }
 
+    private RideStatus rideStatus(String name) {
+        return rideStatusesByName.computeIfAbsent(name, statusName -> rideStatusRepository.findByName(statusName)
+                .orElseThrow(() -> new ResourceNotFoundException("RideStatus", "name", statusName)));
+    }
+
     /**
-     * Send notification asynchronously without blocking the main operation.
+     * Send notification without blocking the main operation.
      * Uses userExternalId directly from Rental entity - no conversion needed!
+     * The Kafka event is stored in the outbox with the current transaction, so a failure there fails the operation;
+     * a failing Feign fallback is only logged.
      *
      * @param bikeRental       The bike rental
      * @param notificationType Notification type
@@ -207,33 +220,34 @@ public class RideService {
             String body,
             Map<String, Object> data
     ) {
+        String userExternalId = bikeRental.getRental().getUserExternalId();
+
+        if (notificationEventPublisher != null) {
+            // Kafka event-driven approach: relayed after commit
+            notificationEventPublisher.publishNotificationEvent(
+                    userExternalId,
+                    notificationType,
+                    title,
+                    body,
+                    data,
+                    "high"
+            );
+            log.debug("Published notification event for user: {}, type: {}", userExternalId, notificationType);
+            return;
+        }
+
         try {
-            String userExternalId = bikeRental.getRental().getUserExternalId();
-
-            if (notificationEventPublisher != null) {
-                // New: Kafka event-driven approach
-                notificationEventPublisher.publishNotificationEvent(
-                        userExternalId,
-                        notificationType,
-                        title,
-                        body,
-                        data,
-                        "high"
-                );
-                log.debug("Published notification event for user: {}, type: {}", userExternalId, notificationType);
-            } else {
-                // Fallback: Direct Feign call (for backward compatibility during migration)
-                SendNotificationRequest request = SendNotificationRequest.builder()
-                        .userExternalId(userExternalId)
-                        .notificationType(notificationType)
-                        .title(title)
-                        .body(body)
-                        .data(data)
-                        .priority("high")
-                        .build();
-                notificationClient.sendNotification(request);
-                log.debug("Sent notification via Feign for user: {}, type: {}", userExternalId, notificationType);
-            }
+            // Fallback: Direct Feign call (for backward compatibility during migration)
+            SendNotificationRequest request = SendNotificationRequest.builder()
+                    .userExternalId(userExternalId)
+                    .notificationType(notificationType)
+                    .title(title)
+                    .body(body)
+                    .data(data)
+                    .priority("high")
+                    .build();
+            notificationClient.sendNotification(request);
+            log.debug("Sent notification via Feign for user: {}, type: {}", userExternalId, notificationType);
         } catch (Exception e) {
             // Don't fail the main operation if notification fails
             log.error("Failed to send notification for bike rental: {}", bikeRental.getId(), e);
@@ -1,6 +1,8 @@
 package org.clickenrent.rentalservice.service;
 
 import lombok.RequiredArgsConstructor;
+import org.clickenrent.contracts.security.SecurityPrincipal;
+import org.clickenrent.contracts.security.TenantContext;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -9,198 +11,156 @@ import org.springframework.stereotype.Service;
 
 import java.util.Collection;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 /**
  * Service for handling security-related operations.
  * Extracts information from JWT tokens and checks user permissions.
+ * The JWT is read once per request into a {@link SecurityPrincipal} kept in {@link TenantContext}.
  */
 @Service
 @RequiredArgsConstructor
 public class SecurityService {
 
+    private static final SecurityPrincipal ANONYMOUS = SecurityPrincipal.of(null, List.of(), null, null, List.of(), List.of());
+
     /**
-     * Get current user ID from JWT token
+     * Get the principal snapshot of the current request, built from the JWT on first use
      */
-    public Long getCurrentUserId() {
+    public SecurityPrincipal getCurrentPrincipal() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        
-        if (authentication == null || !authentication.isAuthenticated()) {
-            return null;
+        if (authentication == null) {
+            return ANONYMOUS;
         }
-        
-        if (authentication.getPrincipal() instanceof Jwt jwt) {
-            Object userId = jwt.getClaim("userId");
-            if (userId instanceof Integer) {
-                return ((Integer) userId).longValue();
-            } else if (userId instanceof Long) {
-                return (Long) userId;
-            }
+
+        SecurityPrincipal principal = TenantContext.getPrincipal();
+        if (principal == null || !principal.isFor(authentication)) {
+            principal = buildPrincipal(authentication);
+            TenantContext.setPrincipal(principal);
         }
-        
-        return null;
+        return principal;
+    }
+
+    /**
+     * Get current user ID from JWT token
+     */
+    public Long getCurrentUserId() {
+        return getCurrentPrincipal().getUserId();
     }
 
     /**
      * Get current user's company IDs from JWT token
      */
     public List<Long> getCurrentUserCompanyIds() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        
-        if (authentication == null || !authentication.isAuthenticated()) {
-            return List.of();
-        }
-        
-        if (authentication.getPrincipal() instanceof Jwt jwt) {
-            List<?> companyIds = jwt.getClaim("companyIds");
-            if (companyIds != null) {
-                return companyIds.stream()
-                        .map(id -> {
-                            if (id instanceof Integer) {
-                                return ((Integer) id).longValue();
-                            } else if (id instanceof Long) {
-                                return (Long) id;
-                            }
-                            return null;
-                        })
-                        .filter(id -> id != null)
-                        .collect(Collectors.toList());
-            }
-        }
-        
-        return List.of();
+        return getCurrentPrincipal().getCompanyIds();
     }
 
     /**
      * Get current user's roles
      */
     public List<String> getCurrentUserRoles() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        
-        if (authentication == null) {
-            return List.of();
-        }
-        
-        Collection<? extends GrantedAuthority> authorities = authentication.getAuthorities();
-        return authorities.stream()
-                .map(GrantedAuthority::getAuthority)
-                .map(role -> role.replace("ROLE_", ""))
-                .collect(Collectors.toList());
+        return getCurrentPrincipal().getRoleNames();
     }
 
     /**
      * Check if current user is an admin
      */
     public boolean isAdmin() {
-        List<String> roles = getCurrentUserRoles();
-        return roles.contains("SUPERADMIN") || roles.contains("ADMIN");
+        return getCurrentPrincipal().isAdmin();
     }
 
     /**
      * Check if current user is B2B
      */
     public boolean isB2B() {
-        List<String> roles = getCurrentUserRoles();
-        return roles.contains("B2B");
+        return getCurrentPrincipal().isB2B();
     }
 
     /**
      * Check if current user is a customer
      */
     public boolean isCustomer() {
-        List<String> roles = getCurrentUserRoles();
-        return roles.contains("CUSTOMER");
+        return getCurrentPrincipal().isCustomer();
     }
 
     /**
      * Check if user has access to a specific company
      */
     public boolean hasAccessToCompany(Long companyId) {
-        if (isAdmin()) {
-            return true;
-        }
-        
-        List<Long> userCompanyIds = getCurrentUserCompanyIds();
-        return userCompanyIds.contains(companyId);
+        SecurityPrincipal principal = getCurrentPrincipal();
+        return principal.isAdmin() || principal.hasCompanyId(companyId);
     }
 
     /**
      * Check if user has access to resource owned by userId
      */
     public boolean hasAccessToUser(Long userId) {
-        if (isAdmin()) {
-            return true;
-        }
-        
-        Long currentUserId = getCurrentUserId();
-        return currentUserId != null && currentUserId.equals(userId);
+        SecurityPrincipal principal = getCurrentPrincipal();
+        return principal.isAdmin() || (principal.getUserId() != null && principal.getUserId().equals(userId));
     }
 
     /**
      * Get current user external ID from JWT token
      */
     public String getCurrentUserExternalId() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        
-        if (authentication == null || !authentication.isAuthenticated()) {
-            return null;
-        }
-        
-        if (authentication.getPrincipal() instanceof Jwt jwt) {
-            return jwt.getClaim("userExternalId");
-        }
-        
-        return null;
+        return getCurrentPrincipal().getUserExternalId();
     }
 
     /**
      * Get current user's company external IDs from JWT token
      */
     public List<String> getCurrentUserCompanyExternalIds() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        
-        if (authentication == null || !authentication.isAuthenticated()) {
-            return List.of();
-        }
-        
-        if (authentication.getPrincipal() instanceof Jwt jwt) {
-            List<?> companyExternalIds = jwt.getClaim("companyExternalIds");
-            if (companyExternalIds != null) {
-                return companyExternalIds.stream()
-                        .filter(id -> id instanceof String)
-                        .map(id -> (String) id)
-                        .collect(Collectors.toList());
-            }
-        }
-        
-        return List.of();
+        return getCurrentPrincipal().getCompanyExternalIds();
     }
 
     /**
      * Check if user has access to a specific company by external ID
      */
     public boolean hasAccessToCompanyByExternalId(String companyExternalId) {
-        if (isAdmin()) {
-            return true;
-        }
-        
-        List<String> userCompanyExternalIds = getCurrentUserCompanyExternalIds();
-        return userCompanyExternalIds.contains(companyExternalId);
+        SecurityPrincipal principal = getCurrentPrincipal();
+        return principal.isAdmin() || principal.hasCompanyExternalId(companyExternalId);
     }
 
     /**
      * Check if user has access to resource owned by user external ID
      */
     public boolean hasAccessToUserByExternalId(String userExternalId) {
-        if (isAdmin()) {
-            return true;
-        }
-        
-        String currentUserExternalId = getCurrentUserExternalId();
-        return currentUserExternalId != null && currentUserExternalId.equals(userExternalId);
+        SecurityPrincipal principal = getCurrentPrincipal();
+        return principal.isAdmin()
+                || (principal.getUserExternalId() != null && principal.getUserExternalId().equals(userExternalId));
     }
-}
 
+    /**
+     * Read roles and claims once; claims are only read from an authenticated JWT
+     */
+    private SecurityPrincipal buildPrincipal(Authentication authentication) {
+        Collection<? extends GrantedAuthority> authorities = authentication.getAuthorities();
+        List<String> roles = authorities == null ? List.of() : authorities.stream()
+                .map(GrantedAuthority::getAuthority)
+                .map(role -> role.replace("ROLE_", ""))
+                .toList();
 
+        if (!authentication.isAuthenticated() || !(authentication.getPrincipal() instanceof Jwt jwt)) {
+            return SecurityPrincipal.of(authentication, roles, null, null, List.of(), List.of());
+        }
 
+        Map<String, Object> claims = jwt.getClaims();
+        return SecurityPrincipal.of(authentication, roles,
+                toLong(claims.get("userId")),
+                claims.get("userExternalId") instanceof String userExternalId ? userExternalId : null,
+                claims.get("companyIds") instanceof List<?> companyIds
+                        ? companyIds.stream().map(SecurityService::toLong).toList() : List.of(),
+                claims.get("companyExternalIds") instanceof List<?> companyExternalIds
+                        ? companyExternalIds.stream().filter(String.class::isInstance).map(String.class::cast).toList()
+                        : List.of());
+    }
 
+    private static Long toLong(Object id) {
+        if (id instanceof Integer) {
+            return ((Integer) id).longValue();
+        } else if (id instanceof Long) {
+            return (Long) id;
+        }
+        return null;
+    }
+}
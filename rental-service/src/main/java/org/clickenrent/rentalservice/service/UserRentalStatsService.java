@@ -0,0 +1,58 @@
+package org.clickenrent.rentalservice.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.clickenrent.contracts.rental.UserRentalStatsDTO;
+import org.clickenrent.rentalservice.exception.UnauthorizedException;
+import org.clickenrent.rentalservice.repository.BikeRentalRepository;
+import org.clickenrent.rentalservice.repository.RideRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Per-user rental aggregates (bike rental count, spend, ride time, favourite location).
+ * Everything is computed in SQL so callers get the read model in one request,
+ * independent of how many rentals the user has.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UserRentalStatsService {
+
+    private final BikeRentalRepository bikeRentalRepository;
+    private final RideRepository rideRepository;
+    private final SecurityService securityService;
+
+    @Transactional(readOnly = true)
+    public UserRentalStatsDTO getUserRentalStats(String userExternalId) {
+        if (!securityService.isAdmin() && !securityService.hasAccessToUserByExternalId(userExternalId)) {
+            throw new UnauthorizedException("You don't have permission to view this user's rental statistics");
+        }
+
+        BikeRentalRepository.UserTotals totals = bikeRentalRepository.aggregateByUserExternalId(userExternalId);
+        UserRentalStatsDTO stats = UserRentalStatsDTO.builder()
+                .userExternalId(userExternalId)
+                .totalBikeRentals((int) totals.getBikeRentals())
+                .totalSpent(totals.getTotalSpent())
+                .totalRidesDurationMinutes(0L)
+                .build();
+
+        if (totals.getBikeRentals() == 0) {
+            return stats;
+        }
+
+        stats.setTotalRidesDurationMinutes(rideRepository.sumRideMinutesByUserExternalId(userExternalId));
+        bikeRentalRepository.findLocationUsageByUserExternalId(userExternalId, PageRequest.of(0, 1)).stream()
+                .findFirst()
+                .ifPresent(location -> {
+                    stats.setFavoriteLocationExternalId(location.getExternalId());
+                    stats.setFavoriteLocationName(location.getName());
+                    stats.setFavoriteLocationTimesUsed((int) location.getTimesUsed());
+                });
+
+        log.debug("Rental stats for user {}: bikeRentals={}, spent={}, rideMinutes={}", userExternalId,
+                stats.getTotalBikeRentals(), stats.getTotalSpent(), stats.getTotalRidesDurationMinutes());
+        return stats;
+    }
+}
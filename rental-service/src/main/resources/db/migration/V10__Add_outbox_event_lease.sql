@@ -0,0 +1,15 @@
+-- =====================================================================================================================
+-- RENTAL SERVICE - OUTBOX EVENT LEASE (Flyway Migration V10)
+-- =====================================================================================================================
+-- Module: rental-service
+-- Database: PostgreSQL
+-- Description: OutboxRelay claims events by leasing them in a short transaction and sends them outside it.
+-- 
+-- Author: Vitaliy Shvetsov
+-- =====================================================================================================================
+
+ALTER TABLE outbox_events ADD COLUMN IF NOT EXISTS locked_until TIMESTAMP;
+
+-- =====================================================================================================================
+-- END OF OUTBOX EVENT LEASE
+-- =====================================================================================================================
@@ -0,0 +1,15 @@
+-- =====================================================================================================================
+-- RENTAL SERVICE - BIKE RENTAL THUMBNAIL URL (Flyway Migration V11)
+-- =====================================================================================================================
+-- Module: rental-service
+-- Database: PostgreSQL
+-- Description: URL of the thumbnail PhotoThumbnailService generates for the photo of a bike rental.
+-- 
+-- Author: Vitaliy Shvetsov
+-- =====================================================================================================================
+
+ALTER TABLE bike_rental ADD COLUMN IF NOT EXISTS thumbnail_url VARCHAR(500);
+
+-- =====================================================================================================================
+-- END OF BIKE RENTAL THUMBNAIL URL
+-- =====================================================================================================================
@@ -0,0 +1,30 @@
+-- =====================================================================================================================
+-- RENTAL SERVICE - TRANSACTIONAL OUTBOX TABLE (Flyway Migration V7)
+-- =====================================================================================================================
+-- Module: rental-service
+-- Database: PostgreSQL
+-- Description: Kafka messages written in the same transaction as the business change and relayed by OutboxRelay.
+-- 
+-- Author: Vitaliy Shvetsov
+-- =====================================================================================================================
+
+CREATE TABLE IF NOT EXISTS outbox_events (
+    id BIGSERIAL PRIMARY KEY,
+    topic VARCHAR(200) NOT NULL,
+    message_key VARCHAR(200),
+    payload_type VARCHAR(300) NOT NULL,
+    payload TEXT NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    published_at TIMESTAMP,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    last_error TEXT
+);
+
+-- Relay scans unpublished events in insertion order
+CREATE INDEX IF NOT EXISTS idx_outbox_events_unpublished ON outbox_events(id) WHERE published_at IS NULL;
+-- Cleanup of published events
+CREATE INDEX IF NOT EXISTS idx_outbox_events_published_at ON outbox_events(published_at) WHERE published_at IS NOT NULL;
+
+-- =====================================================================================================================
+-- END OF OUTBOX EVENTS
+-- =====================================================================================================================
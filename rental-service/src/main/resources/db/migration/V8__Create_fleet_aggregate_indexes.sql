@@ -0,0 +1,19 @@
+-- =====================================================================================================================
+-- RENTAL SERVICE - FLEET AGGREGATE INDEXES (Flyway Migration V8)
+-- =====================================================================================================================
+-- Module: rental-service
+-- Database: PostgreSQL
+-- Description: Indexes behind GET /api/v1/bikes/fleet-aggregates (status counts and battery histogram).
+-- 
+-- Author: Vitaliy Shvetsov
+-- =====================================================================================================================
+
+-- Whole fleet: status and battery level are read from the index alone
+CREATE INDEX IF NOT EXISTS idx_bike_status_battery ON bike(bike_status_id, battery_level);
+-- Company fleet: location (company) -> hubs -> bikes
+CREATE INDEX IF NOT EXISTS idx_hub_location_id ON hub(location_id);
+CREATE INDEX IF NOT EXISTS idx_bike_hub_status_battery ON bike(hub_id, bike_status_id, battery_level);
+
+-- =====================================================================================================================
+-- END OF FLEET AGGREGATE INDEXES
+-- =====================================================================================================================
@@ -0,0 +1,18 @@
+-- =====================================================================================================================
+-- RENTAL SERVICE - LOCATION REVENUE INDEXES (Flyway Migration V9)
+-- =====================================================================================================================
+-- Module: rental-service
+-- Database: PostgreSQL
+-- Description: Index behind GET /api/v1/bike-rentals/revenue-by-location (revenue per location and day).
+-- 
+-- Author: Vitaliy Shvetsov
+-- =====================================================================================================================
+
+-- Period scan grouped by location: start date range first, location and price read from the index
+CREATE INDEX IF NOT EXISTS idx_bike_rental_start_location ON bike_rental(start_date_time, location_id)
+    INCLUDE (total_price, bike_id)
+    WHERE is_deleted = false;
+
+-- =====================================================================================================================
+-- END OF LOCATION REVENUE INDEXES
+-- =====================================================================================================================
@@ -3,7 +3,9 @@ package org.clickenrent.rentalservice.controller;
 import org.clickenrent.rentalservice.dto.BikeLocationDTO;
 import org.clickenrent.rentalservice.dto.GeoPointDTO;
 import org.clickenrent.rentalservice.dto.NearbyBikesResponseDTO;
+import org.clickenrent.rentalservice.service.BikeExportService;
 import org.clickenrent.rentalservice.service.BikeService;
+import org.clickenrent.rentalservice.service.FleetAggregatesService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -36,6 +38,12 @@ class BikeControllerNearbyTest extends BaseWebMvcTest {
     @MockBean
     private BikeService bikeService;
 
+    @MockBean
+    private BikeExportService bikeExportService;
+
+    @MockBean
+    private FleetAggregatesService fleetAggregatesService;
+
     @Test
     @WithMockUser(roles = "USER")
     void testGetNearbyBikes_Success() throws Exception {
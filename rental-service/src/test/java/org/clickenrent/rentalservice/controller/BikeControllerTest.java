@@ -1,8 +1,11 @@
 package org.clickenrent.rentalservice.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.clickenrent.contracts.rental.FleetAggregatesDTO;
 import org.clickenrent.rentalservice.dto.BikeDTO;
+import org.clickenrent.rentalservice.service.BikeExportService;
 import org.clickenrent.rentalservice.service.BikeService;
+import org.clickenrent.rentalservice.service.FleetAggregatesService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,8 +17,12 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
+import java.util.Map;
 
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
@@ -39,6 +46,12 @@ class BikeControllerTest extends BaseWebMvcTest {
     @MockBean
     private BikeService bikeService;
 
+    @MockBean
+    private BikeExportService bikeExportService;
+
+    @MockBean
+    private FleetAggregatesService fleetAggregatesService;
+
     private BikeDTO bikeDTO;
 
     @BeforeEach
@@ -252,12 +265,54 @@ class BikeControllerTest extends BaseWebMvcTest {
 
         verify(bikeService, times(1)).deleteBike(1L);
 }
-}
-
-
 
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void exportBikes_StreamsNdjson() throws Exception {
+        // Given
+        when(bikeExportService.resolveCompanyScope(null)).thenReturn(null);
+        when(bikeExportService.exportBikes(isNull(), any())).thenAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(1);
+            out.write("{\"externalId\":\"BIKE001\"}\n{\"externalId\":\"BIKE002\"}\n".getBytes(StandardCharsets.UTF_8));
+            return 2L;
+        });
+
+        // When
+        MvcResult result = mockMvc.perform(get("/api/v1/bikes/export")
+                        .with(csrf()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
 
+        // Then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string("{\"externalId\":\"BIKE001\"}\n{\"externalId\":\"BIKE002\"}\n"));
 
+        verify(bikeExportService, times(1)).exportBikes(isNull(), any());
+    }
 
+    @Test
+    @WithMockUser(roles = "B2B")
+    void getFleetAggregates_ReturnsCounts() throws Exception {
+        // Given
+        when(fleetAggregatesService.getFleetAggregates()).thenReturn(FleetAggregatesDTO.builder()
+                .totalBikes(12L)
+                .bikesByStatusId(Map.of(1L, 9L, 4L, 3L))
+                .batteryFull(7L)
+                .batteryMedium(3L)
+                .batteryLow(1L)
+                .batteryCritical(1L)
+                .build());
 
+        // When & Then
+        mockMvc.perform(get("/api/v1/bikes/fleet-aggregates")
+                        .with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalBikes").value(12))
+                .andExpect(jsonPath("$.bikesByStatusId.1").value(9))
+                .andExpect(jsonPath("$.batteryCritical").value(1));
 
+        verify(fleetAggregatesService, times(1)).getFleetAggregates();
+    }
+}
@@ -1,8 +1,11 @@
 package org.clickenrent.rentalservice.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.clickenrent.contracts.rental.LocationDailyRevenueDTO;
 import org.clickenrent.rentalservice.dto.BikeRentalDTO;
 import org.clickenrent.rentalservice.service.BikeRentalService;
+import org.clickenrent.rentalservice.service.BikeRentalHistogramService;
+import org.clickenrent.rentalservice.service.LocationRevenueService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,8 +18,11 @@ import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.List;
 
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
@@ -40,6 +46,12 @@ class BikeRentalControllerTest extends BaseWebMvcTest {
     @MockBean
     private BikeRentalService bikeRentalService;
 
+    @MockBean
+    private LocationRevenueService locationRevenueService;
+
+    @MockBean
+    private BikeRentalHistogramService bikeRentalHistogramService;
+
     private BikeRentalDTO bikeRentalDTO;
 
     @BeforeEach
@@ -218,4 +230,29 @@ class BikeRentalControllerTest extends BaseWebMvcTest {
 
         verify(bikeRentalService, times(1)).deleteBikeRental(1L);
     }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void getDailyRevenueByLocation_ReturnsAggregates() throws Exception {
+        // Given
+        when(locationRevenueService.getDailyRevenueByLocation(LocalDate.of(2026, 3, 1), LocalDate.of(2026, 3, 31)))
+                .thenReturn(List.of(LocationDailyRevenueDTO.builder()
+                        .locationId(1L)
+                        .locationName("Central")
+                        .date(LocalDate.of(2026, 3, 2))
+                        .bikeRentals(3L)
+                        .revenue(new BigDecimal("45.50"))
+                        .earnings(new BigDecimal("13.65"))
+                        .build()));
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/bike-rentals/revenue-by-location")
+                        .with(csrf())
+                        .param("from", "2026-03-01")
+                        .param("to", "2026-03-31"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].locationName").value("Central"))
+                .andExpect(jsonPath("$[0].bikeRentals").value(3))
+                .andExpect(jsonPath("$[0].revenue").value(45.50));
+    }
 }
@@ -1,8 +1,10 @@
 package org.clickenrent.rentalservice.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.clickenrent.contracts.rental.UserRentalStatsDTO;
 import org.clickenrent.rentalservice.dto.RentalDTO;
 import org.clickenrent.rentalservice.service.RentalService;
+import org.clickenrent.rentalservice.service.UserRentalStatsService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,6 +17,7 @@ import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.math.BigDecimal;
 import java.util.Collections;
 
 import static org.mockito.ArgumentMatchers.*;
@@ -39,6 +42,9 @@ class RentalControllerTest extends BaseWebMvcTest {
     @MockBean
     private RentalService rentalService;
 
+    @MockBean
+    private UserRentalStatsService userRentalStatsService;
+
     private RentalDTO rentalDTO;
 
     @BeforeEach
@@ -261,4 +267,27 @@ class RentalControllerTest extends BaseWebMvcTest {
 
         verify(rentalService, times(1)).deleteRental(1L);
     }
+
+    @Test
+    @WithMockUser(roles = "CUSTOMER")
+    void getUserRentalStats_ReturnsAggregates() throws Exception {
+        // Given
+        when(userRentalStatsService.getUserRentalStats("usr-ext-00001")).thenReturn(UserRentalStatsDTO.builder()
+                .userExternalId("usr-ext-00001")
+                .totalBikeRentals(12)
+                .totalSpent(new BigDecimal("84.50"))
+                .totalRidesDurationMinutes(310L)
+                .favoriteLocationExternalId("loc-ext-001")
+                .favoriteLocationName("Central Station")
+                .favoriteLocationTimesUsed(7)
+                .build());
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/rentals/user/usr-ext-00001/stats")
+                        .with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalBikeRentals").value(12))
+                .andExpect(jsonPath("$.totalRidesDurationMinutes").value(310))
+                .andExpect(jsonPath("$.favoriteLocationName").value("Central Station"));
+    }
 }
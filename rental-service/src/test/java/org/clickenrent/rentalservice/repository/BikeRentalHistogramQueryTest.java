@@ -0,0 +1,135 @@
+package org.clickenrent.rentalservice.repository;
+
+import org.clickenrent.contracts.security.TenantContext;
+import org.clickenrent.rentalservice.repository.BikeRentalRepository.DailyHistogramBucket;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the bike rental histogram aggregate against H2: bike rentals are grouped per company, day, hour,
+ * bike type and status, with the ride minutes of each bike rental summed before they are aggregated.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+class BikeRentalHistogramQueryTest {
+
+    private static final LocalDateTime FROM = LocalDateTime.of(2026, 3, 1, 0, 0);
+    private static final LocalDateTime TO = LocalDateTime.of(2026, 3, 3, 0, 0);
+
+    @Autowired
+    private BikeRentalRepository bikeRentalRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        TenantContext.clear();
+        TenantContext.setSuperAdmin(true);
+        jdbcTemplate.update("INSERT INTO rental_status (id, external_id, name, date_created, is_deleted) " +
+                "VALUES (1, 'status-1', 'Active', CURRENT_TIMESTAMP, false)");
+        jdbcTemplate.update("INSERT INTO bike_rental_status (id, external_id, name, date_created, is_deleted) " +
+                "VALUES (1, 'br-status-1', 'COMPLETED', CURRENT_TIMESTAMP, false)");
+        jdbcTemplate.update("INSERT INTO ride_status (id, external_id, name, date_created, is_deleted) " +
+                "VALUES (1, 'ride-status-1', 'FINISHED', CURRENT_TIMESTAMP, false)");
+        jdbcTemplate.update("INSERT INTO bike_type (id, external_id, name, date_created, is_deleted) " +
+                "VALUES (1, 'type-1', 'E-Bike', CURRENT_TIMESTAMP, false)");
+        jdbcTemplate.update("INSERT INTO location (id, external_id, name, company_external_id, is_public, is_active, " +
+                "date_created, is_deleted) VALUES (1, 'location-1', 'Depot', 'company-a', true, true, CURRENT_TIMESTAMP, false)");
+        jdbcTemplate.update("INSERT INTO product (id, external_id, product_type, is_b2b_rentable, date_created, is_deleted) " +
+                "VALUES (1, 'bike-1', 'BIKE', false, CURRENT_TIMESTAMP, false)");
+        jdbcTemplate.update("INSERT INTO bike (id, code, battery_level, bike_type_id) VALUES (1, 'B1', 100, 1)");
+        insertRental(1, "company-a");
+        insertRental(2, "company-b");
+
+        // Two rentals of company-a on Mar 1 at 9h: 10 + 5 minutes and 30 minutes of rides
+        insertBikeRental(1, 1, LocalDateTime.of(2026, 3, 1, 9, 5));
+        insertRide(1, 1, LocalDateTime.of(2026, 3, 1, 9, 5), LocalDateTime.of(2026, 3, 1, 9, 15));
+        insertRide(2, 1, LocalDateTime.of(2026, 3, 1, 9, 20), LocalDateTime.of(2026, 3, 1, 9, 25));
+        insertBikeRental(2, 1, LocalDateTime.of(2026, 3, 1, 9, 40));
+        insertRide(3, 2, LocalDateTime.of(2026, 3, 1, 9, 40), LocalDateTime.of(2026, 3, 1, 10, 10));
+        // company-a on Mar 2 at 14h, ride still running
+        insertBikeRental(3, 1, LocalDateTime.of(2026, 3, 2, 14, 0));
+        insertRide(4, 3, LocalDateTime.of(2026, 3, 2, 14, 0), null);
+        // company-b on Mar 1, outside the period on Mar 3
+        insertBikeRental(4, 2, LocalDateTime.of(2026, 3, 1, 18, 0));
+        insertBikeRental(5, 2, LocalDateTime.of(2026, 3, 3, 8, 0));
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    void aggregateDailyHistograms_GroupsBikeRentalsAndSumsRidesPerBikeRental() {
+        List<DailyHistogramBucket> buckets = bikeRentalRepository.aggregateDailyHistograms(FROM, TO).stream()
+                .sorted(Comparator.comparing(DailyHistogramBucket::getCompanyExternalId)
+                        .thenComparing(DailyHistogramBucket::getRentalDate))
+                .toList();
+
+        assertEquals(3, buckets.size());
+
+        DailyHistogramBucket morning = buckets.get(0);
+        assertEquals("company-a", morning.getCompanyExternalId());
+        assertEquals(LocalDate.of(2026, 3, 1), morning.getRentalDate());
+        assertEquals(9, morning.getRentalHour());
+        assertEquals("E-Bike", morning.getBikeTypeName());
+        assertEquals("COMPLETED", morning.getStatusName());
+        assertEquals(2, morning.getBikeRentals());
+        assertEquals(2L, morning.getDurationCount());
+        assertEquals(45L, morning.getDurationSumMinutes());
+        assertEquals(15L, morning.getDurationMinMinutes());
+        assertEquals(30L, morning.getDurationMaxMinutes());
+
+        DailyHistogramBucket running = buckets.get(1);
+        assertEquals(LocalDate.of(2026, 3, 2), running.getRentalDate());
+        assertEquals(14, running.getRentalHour());
+        assertEquals(1, running.getBikeRentals());
+        assertEquals(0L, running.getDurationCount());
+        assertNull(running.getDurationMinMinutes());
+
+        assertEquals("company-b", buckets.get(2).getCompanyExternalId());
+    }
+
+    @Test
+    void aggregateDailyHistogramsForCompanies_OnlyCountsThoseCompanies() {
+        List<DailyHistogramBucket> buckets =
+                bikeRentalRepository.aggregateDailyHistogramsForCompanies(FROM, TO, List.of("company-b"));
+
+        assertEquals(1, buckets.size());
+        assertEquals(18, buckets.get(0).getRentalHour());
+    }
+
+    private void insertRental(long id, String companyExternalId) {
+        jdbcTemplate.update("INSERT INTO rental (id, external_id, user_external_id, company_external_id, rental_status_id, " +
+                "date_created, is_deleted) VALUES (?, ?, ?, ?, 1, CURRENT_TIMESTAMP, false)",
+                id, "rental-" + id, "user-" + id, companyExternalId);
+    }
+
+    private void insertBikeRental(long id, long rentalId, LocalDateTime start) {
+        jdbcTemplate.update("INSERT INTO bike_rental (id, external_id, bike_id, location_id, rental_id, start_date_time, " +
+                "bike_rental_status_id, is_revenue_share_paid, total_price, date_created, is_deleted) " +
+                "VALUES (?, ?, 1, 1, ?, ?, 1, false, 10.00, CURRENT_TIMESTAMP, false)",
+                id, "bike-rental-" + id, rentalId, Timestamp.valueOf(start));
+    }
+
+    private void insertRide(long id, long bikeRentalId, LocalDateTime start, LocalDateTime end) {
+        jdbcTemplate.update("INSERT INTO ride (id, external_id, bike_rental_id, start_date_time, end_date_time, " +
+                "ride_status_id, date_created, is_deleted) VALUES (?, ?, ?, ?, ?, 1, CURRENT_TIMESTAMP, false)",
+                id, "ride-" + id, bikeRentalId, Timestamp.valueOf(start), end != null ? Timestamp.valueOf(end) : null);
+    }
+}
@@ -0,0 +1,132 @@
+package org.clickenrent.rentalservice.security;
+
+import org.clickenrent.contracts.security.TenantContext;
+import org.clickenrent.rentalservice.entity.B2BSale;
+import org.clickenrent.rentalservice.entity.Rental;
+import org.clickenrent.rentalservice.repository.B2BSaleRepository;
+import org.clickenrent.rentalservice.repository.RentalRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs repository queries through HibernateFilterConfig against H2 and checks which rows the tenant filters let through.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({HibernateFilterConfig.class, TenantFilterRepositoryTest.AspectConfig.class})
+class TenantFilterRepositoryTest {
+
+    @TestConfiguration
+    @EnableAspectJAutoProxy
+    static class AspectConfig {
+    }
+
+    @Autowired
+    private RentalRepository rentalRepository;
+
+    @Autowired
+    private B2BSaleRepository b2bSaleRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        TenantContext.clear();
+        jdbcTemplate.update("INSERT INTO rental_status (id, external_id, name, date_created, is_deleted) " +
+                "VALUES (1, 'status-1', 'Pending', CURRENT_TIMESTAMP, false)");
+        insertRental(1, "company-a");
+        insertRental(2, "company-a");
+        insertRental(3, "company-b");
+        insertRental(4, "company-c");
+
+        jdbcTemplate.update("INSERT INTO location (id, external_id, name, company_external_id, is_public, is_active, " +
+                "date_created, is_deleted) VALUES (1, 'location-1', 'Depot', 'company-a', true, true, CURRENT_TIMESTAMP, false)");
+        jdbcTemplate.update("INSERT INTO b2b_sale_status (id, external_id, name, date_created, is_deleted) " +
+                "VALUES (1, 'sale-status-1', 'Pending', CURRENT_TIMESTAMP, false)");
+        insertB2BSale(1, "company-a", "company-b");
+        insertB2BSale(2, "company-b", "company-a");
+        insertB2BSale(3, "company-b", "company-c");
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    void companyFilter_ReturnsRowsOfAllCallerCompanies() {
+        TenantContext.setCurrentCompanies(List.of("company-a", "company-c"));
+
+        List<Rental> rentals = rentalRepository.findAll();
+
+        assertEquals(List.of("rental-1", "rental-2", "rental-4"), rentals.stream().map(Rental::getExternalId).sorted().toList());
+    }
+
+    @Test
+    void b2bSaleFilter_ReturnsSalesWhereCallerIsSellerOrBuyer() {
+        TenantContext.setCurrentCompanies(List.of("company-a"));
+
+        List<B2BSale> sales = b2bSaleRepository.findAll();
+
+        // Sale 1: company-a sells, sale 2: company-a buys, sale 3: company-a is not involved
+        assertEquals(List.of("sale-1", "sale-2"), sales.stream().map(B2BSale::getExternalId).sorted().toList());
+    }
+
+    @Test
+    void filters_ResolveCompaniesForEachQuery() {
+        TenantContext.setCurrentCompanies(List.of("company-a"));
+        assertEquals(2, rentalRepository.findAll().size());
+
+        // Same session, filter already enabled: the companies are read again from the context
+        TenantContext.setCurrentCompanies(List.of("company-b"));
+        List<Rental> rentals = rentalRepository.findAll();
+
+        assertEquals(List.of("rental-3"), rentals.stream().map(Rental::getExternalId).toList());
+    }
+
+    @Test
+    void filters_WhenContextLosesCompaniesAfterEnabling_ReturnNothing() {
+        TenantContext.setCurrentCompanies(List.of("company-a"));
+        assertEquals(2, rentalRepository.findAll().size());
+
+        // TenantCompanyResolver binds NO_COMPANIES instead of an empty IN list
+        TenantContext.setCurrentCompanies(List.of());
+
+        assertTrue(rentalRepository.findAll().isEmpty());
+        assertTrue(b2bSaleRepository.findAll().isEmpty());
+    }
+
+    @Test
+    void superAdmin_SeesAllRows() {
+        TenantContext.setSuperAdmin(true);
+
+        assertEquals(4, rentalRepository.findAll().size());
+        assertEquals(3, b2bSaleRepository.findAll().size());
+    }
+
+    private void insertRental(long id, String companyExternalId) {
+        jdbcTemplate.update("INSERT INTO rental (id, external_id, user_external_id, company_external_id, rental_status_id, " +
+                "date_created, is_deleted) VALUES (?, ?, ?, ?, 1, CURRENT_TIMESTAMP, false)",
+                id, "rental-" + id, "user-" + id, companyExternalId);
+    }
+
+    private void insertB2BSale(long id, String sellerCompanyExternalId, String buyerCompanyExternalId) {
+        jdbcTemplate.update("INSERT INTO b2b_sale (id, external_id, location_id, b2b_sale_status_id, " +
+                "seller_company_external_id, buyer_company_external_id, date_created, is_deleted) " +
+                "VALUES (?, ?, 1, 1, ?, ?, CURRENT_TIMESTAMP, false)",
+                id, "sale-" + id, sellerCompanyExternalId, buyerCompanyExternalId);
+    }
+}
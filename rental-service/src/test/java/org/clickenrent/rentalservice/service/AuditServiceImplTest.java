@@ -0,0 +1,110 @@
+package org.clickenrent.rentalservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.clickenrent.contracts.security.AuditEvent;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for AuditServiceImpl and the shared batched audit log writer, against an in-memory H2 database.
+ */
+class AuditServiceImplTest {
+
+    private JdbcDataSource dataSource;
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:audit-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE audit_logs (id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+                    + "event_type VARCHAR(50) NOT NULL, user_external_id VARCHAR(100), company_external_ids TEXT, "
+                    + "resource_type VARCHAR(100), resource_id VARCHAR(100), endpoint VARCHAR(500), "
+                    + "http_method VARCHAR(10), client_ip VARCHAR(45), success BOOLEAN NOT NULL, "
+                    + "error_message TEXT, metadata TEXT, timestamp TIMESTAMP NOT NULL)");
+        }
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void logEvent_WritesEventsInBatches_AndFlushesOnShutdown() throws SQLException {
+        AuditServiceImpl auditService = new AuditServiceImpl(dataSource, new ObjectMapper(), meterRegistry,
+                64, 10, 60_000, 5);
+
+        for (int i = 0; i < 25; i++) {
+            auditService.logEvent(event("user-" + i));
+        }
+        auditService.shutdown();
+
+        assertEquals(25, countRows("SELECT COUNT(*) FROM audit_logs"));
+        assertEquals(1, countRows("SELECT COUNT(*) FROM audit_logs WHERE user_external_id = 'user-7' "
+                + "AND event_type = 'CROSS_TENANT_ACCESS_ATTEMPT' AND metadata = '{\"attempt\":1}'"));
+        assertEquals(25, meterRegistry.get("audit.events.written").functionCounter().count());
+        assertEquals(0, meterRegistry.get("audit.queue.depth").gauge().value());
+        assertTrue(meterRegistry.get("audit.flush.duration").functionTimer().count() >= 3);
+    }
+
+    @Test
+    void logEvent_BufferFull_DropsAndCountsEvents() throws Exception {
+        CountDownLatch writerBusy = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        DataSource slowDataSource = mock(DataSource.class);
+        when(slowDataSource.getConnection()).thenAnswer(invocation -> {
+            writerBusy.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return dataSource.getConnection();
+        });
+        AuditServiceImpl auditService = new AuditServiceImpl(slowDataSource, new ObjectMapper(), meterRegistry,
+                2, 1, 60_000, 1);
+
+        auditService.logEvent(event("first"));
+        assertTrue(writerBusy.await(5, TimeUnit.SECONDS));
+        // The writer holds "first" while waiting for a connection; two more fill the buffer
+        auditService.logEvent(event("second"));
+        auditService.logEvent(event("third"));
+        auditService.logEvent(event("dropped"));
+
+        assertEquals(1, meterRegistry.get("audit.events.dropped").functionCounter().count());
+        assertEquals(2, meterRegistry.get("audit.queue.depth").gauge().value());
+
+        release.countDown();
+        auditService.shutdown();
+
+        assertEquals(3, countRows("SELECT COUNT(*) FROM audit_logs"));
+        assertEquals(0, countRows("SELECT COUNT(*) FROM audit_logs WHERE user_external_id = 'dropped'"));
+    }
+
+    private AuditEvent event(String userExternalId) {
+        AuditEvent event = AuditEvent.crossTenantAccessAttempt(userExternalId, userExternalId + "@example.com",
+                "company-a", "company-b", "Rental", "/api/v1/rentals/1");
+        event.setMetadata(Map.of("attempt", 1));
+        return event;
+    }
+
+    private long countRows(String sql) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(sql)) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package org.clickenrent.rentalservice.service;
+
+import org.clickenrent.contracts.rental.BikeRentalHistogramBucketDTO;
+import org.clickenrent.rentalservice.exception.UnauthorizedException;
+import org.clickenrent.rentalservice.repository.BikeRentalRepository;
+import org.clickenrent.rentalservice.repository.BikeRentalRepository.DailyHistogramBucket;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for BikeRentalHistogramService.
+ */
+@ExtendWith(MockitoExtension.class)
+class BikeRentalHistogramServiceTest {
+
+    private static final LocalDate FROM = LocalDate.of(2026, 3, 1);
+    private static final LocalDate TO = LocalDate.of(2026, 3, 31);
+
+    @Mock
+    private BikeRentalRepository bikeRentalRepository;
+
+    @Mock
+    private SecurityService securityService;
+
+    @InjectMocks
+    private BikeRentalHistogramService bikeRentalHistogramService;
+
+    @Test
+    void getDailyHistogramBuckets_Admin_QueriesWholePeriod() {
+        when(securityService.isAdmin()).thenReturn(true);
+        when(bikeRentalRepository.aggregateDailyHistograms(
+                LocalDateTime.of(2026, 3, 1, 0, 0), LocalDateTime.of(2026, 4, 1, 0, 0)))
+                .thenReturn(List.of(bucket()));
+
+        List<BikeRentalHistogramBucketDTO> result = bikeRentalHistogramService.getDailyHistogramBuckets(FROM, TO);
+
+        assertEquals(1, result.size());
+        BikeRentalHistogramBucketDTO bucket = result.get(0);
+        assertEquals("company-a", bucket.getCompanyExternalId());
+        assertEquals(LocalDate.of(2026, 3, 2), bucket.getDate());
+        assertEquals(9, bucket.getHour());
+        assertEquals("E-Bike", bucket.getBikeTypeName());
+        assertEquals("COMPLETED", bucket.getBikeRentalStatusName());
+        assertEquals(2L, bucket.getBikeRentals());
+        assertEquals(45L, bucket.getDurationSumMinutes());
+    }
+
+    @Test
+    void getDailyHistogramBuckets_B2BWithoutCompanies_ReturnsEmptyWithoutQuery() {
+        when(securityService.isAdmin()).thenReturn(false);
+        when(securityService.isB2B()).thenReturn(true);
+        when(securityService.getCurrentUserCompanyExternalIds()).thenReturn(List.of());
+
+        assertTrue(bikeRentalHistogramService.getDailyHistogramBuckets(FROM, TO).isEmpty());
+        verify(bikeRentalRepository, never()).aggregateDailyHistogramsForCompanies(any(), any(), any());
+    }
+
+    @Test
+    void getDailyHistogramBuckets_Customer_ThrowsUnauthorized() {
+        when(securityService.isAdmin()).thenReturn(false);
+        when(securityService.isB2B()).thenReturn(false);
+
+        assertThrows(UnauthorizedException.class, () -> bikeRentalHistogramService.getDailyHistogramBuckets(FROM, TO));
+    }
+
+    private DailyHistogramBucket bucket() {
+        return new DailyHistogramBucket() {
+            @Override
+            public String getCompanyExternalId() {
+                return "company-a";
+            }
+
+            @Override
+            public LocalDate getRentalDate() {
+                return LocalDate.of(2026, 3, 2);
+            }
+
+            @Override
+            public Integer getRentalHour() {
+                return 9;
+            }
+
+            @Override
+            public String getBikeTypeName() {
+                return "E-Bike";
+            }
+
+            @Override
+            public String getStatusName() {
+                return "COMPLETED";
+            }
+
+            @Override
+            public long getBikeRentals() {
+                return 2;
+            }
+
+            @Override
+            public Long getDurationCount() {
+                return 2L;
+            }
+
+            @Override
+            public Long getDurationSumMinutes() {
+                return 45L;
+            }
+
+            @Override
+            public Long getDurationMinMinutes() {
+                return 15L;
+            }
+
+            @Override
+            public Long getDurationMaxMinutes() {
+                return 30L;
+            }
+        };
+    }
+}
@@ -1,28 +1,47 @@
 package org.clickenrent.rentalservice.service;
 
+import com.azure.storage.blob.models.BlobProperties;
 import org.clickenrent.rentalservice.client.NotificationClient;
 import org.clickenrent.rentalservice.dto.BikeRentalDTO;
+import org.clickenrent.rentalservice.dto.CoordinatesDTO;
+import org.clickenrent.rentalservice.dto.LockRequestDTO;
+import org.clickenrent.rentalservice.dto.LockResponseDTO;
+import org.clickenrent.rentalservice.dto.PhotoUploadResponseDTO;
+import org.clickenrent.rentalservice.dto.PhotoUploadUrlDTO;
 import org.clickenrent.rentalservice.entity.Bike;
 import org.clickenrent.rentalservice.entity.BikeRental;
+import org.clickenrent.rentalservice.entity.BikeRentalStatus;
+import org.clickenrent.rentalservice.entity.Coordinates;
+import org.clickenrent.rentalservice.entity.Lock;
+import org.clickenrent.rentalservice.entity.LockStatus;
 import org.clickenrent.rentalservice.entity.Rental;
+import org.clickenrent.rentalservice.event.RentalEventPublisher;
+import org.clickenrent.rentalservice.exception.PhotoAlreadyExistsException;
+import org.clickenrent.rentalservice.exception.PhotoValidationException;
 import org.clickenrent.rentalservice.exception.ResourceNotFoundException;
 import org.clickenrent.rentalservice.exception.UnauthorizedException;
 import org.clickenrent.rentalservice.mapper.BikeRentalMapper;
+import org.clickenrent.rentalservice.metrics.PhotoUploadMetrics;
 import org.clickenrent.rentalservice.repository.BikeRentalRepository;
 import org.clickenrent.rentalservice.repository.BikeRepository;
-import org.clickenrent.rentalservice.repository.LockRepository;
 import org.clickenrent.rentalservice.repository.RentalRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.Optional;
@@ -31,6 +50,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -48,9 +68,6 @@ class BikeRentalServiceTest {
     @Mock
     private RentalRepository rentalRepository;
 
-    @Mock
-    private LockRepository lockRepository;
-
     @Mock
     private BikeRentalMapper bikeRentalMapper;
 
@@ -75,6 +92,18 @@ class BikeRentalServiceTest {
     @Mock
     private NotificationClient notificationClient;
 
+    @Mock
+    private PhotoThumbnailService photoThumbnailService;
+
+    @Mock
+    private RentalEventPublisher rentalEventPublisher;
+
+    @Spy
+    private PhotoUploadMetrics photoUploadMetrics = new PhotoUploadMetrics(new SimpleMeterRegistry());
+
+    @Spy
+    private TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+
     @InjectMocks
     private BikeRentalService bikeRentalService;
 
@@ -196,6 +225,7 @@ class BikeRentalServiceTest {
         assertThat(result).isNotNull();
         assertThat(result.getExternalId()).isEqualTo("BR001");
         verify(bikeRentalRepository, times(1)).save(any(BikeRental.class));
+        verify(rentalEventPublisher).publishBikeRentalStarted(testBikeRental);
     }
 
     @Test
@@ -250,4 +280,167 @@ class BikeRentalServiceTest {
         assertThrows(ResourceNotFoundException.class, () -> bikeRentalService.deleteBikeRental(999L));
         verify(bikeRentalRepository, never()).delete(any(BikeRental.class));
     }
+
+    @Test
+    void lockBike_AppliesTransitionToLoadedAggregate() {
+        // Arrange
+        Lock lock = Lock.builder().id(5L).build();
+        Coordinates coordinates = Coordinates.builder().id(7L).build();
+        testBike.setLock(lock);
+        testBike.setCoordinates(coordinates);
+        testBikeRental.setBikeRentalStatus(BikeRentalStatus.builder().id(1L).name("Active").build());
+        LockStatus lockedStatus = LockStatus.builder().id(2L).name("locked").build();
+        CoordinatesDTO position = CoordinatesDTO.builder()
+                .latitude(new BigDecimal("52.3676"))
+                .longitude(new BigDecimal("4.9041"))
+                .build();
+        LockRequestDTO request = LockRequestDTO.builder().bikeId(1L).lockConfirmed(true).coordinates(position).build();
+        when(securityService.isAdmin()).thenReturn(true);
+        when(bikeRentalRepository.findWithBikeAndLockById(1L)).thenReturn(Optional.of(testBikeRental));
+        when(lockStatusService.getLockStatusByName("locked")).thenReturn(lockedStatus);
+        when(coordinatesService.createOrUpdateCoordinates(coordinates, position)).thenReturn(coordinates);
+
+        // Act
+        LockResponseDTO result = bikeRentalService.lockBike(1L, request);
+
+        // Assert
+        assertThat(result.getSuccess()).isTrue();
+        assertThat(result.getBikeRentalStatus()).isEqualTo("Active");
+        assertThat(lock.getLockStatus()).isEqualTo(lockedStatus);
+        assertThat(lock.getLastSeenAt()).isNotNull();
+        // The managed bike is flushed on commit
+        verify(bikeRepository, never()).save(any());
+        verify(bikeRentalRepository, never()).findById(any());
+    }
+
+    @Test
+    void uploadPhoto_StoresUrlAfterUploadAndQueuesThumbnail() {
+        // Arrange
+        MockMultipartFile file = new MockMultipartFile("file", "photo.jpg", "image/jpeg", new byte[]{1, 2, 3});
+        String photoUrl = "https://test.blob.core.windows.net/bike-rental-photos/bike-rental-1_photo.jpg";
+        testBikeRental.setBikeRentalStatus(BikeRentalStatus.builder().id(3L).name("Completed").build());
+        when(bikeRentalRepository.findById(1L)).thenReturn(Optional.of(testBikeRental));
+        when(securityService.isAdmin()).thenReturn(true);
+        when(azureBlobStorageService.uploadPhoto(file, "1")).thenReturn(photoUrl);
+        when(bikeRentalRepository.assignPhotoUrlIfAbsent(eq(1L), eq(photoUrl), any(), any())).thenReturn(1);
+
+        // Act
+        PhotoUploadResponseDTO result = bikeRentalService.uploadPhoto(1L, file);
+
+        // Assert
+        assertThat(result.getPhotoUrl()).isEqualTo(photoUrl);
+        verify(photoValidationService).validatePhoto(file);
+        verify(photoThumbnailService).generateThumbnail(photoUrl);
+        verify(bikeRentalRepository, never()).save(any(BikeRental.class));
+        verify(azureBlobStorageService, never()).deletePhoto(anyString());
+    }
+
+    @Test
+    void uploadPhoto_WhenConcurrentUploadStoredFirst_DeletesBlobAndThrows() {
+        // Arrange
+        MockMultipartFile file = new MockMultipartFile("file", "photo.jpg", "image/jpeg", new byte[]{1, 2, 3});
+        String photoUrl = "https://test.blob.core.windows.net/bike-rental-photos/bike-rental-1_photo.jpg";
+        testBikeRental.setBikeRentalStatus(BikeRentalStatus.builder().id(3L).name("Completed").build());
+        when(bikeRentalRepository.findById(1L)).thenReturn(Optional.of(testBikeRental));
+        when(securityService.isAdmin()).thenReturn(true);
+        when(azureBlobStorageService.uploadPhoto(file, "1")).thenReturn(photoUrl);
+        when(bikeRentalRepository.assignPhotoUrlIfAbsent(eq(1L), eq(photoUrl), any(), any())).thenReturn(0);
+
+        // Act & Assert
+        assertThrows(PhotoAlreadyExistsException.class, () -> bikeRentalService.uploadPhoto(1L, file));
+        verify(azureBlobStorageService).deletePhoto(photoUrl);
+        verify(photoThumbnailService, never()).generateThumbnail(anyString());
+    }
+
+    @Test
+    void uploadPhoto_WhenRentalNotEnded_DoesNotUpload() {
+        // Arrange
+        MockMultipartFile file = new MockMultipartFile("file", "photo.jpg", "image/jpeg", new byte[]{1, 2, 3});
+        testBikeRental.setBikeRentalStatus(BikeRentalStatus.builder().id(1L).name("Active").build());
+        when(bikeRentalRepository.findById(1L)).thenReturn(Optional.of(testBikeRental));
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> bikeRentalService.uploadPhoto(1L, file));
+        verify(azureBlobStorageService, never()).uploadPhoto(any(), anyString());
+    }
+
+    @Test
+    void createPhotoUploadUrl_ReturnsSasUrlScopedToGeneratedBlob() {
+        // Arrange
+        testBikeRental.setBikeRentalStatus(BikeRentalStatus.builder().id(3L).name("Completed").build());
+        when(bikeRentalRepository.findById(1L)).thenReturn(Optional.of(testBikeRental));
+        when(securityService.isAdmin()).thenReturn(true);
+        when(azureBlobStorageService.generateUniqueBlobName("photo.jpg", "1")).thenReturn("bike-rental-1_20260101_000000_abcd1234.jpg");
+        when(azureBlobStorageService.createUploadUrl(eq("bike-rental-1_20260101_000000_abcd1234.jpg"), any()))
+                .thenReturn("https://test.blob.core.windows.net/bike-rental-photos/bike-rental-1_20260101_000000_abcd1234.jpg?sig=x");
+
+        // Act
+        PhotoUploadUrlDTO result = bikeRentalService.createPhotoUploadUrl(1L, "image/jpeg");
+
+        // Assert
+        assertThat(result.getBlobName()).isEqualTo("bike-rental-1_20260101_000000_abcd1234.jpg");
+        assertThat(result.getUploadUrl()).endsWith("?sig=x");
+        assertThat(result.getRequiredHeaders()).containsEntry("Content-Type", "image/jpeg");
+        verify(photoValidationService).validateContentType("image/jpeg");
+        verify(bikeRentalRepository, never()).assignPhotoUrlIfAbsent(any(), any(), any(), any());
+    }
+
+    @Test
+    void completePhotoUpload_WithValidBlob_AttachesPhoto() {
+        // Arrange
+        String blobName = "bike-rental-1_20260101_000000_abcd1234.jpg";
+        String photoUrl = "https://test.blob.core.windows.net/bike-rental-photos/" + blobName;
+        BlobProperties properties = mock(BlobProperties.class);
+        when(properties.getBlobSize()).thenReturn(2048L);
+        when(properties.getContentType()).thenReturn("image/jpeg");
+        testBikeRental.setBikeRentalStatus(BikeRentalStatus.builder().id(3L).name("Completed").build());
+        when(bikeRentalRepository.findById(1L)).thenReturn(Optional.of(testBikeRental));
+        when(securityService.isAdmin()).thenReturn(true);
+        when(azureBlobStorageService.getBlobProperties(blobName)).thenReturn(properties);
+        when(azureBlobStorageService.getBlobUrl(blobName)).thenReturn(photoUrl);
+        when(bikeRentalRepository.assignPhotoUrlIfAbsent(eq(1L), eq(photoUrl), any(), any())).thenReturn(1);
+
+        // Act
+        PhotoUploadResponseDTO result = bikeRentalService.completePhotoUpload(1L, blobName);
+
+        // Assert
+        assertThat(result.getPhotoUrl()).isEqualTo(photoUrl);
+        verify(photoValidationService).validateUploadedPhoto(2048L, "image/jpeg");
+        verify(photoThumbnailService).generateThumbnail(photoUrl);
+    }
+
+    @Test
+    void completePhotoUpload_WithInvalidBlob_DeletesBlobAndThrows() {
+        // Arrange
+        String blobName = "bike-rental-1_20260101_000000_abcd1234.jpg";
+        String photoUrl = "https://test.blob.core.windows.net/bike-rental-photos/" + blobName;
+        BlobProperties properties = mock(BlobProperties.class);
+        when(properties.getBlobSize()).thenReturn(50L * 1024 * 1024);
+        when(properties.getContentType()).thenReturn("image/jpeg");
+        testBikeRental.setBikeRentalStatus(BikeRentalStatus.builder().id(3L).name("Completed").build());
+        when(bikeRentalRepository.findById(1L)).thenReturn(Optional.of(testBikeRental));
+        when(securityService.isAdmin()).thenReturn(true);
+        when(azureBlobStorageService.getBlobProperties(blobName)).thenReturn(properties);
+        when(azureBlobStorageService.getBlobUrl(blobName)).thenReturn(photoUrl);
+        doThrow(new PhotoValidationException("too large"))
+                .when(photoValidationService).validateUploadedPhoto(50L * 1024 * 1024, "image/jpeg");
+
+        // Act & Assert
+        assertThrows(PhotoValidationException.class, () -> bikeRentalService.completePhotoUpload(1L, blobName));
+        verify(azureBlobStorageService).deletePhoto(photoUrl);
+        verify(bikeRentalRepository, never()).assignPhotoUrlIfAbsent(any(), any(), any(), any());
+    }
+
+    @Test
+    void completePhotoUpload_WithBlobOfAnotherRental_Throws() {
+        // Arrange
+        testBikeRental.setBikeRentalStatus(BikeRentalStatus.builder().id(3L).name("Completed").build());
+        when(bikeRentalRepository.findById(1L)).thenReturn(Optional.of(testBikeRental));
+        when(securityService.isAdmin()).thenReturn(true);
+
+        // Act & Assert
+        assertThrows(PhotoValidationException.class,
+                () -> bikeRentalService.completePhotoUpload(1L, "bike-rental-12_20260101_000000_abcd1234.jpg"));
+        verify(azureBlobStorageService, never()).getBlobProperties(anyString());
+    }
 }
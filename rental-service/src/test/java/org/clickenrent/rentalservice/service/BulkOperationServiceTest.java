@@ -0,0 +1,174 @@
+package org.clickenrent.rentalservice.service;
+
+import org.clickenrent.contracts.search.IndexEventRequest;
+import org.clickenrent.contracts.security.AuditService;
+import org.clickenrent.rentalservice.client.SearchServiceClient;
+import org.clickenrent.rentalservice.dto.BulkOperationResultDTO;
+import org.clickenrent.rentalservice.entity.BikeRentalStatus;
+import org.clickenrent.rentalservice.entity.RentalStatus;
+import org.clickenrent.rentalservice.entity.RideStatus;
+import org.clickenrent.rentalservice.event.IndexEventPublisher;
+import org.clickenrent.rentalservice.exception.ResourceNotFoundException;
+import org.clickenrent.rentalservice.exception.UnauthorizedException;
+import org.clickenrent.rentalservice.repository.BikeRentalRepository;
+import org.clickenrent.rentalservice.repository.BikeRentalStatusRepository;
+import org.clickenrent.rentalservice.repository.RentalRepository;
+import org.clickenrent.rentalservice.repository.RentalStatusRepository;
+import org.clickenrent.rentalservice.repository.RideRepository;
+import org.clickenrent.rentalservice.repository.RideStatusRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BulkOperationServiceTest {
+
+    @Mock
+    private RentalRepository rentalRepository;
+
+    @Mock
+    private RentalStatusRepository rentalStatusRepository;
+
+    @Mock
+    private RideRepository rideRepository;
+
+    @Mock
+    private RideStatusRepository rideStatusRepository;
+
+    @Mock
+    private BikeRentalRepository bikeRentalRepository;
+
+    @Mock
+    private BikeRentalStatusRepository bikeRentalStatusRepository;
+
+    @Mock
+    private SecurityService securityService;
+
+    @Mock
+    private AuditService auditService;
+
+    @Mock
+    private SearchServiceClient searchServiceClient;
+
+    @InjectMocks
+    private BulkOperationService bulkOperationService;
+
+    private BikeRentalStatus completedStatus;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(bulkOperationService, "chunkSize", 2);
+        completedStatus = BikeRentalStatus.builder().id(3L).name("Completed").build();
+    }
+
+    @Test
+    void updateBikeRentalStatuses_RunsOneUpdatePerChunk() {
+        when(securityService.isAdmin()).thenReturn(true);
+        when(bikeRentalStatusRepository.findByName("Completed")).thenReturn(Optional.of(completedStatus));
+        when(bikeRentalRepository.findExistingExternalIds(any())).thenAnswer(invocation -> List.copyOf(invocation.<List<String>>getArgument(0)));
+        when(bikeRentalRepository.updateStatusByExternalIds(any(), eq(completedStatus), any(), any())).thenReturn(2, 1);
+        when(bikeRentalRepository.findBikeExternalIdsByExternalIdIn(any())).thenReturn(List.of("BIKE001"), List.of());
+
+        BulkOperationResultDTO result = bulkOperationService.updateBikeRentalStatuses(
+                List.of("BR1", "BR2", "BR3"), "Completed");
+
+        assertEquals(3, result.getRequested());
+        assertEquals(3, result.getUpdated());
+        assertEquals(2, result.getBatches());
+        verify(bikeRentalRepository, times(2)).updateStatusByExternalIds(any(), eq(completedStatus), any(), any());
+        verify(bikeRentalRepository, never()).save(any());
+        verify(auditService, times(2)).logEvent(any());
+        verify(searchServiceClient, times(1)).notifyIndexEvent(any());
+    }
+
+    @Test
+    void updateRentalStatuses_PublishesOneIndexEventPerChunk() {
+        IndexEventPublisher indexEventPublisher = mock(IndexEventPublisher.class);
+        ReflectionTestUtils.setField(bulkOperationService, "indexEventPublisher", indexEventPublisher);
+        when(securityService.isAdmin()).thenReturn(true);
+        when(rentalStatusRepository.findByName("Completed")).thenReturn(Optional.of(new RentalStatus()));
+        when(rentalRepository.findExistingExternalIds(any())).thenAnswer(invocation -> List.copyOf(invocation.<List<String>>getArgument(0)));
+        when(rentalRepository.updateStatusByExternalIds(any(), any(), any(), any())).thenReturn(2, 1);
+        when(bikeRentalRepository.findBikeExternalIdsByRentalExternalIdIn(any()))
+                .thenReturn(List.of("BIKE001", "BIKE002", "BIKE001"), List.of("BIKE003"));
+
+        bulkOperationService.updateRentalStatuses(List.of("RENT1", "RENT2", "RENT3"), "Completed");
+
+        verify(indexEventPublisher).publishIndexEvents("bike", List.of("BIKE001", "BIKE002"),
+                IndexEventRequest.IndexOperation.UPDATE);
+        verify(indexEventPublisher).publishIndexEvents("bike", List.of("BIKE003"),
+                IndexEventRequest.IndexOperation.UPDATE);
+        verify(indexEventPublisher, never()).publishIndexEvent(any(), any(), any());
+        verifyNoInteractions(searchServiceClient);
+    }
+
+    @Test
+    void updateRentalStatuses_OutboxFailure_FailsTheBulkOperation() {
+        IndexEventPublisher indexEventPublisher = mock(IndexEventPublisher.class);
+        ReflectionTestUtils.setField(bulkOperationService, "indexEventPublisher", indexEventPublisher);
+        when(securityService.isAdmin()).thenReturn(true);
+        when(rentalStatusRepository.findByName("Completed")).thenReturn(Optional.of(new RentalStatus()));
+        when(rentalRepository.findExistingExternalIds(any())).thenAnswer(invocation -> List.copyOf(invocation.<List<String>>getArgument(0)));
+        when(bikeRentalRepository.findBikeExternalIdsByRentalExternalIdIn(any())).thenReturn(List.of("BIKE001"));
+        doThrow(new IllegalStateException("outbox unavailable"))
+                .when(indexEventPublisher).publishIndexEvents(any(), any(), any());
+
+        assertThrows(IllegalStateException.class,
+                () -> bulkOperationService.updateRentalStatuses(List.of("RENT1"), "Completed"));
+    }
+
+    @Test
+    void updateRideStatuses_WithUnknownId_ThrowsNotFound() {
+        RideStatus finished = RideStatus.builder().id(2L).name("Finished").build();
+        when(securityService.isAdmin()).thenReturn(true);
+        when(rideStatusRepository.findByName("Finished")).thenReturn(Optional.of(finished));
+        when(rideRepository.findExistingExternalIds(List.of("RIDE001", "MISSING"))).thenReturn(List.of("RIDE001"));
+
+        assertThrows(ResourceNotFoundException.class,
+                () -> bulkOperationService.updateRideStatuses(List.of("RIDE001", "MISSING"), "Finished"));
+        verify(rideRepository, never()).updateStatusByExternalIds(any(), any(), any(), any());
+    }
+
+    @Test
+    void updateRentalStatuses_AsCustomer_ThrowsUnauthorized() {
+        when(securityService.isAdmin()).thenReturn(false);
+        when(securityService.getCurrentUserRoles()).thenReturn(List.of("CUSTOMER"));
+
+        assertThrows(UnauthorizedException.class,
+                () -> bulkOperationService.updateRentalStatuses(List.of("RENT001"), "Completed"));
+        verifyNoInteractions(rentalRepository);
+    }
+
+    @Test
+    void markBikeRentalsAsPaid_DeduplicatesIdsAndSkipsHydration() {
+        when(bikeRentalRepository.findExistingExternalIds(List.of("BR1", "BR2"))).thenReturn(List.of("BR1", "BR2"));
+        when(bikeRentalRepository.markRevenueSharePaid(eq(List.of("BR1", "BR2")), any(), any())).thenReturn(2);
+
+        BulkOperationResultDTO result = bulkOperationService.markBikeRentalsAsPaid(List.of("BR1", "BR2", "BR1"));
+
+        assertEquals(2, result.getRequested());
+        assertEquals(2, result.getUpdated());
+        verify(bikeRentalRepository, never()).findByExternalId(any());
+        verify(bikeRentalRepository, never()).save(any());
+    }
+
+    @Test
+    void markBikeRentalsAsPaid_WithUnknownId_ThrowsIllegalArgument() {
+        when(bikeRentalRepository.findExistingExternalIds(List.of("BR1"))).thenReturn(List.of());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> bulkOperationService.markBikeRentalsAsPaid(List.of("BR1")));
+        verify(bikeRentalRepository, never()).markRevenueSharePaid(any(), any(), any());
+    }
+}
@@ -0,0 +1,127 @@
+package org.clickenrent.rentalservice.service;
+
+import org.clickenrent.contracts.rental.FleetAggregatesDTO;
+import org.clickenrent.rentalservice.exception.UnauthorizedException;
+import org.clickenrent.rentalservice.repository.BikeRepository;
+import org.clickenrent.rentalservice.repository.BikeRepository.FleetStatusGroup;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for FleetAggregatesService.
+ */
+@ExtendWith(MockitoExtension.class)
+class FleetAggregatesServiceTest {
+
+    @Mock
+    private BikeRepository bikeRepository;
+
+    @Mock
+    private SecurityService securityService;
+
+    private FleetAggregatesService fleetAggregatesService;
+
+    @BeforeEach
+    void setUp() {
+        fleetAggregatesService = new FleetAggregatesService(bikeRepository, securityService, 5);
+    }
+
+    @Test
+    void getFleetAggregates_Admin_SumsStatusGroupsAndCachesResult() {
+        when(securityService.isAdmin()).thenReturn(true);
+        when(bikeRepository.aggregateFleet()).thenReturn(List.of(
+                group(1L, 10, 6, 2, 1, 1),
+                group(4L, 3, 0, 0, 1, 2),
+                group(null, 1, 0, 0, 0, 1)));
+
+        FleetAggregatesDTO result = fleetAggregatesService.getFleetAggregates();
+        fleetAggregatesService.getFleetAggregates();
+
+        assertEquals(14L, result.getTotalBikes());
+        assertEquals(Map.of(1L, 10L, 4L, 3L), result.getBikesByStatusId());
+        assertEquals(6L, result.getBatteryFull());
+        assertEquals(2L, result.getBatteryMedium());
+        assertEquals(2L, result.getBatteryLow());
+        assertEquals(4L, result.getBatteryCritical());
+        verify(bikeRepository, times(1)).aggregateFleet();
+    }
+
+    @Test
+    void getFleetAggregates_B2B_AggregatesOwnCompanies() {
+        when(securityService.isAdmin()).thenReturn(false);
+        when(securityService.isB2B()).thenReturn(true);
+        when(securityService.getCurrentUserCompanyExternalIds()).thenReturn(List.of("company-b", "company-a"));
+        when(bikeRepository.aggregateFleetByCompanyExternalIds(List.of("company-b", "company-a")))
+                .thenReturn(List.of(group(2L, 4, 1, 1, 1, 1)));
+
+        FleetAggregatesDTO result = fleetAggregatesService.getFleetAggregates();
+
+        assertEquals(4L, result.getTotalBikes());
+        assertEquals(Map.of(2L, 4L), result.getBikesByStatusId());
+        verify(bikeRepository, never()).aggregateFleet();
+    }
+
+    @Test
+    void getFleetAggregates_B2BWithoutCompanies_ReturnsEmptyWithoutQuery() {
+        when(securityService.isAdmin()).thenReturn(false);
+        when(securityService.isB2B()).thenReturn(true);
+        when(securityService.getCurrentUserCompanyExternalIds()).thenReturn(List.of());
+
+        FleetAggregatesDTO result = fleetAggregatesService.getFleetAggregates();
+
+        assertEquals(0L, result.getTotalBikes());
+        verify(bikeRepository, never()).aggregateFleetByCompanyExternalIds(any());
+    }
+
+    @Test
+    void getFleetAggregates_Customer_ThrowsUnauthorized() {
+        when(securityService.isAdmin()).thenReturn(false);
+        when(securityService.isB2B()).thenReturn(false);
+
+        assertThrows(UnauthorizedException.class, () -> fleetAggregatesService.getFleetAggregates());
+    }
+
+    private FleetStatusGroup group(Long statusId, long bikes, long full, long medium, long low, long critical) {
+        return new FleetStatusGroup() {
+            @Override
+            public Long getBikeStatusId() {
+                return statusId;
+            }
+
+            @Override
+            public long getBikes() {
+                return bikes;
+            }
+
+            @Override
+            public long getBatteryFull() {
+                return full;
+            }
+
+            @Override
+            public long getBatteryMedium() {
+                return medium;
+            }
+
+            @Override
+            public long getBatteryLow() {
+                return low;
+            }
+
+            @Override
+            public long getBatteryCritical() {
+                return critical;
+            }
+        };
+    }
+}
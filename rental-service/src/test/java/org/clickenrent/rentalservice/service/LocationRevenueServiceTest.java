@@ -0,0 +1,136 @@
+package org.clickenrent.rentalservice.service;
+
+import org.clickenrent.contracts.rental.LocationDailyRevenueDTO;
+import org.clickenrent.rentalservice.exception.UnauthorizedException;
+import org.clickenrent.rentalservice.repository.BikeRentalRepository;
+import org.clickenrent.rentalservice.repository.BikeRentalRepository.LocationDailyRevenue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for LocationRevenueService.
+ */
+@ExtendWith(MockitoExtension.class)
+class LocationRevenueServiceTest {
+
+    private static final LocalDate FROM = LocalDate.of(2026, 3, 1);
+    private static final LocalDate TO = LocalDate.of(2026, 3, 31);
+
+    @Mock
+    private BikeRentalRepository bikeRentalRepository;
+
+    @Mock
+    private SecurityService securityService;
+
+    @InjectMocks
+    private LocationRevenueService locationRevenueService;
+
+    @Test
+    void getDailyRevenueByLocation_Admin_QueriesWholePeriodAndScalesEarnings() {
+        when(securityService.isAdmin()).thenReturn(true);
+        when(bikeRentalRepository.aggregateRevenueByLocationAndDay(
+                LocalDateTime.of(2026, 3, 1, 0, 0), LocalDateTime.of(2026, 4, 1, 0, 0)))
+                .thenReturn(List.of(row(7L, LocalDate.of(2026, 3, 2), 3, "45.5", "1365.00")));
+
+        List<LocationDailyRevenueDTO> result = locationRevenueService.getDailyRevenueByLocation(FROM, TO);
+
+        assertEquals(1, result.size());
+        LocationDailyRevenueDTO day = result.get(0);
+        assertEquals(7L, day.getLocationId());
+        assertEquals("Location 7", day.getLocationName());
+        assertEquals(LocalDate.of(2026, 3, 2), day.getDate());
+        assertEquals(3L, day.getBikeRentals());
+        assertEquals(new BigDecimal("45.50"), day.getRevenue());
+        assertEquals(new BigDecimal("13.65"), day.getEarnings());
+    }
+
+    @Test
+    void getDailyRevenueByLocation_B2B_AggregatesOwnCompanies() {
+        when(securityService.isAdmin()).thenReturn(false);
+        when(securityService.isB2B()).thenReturn(true);
+        when(securityService.getCurrentUserCompanyExternalIds()).thenReturn(List.of("company-a"));
+        when(bikeRentalRepository.aggregateRevenueByLocationAndDayForCompanies(any(), any(), eq(List.of("company-a"))))
+                .thenReturn(List.of(row(1L, FROM, 1, "10", "0")));
+
+        List<LocationDailyRevenueDTO> result = locationRevenueService.getDailyRevenueByLocation(FROM, TO);
+
+        assertEquals(1, result.size());
+        verify(bikeRentalRepository, never()).aggregateRevenueByLocationAndDay(any(), any());
+    }
+
+    @Test
+    void getDailyRevenueByLocation_B2BWithoutCompanies_ReturnsEmptyWithoutQuery() {
+        when(securityService.isAdmin()).thenReturn(false);
+        when(securityService.isB2B()).thenReturn(true);
+        when(securityService.getCurrentUserCompanyExternalIds()).thenReturn(List.of());
+
+        assertTrue(locationRevenueService.getDailyRevenueByLocation(FROM, TO).isEmpty());
+        verify(bikeRentalRepository, never()).aggregateRevenueByLocationAndDayForCompanies(any(), any(), any());
+    }
+
+    @Test
+    void getDailyRevenueByLocation_Customer_ThrowsUnauthorized() {
+        when(securityService.isAdmin()).thenReturn(false);
+        when(securityService.isB2B()).thenReturn(false);
+
+        assertThrows(UnauthorizedException.class, () -> locationRevenueService.getDailyRevenueByLocation(FROM, TO));
+    }
+
+    @Test
+    void getDailyRevenueByLocation_FromAfterTo_ThrowsIllegalArgument() {
+        assertThrows(IllegalArgumentException.class, () -> locationRevenueService.getDailyRevenueByLocation(TO, FROM));
+        verifyNoInteractions(bikeRentalRepository);
+    }
+
+    private LocationDailyRevenue row(Long locationId, LocalDate date, long bikeRentals,
+                                     String revenue, String revenueTimesSharePercent) {
+        return new LocationDailyRevenue() {
+            @Override
+            public Long getLocationId() {
+                return locationId;
+            }
+
+            @Override
+            public String getLocationExternalId() {
+                return "LOC" + locationId;
+            }
+
+            @Override
+            public String getLocationName() {
+                return "Location " + locationId;
+            }
+
+            @Override
+            public LocalDate getRentalDate() {
+                return date;
+            }
+
+            @Override
+            public long getBikeRentals() {
+                return bikeRentals;
+            }
+
+            @Override
+            public BigDecimal getRevenue() {
+                return new BigDecimal(revenue);
+            }
+
+            @Override
+            public BigDecimal getRevenueTimesSharePercent() {
+                return new BigDecimal(revenueTimesSharePercent);
+            }
+        };
+    }
+}
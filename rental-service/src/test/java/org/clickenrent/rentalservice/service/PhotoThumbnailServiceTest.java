@@ -0,0 +1,135 @@
+package org.clickenrent.rentalservice.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.clickenrent.rentalservice.metrics.PhotoUploadMetrics;
+import org.clickenrent.rentalservice.repository.BikeRentalRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for PhotoThumbnailService.
+ */
+@ExtendWith(MockitoExtension.class)
+class PhotoThumbnailServiceTest {
+
+    private static final String PHOTO_URL = "https://test.blob.core.windows.net/bike-rental-photos/bike-rental-1_photo.jpg";
+
+    @Mock
+    private AzureBlobStorageService azureBlobStorageService;
+
+    @Mock
+    private BikeRentalRepository bikeRentalRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private PhotoThumbnailService photoThumbnailService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        photoThumbnailService = new PhotoThumbnailService(azureBlobStorageService, new PhotoUploadMetrics(meterRegistry),
+                bikeRentalRepository, new TransactionTemplate(mock(PlatformTransactionManager.class)));
+    }
+
+    @Test
+    void generateThumbnail_UploadsDownscaledImageKeepingAspectRatio() throws IOException {
+        // Arrange
+        when(azureBlobStorageService.downloadPhoto(PHOTO_URL)).thenReturn(image(1000, 500));
+        when(azureBlobStorageService.uploadThumbnail(eq(PHOTO_URL), any())).thenReturn("thumbnail-url");
+        when(bikeRentalRepository.assignThumbnailUrl(PHOTO_URL, "thumbnail-url")).thenReturn(1);
+
+        // Act
+        photoThumbnailService.generateThumbnail(PHOTO_URL);
+
+        // Assert
+        ArgumentCaptor<byte[]> thumbnail = ArgumentCaptor.forClass(byte[].class);
+        verify(azureBlobStorageService).uploadThumbnail(eq(PHOTO_URL), thumbnail.capture());
+        BufferedImage result = ImageIO.read(new ByteArrayInputStream(thumbnail.getValue()));
+        assertEquals(320, result.getWidth());
+        assertEquals(160, result.getHeight());
+        verify(bikeRentalRepository).assignThumbnailUrl(PHOTO_URL, "thumbnail-url");
+        assertEquals(1.0, meterRegistry.get("photo.thumbnails").tag("status", "success").counter().count());
+    }
+
+    @Test
+    void generateThumbnail_WithUndecodableImage_DoesNotThrow() {
+        // Arrange
+        when(azureBlobStorageService.downloadPhoto(PHOTO_URL)).thenReturn(new byte[]{1, 2, 3});
+
+        // Act
+        photoThumbnailService.generateThumbnail(PHOTO_URL);
+
+        // Assert
+        verify(azureBlobStorageService, never()).uploadThumbnail(any(), any());
+        verify(bikeRentalRepository, never()).assignThumbnailUrl(any(), any());
+        assertEquals(1.0, meterRegistry.get("photo.thumbnails").tag("status", "failure").counter().count());
+    }
+
+    @Test
+    void generateThumbnail_WithHugeDeclaredDimensions_RejectsWithoutDecoding() throws IOException {
+        // Arrange: a PNG of a few dozen bytes whose header declares 50000x50000 pixels
+        when(azureBlobStorageService.downloadPhoto(PHOTO_URL)).thenReturn(pngHeader(50_000, 50_000));
+
+        // Act
+        photoThumbnailService.generateThumbnail(PHOTO_URL);
+
+        // Assert
+        verify(azureBlobStorageService, never()).uploadThumbnail(any(), any());
+        assertEquals(1.0, meterRegistry.get("photo.thumbnails").tag("status", "failure").counter().count());
+    }
+
+    @Test
+    void resize_WithHugeDeclaredDimensions_ThrowsIOException() throws IOException {
+        byte[] png = pngHeader(50_000, 50_000);
+
+        IOException exception = assertThrows(IOException.class, () -> photoThumbnailService.resize(png, "png"));
+
+        assertTrue(exception.getMessage().contains("50000x50000"));
+    }
+
+    private byte[] image(int width, int height) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "jpg", out);
+        return out.toByteArray();
+    }
+
+    private byte[] pngHeader(int width, int height) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DataOutputStream data = new DataOutputStream(out);
+        data.write(new byte[]{(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'});
+
+        ByteArrayOutputStream ihdr = new ByteArrayOutputStream();
+        DataOutputStream ihdrData = new DataOutputStream(ihdr);
+        ihdrData.write("IHDR".getBytes(StandardCharsets.US_ASCII));
+        ihdrData.writeInt(width);
+        ihdrData.writeInt(height);
+        ihdrData.write(new byte[]{8, 2, 0, 0, 0}); // 8-bit RGB, no interlace
+        byte[] chunk = ihdr.toByteArray();
+
+        CRC32 crc = new CRC32();
+        crc.update(chunk);
+        data.writeInt(chunk.length - 4);
+        data.write(chunk);
+        data.writeInt((int) crc.getValue());
+        return out.toByteArray();
+    }
+}
@@ -2,6 +2,8 @@ package org.clickenrent.rentalservice.service;
 
 import org.clickenrent.rentalservice.dto.RentalDTO;
 import org.clickenrent.rentalservice.entity.Rental;
+import org.clickenrent.rentalservice.entity.RentalStatus;
+import org.clickenrent.rentalservice.event.RentalEventPublisher;
 import org.clickenrent.rentalservice.exception.ResourceNotFoundException;
 import org.clickenrent.rentalservice.exception.UnauthorizedException;
 import org.clickenrent.rentalservice.mapper.RentalMapper;
@@ -16,6 +18,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.Arrays;
 import java.util.Collections;
@@ -41,6 +44,8 @@ class RentalServiceTest {
     @Mock
     private SecurityService securityService;
 
+    @Mock
+    private RentalEventPublisher rentalEventPublisher;
 
     @InjectMocks
     private RentalService rentalService;
@@ -202,6 +207,25 @@ class RentalServiceTest {
         verify(rentalRepository, times(1)).save(any(Rental.class));
     }
 
+    @Test
+    void updateRental_ToCompleted_PublishesRentalCompletedEvent() {
+        ReflectionTestUtils.setField(rentalService, "rentalEventPublisher", rentalEventPublisher);
+        testRental.setRentalStatus(RentalStatus.builder().id(2L).name("Active").build());
+        when(securityService.isAdmin()).thenReturn(true);
+        when(rentalRepository.findById(1L)).thenReturn(Optional.of(testRental));
+        doAnswer(invocation -> {
+            testRental.setRentalStatus(RentalStatus.builder().id(3L).name("Completed").build());
+            return null;
+        }).when(rentalMapper).updateEntityFromDto(testRentalDTO, testRental);
+        when(rentalRepository.save(testRental)).thenReturn(testRental);
+
+        rentalService.updateRental(1L, testRentalDTO);
+        // Already completed: no second event
+        rentalService.updateRental(1L, testRentalDTO);
+
+        verify(rentalEventPublisher, times(1)).publishRentalCompleted(testRental);
+    }
+
     @Test
     void updateRental_NotFound() {
         // Arrange
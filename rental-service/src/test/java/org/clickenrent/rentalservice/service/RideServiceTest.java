@@ -159,7 +159,7 @@ class RideServiceTest {
         RideStatus activeStatus = new RideStatus();
         activeStatus.setName("Active");
         
-        when(bikeRentalRepository.findById(1L)).thenReturn(Optional.of(bikeRental));
+        when(bikeRentalRepository.findWithRentalById(1L)).thenReturn(Optional.of(bikeRental));
         when(rideMapper.toEntity(testRideDTO)).thenReturn(testRide);
         when(rideStatusRepository.findByName("Active")).thenReturn(Optional.of(activeStatus));
         when(rideRepository.save(any())).thenAnswer(inv -> {
@@ -190,15 +190,39 @@ class RideServiceTest {
         RideStatus finishedStatus = new RideStatus();
         finishedStatus.setName("Finished");
         
-        when(rideRepository.findById(1L)).thenReturn(Optional.of(testRide));
+        when(rideRepository.findWithBikeRentalById(1L)).thenReturn(Optional.of(testRide));
         when(rideStatusRepository.findByName("Finished")).thenReturn(Optional.of(finishedStatus));
-        when(rideRepository.save(any())).thenReturn(testRide);
         when(rideMapper.toDto(testRide)).thenReturn(testRideDTO);
 
         RideDTO result = rideService.endRide(1L, testRideDTO);
 
         assertNotNull(result);
-        verify(rideRepository, times(1)).save(any());
+        assertEquals(finishedStatus, testRide.getRideStatus());
+        assertNotNull(testRide.getEndDateTime());
+        // The managed ride is flushed on commit
+        verify(rideRepository, never()).save(any());
+    }
+
+    @Test
+    void endRide_ResolvesStatusOncePerName() {
+        when(securityService.isAdmin()).thenReturn(true);
+        BikeRental bikeRental = new BikeRental();
+        bikeRental.setId(1L);
+        Rental rental = new Rental();
+        rental.setUserExternalId("usr-ext-00001");
+        bikeRental.setRental(rental);
+        testRide.setBikeRental(bikeRental);
+
+        RideStatus finishedStatus = new RideStatus();
+        finishedStatus.setName("Finished");
+
+        when(rideRepository.findWithBikeRentalById(1L)).thenReturn(Optional.of(testRide));
+        when(rideStatusRepository.findByName("Finished")).thenReturn(Optional.of(finishedStatus));
+
+        rideService.endRide(1L, testRideDTO);
+        rideService.endRide(1L, testRideDTO);
+
+        verify(rideStatusRepository, times(1)).findByName("Finished");
     }
 
     @Test
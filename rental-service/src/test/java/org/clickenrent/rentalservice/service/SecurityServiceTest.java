@@ -1,5 +1,6 @@
 package org.clickenrent.rentalservice.service;
 
+import org.clickenrent.contracts.security.TenantContext;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -413,12 +414,50 @@ class SecurityServiceTest {
         // Assert
         assertFalse(result);
     }
-}
-
-
-
-
-
 
+    @Test
+    void roleAndCompanyChecks_SameAuthentication_ReadJwtOnce() {
+        // Arrange
+        @SuppressWarnings("unchecked")
+        Collection<GrantedAuthority> authorities = Arrays.asList(
+        new SimpleGrantedAuthority("ROLE_B2B")
+        );
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("userExternalId", "user-ext-1");
+        claims.put("companyExternalIds", List.of("company-1", "company-2"));
+        jwt = new Jwt("token", Instant.now(), Instant.now().plusSeconds(3600), 
+              Map.of("alg", "HS256"), claims);
+        
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        when(authentication.getAuthorities()).thenReturn((Collection) authorities);
+        when(authentication.isAuthenticated()).thenReturn(true);
+        when(authentication.getPrincipal()).thenReturn(jwt);
 
+        // Act & Assert
+        assertFalse(securityService.isAdmin());
+        assertTrue(securityService.isB2B());
+        assertFalse(securityService.isCustomer());
+        assertTrue(securityService.hasAccessToCompanyByExternalId("company-2"));
+        assertFalse(securityService.hasAccessToCompanyByExternalId("company-3"));
+        assertEquals(List.of("company-1", "company-2"), securityService.getCurrentUserCompanyExternalIds());
+        assertSame(securityService.getCurrentPrincipal(), TenantContext.getPrincipal());
+        verify(authentication, times(1)).getAuthorities();
+        verify(authentication, times(1)).getPrincipal();
+        TenantContext.clear();
+    }
 
+    @Test
+    void getCurrentPrincipal_NewAuthentication_RebuildsSnapshot() {
+        // Arrange
+        Authentication other = mock(Authentication.class);
+        when(authentication.getAuthorities()).thenReturn((Collection) List.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
+        when(other.getAuthorities()).thenReturn((Collection) List.of(new SimpleGrantedAuthority("ROLE_CUSTOMER")));
+        when(securityContext.getAuthentication()).thenReturn(authentication, other);
+
+        // Act & Assert
+        assertTrue(securityService.isAdmin());
+        assertFalse(securityService.isAdmin());
+        assertTrue(securityService.isCustomer());
+        TenantContext.clear();
+    }
+}
@@ -0,0 +1,116 @@
+package org.clickenrent.rentalservice.service;
+
+import org.clickenrent.contracts.rental.UserRentalStatsDTO;
+import org.clickenrent.rentalservice.exception.UnauthorizedException;
+import org.clickenrent.rentalservice.repository.BikeRentalRepository;
+import org.clickenrent.rentalservice.repository.RideRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for UserRentalStatsService.
+ */
+@ExtendWith(MockitoExtension.class)
+class UserRentalStatsServiceTest {
+
+    private static final String USER = "usr-ext-00001";
+
+    @Mock
+    private BikeRentalRepository bikeRentalRepository;
+
+    @Mock
+    private RideRepository rideRepository;
+
+    @Mock
+    private SecurityService securityService;
+
+    @InjectMocks
+    private UserRentalStatsService userRentalStatsService;
+
+    @Test
+    void getUserRentalStats_CombinesSqlAggregates() {
+        when(securityService.isAdmin()).thenReturn(true);
+        when(bikeRentalRepository.aggregateByUserExternalId(USER)).thenReturn(totals(4, "37.50"));
+        when(rideRepository.sumRideMinutesByUserExternalId(USER)).thenReturn(95L);
+        when(bikeRentalRepository.findLocationUsageByUserExternalId(eq(USER), any(Pageable.class)))
+                .thenReturn(List.of(location("loc-ext-001", "Central Station", 3)));
+
+        UserRentalStatsDTO stats = userRentalStatsService.getUserRentalStats(USER);
+
+        assertEquals(4, stats.getTotalBikeRentals());
+        assertEquals(new BigDecimal("37.50"), stats.getTotalSpent());
+        assertEquals(95L, stats.getTotalRidesDurationMinutes());
+        assertEquals("loc-ext-001", stats.getFavoriteLocationExternalId());
+        assertEquals("Central Station", stats.getFavoriteLocationName());
+        assertEquals(3, stats.getFavoriteLocationTimesUsed());
+    }
+
+    @Test
+    void getUserRentalStats_NoBikeRentals_SkipsRideAndLocationQueries() {
+        when(securityService.isAdmin()).thenReturn(false);
+        when(securityService.hasAccessToUserByExternalId(USER)).thenReturn(true);
+        when(bikeRentalRepository.aggregateByUserExternalId(USER)).thenReturn(totals(0, "0"));
+
+        UserRentalStatsDTO stats = userRentalStatsService.getUserRentalStats(USER);
+
+        assertEquals(0, stats.getTotalBikeRentals());
+        assertEquals(0L, stats.getTotalRidesDurationMinutes());
+        assertNull(stats.getFavoriteLocationExternalId());
+        verifyNoInteractions(rideRepository);
+        verify(bikeRentalRepository, never()).findLocationUsageByUserExternalId(anyString(), any());
+    }
+
+    @Test
+    void getUserRentalStats_OtherUser_ThrowsUnauthorizedException() {
+        when(securityService.isAdmin()).thenReturn(false);
+        when(securityService.hasAccessToUserByExternalId(USER)).thenReturn(false);
+
+        assertThrows(UnauthorizedException.class, () -> userRentalStatsService.getUserRentalStats(USER));
+        verifyNoInteractions(bikeRentalRepository, rideRepository);
+    }
+
+    private static BikeRentalRepository.UserTotals totals(long bikeRentals, String totalSpent) {
+        return new BikeRentalRepository.UserTotals() {
+            @Override
+            public long getBikeRentals() {
+                return bikeRentals;
+            }
+
+            @Override
+            public BigDecimal getTotalSpent() {
+                return new BigDecimal(totalSpent);
+            }
+        };
+    }
+
+    private static BikeRentalRepository.LocationUsage location(String externalId, String name, long timesUsed) {
+        return new BikeRentalRepository.LocationUsage() {
+            @Override
+            public String getExternalId() {
+                return externalId;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public long getTimesUsed() {
+                return timesUsed;
+            }
+        };
+    }
+}
@@ -98,7 +98,7 @@ echo ""
 
 # Show JAR files
 echo -e "${BLUE}📦 Built JAR files:${NC}"
-find . -name "*.jar" -path "*/target/*" ! -path "*/original-*" | grep -v "shared-contracts" | sed 's|^\./||'
+find . -name "*.jar" -path "*/target/*" ! -path "*/original-*" | grep -v "shared-contracts\|shared-http\|shared-security\|shared-outbox" | sed 's|^\./||'
 echo ""
 
 if [ "$BUILD_DOCKER" = true ]; then
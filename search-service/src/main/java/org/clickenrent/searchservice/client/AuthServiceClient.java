@@ -1,5 +1,6 @@
 package org.clickenrent.searchservice.client;
 
+import feign.Response;
 import org.clickenrent.contracts.auth.UserDTO;
 import org.clickenrent.searchservice.config.FeignConfig;
 import org.springframework.cloud.openfeign.FeignClient;
@@ -32,4 +33,11 @@ public interface AuthServiceClient {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "100") int size
     );
+
+    /**
+     * Stream all users as newline-delimited JSON (for bulk indexing).
+     * The body must be consumed incrementally, see {@link org.clickenrent.http.ndjson.NdjsonStreamReader}.
+     */
+    @GetMapping(value = "/users/export", produces = "application/x-ndjson")
+    Response exportUsers(@RequestParam(required = false) String companyExternalId);
 }
@@ -3,6 +3,7 @@ package org.clickenrent.searchservice.client;
 import org.clickenrent.contracts.rental.BikeDTO;
 import org.clickenrent.contracts.rental.HubDTO;
 import org.clickenrent.contracts.rental.LocationDTO;
+import feign.Response;
 import org.clickenrent.searchservice.config.FeignConfig;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.data.domain.Page;
@@ -37,6 +38,13 @@ public interface RentalServiceClient {
             @RequestParam(defaultValue = "100") int size
     );
 
+    /**
+     * Stream all bikes as newline-delimited JSON (for bulk indexing).
+     * The body must be consumed incrementally, see {@link org.clickenrent.http.ndjson.NdjsonStreamReader}.
+     */
+    @GetMapping(value = "/bikes/export", produces = "application/x-ndjson")
+    Response exportBikes(@RequestParam(required = false) String companyExternalId);
+
     // ==================== Locations ====================
     
     /**
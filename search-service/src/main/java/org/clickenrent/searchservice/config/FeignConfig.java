@@ -1,9 +1,9 @@
 package org.clickenrent.searchservice.config;
 
-import feign.Logger;
 import feign.RequestInterceptor;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
+import org.clickenrent.contracts.security.InternalIdentityCodec;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.context.request.RequestContextHolder;
@@ -11,7 +11,8 @@ import org.springframework.web.context.request.ServletRequestAttributes;
 
 /**
  * Configuration for Feign clients.
- * Propagates JWT token to downstream services and enables full logging.
+ * Propagates JWT token to downstream services.
+ * Logging is set by spring.cloud.openfeign.client.config.default.loggerLevel and sampled (see shared-http).
  * 
  * @author Vitaliy Shvetsov
  */
@@ -19,14 +20,6 @@ import org.springframework.web.context.request.ServletRequestAttributes;
 @Slf4j
 public class FeignConfig {
 
-    /**
-     * Enable full Feign logging for debugging.
-     */
-    @Bean
-    Logger.Level feignLoggerLevel() {
-        return Logger.Level.FULL;
-    }
-
     /**
      * Interceptor to propagate JWT token to other services.
      * Extracts the Authorization header from the incoming request and forwards it.
@@ -45,6 +38,12 @@ public class FeignConfig {
                 } else {
                     log.warn("No valid Authorization header found in request");
                 }
+
+                // Identity asserted by the gateway, for services in internal-trust mode
+                String internalIdentity = request.getHeader(InternalIdentityCodec.HEADER);
+                if (internalIdentity != null) {
+                    requestTemplate.header(InternalIdentityCodec.HEADER, internalIdentity);
+                }
             } else {
                 log.debug("No request attributes available for Feign interceptor (async context)");
             }
@@ -27,16 +27,16 @@ public class IndexEventConsumer {
             @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
             @Header(KafkaHeaders.OFFSET) long offset
     ) {
-        log.info("Consumed index event: operation={}, type={}, id={}, partition={}, offset={}",
-                event.getOperation(), event.getEntityType(), event.getEntityId(), partition, offset);
+        log.info("Consumed index event: operation={}, type={}, ids={}, partition={}, offset={}",
+                event.getOperation(), event.getEntityType(), event.getTargetIds(), partition, offset);
 
         try {
             indexingService.processIndexEvent(event);
-            log.info("Successfully processed index event: operation={}, type={}, id={}",
-                    event.getOperation(), event.getEntityType(), event.getEntityId());
+            log.info("Successfully processed index event: operation={}, type={}, ids={}",
+                    event.getOperation(), event.getEntityType(), event.getTargetIds());
         } catch (Exception e) {
-            log.error("Failed to process index event: operation={}, type={}, id={}",
-                    event.getOperation(), event.getEntityType(), event.getEntityId(), e);
+            log.error("Failed to process index event: operation={}, type={}, ids={}",
+                    event.getOperation(), event.getEntityType(), event.getTargetIds(), e);
             throw e;
         }
     }
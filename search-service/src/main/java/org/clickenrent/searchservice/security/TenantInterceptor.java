@@ -26,7 +26,7 @@ public class TenantInterceptor implements HandlerInterceptor {
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
         try {
-            // Determine if user is superadmin
+            // Determine if user is superadmin; the first call reads the JWT into the request's principal snapshot
             boolean isAdmin = securityService.isAdmin();
             TenantContext.setSuperAdmin(isAdmin);
             
@@ -4,11 +4,12 @@ import feign.FeignException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.clickenrent.contracts.rental.BikeDTO;
+import org.clickenrent.http.ndjson.NdjsonStreamReader;
 import org.clickenrent.searchservice.client.RentalServiceClient;
 import org.clickenrent.searchservice.document.BikeDocument;
 import org.clickenrent.searchservice.mapper.BikeDocumentMapper;
 import org.clickenrent.searchservice.repository.BikeDocumentRepository;
-import org.springframework.data.domain.Page;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
@@ -27,6 +28,10 @@ public class BikeIndexService {
     private final RentalServiceClient rentalServiceClient;
     private final BikeDocumentRepository bikeDocumentRepository;
     private final BikeDocumentMapper bikeDocumentMapper;
+    private final NdjsonStreamReader ndjsonStreamReader;
+
+    @Value("${search.indexing.batch-size:500}")
+    private int batchSize;
 
     /**
      * Index a single bike by external ID
@@ -62,40 +67,31 @@ public class BikeIndexService {
     }
 
     /**
-     * Bulk index all bikes (paginated)
+     * Bulk index all bikes from rental-service's NDJSON export stream.
+     * Documents are saved in batches of {@code search.indexing.batch-size} while the stream is read.
      */
     public int bulkIndexBikes(String companyExternalId) {
-        int totalIndexed = 0;
-        int page = 0;
-        int pageSize = 100;
-        
+        String companyExtId = companyExternalId != null ? companyExternalId : "default-company";
+
         try {
-            Page<BikeDTO> bikePage;
-            do {
-                bikePage = rentalServiceClient.getBikes(companyExternalId, page, pageSize);
-                
-                List<BikeDocument> documents = new ArrayList<>();
-                for (BikeDTO bikeDTO : bikePage.getContent()) {
-                    String companyExtId = companyExternalId != null ? companyExternalId : "default-company";
-                    BikeDocument document = bikeDocumentMapper.toDocument(bikeDTO, companyExtId);
-                    documents.add(document);
-                }
-                
-                if (!documents.isEmpty()) {
-                    bikeDocumentRepository.saveAll(documents);
-                    totalIndexed += documents.size();
-                    log.info("Indexed {} bikes (page {})", documents.size(), page);
-                }
-                
-                page++;
-            } while (bikePage.hasNext());
-            
+            int totalIndexed = ndjsonStreamReader.readInBatches(
+                    rentalServiceClient.exportBikes(companyExternalId),
+                    BikeDTO.class,
+                    batchSize,
+                    batch -> {
+                        List<BikeDocument> documents = new ArrayList<>(batch.size());
+                        for (BikeDTO bikeDTO : batch) {
+                            documents.add(bikeDocumentMapper.toDocument(bikeDTO, companyExtId));
+                        }
+                        bikeDocumentRepository.saveAll(documents);
+                        log.info("Indexed {} bikes", documents.size());
+                    });
+
             log.info("Completed bulk indexing of {} bikes", totalIndexed);
+            return totalIndexed;
         } catch (Exception e) {
             log.error("Failed to bulk index bikes", e);
             throw new RuntimeException("Failed to bulk index bikes", e);
         }
-        
-        return totalIndexed;
     }
 }
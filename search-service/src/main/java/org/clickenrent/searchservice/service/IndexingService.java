@@ -9,6 +9,7 @@ import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -68,19 +69,23 @@ public class IndexingService {
     }
 
     /**
-     * Process a single index event (async)
+     * Process an index event (async); a batched event is applied to each of its entities
      */
     @Async("indexingTaskExecutor")
     public void processIndexEvent(IndexEventRequest event) {
-        log.info("Processing index event: {} {} {}", event.getOperation(), event.getEntityType(), event.getEntityId());
-        
-        try {
-            switch (event.getOperation()) {
-                case CREATE, UPDATE -> indexEntity(event.getEntityType(), event.getEntityId());
-                case DELETE -> deleteEntity(event.getEntityType(), event.getEntityId());
+        List<String> entityIds = event.getTargetIds();
+        log.info("Processing index event: {} {} {}", event.getOperation(), event.getEntityType(),
+                entityIds.size() == 1 ? entityIds.get(0) : entityIds.size() + " entities");
+
+        for (String entityId : entityIds) {
+            try {
+                switch (event.getOperation()) {
+                    case CREATE, UPDATE -> indexEntity(event.getEntityType(), entityId);
+                    case DELETE -> deleteEntity(event.getEntityType(), entityId);
+                }
+            } catch (Exception e) {
+                log.error("Failed to process index event: {} {} {}", event.getOperation(), event.getEntityType(), entityId, e);
             }
-        } catch (Exception e) {
-            log.error("Failed to process index event: {}", event, e);
         }
     }
 
@@ -4,11 +4,12 @@ import feign.FeignException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.clickenrent.contracts.auth.UserDTO;
+import org.clickenrent.http.ndjson.NdjsonStreamReader;
 import org.clickenrent.searchservice.client.AuthServiceClient;
 import org.clickenrent.searchservice.document.UserDocument;
 import org.clickenrent.searchservice.mapper.UserDocumentMapper;
 import org.clickenrent.searchservice.repository.UserDocumentRepository;
-import org.springframework.data.domain.Page;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
@@ -28,6 +29,10 @@ public class UserIndexService {
     private final AuthServiceClient authServiceClient;
     private final UserDocumentRepository userDocumentRepository;
     private final UserDocumentMapper userDocumentMapper;
+    private final NdjsonStreamReader ndjsonStreamReader;
+
+    @Value("${search.indexing.batch-size:500}")
+    private int batchSize;
 
     /**
      * Index a single user by external ID
@@ -64,40 +69,30 @@ public class UserIndexService {
     }
 
     /**
-     * Bulk index all users (paginated)
+     * Bulk index all users from auth-service's NDJSON export stream.
+     * Documents are saved in batches of {@code search.indexing.batch-size} while the stream is read.
      */
     public int bulkIndexUsers(String companyExternalId) {
-        int totalIndexed = 0;
-        int page = 0;
-        int pageSize = 100;
-        
         try {
-            Page<UserDTO> userPage;
-            do {
-                userPage = authServiceClient.getUsers(companyExternalId, page, pageSize);
-                
-                List<UserDocument> documents = new ArrayList<>();
-                for (UserDTO userDTO : userPage.getContent()) {
-                    List<String> companyIds = Collections.emptyList(); // TODO: Get from user data
-                    UserDocument document = userDocumentMapper.toDocument(userDTO, companyIds);
-                    documents.add(document);
-                }
-                
-                if (!documents.isEmpty()) {
-                    userDocumentRepository.saveAll(documents);
-                    totalIndexed += documents.size();
-                    log.info("Indexed {} users (page {})", documents.size(), page);
-                }
-                
-                page++;
-            } while (userPage.hasNext());
-            
+            int totalIndexed = ndjsonStreamReader.readInBatches(
+                    authServiceClient.exportUsers(companyExternalId),
+                    UserDTO.class,
+                    batchSize,
+                    batch -> {
+                        List<UserDocument> documents = new ArrayList<>(batch.size());
+                        for (UserDTO userDTO : batch) {
+                            List<String> companyIds = Collections.emptyList(); // TODO: Get from user data
+                            documents.add(userDocumentMapper.toDocument(userDTO, companyIds));
+                        }
+                        userDocumentRepository.saveAll(documents);
+                        log.info("Indexed {} users", documents.size());
+                    });
+
             log.info("Completed bulk indexing of {} users", totalIndexed);
+            return totalIndexed;
         } catch (Exception e) {
             log.error("Failed to bulk index users", e);
             throw new RuntimeException("Failed to bulk index users", e);
         }
-        
-        return totalIndexed;
     }
 }
@@ -141,6 +141,25 @@ class IndexingServiceTest {
         verifyNoInteractions(userIndexService, locationIndexService, hubIndexService);
     }
 
+    @Test
+    void processIndexEvent_batchedBikeUpdate_indexesEachBike() {
+        // Given
+        IndexEventRequest event = IndexEventRequest.builder()
+                .entityType("bike")
+                .entityIds(List.of("bike-1", "bike-2", "bike-3"))
+                .operation(IndexOperation.UPDATE)
+                .build();
+        doThrow(new RuntimeException("rental-service unavailable")).when(bikeIndexService).indexBike("bike-2");
+
+        // When
+        indexingService.processIndexEvent(event);
+
+        // Then: a failing bike doesn't stop the rest of the batch
+        verify(bikeIndexService).indexBike("bike-1");
+        verify(bikeIndexService).indexBike("bike-2");
+        verify(bikeIndexService).indexBike("bike-3");
+    }
+
     @Test
     void processIndexEvent_deleteLocation_callsLocationIndexService() {
         // Given
@@ -0,0 +1,34 @@
+package org.clickenrent.contracts.payment;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Shared contract DTO for the refunds of one rental on one day, computed in SQL by payment-service.
+ * Used for cross-service communication.
+ * 
+ * Source: payment-service
+ * Consumers: analytics-service
+ * 
+ * @version 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RentalDailyRefundDTO {
+
+    private String rentalExternalId;
+
+    // Day of the refund transactions
+    private LocalDate date;
+
+    // Refunded and partially refunded transactions
+    private Long refunds;
+    private BigDecimal amount;
+}
@@ -0,0 +1,41 @@
+package org.clickenrent.contracts.rental;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Shared contract DTO for the bike rentals of one company that started on one day and hour, with one bike type
+ * and status, computed in SQL by rental-service. Used for cross-service communication.
+ * 
+ * Source: rental-service
+ * Consumers: analytics-service (rental histogram backfill)
+ * 
+ * @version 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BikeRentalHistogramBucketDTO {
+
+    private String companyExternalId;
+
+    // Day and hour of day (0-23) the bike rentals started in
+    private LocalDate date;
+    private Integer hour;
+
+    private String bikeTypeName;
+    private String bikeRentalStatusName;
+
+    private Long bikeRentals;
+
+    // Total ride minutes of the bike rentals that have any, one value per bike rental
+    private Long durationCount;
+    private Long durationSumMinutes;
+    private Long durationMinMinutes;
+    private Long durationMaxMinutes;
+}
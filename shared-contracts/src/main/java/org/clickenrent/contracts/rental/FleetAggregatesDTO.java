@@ -0,0 +1,36 @@
+package org.clickenrent.contracts.rental;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Shared contract DTO for fleet aggregates, computed in SQL by rental-service over the caller's fleet.
+ * Used for cross-service communication.
+ * 
+ * Battery bands: full 76-100%, medium 51-75%, low 25-50%, critical 0-24%.
+ * 
+ * Source: rental-service
+ * Consumers: analytics-service
+ * 
+ * @version 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FleetAggregatesDTO {
+
+    private Long totalBikes;
+
+    // Bike count by bike status ID; bikes without a status are only in totalBikes
+    private Map<Long, Long> bikesByStatusId;
+
+    private Long batteryFull;
+    private Long batteryMedium;
+    private Long batteryLow;
+    private Long batteryCritical;
+}
@@ -0,0 +1,38 @@
+package org.clickenrent.contracts.rental;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Shared contract DTO for the bike rental revenue of one location on one day, computed in SQL by rental-service.
+ * Used for cross-service communication.
+ * 
+ * Source: rental-service
+ * Consumers: analytics-service
+ * 
+ * @version 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LocationDailyRevenueDTO {
+
+    private Long locationId;
+    private String locationExternalId;
+    private String locationName;
+
+    // Day the bike rentals started on
+    private LocalDate date;
+
+    private Long bikeRentals;
+    private BigDecimal revenue;
+
+    // Revenue share of the bike owners: sum of totalPrice * revenueSharePercent / 100
+    private BigDecimal earnings;
+}
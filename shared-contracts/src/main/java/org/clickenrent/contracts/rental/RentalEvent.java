@@ -0,0 +1,44 @@
+package org.clickenrent.contracts.rental;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZonedDateTime;
+
+/**
+ * Kafka event for rental lifecycle changes.
+ * Published by: rental-service
+ * Consumed by: auth-service (user statistics cache), analytics-service (real-time metrics, rental histograms)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RentalEvent {
+
+    public static final String RENTAL_COMPLETED = "RENTAL_COMPLETED";
+    public static final String BIKE_RENTAL_STARTED = "BIKE_RENTAL_STARTED";
+    public static final String BIKE_RENTAL_ENDED = "BIKE_RENTAL_ENDED";
+
+    private String eventId;
+    private String eventType;
+    private ZonedDateTime timestamp;
+
+    private String rentalExternalId;
+    private String userExternalId;
+    private String companyExternalId;
+
+    // Bike rental events only
+    private String bikeRentalExternalId;
+    private String bikeRentalStatusName;
+    private BigDecimal totalPrice;
+    private LocalDateTime startDateTime;
+    private String bikeTypeName;
+
+    // BIKE_RENTAL_ENDED only: total duration of the bike rental's rides
+    private Long rideMinutes;
+}
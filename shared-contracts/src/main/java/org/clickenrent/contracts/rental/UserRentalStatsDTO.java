@@ -0,0 +1,34 @@
+package org.clickenrent.contracts.rental;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Shared contract DTO for a user's rental aggregates, computed in SQL by rental-service.
+ * Used for cross-service communication.
+ * 
+ * Source: rental-service
+ * Consumers: auth-service
+ * 
+ * @version 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserRentalStatsDTO {
+
+    private String userExternalId;
+    private Integer totalBikeRentals;
+    private Long totalRidesDurationMinutes;
+    private BigDecimal totalSpent;
+
+    // Most used location, null if the user has no bike rentals
+    private String favoriteLocationExternalId;
+    private String favoriteLocationName;
+    private Integer favoriteLocationTimesUsed;
+}
@@ -1,5 +1,7 @@
 package org.clickenrent.contracts.search;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.AssertTrue;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Pattern;
@@ -8,6 +10,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.List;
+
 /**
  * Request DTO for event-driven indexing operations.
  * Other services send this when entities are created/updated/deleted.
@@ -33,15 +37,37 @@ public class IndexEventRequest {
     /**
      * External ID of the entity
      */
-    @NotBlank(message = "Entity ID is required")
     private String entityId;
 
+    /**
+     * External IDs of several entities of the same type, sent instead of entityId for bulk changes
+     */
+    private List<String> entityIds;
+
     /**
      * Operation type (CREATE, UPDATE, DELETE)
      */
     @NotNull(message = "Operation is required")
     private IndexOperation operation;
 
+    /**
+     * The entities this event applies to: entityIds when set, otherwise entityId
+     */
+    @JsonIgnore
+    public List<String> getTargetIds() {
+        if (entityIds != null && !entityIds.isEmpty()) {
+            return entityIds;
+        }
+        return entityId != null ? List.of(entityId) : List.of();
+    }
+
+    @JsonIgnore
+    @AssertTrue(message = "Entity ID is required")
+    public boolean isTargeted() {
+        List<String> ids = getTargetIds();
+        return !ids.isEmpty() && ids.stream().noneMatch(id -> id == null || id.isBlank());
+    }
+
     public enum IndexOperation {
         CREATE,
         UPDATE,
@@ -0,0 +1,42 @@
+package org.clickenrent.contracts.security;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micrometer metrics of an {@link AuditLogWriter}: queue depth, written, dropped and failed events,
+ * and the time spent writing batches. All meters read the writer's counters, so nothing is recorded per event.
+ */
+public class AuditLogMetrics implements MeterBinder {
+
+    private final AuditLogWriter writer;
+
+    public AuditLogMetrics(AuditLogWriter writer) {
+        this.writer = writer;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("audit.queue.depth", writer, AuditLogWriter::queueDepth)
+                .description("Number of audit events waiting to be written")
+                .register(registry);
+        FunctionCounter.builder("audit.events.written", writer, AuditLogWriter::writtenCount)
+                .description("Number of audit events written to the database")
+                .register(registry);
+        FunctionCounter.builder("audit.events.dropped", writer, AuditLogWriter::droppedCount)
+                .description("Number of audit events dropped because the buffer was full")
+                .register(registry);
+        FunctionCounter.builder("audit.events.failed", writer, AuditLogWriter::failedCount)
+                .description("Number of audit events in batches that failed to insert")
+                .register(registry);
+        FunctionTimer.builder("audit.flush.duration", writer, AuditLogWriter::flushCount,
+                        AuditLogWriter::flushNanos, TimeUnit.NANOSECONDS)
+                .description("Time to insert one batch of audit events")
+                .register(registry);
+    }
+}
@@ -0,0 +1,297 @@
+package org.clickenrent.contracts.security;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+/**
+ * Batched writer for the audit_logs table shared by all services.
+ *
+ * Request threads only enqueue events into a bounded lock-free ring buffer. One writer thread drains it and
+ * inserts each batch with a single JDBC batch statement in one transaction, so a burst of security events
+ * costs a few round trips and one connection instead of one transaction per event.
+ *
+ * Values are truncated to their column lengths before they are bound. If the database still rejects a batch,
+ * its events are retried one per transaction so only the rejected events are lost.
+ *
+ * When the buffer is full, {@link #submit(AuditEvent)} waits up to maxBlock for the writer to make room and then
+ * drops the event; dropped, written and failed events are counted. {@link #close()} stops accepting events
+ * and flushes what is queued. {@link AuditLogMetrics} exposes the counters to Micrometer.
+ */
+@Slf4j
+public class AuditLogWriter implements AutoCloseable {
+
+    static final String INSERT_SQL = "INSERT INTO audit_logs (event_type, user_external_id, company_external_ids, "
+            + "resource_type, resource_id, endpoint, http_method, client_ip, success, error_message, metadata, timestamp) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // Column lengths of audit_logs
+    static final int EVENT_TYPE_LENGTH = 50;
+    static final int USER_EXTERNAL_ID_LENGTH = 100;
+    static final int RESOURCE_TYPE_LENGTH = 100;
+    static final int RESOURCE_ID_LENGTH = 100;
+    static final int ENDPOINT_LENGTH = 500;
+    static final int HTTP_METHOD_LENGTH = 10;
+    static final int CLIENT_IP_LENGTH = 45;
+
+    private static final long BACKPRESSURE_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+    private static final long CLOSE_TIMEOUT_MILLIS = 10_000;
+
+    private final DataSource dataSource;
+    private final Function<Map<String, Object>, String> metadataSerializer;
+    private final AuditRingBuffer<AuditEvent> buffer;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final long maxBlockNanos;
+    private final Thread writerThread;
+
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong flushes = new AtomicLong();
+    private final AtomicLong flushNanos = new AtomicLong();
+    private volatile boolean running = true;
+
+    /**
+     * Create the writer and start its thread.
+     *
+     * @param dataSource Database holding the audit_logs table
+     * @param metadataSerializer Turns event metadata into the JSON stored in the metadata column; runs on the writer thread
+     * @param options Buffer and batching settings
+     */
+    public AuditLogWriter(DataSource dataSource,
+                          Function<Map<String, Object>, String> metadataSerializer,
+                          Options options) {
+        this.dataSource = dataSource;
+        this.metadataSerializer = metadataSerializer;
+        this.buffer = new AuditRingBuffer<>(options.capacity());
+        this.batchSize = options.batchSize();
+        this.flushIntervalNanos = options.flushInterval().toNanos();
+        this.maxBlockNanos = options.maxBlock().toNanos();
+
+        this.writerThread = new Thread(this::run, "audit-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    /**
+     * Create a writer that stores event metadata as JSON; metadata that fails to serialize is stored as null.
+     */
+    public static AuditLogWriter create(DataSource dataSource, ObjectMapper objectMapper, Options options) {
+        return new AuditLogWriter(dataSource, metadata -> {
+            try {
+                return objectMapper.writeValueAsString(metadata);
+            } catch (JsonProcessingException e) {
+                log.error("Failed to serialize audit event metadata", e);
+                return null;
+            }
+        }, options);
+    }
+
+    /**
+     * Queue an event for writing; never blocks for longer than maxBlock.
+     *
+     * @return false if the event was dropped because the buffer stayed full or the writer is closed
+     */
+    public boolean submit(AuditEvent event) {
+        if (running && buffer.offer(event)) {
+            if (buffer.size() >= batchSize) {
+                LockSupport.unpark(writerThread);
+            }
+            return true;
+        }
+
+        // Backpressure: wake the writer and give it a moment to make room
+        long deadline = System.nanoTime() + maxBlockNanos;
+        while (running && System.nanoTime() - deadline < 0) {
+            LockSupport.unpark(writerThread);
+            LockSupport.parkNanos(this, BACKPRESSURE_PARK_NANOS);
+            if (buffer.offer(event)) {
+                return true;
+            }
+        }
+
+        long total = dropped.incrementAndGet();
+        if (total == 1 || total % 1000 == 0) {
+            log.warn("Audit buffer full or closed, dropped {} events so far (capacity {})", total, buffer.capacity());
+        }
+        return false;
+    }
+
+    /**
+     * Stop accepting events and write everything still queued.
+     */
+    @Override
+    public void close() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(writerThread);
+        try {
+            writerThread.join(CLOSE_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writerThread.isAlive()) {
+            log.warn("Audit writer did not finish within {}ms, {} events left unwritten", CLOSE_TIMEOUT_MILLIS, buffer.size());
+        }
+    }
+
+    public int queueDepth() {
+        return buffer.size();
+    }
+
+    public int capacity() {
+        return buffer.capacity();
+    }
+
+    public long writtenCount() {
+        return written.get();
+    }
+
+    public long droppedCount() {
+        return dropped.get();
+    }
+
+    public long failedCount() {
+        return failed.get();
+    }
+
+    public long flushCount() {
+        return flushes.get();
+    }
+
+    /**
+     * Total time spent writing batches, successful or not.
+     */
+    public long flushNanos() {
+        return flushNanos.get();
+    }
+
+    private void run() {
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        while (running || !buffer.isEmpty()) {
+            buffer.drainTo(batch, batchSize);
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            }
+            if (running && buffer.size() < batchSize) {
+                // Woken early by submit once a full batch is queued, or by close
+                LockSupport.parkNanos(this, flushIntervalNanos);
+            } else if (!running && !buffer.isEmpty()) {
+                // A producer claimed a slot but has not published it yet
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    private void flush(List<AuditEvent> batch) {
+        long start = System.nanoTime();
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                insert(connection, batch);
+                written.addAndGet(batch.size());
+            } catch (BatchUpdateException e) {
+                log.warn("Audit batch of {} events rejected, retrying them one by one", batch.size(), e);
+                for (AuditEvent event : batch) {
+                    try {
+                        insert(connection, List.of(event));
+                        written.incrementAndGet();
+                    } catch (SQLException | RuntimeException rowException) {
+                        failed.incrementAndGet();
+                        log.error("Failed to write audit event {} for user {}",
+                                event.getEventType(), event.getUserExternalId(), rowException);
+                    }
+                }
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException | RuntimeException e) {
+            failed.addAndGet(batch.size());
+            log.error("Failed to write {} audit events", batch.size(), e);
+        }
+
+        flushNanos.addAndGet(System.nanoTime() - start);
+        flushes.incrementAndGet();
+    }
+
+    /**
+     * Insert the events in one transaction, rolled back if any of them is rejected.
+     */
+    private void insert(Connection connection, List<AuditEvent> events) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(INSERT_SQL)) {
+            for (AuditEvent event : events) {
+                bind(statement, event);
+                statement.addBatch();
+            }
+            statement.executeBatch();
+            connection.commit();
+        } catch (SQLException | RuntimeException e) {
+            connection.rollback();
+            throw e;
+        }
+    }
+
+    private void bind(PreparedStatement statement, AuditEvent event) throws SQLException {
+        statement.setString(1, truncate(event.getEventType() != null ? event.getEventType().name() : "UNKNOWN",
+                EVENT_TYPE_LENGTH));
+        statement.setString(2, truncate(event.getUserExternalId(), USER_EXTERNAL_ID_LENGTH));
+        statement.setString(3, event.getUserCompanyIds());
+        statement.setString(4, truncate(event.getResourceType(), RESOURCE_TYPE_LENGTH));
+        statement.setString(5, truncate(event.getResourceId(), RESOURCE_ID_LENGTH));
+        statement.setString(6, truncate(event.getEndpoint(), ENDPOINT_LENGTH));
+        statement.setString(7, truncate(event.getHttpMethod(), HTTP_METHOD_LENGTH));
+        statement.setString(8, truncate(event.getClientIp(), CLIENT_IP_LENGTH));
+        statement.setBoolean(9, event.isSuccess());
+        statement.setString(10, event.getErrorMessage());
+        if (event.getMetadata() != null && !event.getMetadata().isEmpty()) {
+            statement.setString(11, metadataSerializer.apply(event.getMetadata()));
+        } else {
+            statement.setNull(11, Types.VARCHAR);
+        }
+        LocalDateTime timestamp = event.getTimestamp() != null ? event.getTimestamp() : LocalDateTime.now();
+        statement.setTimestamp(12, Timestamp.valueOf(timestamp));
+    }
+
+    static String truncate(String value, int length) {
+        return value != null && value.length() > length ? value.substring(0, length) : value;
+    }
+
+    /**
+     * Buffer and batching settings.
+     *
+     * @param capacity Maximum number of queued events, rounded up to a power of two
+     * @param batchSize Maximum number of events per insert batch; a full batch is written without waiting for the interval
+     * @param flushInterval Longest time a queued event waits before being written
+     * @param maxBlock Longest time submit waits for room in a full buffer before dropping the event
+     */
+    public record Options(int capacity, int batchSize, Duration flushInterval, Duration maxBlock) {
+
+        public Options {
+            if (batchSize < 1) {
+                throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+            }
+        }
+    }
+}
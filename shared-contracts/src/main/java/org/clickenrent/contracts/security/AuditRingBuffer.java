@@ -0,0 +1,108 @@
+package org.clickenrent.contracts.security;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded, lock-free queue of audit events: any number of producers, one consumer (the audit writer thread).
+ *
+ * Each slot carries a sequence number telling whose turn it is: a producer claims the next free slot with one CAS
+ * on the tail and publishes the element by advancing the slot's sequence; the consumer reads slots in order and
+ * hands them back by advancing the sequence one lap ahead. A full buffer makes offer fail instead of blocking.
+ */
+final class AuditRingBuffer<E> {
+
+    private final int mask;
+    private final AtomicReferenceArray<E> elements;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+
+    /**
+     * @param capacity Maximum number of queued elements, rounded up to a power of two
+     */
+    AuditRingBuffer(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.mask = size - 1;
+        this.elements = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Enqueue an element; safe to call from any thread.
+     *
+     * @return false if the buffer is full
+     */
+    boolean offer(E element) {
+        long position = tail.get();
+        while (true) {
+            int slot = (int) position & mask;
+            long difference = sequences.get(slot) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    elements.lazySet(slot, element);
+                    sequences.set(slot, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                // The slot still holds the element of the previous lap: full
+                return false;
+            } else {
+                // Another producer claimed this position first
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Move up to max elements to the target, in order. Must only be called by the single consumer thread.
+     *
+     * @return Number of elements moved
+     */
+    int drainTo(List<E> target, int max) {
+        long position = head.get();
+        int drained = 0;
+        while (drained < max) {
+            int slot = (int) position & mask;
+            if (sequences.get(slot) != position + 1) {
+                // Empty, or the producer of this slot has not published yet
+                break;
+            }
+            target.add(elements.get(slot));
+            elements.lazySet(slot, null);
+            sequences.set(slot, position + mask + 1);
+            position++;
+            drained++;
+        }
+        head.set(position);
+        return drained;
+    }
+
+    /**
+     * Approximate number of queued elements, for metrics and wake-up decisions.
+     */
+    int size() {
+        long size = tail.get() - head.get();
+        return (int) Math.max(0, Math.min(size, capacity()));
+    }
+
+    boolean isEmpty() {
+        return size() == 0;
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+}
@@ -0,0 +1,43 @@
+package org.clickenrent.contracts.security;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Identity of the caller as verified by the gateway, passed to backends in the
+ * {@link InternalIdentityCodec#HEADER} header instead of having every hop verify the JWT again.
+ *
+ * Carries the JWT claims the services read; see {@link InternalIdentityCodec} for signing and verification.
+ *
+ * @param subject JWT subject
+ * @param userId User ID claim, or null
+ * @param userExternalId User external ID claim, or null
+ * @param email Email claim, or null
+ * @param roles Roles claim, as issued by auth-service
+ * @param companyIds Company ID claim
+ * @param companyExternalIds Company external ID claim
+ * @param tokenExpiresAt Expiry of the JWT the identity was read from, or null if it has none
+ */
+public record InternalIdentity(String subject,
+                               Long userId,
+                               String userExternalId,
+                               String email,
+                               List<String> roles,
+                               List<Long> companyIds,
+                               List<String> companyExternalIds,
+                               Instant tokenExpiresAt) {
+
+    public InternalIdentity {
+        roles = copyWithoutNulls(roles);
+        companyIds = copyWithoutNulls(companyIds);
+        companyExternalIds = copyWithoutNulls(companyExternalIds);
+    }
+
+    private static <T> List<T> copyWithoutNulls(List<T> values) {
+        if (values == null || values.isEmpty()) {
+            return List.of();
+        }
+        return values.stream().filter(Objects::nonNull).toList();
+    }
+}
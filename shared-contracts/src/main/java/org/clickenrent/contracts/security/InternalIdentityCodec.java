@@ -0,0 +1,180 @@
+package org.clickenrent.contracts.security;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Signs and verifies the {@link InternalIdentity} assertion the gateway adds for backends.
+ *
+ * The assertion is base64url(payload) + "." + base64url(HMAC-SHA256(payload)) with a secret shared by the
+ * gateway and the services only, so checking it is one HMAC over a few hundred bytes and no JSON or JOSE
+ * parsing. It expires after maxAge, or with the JWT if that is sooner; the gateway drops the header from
+ * client requests, so only the gateway and services holding the secret can produce one.
+ */
+@Slf4j
+public class InternalIdentityCodec {
+
+    public static final String HEADER = "X-Internal-Identity";
+
+    private static final String VERSION = "v1";
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int MIN_SECRET_BYTES = 32;
+    private static final int FIELD_COUNT = 11;
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SecretKeySpec key;
+    private final Duration maxAge;
+    private final Clock clock;
+    private final ThreadLocal<Mac> macs;
+
+    /**
+     * @param secret Shared secret, at least 32 bytes
+     * @param maxAge Longest time an assertion is accepted after it was signed
+     * @param clock Clock for issuing and expiring assertions
+     */
+    public InternalIdentityCodec(String secret, Duration maxAge, Clock clock) {
+        if (secret == null || secret.getBytes(StandardCharsets.UTF_8).length < MIN_SECRET_BYTES) {
+            throw new IllegalArgumentException("Internal identity secret must be at least " + MIN_SECRET_BYTES + " bytes");
+        }
+        this.key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+        this.maxAge = maxAge;
+        this.clock = clock;
+        this.macs = ThreadLocal.withInitial(this::newMac);
+    }
+
+    /**
+     * Sign the identity; the assertion expires after maxAge or with the JWT, whichever is sooner.
+     */
+    public String encode(InternalIdentity identity) {
+        Instant issuedAt = clock.instant();
+        Instant expiresAt = issuedAt.plus(maxAge);
+        if (identity.tokenExpiresAt() != null && identity.tokenExpiresAt().isBefore(expiresAt)) {
+            expiresAt = identity.tokenExpiresAt();
+        }
+
+        String payload = String.join("\n",
+                VERSION,
+                String.valueOf(issuedAt.getEpochSecond()),
+                String.valueOf(expiresAt.getEpochSecond()),
+                identity.tokenExpiresAt() != null ? String.valueOf(identity.tokenExpiresAt().getEpochSecond()) : "",
+                encodeValue(identity.subject()),
+                identity.userId() != null ? identity.userId().toString() : "",
+                encodeValue(identity.userExternalId()),
+                encodeValue(identity.email()),
+                encodeList(identity.roles()),
+                encodeList(identity.companyIds()),
+                encodeList(identity.companyExternalIds()));
+
+        String encodedPayload = ENCODER.encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+        return encodedPayload + "." + ENCODER.encodeToString(sign(encodedPayload));
+    }
+
+    /**
+     * Verify an assertion.
+     *
+     * @return The identity, or empty if the assertion is malformed, tampered with or expired
+     */
+    public Optional<InternalIdentity> decode(String assertion) {
+        if (assertion == null) {
+            return Optional.empty();
+        }
+        int separator = assertion.indexOf('.');
+        if (separator <= 0) {
+            log.warn("Rejected malformed internal identity assertion");
+            return Optional.empty();
+        }
+
+        try {
+            String encodedPayload = assertion.substring(0, separator);
+            byte[] signature = DECODER.decode(assertion.substring(separator + 1));
+            if (!MessageDigest.isEqual(signature, sign(encodedPayload))) {
+                log.warn("Rejected internal identity assertion with invalid signature");
+                return Optional.empty();
+            }
+
+            String[] fields = new String(DECODER.decode(encodedPayload), StandardCharsets.UTF_8).split("\n", -1);
+            if (fields.length != FIELD_COUNT || !VERSION.equals(fields[0])) {
+                log.warn("Rejected internal identity assertion with unknown format");
+                return Optional.empty();
+            }
+            if (!clock.instant().isBefore(Instant.ofEpochSecond(Long.parseLong(fields[2])))) {
+                log.debug("Rejected expired internal identity assertion");
+                return Optional.empty();
+            }
+
+            return Optional.of(new InternalIdentity(
+                    decodeValue(fields[4]),
+                    fields[5].isEmpty() ? null : Long.valueOf(fields[5]),
+                    decodeValue(fields[6]),
+                    decodeValue(fields[7]),
+                    decodeList(fields[8], Function.identity()),
+                    decodeList(fields[9], Long::valueOf),
+                    decodeList(fields[10], Function.identity()),
+                    fields[3].isEmpty() ? null : Instant.ofEpochSecond(Long.parseLong(fields[3]))));
+        } catch (IllegalArgumentException e) {
+            // Also covers NumberFormatException and bad base64
+            log.warn("Rejected malformed internal identity assertion: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private byte[] sign(String encodedPayload) {
+        return macs.get().doFinal(encodedPayload.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", e);
+        }
+    }
+
+    // Values are URL-encoded so they can't contain the field or list separators; null becomes empty
+
+    private static String encodeValue(Object value) {
+        return value == null ? "" : URLEncoder.encode(value.toString(), StandardCharsets.UTF_8);
+    }
+
+    private static String decodeValue(String value) {
+        return value.isEmpty() ? null : URLDecoder.decode(value, StandardCharsets.UTF_8);
+    }
+
+    private static String encodeList(List<?> values) {
+        List<String> encoded = new ArrayList<>(values.size());
+        for (Object value : values) {
+            encoded.add(encodeValue(value));
+        }
+        return String.join(",", encoded);
+    }
+
+    private static <T> List<T> decodeList(String values, Function<String, T> parser) {
+        if (values.isEmpty()) {
+            return List.of();
+        }
+        List<T> decoded = new ArrayList<>();
+        for (String value : values.split(",")) {
+            decoded.add(parser.apply(URLDecoder.decode(value, StandardCharsets.UTF_8)));
+        }
+        return decoded;
+    }
+}
@@ -0,0 +1,147 @@
+package org.clickenrent.contracts.security;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Immutable snapshot of the authenticated user, built once per request from the JWT.
+ *
+ * Each service's SecurityService builds it from the current authentication and keeps it in
+ * {@link TenantContext}, so role checks are a bit test and company checks a hash lookup instead of
+ * rebuilding role lists and re-reading JWT claims on every call.
+ */
+public final class SecurityPrincipal {
+
+    public static final int SUPERADMIN = 1;
+    public static final int ADMIN = 1 << 1;
+    public static final int B2B = 1 << 2;
+    public static final int CUSTOMER = 1 << 3;
+
+    private static final int ANY_ADMIN = SUPERADMIN | ADMIN;
+
+    private final Object source;
+    private final int roles;
+    private final List<String> roleNames;
+    private final Long userId;
+    private final String userExternalId;
+    private final List<Long> companyIds;
+    private final List<String> companyExternalIds;
+    private final Set<Long> companyIdSet;
+    private final Set<String> companyExternalIdSet;
+
+    private SecurityPrincipal(Object source, List<String> roleNames, Long userId, String userExternalId,
+                              List<Long> companyIds, List<String> companyExternalIds) {
+        this.source = source;
+        this.roleNames = roleNames;
+        this.roles = roleBits(roleNames);
+        this.userId = userId;
+        this.userExternalId = userExternalId;
+        this.companyIds = companyIds;
+        this.companyExternalIds = companyExternalIds;
+        this.companyIdSet = Set.copyOf(companyIds);
+        this.companyExternalIdSet = Set.copyOf(companyExternalIds);
+    }
+
+    /**
+     * Build a snapshot.
+     *
+     * @param source Authentication the snapshot is built from; see {@link #isFor(Object)}
+     * @param roleNames Role names as the service compares them, e.g. with the ROLE_ prefix removed
+     * @param userId User ID claim, or null
+     * @param userExternalId User external ID claim, or null
+     * @param companyIds Company ID claim; null elements are dropped
+     * @param companyExternalIds Company external ID claim; null elements are dropped
+     */
+    public static SecurityPrincipal of(Object source, Collection<String> roleNames, Long userId, String userExternalId,
+                                       Collection<Long> companyIds, Collection<String> companyExternalIds) {
+        return new SecurityPrincipal(source, copyWithoutNulls(roleNames), userId, userExternalId,
+                copyWithoutNulls(companyIds), copyWithoutNulls(companyExternalIds));
+    }
+
+    /**
+     * Whether this snapshot was built from the given authentication. Authentications are compared by identity,
+     * so a snapshot left on a pooled thread is never used for another request.
+     */
+    public boolean isFor(Object authentication) {
+        return source == authentication;
+    }
+
+    public boolean hasRole(int role) {
+        return (roles & role) != 0;
+    }
+
+    public boolean isAdmin() {
+        return hasRole(ANY_ADMIN);
+    }
+
+    public boolean isB2B() {
+        return hasRole(B2B);
+    }
+
+    public boolean isCustomer() {
+        return hasRole(CUSTOMER);
+    }
+
+    public boolean hasCompanyId(Long companyId) {
+        return companyId != null && companyIdSet.contains(companyId);
+    }
+
+    public boolean hasCompanyExternalId(String companyExternalId) {
+        return companyExternalId != null && companyExternalIdSet.contains(companyExternalId);
+    }
+
+    public List<String> getRoleNames() {
+        return roleNames;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getUserExternalId() {
+        return userExternalId;
+    }
+
+    public List<Long> getCompanyIds() {
+        return companyIds;
+    }
+
+    public List<String> getCompanyExternalIds() {
+        return companyExternalIds;
+    }
+
+    public Set<String> getCompanyExternalIdSet() {
+        return companyExternalIdSet;
+    }
+
+    private static int roleBits(List<String> roleNames) {
+        int bits = 0;
+        for (String role : roleNames) {
+            switch (role) {
+                case "SUPERADMIN" -> bits |= SUPERADMIN;
+                case "ADMIN" -> bits |= ADMIN;
+                case "B2B" -> bits |= B2B;
+                case "CUSTOMER" -> bits |= CUSTOMER;
+                default -> {
+                    // Other roles are kept in roleNames only
+                }
+            }
+        }
+        return bits;
+    }
+
+    private static <T> List<T> copyWithoutNulls(Collection<T> values) {
+        if (values == null || values.isEmpty()) {
+            return List.of();
+        }
+        return values.stream().filter(Objects::nonNull).toList();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("SecurityPrincipal[user=%s, roles=%s, companies=%s]",
+                userExternalId, roleNames, companyExternalIds);
+    }
+}
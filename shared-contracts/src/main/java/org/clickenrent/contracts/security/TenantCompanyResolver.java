@@ -0,0 +1,25 @@
+package org.clickenrent.contracts.security;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Resolver for the companyExternalIds parameter of the Hibernate tenant filters.
+ *
+ * Declared on the filter definitions (@ParamDef resolver), so a filter is enabled once per session without a
+ * value and Hibernate reads the companies of {@link TenantContext} when it renders each query. The companies are
+ * bound as one JDBC parameter each, so statements stay parameterized.
+ */
+public class TenantCompanyResolver implements Supplier<List<String>> {
+
+    /**
+     * Bound when the context has no companies: matches no row, where an empty IN list would be invalid SQL.
+     */
+    static final List<String> NO_COMPANIES = List.of("");
+
+    @Override
+    public List<String> get() {
+        List<String> companies = TenantContext.getCurrentCompanies();
+        return companies.isEmpty() ? NO_COMPANIES : companies;
+    }
+}
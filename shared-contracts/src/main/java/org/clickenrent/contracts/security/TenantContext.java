@@ -2,7 +2,9 @@ package org.clickenrent.contracts.security;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Thread-local storage for current user's tenant (company) context.
@@ -14,7 +16,9 @@ import java.util.List;
 public class TenantContext {
     
     private static final ThreadLocal<List<String>> currentCompanyIds = new ThreadLocal<>();
+    private static final ThreadLocal<Set<String>> currentCompanySet = new ThreadLocal<>();
     private static final ThreadLocal<Boolean> isSuperAdmin = new ThreadLocal<>();
+    private static final ThreadLocal<SecurityPrincipal> currentPrincipal = new ThreadLocal<>();
     
     /**
      * Set the companies the current user has access to.
@@ -27,8 +31,10 @@ public class TenantContext {
     public static void setCurrentCompanies(List<String> companyIds) {
         if (companyIds == null) {
             currentCompanyIds.set(new ArrayList<>());
+            currentCompanySet.set(Collections.emptySet());
         } else {
             currentCompanyIds.set(new ArrayList<>(companyIds));
+            currentCompanySet.set(Collections.unmodifiableSet(new HashSet<>(companyIds)));
         }
     }
     
@@ -43,6 +49,17 @@ public class TenantContext {
         return companies != null ? Collections.unmodifiableList(companies) : Collections.emptyList();
     }
     
+    /**
+     * Get the companies the current user has access to as a hashed set.
+     * Built once when the context is set, so membership checks per row are O(1).
+     *
+     * @return Unmodifiable set of company external IDs
+     */
+    public static Set<String> getCurrentCompanySet() {
+        Set<String> companies = currentCompanySet.get();
+        return companies != null ? companies : Collections.emptySet();
+    }
+
     /**
      * Set whether current user is a superadmin (bypasses all tenant filters).
      * Superadmins can access data from all companies for support and debugging purposes.
@@ -62,6 +79,25 @@ public class TenantContext {
         return Boolean.TRUE.equals(isSuperAdmin.get());
     }
     
+    /**
+     * Keep the principal snapshot of the current request, built by SecurityService on first use.
+     *
+     * @param principal Snapshot of the authenticated user, or null to drop it
+     */
+    public static void setPrincipal(SecurityPrincipal principal) {
+        currentPrincipal.set(principal);
+    }
+
+    /**
+     * Get the principal snapshot of the current request.
+     * Callers must check {@link SecurityPrincipal#isFor(Object)} against the current authentication.
+     *
+     * @return Snapshot of the authenticated user, or null if none was built on this thread
+     */
+    public static SecurityPrincipal getPrincipal() {
+        return currentPrincipal.get();
+    }
+
     /**
      * Clear the tenant context. MUST be called after request completes.
      * Failure to clear context can lead to memory leaks and cross-request contamination.
@@ -70,9 +106,40 @@ public class TenantContext {
      */
     public static void clear() {
         currentCompanyIds.remove();
+        currentCompanySet.remove();
         isSuperAdmin.remove();
+        currentPrincipal.remove();
     }
     
+    /**
+     * Capture the current context so it can be re-applied on another thread,
+     * e.g. a streaming response body that runs on the async request executor.
+     *
+     * @return Immutable snapshot of the current tenant context
+     */
+    public static Snapshot capture() {
+        return new Snapshot(isSuperAdmin(), List.copyOf(getCurrentCompanies()), getPrincipal());
+    }
+
+    /**
+     * Immutable copy of a tenant context taken with {@link #capture()}.
+     *
+     * @param superAdmin Whether the captured user is a superadmin
+     * @param companies Company external IDs of the captured user
+     * @param principal Principal snapshot of the captured user, or null
+     */
+    public record Snapshot(boolean superAdmin, List<String> companies, SecurityPrincipal principal) {
+
+        /**
+         * Apply this snapshot to the calling thread. Callers must {@link TenantContext#clear()} afterwards.
+         */
+        public void apply() {
+            setSuperAdmin(superAdmin);
+            setCurrentCompanies(companies);
+            setPrincipal(principal);
+        }
+    }
+
     /**
      * Get a readable summary of current context (for logging and debugging).
      * 
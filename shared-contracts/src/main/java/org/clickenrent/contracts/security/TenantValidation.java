@@ -0,0 +1,47 @@
+package org.clickenrent.contracts.security;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Opts a service method (or every method of a service class) into runtime tenant validation.
+ * Only annotated methods are intercepted by the shared-security TenantValidationAspect, which a service
+ * registers as a bean once it has annotated methods, so methods that return DTOs pay no validation cost at all. A method annotation overrides the class annotation,
+ * which allows {@code @TenantValidation(mode = Mode.OFF)} to exclude single methods.
+ *
+ * Example usage:
+ * <pre>
+ * {@code
+ * @TenantValidation(mode = TenantValidation.Mode.SAMPLED, samplePercent = 5)
+ * public List<Rental> findRentalEntities(...) { ... }
+ * }
+ * </pre>
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface TenantValidation {
+
+    /**
+     * Validation mode. DEFAULT uses the service-wide tenant.validation.mode property.
+     */
+    Mode mode() default Mode.DEFAULT;
+
+    /**
+     * Percentage of calls validated in SAMPLED mode. Negative uses tenant.validation.sample-percent.
+     */
+    int samplePercent() default -1;
+
+    enum Mode {
+        DEFAULT,
+        /** Validate every call */
+        FULL,
+        /** Validate a random samplePercent of calls */
+        SAMPLED,
+        /** Never validate */
+        OFF
+    }
+}
@@ -0,0 +1,64 @@
+package org.clickenrent.contracts.security;
+
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Checks that values returned by a service only contain entities of the allowed companies.
+ * Shared by the TenantValidationAspect of every service. Lookups go against the hashed allow-set
+ * from {@link TenantContext#getCurrentCompanySet()}, so a result is checked in O(rows).
+ */
+public final class TenantValidator {
+
+    private TenantValidator() {
+    }
+
+    /**
+     * Validate a single entity, an {@link Iterable} (collections, Spring Data pages) or an {@link Optional}.
+     * Other values, such as DTOs, are ignored. Entities without a company are allowed.
+     *
+     * @param result Value returned by the service method
+     * @param allowedCompanies Company external IDs the current user may access
+     * @return Number of tenant-scoped rows checked and the first entity of another company, if any
+     */
+    public static Result validate(Object result, Set<String> allowedCompanies) {
+        if (result instanceof Optional<?> optional) {
+            result = optional.orElse(null);
+        }
+
+        if (result instanceof TenantScoped entity) {
+            return isAllowed(entity, allowedCompanies) ? new Result(1, null) : new Result(1, entity);
+        }
+
+        int rowsChecked = 0;
+        if (result instanceof Iterable<?> rows) {
+            for (Object row : rows) {
+                if (row instanceof TenantScoped entity) {
+                    rowsChecked++;
+                    if (!isAllowed(entity, allowedCompanies)) {
+                        return new Result(rowsChecked, entity);
+                    }
+                }
+            }
+        }
+        return new Result(rowsChecked, null);
+    }
+
+    private static boolean isAllowed(TenantScoped entity, Set<String> allowedCompanies) {
+        String entityCompany = entity.getCompanyExternalId();
+        return entityCompany == null || allowedCompanies.contains(entityCompany);
+    }
+
+    /**
+     * Outcome of {@link #validate(Object, Set)}.
+     *
+     * @param rowsChecked Number of tenant-scoped entities inspected
+     * @param violation First entity that belongs to a company outside the allow-set, or null
+     */
+    public record Result(int rowsChecked, TenantScoped violation) {
+
+        public boolean isViolation() {
+            return violation != null;
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package org.clickenrent.contracts.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for AuditLogWriter, against an in-memory H2 database.
+ */
+class AuditLogWriterTest {
+
+    private JdbcDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:audit-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE audit_logs (id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+                    + "event_type VARCHAR(50) NOT NULL, user_external_id VARCHAR(100), company_external_ids TEXT, "
+                    + "resource_type VARCHAR(100), resource_id VARCHAR(100), endpoint VARCHAR(500), "
+                    + "http_method VARCHAR(10), client_ip VARCHAR(45), success BOOLEAN NOT NULL, "
+                    + "error_message TEXT, metadata TEXT, timestamp TIMESTAMP NOT NULL)");
+        }
+    }
+
+    @Test
+    void close_WritesQueuedEventsInSubmitOrder() throws SQLException {
+        // Interval far beyond the test, so only full batches and close write anything
+        AuditLogWriter writer = AuditLogWriter.create(dataSource, new ObjectMapper(), options(64, 10, 60_000, 5));
+
+        for (int i = 0; i < 25; i++) {
+            assertTrue(writer.submit(event("user-" + i)));
+        }
+        writer.close();
+
+        List<String> users = queryUsers();
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            expected.add("user-" + i);
+        }
+        assertEquals(expected, users);
+        assertEquals(25, writer.writtenCount());
+        assertEquals(0, writer.queueDepth());
+        assertTrue(writer.flushCount() >= 3);
+    }
+
+    @Test
+    void submit_AfterClose_DropsEvent() {
+        AuditLogWriter writer = AuditLogWriter.create(dataSource, new ObjectMapper(), options(64, 10, 60_000, 5));
+        writer.close();
+
+        assertFalse(writer.submit(event("late")));
+        assertEquals(1, writer.droppedCount());
+    }
+
+    @Test
+    void submit_BufferFull_DropsAndCountsEvents() throws Exception {
+        CountDownLatch writerBusy = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        DataSource slowDataSource = mock(DataSource.class);
+        when(slowDataSource.getConnection()).thenAnswer(invocation -> {
+            writerBusy.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return dataSource.getConnection();
+        });
+        AuditLogWriter writer = AuditLogWriter.create(slowDataSource, new ObjectMapper(), options(2, 1, 60_000, 1));
+
+        assertTrue(writer.submit(event("first")));
+        assertTrue(writerBusy.await(5, TimeUnit.SECONDS));
+        // The writer holds "first" while waiting for a connection; two more fill the buffer
+        assertTrue(writer.submit(event("second")));
+        assertTrue(writer.submit(event("third")));
+        assertFalse(writer.submit(event("dropped")));
+        assertFalse(writer.submit(event("dropped")));
+
+        assertEquals(2, writer.droppedCount());
+        assertEquals(2, writer.queueDepth());
+
+        release.countDown();
+        writer.close();
+
+        assertEquals(List.of("first", "second", "third"), queryUsers());
+        assertEquals(3, writer.writtenCount());
+    }
+
+    @Test
+    void flush_InsertFails_CountsFailedEvents() throws SQLException {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE audit_logs");
+        }
+        AuditLogWriter writer = AuditLogWriter.create(dataSource, new ObjectMapper(), options(64, 10, 60_000, 5));
+
+        writer.submit(event("user-1"));
+        writer.submit(event("user-2"));
+        writer.close();
+
+        assertEquals(2, writer.failedCount());
+        assertEquals(0, writer.writtenCount());
+    }
+
+    @Test
+    void flush_LongValues_AreTruncatedToColumnLengths() throws SQLException {
+        AuditLogWriter writer = AuditLogWriter.create(dataSource, new ObjectMapper(), options(64, 10, 60_000, 5));
+        AuditEvent event = event("user-1");
+        event.setEndpoint("/api/v1/" + "x".repeat(600));
+        event.setClientIp("2001:db8::1, 10.0.0.1, 10.0.0.2, 10.0.0.3, 10.0.0.4");
+        event.setResourceId("r".repeat(150));
+
+        writer.submit(event);
+        writer.close();
+
+        assertEquals(1, writer.writtenCount());
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT endpoint, client_ip, resource_id FROM audit_logs")) {
+            assertTrue(resultSet.next());
+            assertEquals(500, resultSet.getString(1).length());
+            assertEquals(45, resultSet.getString(2).length());
+            assertEquals(100, resultSet.getString(3).length());
+        }
+    }
+
+    @Test
+    void flush_RejectedRow_RetriesBatchRowByRow() throws SQLException {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("ALTER TABLE audit_logs ADD CONSTRAINT no_bad_user CHECK (user_external_id <> 'bad')");
+        }
+        AuditLogWriter writer = AuditLogWriter.create(dataSource, new ObjectMapper(), options(64, 10, 60_000, 5));
+
+        writer.submit(event("user-1"));
+        writer.submit(event("bad"));
+        writer.submit(event("user-2"));
+        writer.close();
+
+        assertEquals(List.of("user-1", "user-2"), queryUsers());
+        assertEquals(2, writer.writtenCount());
+        assertEquals(1, writer.failedCount());
+    }
+
+    private AuditLogWriter.Options options(int capacity, int batchSize, long flushIntervalMs, long maxBlockMs) {
+        return new AuditLogWriter.Options(capacity, batchSize,
+                Duration.ofMillis(flushIntervalMs), Duration.ofMillis(maxBlockMs));
+    }
+
+    private AuditEvent event(String userExternalId) {
+        return AuditEvent.crossTenantAccessAttempt(userExternalId, userExternalId + "@example.com",
+                "company-a", "company-b", "Rental", "/api/v1/rentals/1");
+    }
+
+    private List<String> queryUsers() throws SQLException {
+        List<String> users = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT user_external_id FROM audit_logs ORDER BY id")) {
+            while (resultSet.next()) {
+                users.add(resultSet.getString(1));
+            }
+        }
+        return users;
+    }
+}
@@ -0,0 +1,146 @@
+package org.clickenrent.contracts.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for AuditRingBuffer.
+ */
+class AuditRingBufferTest {
+
+    @Test
+    void capacity_RoundedUpToPowerOfTwo() {
+        assertEquals(8, new AuditRingBuffer<Integer>(5).capacity());
+        assertEquals(8, new AuditRingBuffer<Integer>(8).capacity());
+        assertEquals(1, new AuditRingBuffer<Integer>(1).capacity());
+        assertThrows(IllegalArgumentException.class, () -> new AuditRingBuffer<Integer>(0));
+    }
+
+    @Test
+    void offer_WhenFull_ReturnsFalseUntilDrained() {
+        AuditRingBuffer<Integer> buffer = new AuditRingBuffer<>(4);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(buffer.offer(i));
+        }
+
+        assertFalse(buffer.offer(4));
+        assertEquals(4, buffer.size());
+
+        List<Integer> drained = new ArrayList<>();
+        assertEquals(1, buffer.drainTo(drained, 1));
+        assertTrue(buffer.offer(4));
+        assertFalse(buffer.offer(5));
+    }
+
+    @Test
+    void drainTo_ReturnsElementsInOfferOrderAcrossLaps() {
+        AuditRingBuffer<Integer> buffer = new AuditRingBuffer<>(4);
+        List<Integer> drained = new ArrayList<>();
+
+        // Ten laps around four slots, in uneven steps
+        int next = 0;
+        while (next < 40) {
+            for (int i = 0; i < 3 && buffer.offer(next); i++) {
+                next++;
+            }
+            buffer.drainTo(drained, 2);
+        }
+        buffer.drainTo(drained, Integer.MAX_VALUE);
+
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            expected.add(i);
+        }
+        assertEquals(expected, drained);
+        assertTrue(buffer.isEmpty());
+    }
+
+    @Test
+    void drainTo_RespectsMax() {
+        AuditRingBuffer<Integer> buffer = new AuditRingBuffer<>(8);
+        for (int i = 0; i < 5; i++) {
+            buffer.offer(i);
+        }
+
+        List<Integer> drained = new ArrayList<>();
+        assertEquals(3, buffer.drainTo(drained, 3));
+
+        assertEquals(List.of(0, 1, 2), drained);
+        assertEquals(2, buffer.size());
+    }
+
+    @Test
+    void concurrentProducers_EveryElementDrainedExactlyOnceInProducerOrder() throws Exception {
+        int producers = 4;
+        int perProducer = 20_000;
+        // Much smaller than the total, so producers keep hitting a full buffer and wrapping around
+        AuditRingBuffer<Long> buffer = new AuditRingBuffer<>(256);
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean producing = new AtomicBoolean(true);
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            long producer = p;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (long i = 0; i < perProducer; i++) {
+                    // Encode producer and sequence, retry until there is room
+                    while (!buffer.offer(producer * perProducer + i)) {
+                        Thread.yield();
+                    }
+                }
+                return null;
+            }));
+        }
+
+        long[] nextExpected = new long[producers];
+        int[] received = new int[producers];
+        List<Long> batch = new ArrayList<>();
+        start.countDown();
+        Thread watcher = new Thread(() -> {
+            futures.forEach(future -> {
+                try {
+                    future.get();
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            producing.set(false);
+        });
+        watcher.start();
+
+        int total = 0;
+        while (producing.get() || !buffer.isEmpty()) {
+            batch.clear();
+            buffer.drainTo(batch, 64);
+            for (long value : batch) {
+                int producer = (int) (value / perProducer);
+                long sequence = value % perProducer;
+                // No loss, no duplicates: each producer's elements arrive once and in order
+                assertEquals(nextExpected[producer], sequence, "producer " + producer);
+                nextExpected[producer]++;
+                received[producer]++;
+                total++;
+            }
+        }
+        watcher.join(TimeUnit.SECONDS.toMillis(30));
+        executor.shutdown();
+
+        assertEquals(producers * perProducer, total);
+        for (int p = 0; p < producers; p++) {
+            assertEquals(perProducer, received[p]);
+        }
+        assertTrue(buffer.isEmpty());
+    }
+}
@@ -0,0 +1,65 @@
+package org.clickenrent.http;
+
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.ClassUtils;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Thread pools for services that fan out inter-service calls from a request and join them with a timeout.
+ *
+ * The pools are owned by the service that creates them (and shut down in its @PreDestroy) rather than
+ * registered as beans: an Executor bean would replace Boot's default executor used by @Async.
+ */
+public final class FanOutExecutors {
+
+    private static final boolean SECURITY_PRESENT = ClassUtils.isPresent(
+            "org.springframework.security.core.context.SecurityContextHolder", FanOutExecutors.class.getClassLoader());
+
+    private FanOutExecutors() {
+    }
+
+    /**
+     * Create and initialize a pool whose tasks run with the submitting thread's context, see {@link #callerContext()}.
+     */
+    public static ThreadPoolTaskExecutor create(String threadNamePrefix, int corePoolSize, int maxPoolSize,
+                                                int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(corePoolSize);
+        executor.setMaxPoolSize(maxPoolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix(threadNamePrefix);
+        executor.setTaskDecorator(callerContext());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Carries the caller's request attributes and security context to the worker thread, so the Feign
+     * interceptors can forward the Authorization header, both for requests and for background work running
+     * as a captured subscriber.
+     */
+    public static TaskDecorator callerContext() {
+        return task -> {
+            RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+            SecurityContext securityContext = SECURITY_PRESENT ? SecurityContextHolder.getContext() : null;
+            return () -> {
+                RequestContextHolder.setRequestAttributes(attributes);
+                if (securityContext != null) {
+                    SecurityContextHolder.setContext(securityContext);
+                }
+                try {
+                    task.run();
+                } finally {
+                    if (securityContext != null) {
+                        SecurityContextHolder.clearContext();
+                    }
+                    RequestContextHolder.resetRequestAttributes();
+                }
+            };
+        };
+    }
+}
@@ -0,0 +1,45 @@
+package org.clickenrent.http;
+
+import feign.Capability;
+import feign.Client;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Feign capability that wraps the transport of every Feign client with a bulkhead and a latency timer.
+ * Registered once in the application context, so it applies to all clients without per-client configuration.
+ */
+public class InterServiceCapability implements Capability {
+
+    private final InterServiceHttpProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Bulkhead> bulkheads = new ConcurrentHashMap<>();
+
+    public InterServiceCapability(InterServiceHttpProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Client enrich(Client client) {
+        return new InterServiceClient(client, this::bulkhead, meterRegistry,
+                properties.getMetrics().isPercentilesHistogram());
+    }
+
+    /**
+     * One bulkhead per target service, shared by all Feign clients that call it.
+     */
+    Bulkhead bulkhead(String clientName) {
+        return bulkheads.computeIfAbsent(clientName, name -> {
+            InterServiceHttpProperties.Bulkhead settings = properties.bulkheadFor(name);
+            return Bulkhead.of(name, BulkheadConfig.custom()
+                    .maxConcurrentCalls(settings.getMaxConcurrentCalls())
+                    .maxWaitDuration(settings.getMaxWait())
+                    .build());
+        });
+    }
+}
@@ -0,0 +1,88 @@
+package org.clickenrent.http;
+
+import feign.Client;
+import feign.MethodMetadata;
+import feign.Request;
+import feign.Response;
+import feign.Target;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Feign client decorator that limits concurrent calls per target service and times every call.
+ *
+ * A rejected call is reported as an IOException, which Feign turns into a RetryableException,
+ * so existing FeignException handling treats a full bulkhead like an unreachable service.
+ */
+class InterServiceClient implements Client {
+
+    static final String REQUESTS_METRIC = "feign.client.requests";
+
+    private static final String UNKNOWN = "unknown";
+
+    private final Client delegate;
+    private final Function<String, Bulkhead> bulkheads;
+    private final MeterRegistry meterRegistry;
+    private final boolean percentilesHistogram;
+
+    InterServiceClient(Client delegate, Function<String, Bulkhead> bulkheads,
+                       MeterRegistry meterRegistry, boolean percentilesHistogram) {
+        this.delegate = delegate;
+        this.bulkheads = bulkheads;
+        this.meterRegistry = meterRegistry;
+        this.percentilesHistogram = percentilesHistogram;
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        String clientName = clientName(request);
+        String method = methodName(request);
+        Bulkhead bulkhead = bulkheads.apply(clientName);
+
+        long start = System.nanoTime();
+        try {
+            bulkhead.acquirePermission();
+        } catch (BulkheadFullException e) {
+            record(clientName, method, "BULKHEAD_FULL", start);
+            throw new IOException("Too many concurrent calls to " + clientName, e);
+        }
+
+        try {
+            Response response = delegate.execute(request, options);
+            record(clientName, method, String.valueOf(response.status()), start);
+            return response;
+        } catch (IOException e) {
+            record(clientName, method, "IO_ERROR", start);
+            throw e;
+        } finally {
+            bulkhead.onComplete();
+        }
+    }
+
+    private void record(String clientName, String method, String status, long start) {
+        Timer.builder(REQUESTS_METRIC)
+                .description("Latency of inter-service Feign calls")
+                .tag("client", clientName)
+                .tag("method", method)
+                .tag("status", status)
+                .publishPercentileHistogram(percentilesHistogram)
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private static String clientName(Request request) {
+        Target<?> target = request.requestTemplate() != null ? request.requestTemplate().feignTarget() : null;
+        return target != null && target.name() != null ? target.name() : UNKNOWN;
+    }
+
+    private static String methodName(Request request) {
+        MethodMetadata metadata = request.requestTemplate() != null ? request.requestTemplate().methodMetadata() : null;
+        return metadata != null ? metadata.configKey() : UNKNOWN;
+    }
+}
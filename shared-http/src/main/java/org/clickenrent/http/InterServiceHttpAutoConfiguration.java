@@ -0,0 +1,41 @@
+package org.clickenrent.http;
+
+import feign.Feign;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.openfeign.FeignLoggerFactory;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Auto-configuration for inter-service Feign calls.
+ * The pooled transport itself (Apache HttpClient 5, or the JDK HTTP/2 client) is set up by
+ * Spring Cloud OpenFeign from spring.cloud.openfeign.httpclient.*; this adds bulkheads,
+ * per-method latency metrics and sampled logging on top of it.
+ *
+ * Disable with: inter-service.http.enabled=false
+ */
+@AutoConfiguration
+@ConditionalOnClass(Feign.class)
+@ConditionalOnProperty(name = "inter-service.http.enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(InterServiceHttpProperties.class)
+public class InterServiceHttpAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public InterServiceCapability interServiceCapability(InterServiceHttpProperties properties,
+                                                         ObjectProvider<MeterRegistry> meterRegistry) {
+        return new InterServiceCapability(properties, meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public FeignLoggerFactory sampledFeignLoggerFactory(InterServiceHttpProperties properties) {
+        return type -> new SampledFeignLogger(type, properties.getLogging().getSamplePercent());
+    }
+}
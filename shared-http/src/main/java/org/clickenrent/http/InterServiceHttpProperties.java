@@ -0,0 +1,80 @@
+package org.clickenrent.http;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Settings for inter-service Feign calls that Spring Cloud OpenFeign does not cover.
+ * Pool sizes and timeouts stay under spring.cloud.openfeign.*; bulkheads are keyed by
+ * Feign client name the same way as spring.cloud.openfeign.client.config.&lt;name&gt;.
+ *
+ * <pre>
+ * inter-service.http.bulkheads.default.max-concurrent-calls=50
+ * inter-service.http.bulkheads.rental-service.max-concurrent-calls=100
+ * inter-service.http.logging.sample-percent=1
+ * </pre>
+ */
+@Data
+@ConfigurationProperties(prefix = "inter-service.http")
+public class InterServiceHttpProperties {
+
+    public static final String DEFAULT_CLIENT = "default";
+
+    /**
+     * Bulkhead per Feign client name; "default" applies to clients without their own entry.
+     */
+    private Map<String, Bulkhead> bulkheads = new HashMap<>();
+
+    private Logging logging = new Logging();
+
+    private Metrics metrics = new Metrics();
+
+    /**
+     * Bulkhead for the given client: its own entry, else "default", else the built-in defaults.
+     */
+    public Bulkhead bulkheadFor(String clientName) {
+        Bulkhead bulkhead = bulkheads.get(clientName);
+        if (bulkhead == null) {
+            bulkhead = bulkheads.getOrDefault(DEFAULT_CLIENT, new Bulkhead());
+        }
+        return bulkhead;
+    }
+
+    @Data
+    public static class Bulkhead {
+
+        /**
+         * Maximum number of calls in flight to one target service.
+         * Keep it at or below spring.cloud.openfeign.httpclient.max-connections-per-route
+         * so callers are rejected here instead of queueing for a pooled connection.
+         */
+        private int maxConcurrentCalls = 50;
+
+        /**
+         * How long a call waits for a free slot before it is rejected.
+         */
+        private Duration maxWait = Duration.ofMillis(100);
+    }
+
+    @Data
+    public static class Logging {
+
+        /**
+         * Percentage of calls logged at the client's loggerLevel. Failed calls are always logged.
+         */
+        private int samplePercent = 1;
+    }
+
+    @Data
+    public static class Metrics {
+
+        /**
+         * Publish feign.client.requests as a percentile histogram.
+         */
+        private boolean percentilesHistogram = true;
+    }
+}
@@ -0,0 +1,52 @@
+package org.clickenrent.http;
+
+import feign.Request;
+import feign.Response;
+import feign.slf4j.Slf4jLogger;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Slf4j Feign logger that only logs a sample of calls.
+ * Unsampled successful responses are passed through untouched, so their bodies are never buffered
+ * for logging even at loggerLevel=full. Error responses and I/O failures are always logged.
+ */
+public class SampledFeignLogger extends Slf4jLogger {
+
+    private static final ThreadLocal<Boolean> SAMPLED = new ThreadLocal<>();
+
+    private final int samplePercent;
+
+    public SampledFeignLogger(Class<?> type, int samplePercent) {
+        super(type);
+        this.samplePercent = samplePercent;
+    }
+
+    @Override
+    protected void logRequest(String configKey, Level logLevel, Request request) {
+        boolean sampled = samplePercent >= 100
+                || (samplePercent > 0 && ThreadLocalRandom.current().nextInt(100) < samplePercent);
+        SAMPLED.set(sampled);
+        if (sampled) {
+            super.logRequest(configKey, logLevel, request);
+        }
+    }
+
+    @Override
+    protected Response logAndRebufferResponse(String configKey, Level logLevel, Response response,
+                                              long elapsedTime) throws IOException {
+        boolean sampled = Boolean.TRUE.equals(SAMPLED.get());
+        SAMPLED.remove();
+        if (sampled || response.status() >= 400) {
+            return super.logAndRebufferResponse(configKey, logLevel, response, elapsedTime);
+        }
+        return response;
+    }
+
+    @Override
+    protected IOException logIOException(String configKey, Level logLevel, IOException ioe, long elapsedTime) {
+        SAMPLED.remove();
+        return super.logIOException(configKey, logLevel, ioe, elapsedTime);
+    }
+}
@@ -0,0 +1,49 @@
+package org.clickenrent.http.ndjson;
+
+import java.util.List;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Resolves which companies a caller may export, the same way in every exporting service:
+ * admins export everything (or the requested company), B2B users export their own companies
+ * (or one of them), everyone else is denied.
+ */
+public final class ExportCompanyScope {
+
+    private ExportCompanyScope() {
+    }
+
+    /**
+     * Must be called on the request thread, before the response starts streaming.
+     *
+     * @param requestedCompany Optional company to narrow the export to
+     * @param admin Whether the caller is an admin
+     * @param b2b Whether the caller is a B2B user
+     * @param callerCompanies External IDs of the caller's companies
+     * @param resource Exported resource, used in the denial message (e.g. "bikes")
+     * @param denied Creates the service's own authorization exception from a message
+     * @return Company external IDs to filter on, or null for an unrestricted (admin) export
+     */
+    public static List<String> resolve(String requestedCompany, boolean admin, BooleanSupplier b2b,
+                                       Supplier<List<String>> callerCompanies, String resource,
+                                       Function<String, ? extends RuntimeException> denied) {
+        if (admin) {
+            return requestedCompany != null ? List.of(requestedCompany) : null;
+        }
+
+        if (b2b.getAsBoolean()) {
+            List<String> companies = callerCompanies.get();
+            if (requestedCompany == null) {
+                return companies;
+            }
+            if (!companies.contains(requestedCompany)) {
+                throw denied.apply("You don't have permission to export " + resource + " of this company");
+            }
+            return List.of(requestedCompany);
+        }
+
+        throw denied.apply("You don't have permission to export " + resource);
+    }
+}
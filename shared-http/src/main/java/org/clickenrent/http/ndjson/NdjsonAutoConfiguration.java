@@ -0,0 +1,44 @@
+package org.clickenrent.http.ndjson;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Auto-configuration for NDJSON export streams: the reader for services consuming an export
+ * through Feign, and the cursor writer for services exposing one.
+ *
+ * Writer settings: export.fetch-size (default 500), export.flush-every (default 1000)
+ */
+@AutoConfiguration(after = {JacksonAutoConfiguration.class, JdbcTemplateAutoConfiguration.class})
+@ConditionalOnBean(ObjectMapper.class)
+public class NdjsonAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public NdjsonStreamReader ndjsonStreamReader(ObjectMapper objectMapper) {
+        return new NdjsonStreamReader(objectMapper);
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(JdbcTemplate.class)
+    @ConditionalOnBean(JdbcTemplate.class)
+    static class ExportWriterConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        public NdjsonExportWriter ndjsonExportWriter(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper,
+                                                     @Value("${export.fetch-size:500}") int fetchSize,
+                                                     @Value("${export.flush-every:1000}") int flushEvery) {
+            return new NdjsonExportWriter(jdbcTemplate, objectMapper, fetchSize, flushEvery);
+        }
+    }
+}
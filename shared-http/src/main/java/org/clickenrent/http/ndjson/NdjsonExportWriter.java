@@ -0,0 +1,126 @@
+package org.clickenrent.http.ndjson;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Writes the rows of a query as newline-delimited JSON, straight from a read-only, forward-only
+ * JDBC cursor to the response, so memory stays constant regardless of the table size.
+ * Registered as a bean by {@link NdjsonAutoConfiguration} in services that have a JdbcTemplate.
+ */
+public class NdjsonExportWriter {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final int fetchSize;
+    private final int flushEvery;
+
+    /**
+     * @param fetchSize Rows fetched from the database per round trip
+     * @param flushEvery Rows written between two flushes of the output stream
+     */
+    public NdjsonExportWriter(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper, int fetchSize, int flushEvery) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.fetchSize = fetchSize;
+        this.flushEvery = flushEvery;
+    }
+
+    /**
+     * Run the query and write each mapped row to the output stream, one JSON object per line.
+     * Must be called inside a transaction so the driver can stream the cursor.
+     *
+     * @param sql Query; when companyScope is set, its only parameter is the company array (e.g. "= ANY (?)")
+     * @param companyScope Company external IDs bound as the query parameter, or null for an unparameterized query
+     * @param type Type of each line
+     * @param rowMapper Maps the current row
+     * @param out Response output stream (left open)
+     * @return Number of written rows
+     * @throws IOException When the client goes away mid-stream
+     */
+    public <T> long write(String sql, List<String> companyScope, Class<T> type, RowMapper<T> rowMapper,
+                          OutputStream out) throws IOException {
+        return write(sql, companyScope, List.of(), type, rowMapper, out);
+    }
+
+    /**
+     * Run the query with further parameters and write each mapped row to the output stream, one JSON object per line.
+     * Must be called inside a transaction so the driver can stream the cursor.
+     *
+     * @param sql Query; the company array (when companyScope is set) is its first parameter, followed by parameters
+     * @param companyScope Company external IDs bound as the first query parameter, or null for none
+     * @param parameters Values bound, in order, after the company array
+     * @param type Type of each line
+     * @param rowMapper Maps the current row
+     * @param out Response output stream (left open)
+     * @return Number of written rows
+     * @throws IOException When the client goes away mid-stream
+     */
+    public <T> long write(String sql, List<String> companyScope, List<?> parameters, Class<T> type,
+                          RowMapper<T> rowMapper, OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(type)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        long[] count = {0};
+
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+            jdbcTemplate.query(
+                    connection -> prepareCursor(connection, sql, companyScope, parameters),
+                    rs -> {
+                        try {
+                            writer.writeValue(generator, rowMapper.mapRow(rs, (int) count[0]));
+                            generator.writeRaw('\n');
+                            if (++count[0] % flushEvery == 0) {
+                                generator.flush();
+                            }
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+
+            generator.flush();
+        } catch (UncheckedIOException e) {
+            // Client went away mid-stream; the cursor is already closed by JdbcTemplate
+            throw e.getCause();
+        }
+
+        return count[0];
+    }
+
+    private PreparedStatement prepareCursor(Connection connection, String sql, List<String> companyScope,
+                                            List<?> parameters) throws SQLException {
+        PreparedStatement ps = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        ps.setFetchSize(fetchSize);
+        int index = 1;
+        if (companyScope != null) {
+            ps.setArray(index++, connection.createArrayOf("varchar", companyScope.toArray()));
+        }
+        for (Object parameter : parameters) {
+            ps.setObject(index++, parameter);
+        }
+        return ps;
+    }
+
+    /**
+     * Null-safe conversion for nullable timestamp columns in row mappers.
+     */
+    public static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
@@ -0,0 +1,69 @@
+package org.clickenrent.http.ndjson;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import feign.FeignException;
+import feign.Response;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Reads newline-delimited JSON export streams returned by Feign clients incrementally.
+ * Only one batch of decoded objects is held in memory at a time, so a full re-index
+ * runs with bounded heap regardless of the dataset size.
+ * Registered as a bean by {@link NdjsonAutoConfiguration}.
+ */
+@RequiredArgsConstructor
+@Slf4j
+public class NdjsonStreamReader {
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Decode the response body line by line and hand the objects to the consumer in batches.
+     *
+     * @param response Raw Feign response of an export endpoint (closed by this method)
+     * @param type Type of each line
+     * @param batchSize Maximum number of objects per batch
+     * @param batchConsumer Called for every full batch and for the final partial batch
+     * @return Total number of objects read
+     */
+    public <T> int readInBatches(Response response, Class<T> type, int batchSize, Consumer<List<T>> batchConsumer) {
+        try (response) {
+            if (response.status() >= 400 || response.body() == null) {
+                throw FeignException.errorStatus("export", response);
+            }
+
+            int total = 0;
+            List<T> batch = new ArrayList<>(batchSize);
+
+            try (InputStream body = response.body().asInputStream();
+                 MappingIterator<T> iterator = objectMapper.readerFor(type).readValues(body)) {
+                while (iterator.hasNextValue()) {
+                    batch.add(iterator.nextValue());
+                    if (batch.size() >= batchSize) {
+                        batchConsumer.accept(batch);
+                        total += batch.size();
+                        batch = new ArrayList<>(batchSize);
+                    }
+                }
+            }
+
+            if (!batch.isEmpty()) {
+                batchConsumer.accept(batch);
+                total += batch.size();
+            }
+
+            log.debug("Read {} {} objects from NDJSON stream", total, type.getSimpleName());
+            return total;
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to read NDJSON export stream", e);
+        }
+    }
+}
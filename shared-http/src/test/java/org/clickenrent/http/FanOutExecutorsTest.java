@@ -0,0 +1,60 @@
+package org.clickenrent.http;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Unit tests for FanOutExecutors.
+ */
+class FanOutExecutorsTest {
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void create_RunsTasksWithTheCallersContext() throws Exception {
+        RequestAttributes attributes = mock(RequestAttributes.class);
+        Authentication authentication = new TestingAuthenticationToken("user-1", "token");
+        RequestContextHolder.setRequestAttributes(attributes);
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+        ThreadPoolTaskExecutor executor = FanOutExecutors.create("fan-out-test-", 1, 1, 10);
+
+        try {
+            CompletableFuture<Object[]> seen = CompletableFuture.supplyAsync(() -> new Object[]{
+                    Thread.currentThread().getName(),
+                    RequestContextHolder.getRequestAttributes(),
+                    SecurityContextHolder.getContext().getAuthentication()}, executor);
+            Object[] inTask = seen.get(5, TimeUnit.SECONDS);
+
+            assertTrue(((String) inTask[0]).startsWith("fan-out-test-"));
+            assertSame(attributes, inTask[1]);
+            assertSame(authentication, inTask[2]);
+
+            // The worker thread is left clean for the next task
+            RequestContextHolder.resetRequestAttributes();
+            SecurityContextHolder.clearContext();
+            Object[] afterReset = CompletableFuture.supplyAsync(() -> new Object[]{
+                    RequestContextHolder.getRequestAttributes(),
+                    SecurityContextHolder.getContext().getAuthentication()}, executor).get(5, TimeUnit.SECONDS);
+            assertNull(afterReset[0]);
+            assertNull(afterReset[1]);
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
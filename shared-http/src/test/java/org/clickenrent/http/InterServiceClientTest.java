@@ -0,0 +1,118 @@
+package org.clickenrent.http;
+
+import feign.Client;
+import feign.Request;
+import feign.RequestTemplate;
+import feign.Response;
+import feign.Target;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for InterServiceClient.
+ */
+@ExtendWith(MockitoExtension.class)
+class InterServiceClientTest {
+
+    @Mock
+    private Client delegate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private InterServiceHttpProperties properties;
+    private Client client;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new InterServiceHttpProperties();
+        InterServiceHttpProperties.Bulkhead bulkhead = new InterServiceHttpProperties.Bulkhead();
+        bulkhead.setMaxConcurrentCalls(1);
+        bulkhead.setMaxWait(Duration.ZERO);
+        properties.setBulkheads(Map.of("rental-service", bulkhead));
+        client = new InterServiceCapability(properties, meterRegistry).enrich(delegate);
+    }
+
+    @Test
+    void execute_RecordsLatencyPerClientAndStatus() throws IOException {
+        Request request = request("rental-service");
+        when(delegate.execute(any(), any())).thenReturn(response(request, 200));
+
+        client.execute(request, new Request.Options());
+
+        assertEquals(1, meterRegistry.get(InterServiceClient.REQUESTS_METRIC)
+                .tag("client", "rental-service")
+                .tag("status", "200")
+                .timer().count());
+    }
+
+    @Test
+    void execute_WhenBulkheadIsFull_ThrowsIOExceptionWithoutCallingTarget() throws Exception {
+        Request request = request("rental-service");
+        CountDownLatch inFlight = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(delegate.execute(any(), any())).thenAnswer(invocation -> {
+            inFlight.countDown();
+            release.await();
+            return response(request, 200);
+        });
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Response> first = executor.submit(() -> client.execute(request, new Request.Options()));
+            inFlight.await();
+
+            assertThrows(IOException.class, () -> client.execute(request, new Request.Options()));
+            release.countDown();
+            assertEquals(200, first.get().status());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        verify(delegate, times(1)).execute(any(), any());
+        assertEquals(1, meterRegistry.get(InterServiceClient.REQUESTS_METRIC)
+                .tag("status", "BULKHEAD_FULL")
+                .timer().count());
+    }
+
+    @Test
+    void execute_OtherClientsUseDefaultBulkhead() throws IOException {
+        Request request = request("auth-service");
+        when(delegate.execute(any(), any())).thenReturn(response(request, 200));
+
+        client.execute(request, new Request.Options());
+        client.execute(request, new Request.Options());
+
+        verify(delegate, times(2)).execute(any(), any());
+    }
+
+    private Request request(String clientName) {
+        RequestTemplate template = new RequestTemplate();
+        template.feignTarget(new Target.HardCodedTarget<>(Object.class, clientName, "http://" + clientName));
+        return Request.create(Request.HttpMethod.GET, "http://" + clientName + "/api/v1/test",
+                Map.of(), null, null, template);
+    }
+
+    private Response response(Request request, int status) {
+        return Response.builder()
+                .request(request)
+                .status(status)
+                .headers(Map.of())
+                .build();
+    }
+}
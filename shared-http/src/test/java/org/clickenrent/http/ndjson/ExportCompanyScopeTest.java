@@ -0,0 +1,49 @@
+package org.clickenrent.http.ndjson;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ExportCompanyScope.
+ */
+class ExportCompanyScopeTest {
+
+    @Test
+    void admin_WithoutRequestedCompany_ExportsEverything() {
+        assertNull(ExportCompanyScope.resolve(null, true, () -> fail("Not a B2B check"),
+                () -> fail("No company lookup expected"), "bikes", IllegalStateException::new));
+    }
+
+    @Test
+    void admin_WithRequestedCompany_ExportsThatCompany() {
+        assertEquals(List.of("company-a"), ExportCompanyScope.resolve("company-a", true, () -> false,
+                List::of, "bikes", IllegalStateException::new));
+    }
+
+    @Test
+    void b2b_ExportsOwnCompanies() {
+        assertEquals(List.of("company-a", "company-b"), ExportCompanyScope.resolve(null, false, () -> true,
+                () -> List.of("company-a", "company-b"), "bikes", IllegalStateException::new));
+        assertEquals(List.of("company-b"), ExportCompanyScope.resolve("company-b", false, () -> true,
+                () -> List.of("company-a", "company-b"), "bikes", IllegalStateException::new));
+    }
+
+    @Test
+    void b2b_WithForeignCompany_IsDenied() {
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> ExportCompanyScope.resolve("company-c", false, () -> true,
+                        () -> List.of("company-a"), "users", IllegalStateException::new));
+        assertEquals("You don't have permission to export users of this company", e.getMessage());
+    }
+
+    @Test
+    void otherCallers_AreDenied() {
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> ExportCompanyScope.resolve(null, false, () -> false,
+                        List::of, "bikes", IllegalStateException::new));
+        assertEquals("You don't have permission to export bikes", e.getMessage());
+    }
+}
@@ -0,0 +1,138 @@
+package org.clickenrent.http.ndjson;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for NdjsonExportWriter.
+ */
+class NdjsonExportWriterTest {
+
+    private static final String SQL = "SELECT id, external_id, company_external_id FROM bike";
+    private static final String COMPANY_SQL = SQL + " WHERE company_external_id = ANY (?) ORDER BY id";
+    private static final RowMapper<Bike> BIKE_MAPPER =
+            (rs, rowNum) -> new Bike(rs.getString("external_id"), rs.getString("company_external_id"));
+
+    private EmbeddedDatabase database;
+    private NdjsonExportWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true).build();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("CREATE TABLE bike (id BIGINT PRIMARY KEY, external_id VARCHAR(50), company_external_id VARCHAR(50))");
+        for (int i = 1; i <= 5; i++) {
+            jdbcTemplate.update("INSERT INTO bike VALUES (?, ?, ?)", i, "bike-" + i, i % 2 == 0 ? "company-b" : "company-a");
+        }
+        writer = new NdjsonExportWriter(jdbcTemplate, new ObjectMapper(), 2, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void write_WritesOneJsonObjectPerLine() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long count = writer.write(SQL + " ORDER BY id", null, Bike.class, BIKE_MAPPER, out);
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(5, count);
+        assertEquals(5, lines.size());
+        assertEquals("{\"externalId\":\"bike-1\",\"companyExternalId\":\"company-a\"}", lines.get(0));
+    }
+
+    @Test
+    void write_WithCompanyScope_BindsCompaniesAsArray() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long count = writer.write(COMPANY_SQL, List.of("company-b"), Bike.class, BIKE_MAPPER, out);
+
+        assertEquals(2, count);
+        assertTrue(out.toString(StandardCharsets.UTF_8).lines().allMatch(line -> line.contains("company-b")));
+    }
+
+    @Test
+    void write_WithParameters_BindsThemAfterCompanies() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long count = writer.write(SQL + " WHERE company_external_id = ANY (?) AND id > ? ORDER BY id",
+                List.of("company-a"), List.of(1L), Bike.class, BIKE_MAPPER, out);
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(2, count);
+        assertTrue(lines.get(0).contains("bike-3"));
+        assertTrue(lines.get(1).contains("bike-5"));
+    }
+
+    @Test
+    void write_FlushesEveryConfiguredNumberOfRows() throws IOException {
+        FlushRecordingOutputStream out = new FlushRecordingOutputStream();
+
+        writer.write(SQL + " ORDER BY id", null, Bike.class, BIKE_MAPPER, out);
+
+        // Rows reach the client every 2 rows, the partial last batch when the cursor is exhausted
+        assertEquals(List.of(2L, 4L, 5L), out.linesAtFlush.stream().distinct().toList());
+        assertFalse(out.closed);
+    }
+
+    @Test
+    void write_WhenClientGoesAway_ThrowsIOException() {
+        OutputStream out = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+
+        IOException e = assertThrows(IOException.class,
+                () -> writer.write(SQL, null, Bike.class, BIKE_MAPPER, out));
+        assertEquals("Broken pipe", e.getMessage());
+    }
+
+    @Test
+    void toLocalDateTime_HandlesNull() {
+        LocalDateTime now = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+        assertEquals(now, NdjsonExportWriter.toLocalDateTime(Timestamp.valueOf(now)));
+        assertNull(NdjsonExportWriter.toLocalDateTime(null));
+    }
+
+    record Bike(String externalId, String companyExternalId) {
+    }
+
+    private static class FlushRecordingOutputStream extends ByteArrayOutputStream {
+        private final List<Long> linesAtFlush = new ArrayList<>();
+        private boolean closed;
+
+        @Override
+        public void flush() {
+            linesAtFlush.add(toString(StandardCharsets.UTF_8).lines().count());
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
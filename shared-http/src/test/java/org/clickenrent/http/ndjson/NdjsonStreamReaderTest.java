@@ -0,0 +1,82 @@
+package org.clickenrent.http.ndjson;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import feign.FeignException;
+import feign.Request;
+import feign.Response;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for NdjsonStreamReader.
+ */
+class NdjsonStreamReaderTest {
+
+    private NdjsonStreamReader reader;
+
+    @BeforeEach
+    void setUp() {
+        reader = new NdjsonStreamReader(new ObjectMapper());
+    }
+
+    @Test
+    void readInBatches_splitsStreamIntoBatches() {
+        // Given
+        String body = """
+                {"externalId":"bike-1","code":"B1"}
+                {"externalId":"bike-2","code":"B2"}
+                {"externalId":"bike-3","code":"B3"}
+                """;
+        List<List<Bike>> batches = new ArrayList<>();
+
+        // When
+        int total = reader.readInBatches(response(200, body), Bike.class, 2, batches::add);
+
+        // Then
+        assertEquals(3, total);
+        assertEquals(2, batches.size());
+        assertEquals(2, batches.get(0).size());
+        assertEquals("bike-1", batches.get(0).get(0).externalId());
+        assertEquals("B3", batches.get(1).get(0).code());
+    }
+
+    @Test
+    void readInBatches_withEmptyStream_returnsZero() {
+        // Given
+        List<List<Bike>> batches = new ArrayList<>();
+
+        // When
+        int total = reader.readInBatches(response(200, ""), Bike.class, 10, batches::add);
+
+        // Then
+        assertEquals(0, total);
+        assertTrue(batches.isEmpty());
+    }
+
+    @Test
+    void readInBatches_withErrorStatus_throwsFeignException() {
+        assertThrows(FeignException.class,
+                () -> reader.readInBatches(response(403, "{}"), Bike.class, 10, batch -> fail("No batch expected")));
+    }
+
+    record Bike(String externalId, String code) {
+    }
+
+    private Response response(int status, String body) {
+        Request request = Request.create(Request.HttpMethod.GET, "http://rental-service/api/v1/bikes/export",
+                Collections.emptyMap(), null, StandardCharsets.UTF_8, null);
+        return Response.builder()
+                .status(status)
+                .request(request)
+                .headers(Collections.emptyMap())
+                .body(body, StandardCharsets.UTF_8)
+                .build();
+    }
+}
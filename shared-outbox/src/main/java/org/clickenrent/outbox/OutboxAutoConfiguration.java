@@ -0,0 +1,56 @@
+package org.clickenrent.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfigurationPackage;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.data.jpa.JpaRepositoriesAutoConfiguration;
+import org.springframework.boot.autoconfigure.kafka.KafkaAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Auto-configuration for the transactional outbox: the writer that publishers enqueue messages with,
+ * and the relay that drains the outbox_events table into Kafka.
+ *
+ * The outbox entity and repository are registered with the service's own JPA setup, so the service only
+ * needs the outbox_events table (created by its Flyway migrations) and a KafkaTemplate.
+ *
+ * Relay settings: outbox.relay.enabled (default true), outbox.relay.* and outbox.retention-hours, see OutboxRelay
+ */
+@AutoConfiguration(before = {HibernateJpaAutoConfiguration.class, JpaRepositoriesAutoConfiguration.class},
+        after = KafkaAutoConfiguration.class)
+@AutoConfigurationPackage(basePackageClasses = OutboxEvent.class)
+@ConditionalOnClass({KafkaTemplate.class, OutboxEventRepository.class})
+public class OutboxAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public OutboxWriter outboxWriter(OutboxEventRepository outboxEventRepository, ObjectMapper objectMapper) {
+        return new OutboxWriter(outboxEventRepository, objectMapper);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public OutboxMetrics outboxMetrics(MeterRegistry meterRegistry) {
+        return new OutboxMetrics(meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnBean(KafkaTemplate.class)
+    @ConditionalOnProperty(name = "outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+    public OutboxRelay outboxRelay(OutboxEventRepository outboxEventRepository,
+                                   KafkaTemplate<String, Object> kafkaTemplate,
+                                   ObjectMapper objectMapper,
+                                   OutboxMetrics outboxMetrics,
+                                   PlatformTransactionManager transactionManager) {
+        return new OutboxRelay(outboxEventRepository, kafkaTemplate, objectMapper, outboxMetrics, transactionManager);
+    }
+}
@@ -0,0 +1,62 @@
+package org.clickenrent.outbox;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Transactional outbox entry for a Kafka message.
+ * Written in the same transaction as the business change and relayed to Kafka by OutboxRelay,
+ * so events are never lost and never emitted for rolled-back transactions.
+ */
+@Entity
+@Table(name = "outbox_events")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "topic", nullable = false, length = 200)
+    private String topic;
+
+    @Column(name = "message_key", length = 200)
+    private String messageKey;
+
+    /**
+     * Fully qualified class name of the payload, used to restore the original message type
+     * (and therefore the JsonSerializer type headers) when relaying.
+     */
+    @Column(name = "payload_type", nullable = false, length = 300)
+    private String payloadType;
+
+    @Column(name = "payload", nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    @Builder.Default
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    @Column(name = "published_at")
+    private LocalDateTime publishedAt;
+
+    @Column(name = "attempts", nullable = false)
+    @Builder.Default
+    private Integer attempts = 0;
+
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+
+    /**
+     * Set while a relay is sending the event; other relays skip it until then.
+     * Expires on its own if that relay dies before recording the outcome.
+     */
+    @Column(name = "locked_until")
+    private LocalDateTime lockedUntil;
+}
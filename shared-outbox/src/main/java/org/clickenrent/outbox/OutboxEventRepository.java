@@ -0,0 +1,60 @@
+package org.clickenrent.outbox;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository interface for OutboxEvent entity.
+ */
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Lock the next batch of unpublished, unleased events in insertion order.
+     * SKIP LOCKED lets several service instances claim concurrently without taking the same event twice;
+     * the caller leases the rows (lease) and commits before sending anything.
+     */
+    @Query(value = "SELECT * FROM outbox_events WHERE published_at IS NULL AND attempts < :maxAttempts " +
+            "AND (locked_until IS NULL OR locked_until < :now) " +
+            "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<OutboxEvent> lockNextBatch(@Param("limit") int limit,
+                                    @Param("maxAttempts") int maxAttempts,
+                                    @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.lockedUntil = :lockedUntil WHERE e.id IN :ids")
+    int lease(@Param("ids") Collection<Long> ids, @Param("lockedUntil") LocalDateTime lockedUntil);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.publishedAt = :publishedAt, e.lockedUntil = NULL WHERE e.id IN :ids")
+    int markPublished(@Param("ids") Collection<Long> ids, @Param("publishedAt") LocalDateTime publishedAt);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.attempts = e.attempts + 1, e.lastError = :lastError, e.lockedUntil = NULL " +
+            "WHERE e.id = :id")
+    int markFailed(@Param("id") Long id, @Param("lastError") String lastError);
+
+    /**
+     * Unpublished events the relay will still try to send.
+     */
+    long countByPublishedAtIsNullAndAttemptsLessThan(int maxAttempts);
+
+    /**
+     * Unpublished events the relay gave up on after max-attempts.
+     */
+    long countByPublishedAtIsNullAndAttemptsGreaterThanEqual(int maxAttempts);
+
+    @Query("SELECT MIN(e.createdAt) FROM OutboxEvent e WHERE e.publishedAt IS NULL AND e.attempts < :maxAttempts")
+    LocalDateTime findOldestUnpublishedCreatedAt(@Param("maxAttempts") int maxAttempts);
+
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.publishedAt IS NOT NULL AND e.publishedAt < :before")
+    int deletePublishedBefore(@Param("before") LocalDateTime before);
+}
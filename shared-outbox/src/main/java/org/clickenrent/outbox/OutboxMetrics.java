@@ -0,0 +1,92 @@
+package org.clickenrent.outbox;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Metrics for the transactional outbox relay.
+ * Tracks relay throughput, delivery failures, backlog size, events given up on and how far Kafka lags behind
+ * the database.
+ */
+public class OutboxMetrics {
+
+    // Counter names
+    private static final String OUTBOX_PUBLISHED = "outbox.events.published";
+    private static final String OUTBOX_FAILED = "outbox.events.failed";
+
+    // Gauge names
+    private static final String OUTBOX_PENDING = "outbox.events.pending";
+    private static final String OUTBOX_DEAD = "outbox.events.dead";
+    private static final String OUTBOX_LAG = "outbox.lag.seconds";
+
+    // Timer names
+    private static final String OUTBOX_BATCH_DURATION = "outbox.relay.batch.duration";
+    private static final String OUTBOX_DELIVERY_LATENCY = "outbox.delivery.latency";
+
+    private final Counter publishedCounter;
+    private final Counter failedCounter;
+    private final Timer batchTimer;
+    private final Timer deliveryTimer;
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong dead = new AtomicLong();
+    private final AtomicLong lagSeconds = new AtomicLong();
+
+    public OutboxMetrics(MeterRegistry meterRegistry) {
+        this.publishedCounter = Counter.builder(OUTBOX_PUBLISHED)
+                .description("Number of outbox events acknowledged by Kafka")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder(OUTBOX_FAILED)
+                .description("Number of outbox send attempts that failed")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder(OUTBOX_BATCH_DURATION)
+                .description("Time to lock, send and mark one outbox batch")
+                .register(meterRegistry);
+        this.deliveryTimer = Timer.builder(OUTBOX_DELIVERY_LATENCY)
+                .description("Time from outbox insert to Kafka acknowledgement")
+                .register(meterRegistry);
+        Gauge.builder(OUTBOX_PENDING, pending, AtomicLong::get)
+                .description("Number of outbox events not yet published that will still be retried")
+                .register(meterRegistry);
+        Gauge.builder(OUTBOX_DEAD, dead, AtomicLong::get)
+                .description("Number of outbox events given up on after max-attempts")
+                .register(meterRegistry);
+        Gauge.builder(OUTBOX_LAG, lagSeconds, AtomicLong::get)
+                .description("Age in seconds of the oldest unpublished outbox event")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    public void recordPublished(int count) {
+        publishedCounter.increment(count);
+    }
+
+    public void recordFailed(int count) {
+        failedCounter.increment(count);
+    }
+
+    public Timer batchTimer() {
+        return batchTimer;
+    }
+
+    public void recordDeliveryLatency(Duration latency) {
+        deliveryTimer.record(latency);
+    }
+
+    /**
+     * Update the backlog gauges.
+     *
+     * @param pendingEvents Number of unpublished events still being retried
+     * @param deadEvents Number of unpublished events that reached max-attempts
+     * @param oldestPendingAge Age of the oldest pending event, or Duration.ZERO when nothing is pending
+     */
+    public void updateBacklog(long pendingEvents, long deadEvents, Duration oldestPendingAge) {
+        pending.set(pendingEvents);
+        dead.set(deadEvents);
+        lagSeconds.set(oldestPendingAge.toSeconds());
+    }
+}
@@ -0,0 +1,231 @@
+package org.clickenrent.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Drains the transactional outbox into Kafka.
+ * Each batch is claimed in a short transaction that leases up to batch-size unpublished events (lease-ms),
+ * so no row lock or connection is held while talking to Kafka. The events are then all handed to the producer
+ * before waiting for any acknowledgement (so linger/batch/compression settings can group them into few requests),
+ * with one deadline (send-timeout-ms) for the whole batch. A second short transaction marks the acknowledged
+ * events as published and the others as failed; failed events are retried on a later run, up to max-attempts.
+ * If the relay dies in between, the lease expires and the events are sent again (at-least-once).
+ */
+@Slf4j
+public class OutboxRelay {
+
+    private static final String TRUSTED_PAYLOAD_PACKAGE = "org.clickenrent.contracts.";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final ObjectMapper objectMapper;
+    private final OutboxMetrics outboxMetrics;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${outbox.relay.batch-size:200}")
+    private int batchSize = 200;
+
+    @Value("${outbox.relay.max-batches-per-run:10}")
+    private int maxBatchesPerRun = 10;
+
+    @Value("${outbox.relay.max-attempts:10}")
+    private int maxAttempts = 10;
+
+    @Value("${outbox.relay.send-timeout-ms:10000}")
+    private long sendTimeoutMs = 10000;
+
+    @Value("${outbox.relay.lease-ms:60000}")
+    private long leaseMs = 60000;
+
+    @Value("${outbox.retention-hours:72}")
+    private long retentionHours = 72;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       KafkaTemplate<String, Object> kafkaTemplate,
+                       ObjectMapper objectMapper,
+                       OutboxMetrics outboxMetrics,
+                       PlatformTransactionManager transactionManager) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.objectMapper = objectMapper;
+        this.outboxMetrics = outboxMetrics;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.relay.interval-ms:500}")
+    public void relay() {
+        int batches = 0;
+        int published;
+        do {
+            Integer result = outboxMetrics.batchTimer().record(this::relayBatch);
+            published = result != null ? result : 0;
+            batches++;
+        } while (published == batchSize && batches < maxBatchesPerRun);
+
+        refreshBacklogMetrics();
+    }
+
+    /**
+     * Claim one batch, send it and record the outcome of each event.
+     *
+     * @return Number of events published in this batch
+     */
+    int relayBatch() {
+        List<OutboxEvent> events = transactionTemplate.execute(status -> claimBatch());
+        if (events == null || events.isEmpty()) {
+            return 0;
+        }
+
+        List<CompletableFuture<SendResult<String, Object>>> futures = new ArrayList<>(events.size());
+        for (OutboxEvent event : events) {
+            futures.add(send(event));
+        }
+        kafkaTemplate.flush();
+        awaitAll(futures);
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> publishedIds = new ArrayList<>(events.size());
+        Map<OutboxEvent, Throwable> failures = new LinkedHashMap<>();
+        for (int i = 0; i < events.size(); i++) {
+            OutboxEvent event = events.get(i);
+            Throwable error = failureOf(futures.get(i));
+            if (error == null) {
+                publishedIds.add(event.getId());
+                outboxMetrics.recordDeliveryLatency(Duration.between(event.getCreatedAt(), now));
+            } else {
+                failures.put(event, error);
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!publishedIds.isEmpty()) {
+                outboxEventRepository.markPublished(publishedIds, now);
+            }
+            failures.forEach(this::markFailed);
+        });
+        outboxMetrics.recordPublished(publishedIds.size());
+
+        log.debug("Relayed outbox batch: {} published, {} failed", publishedIds.size(), failures.size());
+        return publishedIds.size();
+    }
+
+    /**
+     * Lock the next unleased events and lease them, so they stay claimed after this transaction commits.
+     */
+    private List<OutboxEvent> claimBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> events = outboxEventRepository.lockNextBatch(batchSize, maxAttempts, now);
+        if (!events.isEmpty()) {
+            outboxEventRepository.lease(events.stream().map(OutboxEvent::getId).toList(),
+                    now.plus(Duration.ofMillis(leaseMs)));
+        }
+        return events;
+    }
+
+    /**
+     * Wait until every send completed or the batch deadline passed, whichever comes first.
+     */
+    private void awaitAll(List<CompletableFuture<SendResult<String, Object>>> futures) {
+        try {
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            // Outcomes are read from each future
+        }
+    }
+
+    /**
+     * @return Why the send failed, or null if Kafka acknowledged it
+     */
+    private Throwable failureOf(CompletableFuture<SendResult<String, Object>> future) {
+        if (!future.isDone()) {
+            return new TimeoutException("Not acknowledged within " + sendTimeoutMs + " ms");
+        }
+        try {
+            future.getNow(null);
+            return null;
+        } catch (CompletionException e) {
+            return e.getCause() != null ? e.getCause() : e;
+        } catch (CancellationException e) {
+            return e;
+        }
+    }
+
+    @Scheduled(cron = "${outbox.cleanup.cron:0 15 * * * *}")
+    public void cleanup() {
+        LocalDateTime cutoff = LocalDateTime.now().minusHours(retentionHours);
+        Integer deleted = transactionTemplate.execute(status -> outboxEventRepository.deletePublishedBefore(cutoff));
+        if (deleted != null && deleted > 0) {
+            log.info("Deleted {} published outbox events older than {}", deleted, cutoff);
+        }
+    }
+
+    private CompletableFuture<SendResult<String, Object>> send(OutboxEvent event) {
+        try {
+            return kafkaTemplate.send(event.getTopic(), event.getMessageKey(), restorePayload(event));
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Deserialize the payload back into its original contract type so JsonSerializer
+     * writes the same type headers consumers received before the outbox was introduced.
+     */
+    private Object restorePayload(OutboxEvent event) throws Exception {
+        if (!event.getPayloadType().startsWith(TRUSTED_PAYLOAD_PACKAGE)) {
+            throw new IllegalStateException("Untrusted outbox payload type: " + event.getPayloadType());
+        }
+        return objectMapper.readValue(event.getPayload(), Class.forName(event.getPayloadType()));
+    }
+
+    private void markFailed(OutboxEvent event, Throwable error) {
+        int attempts = event.getAttempts() + 1;
+        String lastError = error.getClass().getSimpleName() + ": " + error.getMessage();
+        outboxEventRepository.markFailed(event.getId(), lastError);
+        outboxMetrics.recordFailed(1);
+        if (attempts >= maxAttempts) {
+            log.error("Giving up on outbox event id={} topic={} after {} attempts: {}",
+                    event.getId(), event.getTopic(), attempts, lastError);
+        } else {
+            log.warn("Failed to relay outbox event id={} topic={} (attempt {}): {}",
+                    event.getId(), event.getTopic(), attempts, lastError);
+        }
+    }
+
+    private void refreshBacklogMetrics() {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                // Dead events are reported on their own, so the backlog and lag can drain back to zero
+                long pending = outboxEventRepository.countByPublishedAtIsNullAndAttemptsLessThan(maxAttempts);
+                long dead = outboxEventRepository.countByPublishedAtIsNullAndAttemptsGreaterThanEqual(maxAttempts);
+                LocalDateTime oldest = outboxEventRepository.findOldestUnpublishedCreatedAt(maxAttempts);
+                outboxMetrics.updateBacklog(pending, dead,
+                        oldest != null ? Duration.between(oldest, LocalDateTime.now()) : Duration.ZERO);
+            });
+        } catch (Exception e) {
+            log.warn("Failed to refresh outbox backlog metrics: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package org.clickenrent.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Records Kafka messages in the outbox table instead of sending them inline.
+ * Joins the caller's transaction, so a message is stored if and only if the business change commits.
+ * OutboxRelay delivers the stored messages to Kafka in batches.
+ * The topic comes from the caller, so each service's publishers keep their own kafka.topics.* mapping.
+ */
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxWriter {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    @Transactional
+    public void enqueue(String topic, String key, Object payload) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize outbox payload " + payload.getClass().getName(), e);
+        }
+
+        OutboxEvent event = outboxEventRepository.save(OutboxEvent.builder()
+                .topic(topic)
+                .messageKey(key)
+                .payloadType(payload.getClass().getName())
+                .payload(json)
+                .build());
+
+        log.debug("Enqueued outbox event id={} topic={} key={}", event.getId(), topic, key);
+    }
+}
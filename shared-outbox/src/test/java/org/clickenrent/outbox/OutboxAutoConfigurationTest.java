@@ -0,0 +1,65 @@
+package org.clickenrent.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.clickenrent.contracts.search.IndexEventRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.data.jpa.JpaRepositoriesAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Unit tests for OutboxAutoConfiguration.
+ * Boots the JPA stack on H2 without any service entities, as a service's context would see the shared outbox.
+ */
+class OutboxAutoConfigurationTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(
+                    DataSourceAutoConfiguration.class,
+                    HibernateJpaAutoConfiguration.class,
+                    JpaRepositoriesAutoConfiguration.class,
+                    TransactionAutoConfiguration.class,
+                    OutboxAutoConfiguration.class))
+            .withBean(ObjectMapper.class, ObjectMapper::new)
+            .withBean(MeterRegistry.class, SimpleMeterRegistry::new)
+            .withPropertyValues(
+                    "spring.datasource.url=jdbc:h2:mem:outbox;DB_CLOSE_DELAY=-1",
+                    "spring.jpa.hibernate.ddl-auto=create-drop");
+
+    @Test
+    void registersOutboxEntityAndRepository_WriterStoresMessages() {
+        contextRunner.withBean(KafkaTemplate.class, () -> mock(KafkaTemplate.class)).run(context -> {
+            assertNotNull(context.getBean(OutboxRelay.class));
+
+            IndexEventRequest event = IndexEventRequest.builder()
+                    .entityType("bike")
+                    .entityId("bike-1")
+                    .operation(IndexEventRequest.IndexOperation.CREATE)
+                    .build();
+            context.getBean(OutboxWriter.class).enqueue("search-index-events", "bike-1", event);
+
+            OutboxEvent stored = context.getBean(OutboxEventRepository.class).findAll().get(0);
+            assertEquals("search-index-events", stored.getTopic());
+            assertEquals(IndexEventRequest.class.getName(), stored.getPayloadType());
+        });
+    }
+
+    @Test
+    void relayDisabled_KeepsWriter() {
+        contextRunner.withBean(KafkaTemplate.class, () -> mock(KafkaTemplate.class))
+                .withPropertyValues("outbox.relay.enabled=false")
+                .run(context -> {
+                    assertTrue(context.getBeansOfType(OutboxRelay.class).isEmpty());
+                    assertNotNull(context.getBean(OutboxWriter.class));
+                });
+    }
+}
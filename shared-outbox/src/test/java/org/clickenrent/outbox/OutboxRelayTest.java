@@ -0,0 +1,170 @@
+package org.clickenrent.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.clickenrent.contracts.search.IndexEventRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Relays outbox rows into an embedded Kafka broker and checks what consumers receive.
+ */
+@EmbeddedKafka(partitions = 1, topics = OutboxRelayTest.TOPIC)
+class OutboxRelayTest {
+
+    static final String TOPIC = "search-index-events";
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private OutboxEventRepository outboxEventRepository;
+    private DefaultKafkaProducerFactory<String, Object> producerFactory;
+    private Consumer<String, IndexEventRequest> consumer;
+    private OutboxRelay outboxRelay;
+
+    @BeforeEach
+    void setUp(EmbeddedKafkaBroker broker) {
+        outboxEventRepository = mock(OutboxEventRepository.class);
+
+        Map<String, Object> producerProps = KafkaTestUtils.producerProps(broker);
+        producerProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        producerProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+        producerProps.put(ProducerConfig.LINGER_MS_CONFIG, 20);
+        producerProps.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, "lz4");
+        producerFactory = new DefaultKafkaProducerFactory<>(producerProps);
+
+        Map<String, Object> consumerProps = KafkaTestUtils.consumerProps("outbox-relay-test", "false", broker);
+        consumerProps.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        consumerProps.put(JsonDeserializer.TRUSTED_PACKAGES, "org.clickenrent.contracts.*");
+        consumer = new DefaultKafkaConsumerFactory<>(consumerProps,
+                new StringDeserializer(), new JsonDeserializer<IndexEventRequest>()).createConsumer();
+        broker.consumeFromAnEmbeddedTopic(consumer, TOPIC);
+
+        outboxRelay = new OutboxRelay(outboxEventRepository, new KafkaTemplate<>(producerFactory), objectMapper,
+                new OutboxMetrics(meterRegistry), mock(PlatformTransactionManager.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        consumer.close();
+        producerFactory.destroy();
+    }
+
+    @Test
+    void relay_PublishesBatchAndMarksEventsPublished() throws Exception {
+        OutboxEvent first = outboxEvent(1L, "bike-1", IndexEventRequest.IndexOperation.CREATE);
+        OutboxEvent second = outboxEvent(2L, "bike-2", IndexEventRequest.IndexOperation.UPDATE);
+        when(outboxEventRepository.lockNextBatch(anyInt(), anyInt(), any(LocalDateTime.class))).thenReturn(List.of(first, second), List.of());
+
+        outboxRelay.relay();
+
+        ConsumerRecords<String, IndexEventRequest> records = KafkaTestUtils.getRecords(consumer, Duration.ofSeconds(10), 2);
+        List<IndexEventRequest> received = new ArrayList<>();
+        records.forEach(record -> received.add(record.value()));
+        assertEquals(2, received.size());
+        assertEquals("bike-1", received.get(0).getEntityId());
+        assertEquals(IndexEventRequest.IndexOperation.UPDATE, received.get(1).getOperation());
+        assertEquals("bike-1", records.iterator().next().key());
+
+        verify(outboxEventRepository).lease(eq(List.of(1L, 2L)), any(LocalDateTime.class));
+        verify(outboxEventRepository).markPublished(eq(List.of(1L, 2L)), any(LocalDateTime.class));
+        assertEquals(2.0, meterRegistry.get("outbox.events.published").counter().count());
+    }
+
+    @Test
+    void relay_WithDeadEvents_ReportsThemOutsideTheBacklog() {
+        when(outboxEventRepository.lockNextBatch(anyInt(), anyInt(), any(LocalDateTime.class))).thenReturn(List.of());
+        when(outboxEventRepository.countByPublishedAtIsNullAndAttemptsLessThan(10)).thenReturn(0L);
+        when(outboxEventRepository.countByPublishedAtIsNullAndAttemptsGreaterThanEqual(10)).thenReturn(1L);
+        when(outboxEventRepository.findOldestUnpublishedCreatedAt(10)).thenReturn(null);
+
+        outboxRelay.relay();
+
+        assertEquals(0.0, meterRegistry.get("outbox.events.pending").gauge().value());
+        assertEquals(0.0, meterRegistry.get("outbox.lag.seconds").gauge().value());
+        assertEquals(1.0, meterRegistry.get("outbox.events.dead").gauge().value());
+    }
+
+    @Test
+    void relay_WithUntrustedPayloadType_KeepsEventForRetry() throws Exception {
+        OutboxEvent event = outboxEvent(3L, "bike-3", IndexEventRequest.IndexOperation.DELETE);
+        event.setPayloadType("java.util.HashMap");
+        when(outboxEventRepository.lockNextBatch(anyInt(), anyInt(), any(LocalDateTime.class))).thenReturn(List.of(event));
+
+        outboxRelay.relay();
+
+        verify(outboxEventRepository, never()).markPublished(any(), any());
+        verify(outboxEventRepository).markFailed(eq(3L), startsWith("IllegalStateException"));
+        assertEquals(1.0, meterRegistry.get("outbox.events.failed").counter().count());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void relay_WhenBrokerDoesNotAcknowledge_MarksBatchFailedAfterOneDeadline() throws Exception {
+        KafkaTemplate<String, Object> unresponsive = mock(KafkaTemplate.class);
+        when(unresponsive.send(anyString(), anyString(), any())).thenReturn(new CompletableFuture<>());
+        OutboxRelay relay = new OutboxRelay(outboxEventRepository, unresponsive, objectMapper,
+                new OutboxMetrics(meterRegistry), mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(relay, "sendTimeoutMs", 200L);
+        List<OutboxEvent> events = List.of(
+                outboxEvent(4L, "bike-4", IndexEventRequest.IndexOperation.UPDATE),
+                outboxEvent(5L, "bike-5", IndexEventRequest.IndexOperation.UPDATE),
+                outboxEvent(6L, "bike-6", IndexEventRequest.IndexOperation.UPDATE));
+        when(outboxEventRepository.lockNextBatch(anyInt(), anyInt(), any(LocalDateTime.class))).thenReturn(events);
+
+        long started = System.nanoTime();
+        relay.relay();
+        long elapsedMs = Duration.ofNanos(System.nanoTime() - started).toMillis();
+
+        // One deadline for the whole batch, not one per event
+        assertTrue(elapsedMs < 3 * 200L, "relay took " + elapsedMs + " ms");
+        verify(outboxEventRepository, never()).markPublished(any(), any());
+        verify(outboxEventRepository, times(3)).markFailed(anyLong(), startsWith("TimeoutException"));
+    }
+
+    private OutboxEvent outboxEvent(Long id, String bikeExternalId, IndexEventRequest.IndexOperation operation)
+            throws Exception {
+        IndexEventRequest payload = IndexEventRequest.builder()
+                .entityType("bike")
+                .entityId(bikeExternalId)
+                .operation(operation)
+                .build();
+        return OutboxEvent.builder()
+                .id(id)
+                .topic(TOPIC)
+                .messageKey(bikeExternalId)
+                .payloadType(IndexEventRequest.class.getName())
+                .payload(objectMapper.writeValueAsString(payload))
+                .createdAt(LocalDateTime.now().minusSeconds(1))
+                .build();
+    }
+}
@@ -0,0 +1,117 @@
+package org.clickenrent.security;
+
+import com.nimbusds.jose.jwk.source.ImmutableSecret;
+import jakarta.servlet.FilterChain;
+import org.clickenrent.contracts.security.InternalIdentity;
+import org.clickenrent.contracts.security.InternalIdentityCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Authentication overhead of one hop, from the request's credentials to a Spring Security Authentication.
+ *
+ * - fullVerification: the HS256 bearer token parsed and verified by NimbusJwtDecoder on every hop
+ * - cachedVerification: the same token through CachingJwtDecoder, as after its first hop
+ * - internalIdentity: the gateway's X-Internal-Identity assertion through InternalIdentityFilter
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PerHopAuthenticationBenchmark {
+
+    private static final String JWT_SECRET = "jwt-secret-for-benchmarks-only-32-bytes!";
+    private static final String INTERNAL_SECRET = "internal-identity-secret-for-benchmarks-only";
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> {
+    };
+
+    private final JwtAuthenticationConverter authenticationConverter = new JwtAuthenticationConverter();
+    private JwtDecoder jwtDecoder;
+    private JwtDecoder cachingJwtDecoder;
+    private InternalIdentityFilter internalIdentityFilter;
+    private String token;
+    private MockHttpServletRequest internalRequest;
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    @Setup
+    public void setUp() {
+        SecretKey key = new SecretKeySpec(JWT_SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+        jwtDecoder = NimbusJwtDecoder.withSecretKey(key).build();
+        cachingJwtDecoder = new CachingJwtDecoder(jwtDecoder, 10_000, Duration.ofMinutes(5));
+
+        Instant now = Instant.now();
+        Instant expiresAt = now.plusSeconds(3600);
+        JwtClaimsSet claims = JwtClaimsSet.builder()
+                .subject("user@example.com")
+                .issuedAt(now)
+                .expiresAt(expiresAt)
+                .claim("userId", 42L)
+                .claim("userExternalId", "user-42")
+                .claim("email", "user@example.com")
+                .claim("roles", List.of("B2B"))
+                .claim("companyIds", List.of(1L, 2L, 3L))
+                .claim("companyExternalIds", List.of("company-1", "company-2", "company-3"))
+                .build();
+        token = new NimbusJwtEncoder(new ImmutableSecret<>(key))
+                .encode(JwtEncoderParameters.from(JwsHeader.with(MacAlgorithm.HS256).build(), claims))
+                .getTokenValue();
+
+        InternalIdentityCodec codec = new InternalIdentityCodec(INTERNAL_SECRET, Duration.ofMinutes(5), Clock.systemUTC());
+        internalIdentityFilter = new InternalIdentityFilter(codec, authenticationConverter);
+        internalRequest = new MockHttpServletRequest();
+        internalRequest.addHeader("Authorization", "Bearer " + token);
+        internalRequest.addHeader(InternalIdentityCodec.HEADER, codec.encode(new InternalIdentity("user@example.com",
+                42L, "user-42", "user@example.com", List.of("B2B"), List.of(1L, 2L, 3L),
+                List.of("company-1", "company-2", "company-3"), expiresAt)));
+    }
+
+    @Benchmark
+    public AbstractAuthenticationToken fullVerification() {
+        return authenticationConverter.convert(jwtDecoder.decode(token));
+    }
+
+    @Benchmark
+    public AbstractAuthenticationToken cachedVerification() {
+        return authenticationConverter.convert(cachingJwtDecoder.decode(token));
+    }
+
+    @Benchmark
+    public Authentication internalIdentity() throws Exception {
+        internalIdentityFilter.doFilter(internalRequest, response, NO_OP_CHAIN);
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+}
@@ -0,0 +1,62 @@
+package org.clickenrent.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * JwtDecoder remembering recently verified tokens, so a client sending the same token on every request
+ * (or a service forwarding it on every Feign call) is parsed and verified once.
+ *
+ * Bounded by jwt.cache.max-size; an entry is kept for at most jwt.cache.max-age and never past the token's expiry.
+ * Tokens the delegate rejects are not cached.
+ */
+public class CachingJwtDecoder implements JwtDecoder {
+
+    private final JwtDecoder delegate;
+    private final Cache<String, Jwt> verified;
+
+    public CachingJwtDecoder(JwtDecoder delegate, long maxSize, Duration maxAge) {
+        this.delegate = delegate;
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new TokenExpiry(maxAge))
+                .build();
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        return verified.get(token, delegate::decode);
+    }
+
+    /**
+     * Keeps an entry for maxAge, or until the token expires if that is sooner.
+     */
+    private record TokenExpiry(Duration maxAge) implements Expiry<String, Jwt> {
+
+        @Override
+        public long expireAfterCreate(String token, Jwt jwt, long currentTime) {
+            if (jwt.getExpiresAt() == null) {
+                return maxAge.toNanos();
+            }
+            Duration untilExpiry = Duration.between(Instant.now(), jwt.getExpiresAt());
+            return Math.max(0, Math.min(untilExpiry.toNanos(), maxAge.toNanos()));
+        }
+
+        @Override
+        public long expireAfterUpdate(String token, Jwt jwt, long currentTime, long currentDuration) {
+            return expireAfterCreate(token, jwt, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String token, Jwt jwt, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package org.clickenrent.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.clickenrent.contracts.security.InternalIdentity;
+import org.clickenrent.contracts.security.InternalIdentityCodec;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.web.BearerTokenResolver;
+import org.springframework.security.oauth2.server.resource.web.DefaultBearerTokenResolver;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Internal-trust mode: authenticates requests carrying a valid {@link InternalIdentityCodec#HEADER} assertion
+ * from the gateway or another service, without parsing or verifying the JWT again.
+ *
+ * The principal is a {@link Jwt} with the asserted claims and the caller's bearer token as its value, so
+ * SecurityService, auditing and token propagation work unchanged. Requests without a valid assertion fall
+ * through to the regular bearer token authentication; {@link #bearerTokenResolver()} skips it for the others.
+ */
+public class InternalIdentityFilter extends OncePerRequestFilter {
+
+    private static final String AUTHENTICATED_ATTRIBUTE = InternalIdentityFilter.class.getName() + ".authenticated";
+    private static final BearerTokenResolver DEFAULT_RESOLVER = new DefaultBearerTokenResolver();
+
+    private final InternalIdentityCodec codec;
+    private final Converter<Jwt, ? extends AbstractAuthenticationToken> authenticationConverter;
+
+    public InternalIdentityFilter(InternalIdentityCodec codec,
+                                  Converter<Jwt, ? extends AbstractAuthenticationToken> authenticationConverter) {
+        this.codec = codec;
+        this.authenticationConverter = authenticationConverter;
+    }
+
+    /**
+     * Bearer token resolver for the resource server that leaves requests authenticated by this filter alone.
+     */
+    public static BearerTokenResolver bearerTokenResolver() {
+        return request -> request.getAttribute(AUTHENTICATED_ATTRIBUTE) != null ? null : DEFAULT_RESOLVER.resolve(request);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String assertion = request.getHeader(InternalIdentityCodec.HEADER);
+        Optional<InternalIdentity> identity = assertion != null ? codec.decode(assertion) : Optional.empty();
+        if (identity.isPresent()) {
+            String bearerToken = DEFAULT_RESOLVER.resolve(request);
+            SecurityContext context = SecurityContextHolder.createEmptyContext();
+            context.setAuthentication(authenticationConverter.convert(
+                    toJwt(identity.get(), bearerToken != null ? bearerToken : assertion)));
+            SecurityContextHolder.setContext(context);
+            request.setAttribute(AUTHENTICATED_ATTRIBUTE, Boolean.TRUE);
+        }
+        chain.doFilter(request, response);
+    }
+
+    private static Jwt toJwt(InternalIdentity identity, String tokenValue) {
+        Jwt.Builder jwt = Jwt.withTokenValue(tokenValue)
+                .header("alg", "HS256")
+                .claim("roles", identity.roles())
+                .claim("companyIds", identity.companyIds())
+                .claim("companyExternalIds", identity.companyExternalIds());
+        if (identity.subject() != null) {
+            jwt.subject(identity.subject());
+        }
+        if (identity.userId() != null) {
+            jwt.claim("userId", identity.userId());
+        }
+        if (identity.userExternalId() != null) {
+            jwt.claim("userExternalId", identity.userExternalId());
+        }
+        if (identity.email() != null) {
+            jwt.claim("email", identity.email());
+        }
+        if (identity.tokenExpiresAt() != null) {
+            jwt.expiresAt(identity.tokenExpiresAt());
+        }
+        return jwt.build();
+    }
+}
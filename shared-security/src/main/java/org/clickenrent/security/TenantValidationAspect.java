@@ -0,0 +1,201 @@
+package org.clickenrent.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.clickenrent.contracts.security.AuditEvent;
+import org.clickenrent.contracts.security.AuditService;
+import org.clickenrent.contracts.security.SecurityPrincipal;
+import org.clickenrent.contracts.security.TenantContext;
+import org.clickenrent.contracts.security.TenantScoped;
+import org.clickenrent.contracts.security.TenantValidation;
+import org.clickenrent.contracts.security.TenantValidator;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import jakarta.servlet.http.HttpServletRequest;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runtime validation aspect that verifies service layer doesn't leak cross-tenant data.
+ * Acts as a safety net to catch bugs in Hibernate filters.
+ * Can be disabled in production for performance if filters are proven reliable.
+ * 
+ * This aspect:
+ * 1. Intercepts service methods annotated with {@link TenantValidation}
+ * 2. Validates returned entities belong to current user's companies
+ * 3. Throws SecurityException if cross-tenant data is detected
+ * 4. Logs security violations for audit
+ * 
+ * Only methods annotated with {@link TenantValidation} (directly or on their class) are intercepted.
+ * The effective mode of each method (full, sampled, off) is resolved once and kept in a registry;
+ * results are checked against the hashed company set of {@link TenantContext}.
+ * 
+ * Services that annotate methods register it as a bean, guarded by tenant.validation.enabled=true/false.
+ * Default mode via: tenant.validation.mode=full|sampled|off, tenant.validation.sample-percent=N
+ */
+@Aspect
+@Slf4j
+public class TenantValidationAspect {
+    
+    private final AuditService auditService;
+    private final Counter rowsChecked;
+    private final Counter callsSkipped;
+    private final Timer validationTimer;
+    private final Map<Method, Policy> policies = new ConcurrentHashMap<>();
+
+    @Value("${tenant.validation.mode:full}")
+    private TenantValidation.Mode defaultMode = TenantValidation.Mode.FULL;
+
+    @Value("${tenant.validation.sample-percent:10}")
+    private int defaultSamplePercent = 10;
+
+    public TenantValidationAspect(AuditService auditService, MeterRegistry meterRegistry) {
+        this.auditService = auditService;
+        this.rowsChecked = Counter.builder("tenant.validation.rows.checked")
+                .description("Tenant-scoped entities checked by runtime tenant validation")
+                .register(meterRegistry);
+        this.callsSkipped = Counter.builder("tenant.validation.calls.skipped")
+                .description("Annotated calls not validated because of sampling or mode OFF")
+                .register(meterRegistry);
+        this.validationTimer = Timer.builder("tenant.validation.duration")
+                .description("Time spent validating service results")
+                .register(meterRegistry);
+    }
+    
+    @Around("@within(org.clickenrent.contracts.security.TenantValidation) " +
+            "|| @annotation(org.clickenrent.contracts.security.TenantValidation)")
+    public Object validateTenantIsolation(ProceedingJoinPoint joinPoint) throws Throwable {
+        Object result = joinPoint.proceed();
+        
+        // Skip validation for admins
+        if (TenantContext.isSuperAdmin()) {
+            return result;
+        }
+        
+        Set<String> allowedCompanies = TenantContext.getCurrentCompanySet();
+        if (allowedCompanies.isEmpty()) {
+            return result; // Customer user or no context
+        }
+
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Policy policy = policies.computeIfAbsent(method, m -> resolvePolicy(m, joinPoint.getTarget()));
+        if (!policy.shouldValidate()) {
+            callsSkipped.increment();
+            return result;
+        }
+        
+        // Validate results
+        long start = System.nanoTime();
+        TenantValidator.Result validation = TenantValidator.validate(result, allowedCompanies);
+        validationTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        rowsChecked.increment(validation.rowsChecked());
+
+        if (validation.isViolation()) {
+            rejectViolation(validation.violation(), joinPoint.getSignature().toShortString());
+        }
+        
+        return result;
+    }
+
+    /**
+     * Method annotation wins over the class annotation; DEFAULT and negative percentages fall back to the properties.
+     */
+    private Policy resolvePolicy(Method method, Object target) {
+        Class<?> targetClass = target != null ? AopUtils.getTargetClass(target) : method.getDeclaringClass();
+        Method specificMethod = AopUtils.getMostSpecificMethod(method, targetClass);
+
+        TenantValidation annotation = AnnotatedElementUtils.findMergedAnnotation(specificMethod, TenantValidation.class);
+        if (annotation == null) {
+            annotation = AnnotatedElementUtils.findMergedAnnotation(targetClass, TenantValidation.class);
+        }
+
+        TenantValidation.Mode mode = annotation == null || annotation.mode() == TenantValidation.Mode.DEFAULT
+                ? defaultMode : annotation.mode();
+        int samplePercent = annotation == null || annotation.samplePercent() < 0
+                ? defaultSamplePercent : annotation.samplePercent();
+
+        log.debug("Tenant validation for {}.{}: mode={}, samplePercent={}",
+                targetClass.getSimpleName(), method.getName(), mode, samplePercent);
+        return new Policy(mode, samplePercent);
+    }
+    
+    private void rejectViolation(TenantScoped entity, String methodName) {
+        String entityCompany = entity.getCompanyExternalId();
+        List<String> allowedCompanies = TenantContext.getCurrentCompanies();
+
+        log.error("SECURITY VIOLATION: Cross-tenant data leak detected! " +
+                "Method: {}, User companies: {}, Entity company: {}",
+                methodName, allowedCompanies, entityCompany);
+        
+        // Log audit event
+        logSecurityViolation(entity, entityCompany, allowedCompanies, methodName);
+        
+        throw new SecurityException(
+            "Cross-tenant data access blocked: User does not have access to company " + entityCompany
+        );
+    }
+    
+    private void logSecurityViolation(TenantScoped entity, String entityCompany, 
+                                      List<String> allowedCompanies, String methodName) {
+        try {
+            HttpServletRequest request = null;
+            if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes) {
+                request = ((ServletRequestAttributes) RequestContextHolder.getRequestAttributes()).getRequest();
+            }
+            
+            // Snapshot built by SecurityService for this request
+            SecurityPrincipal principal = TenantContext.getPrincipal();
+            
+            Map<String, Object> metadata = new HashMap<>();
+            metadata.put("method", methodName);
+            metadata.put("allowedCompanies", allowedCompanies);
+            metadata.put("entityCompany", entityCompany);
+            metadata.put("entityType", entity.getClass().getSimpleName());
+            
+            AuditEvent event = AuditEvent.builder()
+                .eventType(AuditEvent.EventType.RUNTIME_VALIDATION_FAILURE)
+                .userExternalId(principal != null ? principal.getUserExternalId() : null)
+                .userCompanyIds(String.join(",", allowedCompanies))
+                .attemptedCompanyId(entityCompany)
+                .resourceType(entity.getClass().getSimpleName())
+                .endpoint(request != null ? request.getRequestURI() : methodName)
+                .httpMethod(request != null ? request.getMethod() : "UNKNOWN")
+                .clientIp(request != null ? request.getRemoteAddr() : null)
+                .success(false)
+                .errorMessage("Cross-tenant data leak detected")
+                .metadata(metadata)
+                .build();
+            
+            auditService.logEvent(event);
+        } catch (Exception e) {
+            log.error("Failed to log audit event for security violation", e);
+        }
+    }
+
+    private record Policy(TenantValidation.Mode mode, int samplePercent) {
+
+        boolean shouldValidate() {
+            return switch (mode) {
+                case OFF -> false;
+                case SAMPLED -> ThreadLocalRandom.current().nextInt(100) < samplePercent;
+                default -> true;
+            };
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package org.clickenrent.security;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for CachingJwtDecoder.
+ */
+@ExtendWith(MockitoExtension.class)
+class CachingJwtDecoderTest {
+
+    @Mock
+    private JwtDecoder delegate;
+
+    @Test
+    void decode_sameToken_verifiesOnce() {
+        Jwt jwt = jwt(Instant.now().plusSeconds(3600));
+        when(delegate.decode("token")).thenReturn(jwt);
+        CachingJwtDecoder decoder = new CachingJwtDecoder(delegate, 100, Duration.ofMinutes(5));
+
+        assertSame(jwt, decoder.decode("token"));
+        assertSame(jwt, decoder.decode("token"));
+
+        verify(delegate, times(1)).decode("token");
+    }
+
+    @Test
+    void decode_rejectedToken_isNotCached() {
+        when(delegate.decode("bad")).thenThrow(new BadJwtException("Invalid signature"));
+        CachingJwtDecoder decoder = new CachingJwtDecoder(delegate, 100, Duration.ofMinutes(5));
+
+        assertThrows(BadJwtException.class, () -> decoder.decode("bad"));
+        assertThrows(BadJwtException.class, () -> decoder.decode("bad"));
+
+        verify(delegate, times(2)).decode("bad");
+    }
+
+    @Test
+    void decode_expiredEntry_verifiesAgain() {
+        Jwt jwt = jwt(Instant.now().minusSeconds(1));
+        when(delegate.decode("token")).thenReturn(jwt);
+        CachingJwtDecoder decoder = new CachingJwtDecoder(delegate, 100, Duration.ofMinutes(5));
+
+        decoder.decode("token");
+        decoder.decode("token");
+
+        verify(delegate, times(2)).decode("token");
+    }
+
+    private static Jwt jwt(Instant expiresAt) {
+        return Jwt.withTokenValue("token")
+                .header("alg", "HS256")
+                .subject("user@example.com")
+                .issuedAt(expiresAt.minusSeconds(7200))
+                .expiresAt(expiresAt)
+                .build();
+    }
+}
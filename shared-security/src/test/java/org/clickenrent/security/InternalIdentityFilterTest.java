@@ -0,0 +1,73 @@
+package org.clickenrent.security;
+
+import org.clickenrent.contracts.security.InternalIdentity;
+import org.clickenrent.contracts.security.InternalIdentityCodec;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.oauth2.server.resource.web.BearerTokenResolver;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for InternalIdentityFilter.
+ */
+class InternalIdentityFilterTest {
+
+    private static final String SECRET = "internal-identity-secret-for-tests-only";
+
+    private final InternalIdentityCodec codec = new InternalIdentityCodec(SECRET, Duration.ofMinutes(5), Clock.systemUTC());
+    private final InternalIdentityFilter filter = new InternalIdentityFilter(codec, new JwtAuthenticationConverter());
+    private final BearerTokenResolver resolver = InternalIdentityFilter.bearerTokenResolver();
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void validAssertion_authenticatesWithAssertedClaims() throws Exception {
+        Instant expiresAt = Instant.now().plusSeconds(3600);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer user-token");
+        request.addHeader(InternalIdentityCodec.HEADER, codec.encode(new InternalIdentity("user@example.com", 42L,
+                "ext-42", "user@example.com", List.of("B2B"), List.of(7L), List.of("company-1"), expiresAt)));
+
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertNotNull(authentication);
+        Jwt jwt = (Jwt) authentication.getPrincipal();
+        assertEquals("user-token", jwt.getTokenValue());
+        assertEquals("user@example.com", jwt.getSubject());
+        assertEquals(42L, (Long) jwt.getClaim("userId"));
+        assertEquals(List.of(7L), jwt.getClaim("companyIds"));
+        assertEquals(List.of("company-1"), jwt.getClaim("companyExternalIds"));
+        assertEquals(expiresAt.getEpochSecond(), jwt.getExpiresAt().getEpochSecond());
+        // The resource server does not verify the bearer token again
+        assertNull(resolver.resolve(request));
+    }
+
+    @Test
+    void invalidAssertion_fallsThroughToBearerToken() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer user-token");
+        request.addHeader(InternalIdentityCodec.HEADER, "forged.assertion");
+
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        assertEquals("user-token", resolver.resolve(request));
+    }
+}
@@ -0,0 +1,109 @@
+package org.clickenrent.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.clickenrent.contracts.security.AuditService;
+import org.clickenrent.contracts.security.TenantContext;
+import org.clickenrent.contracts.security.TenantScoped;
+import org.clickenrent.contracts.security.TenantValidation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for TenantValidationAspect.
+ */
+@ExtendWith(MockitoExtension.class)
+class TenantValidationAspectTest {
+
+    @Mock
+    private AuditService auditService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private RentalLookup lookup;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        AspectJProxyFactory factory = new AspectJProxyFactory(new RentalLookup());
+        factory.addAspect(new TenantValidationAspect(auditService, meterRegistry));
+        factory.setProxyTargetClass(true);
+        lookup = factory.getProxy();
+
+        TenantContext.setSuperAdmin(false);
+        TenantContext.setCurrentCompanies(List.of("company-1"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    void annotatedMethod_WithOtherCompanyEntity_ThrowsSecurityException() {
+        assertThrows(SecurityException.class, () -> lookup.findAll("company-1", "company-2"));
+        verify(auditService).logEvent(any());
+    }
+
+    @Test
+    void annotatedMethod_WithOwnCompanyEntities_CountsCheckedRows() {
+        List<Rental> result = lookup.findAll("company-1", "company-1");
+
+        assertEquals(2, result.size());
+        assertEquals(2.0, meterRegistry.get("tenant.validation.rows.checked").counter().count());
+        verifyNoInteractions(auditService);
+    }
+
+    @Test
+    void methodWithModeOff_IsNotValidated() {
+        lookup.findUnchecked("company-2");
+
+        assertEquals(1.0, meterRegistry.get("tenant.validation.calls.skipped").counter().count());
+        assertEquals(0.0, meterRegistry.get("tenant.validation.rows.checked").counter().count());
+    }
+
+    @Test
+    void superAdmin_IsNotValidated() {
+        TenantContext.setSuperAdmin(true);
+
+        assertEquals(2, lookup.findAll("company-2", "company-3").size());
+        verifyNoInteractions(auditService);
+    }
+
+    @TenantValidation
+    static class RentalLookup {
+
+        public List<Rental> findAll(String... companies) {
+            return Arrays.stream(companies)
+                    .map(RentalLookup::rental)
+                    .toList();
+        }
+
+        @TenantValidation(mode = TenantValidation.Mode.OFF)
+        public Rental findUnchecked(String company) {
+            return rental(company);
+        }
+
+        private static Rental rental(String company) {
+            return new Rental(company);
+        }
+    }
+
+    record Rental(String companyExternalId) implements TenantScoped {
+
+        @Override
+        public String getCompanyExternalId() {
+            return companyExternalId;
+        }
+    }
+}
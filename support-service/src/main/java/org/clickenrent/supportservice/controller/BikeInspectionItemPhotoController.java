@@ -6,6 +6,9 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.clickenrent.supportservice.dto.BikeInspectionItemPhotoDTO;
+import org.clickenrent.supportservice.dto.PhotoUploadCompleteRequestDTO;
+import org.clickenrent.supportservice.dto.PhotoUploadUrlDTO;
+import org.clickenrent.supportservice.dto.PhotoUploadUrlRequestDTO;
 import org.clickenrent.supportservice.service.BikeInspectionItemPhotoService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -61,6 +64,25 @@ public class BikeInspectionItemPhotoController {
         return new ResponseEntity<>(bikeInspectionItemPhotoService.create(dto), HttpStatus.CREATED);
     }
 
+    @PostMapping("/upload-url")
+    @PreAuthorize("hasAnyRole('SUPERADMIN', 'ADMIN')")
+    @Operation(summary = "Get a direct upload URL for a bike inspection item photo",
+               description = "Returns a short-lived SAS URL. PUT the photo to it with the returned headers, " +
+                             "then confirm the upload with the returned blob name.")
+    public ResponseEntity<PhotoUploadUrlDTO> createUploadUrl(@Valid @RequestBody PhotoUploadUrlRequestDTO request) {
+        return ResponseEntity.ok(bikeInspectionItemPhotoService.createUploadUrl(
+                request.getBikeInspectionItemId(), request.getContentType()));
+    }
+
+    @PostMapping("/complete")
+    @PreAuthorize("hasAnyRole('SUPERADMIN', 'ADMIN')")
+    @Operation(summary = "Confirm a direct bike inspection item photo upload",
+               description = "Validates the uploaded blob (size, content type) and creates the photo.")
+    public ResponseEntity<BikeInspectionItemPhotoDTO> completeUpload(@Valid @RequestBody PhotoUploadCompleteRequestDTO request) {
+        return new ResponseEntity<>(bikeInspectionItemPhotoService.completeUpload(
+                request.getBikeInspectionItemId(), request.getBlobName()), HttpStatus.CREATED);
+    }
+
     @PutMapping("/{id}")
     @PreAuthorize("hasAnyRole('SUPERADMIN', 'ADMIN')")
     @Operation(summary = "Update bike inspection item photo")
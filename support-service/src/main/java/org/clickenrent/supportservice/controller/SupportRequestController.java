@@ -5,6 +5,8 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.clickenrent.supportservice.dto.BulkOperationResultDTO;
+import org.clickenrent.supportservice.dto.BulkStatusUpdateRequestDTO;
 import org.clickenrent.supportservice.dto.SupportRequestDTO;
 import org.clickenrent.supportservice.service.SupportRequestService;
 import org.springframework.http.HttpStatus;
@@ -85,6 +87,14 @@ public class SupportRequestController {
         return new ResponseEntity<>(supportRequestService.create(dto), HttpStatus.CREATED);
     }
 
+    @PostMapping("/bulk/status")
+    @PreAuthorize("hasAnyRole('SUPERADMIN', 'ADMIN')")
+    @Operation(summary = "Move support requests to a status",
+               description = "Updates all given support requests in chunked set-based statements")
+    public ResponseEntity<BulkOperationResultDTO> bulkUpdateStatus(@Valid @RequestBody BulkStatusUpdateRequestDTO request) {
+        return ResponseEntity.ok(supportRequestService.bulkUpdateStatus(request.getExternalIds(), request.getStatusName()));
+    }
+
     @PutMapping("/{id}")
     @PreAuthorize("isAuthenticated()")
     @Operation(summary = "Update support request")
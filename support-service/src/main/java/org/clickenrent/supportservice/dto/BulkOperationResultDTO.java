@@ -0,0 +1,22 @@
+package org.clickenrent.supportservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Result of a bulk operation.
+ * Rows that were already in the target state are counted as requested but not as updated.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkOperationResultDTO {
+
+    private String operation;
+    private int requested;
+    private int updated;
+    private int batches;
+}
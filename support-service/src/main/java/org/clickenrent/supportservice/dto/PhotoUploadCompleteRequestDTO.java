@@ -0,0 +1,24 @@
+package org.clickenrent.supportservice.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Request DTO confirming that a presigned bike inspection item photo upload has finished.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PhotoUploadCompleteRequestDTO {
+
+    @NotNull(message = "Bike inspection item ID is required")
+    private Long bikeInspectionItemId;
+
+    @NotBlank(message = "Blob name is required")
+    private String blobName;
+}
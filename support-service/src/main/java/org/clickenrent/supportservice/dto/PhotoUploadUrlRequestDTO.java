@@ -0,0 +1,24 @@
+package org.clickenrent.supportservice.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Request DTO for a direct-to-storage bike inspection item photo upload URL.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PhotoUploadUrlRequestDTO {
+
+    @NotNull(message = "Bike inspection item ID is required")
+    private Long bikeInspectionItemId;
+
+    @NotBlank(message = "Content type is required")
+    private String contentType;
+}
@@ -49,6 +49,13 @@ public class BikeInspectionItemPhoto extends BaseAuditEntity implements TenantSc
     @Column(name = "photo_url", length = 500)
     private String photoUrl;
 
+    /**
+     * Blob the photo was uploaded to through a SAS URL; unique so a retried completion cannot attach it twice.
+     */
+    @Size(max = 255, message = "Blob name must not exceed 255 characters")
+    @Column(name = "blob_name", length = 255, unique = true)
+    private String blobName;
+
     @NotNull(message = "Company external ID is required")
     @Size(max = 100, message = "Company external ID must not exceed 100 characters")
     @Column(name = "company_external_id", nullable = false, length = 100)
@@ -7,8 +7,6 @@ import lombok.*;
 import lombok.experimental.SuperBuilder;
 import org.clickenrent.contracts.security.TenantScoped;
 import org.hibernate.annotations.Filter;
-import org.hibernate.annotations.FilterDef;
-import org.hibernate.annotations.ParamDef;
 import org.hibernate.annotations.SQLDelete;
 import org.hibernate.annotations.SQLRestriction;
 
@@ -30,7 +28,6 @@ import java.util.UUID;
 )
 @SQLDelete(sql = "UPDATE support_request SET is_deleted = true WHERE id = ?")
 @SQLRestriction("is_deleted = false")
-@FilterDef(name = "companyFilter", parameters = @ParamDef(name = "companyExternalIds", type = String.class))
 @Filter(name = "companyFilter", condition = "company_external_id IN (:companyExternalIds)")
 @Getter
 @Setter
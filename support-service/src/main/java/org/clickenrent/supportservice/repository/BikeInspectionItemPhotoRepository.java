@@ -5,6 +5,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository for BikeInspectionItemPhoto entity.
@@ -15,4 +16,6 @@ public interface BikeInspectionItemPhotoRepository extends JpaRepository<BikeIns
     List<BikeInspectionItemPhoto> findByBikeInspectionItemId(Long bikeInspectionItemId);
     
     List<BikeInspectionItemPhoto> findByCompanyExternalId(String companyExternalId);
+
+    Optional<BikeInspectionItemPhoto> findByBlobName(String blobName);
 }
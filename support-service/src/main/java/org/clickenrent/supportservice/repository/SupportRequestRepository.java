@@ -1,9 +1,15 @@
 package org.clickenrent.supportservice.repository;
 
 import org.clickenrent.supportservice.entity.SupportRequest;
+import org.clickenrent.supportservice.entity.SupportRequestStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -22,6 +28,22 @@ public interface SupportRequestRepository extends JpaRepository<SupportRequest,
     List<SupportRequest> findBySupportRequestStatusId(Long supportRequestStatusId);
     
     List<SupportRequest> findByErrorCodeId(Long errorCodeId);
+    
+    @Query("SELECT sr.externalId FROM SupportRequest sr WHERE sr.externalId IN :externalIds")
+    List<String> findExistingExternalIds(@Param("externalIds") Collection<String> externalIds);
+    
+    /**
+     * Set-based status transition; rows already in the target status are not touched.
+     *
+     * @return Number of support requests updated
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE SupportRequest sr SET sr.supportRequestStatus = :status, sr.lastDateModified = :now, sr.lastModifiedBy = :modifiedBy " +
+            "WHERE sr.externalId IN :externalIds AND (sr.supportRequestStatus IS NULL OR sr.supportRequestStatus <> :status)")
+    int updateStatusByExternalIds(@Param("externalIds") Collection<String> externalIds,
+                                  @Param("status") SupportRequestStatus status,
+                                  @Param("now") LocalDateTime now,
+                                  @Param("modifiedBy") String modifiedBy);
 }
 
 
@@ -9,11 +9,13 @@ import org.clickenrent.contracts.security.TenantContext;
 import org.hibernate.Session;
 import org.springframework.stereotype.Component;
 
-import java.util.List;
-
 /**
- * AOP aspect that automatically enables Hibernate filters before repository calls.
- * This ensures tenant isolation at the ORM level.
+ * Automatically enables Hibernate tenant filters before repository queries.
+ * Filters add WHERE clauses to limit results to current user's companies.
+ *
+ * Filters are enabled once per Hibernate session (the request's, with open-in-view); later repository calls
+ * only find them enabled. The companies are not set here: the filter definitions resolve them from
+ * TenantContext for each query (TenantCompanyResolver) and bind them as JDBC parameters.
  */
 @Aspect
 @Component
@@ -21,25 +23,30 @@ import java.util.List;
 @Slf4j
 public class HibernateFilterConfig {
     
+    static final String COMPANY_FILTER = "companyFilter";
+    
     private final EntityManager entityManager;
     
-    @Before("execution(* org.clickenrent.supportservice.repository..*(..))")
-    public void enableFilters() {
+    @Before("execution(* org.clickenrent.supportservice.repository.*.*(..))")
+    public void enableTenantFilters() {
+        // Skip filtering for superadmins
         if (TenantContext.isSuperAdmin()) {
-            return; // Superadmins bypass filters
+            log.trace("Admin user - Hibernate filters NOT applied");
+            return;
         }
         
-        List<String> companyIds = TenantContext.getCurrentCompanies();
-        if (companyIds.isEmpty()) {
-            return; // Customer user or no context
+        // Customers and unauthenticated calls have no companies
+        if (TenantContext.getCurrentCompanies().isEmpty()) {
+            log.trace("No companies in context - customer or unauthenticated user");
+            return;
         }
         
         Session session = entityManager.unwrap(Session.class);
-        
-        // Enable company filter
-        if (session.getEnabledFilter("companyFilter") == null) {
-            session.enableFilter("companyFilter")
-                .setParameterList("companyExternalIds", companyIds);
+        if (session.getEnabledFilter(COMPANY_FILTER) != null) {
+            return;
         }
+        
+        session.enableFilter(COMPANY_FILTER);
+        log.debug("Hibernate tenant filters enabled for companies: {}", TenantContext.getCurrentCompanies());
     }
 }
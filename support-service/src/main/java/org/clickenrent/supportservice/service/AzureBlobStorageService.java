@@ -0,0 +1,110 @@
+package org.clickenrent.supportservice.service;
+
+import com.azure.storage.blob.BlobClient;
+import com.azure.storage.blob.BlobContainerClient;
+import com.azure.storage.blob.BlobServiceClient;
+import com.azure.storage.blob.BlobServiceClientBuilder;
+import com.azure.storage.blob.models.BlobProperties;
+import com.azure.storage.blob.sas.BlobSasPermission;
+import com.azure.storage.blob.sas.BlobServiceSasSignatureValues;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Service for Azure Blob Storage operations on bike inspection photos.
+ * Photos are uploaded by clients directly through SAS URLs; this service never streams photo content itself.
+ */
+@Service
+@Slf4j
+public class AzureBlobStorageService {
+
+    @Value("${azure.storage.connection-string}")
+    private String connectionString;
+
+    @Value("${azure.storage.container-name}")
+    private String containerName;
+
+    private BlobServiceClient blobServiceClient;
+    private BlobContainerClient containerClient;
+
+    /**
+     * Initialize Azure Blob Storage clients.
+     */
+    private void initializeClients() {
+        if (blobServiceClient == null) {
+            blobServiceClient = new BlobServiceClientBuilder()
+                    .connectionString(connectionString)
+                    .buildClient();
+            containerClient = blobServiceClient.getBlobContainerClient(containerName);
+
+            // Create container if it doesn't exist
+            if (!containerClient.exists()) {
+                containerClient.create();
+                log.info("Created Azure Blob Storage container: {}", containerName);
+            }
+        }
+    }
+
+    /**
+     * Create a short-lived SAS URL that lets a client upload one blob directly to the container.
+     * The SAS only grants create on that blob name, so the blob cannot be overwritten once uploaded
+     * and validated by the completion call.
+     *
+     * @param blobName the blob the client may upload
+     * @param expiresAt when the SAS stops being accepted
+     * @return the blob URL including the SAS token
+     */
+    public String createUploadUrl(String blobName, OffsetDateTime expiresAt) {
+        initializeClients();
+
+        BlobClient blobClient = containerClient.getBlobClient(blobName);
+        BlobSasPermission permission = new BlobSasPermission()
+                .setCreatePermission(true);
+        String sasToken = blobClient.generateSas(new BlobServiceSasSignatureValues(expiresAt, permission));
+
+        return blobClient.getBlobUrl() + "?" + sasToken;
+    }
+
+    /**
+     * Get the URL of a blob in the photo container.
+     *
+     * @param blobName the blob name
+     * @return the blob URL (without SAS)
+     */
+    public String getBlobUrl(String blobName) {
+        initializeClients();
+        return containerClient.getBlobClient(blobName).getBlobUrl();
+    }
+
+    /**
+     * Get size and content type of an uploaded blob.
+     *
+     * @param blobName the blob name
+     * @return the blob properties, or null if the blob was never uploaded
+     */
+    public BlobProperties getBlobProperties(String blobName) {
+        initializeClients();
+
+        BlobClient blobClient = containerClient.getBlobClient(blobName);
+        return blobClient.exists() ? blobClient.getProperties() : null;
+    }
+
+    /**
+     * Delete a blob, e.g. an upload that failed validation.
+     *
+     * @param blobName the blob name
+     */
+    public void deleteBlob(String blobName) {
+        try {
+            initializeClients();
+            containerClient.getBlobClient(blobName).deleteIfExists();
+            log.info("Deleted blob from Azure Blob Storage: {}", blobName);
+        } catch (Exception e) {
+            log.error("Failed to delete blob from Azure Blob Storage: {}", blobName, e);
+            // Don't throw exception for delete failures
+        }
+    }
+}
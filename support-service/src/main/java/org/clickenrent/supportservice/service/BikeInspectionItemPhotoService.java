@@ -1,16 +1,29 @@
 package org.clickenrent.supportservice.service;
 
+import com.azure.storage.blob.models.BlobProperties;
 import lombok.RequiredArgsConstructor;
 import org.clickenrent.supportservice.dto.BikeInspectionItemPhotoDTO;
+import org.clickenrent.supportservice.dto.PhotoUploadUrlDTO;
+import org.clickenrent.supportservice.entity.BikeInspectionItem;
 import org.clickenrent.supportservice.entity.BikeInspectionItemPhoto;
+import org.clickenrent.supportservice.exception.PhotoValidationException;
 import org.clickenrent.supportservice.exception.ResourceNotFoundException;
 import org.clickenrent.supportservice.exception.UnauthorizedException;
 import org.clickenrent.supportservice.mapper.BikeInspectionItemPhotoMapper;
 import org.clickenrent.supportservice.repository.BikeInspectionItemPhotoRepository;
+import org.clickenrent.supportservice.repository.BikeInspectionItemRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.OffsetDateTime;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 /**
@@ -23,6 +36,18 @@ public class BikeInspectionItemPhotoService {
     private final BikeInspectionItemPhotoRepository bikeInspectionItemPhotoRepository;
     private final BikeInspectionItemPhotoMapper bikeInspectionItemPhotoMapper;
     private final SecurityService securityService;
+    private final BikeInspectionItemRepository bikeInspectionItemRepository;
+    private final AzureBlobStorageService azureBlobStorageService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${photo.max-size-mb:5}")
+    private int maxSizeMb = 5;
+
+    @Value("${photo.allowed-content-types:image/jpeg,image/png}")
+    private String allowedContentTypes = "image/jpeg,image/png";
+
+    @Value("${photo.upload-url.ttl-minutes:10}")
+    private long uploadUrlTtlMinutes = 10;
 
     @Transactional(readOnly = true)
     public List<BikeInspectionItemPhotoDTO> getAll() {
@@ -88,4 +113,103 @@ public class BikeInspectionItemPhotoService {
                 .orElseThrow(() -> new ResourceNotFoundException("BikeInspectionItemPhoto", "id", id));
         bikeInspectionItemPhotoRepository.delete(entity);
     }
+
+    /**
+     * Issue a short-lived SAS URL so the client can upload an inspection photo straight to Azure Storage.
+     * The upload is attached with {@link #completeUpload(Long, String)}.
+     *
+     * @param bikeInspectionItemId the bike inspection item the photo belongs to
+     * @param contentType the content type the client will upload
+     * @return the upload URL and the blob name to confirm
+     */
+    @Transactional(readOnly = true)
+    public PhotoUploadUrlDTO createUploadUrl(Long bikeInspectionItemId, String contentType) {
+        if (!securityService.isAdmin()) {
+            throw new UnauthorizedException("Only administrators can create bike inspection item photos");
+        }
+        if (!bikeInspectionItemRepository.existsById(bikeInspectionItemId)) {
+            throw new ResourceNotFoundException("BikeInspectionItem", "id", bikeInspectionItemId);
+        }
+        validateContentType(contentType);
+
+        String blobName = String.format("bike-inspection-item-%d_%s%s",
+                bikeInspectionItemId, UUID.randomUUID(), "image/png".equals(contentType) ? ".png" : ".jpg");
+        OffsetDateTime expiresAt = OffsetDateTime.now().plusMinutes(uploadUrlTtlMinutes);
+
+        return PhotoUploadUrlDTO.builder()
+                .uploadUrl(azureBlobStorageService.createUploadUrl(blobName, expiresAt))
+                .blobName(blobName)
+                .expiresAt(expiresAt)
+                .maxSizeBytes(maxSizeMb * 1024L * 1024L)
+                .requiredHeaders(Map.of("x-ms-blob-type", "BlockBlob", "Content-Type", contentType))
+                .build();
+    }
+
+    /**
+     * Validate a photo uploaded through a SAS URL and attach it to the bike inspection item.
+     * Invalid uploads are deleted from storage. Storage is checked outside any transaction, and completing
+     * the same blob again (a client retry) returns the photo already attached for it.
+     *
+     * @param bikeInspectionItemId the bike inspection item the upload URL was issued for
+     * @param blobName the blob name returned by {@link #createUploadUrl(Long, String)}
+     * @return the created photo
+     */
+    public BikeInspectionItemPhotoDTO completeUpload(Long bikeInspectionItemId, String blobName) {
+        if (!securityService.isAdmin()) {
+            throw new UnauthorizedException("Only administrators can create bike inspection item photos");
+        }
+        if (!blobName.startsWith("bike-inspection-item-" + bikeInspectionItemId + "_") || blobName.contains("/")) {
+            throw new PhotoValidationException("Blob " + blobName + " was not issued for this bike inspection item");
+        }
+
+        BikeInspectionItem item = transactionTemplate.execute(status -> bikeInspectionItemRepository
+                .findById(bikeInspectionItemId)
+                .orElseThrow(() -> new ResourceNotFoundException("BikeInspectionItem", "id", bikeInspectionItemId)));
+        Optional<BikeInspectionItemPhotoDTO> attached = findByBlobName(blobName);
+        if (attached.isPresent()) {
+            return attached.get();
+        }
+
+        BlobProperties properties = azureBlobStorageService.getBlobProperties(blobName);
+        if (properties == null) {
+            throw new PhotoValidationException("Photo " + blobName + " has not been uploaded");
+        }
+        try {
+            if (properties.getBlobSize() <= 0 || properties.getBlobSize() > maxSizeMb * 1024L * 1024L) {
+                throw new PhotoValidationException(String.format(
+                        "Photo size must be between 1 byte and %d MB. File size: %d bytes", maxSizeMb, properties.getBlobSize()));
+            }
+            validateContentType(properties.getContentType());
+        } catch (PhotoValidationException e) {
+            azureBlobStorageService.deleteBlob(blobName);
+            throw e;
+        }
+
+        BikeInspectionItemPhoto entity = BikeInspectionItemPhoto.builder()
+                .bikeInspectionItem(item)
+                .photoUrl(azureBlobStorageService.getBlobUrl(blobName))
+                .blobName(blobName)
+                .companyExternalId(item.getCompanyExternalId())
+                .build();
+        try {
+            return transactionTemplate.execute(status ->
+                    bikeInspectionItemPhotoMapper.toDto(bikeInspectionItemPhotoRepository.save(entity)));
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent retry of the same completion attached the blob first
+            return findByBlobName(blobName).orElseThrow(() -> e);
+        }
+    }
+
+    private Optional<BikeInspectionItemPhotoDTO> findByBlobName(String blobName) {
+        return transactionTemplate.execute(status -> bikeInspectionItemPhotoRepository.findByBlobName(blobName)
+                .map(bikeInspectionItemPhotoMapper::toDto));
+    }
+
+    private void validateContentType(String contentType) {
+        List<String> allowed = Arrays.asList(allowedContentTypes.split(","));
+        if (contentType == null || !allowed.contains(contentType)) {
+            throw new PhotoValidationException(String.format("Invalid photo content type: %s. Allowed types: %s",
+                    contentType, String.join(", ", allowed)));
+        }
+    }
 }
@@ -2,17 +2,29 @@ package org.clickenrent.supportservice.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.clickenrent.contracts.security.AuditEvent;
+import org.clickenrent.contracts.security.AuditService;
 import org.clickenrent.supportservice.client.BikeServiceClient;
+import org.clickenrent.supportservice.dto.BulkOperationResultDTO;
 import org.clickenrent.supportservice.dto.SupportRequestDTO;
 import org.clickenrent.supportservice.entity.SupportRequest;
+import org.clickenrent.supportservice.entity.SupportRequestStatus;
 import org.clickenrent.supportservice.exception.ResourceNotFoundException;
 import org.clickenrent.supportservice.exception.UnauthorizedException;
 import org.clickenrent.supportservice.mapper.SupportRequestMapper;
 import org.clickenrent.supportservice.repository.SupportRequestRepository;
+import org.clickenrent.supportservice.repository.SupportRequestStatusRepository;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -27,6 +39,11 @@ public class SupportRequestService {
     private final SupportRequestMapper supportRequestMapper;
     private final SecurityService securityService;
     private final BikeServiceClient bikeServiceClient;
+    private final SupportRequestStatusRepository supportRequestStatusRepository;
+    private final AuditService auditService;
+
+    @Value("${bulk.chunk-size:500}")
+    private int bulkChunkSize = 500;
 
     @Transactional(readOnly = true)
     public List<SupportRequestDTO> getAll() {
@@ -205,8 +222,78 @@ public class SupportRequestService {
         supportRequestRepository.delete(supportRequest);
         log.info("Deleted support request by externalId: {}", externalId);
     }
-}
 
+    /**
+     * Move many support requests to the same status (admin only).
+     * Runs one set-based UPDATE per chunk of IDs instead of loading and saving each request,
+     * and emits one audit event per chunk.
+     *
+     * @param externalIds Support request external IDs
+     * @param statusName Name of the target status
+     * @return Number of requested and actually updated support requests
+     */
+    @Transactional
+    public BulkOperationResultDTO bulkUpdateStatus(List<String> externalIds, String statusName) {
+        if (!securityService.isAdmin()) {
+            throw new UnauthorizedException("You don't have permission to perform bulk operations");
+        }
 
+        SupportRequestStatus status = supportRequestStatusRepository.findByName(statusName)
+                .orElseThrow(() -> new ResourceNotFoundException("SupportRequestStatus", "name", statusName));
 
+        List<String> ids = new ArrayList<>(new LinkedHashSet<>(externalIds));
+        String currentUser = securityService.getCurrentUserExternalId();
+        int updated = 0;
+        int batches = 0;
 
+        for (int from = 0; from < ids.size(); from += bulkChunkSize) {
+            List<String> chunk = ids.subList(from, Math.min(from + bulkChunkSize, ids.size()));
+
+            List<String> existing = supportRequestRepository.findExistingExternalIds(chunk);
+            if (existing.size() < chunk.size()) {
+                Set<String> found = new HashSet<>(existing);
+                throw new ResourceNotFoundException("SupportRequest not found: "
+                        + chunk.stream().filter(id -> !found.contains(id)).toList());
+            }
+
+            int chunkUpdated = supportRequestRepository.updateStatusByExternalIds(
+                    chunk, status, LocalDateTime.now(), currentUser != null ? currentUser : "system");
+            updated += chunkUpdated;
+            batches++;
+            logBulkAuditEvent(currentUser, statusName, chunk, chunkUpdated);
+        }
+
+        log.info("Bulk status update to {}: updated {} of {} support requests in {} batches",
+                statusName, updated, ids.size(), batches);
+
+        return BulkOperationResultDTO.builder()
+                .operation("SUPPORT_REQUEST_STATUS_UPDATE")
+                .requested(ids.size())
+                .updated(updated)
+                .batches(batches)
+                .build();
+    }
+
+    private void logBulkAuditEvent(String userExternalId, String statusName, List<String> chunk, int updated) {
+        try {
+            AuditEvent event = AuditEvent.builder()
+                    .eventType(AuditEvent.EventType.ADMIN_ACTION)
+                    .userExternalId(userExternalId)
+                    .resourceType("SupportRequest")
+                    .serviceName("support-service")
+                    .success(true)
+                    .allowed(true)
+                    .message(String.format("SUPPORT_REQUEST_STATUS_UPDATE: %d of %d support requests moved to status %s",
+                            updated, chunk.size(), statusName))
+                    .metadata(Map.of(
+                            "operation", "SUPPORT_REQUEST_STATUS_UPDATE",
+                            "updated", updated,
+                            "externalIds", List.copyOf(chunk)))
+                    .build();
+
+            auditService.logEvent(event);
+        } catch (Exception e) {
+            log.warn("Failed to log audit event for bulk status update: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package org.clickenrent.supportservice.security;
+
+import org.clickenrent.contracts.security.TenantContext;
+import org.clickenrent.supportservice.entity.BikeUnit;
+import org.clickenrent.supportservice.repository.BikeUnitRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs repository queries through HibernateFilterConfig against H2 and checks which rows the tenant filter lets through.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({HibernateFilterConfig.class, TenantFilterRepositoryTest.AspectConfig.class})
+class TenantFilterRepositoryTest {
+
+    @TestConfiguration
+    @EnableAspectJAutoProxy
+    static class AspectConfig {
+    }
+
+    @Autowired
+    private BikeUnitRepository bikeUnitRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        TenantContext.clear();
+        insertBikeUnit(1, "company-a");
+        insertBikeUnit(2, "company-a");
+        insertBikeUnit(3, "company-b");
+        insertBikeUnit(4, "company-c");
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    void companyFilter_ReturnsRowsOfAllCallerCompanies() {
+        TenantContext.setCurrentCompanies(List.of("company-a", "company-c"));
+
+        List<BikeUnit> rows = bikeUnitRepository.findAll();
+
+        assertEquals(List.of("unit-1", "unit-2", "unit-4"), rows.stream().map(BikeUnit::getExternalId).sorted().toList());
+    }
+
+    @Test
+    void companyFilter_ResolvesCompaniesForEachQuery() {
+        TenantContext.setCurrentCompanies(List.of("company-a"));
+        assertEquals(2, bikeUnitRepository.findAll().size());
+
+        // Same session, filter already enabled: the companies are read again from the context
+        TenantContext.setCurrentCompanies(List.of("company-b"));
+        List<BikeUnit> rows = bikeUnitRepository.findAll();
+
+        assertEquals(List.of("unit-3"), rows.stream().map(BikeUnit::getExternalId).toList());
+    }
+
+    @Test
+    void companyFilter_WhenContextLosesCompaniesAfterEnabling_ReturnsNothing() {
+        TenantContext.setCurrentCompanies(List.of("company-a"));
+        assertEquals(2, bikeUnitRepository.findAll().size());
+
+        // TenantCompanyResolver binds NO_COMPANIES instead of an empty IN list
+        TenantContext.setCurrentCompanies(List.of());
+
+        assertTrue(bikeUnitRepository.findAll().isEmpty());
+    }
+
+    @Test
+    void superAdmin_SeesAllRows() {
+        TenantContext.setSuperAdmin(true);
+
+        assertEquals(4, bikeUnitRepository.findAll().size());
+    }
+
+    private void insertBikeUnit(long id, String companyExternalId) {
+        jdbcTemplate.update("INSERT INTO bike_unit (id, external_id, name, company_external_id, date_created, is_deleted) " +
+                "VALUES (?, ?, 'Frame', ?, CURRENT_TIMESTAMP, false)",
+                id, "unit-" + id, companyExternalId);
+    }
+}
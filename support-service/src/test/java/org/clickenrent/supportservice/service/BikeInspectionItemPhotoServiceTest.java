@@ -1,20 +1,28 @@
 package org.clickenrent.supportservice.service;
 
+import com.azure.storage.blob.models.BlobProperties;
 import org.clickenrent.supportservice.dto.BikeInspectionItemPhotoDTO;
+import org.clickenrent.supportservice.dto.PhotoUploadUrlDTO;
 import org.clickenrent.supportservice.entity.BikeInspection;
 import org.clickenrent.supportservice.entity.BikeInspectionItem;
 import org.clickenrent.supportservice.entity.BikeInspectionItemPhoto;
 import org.clickenrent.supportservice.entity.BikeInspectionItemStatus;
+import org.clickenrent.supportservice.exception.PhotoValidationException;
 import org.clickenrent.supportservice.exception.ResourceNotFoundException;
 import org.clickenrent.supportservice.exception.UnauthorizedException;
 import org.clickenrent.supportservice.mapper.BikeInspectionItemPhotoMapper;
 import org.clickenrent.supportservice.repository.BikeInspectionItemPhotoRepository;
+import org.clickenrent.supportservice.repository.BikeInspectionItemRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.Arrays;
 import java.util.List;
@@ -22,6 +30,7 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -36,6 +45,15 @@ class BikeInspectionItemPhotoServiceTest {
     @Mock
     private SecurityService securityService;
 
+    @Mock
+    private BikeInspectionItemRepository bikeInspectionItemRepository;
+
+    @Mock
+    private AzureBlobStorageService azureBlobStorageService;
+
+    @Spy
+    private TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+
     @InjectMocks
     private BikeInspectionItemPhotoService bikeInspectionItemPhotoService;
 
@@ -193,4 +211,101 @@ class BikeInspectionItemPhotoServiceTest {
 
         assertThrows(UnauthorizedException.class, () -> bikeInspectionItemPhotoService.delete(1L));
     }
+
+    @Test
+    void createUploadUrl_ReturnsSasUrlForItem() {
+        when(securityService.isAdmin()).thenReturn(true);
+        when(bikeInspectionItemRepository.existsById(1L)).thenReturn(true);
+        when(azureBlobStorageService.createUploadUrl(any(), any())).thenReturn("https://storage/blob?sig=x");
+
+        PhotoUploadUrlDTO result = bikeInspectionItemPhotoService.createUploadUrl(1L, "image/jpeg");
+
+        assertEquals("https://storage/blob?sig=x", result.getUploadUrl());
+        assertTrue(result.getBlobName().startsWith("bike-inspection-item-1_"));
+        assertTrue(result.getBlobName().endsWith(".jpg"));
+        assertEquals("image/jpeg", result.getRequiredHeaders().get("Content-Type"));
+    }
+
+    @Test
+    void createUploadUrl_WithUnsupportedContentType_ThrowsPhotoValidation() {
+        when(securityService.isAdmin()).thenReturn(true);
+        when(bikeInspectionItemRepository.existsById(1L)).thenReturn(true);
+
+        assertThrows(PhotoValidationException.class,
+                () -> bikeInspectionItemPhotoService.createUploadUrl(1L, "application/pdf"));
+        verify(azureBlobStorageService, never()).createUploadUrl(any(), any());
+    }
+
+    @Test
+    void completeUpload_WithValidBlob_CreatesPhoto() {
+        String blobName = "bike-inspection-item-1_abc.jpg";
+        BlobProperties properties = mock(BlobProperties.class);
+        when(properties.getBlobSize()).thenReturn(2048L);
+        when(properties.getContentType()).thenReturn("image/jpeg");
+        when(securityService.isAdmin()).thenReturn(true);
+        when(bikeInspectionItemRepository.findById(1L)).thenReturn(Optional.of(testEntity.getBikeInspectionItem()));
+        when(azureBlobStorageService.getBlobProperties(blobName)).thenReturn(properties);
+        when(azureBlobStorageService.getBlobUrl(blobName)).thenReturn("https://storage/" + blobName);
+        when(bikeInspectionItemPhotoRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(bikeInspectionItemPhotoMapper.toDto(any())).thenReturn(testDTO);
+
+        BikeInspectionItemPhotoDTO result = bikeInspectionItemPhotoService.completeUpload(1L, blobName);
+
+        assertNotNull(result);
+        verify(bikeInspectionItemPhotoRepository).save(argThat(photo ->
+                photo.getPhotoUrl().equals("https://storage/" + blobName)
+                        && photo.getBlobName().equals(blobName)
+                        && photo.getCompanyExternalId().equals("company-uuid-1")));
+    }
+
+    @Test
+    void completeUpload_Retried_ReturnsAttachedPhotoWithoutCheckingStorage() {
+        String blobName = "bike-inspection-item-1_abc.jpg";
+        when(securityService.isAdmin()).thenReturn(true);
+        when(bikeInspectionItemRepository.findById(1L)).thenReturn(Optional.of(testEntity.getBikeInspectionItem()));
+        when(bikeInspectionItemPhotoRepository.findByBlobName(blobName)).thenReturn(Optional.of(testEntity));
+        when(bikeInspectionItemPhotoMapper.toDto(testEntity)).thenReturn(testDTO);
+
+        BikeInspectionItemPhotoDTO result = bikeInspectionItemPhotoService.completeUpload(1L, blobName);
+
+        assertSame(testDTO, result);
+        verifyNoInteractions(azureBlobStorageService);
+        verify(bikeInspectionItemPhotoRepository, never()).save(any());
+    }
+
+    @Test
+    void completeUpload_ConcurrentRetryAttachedFirst_ReturnsThatPhoto() {
+        String blobName = "bike-inspection-item-1_abc.jpg";
+        BlobProperties properties = mock(BlobProperties.class);
+        when(properties.getBlobSize()).thenReturn(2048L);
+        when(properties.getContentType()).thenReturn("image/jpeg");
+        when(securityService.isAdmin()).thenReturn(true);
+        when(bikeInspectionItemRepository.findById(1L)).thenReturn(Optional.of(testEntity.getBikeInspectionItem()));
+        when(bikeInspectionItemPhotoRepository.findByBlobName(blobName))
+                .thenReturn(Optional.empty(), Optional.of(testEntity));
+        when(azureBlobStorageService.getBlobProperties(blobName)).thenReturn(properties);
+        when(azureBlobStorageService.getBlobUrl(blobName)).thenReturn("https://storage/" + blobName);
+        when(bikeInspectionItemPhotoRepository.save(any()))
+                .thenThrow(new DataIntegrityViolationException("duplicate key value violates unique constraint"));
+        when(bikeInspectionItemPhotoMapper.toDto(testEntity)).thenReturn(testDTO);
+
+        assertSame(testDTO, bikeInspectionItemPhotoService.completeUpload(1L, blobName));
+        verify(azureBlobStorageService, never()).deleteBlob(any());
+    }
+
+    @Test
+    void completeUpload_WithWrongContentType_DeletesBlob() {
+        String blobName = "bike-inspection-item-1_abc.jpg";
+        BlobProperties properties = mock(BlobProperties.class);
+        when(properties.getBlobSize()).thenReturn(2048L);
+        when(properties.getContentType()).thenReturn("text/html");
+        when(securityService.isAdmin()).thenReturn(true);
+        when(bikeInspectionItemRepository.findById(1L)).thenReturn(Optional.of(testEntity.getBikeInspectionItem()));
+        when(azureBlobStorageService.getBlobProperties(blobName)).thenReturn(properties);
+
+        assertThrows(PhotoValidationException.class,
+                () -> bikeInspectionItemPhotoService.completeUpload(1L, blobName));
+        verify(azureBlobStorageService).deleteBlob(blobName);
+        verify(bikeInspectionItemPhotoRepository, never()).save(any());
+    }
 }
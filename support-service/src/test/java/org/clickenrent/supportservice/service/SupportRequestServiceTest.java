@@ -1,5 +1,7 @@
 package org.clickenrent.supportservice.service;
 
+import org.clickenrent.contracts.security.AuditService;
+import org.clickenrent.supportservice.dto.BulkOperationResultDTO;
 import org.clickenrent.supportservice.dto.SupportRequestDTO;
 import org.clickenrent.supportservice.entity.SupportRequest;
 import org.clickenrent.supportservice.entity.SupportRequestStatus;
@@ -7,6 +9,7 @@ import org.clickenrent.supportservice.exception.ResourceNotFoundException;
 import org.clickenrent.supportservice.exception.UnauthorizedException;
 import org.clickenrent.supportservice.mapper.SupportRequestMapper;
 import org.clickenrent.supportservice.repository.SupportRequestRepository;
+import org.clickenrent.supportservice.repository.SupportRequestStatusRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -34,6 +37,12 @@ class SupportRequestServiceTest {
     @Mock
     private SecurityService securityService;
 
+    @Mock
+    private SupportRequestStatusRepository supportRequestStatusRepository;
+
+    @Mock
+    private AuditService auditService;
+
     @InjectMocks
     private SupportRequestService supportRequestService;
 
@@ -260,8 +269,43 @@ class SupportRequestServiceTest {
 
         assertThrows(UnauthorizedException.class, () -> supportRequestService.delete(1L));
     }
-}
 
+    @Test
+    void bulkUpdateStatus_AsAdmin_UpdatesWithSingleStatementPerChunk() {
+        List<String> ids = List.of("sr-1", "sr-2", "sr-2");
+        when(securityService.isAdmin()).thenReturn(true);
+        when(securityService.getCurrentUserExternalId()).thenReturn("admin-uuid");
+        when(supportRequestStatusRepository.findByName("OPEN")).thenReturn(Optional.of(testStatus));
+        when(supportRequestRepository.findExistingExternalIds(List.of("sr-1", "sr-2"))).thenReturn(List.of("sr-1", "sr-2"));
+        when(supportRequestRepository.updateStatusByExternalIds(eq(List.of("sr-1", "sr-2")), eq(testStatus), any(), eq("admin-uuid")))
+                .thenReturn(1);
+
+        BulkOperationResultDTO result = supportRequestService.bulkUpdateStatus(ids, "OPEN");
+
+        assertEquals(2, result.getRequested());
+        assertEquals(1, result.getUpdated());
+        assertEquals(1, result.getBatches());
+        verify(supportRequestRepository, never()).save(any());
+        verify(auditService, times(1)).logEvent(any());
+    }
+
+    @Test
+    void bulkUpdateStatus_WithUnknownId_ThrowsNotFound() {
+        when(securityService.isAdmin()).thenReturn(true);
+        when(supportRequestStatusRepository.findByName("OPEN")).thenReturn(Optional.of(testStatus));
+        when(supportRequestRepository.findExistingExternalIds(List.of("sr-1", "missing"))).thenReturn(List.of("sr-1"));
 
+        assertThrows(ResourceNotFoundException.class,
+                () -> supportRequestService.bulkUpdateStatus(List.of("sr-1", "missing"), "OPEN"));
+        verify(supportRequestRepository, never()).updateStatusByExternalIds(any(), any(), any(), any());
+    }
 
+    @Test
+    void bulkUpdateStatus_AsNonAdmin_ThrowsUnauthorized() {
+        when(securityService.isAdmin()).thenReturn(false);
 
+        assertThrows(UnauthorizedException.class,
+                () -> supportRequestService.bulkUpdateStatus(List.of("sr-1"), "OPEN"));
+        verify(supportRequestRepository, never()).updateStatusByExternalIds(any(), any(), any(), any());
+    }
+}